@@ -307,7 +307,7 @@ def main(argv=None):
    for file in os.listdir(indir):
       if file.endswith("activityFactors.txt"):
          activityFactorFiles.append(indir+file)
-      if file.endswith("personFactors.txt"):
+      if file.endswith("personFactors.txt") or file.endswith("personFactors.bin"):
          personFactorFiles.append(indir+file)
       if file.startswith("m0friendList"):
          friendsFiles.append(indir+file)
@@ -1,6 +1,7 @@
 import sys
 import getopt
 import codecs
+import struct
 
 FACTORS = ["f", "ff", "fp", "fpt", "ffg", "p", "pl", "pt", "pr", "g", "w", "ffw", "ffp", "fw", "fg", "ffpt", "fpr", "org"]
 
@@ -53,6 +54,34 @@ class NameParameter:
 	def getValue(self, person):
 		return self.values[person]
 
+def readBinaryPersonFactors(inputfileName):
+	# person factors written by FactorTable.writeBinaryPersonFactors, returned as the fields of the text rows
+	with open(inputfileName, "rb") as f:
+		data = f.read()
+	rows = []
+	offset = 0
+	while offset < len(data):
+		(person, nameLength) = struct.unpack_from(">qH", data, offset)
+		offset += 10
+		row = [person, data[offset:offset+nameLength].decode("utf-8")]
+		offset += nameLength
+		(numCounts,) = struct.unpack_from(">i", data, offset)
+		offset += 4
+		row.extend(struct.unpack_from(">%dq" % numCounts, data, offset))
+		offset += 8*numCounts
+		(numMonths,) = struct.unpack_from(">i", data, offset)
+		offset += 4
+		row.extend(struct.unpack_from(">%dq" % (2*numMonths), data, offset))
+		offset += 16*numMonths
+		rows.append(row)
+	return rows
+
+def readPersonFactors(inputfileName):
+	if inputfileName.endswith(".bin"):
+		return readBinaryPersonFactors(inputfileName)
+	with codecs.open(inputfileName, "r", "utf-8") as f:
+		return [line.split(",") for line in f.readlines()]
+
 def load(personFactorFiles,activityFactorFiles, friendFiles):
 	print "loading input for parameter generation"
 	results = Factors()
@@ -66,25 +95,23 @@ def load(personFactorFiles,activityFactorFiles, friendFiles):
 	timestamp = [0,0,0,0]
 
 	for inputfileName in personFactorFiles:
-		with codecs.open(inputfileName, "r", "utf-8") as f:
-			for line in f.readlines():
-				line = line.split(",")
-				person = int(line[0])
-				if not results.existParam(person):
-					results.addNewParam(person)
-				name = line[1]
-				givenNames.setValue(person, name)
-				results.addValue(person, "f", int(line[2]))
-				results.addValue(person, "p", int(line[3]))
-				results.addValue(person, "pl", int(line[4]))
-				results.addValue(person, "pt", int(line[5]))
-				results.addValue(person, "g", int(line[6]))
-				results.addValue(person, "w", int(line[7]))
-				results.addValue(person, "pr", int(line[8]))
-				for i in range((len(line)-9)/2):
-					if not postsHisto.existParam(i):
-						postsHisto.addNewParam(i)
-					postsHisto.addValue(i, "p", int(line[9+i]))
+		for line in readPersonFactors(inputfileName):
+			person = int(line[0])
+			if not results.existParam(person):
+				results.addNewParam(person)
+			name = line[1]
+			givenNames.setValue(person, name)
+			results.addValue(person, "f", int(line[2]))
+			results.addValue(person, "p", int(line[3]))
+			results.addValue(person, "pl", int(line[4]))
+			results.addValue(person, "pt", int(line[5]))
+			results.addValue(person, "g", int(line[6]))
+			results.addValue(person, "w", int(line[7]))
+			results.addValue(person, "pr", int(line[8]))
+			for i in range((len(line)-9)/2):
+				if not postsHisto.existParam(i):
+					postsHisto.addNewParam(i)
+				postsHisto.addValue(i, "p", int(line[9+i]))
 
 	for inputFileName in activityFactorFiles:
 		with codecs.open(inputFileName, "r", "utf-8") as f:
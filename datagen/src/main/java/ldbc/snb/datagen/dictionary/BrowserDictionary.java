@@ -38,9 +38,7 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -60,18 +58,13 @@ public class BrowserDictionary {
 
     private void load(String fileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-            String line;
             double cummulativeDist = 0.0;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR_);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR_)) {
                 String browser = data[0];
                 cummulativeDist += Double.parseDouble(data[1]);
                 browsers_.add(browser);
                 cumulativeDistribution_.add(cummulativeDist);
             }
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
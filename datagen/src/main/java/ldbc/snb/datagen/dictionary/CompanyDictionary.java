@@ -39,9 +39,7 @@ package ldbc.snb.datagen.dictionary;
 import ldbc.snb.datagen.generator.DatagenParams;
 import ldbc.snb.datagen.util.RandomGeneratorFarm;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.TreeMap;
@@ -95,13 +93,9 @@ public class CompanyDictionary {
      */
     private void load(String fileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-            String line;
             int currentId = -1;
             long totalNumCompanies = 0;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 String locationName = data[0];
                 String companyName = data[1].trim();
                 if (placeDictionary.getCountryId(locationName) != PlaceDictionary.INVALID_LOCATION) {
@@ -112,7 +106,6 @@ public class CompanyDictionary {
                     totalNumCompanies++;
                 }
             }
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,314 @@
+package ldbc.snb.datagen.dictionary;
+
+import ldbc.snb.datagen.generator.LDBCDatagen;
+import ldbc.snb.datagen.util.ConfigParser;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Snapshot of the dictionary resources, already split into fields, so that tasks build the dictionaries without
+ * decoding and splitting the text files. The dictionaries read their resources through rows(), which serves the
+ * rows from the loaded snapshot, or parses the text resource when there is no snapshot.
+ * <p>
+ * A snapshot is built by calling record() before loading the dictionaries from text and write() afterwards, which
+ * stores every table the dictionaries asked for. LDBCDatagen.main does so at run time, while loading the
+ * dictionaries of the driver, and passes the snapshot to the tasks. Field values are stored once in a string table,
+ * so the names of countries, cities, tags... repeated across resources are shared by all the dictionaries:
+ * <pre>
+ * file   := "LDBCDIC2" byte[32]:sourceHash int:numStrings int:numTables
+ *           int[numStrings]:stringOffset (int:key int:tableOffset)[numTables] string[numStrings] table[numTables]
+ * string := int:length byte[length]
+ * table  := int:numRows (int:numFields int[numFields])[numRows]     (key and fields index the strings)
+ * </pre>
+ * Offsets are from the start of the file. The source hash is the SHA-256 of the text resources of the tables, so
+ * a snapshot built from other dictionaries is rejected on load.
+ * <p>
+ * Local snapshots are memory mapped, others are read through the Hadoop file system. Only the offsets are read on
+ * load: tables are decoded from the buffer when rows() asks for them, and each string is decoded once.
+ */
+public class DictionarySnapshot {
+
+    private static final byte[] MAGIC = "LDBCDIC2".getBytes(StandardCharsets.US_ASCII);
+    private static final int HASH_LENGTH = 32;
+    private static final int HEADER_LENGTH = MAGIC.length + HASH_LENGTH + 8;
+
+    private static Map<String, String[][]> recorded = null;
+    private static Map<String, String> strings = new HashMap<String, String>();
+
+    // loaded snapshot, null if there is none
+    private static ByteBuffer snapshot = null;
+    private static String[] decoded = null;
+    private static Map<String, Integer> tableOffsets = new HashMap<String, Integer>();
+
+    private static String key(String resource, String separator, int maxRows) {
+        return resource + "\0" + separator + "\0" + maxRows;
+    }
+
+    private static String resource(String key) {
+        return key.substring(0, key.indexOf('\0'));
+    }
+
+    /**
+     * @param resource  class path resource of the dictionary
+     * @param separator regular expression fields are separated by, as in String.split
+     * @return the fields of every line of the resource
+     */
+    public static String[][] rows(String resource, String separator) throws IOException {
+        return rows(resource, separator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxRows maximum number of lines to read
+     */
+    public static synchronized String[][] rows(String resource, String separator, int maxRows) throws IOException {
+        String key = key(resource, separator, maxRows);
+        Integer offset = tableOffsets.get(key);
+        String[][] rows = offset != null ? table(offset) : parse(resource, separator, maxRows);
+        if (recorded != null) {
+            recorded.put(key, rows);
+        }
+        return rows;
+    }
+
+    private static String intern(String value) {
+        String interned = strings.get(value);
+        if (interned == null) {
+            strings.put(value, value);
+            interned = value;
+        }
+        return interned;
+    }
+
+    private static InputStream open(String resource) throws IOException {
+        InputStream stream = DictionarySnapshot.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IOException("Dictionary resource not found: " + resource);
+        }
+        return stream;
+    }
+
+    private static String[][] parse(String resource, String separator, int maxRows) throws IOException {
+        ArrayList<String[]> rows = new ArrayList<String[]>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(resource), "UTF-8"))) {
+            String line;
+            while (rows.size() < maxRows && (line = reader.readLine()) != null) {
+                String[] fields = line.split(separator);
+                for (int i = 0; i < fields.length; ++i) {
+                    fields[i] = intern(fields[i]);
+                }
+                rows.add(fields);
+            }
+        }
+        return rows.toArray(new String[rows.size()][]);
+    }
+
+    /**
+     * @return SHA-256 of the names and contents of the resources of the tables
+     */
+    private static byte[] sourceHash(Collection<String> keys) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        Set<String> resources = new LinkedHashSet<String>();
+        for (String key : keys) {
+            resources.add(resource(key));
+        }
+        byte[] buffer = new byte[1 << 16];
+        for (String resource : resources) {
+            digest.update(resource.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            try (InputStream in = open(resource)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Starts recording the tables read by the dictionaries, to write them with write()
+     */
+    public static synchronized void record() {
+        recorded = new LinkedHashMap<String, String[][]>();
+    }
+
+    /**
+     * Drops the snapshot and the strings kept for the dictionaries, once they are loaded
+     */
+    public static synchronized void release() {
+        snapshot = null;
+        decoded = null;
+        tableOffsets = new HashMap<String, Integer>();
+        strings = new HashMap<String, String>();
+    }
+
+    /**
+     * Writes the tables recorded since record() was called
+     */
+    public static synchronized void write(Configuration conf, String file) throws IOException {
+        if (recorded == null) {
+            throw new IllegalStateException("Dictionary tables were not recorded");
+        }
+        Map<String, Integer> codes = new HashMap<String, Integer>();
+        List<String> table = new ArrayList<String>();
+        for (Map.Entry<String, String[][]> entry : recorded.entrySet()) {
+            code(codes, table, entry.getKey());
+            for (String[] row : entry.getValue()) {
+                for (String field : row) {
+                    code(codes, table, field);
+                }
+            }
+        }
+
+        int dataOffset = HEADER_LENGTH + 4 * table.size() + 8 * recorded.size();
+        ByteArrayOutputStream data = new ByteArrayOutputStream(1 << 20);
+        DataOutputStream dataOut = new DataOutputStream(data);
+        int[] stringOffsets = new int[table.size()];
+        for (int i = 0; i < table.size(); ++i) {
+            stringOffsets[i] = dataOffset + dataOut.size();
+            byte[] bytes = table.get(i).getBytes(StandardCharsets.UTF_8);
+            dataOut.writeInt(bytes.length);
+            dataOut.write(bytes);
+        }
+        int[] tableOffsets = new int[recorded.size()];
+        int t = 0;
+        for (String[][] rows : recorded.values()) {
+            tableOffsets[t++] = dataOffset + dataOut.size();
+            dataOut.writeInt(rows.length);
+            for (String[] row : rows) {
+                dataOut.writeInt(row.length);
+                for (String field : row) {
+                    dataOut.writeInt(codes.get(field));
+                }
+            }
+        }
+        dataOut.flush();
+
+        FileSystem fs = FileSystem.get(conf);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fs.create(new Path(file), true), 1 << 16))) {
+            out.write(MAGIC);
+            out.write(sourceHash(recorded.keySet()));
+            out.writeInt(table.size());
+            out.writeInt(recorded.size());
+            for (int offset : stringOffsets) {
+                out.writeInt(offset);
+            }
+            t = 0;
+            for (String key : recorded.keySet()) {
+                out.writeInt(codes.get(key));
+                out.writeInt(tableOffsets[t++]);
+            }
+            data.writeTo(out);
+        }
+        recorded = null;
+    }
+
+    private static void code(Map<String, Integer> codes, List<String> table, String value) {
+        if (!codes.containsKey(value)) {
+            codes.put(value, table.size());
+            table.add(value);
+        }
+    }
+
+    private static ByteBuffer map(Configuration conf, String file) throws IOException {
+        File local = new File(file);
+        if (local.isFile()) {
+            try (FileChannel channel = new RandomAccessFile(local, "r").getChannel()) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        FileSystem fs = FileSystem.get(conf);
+        Path path = new Path(file);
+        byte[] bytes = new byte[(int) fs.getFileStatus(path).getLen()];
+        try (DataInputStream in = new DataInputStream(fs.open(path))) {
+            in.readFully(bytes);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static String string(int code) {
+        String value = decoded[code];
+        if (value == null) {
+            int offset = snapshot.getInt(HEADER_LENGTH + 4 * code);
+            byte[] bytes = new byte[snapshot.getInt(offset)];
+            ByteBuffer view = snapshot.duplicate();
+            view.position(offset + 4);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            decoded[code] = value;
+        }
+        return value;
+    }
+
+    private static String[][] table(int offset) {
+        String[][] rows = new String[snapshot.getInt(offset)][];
+        offset += 4;
+        for (int r = 0; r < rows.length; ++r) {
+            String[] row = new String[snapshot.getInt(offset)];
+            offset += 4;
+            for (int f = 0; f < row.length; ++f) {
+                row[f] = string(snapshot.getInt(offset));
+                offset += 4;
+            }
+            rows[r] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * Loads a snapshot, whose tables are then served by rows()
+     *
+     * @throws IOException if the file is not a snapshot or was built from other dictionary resources
+     */
+    public static synchronized void load(Configuration conf, String file) throws IOException {
+        ByteBuffer buffer = map(conf, file);
+        byte[] magic = new byte[MAGIC.length];
+        byte[] hash = new byte[HASH_LENGTH];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a dictionary snapshot: " + file);
+        }
+        buffer.get(hash);
+        int numStrings = buffer.getInt();
+        int numTables = buffer.getInt();
+
+        snapshot = buffer;
+        decoded = new String[numStrings];
+        Map<String, Integer> offsets = new LinkedHashMap<String, Integer>();
+        int directory = HEADER_LENGTH + 4 * numStrings;
+        for (int t = 0; t < numTables; ++t) {
+            offsets.put(string(buffer.getInt(directory + 8 * t)), buffer.getInt(directory + 8 * t + 4));
+        }
+        if (!Arrays.equals(hash, sourceHash(offsets.keySet()))) {
+            release();
+            throw new IOException("Dictionary snapshot built from other dictionaries: " + file);
+        }
+        tableOffsets = offsets;
+    }
+
+    /**
+     * Builds a snapshot ahead of time: DictionarySnapshot params.ini snapshotFile
+     */
+    public static void main(String[] args) throws IOException {
+        Configuration conf = ConfigParser.initialize();
+        ConfigParser.readConfig(conf, args[0]);
+        ConfigParser.readConfig(conf, LDBCDatagen.class.getResourceAsStream("/params.ini"));
+        record();
+        LDBCDatagen.init(conf);
+        write(conf, args[1]);
+    }
+}
@@ -38,9 +38,7 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -68,23 +66,17 @@ public class EmailDictionary {
      */
     private void load(String fileName) {
         try {
-            BufferedReader emailDictionary = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
             emails = new ArrayList<String>();
             cumulativeDistribution = new ArrayList<Double>();
 
-            String line;
             double cummulativeDist = 0.0;
-            while ((line = emailDictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 emails.add(data[0]);
                 if (data.length == 2) {
                     cummulativeDist += Double.parseDouble(data[1]);
                     cumulativeDistribution.add(cummulativeDist);
                 }
             }
-            emailDictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -40,9 +40,7 @@ import ldbc.snb.datagen.generator.DatagenParams;
 import ldbc.snb.datagen.generator.DateGenerator;
 import ldbc.snb.datagen.objects.IP;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
@@ -87,17 +85,13 @@ public class IPAddressDictionary {
      * @breif Loads dictionary.
      */
     private void load(String mappingFileName, String baseIPdir) {
-        String line;
         HashMap<String, String> countryAbbreMap = new HashMap<String, String>();
         try {
-            BufferedReader mappingFile = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(mappingFileName), "UTF-8"));
-            while ((line = mappingFile.readLine()) != null) {
-                String data[] = line.split(SEPARATOR_COUNTRY);
+            for (String data[] : DictionarySnapshot.rows(mappingFileName, SEPARATOR_COUNTRY)) {
                 String abbr = data[0];
                 String countryName = data[1].trim().replace(" ", "_");
                 countryAbbreMap.put(countryName, abbr);
             }
-            mappingFile.close();
 
             ArrayList<Integer> countries = placeDictionary.getCountries();
             for (int i = 0; i < countries.size(); i++) {
@@ -106,11 +100,7 @@ public class IPAddressDictionary {
                 //Get the name of file
                 String fileName = countryAbbreMap.get(placeDictionary.getPlaceName(countries.get(i)));
                 fileName = baseIPdir + "/" + fileName + ".zone";
-                BufferedReader ipZoneFile = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
-                int j = 0;
-                while ((line = ipZoneFile.readLine()) != null && (j < MAX_IP_COUNTRY)) {
-                    String data[] = line.split(SEPARATOR_IP);
+                for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR_IP, MAX_IP_COUNTRY)) {
                     String maskData[] = data[3].split(SEPARATOR_MASK);
                     int byte1 = Integer.valueOf(data[0]);
                     int byte2 = Integer.valueOf(data[1]);
@@ -122,9 +112,7 @@ public class IPAddressDictionary {
 
                     ipsByCountry.get(i).add(ip);
                     ipCountry.put(ip.getIp() & ~ip.getMask(), i);
-                    j++;
                 }
-                ipZoneFile.close();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -38,9 +38,7 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
@@ -100,10 +98,7 @@ public class LanguageDictionary {
                 officalLanguagesByCountry.put(id, new ArrayList<Integer>());
                 languagesByCountry.put(id, new ArrayList<Integer>());
             }
-            BufferedReader dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 if (placeDictionary.getCountryId(data[0]) != PlaceDictionary.INVALID_LOCATION) {
                     for (int i = 1; i < data.length; i++) {
                         Integer countryId = placeDictionary.getCountryId(data[0]);
@@ -120,7 +115,6 @@ public class LanguageDictionary {
                     }
                 }
             }
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
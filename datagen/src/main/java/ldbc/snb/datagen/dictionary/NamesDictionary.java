@@ -39,9 +39,7 @@ package ldbc.snb.datagen.dictionary;
 import ldbc.snb.datagen.generator.DatagenParams;
 import umontreal.iro.lecuyer.probdist.GeometricDist;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Random;
 import java.util.Vector;
@@ -94,13 +92,8 @@ public class NamesDictionary {
 	
 	public void extractSurNames() {
 		try {
-		    BufferedReader surnameDictionary  = new BufferedReader(
-		            new InputStreamReader(getClass( ).getResourceAsStream(DatagenParams.surnamDictionaryFile), "UTF-8"));
-		    
-		    String line;
 	        int totalSurNames = 0;
-			while ((line = surnameDictionary.readLine()) != null) {
-			    String infos[] = line.split(",");
+			for (String infos[] : DictionarySnapshot.rows(DatagenParams.surnamDictionaryFile, ",")) {
 			    String locationName = infos[1];
 				int locationId = locationDic.getCountryId(locationName);
 				if( locationId != locationDic.INVALID_LOCATION ) {
@@ -109,7 +102,6 @@ public class NamesDictionary {
 					totalSurNames++;
 				}
 			}
-			surnameDictionary.close();
 			System.out.println("Done ... " + totalSurNames + " surnames were extracted ");
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -118,13 +110,8 @@ public class NamesDictionary {
 	
 	public void extractGivenNames() {
 		try {
-		    BufferedReader givennameDictionary  = new BufferedReader(
-		            new InputStreamReader(getClass( ).getResourceAsStream(DatagenParams.nameDictionaryFile), "UTF-8"));
-		    
-		    String line;
 	        int totalGivenNames = 0;
-			while ((line = givennameDictionary.readLine()) != null){
-				String infos[] = line.split("  ");
+			for (String infos[] : DictionarySnapshot.rows(DatagenParams.nameDictionaryFile, "  ")) {
 				String locationName = infos[0];
 				int gender = Integer.parseInt(infos[2]);
 				int birthYearPeriod = Integer.parseInt(infos[3]);
@@ -139,7 +126,6 @@ public class NamesDictionary {
 					totalGivenNames++;
 				}
 			}
-			givennameDictionary.close();
 			System.out.println("Done ... " + totalGivenNames + " given names were extracted ");
 		} catch (IOException e) {
 			e.printStackTrace();
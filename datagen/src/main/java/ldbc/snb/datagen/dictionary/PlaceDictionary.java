@@ -40,9 +40,7 @@ import ldbc.snb.datagen.generator.DatagenParams;
 import ldbc.snb.datagen.objects.Place;
 import ldbc.snb.datagen.util.ZOrder;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.*;
 
 /**
@@ -252,13 +250,8 @@ public class PlaceDictionary {
      */
     private void readCities(String fileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
             int cities = 0;
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR_CITY);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR_CITY)) {
                 if (countryNames.containsKey(data[0])) {
                     Integer countryId = countryNames.get(data[0]);
                     if (!cityNames.containsKey(data[1])) {
@@ -280,7 +273,6 @@ public class PlaceDictionary {
                     }
                 }
             }
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -292,12 +284,7 @@ public class PlaceDictionary {
      */
     private void readCountries(String fileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 String placeName = data[1];
 
                 Place place = new Place();
@@ -316,7 +303,6 @@ public class PlaceDictionary {
 
                 citiesByCountry.put(place.getId(), new ArrayList<Integer>());
             }
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -329,12 +315,7 @@ public class PlaceDictionary {
     private void readContinents(String fileName) {
         HashMap<String, Integer> treatedContinents = new HashMap<String, Integer>();
         try {
-            BufferedReader dictionary = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 String placeName = data[1];
 
                 int countryId = countryNames.get(placeName);
@@ -357,7 +338,6 @@ public class PlaceDictionary {
                 places.get(continentId).setPopulation(population);
                 isPartOf.put(countryId, continentId);
             }
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
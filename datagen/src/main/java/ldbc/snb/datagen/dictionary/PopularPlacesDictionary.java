@@ -39,9 +39,7 @@ package ldbc.snb.datagen.dictionary;
 import ldbc.snb.datagen.generator.DatagenParams;
 import ldbc.snb.datagen.objects.PopularPlace;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
@@ -73,7 +71,6 @@ public class PopularPlacesDictionary {
      * @brief Loads a popular places file.
      */
     private void load(String fileName) {
-        String line;
         String locationName;
         String lastLocationName = "";
         int curLocationId = -1;
@@ -81,13 +78,9 @@ public class PopularPlacesDictionary {
 
         String label;
         try {
-            BufferedReader dicPopularPlace = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
-            while ((line = dicPopularPlace.readLine()) != null) {
+            for (String infos[] : DictionarySnapshot.rows(fileName, "  ")) {
                 double latt;
                 double longt;
-                String infos[] = line.split("  ");
                 locationName = infos[0];
                 if (locationName.compareTo(lastLocationName) != 0) {
                     if (placeDictionary.getCountryId(locationName) != PlaceDictionary.INVALID_LOCATION) {
@@ -107,7 +100,6 @@ public class PopularPlacesDictionary {
                     totalNumPopularPlaces++;
                 }
             }
-            dicPopularPlace.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -38,9 +38,7 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
@@ -175,29 +173,19 @@ public class TagDictionary {
      */
     private void load(String tagsFileName, String popularTagByCountryFileName, String tagClassFileName, String tagClassHierarchyFileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(tagClassFileName), "UTF-8"));
-
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(tagClassFileName, SEPARATOR)) {
                 Integer classId = Integer.valueOf(data[0]);
                 tagClassName.put(classId, data[1]);
                 tagClassLabel.put(classId, data[2]);
             }
 
-            dictionary.close();
-            dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(tagClassHierarchyFileName), "UTF-8"));
-            while ((line = dictionary.readLine()) != null) {
-                String infos[] = line.split(SEPARATOR);
+            for (String infos[] : DictionarySnapshot.rows(tagClassHierarchyFileName, SEPARATOR)) {
                 Integer classId = Integer.valueOf(infos[0]);
                 Integer parentId = Integer.valueOf(infos[1]);
                 tagClassHierarchy.put(classId, parentId);
             }
 
-            dictionary.close();
-            dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(tagsFileName), "UTF-8"));
-            while ((line = dictionary.readLine()) != null) {
-                String infos[] = line.split(SEPARATOR);
+            for (String infos[] : DictionarySnapshot.rows(tagsFileName, SEPARATOR)) {
                 int tagId = Integer.valueOf(infos[0]);
                 Integer classId = Integer.valueOf(infos[1]);
                 tagTagClass.put(tagId, classId);
@@ -205,10 +193,7 @@ public class TagDictionary {
                 tagDescription.put(tagId, infos[3]);
             }
 
-            dictionary.close();
-            dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(popularTagByCountryFileName), "UTF-8"));
-            while ((line = dictionary.readLine()) != null) {
-                String infos[] = line.split(" ");
+            for (String infos[] : DictionarySnapshot.rows(popularTagByCountryFileName, " ")) {
                 int countryId = Integer.parseInt(infos[0]);
                 int tagId = Integer.parseInt(infos[1]);
                 double cummulative = Double.parseDouble(infos[2]);
@@ -219,8 +204,6 @@ public class TagDictionary {
                     numPopularTags = tagId + 1;
                 }
             }
-
-            dictionary.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -38,33 +38,29 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.Random;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 public class TagMatrix {
 
     private static final String SEPARATOR = " ";
 
-    private TreeMap<Integer, ArrayList<Integer>> relatedTags;
+    private int[][] relatedTags;
     /**
-     * < @brief An array of related tags per tag.
+     * < @brief The related tags of each tag, indexed by tag id, null for tags without related tags.
      */
-    private TreeMap<Integer, ArrayList<Double>> cumulative;
+    private double[][] cumulative;
 
-    private ArrayList<Integer> nonZeroTags;
+    private int[] nonZeroTags;
 
     /**
-     * < @brief The list of tags.
+     * < @brief The tags with related tags.
      */
 
     public TagMatrix() {
-        cumulative = new TreeMap<Integer, ArrayList<Double>>();
-        relatedTags = new TreeMap<Integer, ArrayList<Integer>>();
-        nonZeroTags = new ArrayList<Integer>();
+        relatedTags = new int[0][];
+        cumulative = new double[0][];
+        nonZeroTags = new int[0];
         load(DatagenParams.tagMatrixFile);
 
     }
@@ -75,29 +71,49 @@ public class TagMatrix {
      */
     private void load(String tagMatrixFileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(tagMatrixFileName), "UTF-8"));
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
-                int celebrityId = Integer.parseInt(data[0]);
-                int topicId = Integer.parseInt(data[1]);
-                double cumuluative = Double.parseDouble(data[2]);
-                ArrayList<Double> cum = cumulative.get(celebrityId);
-                if(cum == null ) cumulative.put(celebrityId,new ArrayList<Double>());
-                cumulative.get(celebrityId).add(cumuluative);
-                ArrayList<Integer> related = relatedTags.get(celebrityId);
-                if(related == null) relatedTags.put(celebrityId,new ArrayList<Integer>());
-                relatedTags.get(celebrityId).add(topicId);
+            String[][] rows = DictionarySnapshot.rows(tagMatrixFileName, SEPARATOR);
+            int[] celebrityIds = new int[rows.length];
+            int maxId = -1;
+            for (int i = 0; i < rows.length; ++i) {
+                celebrityIds[i] = Integer.parseInt(rows[i][0]);
+                maxId = Math.max(maxId, celebrityIds[i]);
             }
-            for(Integer tag : relatedTags.keySet()) {
-                nonZeroTags.add(tag);
+            int[] counts = new int[maxId + 1];
+            for (int celebrityId : celebrityIds) {
+                counts[celebrityId]++;
+            }
+            relatedTags = new int[maxId + 1][];
+            cumulative = new double[maxId + 1][];
+            int numNonZeroTags = 0;
+            for (int i = 0; i <= maxId; ++i) {
+                if (counts[i] > 0) {
+                    relatedTags[i] = new int[counts[i]];
+                    cumulative[i] = new double[counts[i]];
+                    counts[i] = 0;
+                    numNonZeroTags++;
+                }
+            }
+            for (int i = 0; i < rows.length; ++i) {
+                int celebrityId = celebrityIds[i];
+                relatedTags[celebrityId][counts[celebrityId]] = Integer.parseInt(rows[i][1]);
+                cumulative[celebrityId][counts[celebrityId]] = Double.parseDouble(rows[i][2]);
+                counts[celebrityId]++;
+            }
+            nonZeroTags = new int[numNonZeroTags];
+            for (int i = 0, j = 0; i <= maxId; ++i) {
+                if (relatedTags[i] != null) {
+                    nonZeroTags[j++] = i;
+                }
             }
-            dictionary.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private int[] related(int tag) {
+        return tag >= 0 && tag < relatedTags.length ? relatedTags[tag] : null;
+    }
+
     /**
      * @param randomTag The random tag number generator.
      * @param tag       The tag identifier.
@@ -106,10 +122,10 @@ public class TagMatrix {
      */
     public Integer getRandomRelated(Random randomTag, int tag) {
         int tagId = tag;
-        if(relatedTags.get(tagId) == null) {
-            tagId = nonZeroTags.get(randomTag.nextInt(nonZeroTags.size()));
+        if(related(tagId) == null) {
+            tagId = nonZeroTags[randomTag.nextInt(nonZeroTags.length)];
         }
-        return relatedTags.get(tagId).get(randomTag.nextInt(relatedTags.get(tagId).size()));
+        return relatedTags[tagId][randomTag.nextInt(relatedTags[tagId].length)];
     }
 
     /**
@@ -127,25 +143,25 @@ public class TagMatrix {
             int tagId;
             tagId = popularTagId;
 
-            if(relatedTags.get(tagId) == null) {
-                tagId = nonZeroTags.get(randomTag.nextInt(nonZeroTags.size()));
+            if(related(tagId) == null) {
+                tagId = nonZeroTags[randomTag.nextInt(nonZeroTags.length)];
             }
 
             // Doing binary search for finding the tag
             double randomDis = randomTag.nextDouble();
             int lowerBound = 0;
-            int upperBound = relatedTags.get(tagId).size();
+            int upperBound = relatedTags[tagId].length;
             int midPoint = (upperBound + lowerBound) / 2;
 
             while (upperBound > (lowerBound + 1)) {
-                if (cumulative.get(tagId).get(midPoint) > randomDis) {
+                if (cumulative[tagId][midPoint] > randomDis) {
                     upperBound = midPoint;
                 } else {
                     lowerBound = midPoint;
                 }
                 midPoint = (upperBound + lowerBound) / 2;
             }
-            resultTags.add(relatedTags.get(tagId).get(midPoint));
+            resultTags.add(relatedTags[tagId][midPoint]);
         }
         return resultTags;
 
@@ -38,8 +38,6 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Random;
@@ -73,14 +71,10 @@ public class TagTextDictionary {
      */
     private void load(String fileName) {
         try {
-            BufferedReader dictionary = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-            String line;
-            while ((line = dictionary.readLine()) != null) {
-                String[] data = line.split(SEPARATOR);
+            for (String[] data : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 Integer id = Integer.valueOf(data[0]);
                 tagText.put(id, data[1]);
             }
-            dictionary.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -39,9 +39,7 @@ package ldbc.snb.datagen.dictionary;
 import ldbc.snb.datagen.generator.DatagenParams;
 import ldbc.snb.datagen.util.RandomGeneratorFarm;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.TreeMap;
@@ -113,13 +111,8 @@ public class UniversityDictionary {
      */
     private void load(String fileName) {
         try {
-            BufferedReader dicAllInstitutes = new BufferedReader(
-                    new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-
-            String line;
             long totalNumUniversities = startIndex;
-            while ((line = dicAllInstitutes.readLine()) != null) {
-                String data[] = line.split(SEPARATOR);
+            for (String data[] : DictionarySnapshot.rows(fileName, SEPARATOR)) {
                 String countryName = data[0];
                 String cityName = data[2];
                 if (locationDic.getCountryId(countryName) != PlaceDictionary.INVALID_LOCATION &&
@@ -133,7 +126,6 @@ public class UniversityDictionary {
                     totalNumUniversities++;
                 }
             }
-            dicAllInstitutes.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -38,9 +38,7 @@ package ldbc.snb.datagen.dictionary;
 
 import ldbc.snb.datagen.generator.DatagenParams;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -69,12 +67,9 @@ public class UserAgentDictionary {
     private void load(String fileName) {
         try {
             userAgents = new ArrayList<String>();
-            BufferedReader agentFile = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(fileName), "UTF-8"));
-            String line;
-            while ((line = agentFile.readLine()) != null) {
-                userAgents.add(line.trim());
+            for (String data[] : DictionarySnapshot.rows(fileName, "\n")) {
+                userAgents.add(data[0].trim());
             }
-            agentFile.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
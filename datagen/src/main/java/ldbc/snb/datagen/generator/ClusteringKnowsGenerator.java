@@ -7,6 +7,8 @@ import ldbc.snb.datagen.objects.Person;
 import org.apache.hadoop.conf.Configuration;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Created by aprat on 11/15/14.
@@ -22,6 +24,8 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
     private int numCorePeripheryEdges = 0;
     private int numCoreExternalEdges = 0;
     private float min_community_prob_ = 0.0f;
+    private ForkJoinPool pool = null;
+    private int parallelism = 1;
 
     private class PersonInfo {
         public int index_;
@@ -37,6 +41,48 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
     }
 
 
+    private class EdgeCounts {
+        public int coreCore = 0;
+        public int corePeriphery = 0;
+        public int misses = 0;
+    }
+
+    private interface CommunityTask {
+        void run(Community c);
+    }
+
+    /**
+     * Runs a task over a range of communities, splitting the range among the threads of the pool
+     */
+    private class CommunityAction extends RecursiveAction {
+        private final ArrayList<Community> communities;
+        private final CommunityTask task;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        CommunityAction(ArrayList<Community> communities, CommunityTask task, int from, int to, int grain) {
+            this.communities = communities;
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; ++i) {
+                    task.run(communities.get(i));
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CommunityAction(communities, task, from, middle, grain),
+                          new CommunityAction(communities, task, middle, to, grain));
+            }
+        }
+    }
+
     private class PersonInfoComparator implements Comparator<PersonInfo>{
         public int compare(PersonInfo a, PersonInfo b) {
             if( a.degree_ != b.degree_ )
@@ -234,9 +280,40 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
     }
 
 
+    /**
+     * Runs the task over all the communities, in parallel if a pool is configured.
+     * Tasks of different communities only touch the entries of cInfo of their own community and persons.
+     */
+    private void forEachCommunity(ArrayList<Community> communities, CommunityTask task) {
+        if (pool == null) {
+            for (Community c : communities) {
+                task.run(c);
+            }
+            return;
+        }
+        int grain = Math.max(1, communities.size() / (parallelism * 8));
+        pool.invoke(new CommunityAction(communities, task, 0, communities.size(), grain));
+    }
+
     private void estimateCCCommunity( ClusteringInfo cInfo, Community c, float prob ) {
         computeCommunityInfo(cInfo, c, prob);
+        estimateCC(cInfo, c, prob);
+    }
+
+    /**
+     * Sets the probability of all communities and estimates their clustering coefficients.
+     * The information of all the communities is updated before estimating any of them,
+     * so the result does not depend on the order in which communities are processed.
+     */
+    private void estimateCCCommunities( final ClusteringInfo cInfo, ArrayList<Community> communities, final float prob ) {
+        forEachCommunity(communities, c -> {
+            c.p_ = prob;
+            computeCommunityInfo(cInfo, c, prob);
+        });
+        forEachCommunity(communities, c -> estimateCC(cInfo, c, prob));
+    }
 
+    private void estimateCC( ClusteringInfo cInfo, Community c, float prob ) {
         float probSameCommunity = 0.0f;
         float probTriangleSameCommunity = 0.0f;
         long sumStubs = 0;
@@ -416,24 +493,24 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
         return true;
     }
 
-    void createEdgesCommunityCore(ArrayList<Person> persons, Community c) {
+    void createEdgesCommunityCore(Random random, ArrayList<Person> persons, Community c, EdgeCounts counts) {
         for ( PersonInfo pI : c.core_) {
             for( PersonInfo other: c.core_) {
                 if(pI.index_ < other.index_ ) {
-                    float prob = rand.nextFloat();
+                    float prob = random.nextFloat();
                     if( prob <= c.p_ ) {
                         // crear aresta
-                        if(Knows.createKnow(rand, persons.get(pI.index_), persons.get(other.index_)))
-                            numCoreCoreEdges++;
+                        if(Knows.createKnow(random, persons.get(pI.index_), persons.get(other.index_)))
+                            counts.coreCore++;
                         else
-                            numMisses++;
+                            counts.misses++;
                     }
                 }
             }
         }
     }
 
-    void createEdgesCommunityPeriphery(ClusteringInfo cInfo, ArrayList<Person> persons, Community c) {
+    void createEdgesCommunityPeriphery(Random random, ClusteringInfo cInfo, ArrayList<Person> persons, Community c, EdgeCounts counts) {
 
         //long start = System.currentTimeMillis();
         long [] peripheryBudget = new long[c.periphery_.size()];
@@ -450,10 +527,10 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
                 if( peripheryBudget[index] != 0 && pDegree < maxDegree)  {
                     pDegree++;
                     peripheryBudget[index]--;
-                    if(Knows.createKnow(rand, persons.get(pI.index_), persons.get(c.periphery_.get(index).index_)))
-                        numCorePeripheryEdges++;
+                    if(Knows.createKnow(random, persons.get(pI.index_), persons.get(c.periphery_.get(index).index_)))
+                        counts.corePeriphery++;
                     else
-                        numMisses++;
+                        counts.misses++;
                 }
             }
         }
@@ -506,7 +583,23 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
     }
 
 
+    /**
+     * Runs the generation with a pool of the configured parallelism, which is shut down when the generation ends,
+     * as generators are not closed by the reducers using them.
+     */
     public void generateKnows( ArrayList<Person> persons, int seed, ArrayList<Float> percentages, int step_index )  {
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            generate(persons, seed, percentages, step_index);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    private void generate( ArrayList<Person> persons, int seed, ArrayList<Float> percentages, int step_index )  {
 
         long start, end;
         rand.setSeed(seed);
@@ -524,18 +617,7 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
 
 
         start = System.currentTimeMillis();
-        for( Community c : communities ) {
-            c.p_ = 1.0f;
-            computeCommunityInfo(cInfo, c, 1.0f);
-        }
-        end = System.currentTimeMillis();
-        System.out.println("Time to compute initial community information: "+(end-start));
-
-        start = System.currentTimeMillis();
-        for( Community c : communities ) {
-            c.p_ = 1.0f;
-            estimateCCCommunity(cInfo, c, c.p_);
-        }
+        estimateCCCommunities(cInfo, communities, 1.0f);
 
         float maxCC = clusteringCoefficient(communities, cInfo);
         end = System.currentTimeMillis();
@@ -543,11 +625,7 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
         System.out.println("Time to compute maximum CC: "+(end-start));
 
         start = System.currentTimeMillis();
-        for( Community c : communities ) {
-            c.p_ = 0.5f;//rand.nextFloat();
-            //c.p_ = rand.nextFloat();
-            estimateCCCommunity(cInfo, c, c.p_ );
-        }
+        estimateCCCommunities(cInfo, communities, 0.5f);
         end = System.currentTimeMillis();
         System.out.println("Time to compute the initial solution: "+(end-start));
 
@@ -566,9 +644,24 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
             System.out.println("Creating graph");
 
             start = System.currentTimeMillis();
-            for(Community c : communities ) {
-                createEdgesCommunityCore(persons, c);
-                createEdgesCommunityPeriphery(cInfo, persons, c);
+            // each community draws from its own random stream, seeded in community order,
+            // so that the generated edges do not depend on the number of threads
+            final long[] seeds = new long[communities.size()];
+            for(int j = 0; j < seeds.length; ++j) {
+                seeds[j] = rand.nextLong();
+            }
+            final EdgeCounts[] counts = new EdgeCounts[communities.size()];
+            forEachCommunity(communities, c -> {
+                Random random = new Random(seeds[(int)c.id_]);
+                EdgeCounts communityCounts = new EdgeCounts();
+                createEdgesCommunityCore(random, persons, c, communityCounts);
+                createEdgesCommunityPeriphery(random, cInfo, persons, c, communityCounts);
+                counts[(int)c.id_] = communityCounts;
+            });
+            for(EdgeCounts communityCounts : counts) {
+                numCoreCoreEdges += communityCounts.coreCore;
+                numCorePeripheryEdges += communityCounts.corePeriphery;
+                numMisses += communityCounts.misses;
             }
             fillGraphWithRemainingEdges(cInfo, communities, persons);
             end = System.currentTimeMillis();
@@ -642,6 +735,9 @@ public class ClusteringKnowsGenerator implements KnowsGenerator {
         targetCC = conf.getFloat("ldbc.snb.datagen.generator.ClusteringKnowsGenerator.clusteringCoefficient", 0.1f);
         System.out.println("Initialized clustering coefficient to "+targetCC);
         targetCC /= 2.0f;
+        int numThreads = Math.max(1, conf.getInt("ldbc.snb.datagen.generator.numThreads", 1));
+        parallelism = conf.getInt("ldbc.snb.datagen.generator.ClusteringKnowsGenerator.parallelism",
+                                  Math.max(1, Runtime.getRuntime().availableProcessors() / numThreads));
     }
 
     public void resetStatistics() {
@@ -59,6 +59,7 @@ public class DatagenParams {
     public static final String RDF_OUTPUT_FILE         = "ldbc_socialnet_dbg";
     public static final String PERSON_COUNTS_FILE        = "personFactors.txt";
     public static final String ACTIVITY_FILE        = "activityFactors.txt";
+    public static final String PERSON_COUNTS_BINARY_FILE = "personFactors.bin";
 
     // Dictionaries dataset files
     public static final String browserDictonryFile         = DICTIONARY_DIRECTORY + "browsersDic.txt";
@@ -230,10 +231,21 @@ public class DatagenParams {
     public static boolean richRdf                          = false;
     public static boolean exportText                       = true;
     public static boolean compressed                       = false;
+    public static boolean binaryFactors                    = false;
     public static int	numPartitions			   = 1;
     public static int   numUpdatePartitions         = 1;
+    public static boolean updateStreamSortJob              = false; // sort the update streams with a separate job instead of in the reducers
+    public static boolean binaryUpdateStreams              = false;
+    public static long  updateStreamSortBuffer             = 64L << 20; // bytes of update events sorted in memory per reducer and stream type
 
 
+    /**
+     * @return name of the person factors file, without the reducer prefix
+     */
+    public static String personFactorsFile() {
+        return binaryFactors ? PERSON_COUNTS_BINARY_FILE : PERSON_COUNTS_FILE;
+    }
+
     public static void readConf( Configuration conf ) {
         try {
 
@@ -315,9 +327,23 @@ public class DatagenParams {
             compressed = conf.getBoolean("ldbc.snb.datagen.serializer.compressed",false);
             numThreads = conf.getInt("ldbc.snb.datagen.generator.numThreads",1);
             updateStreams = conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams",false);
+            binaryFactors = conf.getBoolean("ldbc.snb.datagen.generator.binaryFactors",false);
+            if (binaryFactors && conf.getBoolean("ldbc.snb.datagen.parametergenerator.parameters",false)
+                    && conf.getBoolean("ldbc.snb.datagen.generator.activity",false)
+                    && !conf.getBoolean("ldbc.snb.datagen.parametergenerator.native",true)) {
+                throw new IllegalStateException("Binary person factors can only be read by the native interactive " +
+                        "parameter generator, set ldbc.snb.datagen.parametergenerator.native to true");
+            }
 	    richRdf = conf.getBoolean("ldbc.snb.datagen.generator.richRdf",false);
             numPartitions = conf.getInt("ldbc.snb.datagen.serializer.numPartitions",1);
             numUpdatePartitions = conf.getInt("ldbc.snb.datagen.serializer.numUpdatePartitions",1);
+            updateStreamSortJob = conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams.sortJob",false);
+            binaryUpdateStreams = conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams.binary",false);
+            updateStreamSortBuffer = conf.getLong("ldbc.snb.datagen.serializer.updateStreams.sortBufferMB",64) << 20;
+            if (binaryUpdateStreams && updateStreamSortJob) {
+                System.err.println("Binary update streams are only written when sorting in the reducers, writing csv");
+                binaryUpdateStreams = false;
+            }
             deltaTime = conf.getInt("ldbc.snb.datagen.generator.deltaTime",10000);
             outputDir = conf.get("ldbc.snb.datagen.serializer.outputDir");
             hadoopDir = outputDir+"/hadoop";
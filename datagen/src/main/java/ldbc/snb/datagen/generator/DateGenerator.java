@@ -37,6 +37,7 @@
 package ldbc.snb.datagen.generator;
 
 import ldbc.snb.datagen.objects.Person;
+import ldbc.snb.datagen.serializer.ByteArrayBuilder;
 import ldbc.snb.datagen.serializer.formatter.DateFormatter;
 import org.apache.hadoop.conf.Configuration;
 
@@ -57,12 +58,13 @@ public class DateGenerator {
 	private long to_;
 	private long fromBirthDay_;
 	private long toBirthDay_;
-	private GregorianCalendar calendar_;
+	// calendars and date formatters are not thread safe, and blocks are generated concurrently when running locally
+	private ThreadLocal<GregorianCalendar> calendar_;
 	private long deltaTime_;
 	private long updateThreshold_;
 	private PowerDistGenerator powerDist_;
     private SimpleDateFormat gmtDateFormatter_;
-	private DateFormatter dateFormatter_;
+	private ThreadLocal<DateFormatter> dateFormatter_;
 
 	// This constructor is for the case of friendship's created date generator
 	public DateGenerator(Configuration conf, GregorianCalendar from, GregorianCalendar to,
@@ -77,18 +79,26 @@ public class DateGenerator {
 		GregorianCalendar tobirthCalendar = new GregorianCalendar(1990, 1, 1);
 		fromBirthDay_ = frombirthCalendar.getTimeInMillis();
 		toBirthDay_ = tobirthCalendar.getTimeInMillis();
-		calendar_ = new GregorianCalendar();
-		calendar_.setTimeZone(TimeZone.getTimeZone("GMT"));
+		calendar_ = ThreadLocal.withInitial(() -> {
+			GregorianCalendar calendar = new GregorianCalendar();
+			calendar.setTimeZone(TimeZone.getTimeZone("GMT"));
+			return calendar;
+		});
 		//updateThreshold_ = getMaxDateTime() - (long)((getMaxDateTime() - getStartDateTime())*(DatagenParams.updatePortion));
         updateThreshold_ = getEndDateTime() - (long)((getEndDateTime() - getStartDateTime())*(DatagenParams.updatePortion));
 
-		try {
-			dateFormatter_ = (DateFormatter) Class.forName(conf.get("ldbc.snb.datagen.serializer.dateFormatter")).newInstance();
-			dateFormatter_.initialize(conf);
-		} catch(Exception e) {
-			System.err.println("Error when initializing date formatter");
-			System.err.println(e.getMessage());
-		}
+		final Configuration formatterConf = new Configuration(conf);
+		dateFormatter_ = ThreadLocal.withInitial(() -> {
+			try {
+				DateFormatter dateFormatter = (DateFormatter) Class.forName(formatterConf.get("ldbc.snb.datagen.serializer.dateFormatter")).newInstance();
+				dateFormatter.initialize(formatterConf);
+				return dateFormatter;
+			} catch(Exception e) {
+				System.err.println("Error when initializing date formatter");
+				System.err.println(e.getMessage());
+				return null;
+			}
+		});
 	}
 
 	/*
@@ -96,20 +106,22 @@ public class DateGenerator {
 	 */
 	public Long randomPersonCreationDate(Random random) {
 		long date = (long) (random.nextDouble() * (to_ - from_) + from_);
-		calendar_.setTime(new Date(date));
-		return calendar_.getTimeInMillis();
+		GregorianCalendar calendar = calendar_.get();
+		calendar.setTime(new Date(date));
+		return calendar.getTimeInMillis();
 	}
 
 	/*
 	 * format the date
 	 */
 	public String formatDate(long date) {
-		return dateFormatter_.formatDate(date);
+		return dateFormatter_.get().formatDate(date);
 	}
 
 	public String formatYear(long date) {
-        calendar_.setTimeInMillis(date);
-        int year = calendar_.get(Calendar.YEAR);
+        GregorianCalendar calendar = calendar_.get();
+        calendar.setTimeInMillis(date);
+        int year = calendar.get(Calendar.YEAR);
         return year + "";
 	}
 
@@ -117,7 +129,18 @@ public class DateGenerator {
 	 * format the date with hours and minutes
 	 */
 	public String formatDateTime(long date) {
-		return dateFormatter_.formatDateTime(date);
+		return dateFormatter_.get().formatDateTime(date);
+	}
+
+	/*
+	 * format the date directly into a serializer buffer
+	 */
+	public void formatDate(long date, ByteArrayBuilder out) {
+		dateFormatter_.get().formatDate(date, out);
+	}
+
+	public void formatDateTime(long date, ByteArrayBuilder out) {
+		dateFormatter_.get().formatDateTime(date, out);
 	}
 
 
@@ -138,9 +161,10 @@ public class DateGenerator {
 	}
 
 	public int getNumberOfMonths(long date, int startMonth, int startYear) {
-        calendar_.setTimeInMillis(date);
-		int month = calendar_.get(Calendar.MONTH) + 1;
-		int year = calendar_.get(Calendar.YEAR);
+        GregorianCalendar calendar = calendar_.get();
+        calendar.setTimeInMillis(date);
+		int month = calendar.get(Calendar.MONTH) + 1;
+		int year = calendar.get(Calendar.YEAR);
 		return (year - startYear) * 12 + month - startMonth;
 	}
 
@@ -197,20 +221,23 @@ public class DateGenerator {
 
 	// The birthday is fixed during 1980 --> 1990
 	public long getBirthDay(Random random, long userCreatedDate) {
-        calendar_.setTimeInMillis(((long)(random.nextDouble() * (toBirthDay_ - fromBirthDay_)) + fromBirthDay_));
-        GregorianCalendar  aux_calendar = new GregorianCalendar(calendar_.get(Calendar.YEAR),calendar_.get(Calendar.MONTH), calendar_.get(Calendar.DAY_OF_MONTH),0,0,0);
+        GregorianCalendar calendar = calendar_.get();
+        calendar.setTimeInMillis(((long)(random.nextDouble() * (toBirthDay_ - fromBirthDay_)) + fromBirthDay_));
+        GregorianCalendar  aux_calendar = new GregorianCalendar(calendar.get(Calendar.YEAR),calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH),0,0,0);
         aux_calendar.setTimeZone(TimeZone.getTimeZone("GMT"));
 		return aux_calendar.getTimeInMillis();
 	}
 
 	public int getBirthYear(long birthDay) {
-		calendar_.setTimeInMillis(birthDay);
-		return calendar_.get(GregorianCalendar.YEAR);
+		GregorianCalendar calendar = calendar_.get();
+		calendar.setTimeInMillis(birthDay);
+		return calendar.get(GregorianCalendar.YEAR);
 	}
 
 	public int getBirthMonth(long birthDay) {
-		calendar_.setTimeInMillis(birthDay);
-		return calendar_.get(GregorianCalendar.MONTH);
+		GregorianCalendar calendar = calendar_.get();
+		calendar.setTimeInMillis(birthDay);
+		return calendar.get(GregorianCalendar.MONTH);
 	}
     //If do not know the birthday, first randomly guess the age of user
 	//Randomly get the age when user graduate
@@ -5,6 +5,7 @@ import ldbc.snb.datagen.dictionary.Dictionaries;
 import ldbc.snb.datagen.objects.Forum;
 import ldbc.snb.datagen.objects.ForumMembership;
 import ldbc.snb.datagen.objects.Knows;
+import ldbc.snb.datagen.objects.KnowsList;
 import ldbc.snb.datagen.objects.Person;
 import ldbc.snb.datagen.util.RandomGeneratorFarm;
 import ldbc.snb.datagen.vocabulary.SN;
@@ -36,7 +37,7 @@ public class ForumGenerator {
 		}
 		forum.tags(forumTags);
 
-		TreeSet<Knows> knows = person.knows();
+		KnowsList knows = person.knows();
 		for ( Knows k : knows ) {
 			long date = Math.max(k.creationDate(), forum.creationDate()+DatagenParams.deltaTime);
 			assert (forum.creationDate() + DatagenParams.deltaTime) <= date : "Forum creation date is larger than knows in wall "+forum.creationDate()+ " " +k.creationDate();
@@ -72,8 +73,7 @@ public class ForumGenerator {
 
 
 		TreeSet<Long> added = new TreeSet<Long>();
-		ArrayList<Knows> friends = new ArrayList<Knows>();
-		friends.addAll( person.knows() );
+		KnowsList friends = person.knows();
 		int numMembers = randomFarm.get(RandomGeneratorFarm.Aspect.NUM_USERS_PER_FORUM).nextInt(DatagenParams.maxNumMemberGroup);
 		int numLoop = 0;
 		while ((forum.memberships().size() < numMembers) && (numLoop < DatagenParams.blockSize)) {
@@ -137,9 +137,7 @@ public class ForumGenerator {
 		ArrayList<Integer> countries = Dictionaries.places.getCountries();
 		int randomCountry = randomFarm.get(RandomGeneratorFarm.Aspect.COUNTRY).nextInt(countries.size());
 		forum.place(countries.get(randomCountry));
-		ArrayList<Knows> friends = new ArrayList<Knows>();
-		friends.addAll( person.knows() );
-		for (Knows k :  friends ) {
+		for (Knows k :  person.knows() ) {
 			double prob = randomFarm.get(RandomGeneratorFarm.Aspect.ALBUM_MEMBERSHIP).nextDouble();
 			if (prob < 0.7) {
 				Random random = randomFarm.get(RandomGeneratorFarm.Aspect.MEMBERSHIP_INDEX);
@@ -37,7 +37,10 @@
 package ldbc.snb.datagen.generator;
 
 import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.dictionary.DictionarySnapshot;
 import ldbc.snb.datagen.hadoop.*;
+import ldbc.snb.datagen.parametergenerator.InteractiveParameterGenerator;
+import ldbc.snb.datagen.local.LocalDatagen;
 import ldbc.snb.datagen.objects.Person;
 import ldbc.snb.datagen.objects.similarity.GeoDistanceSimilarity;
 import ldbc.snb.datagen.util.ConfigParser;
@@ -51,6 +54,7 @@ import org.apache.hadoop.io.Text;
 
 
 import java.io.File;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -62,7 +66,17 @@ public class LDBCDatagen {
     public static synchronized void init (Configuration conf) {
         if(!initialized) {
             DatagenParams.readConf(conf);
+            String snapshotFile = conf.get("ldbc.snb.datagen.generator.dictionarySnapshotFile");
+            if (snapshotFile != null) {
+                try {
+                    DictionarySnapshot.load(conf, snapshotFile);
+                } catch (IOException e) {
+                    System.err.println("Error while loading the dictionary snapshot, parsing the dictionaries instead");
+                    System.err.println(e.getMessage());
+                }
+            }
             Dictionaries.loadDictionaries(conf);
+            DictionarySnapshot.release();
             SN.initialize();
             try {
                 Person.personSimilarity = (Person.PersonSimilarity) Class.forName(conf.get("ldbc.snb.datagen.generator.person.similarity")).newInstance();
@@ -80,8 +94,101 @@ public class LDBCDatagen {
         System.out.println("************************************************");
     }
 
+    private void mergeUpdateStreamProperties(Configuration conf) throws Exception {
+        FileSystem fs = FileSystem.get(conf);
+        long minDate = Long.MAX_VALUE;
+        long maxDate = Long.MIN_VALUE;
+        long count = 0;
+        for( int i = 0; i < DatagenParams.numThreads; ++i) {
+            Path propertiesFile = new Path(DatagenParams.hadoopDir+"/temp_updateStream_person_"+i+".properties");
+            FSDataInputStream file = fs.open(propertiesFile);
+            Properties properties = new Properties();
+            properties.load(file);
+            long aux;
+            aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.min_write_event_start_time"));
+            minDate = aux < minDate ? aux : minDate;
+            aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.max_write_event_start_time"));
+            maxDate = aux > maxDate ? aux : maxDate;
+            aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.num_events"));
+            count += aux;
+            file.close();
+            fs.delete(propertiesFile,true);
+
+            if( conf.getBoolean("ldbc.snb.datagen.generator.activity", false)) {
+                propertiesFile = new Path(DatagenParams.hadoopDir + "/temp_updateStream_forum_" + i + ".properties");
+                file = fs.open(propertiesFile);
+                properties = new Properties();
+                properties.load(file);
+                aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.min_write_event_start_time"));
+                minDate = aux < minDate ? aux : minDate;
+                aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.max_write_event_start_time"));
+                maxDate = aux > maxDate ? aux : maxDate;
+                aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.num_events"));
+                count += aux;
+                file.close();
+                fs.delete(propertiesFile, true);
+            }
+        }
+
+        OutputStream output = fs.create(new Path(DatagenParams.socialNetworkDir+"/updateStream"+".properties"),true);
+        output.write(new String("ldbc.snb.interactive.gct_delta_duration:" + DatagenParams.deltaTime + "\n").getBytes());
+        output.write(new String("ldbc.snb.interactive.min_write_event_start_time:" + minDate + "\n").getBytes());
+        output.write(new String("ldbc.snb.interactive.max_write_event_start_time:" + maxDate + "\n").getBytes());
+        output.write(new String("ldbc.snb.interactive.update_interleave:" + (maxDate - minDate) / count + "\n").getBytes());
+        output.write(new String("ldbc.snb.interactive.num_events:" + count).getBytes());
+        output.close();
+    }
+
+    private void generateParameters(Configuration conf) throws Exception {
+        if(conf.getBoolean("ldbc.snb.datagen.parametergenerator.parameters",false) && conf.getBoolean("ldbc.snb.datagen.generator.activity",false)) {
+            System.out.println("Running Parameter Generation");
+            System.out.println("Generating Interactive Parameters");
+            ProcessBuilder pb = new ProcessBuilder("mkdir", "-p",conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters");
+            pb.directory(new File("./"));
+            Process p = pb.start();
+            p.waitFor();
+
+            if(conf.getBoolean("ldbc.snb.datagen.parametergenerator.native",true)) {
+                new InteractiveParameterGenerator(conf.getLong("ldbc.snb.datagen.parametergenerator.seed", 1)).run(new File("./"), new File(conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters"));
+            } else {
+                pb = new ProcessBuilder(conf.get("ldbc.snb.datagen.parametergenerator.python"), "paramgenerator/generateparams.py", "./",conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters");
+                pb.directory(new File("./"));
+                File logInteractive = new File("parameters_interactive.log");
+                pb.redirectErrorStream(true);
+                pb.redirectOutput(ProcessBuilder.Redirect.appendTo(logInteractive));
+                p = pb.start();
+                p.waitFor();
+            }
+
+            // there is no native BI parameter generator, these always come from the python scripts
+            System.out.println("Generating BI Parameters with "+conf.get("ldbc.snb.datagen.parametergenerator.python"));
+            pb = new ProcessBuilder(conf.get("ldbc.snb.datagen.parametergenerator.python"), "paramgenerator/generateparamsbi.py", "./",conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters");
+            pb.directory(new File("./"));
+            File logBi = new File("parameters_bi.log");
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.appendTo(logBi));
+            p = pb.start();
+            p.waitFor();
+            System.out.println("Finished Parameter Generation");
+        }
+    }
+
     public int runGenerateJob(Configuration conf) throws Exception {
 
+        if(conf.getBoolean("ldbc.snb.datagen.generator.local", false)) {
+            long start = System.currentTimeMillis();
+            new LocalDatagen(conf).run();
+            if(conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams", false)) {
+                mergeUpdateStreamProperties(conf);
+            }
+            printProgress("Serializing invariant schema ");
+            HadoopInvariantSerializer invariantSerializer = new HadoopInvariantSerializer(conf);
+            invariantSerializer.run();
+            System.out.println("Total Execution time: "+((System.currentTimeMillis() - start) / 1000));
+            generateParameters(conf);
+            return 0;
+        }
+
         String hadoopPrefix = conf.get("ldbc.snb.datagen.serializer.hadoopDir");
         FileSystem fs = FileSystem.get(conf);
         ArrayList<Float> percentages = new ArrayList<Float>();
@@ -186,7 +293,7 @@ public class LDBCDatagen {
 
             for( int i = 0; i < numThreads; ++i ) {
                 if( i < numBlocks ) {
-                    fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m" + i + "personFactors.txt"), new Path("./"));
+                    fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m" + i + DatagenParams.personFactorsFile()), new Path("./"));
                     fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m" + i + "activityFactors.txt"), new Path("./"));
                     fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m0friendList" + i + ".csv"), new Path("./"));
                 }
@@ -196,7 +303,7 @@ public class LDBCDatagen {
 
         long startSortingUpdateStreams= System.currentTimeMillis();
 
-        if(conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams", false)) {
+        if(conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams", false) && DatagenParams.updateStreamSortJob) {
 
             printProgress("Sorting update streams ");
 
@@ -257,47 +364,10 @@ public class LDBCDatagen {
                 }
             }*/
 
-            long minDate = Long.MAX_VALUE;
-            long maxDate = Long.MIN_VALUE;
-            long count = 0;
-            for( int i = 0; i < DatagenParams.numThreads; ++i) {
-                Path propertiesFile = new Path(DatagenParams.hadoopDir+"/temp_updateStream_person_"+i+".properties");
-                FSDataInputStream file = fs.open(propertiesFile);
-                Properties properties = new Properties();
-                properties.load(file);
-                long aux;
-                aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.min_write_event_start_time"));
-                minDate = aux < minDate ? aux : minDate;
-                aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.max_write_event_start_time"));
-                maxDate = aux > maxDate ? aux : maxDate;
-                aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.num_events"));
-                count += aux;
-                file.close();
-                fs.delete(propertiesFile,true);
-
-                if( conf.getBoolean("ldbc.snb.datagen.generator.activity", false)) {
-                    propertiesFile = new Path(DatagenParams.hadoopDir + "/temp_updateStream_forum_" + i + ".properties");
-                    file = fs.open(propertiesFile);
-                    properties = new Properties();
-                    properties.load(file);
-                    aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.min_write_event_start_time"));
-                    minDate = aux < minDate ? aux : minDate;
-                    aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.max_write_event_start_time"));
-                    maxDate = aux > maxDate ? aux : maxDate;
-                    aux = Long.parseLong(properties.getProperty("ldbc.snb.interactive.num_events"));
-                    count += aux;
-                    file.close();
-                    fs.delete(propertiesFile, true);
-                }
-            }
-
-            OutputStream output = fs.create(new Path(DatagenParams.socialNetworkDir+"/updateStream"+".properties"),true);
-            output.write(new String("ldbc.snb.interactive.gct_delta_duration:" + DatagenParams.deltaTime + "\n").getBytes());
-            output.write(new String("ldbc.snb.interactive.min_write_event_start_time:" + minDate + "\n").getBytes());
-            output.write(new String("ldbc.snb.interactive.max_write_event_start_time:" + maxDate + "\n").getBytes());
-            output.write(new String("ldbc.snb.interactive.update_interleave:" + (maxDate - minDate) / count + "\n").getBytes());
-            output.write(new String("ldbc.snb.interactive.num_events:" + count).getBytes());
-            output.close();
+            mergeUpdateStreamProperties(conf);
+        } else if(conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams", false)) {
+            // the reducers already wrote the sorted update streams
+            mergeUpdateStreamProperties(conf);
         }
 
         long endSortingUpdateStreams= System.currentTimeMillis();
@@ -323,32 +393,7 @@ public class LDBCDatagen {
         System.out.println("Invariant schema serialization time: "+((endInvariantSerializing - startInvariantSerializing) / 1000));
         System.out.println("Total Execution time: "+((end - start) / 1000));
 
-        if(conf.getBoolean("ldbc.snb.datagen.parametergenerator.parameters",false) && conf.getBoolean("ldbc.snb.datagen.generator.activity",false)) {
-            System.out.println("Running Parameter Generation");
-            System.out.println("Generating Interactive Parameters");
-            ProcessBuilder pb = new ProcessBuilder("mkdir", "-p",conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters");
-            pb.directory(new File("./"));
-            Process p = pb.start();
-            p.waitFor();
-
-            pb = new ProcessBuilder(conf.get("ldbc.snb.datagen.parametergenerator.python"), "paramgenerator/generateparams.py", "./",conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters");
-            pb.directory(new File("./"));
-            File logInteractive = new File("parameters_interactive.log");
-            pb.redirectErrorStream(true);
-            pb.redirectOutput(ProcessBuilder.Redirect.appendTo(logInteractive));
-            p = pb.start();
-            p.waitFor();
-
-            System.out.println("Generating BI Parameters");
-            pb = new ProcessBuilder(conf.get("ldbc.snb.datagen.parametergenerator.python"), "paramgenerator/generateparamsbi.py", "./",conf.get("ldbc.snb.datagen.serializer.outputDir")+"/substitution_parameters");
-            pb.directory(new File("./"));
-            File logBi = new File("parameters_bi.log");
-            pb.redirectErrorStream(true);
-            pb.redirectOutput(ProcessBuilder.Redirect.appendTo(logBi));
-            p = pb.start();
-            p.waitFor();
-            System.out.println("Finished Parameter Generation");
-        }
+        generateParameters(conf);
         return 0;
     }
 
@@ -371,7 +416,19 @@ public class LDBCDatagen {
 
         // Create input text file in HDFS
         LDBCDatagen datagen = new LDBCDatagen();
+        // unless a prebuilt one is given, the dictionary snapshot of the tasks is built here, at run time, from the
+        // tables parsed while loading the dictionaries of the driver
+        boolean buildSnapshot = conf.getBoolean("ldbc.snb.datagen.generator.dictionarySnapshot", true) &&
+                conf.get("ldbc.snb.datagen.generator.dictionarySnapshotFile") == null;
+        if (buildSnapshot) {
+            DictionarySnapshot.record();
+        }
         LDBCDatagen.init(conf);
+        if (buildSnapshot) {
+            String snapshotFile = conf.get("ldbc.snb.datagen.serializer.hadoopDir") + "/dictionaries.snapshot";
+            DictionarySnapshot.write(conf, snapshotFile);
+            conf.set("ldbc.snb.datagen.generator.dictionarySnapshotFile", snapshotFile);
+        }
             datagen.runGenerateJob(conf);
         }catch(AssertionError e ) {
             System.err.println("Error during execution");
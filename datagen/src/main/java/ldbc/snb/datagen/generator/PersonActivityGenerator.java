@@ -147,7 +147,7 @@ public class PersonActivityGenerator {
 		randomFarm_.resetRandomGenerators(seed);
 		forumId = 0;
 		messageId = 0;
-		SN.machineId = seed;
+		SN.machineId(seed);
 		personActivitySerializer_.reset();
 		int counter = 0;
         float personGenerationTime = 0.0f;
@@ -158,7 +158,7 @@ public class PersonActivityGenerator {
 			if( DatagenParams.updateStreams ) {
 				updateSerializer_.changePartition();
 			}
-			if( counter % 1000 == 0 ) {
+			if( context != null && counter % 1000 == 0 ) {
 				context.setStatus("Generating activity of person "+counter+" of block"+seed);
 				context.progress();
 			}
@@ -176,6 +176,10 @@ public class PersonActivityGenerator {
     }
 
 	public void writePersonFactors( OutputStream writer) {
-		factorTable_.writePersonFactors(writer);
+		if( DatagenParams.binaryFactors ) {
+			factorTable_.writeBinaryPersonFactors(writer);
+		} else {
+			factorTable_.writePersonFactors(writer);
+		}
 	}
 }
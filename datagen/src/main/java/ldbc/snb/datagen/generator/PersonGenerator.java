@@ -171,7 +171,7 @@ public class PersonGenerator {
     public Person[] generateUserBlock( int seed, int blockSize ) {
         resetState(seed);
         nextId=seed*blockSize;
-        SN.machineId = seed;
+        SN.machineId(seed);
         Person[] block;
         block = new Person[blockSize];
         for (int j =0; j < blockSize; ++j) {
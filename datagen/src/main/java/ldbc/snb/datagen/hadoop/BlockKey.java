@@ -1,6 +1,7 @@
 package ldbc.snb.datagen.hadoop;
 
 import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -43,4 +44,34 @@ import java.io.IOException;
             if (block > mpk.block) return 1;
             return 0;
         }
+
+        /**
+         * Compares the block of two serialized BlockKeys (block, then the TupleKey)
+         */
+        static int compareSerializedBlock(byte[] b1, int s1, byte[] b2, int s2) {
+            long blockA = WritableComparator.readLong(b1, s1);
+            long blockB = WritableComparator.readLong(b2, s2);
+            if (blockA < blockB) return -1;
+            if (blockA > blockB) return 1;
+            return 0;
+        }
+
+        /**
+         * Raw comparator used by default when sorting BlockKeys, comparing blocks only as {@link #compareTo(BlockKey)} does
+         */
+        public static class Comparator extends WritableComparator {
+
+            public Comparator() {
+                super(BlockKey.class);
+            }
+
+            @Override
+            public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+                return compareSerializedBlock(b1, s1, b2, s2);
+            }
+        }
+
+        static {
+            WritableComparator.define(BlockKey.class, new Comparator());
+        }
     }
@@ -9,7 +9,7 @@ import org.apache.hadoop.io.WritableComparator;
 public class BlockKeyComparator extends WritableComparator {
 
     protected BlockKeyComparator() {
-        super(BlockKey.class,true);
+        super(BlockKey.class);
     }
 
     @Override
@@ -21,4 +21,14 @@ public class BlockKeyComparator extends WritableComparator {
         if (keyA.block > keyB.block) return 1;
         return keyA.tk.compareTo(keyB.tk);
     }
+
+    /**
+     * Same order as above, computed on the serialized keys to avoid deserializing them during the sort
+     */
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+        int res = BlockKey.compareSerializedBlock(b1, s1, b2, s2);
+        if (res != 0) return res;
+        return TupleKey.compareSerialized(b1, s1 + 8, b2, s2 + 8);
+    }
 }
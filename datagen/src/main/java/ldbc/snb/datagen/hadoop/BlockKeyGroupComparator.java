@@ -10,7 +10,7 @@ import org.apache.hadoop.io.WritableComparator;
 public class BlockKeyGroupComparator extends WritableComparator {
 
     protected BlockKeyGroupComparator() {
-        super(BlockKey.class,true);
+        super(BlockKey.class);
     }
 
     @Override
@@ -22,4 +22,12 @@ public class BlockKeyGroupComparator extends WritableComparator {
         if (keyA.block > keyB.block) return 1;
         return 0;
     }
+
+    /**
+     * Same grouping as above, computed on the serialized keys
+     */
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+        return BlockKey.compareSerializedBlock(b1, s1, b2, s2);
+    }
 }
@@ -41,7 +41,7 @@ public class HadoopPersonSerializer {
 				personSerializer_ = (PersonSerializer) Class.forName(conf.get("ldbc.snb.datagen.serializer.personSerializer")).newInstance();
 				personSerializer_.initialize(conf,reducerId);
 				if (DatagenParams.updateStreams) {
-					updateSerializer_ = new UpdateEventSerializer(conf, DatagenParams.hadoopDir + "/temp_updateStream_person_" + reducerId, reducerId, DatagenParams.numUpdatePartitions);
+					updateSerializer_ = new UpdateEventSerializer(conf, DatagenParams.hadoopDir + "/temp_updateStream_person_" + reducerId, "person", reducerId, DatagenParams.numUpdatePartitions);
 				}
 			} catch( Exception e ) {
 				System.err.println(e.getMessage());
@@ -52,7 +52,7 @@ public class HadoopPersonSerializer {
 		@Override
 	public void reduce(TupleKey key, Iterable<Person> valueSet,Context context)
 			throws IOException, InterruptedException {
-//			SN.machineId = key.block;
+//			SN.machineId(key.block);
 			personSerializer_.reset();
 			for( Person p : valueSet ) {
 				if(p.creationDate()< Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams  ) {
@@ -1,6 +1,7 @@
 package ldbc.snb.datagen.hadoop;
 
 import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -43,4 +44,38 @@ public class TupleKey implements WritableComparable<TupleKey> {
         if (id > tk.id) return 1;
         return 0;
     }
+
+    /**
+     * Compares two serialized TupleKeys (key, then id) without deserializing them
+     */
+    static int compareSerialized(byte[] b1, int s1, byte[] b2, int s2) {
+        long keyA = WritableComparator.readLong(b1, s1);
+        long keyB = WritableComparator.readLong(b2, s2);
+        if (keyA < keyB) return -1;
+        if (keyA > keyB) return 1;
+        long idA = WritableComparator.readLong(b1, s1 + 8);
+        long idB = WritableComparator.readLong(b2, s2 + 8);
+        if (idA < idB) return -1;
+        if (idA > idB) return 1;
+        return 0;
+    }
+
+    /**
+     * Raw comparator used by default when sorting TupleKeys
+     */
+    public static class Comparator extends WritableComparator {
+
+        public Comparator() {
+            super(TupleKey.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            return compareSerialized(b1, s1, b2, s2);
+        }
+    }
+
+    static {
+        WritableComparator.define(TupleKey.class, new Comparator());
+    }
 }
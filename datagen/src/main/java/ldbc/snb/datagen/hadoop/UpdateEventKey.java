@@ -3,6 +3,7 @@ package ldbc.snb.datagen.hadoop;
 import ldbc.snb.datagen.objects.UpdateEvent;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -52,4 +53,49 @@ public class UpdateEventKey implements WritableComparable<UpdateEventKey> {
         if( date > key.date) return 1;
         return 0;
     }
+
+    /**
+     * Compares the reducerId and partition of two serialized UpdateEventKeys (date, reducerId, partition)
+     */
+    static int compareSerializedStream(byte[] b1, int s1, byte[] b2, int s2) {
+        int reducerIdA = WritableComparator.readInt(b1, s1 + 8);
+        int reducerIdB = WritableComparator.readInt(b2, s2 + 8);
+        if (reducerIdA != reducerIdB) return reducerIdA - reducerIdB;
+        int partitionA = WritableComparator.readInt(b1, s1 + 12);
+        int partitionB = WritableComparator.readInt(b2, s2 + 12);
+        if (partitionA != partitionB) return partitionA - partitionB;
+        return 0;
+    }
+
+    /**
+     * Compares two serialized UpdateEventKeys as {@link #compareTo(UpdateEventKey)} does
+     */
+    static int compareSerialized(byte[] b1, int s1, byte[] b2, int s2) {
+        int res = compareSerializedStream(b1, s1, b2, s2);
+        if (res != 0) return res;
+        long dateA = WritableComparator.readLong(b1, s1);
+        long dateB = WritableComparator.readLong(b2, s2);
+        if( dateA < dateB) return -1;
+        if( dateA > dateB) return 1;
+        return 0;
+    }
+
+    /**
+     * Raw comparator used by default when sorting UpdateEventKeys
+     */
+    public static class Comparator extends WritableComparator {
+
+        public Comparator() {
+            super(UpdateEventKey.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            return compareSerialized(b1, s1, b2, s2);
+        }
+    }
+
+    static {
+        WritableComparator.define(UpdateEventKey.class, new Comparator());
+    }
 }
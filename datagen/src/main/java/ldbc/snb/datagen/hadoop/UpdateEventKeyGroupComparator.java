@@ -10,7 +10,7 @@ import org.apache.hadoop.io.WritableComparator;
 public class UpdateEventKeyGroupComparator extends WritableComparator {
 
     protected UpdateEventKeyGroupComparator() {
-        super(UpdateEventKey.class,true);
+        super(UpdateEventKey.class);
     }
 
     @Override
@@ -21,4 +21,12 @@ public class UpdateEventKeyGroupComparator extends WritableComparator {
         if (keyA.partition != keyB.partition) return keyA.partition - keyB.partition;
         return 0;
     }
+
+    /**
+     * Same grouping as above, computed on the serialized keys
+     */
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+        return UpdateEventKey.compareSerializedStream(b1, s1, b2, s2);
+    }
 }
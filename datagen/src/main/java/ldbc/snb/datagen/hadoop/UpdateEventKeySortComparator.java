@@ -10,7 +10,7 @@ import org.apache.hadoop.io.WritableComparator;
 public class UpdateEventKeySortComparator extends WritableComparator {
 
     protected UpdateEventKeySortComparator() {
-        super(UpdateEventKey.class,true);
+        super(UpdateEventKey.class);
     }
 
     @Override
@@ -23,4 +23,12 @@ public class UpdateEventKeySortComparator extends WritableComparator {
         if( keyA.date > keyB.date) return 1;
         return 0;
     }
+
+    /**
+     * Same order as above, computed on the serialized keys to avoid deserializing them during the sort
+     */
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+        return UpdateEventKey.compareSerialized(b1, s1, b2, s2);
+    }
 }
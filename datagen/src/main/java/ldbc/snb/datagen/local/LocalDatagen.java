@@ -0,0 +1,510 @@
+package ldbc.snb.datagen.local;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.generator.DatagenParams;
+import ldbc.snb.datagen.generator.KnowsGenerator;
+import ldbc.snb.datagen.generator.PersonActivityGenerator;
+import ldbc.snb.datagen.generator.PersonGenerator;
+import ldbc.snb.datagen.hadoop.HadoopFileKeyChanger;
+import ldbc.snb.datagen.hadoop.RandomKeySetter;
+import ldbc.snb.datagen.hadoop.TupleKey;
+import ldbc.snb.datagen.hadoop.UpdateEventKey;
+import ldbc.snb.datagen.objects.Knows;
+import ldbc.snb.datagen.objects.Person;
+import ldbc.snb.datagen.serializer.PersonActivitySerializer;
+import ldbc.snb.datagen.serializer.PersonSerializer;
+import ldbc.snb.datagen.serializer.UpdateEventSerializer;
+import ldbc.snb.datagen.serializer.UpdateStreamSorter;
+import ldbc.snb.datagen.vocabulary.SN;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Single JVM replacement of the MapReduce jobs chained by {@link ldbc.snb.datagen.generator.LDBCDatagen}.
+ * The work of every mapper/reducer is run as a task on a fixed pool of numThreads threads. This is a plain
+ * ExecutorService rather than a fork-join pool: the tasks are the coarse, independent units of the Hadoop jobs and
+ * are never split further, so there is no work stealing to gain from.
+ * Between steps persons are spilled to sequence files under hadoopDir/local, one file per block (see
+ * {@link PersonFiles}), and ranking only keeps the keys of the persons in memory, so memory is bounded by the blocks
+ * the tasks are working on rather than by the scale factor.
+ * Each step reproduces the partitioning and ordering of its Hadoop counterpart: persons are ranked by the
+ * same keys, blocks are assigned to "reducers" as block % numThreads, and every reducer processes its blocks in
+ * ascending order with its own generator and serializer instances initialized with the same reducer id,
+ * so that for a given seed and number of threads the same files are produced.
+ * The only exception is the update stream sort job, which Hadoop runs leaving update events with equal dates in no
+ * particular order, and which here sorts them as the reducers do with ldbc.snb.datagen.serializer.updateStreams.sortJob
+ * off.
+ */
+public class LocalDatagen {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalDatagen.class);
+
+    private final Configuration conf;
+    private final int numThreads;
+    private final int blockSize;
+    private ExecutorService executor;
+
+    public LocalDatagen(Configuration conf) {
+        this.conf = new Configuration(conf);
+        this.numThreads = DatagenParams.numThreads;
+        this.blockSize = DatagenParams.blockSize;
+    }
+
+    private void printProgress(String message) {
+        System.out.println("************************************************");
+        System.out.println("* " + message + " *");
+        System.out.println("************************************************");
+    }
+
+    private static Path spillDir() {
+        return new Path(DatagenParams.hadoopDir + "/local");
+    }
+
+    private static Path spillPath(String name) {
+        return new Path(spillDir(), name);
+    }
+
+    /**
+     * Generates and serializes persons, their friendships, their activity and the update streams.
+     * The invariant schema and the update stream properties are left to the caller, as in the Hadoop flow.
+     */
+    public void run() throws Exception {
+        ArrayList<Float> percentages = new ArrayList<Float>();
+        percentages.add(0.45f);
+        percentages.add(0.45f);
+        percentages.add(0.1f);
+
+        executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            long start = System.currentTimeMillis();
+            printProgress("Starting: Person generation");
+            PersonFiles persons = generatePersons();
+            logger.info("Time to generate persons: {} ms", System.currentTimeMillis() - start);
+
+            List<PersonFiles> edgePasses = new ArrayList<PersonFiles>();
+            printProgress("Creating university location correlated edges");
+            edgePasses.add(generateKnows(persons, "ldbc.snb.datagen.hadoop.UniversityKeySetter", percentages, 0,
+                    conf.get("ldbc.snb.datagen.generator.knowsGenerator"), "universityEdges"));
+            printProgress("Creating main interest correlated edges");
+            edgePasses.add(generateKnows(persons, "ldbc.snb.datagen.hadoop.InterestKeySetter", percentages, 1,
+                    conf.get("ldbc.snb.datagen.generator.knowsGenerator"), "interestEdges"));
+            printProgress("Creating random correlated edges");
+            edgePasses.add(generateKnows(persons, "ldbc.snb.datagen.hadoop.RandomKeySetter", percentages, 2,
+                    "ldbc.snb.datagen.generator.RandomKnowsGenerator", "randomEdges"));
+            persons.delete();
+
+            printProgress("Merging the different edge files");
+            PersonFiles merged = mergeFriendships(edgePasses);
+
+            boolean sorted = conf.getBoolean("ldbc.snb.datagen.serializer.persons.sort", false);
+            boolean activity = conf.getBoolean("ldbc.snb.datagen.generator.activity", true);
+            PersonFiles ranked = null;
+            if (sorted || activity) {
+                ranked = merged.rank(new RandomKeySetter(), 1, blockSize, spillPath("rankedPersons"));
+            }
+
+            printProgress("Serializing persons");
+            start = System.currentTimeMillis();
+            if (sorted == false) {
+                serializePersons(merged);
+            } else {
+                serializeSortedPersons(ranked);
+            }
+            logger.info("Time to serialize persons: {} ms", System.currentTimeMillis() - start);
+            merged.delete();
+
+            if (activity) {
+                printProgress("Generating and serializing person activity");
+                start = System.currentTimeMillis();
+                generateActivity(ranked);
+                logger.info("Time to generate activity: {} ms", System.currentTimeMillis() - start);
+            }
+            if (ranked != null) {
+                ranked.delete();
+            }
+
+            if (conf.getBoolean("ldbc.snb.datagen.serializer.updateStreams", false) && DatagenParams.updateStreamSortJob) {
+                printProgress("Sorting update streams ");
+                sortUpdateStreams("person");
+                if (conf.getBoolean("ldbc.snb.datagen.generator.activity", false)) {
+                    sortUpdateStreams("forum");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor = null;
+            FileSystem.get(conf).delete(spillDir(), true);
+        }
+    }
+
+    /**
+     * Runs the tasks on the pool and waits for all of them, rethrowing the first failure
+     */
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws Exception {
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        List<T> results = new ArrayList<T>(tasks.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private int numBlocks(int numPersons) {
+        return (int) Math.ceil(numPersons / (double) blockSize);
+    }
+
+    private static HadoopFileKeyChanger.KeySetter<TupleKey> keySetter(String className) throws Exception {
+        return (HadoopFileKeyChanger.KeySetter<TupleKey>) Class.forName(className).newInstance();
+    }
+
+    /**
+     * Equivalent of HadoopPersonGenerator, one task per mapper
+     *
+     * @return the persons, one chunk per block
+     */
+    private PersonFiles generatePersons() throws Exception {
+        if (DatagenParams.numPersons % DatagenParams.cellSize != 0) {
+            throw new IllegalArgumentException("Number of users should be a multiple of the cellsize");
+        }
+        final int numBlocks = numBlocks(DatagenParams.numPersons);
+        final PersonFiles persons = PersonFiles.create(conf, spillPath("persons"), numBlocks);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int threadId = 0; threadId < numThreads; ++threadId) {
+            final int initBlock = (int) (Math.ceil((numBlocks / (double) numThreads) * threadId));
+            final int endBlock = (int) (Math.ceil((numBlocks / (double) numThreads) * (threadId + 1)));
+            tasks.add(new Callable<Void>() {
+                public Void call() throws IOException {
+                    PersonGenerator personGenerator = new PersonGenerator(conf, conf.get("ldbc.snb.datagen.generator.distribution.degreeDistribution"));
+                    for (int i = initBlock; i < endBlock; ++i) {
+                        Person[] block = personGenerator.generateUserBlock(i, blockSize);
+                        List<Person> blockPersons = new ArrayList<Person>(block.length);
+                        for (int j = 0; j < block.length && blockSize * i + j < DatagenParams.numPersons; ++j) {
+                            blockPersons.add(block[j]);
+                        }
+                        persons.write(i, blockPersons);
+                    }
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+        return persons;
+    }
+
+    /**
+     * Equivalent of HadoopKnowsGenerator: ranks the persons by the key of the pass and runs the knows generator over
+     * each block of blockSize persons
+     *
+     * @return all the persons, holding the edges created in this pass only
+     */
+    private PersonFiles generateKnows(PersonFiles persons, String preKeySetterName, final ArrayList<Float> percentages,
+                                      final int stepIndex, final String knowsGeneratorName, String name) throws Exception {
+        long start = System.currentTimeMillis();
+        final PersonFiles ranked = persons.rank(keySetter(preKeySetterName), 1, blockSize, spillPath(name + "Ranked"));
+        final PersonFiles edges = PersonFiles.create(conf, spillPath(name), ranked.numChunks());
+
+        List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+        for (int reducerId = 0; reducerId < numThreads; ++reducerId) {
+            final int reducer = reducerId;
+            tasks.add(new Callable<Long>() {
+                public Long call() throws Exception {
+                    KnowsGenerator knowsGenerator = (KnowsGenerator) Class.forName(knowsGeneratorName).newInstance();
+                    knowsGenerator.initialize(conf);
+                    long numGeneratedEdges = 0;
+                    for (int block = reducer; block < ranked.numChunks(); block += numThreads) {
+                        ArrayList<Person> blockList = ranked.read(block);
+                        knowsGenerator.generateKnows(blockList, block, percentages, stepIndex);
+                        for (Person p : blockList) {
+                            numGeneratedEdges += p.knows().size();
+                        }
+                        edges.write(block, blockList);
+                    }
+                    return numGeneratedEdges;
+                }
+            });
+        }
+        long numGeneratedEdges = 0;
+        for (Long generated : runAll(tasks)) {
+            numGeneratedEdges += generated;
+        }
+        ranked.delete();
+        logger.info("Number of generated edges: {}", numGeneratedEdges / 2);
+        logger.info("Time to generate knows relations: {} ms", System.currentTimeMillis() - start);
+        return edges;
+    }
+
+    /**
+     * Equivalent of HadoopMergeFriendshipFiles: unions the edges created by each pass for every person,
+     * keeping the earliest edge between two persons. Every pass is ranked by account id, so that the chunks of the
+     * passes hold the same persons, and merged chunk by chunk.
+     */
+    private PersonFiles mergeFriendships(final List<PersonFiles> edgePasses) throws Exception {
+        final HadoopFileKeyChanger.KeySetter<TupleKey> byAccountId = new HadoopFileKeyChanger.KeySetter<TupleKey>() {
+            public TupleKey getKey(Object object) {
+                return new TupleKey(((Person) object).accountId(), 0);
+            }
+        };
+        List<Callable<PersonFiles>> ranks = new ArrayList<Callable<PersonFiles>>();
+        for (int pass = 0; pass < edgePasses.size(); ++pass) {
+            final int index = pass;
+            ranks.add(new Callable<PersonFiles>() {
+                public PersonFiles call() throws IOException {
+                    PersonFiles ranked = edgePasses.get(index).rank(byAccountId, 1, blockSize, spillPath("mergeRanked" + index));
+                    edgePasses.get(index).delete();
+                    return ranked;
+                }
+            });
+        }
+        final List<PersonFiles> rankedPasses = runAll(ranks);
+
+        final PersonFiles merged = PersonFiles.create(conf, spillPath("mergedPersons"), rankedPasses.get(0).numChunks());
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int t = 0; t < numThreads; ++t) {
+            final int first = t;
+            tasks.add(new Callable<Integer>() {
+                public Integer call() throws IOException {
+                    int numRepeated = 0;
+                    for (int chunk = first; chunk < merged.numChunks(); chunk += numThreads) {
+                        ArrayList<Person> persons = rankedPasses.get(0).read(chunk);
+                        for (int pass = 1; pass < rankedPasses.size(); ++pass) {
+                            ArrayList<Person> passPersons = rankedPasses.get(pass).read(chunk);
+                            for (int i = 0; i < persons.size(); ++i) {
+                                numRepeated += persons.get(i).knows().merge(passPersons.get(i).knows());
+                            }
+                        }
+                        merged.write(chunk, persons);
+                    }
+                    return numRepeated;
+                }
+            });
+        }
+        int numRepeated = 0;
+        for (Integer repeated : runAll(tasks)) {
+            numRepeated += repeated;
+        }
+        for (PersonFiles ranked : rankedPasses) {
+            ranked.delete();
+        }
+        logger.info("Number of repeated edges: {}", numRepeated);
+        return merged;
+    }
+
+    private PersonSerializer newPersonSerializer(int reducerId) throws Exception {
+        PersonSerializer personSerializer = (PersonSerializer) Class.forName(conf.get("ldbc.snb.datagen.serializer.personSerializer")).newInstance();
+        personSerializer.initialize(conf, reducerId);
+        return personSerializer;
+    }
+
+    private UpdateEventSerializer newUpdateSerializer(String type, int reducerId) throws IOException {
+        if (!DatagenParams.updateStreams) {
+            return null;
+        }
+        return new UpdateEventSerializer(conf, DatagenParams.hadoopDir + "/temp_updateStream_" + type + "_" + reducerId, type, reducerId, DatagenParams.numUpdatePartitions);
+    }
+
+    /**
+     * Serializes a person and its edges, or sends them to the update stream, as HadoopPersonSerializer does
+     */
+    private static void exportPerson(Person p, PersonSerializer personSerializer, UpdateEventSerializer updateSerializer) throws IOException {
+        if (p.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams) {
+            personSerializer.export(p);
+        } else {
+            updateSerializer.export(p);
+            updateSerializer.changePartition();
+        }
+        for (Knows k : p.knows()) {
+            if (k.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams) {
+                personSerializer.export(p, k);
+            }
+        }
+    }
+
+    /**
+     * Equivalent of HadoopPersonSerializer: persons are partitioned by their random key and serialized in key order
+     */
+    private void serializePersons(PersonFiles persons) throws Exception {
+        final PersonFiles partitions = persons.rank(new RandomKeySetter(), numThreads, blockSize, spillPath("serializedPersons"));
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int reducerId = 0; reducerId < numThreads; ++reducerId) {
+            final int reducer = reducerId;
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    PersonSerializer personSerializer = newPersonSerializer(reducer);
+                    UpdateEventSerializer updateSerializer = newUpdateSerializer("person", reducer);
+                    for (int chunk = partitions.firstChunk(reducer); chunk < partitions.endChunk(reducer); ++chunk) {
+                        for (Person p : partitions.read(chunk)) {
+                            personSerializer.reset();
+                            exportPerson(p, personSerializer, updateSerializer);
+                        }
+                    }
+                    personSerializer.close();
+                    if (updateSerializer != null) {
+                        updateSerializer.close();
+                    }
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+        partitions.delete();
+    }
+
+    /**
+     * Equivalent of HadoopPersonSortAndSerializer: persons ranked by their random key are serialized by blocks
+     */
+    private void serializeSortedPersons(final PersonFiles ranked) throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int reducerId = 0; reducerId < numThreads; ++reducerId) {
+            final int reducer = reducerId;
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    PersonSerializer personSerializer = newPersonSerializer(reducer);
+                    UpdateEventSerializer updateSerializer = newUpdateSerializer("person", reducer);
+                    for (int block = reducer; block < ranked.numChunks(); block += numThreads) {
+                        SN.machineId(block);
+                        personSerializer.reset();
+                        for (Person p : ranked.read(block)) {
+                            exportPerson(p, personSerializer, updateSerializer);
+                        }
+                    }
+                    personSerializer.close();
+                    if (updateSerializer != null) {
+                        updateSerializer.close();
+                    }
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+    }
+
+    /**
+     * Equivalent of HadoopPersonActivityGenerator over the persons ranked by their random key, followed by the copy
+     * of the factor files done by LDBCDatagen
+     */
+    private void generateActivity(final PersonFiles ranked) throws Exception {
+        final FileSystem fs = FileSystem.get(conf);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int reducerId = 0; reducerId < numThreads; ++reducerId) {
+            final int reducer = reducerId;
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    PersonActivitySerializer personActivitySerializer = (PersonActivitySerializer) Class.forName(conf.get("ldbc.snb.datagen.serializer.personActivitySerializer")).newInstance();
+                    personActivitySerializer.initialize(conf, reducer);
+                    UpdateEventSerializer updateSerializer = newUpdateSerializer("forum", reducer);
+                    PersonActivityGenerator personActivityGenerator = new PersonActivityGenerator(personActivitySerializer, updateSerializer, conf);
+                    OutputStream personFactors = fs.create(new Path(DatagenParams.hadoopDir + "/" + "m" + reducer + DatagenParams.personFactorsFile()));
+                    OutputStream activityFactors = fs.create(new Path(DatagenParams.hadoopDir + "/" + "m" + reducer + DatagenParams.ACTIVITY_FILE));
+                    OutputStream friends = fs.create(new Path(DatagenParams.hadoopDir + "/" + "m0friendList" + reducer + ".csv"));
+
+                    for (int block = reducer; block < ranked.numChunks(); block += numThreads) {
+                        ArrayList<Person> blockList = ranked.read(block);
+                        for (Person p : blockList) {
+                            StringBuilder strbuf = new StringBuilder();
+                            strbuf.append(p.accountId());
+                            for (Knows k : p.knows()) {
+                                strbuf.append(",");
+                                strbuf.append(k.to().accountId());
+                                if (k.creationDate() > Dictionaries.dates.getUpdateThreshold() && DatagenParams.updateStreams) {
+                                    updateSerializer.export(p, k);
+                                }
+                            }
+                            if (DatagenParams.updateStreams) {
+                                updateSerializer.changePartition();
+                            }
+                            strbuf.append("\n");
+                            friends.write(strbuf.toString().getBytes("UTF8"));
+                        }
+                        personActivityGenerator.generateActivityForBlock(block, blockList, null);
+                        personActivityGenerator.writePersonFactors(personFactors);
+                    }
+                    personActivityGenerator.writeActivityFactors(activityFactors);
+                    activityFactors.close();
+                    personFactors.close();
+                    friends.close();
+                    personActivitySerializer.close();
+                    if (updateSerializer != null) {
+                        updateSerializer.close();
+                    }
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+
+        int numBlocks = numBlocks(DatagenParams.numPersons);
+        for (int i = 0; i < numThreads && i < numBlocks; ++i) {
+            fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m" + i + DatagenParams.personFactorsFile()), new Path("./"));
+            fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m" + i + "activityFactors.txt"), new Path("./"));
+            fs.copyToLocalFile(false, new Path(DatagenParams.hadoopDir + "/m0friendList" + i + ".csv"), new Path("./"));
+        }
+    }
+
+    /**
+     * Equivalent of HadoopUpdateStreamSorterAndSerializer, one task per reducer: the temporary streams of the reducer
+     * go through an {@link UpdateStreamSorter}, which spills sorted runs once it holds more than the sort buffer and
+     * writes them as csv files
+     */
+    private void sortUpdateStreams(final String type) throws Exception {
+        final FileSystem fs = FileSystem.get(conf);
+        final boolean compressed = conf.getBoolean("ldbc.snb.datagen.serializer.compressed", false);
+        final String socialNetworkDir = conf.get("ldbc.snb.datagen.serializer.socialNetworkDir");
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int reducerId = 0; reducerId < numThreads; ++reducerId) {
+            final int reducer = reducerId;
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    UpdateStreamSorter sorter = new UpdateStreamSorter(conf, socialNetworkDir + "/updateStream", type, reducer,
+                            DatagenParams.numUpdatePartitions, false, compressed, DatagenParams.updateStreamSortBuffer);
+                    for (int partition = 0; partition < DatagenParams.numUpdatePartitions; ++partition) {
+                        Path inputFile = new Path(DatagenParams.hadoopDir + "/temp_updateStream_" + type + "_" + reducer + "_" + partition);
+                        SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(inputFile));
+                        try {
+                            UpdateEventKey key = new UpdateEventKey();
+                            Text value = new Text();
+                            while (reader.next(key, value)) {
+                                // rows are date|dependantDate|type|fields\n, as UpdateEventSerializer writes them
+                                String row = value.toString();
+                                String[] fields = row.substring(0, row.length() - 1).split("\\|", -1);
+                                sorter.add(partition, Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                                        Integer.parseInt(fields[2]), Arrays.asList(fields).subList(3, fields.length));
+                            }
+                        } finally {
+                            reader.close();
+                        }
+                        fs.delete(inputFile, true);
+                    }
+                    sorter.close();
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+    }
+}
@@ -0,0 +1,171 @@
+package ldbc.snb.datagen.local;
+
+import ldbc.snb.datagen.hadoop.HadoopFileKeyChanger;
+import ldbc.snb.datagen.hadoop.TupleKey;
+import ldbc.snb.datagen.objects.Person;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.SequenceFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Persons spilled by {@link LocalDatagen} between its steps, in one sequence file per chunk of at most a block of
+ * persons, so that only the chunks its tasks are working on are held in memory. Every person is keyed by its position
+ * in the chunk. Chunks are grouped in partitions, and the chunks of a partition hold its persons in order.
+ */
+class PersonFiles {
+
+    private final Configuration conf;
+    private final Path dir;
+    private final int[] firstChunk;    /** The chunks of partition p are firstChunk[p] to firstChunk[p+1]-1 */
+
+    private PersonFiles(Configuration conf, Path dir, int[] firstChunk) {
+        this.conf = conf;
+        this.dir = dir;
+        this.firstChunk = firstChunk;
+    }
+
+    /**
+     * @return files of numChunks chunks in a single partition, to be written with {@link #write}
+     */
+    static PersonFiles create(Configuration conf, Path dir, int numChunks) throws IOException {
+        FileSystem.get(conf).delete(dir, true);
+        return new PersonFiles(conf, dir, new int[]{0, numChunks});
+    }
+
+    int numChunks() {
+        return firstChunk[firstChunk.length - 1];
+    }
+
+    int firstChunk(int partition) {
+        return firstChunk[partition];
+    }
+
+    int endChunk(int partition) {
+        return firstChunk[partition + 1];
+    }
+
+    private Path chunk(int chunk) {
+        return new Path(dir, "chunk_" + chunk);
+    }
+
+    private SequenceFile.Writer writer(int chunk) throws IOException {
+        return SequenceFile.createWriter(conf, SequenceFile.Writer.file(chunk(chunk)),
+                SequenceFile.Writer.keyClass(LongWritable.class), SequenceFile.Writer.valueClass(Person.class));
+    }
+
+    /**
+     * Writes the persons of a chunk, in the order of the list
+     */
+    void write(int chunk, List<Person> persons) throws IOException {
+        SequenceFile.Writer writer = writer(chunk);
+        try {
+            for (int i = 0; i < persons.size(); ++i) {
+                writer.append(new LongWritable(i), persons.get(i));
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads the persons of a chunk, in the order they were written or ranked in
+     */
+    ArrayList<Person> read(int chunk) throws IOException {
+        List<Person> records = new ArrayList<Person>();
+        List<Long> positions = new ArrayList<Long>();
+        SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(chunk(chunk)));
+        try {
+            LongWritable position = new LongWritable();
+            Person person = new Person();
+            while (reader.next(position, person)) {
+                records.add(person);
+                positions.add(position.get());
+                person = new Person();
+            }
+        } finally {
+            reader.close();
+        }
+        Person[] persons = new Person[records.size()];
+        for (int i = 0; i < persons.length; ++i) {
+            persons[positions.get(i).intValue()] = records.get(i);
+        }
+        return new ArrayList<Person>(Arrays.asList(persons));
+    }
+
+    void delete() throws IOException {
+        FileSystem.get(conf).delete(dir, true);
+    }
+
+    /**
+     * Ranks the persons by the key the key setter assigns them, as HadoopFileRanker does, and spills them in rank order
+     * to chunks of chunkSize persons. The persons are read twice and only their keys are kept in memory.
+     * With more than one partition, persons are first partitioned by key % numPartitions, as HadoopTuplePartitioner
+     * does, and ranked within their partition.
+     *
+     * @param output directory of the ranked files
+     */
+    PersonFiles rank(HadoopFileKeyChanger.KeySetter<TupleKey> keySetter, int numPartitions, int chunkSize, Path output) throws IOException {
+        final List<TupleKey> keys = new ArrayList<TupleKey>();
+        for (int c = 0; c < numChunks(); ++c) {
+            for (Person p : read(c)) {
+                keys.add(keySetter.getKey(p));
+            }
+        }
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return keys.get(a).compareTo(keys.get(b));
+            }
+        });
+
+        int[] partitionSize = new int[numPartitions];
+        int[] chunkOf = new int[order.length];
+        int[] positionOf = new int[order.length];
+        for (Integer i : order) {
+            int rank = partitionSize[(int) (keys.get(i).key % numPartitions)]++;
+            chunkOf[i] = rank / chunkSize;
+            positionOf[i] = rank % chunkSize;
+        }
+        int[] rankedFirstChunk = new int[numPartitions + 1];
+        for (int p = 0; p < numPartitions; ++p) {
+            rankedFirstChunk[p + 1] = rankedFirstChunk[p] + (int) Math.ceil(partitionSize[p] / (double) chunkSize);
+        }
+        for (int i = 0; i < chunkOf.length; ++i) {
+            chunkOf[i] += rankedFirstChunk[(int) (keys.get(i).key % numPartitions)];
+        }
+
+        FileSystem.get(conf).delete(output, true);
+        PersonFiles ranked = new PersonFiles(conf, output, rankedFirstChunk);
+        SequenceFile.Writer[] writers = new SequenceFile.Writer[ranked.numChunks()];
+        try {
+            int i = 0;
+            for (int c = 0; c < numChunks(); ++c) {
+                for (Person p : read(c)) {
+                    if (writers[chunkOf[i]] == null) {
+                        writers[chunkOf[i]] = ranked.writer(chunkOf[i]);
+                    }
+                    writers[chunkOf[i]].append(new LongWritable(positionOf[i]), p);
+                    ++i;
+                }
+            }
+        } finally {
+            for (SequenceFile.Writer writer : writers) {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+        }
+        return ranked;
+    }
+}
@@ -71,6 +71,12 @@ public class Knows implements Writable, Comparable<Knows> {
         weight_ = weight;
     }
 
+    Knows( Person.PersonSummary to, long creationDate, float weight ){
+	    to_ = to;
+	    creationDate_ = creationDate;
+        weight_ = weight;
+    }
+
     public Person.PersonSummary to ( ) {
 	    return to_;
     }
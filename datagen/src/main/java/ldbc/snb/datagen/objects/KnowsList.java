@@ -0,0 +1,316 @@
+package ldbc.snb.datagen.objects;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of the knows relations of a person, ordered by the account id of the target as the former TreeSet<Knows> was.
+ * Relations are stored column wise in primitive arrays (target ids, dates, weights and the target summary fields)
+ * instead of one Knows and one PersonSummary object per relation. Knows objects are only created when iterating,
+ * so they are copies: modifying them does not modify the set.
+ * The serialized form delta encodes the sorted target ids and the dates as variable length longs.
+ */
+public class KnowsList extends AbstractSet<Knows> implements Writable {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int size_ = 0;
+    private long[] to_;
+    private long[] creationDate_;
+    private float[] weight_;
+    private long[] toCreationDate_;
+    private int[] toBrowserId_;
+    private int[] toIp_;
+    private int[] toMask_;
+    private boolean[] toLargePoster_;
+
+    public KnowsList() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public KnowsList(KnowsList k) {
+        allocate(Math.max(INITIAL_CAPACITY, k.size_));
+        copy(k);
+    }
+
+    private void allocate(int capacity) {
+        to_ = new long[capacity];
+        creationDate_ = new long[capacity];
+        weight_ = new float[capacity];
+        toCreationDate_ = new long[capacity];
+        toBrowserId_ = new int[capacity];
+        toIp_ = new int[capacity];
+        toMask_ = new int[capacity];
+        toLargePoster_ = new boolean[capacity];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= to_.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, to_.length * 2);
+        to_ = Arrays.copyOf(to_, newCapacity);
+        creationDate_ = Arrays.copyOf(creationDate_, newCapacity);
+        weight_ = Arrays.copyOf(weight_, newCapacity);
+        toCreationDate_ = Arrays.copyOf(toCreationDate_, newCapacity);
+        toBrowserId_ = Arrays.copyOf(toBrowserId_, newCapacity);
+        toIp_ = Arrays.copyOf(toIp_, newCapacity);
+        toMask_ = Arrays.copyOf(toMask_, newCapacity);
+        toLargePoster_ = Arrays.copyOf(toLargePoster_, newCapacity);
+    }
+
+    /**
+     * Replaces the contents of this set by the ones of k
+     */
+    public void copy(KnowsList k) {
+        ensureCapacity(k.size_);
+        size_ = k.size_;
+        System.arraycopy(k.to_, 0, to_, 0, size_);
+        System.arraycopy(k.creationDate_, 0, creationDate_, 0, size_);
+        System.arraycopy(k.weight_, 0, weight_, 0, size_);
+        System.arraycopy(k.toCreationDate_, 0, toCreationDate_, 0, size_);
+        System.arraycopy(k.toBrowserId_, 0, toBrowserId_, 0, size_);
+        System.arraycopy(k.toIp_, 0, toIp_, 0, size_);
+        System.arraycopy(k.toMask_, 0, toMask_, 0, size_);
+        System.arraycopy(k.toLargePoster_, 0, toLargePoster_, 0, size_);
+    }
+
+    @Override
+    public int size() {
+        return size_;
+    }
+
+    @Override
+    public void clear() {
+        size_ = 0;
+    }
+
+    /**
+     * @return position of the relation to the given account, or (-(insertion point) - 1) if there is none
+     */
+    public int indexOf(long accountId) {
+        return Arrays.binarySearch(to_, 0, size_, accountId);
+    }
+
+    public long accountId(int index) {
+        return to_[index];
+    }
+
+    public long creationDate(int index) {
+        return creationDate_[index];
+    }
+
+    public float weight(int index) {
+        return weight_[index];
+    }
+
+    /**
+     * @return a copy of the relation at the given position
+     */
+    public Knows get(int index) {
+        if (index < 0 || index >= size_) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size_);
+        }
+        Person.PersonSummary to = new Person.PersonSummary();
+        to.accountId(to_[index]);
+        to.creationDate(toCreationDate_[index]);
+        to.browserId(toBrowserId_[index]);
+        to.ipAddress(new IP(toIp_[index], toMask_[index]));
+        to.isLargePoster(toLargePoster_[index]);
+        return new Knows(to, creationDate_[index], weight_[index]);
+    }
+
+    private void set(int index, Knows k) {
+        Person.PersonSummary to = k.to();
+        to_[index] = to.accountId();
+        creationDate_[index] = k.creationDate();
+        weight_[index] = k.weight();
+        toCreationDate_[index] = to.creationDate();
+        toBrowserId_[index] = to.browserId();
+        toIp_[index] = to.ipAddress().getIp();
+        toMask_[index] = to.ipAddress().getMask();
+        toLargePoster_[index] = to.isLargePoster();
+    }
+
+    private void copy(KnowsList from, int fromIndex, int index) {
+        to_[index] = from.to_[fromIndex];
+        creationDate_[index] = from.creationDate_[fromIndex];
+        weight_[index] = from.weight_[fromIndex];
+        toCreationDate_[index] = from.toCreationDate_[fromIndex];
+        toBrowserId_[index] = from.toBrowserId_[fromIndex];
+        toIp_[index] = from.toIp_[fromIndex];
+        toMask_[index] = from.toMask_[fromIndex];
+        toLargePoster_[index] = from.toLargePoster_[fromIndex];
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(to_, from, to_, to, length);
+        System.arraycopy(creationDate_, from, creationDate_, to, length);
+        System.arraycopy(weight_, from, weight_, to, length);
+        System.arraycopy(toCreationDate_, from, toCreationDate_, to, length);
+        System.arraycopy(toBrowserId_, from, toBrowserId_, to, length);
+        System.arraycopy(toIp_, from, toIp_, to, length);
+        System.arraycopy(toMask_, from, toMask_, to, length);
+        System.arraycopy(toLargePoster_, from, toLargePoster_, to, length);
+    }
+
+    /**
+     * Adds a copy of the relation, unless there is already one to the same account
+     *
+     * @return true if the relation was added
+     */
+    @Override
+    public boolean add(Knows k) {
+        int index = indexOf(k.to().accountId());
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        ensureCapacity(size_ + 1);
+        shift(index, index + 1, size_ - index);
+        set(index, k);
+        size_++;
+        return true;
+    }
+
+    public void remove(int index) {
+        shift(index + 1, index, size_ - index - 1);
+        size_--;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Knows && indexOf(((Knows) o).to().accountId()) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Knows)) {
+            return false;
+        }
+        int index = indexOf(((Knows) o).to().accountId());
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Adds the relations of other to this set. When both sets have a relation to the same account,
+     * the one with the earliest creation date is kept, and this set's one on ties.
+     *
+     * @return number of relations of other that were already in this set
+     */
+    public int merge(KnowsList other) {
+        int repeated = 0;
+        int[] positions = new int[other.size_];
+        int numNew = 0;
+        for (int i = 0; i < other.size_; ++i) {
+            int index = indexOf(other.to_[i]);
+            if (index >= 0) {
+                repeated++;
+                if (other.creationDate_[i] < creationDate_[index]) {
+                    copy(other, i, index);
+                }
+            } else {
+                positions[numNew++] = i;
+            }
+        }
+        if (numNew == 0) {
+            return repeated;
+        }
+        ensureCapacity(size_ + numNew);
+        // both sides are sorted, so merge from the back into the grown arrays
+        int read = size_ - 1;
+        int write = size_ + numNew - 1;
+        for (int n = numNew - 1; n >= 0; --n) {
+            int fromIndex = positions[n];
+            while (read >= 0 && to_[read] > other.to_[fromIndex]) {
+                copy(this, read--, write--);
+            }
+            copy(other, fromIndex, write--);
+        }
+        size_ += numNew;
+        return repeated;
+    }
+
+    @Override
+    public Iterator<Knows> iterator() {
+        return new Iterator<Knows>() {
+            private int next = 0;
+            private boolean removable = false;
+
+            public boolean hasNext() {
+                return next < size_;
+            }
+
+            public Knows next() {
+                if (next >= size_) {
+                    throw new NoSuchElementException();
+                }
+                removable = true;
+                return get(next++);
+            }
+
+            public void remove() {
+                if (!removable) {
+                    throw new IllegalStateException();
+                }
+                KnowsList.this.remove(--next);
+                removable = false;
+            }
+        };
+    }
+
+    public void readFields(DataInput arg0) throws IOException {
+        size_ = 0;
+        int size = WritableUtils.readVInt(arg0);
+        ensureCapacity(size);
+        long to = 0;
+        long creationDate = 0;
+        long toCreationDate = 0;
+        for (int i = 0; i < size; ++i) {
+            to += WritableUtils.readVLong(arg0);
+            creationDate += WritableUtils.readVLong(arg0);
+            toCreationDate += WritableUtils.readVLong(arg0);
+            to_[i] = to;
+            creationDate_[i] = creationDate;
+            toCreationDate_[i] = toCreationDate;
+            weight_[i] = arg0.readFloat();
+            toBrowserId_[i] = WritableUtils.readVInt(arg0);
+            toIp_[i] = arg0.readInt();
+            toMask_[i] = WritableUtils.readVInt(arg0);
+            toLargePoster_[i] = arg0.readBoolean();
+        }
+        size_ = size;
+    }
+
+    public void write(DataOutput arg0) throws IOException {
+        WritableUtils.writeVInt(arg0, size_);
+        long to = 0;
+        long creationDate = 0;
+        long toCreationDate = 0;
+        for (int i = 0; i < size_; ++i) {
+            WritableUtils.writeVLong(arg0, to_[i] - to);
+            WritableUtils.writeVLong(arg0, creationDate_[i] - creationDate);
+            WritableUtils.writeVLong(arg0, toCreationDate_[i] - toCreationDate);
+            to = to_[i];
+            creationDate = creationDate_[i];
+            toCreationDate = toCreationDate_[i];
+            arg0.writeFloat(weight_[i]);
+            WritableUtils.writeVInt(arg0, toBrowserId_[i]);
+            arg0.writeInt(toIp_[i]);
+            WritableUtils.writeVInt(arg0, toMask_[i]);
+            arg0.writeBoolean(toLargePoster_[i]);
+        }
+    }
+}
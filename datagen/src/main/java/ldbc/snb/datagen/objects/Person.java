@@ -111,7 +111,7 @@ public class Person implements Writable {
 	private long accountId_;
 	private long creationDate_;
 	private long maxNumKnows_;
-	private TreeSet<Knows> knows_;
+	private KnowsList knows_;
 	private int browserId_;
 	private IP ipAddress_;
 	private int countryId_;
@@ -136,7 +136,7 @@ public class Person implements Writable {
 	private long classYear_;
 
 	public Person(){
-		knows_ = new TreeSet<Knows>();
+		knows_ = new KnowsList();
 		emails_ = new TreeSet<String>();
 		interests_ = new TreeSet<Integer>();
 		languages_ = new ArrayList<Integer>();
@@ -145,7 +145,6 @@ public class Person implements Writable {
 	}
 
 	public Person( Person p ) {
-		knows_ = new TreeSet<Knows>();
 		emails_ = new TreeSet<String>();
 		interests_ = new TreeSet<Integer>();
 		languages_ = new ArrayList<Integer>();
@@ -155,9 +154,7 @@ public class Person implements Writable {
 		accountId_ = p.accountId();
 		creationDate_ = p.creationDate();
 		maxNumKnows_ = p.maxNumKnows();
-		for( Knows k : p.knows() ) {
-			knows_.add(new Knows(k));
-		}
+		knows_ = new KnowsList(p.knows());
 
 		browserId_ = p.browserId();
 		ipAddress_ = new IP(p.ipAddress());
@@ -229,13 +226,12 @@ public class Person implements Writable {
 
 	}
 
-	public TreeSet<Knows> knows() {
+	public KnowsList knows() {
 		return knows_;
 	}
 
-	public void knows( TreeSet<Knows> knows ) {
-		knows_.clear();
-		knows_.addAll(knows);
+	public void knows( KnowsList knows ) {
+		knows_.copy(knows);
 	}
 
 	public  int browserId() {
@@ -410,13 +406,7 @@ public class Person implements Writable {
 		accountId_ = arg0.readLong();
 		creationDate_ = arg0.readLong();
 		maxNumKnows_ = arg0.readLong();
-		int numFriends = arg0.readShort();
-		knows_ = new TreeSet<Knows>();
-		for (int i = 0; i < numFriends; i++) {
-			Knows fr = new Knows();
-			fr.readFields(arg0);
-			knows_.add(fr);
-		}
+		knows_.readFields(arg0);
 
 		browserId_ = arg0.readInt();
 
@@ -467,11 +457,7 @@ public class Person implements Writable {
 		arg0.writeLong(accountId_);
 		arg0.writeLong(creationDate_);
 		arg0.writeLong(maxNumKnows_);
-		arg0.writeShort(knows_.size());
-
-		for( Knows f : knows_ ) {
-			f.write(arg0);
-		}
+		knows_.write(arg0);
 
 		arg0.writeInt(browserId_);
 		ipAddress_.write(arg0);
@@ -0,0 +1,584 @@
+package ldbc.snb.datagen.parametergenerator;
+
+import ldbc.snb.datagen.parametergenerator.ParameterDiscovery.Row;
+import ldbc.snb.datagen.parametergenerator.TimeParameters.Strategy;
+import ldbc.snb.datagen.parametergenerator.TimeParameters.TimeParameter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Curation of the SNB Interactive substitution parameters, port of paramgenerator/generateparams.py and
+ * readfactors.py. Reads the person factors (text or binary), activity factors and friend list files written by the person activity
+ * generation and writes one query_i_param.txt file per complex read query.
+ * Parsing, the aggregation of the factors of friends and the selection of the parameters of each query run in parallel.
+ * Only the Interactive parameters are ported, the BI ones are still generated by paramgenerator/generateparamsbi.py.
+ * <p>
+ * The persons, dates, durations and names are the ones of generateparams.py once its bugs below are fixed. The
+ * columns drawn at random (countries, tags, tag classes, HS0 and years) come from the same selected values but in a
+ * different order, as java.util.Random does not follow the sequence of the python random module.
+ * <ul>
+ * <li>timeparameters.readTimeParams reads the monthly counts one column early, from the pr factor</li>
+ * <li>timeparameters.findTimeParams does not update the global START_YEAR of the fallback dates</li>
+ * <li>discoverparams.findWindows ignores the start of the range for the first window of a range</li>
+ * <li>discoverparams.mergeWindows drops the last window when it is not merged with the previous one</li>
+ * <li>persons without activity give no date, or a date in year 0, instead of a date at the start year</li>
+ * </ul>
+ */
+public class InteractiveParameterGenerator {
+
+    private static final int NUM_MONTHS = 36 + 1;
+    private static final int NUM_QUERIES = 14;
+
+    // person factors, named as in readfactors.py
+    private static final int F = 0, FF = 1, FP = 2, FPT = 3, FFG = 4, P = 5, PL = 6, PT = 7, PR = 8, G = 9, W = 10,
+                             FFW = 11, FFP = 12, FW = 13, FG = 14, FFPT = 15, NUM_FACTORS = 16;
+
+    private static final int[][] QUERY_FACTORS = {
+            {F, FF},
+            {F, FP},
+            {FF, FFP},
+            {FP, F, FPT},
+            {FF, FFG},
+            {F, FF, FFP, FFPT},
+            {PL, P},
+            {PR, P},
+            {F, FFP, FF},
+            {F, FF, FFP, FFPT},
+            {F, FF, FFW},
+            {F, FP},
+            {FF},
+            {FF}
+    };
+
+    private static class PersonRecord {
+        long id;
+        String name;
+        long[] counts = new long[7];
+        long[] posts = new long[NUM_MONTHS];
+        long[] groups = new long[NUM_MONTHS];
+    }
+
+    private static class FriendList {
+        long id;
+        long[] friends;
+    }
+
+    // persons with factors come first, followed by the ones only appearing in friend lists
+    private final Map<Long, Integer> index = new HashMap<Long, Integer>();
+    private long[] ids;
+    private int numFactorPersons;
+    private long[][] factors;
+    private String[] givenNames;
+    private long[][] postCounts;
+    private long[][] groupCounts;
+    private int[] friendListOwner;
+    private int[][] friendLists;
+
+    private final Map<String, Long> countries = new LinkedHashMap<String, Long>();
+    private final Map<String, Long> tagClasses = new LinkedHashMap<String, Long>();
+    private final Map<String, Long> tags = new LinkedHashMap<String, Long>();
+    private final long[] timestamps = new long[4];
+    private final long seed;
+
+    /**
+     * @param seed seed of the random choice of the columns that are not selected by their factors
+     */
+    public InteractiveParameterGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public InteractiveParameterGenerator() {
+        this(1);
+    }
+
+    private static List<File> listFiles(File dir, String prefix, String suffix) {
+        List<File> files = new ArrayList<File>();
+        File[] all = dir.listFiles();
+        if (all != null) {
+            for (File f : all) {
+                if (f.getName().startsWith(prefix) && f.getName().endsWith(suffix)) {
+                    files.add(f);
+                }
+            }
+        }
+        files.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return files;
+    }
+
+    private static BufferedReader open(File f) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8));
+    }
+
+    private static List<PersonRecord> readPersonFactors(File f) {
+        List<PersonRecord> records = new ArrayList<PersonRecord>();
+        try (BufferedReader reader = open(f)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] fields = line.split(",");
+                PersonRecord r = new PersonRecord();
+                r.id = Long.parseLong(fields[0]);
+                r.name = fields[1];
+                for (int i = 0; i < r.counts.length; ++i) {
+                    r.counts[i] = Long.parseLong(fields[2 + i]);
+                }
+                int offset = 2 + r.counts.length;
+                for (int i = 0; i < NUM_MONTHS && offset + i < fields.length; ++i) {
+                    r.posts[i] = Long.parseLong(fields[offset + i]);
+                }
+                offset += NUM_MONTHS;
+                for (int i = 0; i < NUM_MONTHS && offset + i < fields.length; ++i) {
+                    r.groups[i] = Long.parseLong(fields[offset + i]);
+                }
+                records.add(r);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    /**
+     * Reads the person factors written by FactorTable.writeBinaryPersonFactors
+     */
+    private static List<PersonRecord> readBinaryPersonFactors(File f) {
+        List<PersonRecord> records = new ArrayList<PersonRecord>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            while (true) {
+                PersonRecord r = new PersonRecord();
+                try {
+                    r.id = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                r.name = in.readUTF();
+                int numCounts = in.readInt();
+                for (int i = 0; i < numCounts; ++i) {
+                    long count = in.readLong();
+                    if (i < r.counts.length) r.counts[i] = count;
+                }
+                int numMonths = in.readInt();
+                for (int i = 0; i < numMonths; ++i) {
+                    long count = in.readLong();
+                    if (i < NUM_MONTHS) r.posts[i] = count;
+                }
+                for (int i = 0; i < numMonths; ++i) {
+                    long count = in.readLong();
+                    if (i < NUM_MONTHS) r.groups[i] = count;
+                }
+                records.add(r);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    private static List<FriendList> readFriendLists(File f) {
+        List<FriendList> lists = new ArrayList<FriendList>();
+        try (BufferedReader reader = open(f)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] fields = line.split(",");
+                FriendList l = new FriendList();
+                l.id = Long.parseLong(fields[0]);
+                l.friends = new long[fields.length - 1];
+                for (int i = 1; i < fields.length; ++i) {
+                    l.friends[i - 1] = Long.parseLong(fields[i]);
+                }
+                lists.add(l);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lists;
+    }
+
+    private static void add(Map<String, Long> counts, String key, long value) {
+        Long current = counts.get(key);
+        counts.put(key, current == null ? value : current + value);
+    }
+
+    private void readActivityFactors(File f) throws IOException {
+        try (BufferedReader reader = open(f)) {
+            int numCountries = Integer.parseInt(reader.readLine().trim());
+            for (int i = 0; i < numCountries; ++i) {
+                String[] fields = reader.readLine().split(",");
+                add(countries, fields[0], Long.parseLong(fields[1].trim()));
+            }
+            int numTagClasses = Integer.parseInt(reader.readLine().trim());
+            for (int i = 0; i < numTagClasses; ++i) {
+                String[] fields = reader.readLine().split(",");
+                add(tagClasses, fields[0], Long.parseLong(fields[2].trim()));
+            }
+            int numTags = Integer.parseInt(reader.readLine().trim());
+            for (int i = 0; i < numTags; ++i) {
+                String line = reader.readLine();
+                int comma = line.lastIndexOf(',');
+                add(tags, line.substring(0, comma), Long.parseLong(line.substring(comma + 1).trim()));
+            }
+            int numNames = Integer.parseInt(reader.readLine().trim());
+            for (int i = 0; i < numNames; ++i) {
+                reader.readLine();
+            }
+            for (int i = 0; i < timestamps.length; ++i) {
+                String t = reader.readLine();
+                if (t != null && timestamps[i] == 0 && !t.trim().equals("null")) {
+                    timestamps[i] = Long.parseLong(t.trim());
+                }
+            }
+        }
+    }
+
+    private void load(File inputDir) throws IOException {
+        List<List<PersonRecord>> personFiles = listFiles(inputDir, "", "personFactors.txt").parallelStream()
+                .map(InteractiveParameterGenerator::readPersonFactors).collect(Collectors.toList());
+        personFiles.addAll(listFiles(inputDir, "", "personFactors.bin").parallelStream()
+                .map(InteractiveParameterGenerator::readBinaryPersonFactors).collect(Collectors.toList()));
+        List<List<FriendList>> friendFiles = listFiles(inputDir, "m0friendList", "").parallelStream()
+                .map(InteractiveParameterGenerator::readFriendLists).collect(Collectors.toList());
+        for (File f : listFiles(inputDir, "", "activityFactors.txt")) {
+            readActivityFactors(f);
+        }
+
+        List<Long> idList = new ArrayList<Long>();
+        for (List<PersonRecord> records : personFiles) {
+            for (PersonRecord r : records) {
+                if (!index.containsKey(r.id)) {
+                    index.put(r.id, idList.size());
+                    idList.add(r.id);
+                }
+            }
+        }
+        numFactorPersons = idList.size();
+        for (List<FriendList> lists : friendFiles) {
+            for (FriendList l : lists) {
+                if (!index.containsKey(l.id)) {
+                    index.put(l.id, idList.size());
+                    idList.add(l.id);
+                }
+            }
+        }
+        int numPersons = idList.size();
+        ids = new long[numPersons];
+        for (int i = 0; i < numPersons; ++i) {
+            ids[i] = idList.get(i);
+        }
+
+        factors = new long[NUM_FACTORS][numFactorPersons];
+        givenNames = new String[numFactorPersons];
+        postCounts = new long[numFactorPersons][];
+        groupCounts = new long[numFactorPersons][];
+        int[] countColumns = {F, P, PL, PT, G, W, PR};
+        for (List<PersonRecord> records : personFiles) {
+            for (PersonRecord r : records) {
+                int p = index.get(r.id);
+                givenNames[p] = r.name;
+                for (int i = 0; i < countColumns.length; ++i) {
+                    factors[countColumns[i]][p] += r.counts[i];
+                }
+                if (postCounts[p] == null) {
+                    postCounts[p] = r.posts;
+                    groupCounts[p] = r.groups;
+                } else {
+                    for (int i = 0; i < NUM_MONTHS; ++i) {
+                        postCounts[p][i] += r.posts[i];
+                        groupCounts[p][i] += r.groups[i];
+                    }
+                }
+            }
+        }
+
+        List<FriendList> allLists = new ArrayList<FriendList>();
+        for (List<FriendList> lists : friendFiles) {
+            allLists.addAll(lists);
+        }
+        friendListOwner = new int[allLists.size()];
+        friendLists = new int[allLists.size()][];
+        IntStream.range(0, allLists.size()).parallel().forEach(i -> {
+            FriendList l = allLists.get(i);
+            friendListOwner[i] = index.get(l.id);
+            int[] friends = new int[l.friends.length];
+            int count = 0;
+            for (long friend : l.friends) {
+                Integer f = index.get(friend);
+                if (f != null) {
+                    friends[count++] = f;
+                }
+            }
+            friendLists[i] = Arrays.copyOf(friends, count);
+        });
+    }
+
+    /**
+     * Sums the factors of the friends and then of the friends of friends of each person, as readfactors.loadFriends
+     */
+    private void aggregateFriendFactors() {
+        IntStream.range(0, friendLists.length).parallel().forEach(i -> {
+            int p = friendListOwner[i];
+            if (p >= numFactorPersons) return;
+            for (int f : friendLists[i]) {
+                if (f >= numFactorPersons) continue;
+                factors[FF][p] += factors[F][f];
+                factors[FP][p] += factors[P][f];
+                factors[FPT][p] += factors[PT][f];
+                factors[FW][p] += factors[W][f];
+                factors[FG][p] += factors[G][f];
+            }
+        });
+        IntStream.range(0, friendLists.length).parallel().forEach(i -> {
+            int p = friendListOwner[i];
+            if (p >= numFactorPersons) return;
+            for (int f : friendLists[i]) {
+                if (f >= numFactorPersons) continue;
+                factors[FFG][p] += factors[FG][f];
+                factors[FFW][p] += factors[FW][f];
+                factors[FFP][p] += factors[FP][f];
+                factors[FFPT][p] += factors[FPT][f];
+            }
+        });
+    }
+
+    /**
+     * Sums per month counts over the friends of each person, as timeparameters.readTimeParams
+     *
+     * @param counts per month counts of each person, null for persons without them
+     */
+    private long[][] sumOverFriends(long[][] counts) {
+        long[][] sums = new long[ids.length][];
+        IntStream.range(0, friendLists.length).parallel().forEach(i -> {
+            long[] sum = new long[NUM_MONTHS];
+            for (int f : friendLists[i]) {
+                if (f < counts.length && counts[f] != null) {
+                    for (int m = 0; m < NUM_MONTHS; ++m) {
+                        sum[m] += counts[f][m];
+                    }
+                }
+            }
+            sums[friendListOwner[i]] = sum;
+        });
+        return sums;
+    }
+
+    private List<Row<Long>> personRows(int[] columns) {
+        List<Row<Long>> rows = new ArrayList<Row<Long>>(numFactorPersons);
+        for (int p = 0; p < numFactorPersons; ++p) {
+            long[] values = new long[columns.length];
+            for (int c = 0; c < columns.length; ++c) {
+                values[c] = factors[columns[c]][p];
+            }
+            rows.add(new Row<Long>(ids[p], values));
+        }
+        return rows;
+    }
+
+    private static List<Row<String>> rows(Map<String, Long> counts) {
+        List<Row<String>> rows = new ArrayList<Row<String>>(counts.size());
+        for (Map.Entry<String, Long> e : counts.entrySet()) {
+            rows.add(new Row<String>(e.getKey(), e.getValue()));
+        }
+        return rows;
+    }
+
+    /**
+     * Repeats randomly chosen selected values until there are as many as needed
+     */
+    private static <T> void extend(List<T> selected, int size, Random random) {
+        int oldSize = selected.size();
+        if (oldSize == 0) return;
+        while (selected.size() < size) {
+            selected.add(selected.get(random.nextInt(oldSize)));
+        }
+    }
+
+    private static String date(TimeParameter t) {
+        return Long.toString(LocalDate.of(t.year, t.month, Math.min(t.day, 28)).toEpochDay() * 24L * 60L * 60L * 1000L);
+    }
+
+    private static void writeParams(File file, String header, List<String> lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write(header);
+            writer.write("\n");
+            for (String line : lines) {
+                writer.write(line);
+                writer.write("\n");
+            }
+        }
+    }
+
+    /**
+     * @param inputDir  directory with the factor and friend list files
+     * @param outputDir directory where the parameter files are written
+     */
+    public void run(File inputDir, File outputDir) throws IOException {
+        System.out.println("loading input for parameter generation");
+        load(inputDir);
+        aggregateFriendFactors();
+        Random random = new Random(seed);
+
+        System.out.println("find parameter bindings for Persons");
+        final List<List<Long>> personParams = IntStream.range(0, NUM_QUERIES).parallel()
+                .mapToObj(q -> ParameterDiscovery.generate(personRows(QUERY_FACTORS[q])))
+                .collect(Collectors.toList());
+
+        System.out.println("find parameter bindings for Countries");
+        Map<Integer, List<String>> countryParams = new HashMap<Integer, List<String>>();
+        for (int q : new int[]{3, 11}) {
+            List<String> selected = ParameterDiscovery.generate(rows(countries), 0.1);
+            extend(selected, personParams.get(q - 1).size(), random);
+            countryParams.put(q, selected);
+        }
+        List<String> secondCountry = new ArrayList<String>();
+        List<String> countries3 = countryParams.get(3);
+        boolean distinctCountries = countries3.stream().distinct().count() > 1;
+        for (String c : countries3) {
+            String other;
+            do {
+                other = countries3.get(random.nextInt(countries3.size()));
+            } while (distinctCountries && other.equals(c));
+            secondCountry.add(other);
+        }
+
+        System.out.println("find parameter bindings for Tags");
+        List<List<Row<String>>> divided = ParameterDiscovery.divideFactors(rows(tags), 0.7);
+        int leftSize = divided.get(0).size();
+        int rightSize = divided.get(1).size();
+        List<String> tagParams = new ArrayList<String>();
+        if (leftSize > 0) {
+            tagParams.addAll(ParameterDiscovery.generate(divided.get(0), 0.1 * (leftSize + rightSize) / (2.0 * leftSize)));
+        }
+        if (rightSize > 0) {
+            tagParams.addAll(ParameterDiscovery.generate(divided.get(1), 0.1 * (leftSize + rightSize) / (2.0 * rightSize)));
+        }
+        extend(tagParams, personParams.get(6 - 1).size(), random);
+
+        List<String> tagClassParams = ParameterDiscovery.generate(rows(tagClasses), 0.1);
+        extend(tagClassParams, personParams.get(12 - 1).size(), random);
+
+        System.out.println("find parameter bindings for Timestamps");
+        int startYear = (int) timestamps[1];
+        long[][] fPostCounts = sumOverFriends(postCounts);
+        long[][] fGroupCounts = sumOverFriends(groupCounts);
+        long[][] ffPostCounts = sumOverFriends(fPostCounts);
+        long[][] ffGroupCounts = sumOverFriends(fGroupCounts);
+        Map<Integer, Object[]> timeSelection = new LinkedHashMap<Integer, Object[]>();
+        timeSelection.put(2, new Object[]{fPostCounts, Strategy.BEFORE_MEDIAN});
+        timeSelection.put(3, new Object[]{ffPostCounts, Strategy.WITH_MEDIAN});
+        timeSelection.put(4, new Object[]{fPostCounts, Strategy.WITH_MEDIAN});
+        timeSelection.put(5, new Object[]{ffGroupCounts, Strategy.AFTER_MEDIAN});
+        timeSelection.put(9, new Object[]{ffPostCounts, Strategy.BEFORE_MEDIAN});
+        timeSelection.put(13, new Object[]{fPostCounts, Strategy.AFTER_MEDIAN});
+        timeSelection.put(14, new Object[]{fPostCounts, Strategy.AFTER_MEDIAN});
+        TimeParameters timeParameters = new TimeParameters(startYear);
+        Map<Integer, List<TimeParameter>> timeParams = new HashMap<Integer, List<TimeParameter>>();
+        for (Map.Entry<Integer, Object[]> e : timeSelection.entrySet()) {
+            long[][] counts = (long[][]) e.getValue()[0];
+            List<long[]> personCounts = new ArrayList<long[]>();
+            for (Long person : personParams.get(e.getKey() - 1)) {
+                long[] c = counts[index.get(person)];
+                personCounts.add(c == null ? new long[NUM_MONTHS] : c);
+            }
+            timeParams.put(e.getKey(), timeParameters.findTimeParameters(personCounts, TimeParameters.LAST_MONTHS, (Strategy) e.getValue()[1]));
+        }
+
+        List<Long> workFromYears = new ArrayList<Long>();
+        for (int i = 0; i < personParams.get(11 - 1).size(); ++i) {
+            workFromYears.add(timestamps[2] + (long) random.nextInt((int) (timestamps[3] - timestamps[2] + 1)));
+        }
+
+        List<Integer> hs = new ArrayList<Integer>();
+        for (int i = 0; i < personParams.get(10 - 1).size(); ++i) {
+            hs.add(1 + random.nextInt(12));
+        }
+
+        outputDir.mkdirs();
+        for (int q = 1; q <= NUM_QUERIES; ++q) {
+            List<Long> persons = personParams.get(q - 1);
+            StringBuilder header = new StringBuilder("Person");
+            List<StringBuilder> lines = new ArrayList<StringBuilder>();
+            for (Long person : persons) {
+                lines.add(new StringBuilder(Long.toString(person)));
+            }
+            List<TimeParameter> times = timeParams.get(q);
+            if (times != null) {
+                header.append(q == 3 || q == 4 ? "|Date0|Duration" : "|Date0");
+                for (int i = 0; i < lines.size(); ++i) {
+                    lines.get(i).append('|').append(date(times.get(i)));
+                    if (q == 3 || q == 4) {
+                        lines.get(i).append('|').append(times.get(i).duration);
+                    }
+                }
+            }
+            for (int i = 0; i < lines.size(); ++i) {
+                StringBuilder line = lines.get(i);
+                switch (q) {
+                    case 1:
+                        line.append('|').append(givenNames[index.get(persons.get(i))]);
+                        break;
+                    case 3:
+                        line.append('|').append(countryParams.get(3).get(i)).append('|').append(secondCountry.get(i));
+                        break;
+                    case 6:
+                        line.append('|').append(tagParams.get(i));
+                        break;
+                    case 10:
+                        line.append('|').append(hs.get(i));
+                        break;
+                    case 11:
+                        line.append('|').append(countryParams.get(11).get(i)).append('|').append(workFromYears.get(i));
+                        break;
+                    case 12:
+                        line.append('|').append(tagClassParams.get(i));
+                        break;
+                    default:
+                }
+            }
+            switch (q) {
+                case 1: header.append("|Name"); break;
+                case 3: header.append("|Country1|Country2"); break;
+                case 6: header.append("|Tag"); break;
+                case 10: header.append("|HS0"); break;
+                case 11: header.append("|Country|Year"); break;
+                case 12: header.append("|TagType"); break;
+                default:
+            }
+            List<String> output = new ArrayList<String>(lines.size());
+            for (StringBuilder line : lines) {
+                output.add(line.toString());
+            }
+            writeParams(new File(outputDir, "query_" + q + "_param.txt"), header.toString(), output);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("arguments: <input dir> <output dir> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        new InteractiveParameterGenerator(seed).run(new File(args[0]), new File(args[1]));
+    }
+}
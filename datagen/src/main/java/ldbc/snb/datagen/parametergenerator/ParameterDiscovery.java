@@ -0,0 +1,215 @@
+package ldbc.snb.datagen.parametergenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Selection of substitution parameters with similar factor values, port of paramgenerator/discoverparams.py.
+ * Rows are sorted by their factors, and the window of consecutive rows with the lowest standard deviation
+ * of the first factor is chosen, using the next factors to break ties between equally good windows.
+ */
+public class ParameterDiscovery {
+
+    /**
+     * Amount of parameters to be mined, as a portion of the number of candidates
+     */
+    public static final double SHARE = 0.01;
+
+    /**
+     * A candidate parameter and the values of the factors that determine the cost of the queries using it
+     */
+    public static class Row<K> {
+        public final K key;
+        public final long[] values;
+
+        public Row(K key, long... values) {
+            this.key = key;
+            this.values = values;
+        }
+    }
+
+    private static class Window {
+        int start;
+        int end;
+        int size;
+        double avg = 0.0;
+        double stddev = 0.0;
+
+        Window(int start, int end) {
+            this.start = start;
+            this.end = end;
+            this.size = end - start + 1;
+        }
+    }
+
+    private static final Comparator<Window> BY_STDDEV = new Comparator<Window>() {
+        public int compare(Window a, Window b) {
+            return Double.compare(a.stddev, b.stddev);
+        }
+    };
+
+    private static boolean allClose(double a, double b) {
+        return Math.abs(a - b) <= (1e-08 + 1e-05 * Math.abs(b));
+    }
+
+    private static <K> List<Window> findWindows(List<Row<K>> rows, int param, int amount, int begin, int end) {
+        List<Row<K>> data = rows.subList(begin, end);
+        int windowSize = Math.min(amount, data.size());
+        List<Window> windows = new ArrayList<Window>();
+
+        Window initWindow = new Window(begin, begin + amount - 1);
+        double s1 = 0;
+        double s2 = 0;
+        for (int i = 0; i < windowSize; ++i) {
+            long value = data.get(i).values[param];
+            s1 += value;
+            s2 += (double) value * value;
+        }
+        initWindow.avg = s1 / windowSize;
+        // two pass deviation of the first window, so ties with the next windows are broken as in discoverparams.py
+        double squares = 0;
+        for (int i = 0; i < windowSize; ++i) {
+            double deviation = data.get(i).values[param] - initWindow.avg;
+            squares += deviation * deviation;
+        }
+        initWindow.stddev = Math.sqrt(squares / windowSize);
+        windows.add(initWindow);
+
+        for (int start = 1; start + amount < data.size(); ++start) {
+            int last = start + amount - 1;
+            if (data.get(last).values[param] < 10) {
+                break;
+            }
+            long removed = data.get(start - 1).values[param];
+            long added = data.get(last).values[param];
+            s1 += added - removed;
+            s2 += (double) added * added - (double) removed * removed;
+
+            Window window = new Window(begin + start, begin + last);
+            window.avg = s1 / amount;
+            window.stddev = Math.sqrt(Math.max(0.0, amount * s2 - s1 * s1)) / amount;
+            windows.add(window);
+        }
+
+        Collections.sort(windows, BY_STDDEV);
+        List<Window> best = new ArrayList<Window>();
+        for (Window w : windows) {
+            if (w.stddev != windows.get(0).stddev) {
+                break;
+            }
+            best.add(w);
+        }
+        return best;
+    }
+
+    private static List<Window> mergeWindows(List<Window> windows) {
+        List<Window> merged = new ArrayList<Window>();
+        Window current = windows.get(0);
+        Window constructed = new Window(current.start, current.end);
+        constructed.avg = current.avg;
+        constructed.stddev = current.stddev;
+        for (int i = 1; i < windows.size(); ++i) {
+            Window next = windows.get(i);
+            if (next.start == current.start + 1 && allClose(next.avg, current.avg)) {
+                constructed.end = next.end;
+                constructed.size++;
+            } else {
+                merged.add(constructed);
+                constructed = new Window(next.start, next.end);
+                constructed.avg = next.avg;
+                constructed.stddev = next.stddev;
+            }
+            current = next;
+        }
+        merged.add(constructed);
+        return merged;
+    }
+
+    /**
+     * @param rows    candidates, sorted in place by decreasing factor values
+     * @param portion portion of the candidates to select
+     * @return keys of the selected candidates
+     */
+    public static <K> List<K> generate(List<Row<K>> rows, double portion) {
+        if (rows.isEmpty()) {
+            return new ArrayList<K>();
+        }
+        final int amount = Math.max(1, Math.min(rows.size(), (int) (rows.size() * portion)));
+        final int params = rows.get(0).values.length;
+
+        Collections.sort(rows, new Comparator<Row<K>>() {
+            public int compare(Row<K> a, Row<K> b) {
+                for (int i = 0; i < params; ++i) {
+                    if (a.values[i] != b.values[i]) {
+                        return a.values[i] > b.values[i] ? -1 : 1;
+                    }
+                }
+                return 0;
+            }
+        });
+
+        int paramId = 0;
+        List<Window> currentWindows = findWindows(rows, paramId, amount, 0, rows.size());
+        while (currentWindows.size() > 1 && paramId < params - 1) {
+            paramId++;
+            List<Window> newWindows = new ArrayList<Window>();
+            for (Window w : mergeWindows(currentWindows)) {
+                newWindows.addAll(findWindows(rows, paramId, amount, w.start, Math.min(rows.size(), w.end + 1)));
+            }
+            Collections.sort(newWindows, BY_STDDEV);
+            currentWindows = new ArrayList<Window>();
+            for (Window w : newWindows) {
+                if (w.stddev != newWindows.get(0).stddev) {
+                    break;
+                }
+                currentWindows.add(w);
+            }
+        }
+
+        Window w = currentWindows.get(0);
+        List<K> result = new ArrayList<K>(amount);
+        for (int i = 0; i < amount && w.start + i < rows.size(); ++i) {
+            result.add(rows.get(w.start + i).key);
+        }
+        return result;
+    }
+
+    public static <K> List<K> generate(List<Row<K>> rows) {
+        return generate(rows, SHARE);
+    }
+
+    /**
+     * Splits single factor rows, by decreasing value, into the ones accounting for the given portion of the total
+     * and the rest
+     */
+    public static <K> List<List<Row<K>>> divideFactors(List<Row<K>> rows, double splitPortion) {
+        List<Row<K>> sorted = new ArrayList<Row<K>>(rows);
+        Collections.sort(sorted, new Comparator<Row<K>>() {
+            public int compare(Row<K> a, Row<K> b) {
+                return Long.compare(b.values[0], a.values[0]);
+            }
+        });
+        long sum = 0;
+        for (Row<K> r : sorted) {
+            sum += r.values[0];
+        }
+        double splitPoint = splitPortion * sum;
+        List<Row<K>> left = new ArrayList<Row<K>>();
+        List<Row<K>> right = new ArrayList<Row<K>>();
+        long currentSum = 0;
+        for (Row<K> r : sorted) {
+            currentSum += r.values[0];
+            if (currentSum <= splitPoint) {
+                left.add(r);
+            } else {
+                right.add(r);
+            }
+        }
+        List<List<Row<K>>> result = new ArrayList<List<Row<K>>>();
+        result.add(left);
+        result.add(right);
+        return result;
+    }
+}
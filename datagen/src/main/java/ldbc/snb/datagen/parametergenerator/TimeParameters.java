@@ -0,0 +1,221 @@
+package ldbc.snb.datagen.parametergenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Selection of date parameters from monthly activity counts, port of paramgenerator/timeparameters.py.
+ * Dates are chosen so that the amount of activity before (or after) them is close to the median over all the
+ * selected persons, or so that the duration around the busiest month makes activity comparable.
+ */
+public class TimeParameters {
+
+    /**
+     * Number of months considered for date parameters of filters of the form timestamp &lt;= Date0
+     */
+    public static final int LAST_MONTHS = 3;
+
+    public enum Strategy {
+        BEFORE_MEDIAN, WITH_MEDIAN, AFTER_MEDIAN
+    }
+
+    public static class TimeParameter {
+        public final int year;
+        public final int month;
+        public final int day;
+        public final int duration;
+
+        public TimeParameter(int year, int month, int day, int duration) {
+            this.year = year;
+            this.month = month;
+            this.day = day;
+            this.duration = duration;
+        }
+    }
+
+    private static class MonthYearCount {
+        final int month;
+        final int year;
+        final long count;
+
+        MonthYearCount(int month, int year, long count) {
+            this.month = month;
+            this.year = year;
+            this.count = count;
+        }
+    }
+
+    private static final Comparator<MonthYearCount> BY_DATE = new Comparator<MonthYearCount>() {
+        public int compare(MonthYearCount a, MonthYearCount b) {
+            if (a.year != b.year) return a.year - b.year;
+            return a.month - b.month;
+        }
+    };
+
+    private static final Comparator<MonthYearCount> BY_COUNT = new Comparator<MonthYearCount>() {
+        public int compare(MonthYearCount a, MonthYearCount b) {
+            return Long.compare(a.count, b.count);
+        }
+    };
+
+    private final int startYear;
+
+    /**
+     * @param startYear year of the first month of the counts
+     */
+    public TimeParameters(int startYear) {
+        this.startYear = startYear;
+    }
+
+    private static double median(List<Double> data) {
+        if (data.isEmpty()) {
+            return 0;
+        }
+        List<Double> sorted = new ArrayList<Double>(data);
+        Collections.sort(sorted);
+        int mid = sorted.size() / 2;
+        if (sorted.size() % 2 == 0) {
+            return (sorted.get(mid - 1) + sorted.get(mid)) / 2.0;
+        }
+        return sorted.get(mid);
+    }
+
+    private static MonthYearCount medianMonth(List<MonthYearCount> data) {
+        if (data.isEmpty()) {
+            return new MonthYearCount(0, 0, 0);
+        }
+        List<MonthYearCount> sorted = new ArrayList<MonthYearCount>(data);
+        Collections.sort(sorted, BY_COUNT);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static double medianCount(List<MonthYearCount> data) {
+        List<Double> counts = new ArrayList<Double>(data.size());
+        for (MonthYearCount myc : data) {
+            counts.add((double) myc.count);
+        }
+        return median(counts);
+    }
+
+    /**
+     * @param countsPerMonth activity counts of each person, indexed by month since the start
+     * @param lastMonths     number of trailing months summed for the last months median
+     * @param strategy       how dates are chosen with respect to the medians
+     * @return one date parameter per person
+     */
+    public List<TimeParameter> findTimeParameters(List<long[]> countsPerMonth, int lastMonths, Strategy strategy) {
+        List<List<MonthYearCount>> factors = new ArrayList<List<MonthYearCount>>(countsPerMonth.size());
+        for (long[] counts : countsPerMonth) {
+            List<MonthYearCount> myc = new ArrayList<MonthYearCount>();
+            for (int month = 0; month < counts.length; ++month) {
+                if (counts[month] != 0) {
+                    myc.add(new MonthYearCount(month % 12 + 1, startYear + month / 12, counts[month]));
+                }
+            }
+            factors.add(myc);
+        }
+
+        List<Double> medianTimes = new ArrayList<Double>();
+        List<Double> lastMonthSums = new ArrayList<Double>();
+        List<Double> firstMonthSums = new ArrayList<Double>();
+        for (List<MonthYearCount> values : factors) {
+            int l = values.size();
+            int cutoff = l - lastMonths < 0 ? l : l - lastMonths;
+            long lastSum = 0;
+            for (int i = Math.max(l - lastMonths, 0); i < l; ++i) {
+                lastSum += values.get(i).count;
+            }
+            long firstSum = 0;
+            for (int i = 0; i < cutoff; ++i) {
+                firstSum += values.get(i).count;
+            }
+            lastMonthSums.add((double) lastSum);
+            firstMonthSums.add((double) firstSum);
+            medianTimes.add(medianCount(values));
+        }
+        double median = median(medianTimes);
+        double medianLastMonth = median(lastMonthSums);
+        double medianFirstMonth = median(firstMonthSums);
+        // for an odd number of persons the median is one of the integer sums, which timeparameters.py then divides
+        // with the integer division of Python 2
+        boolean integralMedianFirstMonth = factors.size() % 2 == 1;
+
+        List<TimeParameter> result = new ArrayList<TimeParameter>(factors.size());
+        for (List<MonthYearCount> values : factors) {
+            switch (strategy) {
+                case WITH_MEDIAN:
+                    result.add(withMedian(values, median));
+                    break;
+                case BEFORE_MEDIAN:
+                    result.add(beforeMedian(values, medianFirstMonth, integralMedianFirstMonth));
+                    break;
+                default:
+                    result.add(afterMedian(values, medianLastMonth));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the median month of the person, then widens the interval until it matches the global median
+     */
+    private TimeParameter withMedian(List<MonthYearCount> values, double median) {
+        MonthYearCount current = medianMonth(values);
+        if ((long) median == 0 || current.count == 0 || current.year == 0) {
+            return new TimeParameter(startYear, 1, 1, 0);
+        }
+        int duration = current.count > median ? (int) (28 * current.count / median) : (int) (28 * median / current.count);
+        return new TimeParameter(current.year, current.month, 1, duration);
+    }
+
+    /**
+     * Finds the interval from the start with the sum of counts as close as possible to medianFirstMonth
+     */
+    private TimeParameter beforeMedian(List<MonthYearCount> values, double medianFirstMonth, boolean integralMedian) {
+        List<MonthYearCount> input = new ArrayList<MonthYearCount>(values);
+        Collections.sort(input, BY_DATE);
+        long localSum = 0;
+        MonthYearCount best = null;
+        for (MonthYearCount myc : input) {
+            localSum += myc.count;
+            if (localSum >= medianFirstMonth) {
+                int day;
+                if (integralMedian) {
+                    day = (int) Math.max(28 - 28 * (localSum - (long) medianFirstMonth) / myc.count, 1);
+                } else {
+                    day = (int) Math.max(28 - 28 * (localSum - medianFirstMonth) / myc.count, 1);
+                }
+                return new TimeParameter(myc.year, myc.month, day, 0);
+            }
+            best = myc;
+        }
+        if (best == null) {
+            return new TimeParameter(startYear, 1, 28, 0);
+        }
+        return new TimeParameter(best.year, best.month, 28, 0);
+    }
+
+    /**
+     * Finds the interval up to the end with the sum of counts as close as possible to medianLastMonth
+     */
+    private TimeParameter afterMedian(List<MonthYearCount> values, double medianLastMonth) {
+        List<MonthYearCount> input = new ArrayList<MonthYearCount>(values);
+        Collections.sort(input, Collections.reverseOrder(BY_DATE));
+        long localSum = 0;
+        MonthYearCount best = null;
+        for (MonthYearCount myc : input) {
+            localSum += myc.count;
+            if (localSum >= medianLastMonth) {
+                int day = (int) Math.max(28 * (localSum - medianLastMonth) / myc.count, 1);
+                return new TimeParameter(myc.year, myc.month, day, 0);
+            }
+            best = myc;
+        }
+        if (best == null) {
+            return new TimeParameter(startYear, 1, 1, 0);
+        }
+        return new TimeParameter(best.year, best.month, 1, 0);
+    }
+}
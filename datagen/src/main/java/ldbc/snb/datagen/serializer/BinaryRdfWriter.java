@@ -0,0 +1,257 @@
+package ldbc.snb.datagen.serializer;
+
+import ldbc.snb.datagen.vocabulary.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * RdfWriter producing a dictionary encoded binary form of the triples written by TurtleWriter. Every partition is
+ * self contained:
+ * <pre>
+ * file      := "LDBCRDF1" record*
+ * record    := 0 string:prefix string:namespace          namespace declaration
+ *            | 1 term:subject term:predicate term:object  triple
+ * term      := 0 string           new dictionary entry, gets the next code of the partition (0, 1, 2...)
+ *            | 1 varint:code      dictionary entry written before
+ *            | 2 term:prefix byte:digits varint:id   prefix (a dictionary entry) followed by the zero padded id
+ *            | 3                  subject of the previous triple
+ *            | 4 string           plain literal
+ *            | 5 term:datatype string                 typed literal
+ *            | 6 term:datatype zigzag:value           typed integer literal
+ *            | 7 zigzag:millis    xsd:dateTime
+ *            | 8 zigzag:millis    xsd:date
+ * string    := varint:length byte[length]             UTF-8
+ * </pre>
+ * Dictionary entries hold the Turtle text of IRIs (e.g. snvoc:id, sn:pers, &lt;http://dbpedia.org/resource/Rome&gt;),
+ * so only vocabulary, places, tags and id prefixes end up in the dictionary, while ids and literals are inlined.
+ */
+public class BinaryRdfWriter extends RdfWriter {
+
+    private static final byte RECORD_NAMESPACE = 0;
+    private static final byte RECORD_TRIPLE = 1;
+    private static final byte TERM_NEW = 0;
+    private static final byte TERM_CODE = 1;
+    private static final byte TERM_ID = 2;
+    private static final byte TERM_SAME_SUBJECT = 3;
+    private static final byte TERM_LITERAL = 4;
+    private static final byte TERM_TYPED = 5;
+    private static final byte TERM_TYPED_LONG = 6;
+    private static final byte TERM_DATE_TIME = 7;
+    private static final byte TERM_DATE = 8;
+
+    private static final String[][] NAMESPACES = {
+            {RDF.PREFIX, RDF.NAMESPACE},
+            {RDFS.PREFIX, RDFS.NAMESPACE},
+            {XSD.PREFIX, XSD.NAMESPACE},
+            {SNVOC.PREFIX, SNVOC.NAMESPACE},
+            {SNTAG.PREFIX, SNTAG.NAMESPACE},
+            {SN.PREFIX, SN.NAMESPACE},
+            {DBP.PREFIX, DBP.NAMESPACE},
+            {FOAF.PREFIX, FOAF.NAMESPACE},
+            {DBPOWL.PREFIX, DBPOWL.NAMESPACE}
+    };
+
+    private final Map<String, Integer>[] codes_;
+    private final Map<IriPrefix, Integer>[] prefixCodes_;
+    private final Map<String, Map<String, Integer>>[] namespaceCodes_;
+    private final int[] nextCode_;
+
+    private IriPrefix subjectPrefix_ = null;
+    private long subjectId_ = 0;
+    private String subjectIri_ = null;
+    private boolean subjectWritten_ = false;
+
+    @SuppressWarnings("unchecked")
+    public BinaryRdfWriter(String outputDir, String prefix, int numPartitions, boolean compressed) {
+        super(outputDir, prefix, numPartitions, compressed, "rdfbin");
+        codes_ = new Map[numPartitions];
+        prefixCodes_ = new Map[numPartitions];
+        namespaceCodes_ = new Map[numPartitions];
+        nextCode_ = new int[numPartitions];
+        for (int i = 0; i < numPartitions; ++i) {
+            codes_[i] = new HashMap<>();
+            prefixCodes_[i] = new IdentityHashMap<>();
+            namespaceCodes_[i] = new HashMap<>();
+        }
+        writeAllPartitions("LDBCRDF1");
+    }
+
+    @Override
+    protected void writeNamespaces() {
+        ByteArrayBuilder header = new ByteArrayBuilder(1024);
+        for (String[] namespace : NAMESPACES) {
+            header.append(RECORD_NAMESPACE);
+            appendString(header, namespace[0]);
+            appendString(header, namespace[1]);
+        }
+        writeAllPartitions(header.toByteArray());
+    }
+
+    private static void appendString(ByteArrayBuilder buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.appendVarLong(bytes.length).append(bytes);
+    }
+
+    private static void appendZigZag(ByteArrayBuilder buffer, long value) {
+        buffer.appendVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Appends a reference to the dictionary entry, or the entry itself the first time it is used in the partition
+     */
+    private void appendIri(ByteArrayBuilder buffer, String iri) {
+        int partition = partition();
+        Integer code = codes_[partition].get(iri);
+        if (code != null) {
+            buffer.append(TERM_CODE).appendVarLong(code);
+        } else {
+            codes_[partition].put(iri, nextCode_[partition]++);
+            buffer.append(TERM_NEW);
+            appendString(buffer, iri);
+        }
+    }
+
+    private void appendIri(ByteArrayBuilder buffer, IriPrefix prefix, long id) {
+        int partition = partition();
+        buffer.append(TERM_ID);
+        Integer code = prefixCodes_[partition].get(prefix);
+        if (code != null) {
+            buffer.append(TERM_CODE).appendVarLong(code);
+        } else {
+            prefixCodes_[partition].put(prefix, nextCode_[partition]++);
+            buffer.append(TERM_NEW);
+            buffer.appendVarLong(prefix.bytes().length).append(prefix.bytes());
+        }
+        buffer.append((byte) prefix.digits()).appendVarLong(id);
+    }
+
+    private void appendSubject(ByteArrayBuilder buffer) {
+        if (subjectWritten_) {
+            buffer.append(TERM_SAME_SUBJECT);
+        } else if (subjectPrefix_ != null) {
+            appendIri(buffer, subjectPrefix_, subjectId_);
+        } else {
+            appendIri(buffer, subjectIri_);
+        }
+        subjectWritten_ = true;
+    }
+
+    private RdfWriter startSubject(IriPrefix prefix, long id, String iri) {
+        subjectPrefix_ = prefix;
+        subjectId_ = id;
+        subjectIri_ = iri;
+        subjectWritten_ = false;
+        return this;
+    }
+
+    @Override
+    public RdfWriter subject(IriPrefix prefix, long id) {
+        return startSubject(prefix, id, null);
+    }
+
+    @Override
+    public RdfWriter subject(String iri) {
+        return startSubject(null, 0, iri);
+    }
+
+    @Override
+    public RdfWriter statement(IriPrefix prefix, long id) {
+        return startSubject(prefix, id, null);
+    }
+
+    @Override
+    public RdfWriter statement(String iri) {
+        return startSubject(null, 0, iri);
+    }
+
+    @Override
+    public RdfWriter predicate(String iri) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append(RECORD_TRIPLE);
+        appendSubject(buffer);
+        appendIri(buffer, iri);
+        return this;
+    }
+
+    @Override
+    public RdfWriter iri(IriPrefix prefix, long id) {
+        appendIri(buffer(), prefix, id);
+        return this;
+    }
+
+    @Override
+    public RdfWriter iri(String iri) {
+        appendIri(buffer(), iri);
+        return this;
+    }
+
+    @Override
+    public RdfWriter iri(String namespace, String local) {
+        int partition = partition();
+        Map<String, Integer> codes = namespaceCodes_[partition].get(namespace);
+        if (codes == null) {
+            codes = new HashMap<>();
+            namespaceCodes_[partition].put(namespace, codes);
+        }
+        ByteArrayBuilder buffer = buffer();
+        Integer code = codes.get(local);
+        if (code != null) {
+            buffer.append(TERM_CODE).appendVarLong(code);
+        } else {
+            codes.put(local, nextCode_[partition]++);
+            buffer.append(TERM_NEW);
+            appendString(buffer, "<" + namespace + local + ">");
+        }
+        return this;
+    }
+
+    @Override
+    public RdfWriter literal(String value) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append(TERM_LITERAL);
+        appendString(buffer, value);
+        return this;
+    }
+
+    @Override
+    public RdfWriter typed(String value, String datatype) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append(TERM_TYPED);
+        appendIri(buffer, datatype);
+        appendString(buffer, value);
+        return this;
+    }
+
+    @Override
+    public RdfWriter typed(long value, String datatype) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append(TERM_TYPED_LONG);
+        appendIri(buffer, datatype);
+        appendZigZag(buffer, value);
+        return this;
+    }
+
+    @Override
+    public RdfWriter dateTime(long date) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append(TERM_DATE_TIME);
+        appendZigZag(buffer, date);
+        return this;
+    }
+
+    @Override
+    public RdfWriter date(long date) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append(TERM_DATE);
+        appendZigZag(buffer, date);
+        return this;
+    }
+
+    @Override
+    public RdfWriter end() {
+        return this;
+    }
+}
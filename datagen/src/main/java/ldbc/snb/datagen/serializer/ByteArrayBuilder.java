@@ -0,0 +1,189 @@
+package ldbc.snb.datagen.serializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte array that text is encoded into as UTF-8, used to build rows without intermediate Strings.
+ * Numbers are written digit by digit and ASCII strings are copied char by char.
+ */
+public class ByteArrayBuilder {
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] bytes_;
+    private int length_ = 0;
+
+    public ByteArrayBuilder(int capacity) {
+        bytes_ = new byte[capacity];
+    }
+
+    public int length() {
+        return length_;
+    }
+
+    public void reset() {
+        length_ = 0;
+    }
+
+    /**
+     * Makes room for at least n more bytes
+     */
+    public void ensure(int n) {
+        if (length_ + n > bytes_.length) {
+            bytes_ = Arrays.copyOf(bytes_, Math.max(length_ + n, bytes_.length * 2));
+        }
+    }
+
+    public ByteArrayBuilder append(byte b) {
+        ensure(1);
+        bytes_[length_++] = b;
+        return this;
+    }
+
+    public ByteArrayBuilder append(char c) {
+        if (c < 0x80) {
+            return append((byte) c);
+        }
+        return append(String.valueOf(c));
+    }
+
+    public ByteArrayBuilder append(byte[] b) {
+        return append(b, 0, b.length);
+    }
+
+    public ByteArrayBuilder append(byte[] b, int offset, int length) {
+        ensure(length);
+        System.arraycopy(b, offset, bytes_, length_, length);
+        length_ += length;
+        return this;
+    }
+
+    public ByteArrayBuilder append(String s) {
+        if (s == null) {
+            return append("null");
+        }
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; ++i) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                return append(s.substring(i).getBytes(StandardCharsets.UTF_8));
+            }
+            bytes_[length_++] = (byte) c;
+        }
+        return this;
+    }
+
+    public ByteArrayBuilder append(int v) {
+        return append((long) v);
+    }
+
+    public ByteArrayBuilder append(long v) {
+        if (v == Long.MIN_VALUE) {
+            return append(MIN_LONG);
+        }
+        ensure(20);
+        if (v < 0) {
+            bytes_[length_++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long p = 10; digits < 19 && v >= p; p *= 10) {
+            digits++;
+        }
+        int end = length_ + digits;
+        for (int i = end - 1; i >= length_; --i) {
+            bytes_[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        length_ = end;
+        return this;
+    }
+
+    /**
+     * Appends v padded with leading zeros to the given number of digits, like String.format("%0<digits>d", v)
+     */
+    public ByteArrayBuilder appendPadded(long v, int digits) {
+        if (v < 0) {
+            return append(String.format("%0" + digits + "d", v));
+        }
+        int width = 1;
+        for (long p = 10; width < 19 && v >= p; p *= 10) {
+            width++;
+        }
+        width = Math.max(width, digits);
+        ensure(width);
+        for (int i = length_ + width - 1; i >= length_; --i) {
+            bytes_[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        length_ += width;
+        return this;
+    }
+
+    /**
+     * Appends v as an unsigned variable length integer, 7 bits per byte with the high bit set on all but the last
+     */
+    public ByteArrayBuilder appendVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            bytes_[length_++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        bytes_[length_++] = (byte) v;
+        return this;
+    }
+
+    /**
+     * Appends the four bytes of v, high byte first, as DataOutput.writeInt does
+     */
+    public ByteArrayBuilder appendRawInt(int v) {
+        ensure(4);
+        bytes_[length_++] = (byte) (v >>> 24);
+        bytes_[length_++] = (byte) (v >>> 16);
+        bytes_[length_++] = (byte) (v >>> 8);
+        bytes_[length_++] = (byte) v;
+        return this;
+    }
+
+    /**
+     * Appends the eight bytes of v, high byte first, as DataOutput.writeLong does
+     */
+    public ByteArrayBuilder appendRawLong(long v) {
+        appendRawInt((int) (v >>> 32));
+        return appendRawInt((int) v);
+    }
+
+    /**
+     * Overwrites the four bytes at position with v, high byte first
+     */
+    public void setRawInt(int position, int v) {
+        bytes_[position] = (byte) (v >>> 24);
+        bytes_[position + 1] = (byte) (v >>> 16);
+        bytes_[position + 2] = (byte) (v >>> 8);
+        bytes_[position + 3] = (byte) v;
+    }
+
+    /**
+     * @return the backing array, whose first length() bytes are the content. It changes when the builder grows.
+     */
+    public byte[] array() {
+        return bytes_;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes_, length_);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes_, 0, length_);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes_, 0, length_, StandardCharsets.UTF_8);
+    }
+}
@@ -1,38 +1,85 @@
 package ldbc.snb.datagen.serializer;
 
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
+import ldbc.snb.datagen.dictionary.Dictionaries;
 
-import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.zip.GZIPOutputStream;
 
+/**
+ * Writer of separated value rows. Rows are either written at once with writeEntry, or field by field with the add
+ * methods followed by endEntry, which encode values straight into the partition buffer:
+ *
+ *   writer.add(id).addDateTime(creationDate).add(name).endEntry();
+ */
 public class HDFSCSVWriter extends HDFSWriter {
 
     private String separator = "|";
-    private StringBuffer buffer;
+    private byte[] separatorBytes;
     private boolean endLineSeparator = true;
-
-    private OutputStream[] fileOutputStream;
+    private int numFields = 0;
 
     public HDFSCSVWriter( String outputDir, String prefix, int numPartitions, boolean compressed, String separator, boolean endLineSeparator )  {
        super(outputDir, prefix, numPartitions, compressed, "csv" );
         this.separator = separator;
-        this.buffer = new StringBuffer(2048);
+        this.separatorBytes = separator.getBytes(StandardCharsets.UTF_8);
         this.endLineSeparator = endLineSeparator;
 
     }
 
+    private ByteArrayBuilder field() {
+        ByteArrayBuilder buffer = buffer();
+        if (numFields++ > 0) {
+            buffer.append(separatorBytes);
+        }
+        return buffer;
+    }
+
+    public HDFSCSVWriter add( String value ) {
+        field().append(value);
+        return this;
+    }
+
+    public HDFSCSVWriter add( long value ) {
+        field().append(value);
+        return this;
+    }
+
+    public HDFSCSVWriter add( int value ) {
+        field().append(value);
+        return this;
+    }
+
+    /**
+     * Adds the date formatted with the configured date formatter
+     */
+    public HDFSCSVWriter addDate( long date ) {
+        Dictionaries.dates.formatDate(date, field());
+        return this;
+    }
+
+    /**
+     * Adds the date and time formatted with the configured date formatter
+     */
+    public HDFSCSVWriter addDateTime( long date ) {
+        Dictionaries.dates.formatDateTime(date, field());
+        return this;
+    }
+
+    @Override
+    public void endEntry() {
+        ByteArrayBuilder buffer = buffer();
+        if (endLineSeparator && numFields > 0) {
+            buffer.append(separatorBytes);
+        }
+        buffer.append((byte) '\n');
+        numFields = 0;
+        super.endEntry();
+    }
+
     public void writeEntry( ArrayList<String> entry ) {
-        buffer.setLength(0);
         for( int i = 0; i < entry.size(); ++i)  {
-            buffer.append(entry.get(i));
-            if((endLineSeparator && i == (entry.size() - 1)) || (i < entry.size() - 1))
-                buffer.append(separator);
+            add(entry.get(i));
         }
-        buffer.append("\n");
-        this.write(buffer.toString());
+        endEntry();
     }
 }
@@ -10,15 +10,21 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.zip.GZIPOutputStream;
 
+/**
+ * Writes entries round robin to a set of partition files. Entries are encoded into one reusable byte buffer per
+ * partition, which is flushed to the file once it holds FLUSH_THRESHOLD bytes, so files are written in large blocks.
+ */
 public class HDFSWriter {
 
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
     private String outputDir;
     private String prefix;
     private int numPartitions;
     private int currentPartition = 0;
     private boolean compressed;
     private boolean firstEntry = true;
-    private StringBuffer buffer;
+    private ByteArrayBuilder[] buffers;
 
     private OutputStream[] fileOutputStream;
 
@@ -33,25 +39,43 @@ public class HDFSWriter {
             fileOutputStream = new OutputStream[numPartitions];
             if (compressed) {
                 for (int i = 0; i < numPartitions; i++) {
-                    this.fileOutputStream[i] = new GZIPOutputStream(fs.create(new Path(outputDir + "/" + prefix + "_" + i + "."+extension+".gz"),true, 131072));
+                    this.fileOutputStream[i] = new GZIPOutputStream(fs.create(new Path(outputDir + "/" + prefix + "_" + i + "."+extension+".gz"),true, 131072), 131072);
                 }
             } else {
                 for (int i = 0; i < numPartitions; i++) {
                     this.fileOutputStream[i] = fs.create(new Path(outputDir + "/" + prefix + "_" + i + "."+extension), true, 131072);
                 }
             }
-            buffer = new StringBuffer(1024);
+            buffers = new ByteArrayBuilder[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                buffers[i] = new ByteArrayBuilder(65536);
+            }
         } catch (IOException e) {
             System.err.println(e.getMessage());
             System.exit(-1);
         }
     }
 
-    public void write( String entry ) {
-        buffer.setLength(0);
-        buffer.append(entry);
+    /**
+     * @return buffer of the partition the next entry goes to
+     */
+    protected ByteArrayBuilder buffer() {
+        return buffers[currentPartition];
+    }
+
+    /**
+     * @return partition the next entry goes to
+     */
+    protected int partition() {
+        return currentPartition;
+    }
+
+    /**
+     * Ends the entry written to buffer(), moving to the next partition
+     */
+    public void endEntry() {
         try {
-            fileOutputStream[currentPartition].write(buffer.toString().getBytes("UTF8"));
+            flushIfFull(currentPartition);
             currentPartition = ++currentPartition % numPartitions;
         }
         catch (IOException e){
@@ -60,10 +84,36 @@ public class HDFSWriter {
         }
     }
 
+    private void flushIfFull( int partition ) throws IOException {
+        if (buffers[partition].length() >= FLUSH_THRESHOLD) {
+            buffers[partition].writeTo(fileOutputStream[partition]);
+            buffers[partition].reset();
+        }
+    }
+
+    public void write( String entry ) {
+        buffer().append(entry);
+        endEntry();
+    }
+
     public void writeAllPartitions( String entry ) {
         try {
             for(int i = 0; i < numPartitions;++i ) {
-                fileOutputStream[i].write(entry.getBytes("UTF8"));
+                buffers[i].append(entry);
+                flushIfFull(i);
+            }
+        }
+        catch (IOException e){
+            System.out.println("Cannot write to output file ");
+            e.printStackTrace();
+        }
+    }
+
+    public void writeAllPartitions( byte[] entry ) {
+        try {
+            for(int i = 0; i < numPartitions;++i ) {
+                buffers[i].append(entry);
+                flushIfFull(i);
             }
         }
         catch (IOException e){
@@ -75,6 +125,8 @@ public class HDFSWriter {
     public void close() {
         try {
             for (int i = 0; i < numPartitions; ++i) {
+                buffers[i].writeTo(fileOutputStream[i]);
+                buffers[i].reset();
                 fileOutputStream[i].flush();
                 fileOutputStream[i].close();
             }
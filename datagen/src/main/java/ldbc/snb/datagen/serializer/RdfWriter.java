@@ -0,0 +1,91 @@
+package ldbc.snb.datagen.serializer;
+
+import ldbc.snb.datagen.vocabulary.IriPrefix;
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Streaming writer of RDF triples, encoded straight into the partition buffers of HDFSWriter.
+ * A group of triples sharing a subject is written as
+ * <pre>
+ *     writer.subject(s).predicate(p1).iri(o1).predicate(p2).literal(o2).end();
+ * </pre>
+ * and a single triple as statement(s).predicate(p).iri(o).end(). Every predicate takes exactly one object.
+ * Once all the triples of an entity are written, endEntry() moves to the next partition, as write(String) does.
+ * IRIs made of a prefix and an id are passed as an IriPrefix and the id, so no String is formatted per triple.
+ */
+public abstract class RdfWriter extends HDFSWriter {
+
+    /**
+     * Creates the writer selected by ldbc.snb.datagen.serializer.rdf.binary, with the namespaces already written.
+     *
+     * @param prefix name of the files, without the partition and the extension
+     */
+    public static RdfWriter create(Configuration conf, String prefix) {
+        String outputDir = conf.get("ldbc.snb.datagen.serializer.socialNetworkDir");
+        int numPartitions = conf.getInt("ldbc.snb.datagen.numPartitions", 1);
+        boolean compressed = conf.getBoolean("ldbc.snb.datagen.serializer.compressed", false);
+        RdfWriter writer;
+        if (conf.getBoolean("ldbc.snb.datagen.serializer.rdf.binary", false)) {
+            writer = new BinaryRdfWriter(outputDir, prefix, numPartitions, compressed);
+        } else {
+            writer = new TurtleWriter(outputDir, prefix, numPartitions, compressed);
+        }
+        writer.writeNamespaces();
+        return writer;
+    }
+
+    protected RdfWriter(String outputDir, String prefix, int numPartitions, boolean compressed, String extension) {
+        super(outputDir, prefix, numPartitions, compressed, extension);
+    }
+
+    /**
+     * Writes the namespace declarations at the beginning of every partition
+     */
+    protected abstract void writeNamespaces();
+
+    /**
+     * Starts a group of triples with the given subject
+     */
+    public abstract RdfWriter subject(IriPrefix prefix, long id);
+
+    public abstract RdfWriter subject(String iri);
+
+    /**
+     * Starts a single triple with the given subject
+     */
+    public abstract RdfWriter statement(IriPrefix prefix, long id);
+
+    public abstract RdfWriter statement(String iri);
+
+    public abstract RdfWriter predicate(String iri);
+
+    public abstract RdfWriter iri(IriPrefix prefix, long id);
+
+    public abstract RdfWriter iri(String iri);
+
+    /**
+     * Object &lt;namespace + local&gt;
+     */
+    public abstract RdfWriter iri(String namespace, String local);
+
+    public abstract RdfWriter literal(String value);
+
+    public abstract RdfWriter typed(String value, String datatype);
+
+    public abstract RdfWriter typed(long value, String datatype);
+
+    /**
+     * Object of type xsd:dateTime
+     */
+    public abstract RdfWriter dateTime(long date);
+
+    /**
+     * Object of type xsd:date
+     */
+    public abstract RdfWriter date(long date);
+
+    /**
+     * Ends the current group or single triple
+     */
+    public abstract RdfWriter end();
+}
@@ -0,0 +1,141 @@
+package ldbc.snb.datagen.serializer;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.serializer.formatter.IsoDateTimeEncoder;
+import ldbc.snb.datagen.vocabulary.IriPrefix;
+import ldbc.snb.datagen.vocabulary.XSD;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RdfWriter producing the same Turtle text as the Turtle helper: groups are written as
+ * "subject\n    predicate object ;\n    predicate object .\n" and single triples as "subject predicate object .\n".
+ */
+public class TurtleWriter extends RdfWriter {
+
+    private static final byte[] INDENT = "    ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEXT_PREDICATE = " ;\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = " .\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYPED = "\"^^".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATE_TIME = ("\"^^" + XSD.DateTime).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATE = ("\"^^" + XSD.Date).getBytes(StandardCharsets.US_ASCII);
+
+    private final IsoDateTimeEncoder dateTimeEncoder_ = IsoDateTimeEncoder.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    private boolean group_ = false;
+    private boolean firstPredicate_ = true;
+
+    public TurtleWriter(String outputDir, String prefix, int numPartitions, boolean compressed) {
+        super(outputDir, prefix, numPartitions, compressed, "ttl");
+    }
+
+    @Override
+    protected void writeNamespaces() {
+        writeAllPartitions(Turtle.getNamespaces());
+        writeAllPartitions(Turtle.getStaticNamespaces());
+    }
+
+    private RdfWriter startSubject(boolean group) {
+        buffer().append((byte) (group ? '\n' : ' '));
+        group_ = group;
+        firstPredicate_ = true;
+        return this;
+    }
+
+    @Override
+    public RdfWriter subject(IriPrefix prefix, long id) {
+        buffer().append(prefix.bytes()).appendPadded(id, prefix.digits());
+        return startSubject(true);
+    }
+
+    @Override
+    public RdfWriter subject(String iri) {
+        buffer().append(iri);
+        return startSubject(true);
+    }
+
+    @Override
+    public RdfWriter statement(IriPrefix prefix, long id) {
+        buffer().append(prefix.bytes()).appendPadded(id, prefix.digits());
+        return startSubject(false);
+    }
+
+    @Override
+    public RdfWriter statement(String iri) {
+        buffer().append(iri);
+        return startSubject(false);
+    }
+
+    @Override
+    public RdfWriter predicate(String iri) {
+        ByteArrayBuilder buffer = buffer();
+        if (!firstPredicate_) {
+            buffer.append(NEXT_PREDICATE);
+        }
+        if (group_) {
+            buffer.append(INDENT);
+        }
+        buffer.append(iri).append((byte) ' ');
+        firstPredicate_ = false;
+        return this;
+    }
+
+    @Override
+    public RdfWriter iri(IriPrefix prefix, long id) {
+        buffer().append(prefix.bytes()).appendPadded(id, prefix.digits());
+        return this;
+    }
+
+    @Override
+    public RdfWriter iri(String iri) {
+        buffer().append(iri);
+        return this;
+    }
+
+    @Override
+    public RdfWriter iri(String namespace, String local) {
+        buffer().append((byte) '<').append(namespace).append(local).append((byte) '>');
+        return this;
+    }
+
+    @Override
+    public RdfWriter literal(String value) {
+        buffer().append((byte) '"').append(value).append((byte) '"');
+        return this;
+    }
+
+    @Override
+    public RdfWriter typed(String value, String datatype) {
+        buffer().append((byte) '"').append(value).append(TYPED).append(datatype);
+        return this;
+    }
+
+    @Override
+    public RdfWriter typed(long value, String datatype) {
+        buffer().append((byte) '"').append(value).append(TYPED).append(datatype);
+        return this;
+    }
+
+    @Override
+    public RdfWriter dateTime(long date) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append((byte) '"');
+        dateTimeEncoder_.encode(date, buffer);
+        buffer.append(DATE_TIME);
+        return this;
+    }
+
+    @Override
+    public RdfWriter date(long date) {
+        ByteArrayBuilder buffer = buffer();
+        buffer.append((byte) '"');
+        Dictionaries.dates.formatDate(date, buffer);
+        buffer.append(DATE);
+        return this;
+    }
+
+    @Override
+    public RdfWriter end() {
+        buffer().append(END);
+        return this;
+    }
+}
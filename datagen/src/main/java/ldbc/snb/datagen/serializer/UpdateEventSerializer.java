@@ -78,8 +78,13 @@ public class UpdateEventSerializer {
 	private UpdateStreamStats  stats_;
 	private String fileNamePrefix_;
 	private int reducerId_;
+	private UpdateStreamSorter sorter_ = null;
 	
-	public UpdateEventSerializer(Configuration conf, String fileNamePrefix, int reducerId, int numPartitions ) throws IOException{
+	/**
+	 * @param fileNamePrefix prefix of the temporary streams and the properties file
+	 * @param streamType     person or forum, the type of the final streams
+	 */
+	public UpdateEventSerializer(Configuration conf, String fileNamePrefix, String streamType, int reducerId, int numPartitions ) throws IOException{
 		conf_ = conf;
 		reducerId_ = reducerId;
 		stringBuffer_ = new StringBuffer(512);
@@ -90,11 +95,18 @@ public class UpdateEventSerializer {
 		stats_ = new UpdateStreamStats();
 		fileNamePrefix_ = fileNamePrefix;
 		try{
-			streamWriter_ = new SequenceFile.Writer[numPartitions_];
+			if(DatagenParams.updateStreamSortJob) {
+				streamWriter_ = new SequenceFile.Writer[numPartitions_];
+			} else {
+				sorter_ = new UpdateStreamSorter(conf, conf.get("ldbc.snb.datagen.serializer.socialNetworkDir")+"/updateStream", streamType, reducerId_, numPartitions_,
+						DatagenParams.binaryUpdateStreams, DatagenParams.compressed, DatagenParams.updateStreamSortBuffer);
+			}
 			FileContext fc = FileContext.getFileContext(conf);
 			for( int i = 0; i < numPartitions_; ++i ) {
-				Path outFile = new Path(fileNamePrefix_+"_"+i);
-				streamWriter_[i] = SequenceFile.createWriter(fc, conf, outFile, UpdateEventKey.class, Text.class, CompressionType.NONE, new DefaultCodec(),new SequenceFile.Metadata(), EnumSet.of(CreateFlag.CREATE,CreateFlag.OVERWRITE), Options.CreateOpts.checksumParam(Options.ChecksumOpt.createDisabled()));
+				if(sorter_ == null) {
+					Path outFile = new Path(fileNamePrefix_+"_"+i);
+					streamWriter_[i] = SequenceFile.createWriter(fc, conf, outFile, UpdateEventKey.class, Text.class, CompressionType.NONE, new DefaultCodec(),new SequenceFile.Metadata(), EnumSet.of(CreateFlag.CREATE,CreateFlag.OVERWRITE), Options.CreateOpts.checksumParam(Options.ChecksumOpt.createDisabled()));
+				}
 				FileSystem fs = FileSystem.get(conf);
 				Path propertiesFile = new Path(fileNamePrefix_+".properties");
 				if(fs.exists(propertiesFile)){
@@ -158,6 +170,12 @@ public class UpdateEventSerializer {
 	}
 	
 	private void endEvent() throws IOException {
+		if(sorter_ != null) {
+			if(currentEvent_.date <= Dictionaries.dates.getEndDateTime()) {
+				sorter_.add(nextPartition_, currentEvent_.date, currentEvent_.dependantDate, currentEvent_.type.ordinal() + 1, data_);
+			}
+			return;
+		}
 		currentEvent_.eventData = formatStringArray(data_,"|");
 		writeKeyValue(currentEvent_);
 	}
@@ -174,8 +192,12 @@ public class UpdateEventSerializer {
 	public void close() {
 		try {
 			FileSystem fs = FileSystem.get(conf_);
-			for( int i = 0; i < numPartitions_; ++i ) {
-				streamWriter_[i].close();
+			if(sorter_ != null) {
+				sorter_.close();
+			} else {
+				for( int i = 0; i < numPartitions_; ++i ) {
+					streamWriter_[i].close();
+				}
 			}
 			
 			if(DatagenParams.updateStreams) {
@@ -0,0 +1,355 @@
+package ldbc.snb.datagen.serializer;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalDirAllocator;
+import org.apache.hadoop.fs.Path;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * External merge sort of the update events of one reducer, writing the final update streams (one per update
+ * partition) sorted by (date, dependantDate) without going through the temporary SequenceFiles and the sort job.
+ * Events are kept encoded in one buffer per partition, with their keys in primitive arrays. Once the buffers hold
+ * more than the sort buffer size, every partition is sorted and spilled as a run to a temporary file in the local
+ * directories of the task (mapreduce.cluster.local.dir), or in java.io.tmpdir when there are none, e.g. outside Hadoop.
+ * close() merges the runs of each partition and writes its stream, either as the usual csv rows or in binary:
+ * <pre>
+ * file  := "LDBCUPD1" event*
+ * event := long:date long:dependantDate int:type int:numFields (int:length byte[length])[numFields]   (UTF-8 fields)
+ * </pre>
+ * Runs are written in the same event format, without the header. Binary streams are not compressed, so the driver
+ * can map them in memory. Events with the same key keep the order they were added in.
+ */
+public class UpdateStreamSorter {
+
+    public static final byte[] MAGIC = "LDBCUPD1".getBytes(StandardCharsets.US_ASCII);
+
+    static final String LOCAL_DIRS = "mapreduce.cluster.local.dir";
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Events of one partition added since the last spill, and the runs spilled before
+     */
+    private static class Partition {
+        ByteArrayBuilder events = new ByteArrayBuilder(1 << 16);
+        int[] offsets = new int[1024];
+        long[] dates = new long[1024];
+        long[] dependantDates = new long[1024];
+        int count = 0;
+        List<File> runs = new ArrayList<File>();
+
+        void add(long date, long dependantDate) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                dates = Arrays.copyOf(dates, count * 2);
+                dependantDates = Arrays.copyOf(dependantDates, count * 2);
+            }
+            offsets[count] = events.length();
+            dates[count] = date;
+            dependantDates[count] = dependantDate;
+            count++;
+        }
+
+        int end(int event) {
+            return event + 1 < count ? offsets[event + 1] : events.length();
+        }
+
+        /**
+         * @return the indexes of the events in (date, dependantDate) order, keeping the order of equal keys
+         */
+        int[] sortedOrder() {
+            int[] order = new int[count];
+            int[] aux = new int[count];
+            for (int i = 0; i < count; ++i) {
+                order[i] = i;
+            }
+            for (int width = 1; width < count; width *= 2) {
+                for (int low = 0; low < count - width; low += 2 * width) {
+                    int mid = low + width;
+                    int high = Math.min(low + 2 * width, count);
+                    int i = low, j = mid, k = low;
+                    while (i < mid && j < high) {
+                        aux[k++] = compare(order[j], order[i]) < 0 ? order[j++] : order[i++];
+                    }
+                    while (i < mid) aux[k++] = order[i++];
+                    while (j < high) aux[k++] = order[j++];
+                    System.arraycopy(aux, low, order, low, high - low);
+                }
+            }
+            return order;
+        }
+
+        int compare(int a, int b) {
+            if (dates[a] != dates[b]) return dates[a] < dates[b] ? -1 : 1;
+            if (dependantDates[a] != dependantDates[b]) return dependantDates[a] < dependantDates[b] ? -1 : 1;
+            return 0;
+        }
+
+        void clear() {
+            events.reset();
+            count = 0;
+        }
+    }
+
+    /**
+     * Sequence of sorted events being merged, either a run file or the events still in memory
+     */
+    private static class Cursor implements Comparable<Cursor> {
+        final int rank;
+        final DataInputStream run;
+        final Partition memory;
+        final int[] order;
+        int next = 0;
+        long date;
+        long dependantDate;
+        byte[] event = new byte[256];
+        int length;
+
+        Cursor(int rank, DataInputStream run) {
+            this.rank = rank;
+            this.run = run;
+            this.memory = null;
+            this.order = null;
+        }
+
+        Cursor(int rank, Partition memory) {
+            this.rank = rank;
+            this.run = null;
+            this.memory = memory;
+            this.order = memory.sortedOrder();
+        }
+
+        /**
+         * Reads the next event, whose type and fields are left in event[0, length)
+         *
+         * @return false at the end of the sequence
+         */
+        boolean advance() throws IOException {
+            if (memory != null) {
+                if (next == order.length) {
+                    return false;
+                }
+                int e = order[next++];
+                date = memory.dates[e];
+                dependantDate = memory.dependantDates[e];
+                length = memory.end(e) - memory.offsets[e];
+                ensure(length);
+                System.arraycopy(memory.events.array(), memory.offsets[e], event, 0, length);
+                return true;
+            }
+            try {
+                date = run.readLong();
+            } catch (EOFException e) {
+                run.close();
+                return false;
+            }
+            dependantDate = run.readLong();
+            int type = run.readInt();
+            int numFields = run.readInt();
+            ensure(8);
+            setInt(event, 0, type);
+            setInt(event, 4, numFields);
+            length = 8;
+            for (int f = 0; f < numFields; ++f) {
+                int fieldLength = run.readInt();
+                ensure(length + 4 + fieldLength);
+                setInt(event, length, fieldLength);
+                run.readFully(event, length + 4, fieldLength);
+                length += 4 + fieldLength;
+            }
+            return true;
+        }
+
+        private void ensure(int n) {
+            if (n > event.length) {
+                event = Arrays.copyOf(event, Math.max(n, event.length * 2));
+            }
+        }
+
+        public int compareTo(Cursor other) {
+            if (date != other.date) return date < other.date ? -1 : 1;
+            if (dependantDate != other.dependantDate) return dependantDate < other.dependantDate ? -1 : 1;
+            return rank - other.rank;
+        }
+    }
+
+    private final Configuration conf_;
+    private final String outputPrefix_;
+    private final String streamType_;
+    private final int reducerId_;
+    private final boolean binary_;
+    private final boolean compressed_;
+    private final long bufferSize_;
+    private final Partition[] partitions_;
+    private final LocalDirAllocator localDirs_ = new LocalDirAllocator(LOCAL_DIRS);
+    private long buffered_ = 0;
+
+    /**
+     * @param outputPrefix path of the streams, which are named outputPrefix_reducerId_partition_streamType.csv
+     * @param binary       whether to write the binary format (.bin) instead of csv
+     * @param bufferSize   bytes of encoded events kept in memory before spilling runs
+     */
+    public UpdateStreamSorter(Configuration conf, String outputPrefix, String streamType, int reducerId,
+                              int numPartitions, boolean binary, boolean compressed, long bufferSize) {
+        conf_ = conf;
+        outputPrefix_ = outputPrefix;
+        streamType_ = streamType;
+        reducerId_ = reducerId;
+        binary_ = binary;
+        compressed_ = compressed && !binary;
+        bufferSize_ = bufferSize;
+        partitions_ = new Partition[numPartitions];
+        for (int i = 0; i < numPartitions; ++i) {
+            partitions_[i] = new Partition();
+        }
+    }
+
+    /**
+     * Adds an event to the stream of the given partition
+     *
+     * @param type   type of the event, as written in the streams
+     * @param fields fields of the event, joined by '|' in the csv rows
+     */
+    public void add(int partition, long date, long dependantDate, int type, List<String> fields) throws IOException {
+        Partition p = partitions_[partition];
+        ByteArrayBuilder events = p.events;
+        int start = events.length();
+        p.add(date, dependantDate);
+        events.appendRawInt(type).appendRawInt(fields.size());
+        for (String field : fields) {
+            int position = events.length();
+            events.appendRawInt(0).append(field);
+            events.setRawInt(position, events.length() - position - 4);
+        }
+        buffered_ += events.length() - start + 28;
+        if (buffered_ >= bufferSize_) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        for (Partition p : partitions_) {
+            if (p.count == 0) {
+                continue;
+            }
+            File run = createRun(p);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), OUTPUT_BUFFER_SIZE))) {
+                for (int e : p.sortedOrder()) {
+                    out.writeLong(p.dates[e]);
+                    out.writeLong(p.dependantDates[e]);
+                    out.write(p.events.array(), p.offsets[e], p.end(e) - p.offsets[e]);
+                }
+            }
+            p.runs.add(run);
+            p.clear();
+        }
+        buffered_ = 0;
+    }
+
+    private File createRun(Partition p) throws IOException {
+        String name = "updateStream_" + streamType_ + "_" + reducerId_ + "_";
+        if (conf_.get(LOCAL_DIRS) == null) {
+            File run = File.createTempFile(name, ".run");
+            run.deleteOnExit();
+            return run;
+        }
+        long size = p.events.length() + 16L * p.count;
+        return localDirs_.createTmpFileForWrite("updateStreamSorter/" + name, size, conf_);
+    }
+
+    private static int getInt(byte[] bytes, int position) {
+        return ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16) |
+                ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+    }
+
+    private static void setInt(byte[] bytes, int position, int v) {
+        bytes[position] = (byte) (v >>> 24);
+        bytes[position + 1] = (byte) (v >>> 16);
+        bytes[position + 2] = (byte) (v >>> 8);
+        bytes[position + 3] = (byte) v;
+    }
+
+    private void write(Cursor cursor, ByteArrayBuilder out) {
+        if (binary_) {
+            out.appendRawLong(cursor.date).appendRawLong(cursor.dependantDate).append(cursor.event, 0, cursor.length);
+            return;
+        }
+        byte[] event = cursor.event;
+        out.append(cursor.date).append((byte) '|').append(cursor.dependantDate).append((byte) '|').append(getInt(event, 0));
+        int numFields = getInt(event, 4);
+        int position = 8;
+        for (int f = 0; f < numFields; ++f) {
+            int fieldLength = getInt(event, position);
+            out.append((byte) '|').append(event, position + 4, fieldLength);
+            position += 4 + fieldLength;
+        }
+        out.append((byte) '\n');
+    }
+
+    /**
+     * Merges the runs and the events in memory of every partition into its stream
+     */
+    public void close() throws IOException {
+        FileSystem fs = FileSystem.get(conf_);
+        for (int i = 0; i < partitions_.length; ++i) {
+            Partition p = partitions_[i];
+            if (p.runs.isEmpty() && p.count == 0) {
+                // as with the sort job, partitions without events have no stream
+                continue;
+            }
+            String fileName = outputPrefix_ + "_" + reducerId_ + "_" + i + "_" + streamType_ + (binary_ ? ".bin" : ".csv");
+            OutputStream file = compressed_ ?
+                    new GZIPOutputStream(fs.create(new Path(fileName + ".gz"), true, 131072), 131072) :
+                    fs.create(new Path(fileName), true, 131072);
+            PriorityQueue<Cursor> queue = new PriorityQueue<Cursor>();
+            try {
+                for (int r = 0; r < p.runs.size(); ++r) {
+                    Cursor cursor = new Cursor(r, new DataInputStream(new BufferedInputStream(new FileInputStream(p.runs.get(r)), 1 << 16)));
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    }
+                }
+                Cursor memory = new Cursor(p.runs.size(), p);
+                if (memory.advance()) {
+                    queue.add(memory);
+                }
+                ByteArrayBuilder out = new ByteArrayBuilder(OUTPUT_BUFFER_SIZE + 65536);
+                if (binary_) {
+                    out.append(MAGIC);
+                }
+                while (!queue.isEmpty()) {
+                    Cursor cursor = queue.poll();
+                    write(cursor, out);
+                    if (out.length() >= OUTPUT_BUFFER_SIZE) {
+                        out.writeTo(file);
+                        out.reset();
+                    }
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    }
+                }
+                out.writeTo(file);
+            } finally {
+                file.close();
+                for (Cursor cursor : queue) {
+                    if (cursor.run != null) {
+                        cursor.run.close();
+                    }
+                }
+                for (File run : p.runs) {
+                    run.delete();
+                }
+                p.runs.clear();
+                p.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ldbc.snb.datagen.serializer.columnar;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.objects.Organization;
+import ldbc.snb.datagen.objects.Place;
+import ldbc.snb.datagen.objects.Tag;
+import ldbc.snb.datagen.objects.TagClass;
+import ldbc.snb.datagen.serializer.InvariantSerializer;
+import ldbc.snb.datagen.vocabulary.DBP;
+import ldbc.snb.datagen.vocabulary.DBPOWL;
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Columnar binary counterpart of snb.interactive.CSVInvariantSerializer, same files and columns.
+ */
+public class ColumnarInvariantSerializer extends InvariantSerializer {
+
+    private ColumnarWriter[] writers;
+
+    private enum FileNames {
+        TAG ("tag", "id:LONG", "name:STRING", "url:STRING"),
+        TAG_HAS_TYPE_TAGCLASS("tag_hasType_tagclass", "Tag.id:LONG", "TagClass.id:LONG"),
+        TAGCLASS ("tagclass", "id:LONG", "name:STRING", "url:STRING"),
+        TAGCLASS_IS_SUBCLASS_OF_TAGCLASS ("tagclass_isSubclassOf_tagclass", "TagClass.id:LONG", "TagClass.id:LONG"),
+        PLACE ("place", "id:LONG", "name:STRING", "url:STRING", "type:STRING"),
+        PLACE_IS_PART_OF_PLACE ("place_isPartOf_place", "Place.id:LONG", "Place.id:LONG"),
+        ORGANIZATION ("organisation", "id:LONG", "type:STRING", "name:STRING", "url:STRING"),
+        ORGANIZATION_IS_LOCATED_IN_PLACE ("organisation_isLocatedIn_place", "Organisation.id:LONG", "Place.id:LONG");
+
+        private final String name;
+        private final String[] columns;
+
+        private FileNames( String name, String... columns ) {
+            this.name = name;
+            this.columns = columns;
+        }
+        public String toString() {
+            return name;
+        }
+    }
+
+    public void initialize(Configuration conf, int reducerId) {
+        int numFiles = FileNames.values().length;
+        writers = new ColumnarWriter[numFiles];
+        try {
+            for( int i = 0; i < numFiles; ++i) {
+                FileNames file = FileNames.values()[i];
+                writers[i] = new ColumnarWriter(conf.get("ldbc.snb.datagen.serializer.socialNetworkDir"), file.toString() + "_" + reducerId,
+                        conf.getBoolean("ldbc.snb.datagen.serializer.compressed", false), ColumnarWriter.columns(file.columns));
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    @Override
+    public void close() {
+        int numFiles = FileNames.values().length;
+        for(int i = 0; i < numFiles; ++i) {
+            writers[i].close();
+        }
+    }
+
+    protected void serialize(final Place place) {
+        writers[FileNames.PLACE.ordinal()].add(place.getId()).add(place.getName()).add(DBP.getUrl(place.getName())).add(place.getType()).endRow();
+
+        if (place.getType() == Place.CITY ||
+                place.getType() == Place.COUNTRY) {
+            writers[FileNames.PLACE_IS_PART_OF_PLACE.ordinal()].add(place.getId()).add(Dictionaries.places.belongsTo(place.getId())).endRow();
+        }
+    }
+
+    protected void serialize(final Organization organization) {
+        writers[FileNames.ORGANIZATION.ordinal()].add(organization.id).add(organization.type.toString()).add(organization.name).add(DBP.getUrl(organization.name)).endRow();
+
+        writers[FileNames.ORGANIZATION_IS_LOCATED_IN_PLACE.ordinal()].add(organization.id).add(organization.location).endRow();
+    }
+
+    protected void serialize(final TagClass tagClass) {
+        String url = tagClass.name.equals("Thing") ? "http://www.w3.org/2002/07/owl#Thing" : DBPOWL.getUrl(tagClass.name);
+        writers[FileNames.TAGCLASS.ordinal()].add(tagClass.id).add(tagClass.name).add(url).endRow();
+
+        if (tagClass.parent != -1) {
+            writers[FileNames.TAGCLASS_IS_SUBCLASS_OF_TAGCLASS.ordinal()].add(tagClass.id).add(tagClass.parent).endRow();
+        }
+    }
+
+    protected void serialize(final Tag tag) {
+        writers[FileNames.TAG.ordinal()].add(tag.id).add(tag.name).add(DBP.getUrl(tag.name)).endRow();
+
+        writers[FileNames.TAG_HAS_TYPE_TAGCLASS.ordinal()].add(tag.id).add(tag.tagClass).endRow();
+    }
+
+    public void reset() {
+
+    }
+}
@@ -0,0 +1,197 @@
+package ldbc.snb.datagen.serializer.columnar;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.objects.*;
+import ldbc.snb.datagen.serializer.PersonActivitySerializer;
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Columnar binary counterpart of snb.interactive.CSVPersonActivitySerializer, same files and columns.
+ * Dates are written as milliseconds since the epoch.
+ */
+public class ColumnarPersonActivitySerializer extends PersonActivitySerializer {
+
+	private ColumnarWriter[] writers;
+
+	private enum FileNames {
+		FORUM ("forum", "id:LONG", "title:STRING", "creationDate:LONG"),
+		FORUM_CONTAINEROF_POST ("forum_containerOf_post", "Forum.id:LONG", "Post.id:LONG"),
+		FORUM_HASMEMBER_PERSON ("forum_hasMember_person", "Forum.id:LONG", "Person.id:LONG", "joinDate:LONG"),
+		FORUM_HASMODERATOR_PERSON ("forum_hasModerator_person", "Forum.id:LONG", "Person.id:LONG"),
+		FORUM_HASTAG_TAG ("forum_hasTag_tag", "Forum.id:LONG", "Tag.id:LONG"),
+		PERSON_LIKES_POST ("person_likes_post", "Person.id:LONG", "Post.id:LONG", "creationDate:LONG"),
+		PERSON_LIKES_COMMENT ("person_likes_comment", "Person.id:LONG", "Comment.id:LONG", "creationDate:LONG"),
+		POST("post", "id:LONG", "imageFile:STRING", "creationDate:LONG", "locationIP:STRING", "browserUsed:STRING",
+				"language:STRING", "content:STRING", "length:LONG"),
+		POST_HASCREATOR_PERSON("post_hasCreator_person", "Post.id:LONG", "Person.id:LONG"),
+		POST_HASTAG_TAG("post_hasTag_tag", "Post.id:LONG", "Tag.id:LONG"),
+		POST_ISLOCATEDIN_PLACE("post_isLocatedIn_place", "Post.id:LONG", "Place.id:LONG"),
+		POST_HASMENTIONED_PERSON("post_hasMentioned_person", "Post.id:LONG", "Person.id:LONG"),
+		COMMENT("comment", "id:LONG", "creationDate:LONG", "locationIP:STRING", "browserUsed:STRING", "content:STRING"),
+		COMMENT_HASCREATOR_PERSON("comment_hasCreator_person", "Comment.id:LONG", "Person.id:LONG"),
+		COMMENT_HASTAG_TAG("comment_hasTag_tag", "Comment.id:LONG", "Tag.id:LONG"),
+		COMMENT_ISLOCATEDIN_PLACE("comment_isLocatedIn_place", "Comment.id:LONG", "Place.id:LONG"),
+		COMMENT_REPLYOF_POST("comment_replyOf_post", "Comment.id:LONG", "Post.id:LONG"),
+		COMMENT_REPLYOF_COMMENT("comment_replyOf_comment", "Comment.id:LONG", "Comment.id:LONG"),
+		COMMENT_HASMENTIONED_PERSON("comment_hasMentioned_person", "Comment.id:LONG", "Person.id:LONG");
+
+		private final String name;
+		private final String[] columns;
+
+		private FileNames( String name, String... columns ) {
+			this.name = name;
+			this.columns = columns;
+		}
+		public String toString() {
+			return name;
+		}
+	}
+
+	@Override
+	public void initialize(Configuration conf, int reducerId) {
+		boolean richRdf = conf.getBoolean("ldbc.snb.datagen.generator.richRdf",false);
+		int numFiles = FileNames.values().length;
+		writers = new ColumnarWriter[numFiles];
+		try {
+			for( int i = 0; i < numFiles; ++i) {
+				FileNames file = FileNames.values()[i];
+				List<String> columns = ColumnarWriter.columns(file.columns);
+				if (richRdf && file == FileNames.POST) {
+					columns.add("public:STRING");
+					columns.add("link:STRING");
+				} else if (file == FileNames.COMMENT) {
+					if (richRdf)
+						columns.add("gifFile:STRING");
+					columns.add("length:LONG");
+					if (richRdf) {
+						columns.add("public:STRING");
+						columns.add("link:STRING");
+					}
+				}
+				writers[i] = new ColumnarWriter(conf.get("ldbc.snb.datagen.serializer.socialNetworkDir"), file.toString() + "_" + reducerId,
+						conf.getBoolean("ldbc.snb.datagen.serializer.compressed", false), columns);
+			}
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	@Override
+	public void close() {
+		int numFiles = FileNames.values().length;
+		for(int i = 0; i < numFiles; ++i) {
+			writers[i].close();
+		}
+	}
+
+	protected void serialize( final Forum forum ) {
+		writers[FileNames.FORUM.ordinal()].add(forum.id()).add(forum.title()).add(forum.creationDate()).endRow();
+
+		writers[FileNames.FORUM_HASMODERATOR_PERSON.ordinal()].add(forum.id()).add(forum.moderator().accountId()).endRow();
+
+		for( Integer i : forum.tags()) {
+			writers[FileNames.FORUM_HASTAG_TAG.ordinal()].add(forum.id()).add(i).endRow();
+		}
+	}
+
+	private void serializeMessageRelations( final Message message, FileNames locatedIn, FileNames hasCreator, FileNames hasTag, FileNames hasMentioned ) {
+		if (!message.richRdf() || message.countryKnown()) {
+			writers[locatedIn.ordinal()].add(message.messageId()).add(message.countryId()).endRow();
+		}
+
+		writers[hasCreator.ordinal()].add(message.messageId()).add(message.author().accountId()).endRow();
+
+		for( Integer t : message.tags() ) {
+			writers[hasTag.ordinal()].add(message.messageId()).add(t).endRow();
+		}
+
+		if (message.richRdf())
+			for( Long t : message.mentioned() ) {
+				writers[hasMentioned.ordinal()].add(message.messageId()).add(t).endRow();
+			}
+	}
+
+	protected void serialize( final Post post ) {
+		ColumnarWriter writer = writers[FileNames.POST.ordinal()];
+		writer.add(post.messageId())
+			.add("")
+			.add(post.creationDate())
+			.add(post.ipAddress().toString())
+			.add(Dictionaries.browsers.getName(post.browserId()))
+			.add(Dictionaries.languages.getLanguageName(post.language()))
+			.add(post.content())
+			.add(post.content().length());
+		if (post.richRdf()) {
+			writer.add(post.isPublic() != null ? post.isPublic().toString() : "");
+			writer.add(post.link());
+		}
+		writer.endRow();
+
+		writers[FileNames.FORUM_CONTAINEROF_POST.ordinal()].add(post.forumId()).add(post.messageId()).endRow();
+		serializeMessageRelations(post, FileNames.POST_ISLOCATEDIN_PLACE, FileNames.POST_HASCREATOR_PERSON,
+				FileNames.POST_HASTAG_TAG, FileNames.POST_HASMENTIONED_PERSON);
+	}
+
+	protected void serialize( final Comment comment ) {
+		ColumnarWriter writer = writers[FileNames.COMMENT.ordinal()];
+		writer.add(comment.messageId())
+			.add(comment.creationDate())
+			.add(comment.ipAddress().toString())
+			.add(Dictionaries.browsers.getName(comment.browserId()))
+			.add(comment.content());
+		if (comment.richRdf())
+			writer.add(comment.gif());
+		writer.add(comment.content().length());
+		if (comment.richRdf()) {
+			writer.add(comment.isPublic() != null ? comment.isPublic().toString() : "");
+			writer.add(comment.link());
+		}
+		writer.endRow();
+
+		if (comment.replyOf() == comment.postId()) {
+			writers[FileNames.COMMENT_REPLYOF_POST.ordinal()].add(comment.messageId()).add(comment.postId()).endRow();
+		} else {
+			writers[FileNames.COMMENT_REPLYOF_COMMENT.ordinal()].add(comment.messageId()).add(comment.replyOf()).endRow();
+		}
+		serializeMessageRelations(comment, FileNames.COMMENT_ISLOCATEDIN_PLACE, FileNames.COMMENT_HASCREATOR_PERSON,
+				FileNames.COMMENT_HASTAG_TAG, FileNames.COMMENT_HASMENTIONED_PERSON);
+	}
+
+	protected void serialize(final  Photo photo ) {
+		ColumnarWriter writer = writers[FileNames.POST.ordinal()];
+		writer.add(photo.messageId())
+			.add(photo.content())
+			.add(photo.creationDate())
+			.add(photo.ipAddress().toString())
+			.add(Dictionaries.browsers.getName(photo.browserId()))
+			.add("")
+			.add("")
+			.add(0);
+		if (photo.richRdf()) {
+			writer.add(photo.isPublic() != null ? photo.isPublic().toString() : "");
+			writer.add("");
+		}
+		writer.endRow();
+
+		writers[FileNames.FORUM_CONTAINEROF_POST.ordinal()].add(photo.forumId()).add(photo.messageId()).endRow();
+		serializeMessageRelations(photo, FileNames.POST_ISLOCATEDIN_PLACE, FileNames.POST_HASCREATOR_PERSON,
+				FileNames.POST_HASTAG_TAG, FileNames.POST_HASMENTIONED_PERSON);
+	}
+
+	protected void serialize(final  ForumMembership membership ) {
+		writers[FileNames.FORUM_HASMEMBER_PERSON.ordinal()].add(membership.forumId()).add(membership.person().accountId()).add(membership.creationDate()).endRow();
+	}
+
+	protected void serialize( final Like like ) {
+		FileNames file = like.type == Like.LikeType.POST || like.type == Like.LikeType.PHOTO ? FileNames.PERSON_LIKES_POST : FileNames.PERSON_LIKES_COMMENT;
+		writers[file.ordinal()].add(like.user).add(like.messageId).add(like.date).endRow();
+	}
+
+	public void reset() {
+
+	}
+}
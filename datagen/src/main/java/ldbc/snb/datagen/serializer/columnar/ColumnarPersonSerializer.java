@@ -0,0 +1,115 @@
+package ldbc.snb.datagen.serializer.columnar;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.objects.Knows;
+import ldbc.snb.datagen.objects.Person;
+import ldbc.snb.datagen.objects.StudyAt;
+import ldbc.snb.datagen.objects.WorkAt;
+import ldbc.snb.datagen.serializer.PersonSerializer;
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Columnar binary counterpart of snb.interactive.CSVPersonSerializer, same files and columns.
+ * Dates are written as milliseconds since the epoch and years as numbers.
+ */
+public class ColumnarPersonSerializer extends PersonSerializer {
+
+    private ColumnarWriter[] writers;
+
+    private enum FileNames {
+        PERSON ("person", "id:LONG", "firstName:STRING", "lastName:STRING", "gender:STRING", "birthday:LONG",
+                "creationDate:LONG", "locationIP:STRING", "browserUsed:STRING"),
+        PERSON_SPEAKS_LANGUAGE ("person_speaks_language", "Person.id:LONG", "language:STRING"),
+        PERSON_HAS_EMAIL ("person_email_emailaddress", "Person.id:LONG", "email:STRING"),
+        PERSON_LOCATED_IN_PLACE ("person_isLocatedIn_place", "Person.id:LONG", "Place.id:LONG"),
+        PERSON_HAS_INTEREST_TAG ("person_hasInterest_tag", "Person.id:LONG", "Tag.id:LONG"),
+        PERSON_WORK_AT ("person_workAt_organisation", "Person.id:LONG", "Organisation.id:LONG", "workFrom:LONG"),
+        PERSON_STUDY_AT ("person_studyAt_organisation", "Person.id:LONG", "Organisation.id:LONG", "classYear:LONG"),
+        PERSON_KNOWS_PERSON("person_knows_person", "Person.id:LONG", "Person.id:LONG", "creationDate:LONG");
+
+        private final String name;
+        private final String[] columns;
+
+        private FileNames( String name, String... columns ) {
+            this.name = name;
+            this.columns = columns;
+        }
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Override
+    public void initialize(Configuration conf, int reducerId) {
+        int numFiles = FileNames.values().length;
+        writers = new ColumnarWriter[numFiles];
+        try {
+            for( int i = 0; i < numFiles; ++i) {
+                FileNames file = FileNames.values()[i];
+                writers[i] = new ColumnarWriter(conf.get("ldbc.snb.datagen.serializer.socialNetworkDir"), file.toString() + "_" + reducerId,
+                        conf.getBoolean("ldbc.snb.datagen.serializer.compressed", false), ColumnarWriter.columns(file.columns));
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    @Override
+    public void close() {
+        int numFiles = FileNames.values().length;
+        for(int i = 0; i < numFiles; ++i) {
+            writers[i].close();
+        }
+    }
+
+    @Override
+    protected void serialize(final Person p) {
+        writers[FileNames.PERSON.ordinal()]
+                .add(p.accountId())
+                .add(p.firstName())
+                .add(p.lastName())
+                .add(p.gender() == 1 ? "male" : "female")
+                .add(p.birthDay())
+                .add(p.creationDate())
+                .add(p.ipAddress().toString())
+                .add(Dictionaries.browsers.getName(p.browserId()))
+                .endRow();
+
+        for (Integer language : p.languages()) {
+            writers[FileNames.PERSON_SPEAKS_LANGUAGE.ordinal()].add(p.accountId()).add(Dictionaries.languages.getLanguageName(language)).endRow();
+        }
+
+        for (String email : p.emails()) {
+            writers[FileNames.PERSON_HAS_EMAIL.ordinal()].add(p.accountId()).add(email).endRow();
+        }
+
+        writers[FileNames.PERSON_LOCATED_IN_PLACE.ordinal()].add(p.accountId()).add(p.cityId()).endRow();
+
+        for (Integer interest : p.interests()) {
+            writers[FileNames.PERSON_HAS_INTEREST_TAG.ordinal()].add(p.accountId()).add(interest).endRow();
+        }
+    }
+
+    @Override
+    protected void serialize(final StudyAt studyAt) {
+        writers[FileNames.PERSON_STUDY_AT.ordinal()].add(studyAt.user).add(studyAt.university).add(Dictionaries.dates.getBirthYear(studyAt.year)).endRow();
+    }
+
+    @Override
+    protected void serialize(final WorkAt workAt) {
+        writers[FileNames.PERSON_WORK_AT.ordinal()].add(workAt.user).add(workAt.company).add(Dictionaries.dates.getBirthYear(workAt.year)).endRow();
+    }
+
+    @Override
+    protected void serialize(final Person p, Knows knows) {
+        writers[FileNames.PERSON_KNOWS_PERSON.ordinal()].add(p.accountId()).add(knows.to().accountId()).add(knows.creationDate()).endRow();
+    }
+
+    @Override
+    public void reset() {
+
+    }
+}
@@ -0,0 +1,207 @@
+package ldbc.snb.datagen.serializer.columnar;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writer of the columnar binary format read by com.ldbc.driver.columnar.ColumnarFileReader in the driver.
+ * Rows are buffered in row groups of ROW_GROUP_SIZE rows, and each row group is written column by column.
+ * All numbers are big endian, as written by DataOutputStream:
+ *
+ *   file      := "LDBCCOL1" int:numColumns column* rowGroup* int:0
+ *   column    := UTF:name byte:type                      (type 0 = LONG, 1 = STRING)
+ *   rowGroup  := int:numRows int[numColumns]:chunkLength chunk*   (one chunk per column)
+ *   LONG      := long:min long:max long[numRows]
+ *   STRING    := int:dictionarySize (int:length byte[length])[dictionarySize] int[numRows]
+ *
+ * String chunks are dictionary encoded: each distinct UTF-8 value of the row group is written once, and rows hold
+ * the position of their value in the dictionary. Min and max are the statistics of the long chunks, so readers can
+ * skip row groups when filtering on a range. The byte length of every chunk is written before the chunks, so readers
+ * can skip the columns they do not need without decoding them.
+ */
+public class ColumnarWriter {
+
+    public static final byte[] MAGIC = "LDBCCOL1".getBytes(StandardCharsets.US_ASCII);
+    public static final int ROW_GROUP_SIZE = 65536;
+
+    public enum Type {
+        LONG, STRING
+    }
+
+    private final DataOutputStream out_;
+    private final Type[] types_;
+    private final long[][] longs_;
+    private final int[][] codes_;
+    private final List<HashMap<String, Integer>> dictionaries_;
+    private final List<List<String>> dictionaryValues_;
+    private int numRows_ = 0;
+    private int column_ = 0;
+
+    /**
+     * @param outputDir  directory of the file
+     * @param name       name of the file, without extension
+     * @param compressed whether to gzip the file
+     * @param columns    columns, as name:LONG or name:STRING
+     */
+    public ColumnarWriter(String outputDir, String name, boolean compressed, List<String> columns) throws IOException {
+        FileSystem fs = FileSystem.get(new Configuration());
+        OutputStream file;
+        if (compressed) {
+            file = new GZIPOutputStream(fs.create(new Path(outputDir + "/" + name + ".col.gz"), true, 131072), 131072);
+        } else {
+            file = fs.create(new Path(outputDir + "/" + name + ".col"), true, 131072);
+        }
+        out_ = new DataOutputStream(new BufferedOutputStream(file, 1 << 20));
+        int numColumns = columns.size();
+        types_ = new Type[numColumns];
+        longs_ = new long[numColumns][];
+        codes_ = new int[numColumns][];
+        dictionaries_ = new ArrayList<HashMap<String, Integer>>(numColumns);
+        dictionaryValues_ = new ArrayList<List<String>>(numColumns);
+        out_.write(MAGIC);
+        out_.writeInt(numColumns);
+        for (int i = 0; i < numColumns; ++i) {
+            String spec = columns.get(i);
+            int colon = spec.lastIndexOf(':');
+            types_[i] = Type.valueOf(spec.substring(colon + 1));
+            out_.writeUTF(spec.substring(0, colon));
+            out_.writeByte(types_[i].ordinal());
+            if (types_[i] == Type.LONG) {
+                longs_[i] = new long[ROW_GROUP_SIZE];
+                dictionaries_.add(null);
+                dictionaryValues_.add(null);
+            } else {
+                codes_[i] = new int[ROW_GROUP_SIZE];
+                dictionaries_.add(new HashMap<String, Integer>());
+                dictionaryValues_.add(new ArrayList<String>());
+            }
+        }
+    }
+
+    private int nextColumn(Type type) {
+        if (column_ >= types_.length || types_[column_] != type) {
+            throw new IllegalStateException("Column " + column_ + " is not of type " + type);
+        }
+        return column_++;
+    }
+
+    public ColumnarWriter add(long value) {
+        longs_[nextColumn(Type.LONG)][numRows_] = value;
+        return this;
+    }
+
+    public ColumnarWriter add(String value) {
+        int column = nextColumn(Type.STRING);
+        if (value == null) {
+            value = "";
+        }
+        HashMap<String, Integer> dictionary = dictionaries_.get(column);
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.put(value, code);
+            dictionaryValues_.get(column).add(value);
+        }
+        codes_[column][numRows_] = code;
+        return this;
+    }
+
+    public void endRow() {
+        if (column_ != types_.length) {
+            throw new IllegalStateException("Row with " + column_ + " values, expected " + types_.length);
+        }
+        column_ = 0;
+        if (++numRows_ == ROW_GROUP_SIZE) {
+            try {
+                flushRowGroup();
+            } catch (IOException e) {
+                System.err.println("Cannot write to output file");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (numRows_ == 0) {
+            return;
+        }
+        List<List<byte[]>> encodedDictionaries = new ArrayList<List<byte[]>>(types_.length);
+        out_.writeInt(numRows_);
+        for (int c = 0; c < types_.length; ++c) {
+            if (types_[c] == Type.LONG) {
+                encodedDictionaries.add(null);
+                out_.writeInt(16 + 8 * numRows_);
+            } else {
+                List<byte[]> encoded = new ArrayList<byte[]>(dictionaryValues_.get(c).size());
+                int length = 4 + 4 * numRows_;
+                for (String value : dictionaryValues_.get(c)) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    encoded.add(bytes);
+                    length += 4 + bytes.length;
+                }
+                encodedDictionaries.add(encoded);
+                out_.writeInt(length);
+            }
+        }
+        for (int c = 0; c < types_.length; ++c) {
+            if (types_[c] == Type.LONG) {
+                long[] values = longs_[c];
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                for (int i = 0; i < numRows_; ++i) {
+                    min = Math.min(min, values[i]);
+                    max = Math.max(max, values[i]);
+                }
+                out_.writeLong(min);
+                out_.writeLong(max);
+                for (int i = 0; i < numRows_; ++i) {
+                    out_.writeLong(values[i]);
+                }
+            } else {
+                List<byte[]> dictionary = encodedDictionaries.get(c);
+                out_.writeInt(dictionary.size());
+                for (byte[] bytes : dictionary) {
+                    out_.writeInt(bytes.length);
+                    out_.write(bytes);
+                }
+                int[] codes = codes_[c];
+                for (int i = 0; i < numRows_; ++i) {
+                    out_.writeInt(codes[i]);
+                }
+                dictionaryValues_.get(c).clear();
+                dictionaries_.get(c).clear();
+            }
+        }
+        numRows_ = 0;
+    }
+
+    public void close() {
+        try {
+            flushRowGroup();
+            out_.writeInt(0);
+            out_.close();
+        } catch (IOException e) {
+            System.err.println("Exception when closing a file");
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * @return column specifications, as taken by the constructor
+     */
+    public static List<String> columns(String... columns) {
+        return new ArrayList<String>(Arrays.asList(columns));
+    }
+}
@@ -1,5 +1,6 @@
 package ldbc.snb.datagen.serializer.formatter;
 
+import ldbc.snb.datagen.serializer.ByteArrayBuilder;
 import org.apache.hadoop.conf.Configuration;
 
 /**
@@ -10,4 +11,15 @@ public interface DateFormatter {
     public void initialize(Configuration config);
     public String formatDate(long date);
     public String formatDateTime(long date);
+
+    /**
+     * Appends the formatted date to out, formatters should override it to avoid creating a String per date
+     */
+    default void formatDate(long date, ByteArrayBuilder out) {
+        out.append(formatDate(date));
+    }
+
+    default void formatDateTime(long date, ByteArrayBuilder out) {
+        out.append(formatDateTime(date));
+    }
 }
@@ -0,0 +1,99 @@
+package ldbc.snb.datagen.serializer.formatter;
+
+import ldbc.snb.datagen.serializer.ByteArrayBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Allocation free GMT formatting of dates of the form yyyy-MM-dd[T| ]HH:mm:ss.SSS[+0000|Z].
+ * The yyyy-MM-dd part and the separator are cached for the last formatted day, as consecutive dates written by a
+ * serializer usually fall on the same day, so only the time of the day is computed for most dates.
+ * Days before 1582-10-15 are in the proleptic Gregorian calendar, where SimpleDateFormat switches to the Julian one.
+ * Not thread safe, like the formatters using it.
+ */
+public class IsoDateTimeEncoder {
+
+    private static final long ONE_DAY = 24L * 60L * 60L * 1000L;
+
+    private final byte separator_;
+    private final byte[] suffix_;
+    private long cachedDay_ = Long.MIN_VALUE;
+    private final byte[] dayPrefix_ = new byte[11];
+    private int dayPrefixLength_ = 0;
+
+    /**
+     * @param separator character between the date and the time
+     * @param suffix    text after the milliseconds, such as the time zone offset
+     */
+    public IsoDateTimeEncoder(char separator, String suffix) {
+        separator_ = (byte) separator;
+        suffix_ = suffix.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return an encoder producing the same text as the SimpleDateFormat pattern in GMT, or null if the pattern is
+     * not one of the supported ISO-8601 variants
+     */
+    public static IsoDateTimeEncoder forPattern(String pattern) {
+        switch (pattern) {
+            case "yyyy-MM-dd'T'HH:mm:ss.SSSZ":
+                return new IsoDateTimeEncoder('T', "+0000");
+            case "yyyy-MM-dd'T'HH:mm:ss.SSSXXX":
+                return new IsoDateTimeEncoder('T', "Z");
+            case "yyyy-MM-dd'T'HH:mm:ss.SSS":
+                return new IsoDateTimeEncoder('T', "");
+            case "yyyy-MM-dd HH:mm:ss.SSS":
+                return new IsoDateTimeEncoder(' ', "");
+            default:
+                return null;
+        }
+    }
+
+    private void cacheDay(long day) {
+        LocalDate date = LocalDate.ofEpochDay(day);
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Year out of the supported range: " + year);
+        }
+        dayPrefix_[0] = (byte) ('0' + year / 1000);
+        dayPrefix_[1] = (byte) ('0' + year / 100 % 10);
+        dayPrefix_[2] = (byte) ('0' + year / 10 % 10);
+        dayPrefix_[3] = (byte) ('0' + year % 10);
+        dayPrefix_[4] = '-';
+        dayPrefix_[5] = (byte) ('0' + date.getMonthValue() / 10);
+        dayPrefix_[6] = (byte) ('0' + date.getMonthValue() % 10);
+        dayPrefix_[7] = '-';
+        dayPrefix_[8] = (byte) ('0' + date.getDayOfMonth() / 10);
+        dayPrefix_[9] = (byte) ('0' + date.getDayOfMonth() % 10);
+        dayPrefix_[10] = separator_;
+        dayPrefixLength_ = 11;
+        cachedDay_ = day;
+    }
+
+    private void day(long date) {
+        long day = Math.floorDiv(date, ONE_DAY);
+        if (day != cachedDay_) {
+            cacheDay(day);
+        }
+    }
+
+    /**
+     * Appends only the yyyy-MM-dd part of the date
+     */
+    public void encodeDate(long date, ByteArrayBuilder out) {
+        day(date);
+        out.append(dayPrefix_, 0, dayPrefixLength_ - 1);
+    }
+
+    public void encode(long date, ByteArrayBuilder out) {
+        day(date);
+        int millisOfDay = (int) Math.floorMod(date, ONE_DAY);
+        out.append(dayPrefix_, 0, dayPrefixLength_);
+        out.appendPadded(millisOfDay / 3600000, 2).append((byte) ':');
+        out.appendPadded(millisOfDay / 60000 % 60, 2).append((byte) ':');
+        out.appendPadded(millisOfDay / 1000 % 60, 2).append((byte) '.');
+        out.appendPadded(millisOfDay % 1000, 3);
+        out.append(suffix_);
+    }
+}
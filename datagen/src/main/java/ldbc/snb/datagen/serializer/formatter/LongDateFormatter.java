@@ -1,5 +1,6 @@
 package ldbc.snb.datagen.serializer.formatter;
 
+import ldbc.snb.datagen.serializer.ByteArrayBuilder;
 import org.apache.hadoop.conf.Configuration;
 
 import java.util.Calendar;
@@ -37,4 +38,8 @@ public class LongDateFormatter implements DateFormatter {
     public String formatDateTime(long date) {
         return Long.toString(date);
     }
+
+    public void formatDateTime(long date, ByteArrayBuilder out) {
+        out.append(date);
+    }
 }
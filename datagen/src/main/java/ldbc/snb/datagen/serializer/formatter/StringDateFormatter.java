@@ -1,5 +1,6 @@
 package ldbc.snb.datagen.serializer.formatter;
 
+import ldbc.snb.datagen.serializer.ByteArrayBuilder;
 import org.apache.hadoop.conf.Configuration;
 import sun.util.calendar.Gregorian;
 
@@ -20,6 +21,8 @@ public class StringDateFormatter implements DateFormatter{
     private SimpleDateFormat gmtDateTimeFormatter_;
     private SimpleDateFormat gmtDateFormatter_;
     private Date date_;
+    private IsoDateTimeEncoder dateTimeEncoder_;
+    private IsoDateTimeEncoder dateEncoder_;
     public void initialize(Configuration conf) {
 
         formatDateTimeString_ = conf.get("ldbc.snb.datagen.serializer.formatter.StringDateFormatter.dateTimeFormat", formatDateTimeString_);
@@ -29,6 +32,8 @@ public class StringDateFormatter implements DateFormatter{
         gmtDateFormatter_ = new SimpleDateFormat(formatDateString_);
         gmtDateFormatter_.setTimeZone(TimeZone.getTimeZone("GMT"));
         date_ = new Date();
+        dateTimeEncoder_ = IsoDateTimeEncoder.forPattern(formatDateTimeString_);
+        dateEncoder_ = formatDateString_.equals("yyyy-MM-dd") ? new IsoDateTimeEncoder('T', "") : null;
     }
 
     public String formatDateTime(long date) {
@@ -41,4 +46,20 @@ public class StringDateFormatter implements DateFormatter{
         return gmtDateFormatter_.format(date_);
     }
 
+    public void formatDateTime(long date, ByteArrayBuilder out) {
+        if (dateTimeEncoder_ != null) {
+            dateTimeEncoder_.encode(date, out);
+        } else {
+            out.append(formatDateTime(date));
+        }
+    }
+
+    public void formatDate(long date, ByteArrayBuilder out) {
+        if (dateEncoder_ != null) {
+            dateEncoder_.encodeDate(date, out);
+        } else {
+            out.append(formatDate(date));
+        }
+    }
+
 }
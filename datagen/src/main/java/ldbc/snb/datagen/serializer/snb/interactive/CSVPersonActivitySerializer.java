@@ -195,218 +195,130 @@ public class CSVPersonActivitySerializer extends PersonActivitySerializer {
 	}
 	
 	protected void serialize( final Forum forum ) {
-		
-		String dateString = Dictionaries.dates.formatDateTime(forum.creationDate());
-		
-		arguments.add(Long.toString(forum.id()));
-		arguments.add(forum.title());
-		arguments.add(dateString);
-		writers[FileNames.FORUM.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
-		arguments.add(Long.toString(forum.id()));
-		arguments.add(Long.toString(forum.moderator().accountId()));
-		writers[FileNames.FORUM_HASMODERATOR_PERSON.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
+		writers[FileNames.FORUM.ordinal()].add(forum.id()).add(forum.title()).addDateTime(forum.creationDate()).endEntry();
+
+		writers[FileNames.FORUM_HASMODERATOR_PERSON.ordinal()].add(forum.id()).add(forum.moderator().accountId()).endEntry();
+
 		for( Integer i : forum.tags()) {
-			arguments.add(Long.toString(forum.id()));
-			arguments.add(Integer.toString(i));
-			writers[FileNames.FORUM_HASTAG_TAG.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.FORUM_HASTAG_TAG.ordinal()].add(forum.id()).add(i).endEntry();
 		}
-		
+
 	}
-	
+
 	protected void serialize( final Post post ) {
-		
-		arguments.add(Long.toString(post.messageId()));
-		arguments.add(empty);
-		arguments.add(Dictionaries.dates.formatDateTime(post.creationDate()));
-		arguments.add(post.ipAddress().toString());
-		arguments.add(Dictionaries.browsers.getName(post.browserId()));
-		arguments.add(Dictionaries.languages.getLanguageName(post.language()));
-		arguments.add(post.content());
-		arguments.add(Integer.toString(post.content().length()));
-		if (post.richRdf())
-		    if (post.isPublic() != null)
-			arguments.add(post.isPublic().toString());
-		    else
-			arguments.add("");
-		if (post.richRdf())
-		    if (post.link() != null)
-			arguments.add(post.link());
-		    else
-			arguments.add("");
-		writers[FileNames.POST.ordinal()].writeEntry(arguments);
-		arguments.clear();
+		HDFSCSVWriter writer = writers[FileNames.POST.ordinal()];
+		writer.add(post.messageId())
+			.add(empty)
+			.addDateTime(post.creationDate())
+			.add(post.ipAddress().toString())
+			.add(Dictionaries.browsers.getName(post.browserId()))
+			.add(Dictionaries.languages.getLanguageName(post.language()))
+			.add(post.content())
+			.add(post.content().length());
+		if (post.richRdf()) {
+			writer.add(post.isPublic() != null ? post.isPublic().toString() : "");
+			writer.add(post.link() != null ? post.link() : "");
+		}
+		writer.endEntry();
 
 		if (!post.richRdf() || post.countryKnown()) {
-		    arguments.add(Long.toString(post.messageId()));
-		    arguments.add(Integer.toString(post.countryId()));
-		    writers[FileNames.POST_ISLOCATEDIN_PLACE.ordinal()].writeEntry(arguments);
-		    arguments.clear();
+			writers[FileNames.POST_ISLOCATEDIN_PLACE.ordinal()].add(post.messageId()).add(post.countryId()).endEntry();
 		}
-		
-		arguments.add(Long.toString(post.messageId()));
-		arguments.add(Long.toString(post.author().accountId()));
-		writers[FileNames.POST_HASCREATOR_PERSON.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
-		
-		arguments.add(Long.toString(post.forumId()));
-		arguments.add(Long.toString(post.messageId()));
-		writers[FileNames.FORUM_CONTAINEROF_POST.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
+
+		writers[FileNames.POST_HASCREATOR_PERSON.ordinal()].add(post.messageId()).add(post.author().accountId()).endEntry();
+
+		writers[FileNames.FORUM_CONTAINEROF_POST.ordinal()].add(post.forumId()).add(post.messageId()).endEntry();
+
 		for( Integer t : post.tags() ) {
-			arguments.add(Long.toString(post.messageId()));
-			arguments.add(Integer.toString(t));
-			writers[FileNames.POST_HASTAG_TAG.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.POST_HASTAG_TAG.ordinal()].add(post.messageId()).add(t).endEntry();
 		}
 
 		if (post.richRdf())
 		    for( Long t : post.mentioned() ) {
-			arguments.add(Long.toString(post.messageId()));
-			arguments.add(Long.toString(t));
-			writers[FileNames.POST_HASMENTIONED_PERSON.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.POST_HASMENTIONED_PERSON.ordinal()].add(post.messageId()).add(t).endEntry();
 		    }
 	}
-	
+
 	protected void serialize( final Comment comment ) {
-		arguments.add(Long.toString(comment.messageId()));
-		arguments.add(Dictionaries.dates.formatDateTime(comment.creationDate()));
-		arguments.add(comment.ipAddress().toString());
-		arguments.add(Dictionaries.browsers.getName(comment.browserId()));
-		arguments.add(comment.content());
-		if (comment.richRdf())
-		    arguments.add(comment.gif());
-		arguments.add(Integer.toString(comment.content().length()));
-		if (comment.richRdf())
-		    if (comment.isPublic() != null)
-			arguments.add(comment.isPublic().toString());
-		    else
-			arguments.add("");
+		HDFSCSVWriter writer = writers[FileNames.COMMENT.ordinal()];
+		writer.add(comment.messageId())
+			.addDateTime(comment.creationDate())
+			.add(comment.ipAddress().toString())
+			.add(Dictionaries.browsers.getName(comment.browserId()))
+			.add(comment.content());
 		if (comment.richRdf())
-		    if (comment.link() != null)
-			arguments.add(comment.link());
-		    else
-			arguments.add("");
-		writers[FileNames.COMMENT.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
+		    writer.add(comment.gif());
+		writer.add(comment.content().length());
+		if (comment.richRdf()) {
+			writer.add(comment.isPublic() != null ? comment.isPublic().toString() : "");
+			writer.add(comment.link() != null ? comment.link() : "");
+		}
+		writer.endEntry();
+
 		if (comment.replyOf() == comment.postId()) {
-			arguments.add(Long.toString(comment.messageId()));
-			arguments.add(Long.toString(comment.postId()));
-			writers[FileNames.COMMENT_REPLYOF_POST.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.COMMENT_REPLYOF_POST.ordinal()].add(comment.messageId()).add(comment.postId()).endEntry();
 		} else {
-			arguments.add(Long.toString(comment.messageId()));
-			arguments.add(Long.toString(comment.replyOf()));
-			writers[FileNames.COMMENT_REPLYOF_COMMENT.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.COMMENT_REPLYOF_COMMENT.ordinal()].add(comment.messageId()).add(comment.replyOf()).endEntry();
 		}
 		if (!comment.richRdf() || comment.countryKnown()) {
-		    arguments.add(Long.toString(comment.messageId()));
-		    arguments.add(Integer.toString(comment.countryId()));
-		    writers[FileNames.COMMENT_ISLOCATEDIN_PLACE.ordinal()].writeEntry(arguments);
-		    arguments.clear();
+			writers[FileNames.COMMENT_ISLOCATEDIN_PLACE.ordinal()].add(comment.messageId()).add(comment.countryId()).endEntry();
 		}
-		
-		arguments.add(Long.toString(comment.messageId()));
-		arguments.add(Long.toString(comment.author().accountId()));
-		writers[FileNames.COMMENT_HASCREATOR_PERSON.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
+
+		writers[FileNames.COMMENT_HASCREATOR_PERSON.ordinal()].add(comment.messageId()).add(comment.author().accountId()).endEntry();
+
 		for( Integer t : comment.tags() ) {
-			arguments.add(Long.toString(comment.messageId()));
-			arguments.add(Integer.toString(t));
-			writers[FileNames.COMMENT_HASTAG_TAG.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.COMMENT_HASTAG_TAG.ordinal()].add(comment.messageId()).add(t).endEntry();
 		}
 
 		if (comment.richRdf())
 		    for( Long t : comment.mentioned() ) {
-			arguments.add(Long.toString(comment.messageId()));
-			arguments.add(Long.toString(t));
-			writers[FileNames.COMMENT_HASMENTIONED_PERSON.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.COMMENT_HASMENTIONED_PERSON.ordinal()].add(comment.messageId()).add(t).endEntry();
 		    }
 	}
-	
+
 	protected void serialize(final  Photo photo ) {
-		
-		arguments.add(Long.toString(photo.messageId()));
-		arguments.add(photo.content());
-		arguments.add(Dictionaries.dates.formatDateTime(photo.creationDate()));
-		arguments.add(photo.ipAddress().toString());
-		arguments.add(Dictionaries.browsers.getName(photo.browserId()));
-		arguments.add(empty);
-		arguments.add(empty);
-		arguments.add(Integer.toString(0));
+		HDFSCSVWriter writer = writers[FileNames.POST.ordinal()];
+		writer.add(photo.messageId())
+			.add(photo.content())
+			.addDateTime(photo.creationDate())
+			.add(photo.ipAddress().toString())
+			.add(Dictionaries.browsers.getName(photo.browserId()))
+			.add(empty)
+			.add(empty)
+			.add(0);
 		if (photo.richRdf())
-		    if (photo.isPublic() != null)
-			arguments.add(photo.isPublic().toString());
-		    else
-			arguments.add("");
-		writers[FileNames.POST.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
+			writer.add(photo.isPublic() != null ? photo.isPublic().toString() : "");
+		writer.endEntry();
+
 		if (!photo.richRdf() || photo.countryKnown()) {
-		    arguments.add(Long.toString(photo.messageId()));
-		    arguments.add(Integer.toString(photo.countryId()));
-		    writers[FileNames.POST_ISLOCATEDIN_PLACE.ordinal()].writeEntry(arguments);
-		    arguments.clear();
+			writers[FileNames.POST_ISLOCATEDIN_PLACE.ordinal()].add(photo.messageId()).add(photo.countryId()).endEntry();
 		}
-		
-		arguments.add(Long.toString(photo.messageId()));
-		arguments.add(Long.toString(photo.author().accountId()));
-		writers[FileNames.POST_HASCREATOR_PERSON.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
-		
-		arguments.add(Long.toString(photo.forumId()));
-		arguments.add(Long.toString(photo.messageId()));
-		writers[FileNames.FORUM_CONTAINEROF_POST.ordinal()].writeEntry(arguments);
-		arguments.clear();
-		
+
+		writers[FileNames.POST_HASCREATOR_PERSON.ordinal()].add(photo.messageId()).add(photo.author().accountId()).endEntry();
+
+		writers[FileNames.FORUM_CONTAINEROF_POST.ordinal()].add(photo.forumId()).add(photo.messageId()).endEntry();
+
 		for( Integer t : photo.tags() ) {
-			arguments.add(Long.toString(photo.messageId()));
-			arguments.add(Integer.toString(t));
-			writers[FileNames.POST_HASTAG_TAG.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.POST_HASTAG_TAG.ordinal()].add(photo.messageId()).add(t).endEntry();
 		}
 
 		if (photo.richRdf())
 		    for( Long t : photo.mentioned() ) {
-			arguments.add(Long.toString(photo.messageId()));
-			arguments.add(Long.toString(t));
-			writers[FileNames.POST_HASMENTIONED_PERSON.ordinal()].writeEntry(arguments);
-			arguments.clear();
+			writers[FileNames.POST_HASMENTIONED_PERSON.ordinal()].add(photo.messageId()).add(t).endEntry();
 		    }
 	}
-	
+
 	protected void serialize(final  ForumMembership membership ) {
-		arguments.add(Long.toString(membership.forumId()));
-		arguments.add(Long.toString(membership.person().accountId()));
-		arguments.add(Dictionaries.dates.formatDateTime(membership.creationDate()));
-		writers[FileNames.FORUM_HASMEMBER_PERSON.ordinal()].writeEntry(arguments);
-		arguments.clear();
+		writers[FileNames.FORUM_HASMEMBER_PERSON.ordinal()]
+			.add(membership.forumId())
+			.add(membership.person().accountId())
+			.addDateTime(membership.creationDate())
+			.endEntry();
 	}
-	
+
 	protected void serialize( final Like like ) {
-		arguments.add(Long.toString(like.user));
-		arguments.add(Long.toString(like.messageId));
-		arguments.add(Dictionaries.dates.formatDateTime(like.date));
-		if( like.type == Like.LikeType.POST || like.type == Like.LikeType.PHOTO ) {
-			writers[FileNames.PERSON_LIKES_POST.ordinal()].writeEntry(arguments);
-			arguments.clear();
-		} else {
-			writers[FileNames.PERSON_LIKES_COMMENT.ordinal()].writeEntry(arguments);
-			arguments.clear();
-		}
+		FileNames file = like.type == Like.LikeType.POST || like.type == Like.LikeType.PHOTO ? FileNames.PERSON_LIKES_POST : FileNames.PERSON_LIKES_COMMENT;
+		writers[file.ordinal()].add(like.user).add(like.messageId).addDateTime(like.date).endEntry();
 	}
 
 	public void reset() {
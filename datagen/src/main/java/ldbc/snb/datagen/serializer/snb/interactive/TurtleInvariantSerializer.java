@@ -5,21 +5,17 @@ import ldbc.snb.datagen.objects.Organization;
 import ldbc.snb.datagen.objects.Place;
 import ldbc.snb.datagen.objects.Tag;
 import ldbc.snb.datagen.objects.TagClass;
-import ldbc.snb.datagen.serializer.HDFSCSVWriter;
-import ldbc.snb.datagen.serializer.HDFSWriter;
 import ldbc.snb.datagen.serializer.InvariantSerializer;
-import ldbc.snb.datagen.serializer.Turtle;
+import ldbc.snb.datagen.serializer.RdfWriter;
 import ldbc.snb.datagen.vocabulary.*;
 import org.apache.hadoop.conf.Configuration;
 
-import java.util.ArrayList;
-
 /**
  * Created by aprat on 12/17/14.
  */
 public class TurtleInvariantSerializer extends InvariantSerializer {
 
-    private HDFSWriter[] writers;
+    private RdfWriter[] writers;
 
     private enum FileNames {
         SOCIAL_NETWORK ("social_network_static");
@@ -36,11 +32,9 @@ public class TurtleInvariantSerializer extends InvariantSerializer {
     public void initialize(Configuration conf, int reducerId) {
 
         int numFiles = FileNames.values().length;
-        writers = new HDFSWriter[numFiles];
+        writers = new RdfWriter[numFiles];
         for( int i = 0; i < numFiles; ++i) {
-            writers[i] = new HDFSWriter(conf.get("ldbc.snb.datagen.serializer.socialNetworkDir"), FileNames.values()[i].toString()+"_"+reducerId,conf.getInt("ldbc.snb.datagen.numPartitions",1),conf.getBoolean("ldbc.snb.datagen.serializer.compressed",false),"ttl");
-            writers[i].writeAllPartitions(Turtle.getNamespaces());
-            writers[i].writeAllPartitions(Turtle.getStaticNamespaces());
+            writers[i] = RdfWriter.create(conf, FileNames.values()[i].toString()+"_"+reducerId);
         }
     }
 
@@ -52,7 +46,7 @@ public class TurtleInvariantSerializer extends InvariantSerializer {
     }
 
     protected void serialize(final Place place) {
-        StringBuffer result = new StringBuffer(350);
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
         String name = place.getName();
         String type = DBPOWL.City;
         if (place.getType() == Place.COUNTRY) {
@@ -61,73 +55,62 @@ public class TurtleInvariantSerializer extends InvariantSerializer {
             type = DBPOWL.Continent;
         }
 
-        Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], DBP.fullPrefixed(name), RDF.type, DBPOWL.Place);
-        Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], DBP.fullPrefixed(name), RDF.type, type);
-        Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], DBP.fullPrefixed(name), FOAF.Name, Turtle.createLiteral(name));
-        Turtle.createTripleSPO(result, DBP.fullPrefixed(name), SNVOC.id, 
-		Turtle.createDataTypeLiteral(Long.toString(place.getId()), XSD.Int));
+        String uri = DBP.fullPrefixed(name);
+        writer.statement(uri).predicate(RDF.type).iri(DBPOWL.Place).end();
+        writer.statement(uri).predicate(RDF.type).iri(type).end();
+        writer.statement(uri).predicate(FOAF.Name).literal(name).end();
         if (place.getType() != Place.CONTINENT) {
+            writer.statement(uri).predicate(SNVOC.id).typed(place.getId(), XSD.Int).end();
             String countryName = Dictionaries.places.getPlaceName(Dictionaries.places.belongsTo(place.getId()));
-            Turtle.createTripleSPO(result, DBP.fullPrefixed(name), SNVOC.isPartOf, DBP.fullPrefixed(countryName));
-            writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+            writer.statement(uri).predicate(SNVOC.isPartOf).iri(DBP.NAMESPACE, countryName).end();
         }
+        writer.endEntry();
     }
 
     protected void serialize(final Organization organization) {
-        StringBuffer result = new StringBuffer(19000);
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+        IriPrefix prefix = SN.UNIVERSITY;
+        String type = DBPOWL.University;
         if( organization.type == Organization.OrganisationType.company ) {
-            Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], SN.getCompURI(organization.id), RDF.type, DBPOWL.Company);
-	    Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], SN.getCompURI(organization.id), SNVOC.url, DBP.fullPrefixed(organization.name));
-            Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], SN.getCompURI(organization.id), FOAF.Name,
-                Turtle.createLiteral(organization.name));
-            Turtle.createTripleSPO(result, SN.getCompURI(organization.id),
-                SNVOC.locatedIn, DBP.fullPrefixed(Dictionaries.places.getPlaceName(organization.location)));
-            Turtle.createTripleSPO(result, SN.getCompURI(organization.id), SNVOC.id, 
-		Turtle.createDataTypeLiteral(Long.toString(organization.id), XSD.Int));
-        } else {
-            Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], SN.getUnivURI(organization.id), RDF.type, DBPOWL.University);
-	    Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], SN.getUnivURI(organization.id), SNVOC.url, DBP.fullPrefixed(organization.name));
-            Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()], SN.getUnivURI(organization.id), FOAF.Name,
-                Turtle.createLiteral(organization.name));
-            Turtle.createTripleSPO(result, SN.getUnivURI(organization.id),
-                SNVOC.locatedIn, DBP.fullPrefixed(Dictionaries.places.getPlaceName(organization.location)));
-            Turtle.createTripleSPO(result, SN.getUnivURI(organization.id), SNVOC.id, 
-		Turtle.createDataTypeLiteral(Long.toString(organization.id), XSD.Int));
+            prefix = SN.COMPANY;
+            type = DBPOWL.Company;
         }
-
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        writer.statement(prefix, organization.id).predicate(RDF.type).iri(type).end();
+        writer.statement(prefix, organization.id).predicate(SNVOC.url).iri(DBP.NAMESPACE, organization.name).end();
+        writer.statement(prefix, organization.id).predicate(FOAF.Name).literal(organization.name).end();
+        writer.statement(prefix, organization.id).predicate(SNVOC.locatedIn)
+                .iri(DBP.NAMESPACE, Dictionaries.places.getPlaceName(organization.location)).end();
+        writer.statement(prefix, organization.id).predicate(SNVOC.id).typed(organization.id, XSD.Int).end();
+        writer.endEntry();
     }
 
     protected void serialize(final TagClass tagClass) {
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+        writer.statement(SN.TAG_CLASS, tagClass.id).predicate(RDFS.label).literal(Dictionaries.tags.getClassName(tagClass.id)).end();
+        writer.statement(SN.TAG_CLASS, tagClass.id).predicate(RDF.type).iri(SNVOC.TagClass).end();
 
-        StringBuffer result = new StringBuffer(350);
-        Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()],SN.getTagClassURI(tagClass.id), RDFS.label, Turtle.createLiteral(Dictionaries.tags.getClassName(tagClass.id)));
-        Turtle.createTripleSPO(result, SN.getTagClassURI(tagClass.id), RDF.type, SNVOC.TagClass);
-
+        writer.statement(SN.TAG_CLASS, tagClass.id).predicate(SNVOC.url);
         if (tagClass.name.equals("Thing")) {
-            Turtle.createTripleSPO(result, SN.getTagClassURI(tagClass.id), SNVOC.url, "<http://www.w3.org/2002/07/owl#Thing>");	
-	} else {
-            Turtle.createTripleSPO(result, SN.getTagClassURI(tagClass.id), SNVOC.url, DBPOWL.prefixed(Dictionaries.tags.getClassName(tagClass.id)));	
-	}
+            writer.iri("<http://www.w3.org/2002/07/owl#Thing>").end();
+        } else {
+            writer.iri(DBPOWL.prefixed(Dictionaries.tags.getClassName(tagClass.id))).end();
+        }
 
-        Turtle.createTripleSPO(result, SN.getTagClassURI(tagClass.id), SNVOC.id, 
-				Turtle.createDataTypeLiteral(Long.toString(tagClass.id), XSD.Int));
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        writer.statement(SN.TAG_CLASS, tagClass.id).predicate(SNVOC.id).typed(tagClass.id, XSD.Int).end();
 
         Integer parent = Dictionaries.tags.getClassParent(tagClass.id);
         if (parent != -1) {
-            Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()],SN.getTagClassURI(tagClass.id), RDFS.subClassOf, SN.getTagClassURI(parent));
+            writer.statement(SN.TAG_CLASS, tagClass.id).predicate(RDFS.subClassOf).iri(SN.TAG_CLASS, parent).end();
         }
+        writer.endEntry();
     }
 
     protected void serialize(final Tag tag) {
-        StringBuffer result = new StringBuffer(350);
-        Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()],SNTAG.fullPrefixed(tag.name), FOAF.Name, Turtle.createLiteral(tag.name));
-        Integer tagClass = tag.tagClass;
-        Turtle.writeDBPData(writers[FileNames.SOCIAL_NETWORK.ordinal()],SNTAG.fullPrefixed(tag.name), RDF.type, SN.getTagClassURI(tagClass));
-        Turtle.createTripleSPO(result, SNTAG.fullPrefixed(tag.name), SNVOC.id, 
-				Turtle.createDataTypeLiteral(Long.toString(tag.id), XSD.Int));
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+        writer.statement(SNTAG.fullPrefixed(tag.name)).predicate(FOAF.Name).literal(tag.name).end();
+        writer.statement(SNTAG.fullPrefixed(tag.name)).predicate(RDF.type).iri(SN.TAG_CLASS, tag.tagClass).end();
+        writer.statement(SNTAG.fullPrefixed(tag.name)).predicate(SNVOC.id).typed(tag.id, XSD.Int).end();
+        writer.endEntry();
     }
     public void reset() {
 
@@ -7,25 +7,20 @@ package ldbc.snb.datagen.serializer.snb.interactive;
 
 import ldbc.snb.datagen.dictionary.Dictionaries;
 import ldbc.snb.datagen.objects.*;
-import ldbc.snb.datagen.serializer.HDFSWriter;
 import ldbc.snb.datagen.serializer.PersonActivitySerializer;
-import ldbc.snb.datagen.serializer.Turtle;
+import ldbc.snb.datagen.serializer.RdfWriter;
 import ldbc.snb.datagen.vocabulary.*;
 import org.apache.hadoop.conf.Configuration;
 
-import java.text.SimpleDateFormat;
-
 
 /**
  *
  * @author aprat
  */
 public class TurtlePersonActivitySerializer extends PersonActivitySerializer {
-	private HDFSWriter[] writers;
-	private String empty="";
+	private RdfWriter[] writers;
 	private long membershipId = 0;
 	private long likeId       = 0;
-	private SimpleDateFormat dateTimeFormat = null;
 
 	private enum FileNames {
 		SOCIAL_NETWORK ("social_network_activity");
@@ -46,13 +41,10 @@ public class TurtlePersonActivitySerializer extends PersonActivitySerializer {
 	@Override
 	public void initialize(Configuration conf, int reducerId) {
 
-		dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
 		int numFiles = FileNames.values().length;
-		writers = new HDFSWriter[numFiles];
+		writers = new RdfWriter[numFiles];
 		for( int i = 0; i < numFiles; ++i) {
-			writers[i] = new HDFSWriter(conf.get("ldbc.snb.datagen.serializer.socialNetworkDir"), FileNames.values()[i].toString()+"_"+reducerId,conf.getInt("ldbc.snb.datagen.numPartitions",1),conf.getBoolean("ldbc.snb.datagen.serializer.compressed",false),"ttl");
-			writers[i].writeAllPartitions(Turtle.getNamespaces());
-			writers[i].writeAllPartitions(Turtle.getStaticNamespaces());
+			writers[i] = RdfWriter.create(conf, FileNames.values()[i].toString()+"_"+reducerId);
 		}
 	}
 	
@@ -65,207 +57,145 @@ public class TurtlePersonActivitySerializer extends PersonActivitySerializer {
 	}
 	
 	protected void serialize(final  Forum forum ) {
+		RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+		writer.subject(SN.FORUM, forum.id())
+				.predicate(RDF.type).iri(SNVOC.Forum)
+				.predicate(SNVOC.id).typed(forum.id(), XSD.Long)
+				.predicate(SNVOC.title).literal(forum.title())
+				.predicate(SNVOC.creationDate).dateTime(forum.creationDate())
+				.end();
 
-		StringBuffer result = new StringBuffer(12000);
-
-		String forumPrefix = SN.getForumURI(forum.id());
-		Turtle.AddTriple(result, true, false, forumPrefix, RDF.type, SNVOC.Forum);
-
-		Turtle.AddTriple(result, false, false, forumPrefix, SNVOC.id,
-				Turtle.createDataTypeLiteral(Long.toString(forum.id()), XSD.Long));
-
-		Turtle.AddTriple(result, false, false, forumPrefix, SNVOC.title,
-				Turtle.createLiteral(forum.title()));
-		Turtle.AddTriple(result, false, true, forumPrefix, SNVOC.creationDate,
-				Turtle.createDataTypeLiteral(dateTimeFormat.format(forum.creationDate()), XSD.DateTime));
-
-		Turtle.createTripleSPO(result, forumPrefix,
-				SNVOC.hasModerator, SN.getPersonURI(forum.moderator().accountId()));
+		writer.statement(SN.FORUM, forum.id()).predicate(SNVOC.hasModerator).iri(SN.PERSON, forum.moderator().accountId()).end();
 
 		for(Integer tag : forum.tags()) {
-			String topic = Dictionaries.tags.getName(tag);
-			Turtle.createTripleSPO(result, forumPrefix, SNVOC.hasTag, SNTAG.fullPrefixed(topic));
+			writer.statement(SN.FORUM, forum.id()).predicate(SNVOC.hasTag).iri(SNTAG.NAMESPACE, Dictionaries.tags.getName(tag)).end();
 		}
-		writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+		writer.endEntry();
 	}
-	
-	protected void serialize( final Post post ) {
-
-		StringBuffer result = new StringBuffer(2500);
-
-		String prefix = SN.getPostURI(post.messageId());
-
-		Turtle.AddTriple(result, true, false, prefix, RDF.type, SNVOC.Post);
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.id,
-				Turtle.createDataTypeLiteral(Long.toString(post.messageId()), XSD.Long));
 
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.creationDate,
-				Turtle.createDataTypeLiteral(dateTimeFormat.format(post.creationDate()), XSD.DateTime));
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.ipaddress,
-					Turtle.createLiteral(post.ipAddress().toString()));
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.browser,
-				Turtle.createLiteral(Dictionaries.browsers.getName(post.browserId())));
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.content,
-					Turtle.createLiteral(post.content()));
-		Turtle.AddTriple(result, false, true, prefix, SNVOC.length,
-				Turtle.createDataTypeLiteral(Integer.toString(post.content().length()), XSD.Int));
-
-		Turtle.createTripleSPO(result, prefix, SNVOC.language,
-				Turtle.createLiteral(Dictionaries.languages.getLanguageName(post.language())));
-
-		if (!post.richRdf() || post.countryKnown()) {
-		    Turtle.createTripleSPO(result, prefix, SNVOC.locatedIn,
-					   DBP.fullPrefixed(Dictionaries.places.getPlaceName(post.countryId())));
+	/**
+	 * Writes the triples common to posts, comments and photos, that follow the message own group
+	 */
+	private void serializeMessageRelations(RdfWriter writer, IriPrefix prefix, final Message message) {
+		long id = message.messageId();
+		if (message.richRdf()) {
+		    if (message.mentioned() != null)
+			for( Long x : message.mentioned())
+			    writer.statement(prefix, id).predicate(SNVOC.hasMentioned).iri(SN.PERSON, x).end();
+		    if (message.isPublic() != null)
+			writer.statement(prefix, id).predicate(SNVOC.hasVisibility).typed(message.isPublic().toString(), XSD.Boolean).end();
+		    if (message.link() != null)
+			writer.statement(prefix, id).predicate(SNVOC.hasLink).literal(message.link()).end();
 		}
 
-		Turtle.createTripleSPO(result, SN.getForumURI(post.forumId()), SNVOC.containerOf, prefix);
-		Turtle.createTripleSPO(result, prefix, SNVOC.hasCreator, SN.getPersonURI(post.author().accountId()));
-
-		if (post.richRdf()) {
-		    if (post.mentioned() != null)
-			for( Long x : post.mentioned())
-			    Turtle.createTripleSPO(result, prefix, SNVOC.hasMentioned, SN.getPersonURI(x));
-		    if (post.isPublic() != null)
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasVisibility, Turtle.createDataTypeLiteral(post.isPublic().toString(), XSD.Boolean));
-		    if (post.link() != null)
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasLink, Turtle.createLiteral(post.link()));
+		for( Integer tag : message.tags()) {
+			writer.statement(prefix, id).predicate(SNVOC.hasTag).iri(SNTAG.NAMESPACE, Dictionaries.tags.getName(tag)).end();
 		}
-		
-		for( Integer tag : post.tags()) {
-			String topic = Dictionaries.tags.getName(tag);
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasTag, SNTAG.fullPrefixed(topic));
+	}
+
+	private void serializeLocation(RdfWriter writer, IriPrefix prefix, final Message message) {
+		if (!message.richRdf() || message.countryKnown()) {
+		    writer.statement(prefix, message.messageId()).predicate(SNVOC.locatedIn)
+					.iri(DBP.NAMESPACE, Dictionaries.places.getPlaceName(message.countryId())).end();
 		}
-		writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+	}
+	
+	protected void serialize( final Post post ) {
+		RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+		long id = post.messageId();
+		writer.subject(SN.POST, id)
+				.predicate(RDF.type).iri(SNVOC.Post)
+				.predicate(SNVOC.id).typed(id, XSD.Long)
+				.predicate(SNVOC.creationDate).dateTime(post.creationDate())
+				.predicate(SNVOC.ipaddress).literal(post.ipAddress().toString())
+				.predicate(SNVOC.browser).literal(Dictionaries.browsers.getName(post.browserId()))
+				.predicate(SNVOC.content).literal(post.content())
+				.predicate(SNVOC.length).typed(post.content().length(), XSD.Int)
+				.end();
+
+		writer.statement(SN.POST, id).predicate(SNVOC.language)
+				.literal(Dictionaries.languages.getLanguageName(post.language())).end();
+		serializeLocation(writer, SN.POST, post);
+		writer.statement(SN.FORUM, post.forumId()).predicate(SNVOC.containerOf).iri(SN.POST, id).end();
+		writer.statement(SN.POST, id).predicate(SNVOC.hasCreator).iri(SN.PERSON, post.author().accountId()).end();
+		serializeMessageRelations(writer, SN.POST, post);
+		writer.endEntry();
 	}
 	
 	protected void serialize(final  Comment comment ) {
-		StringBuffer result = new StringBuffer(2000);
-
-		String prefix = SN.getCommentURI(comment.messageId());
-
-		Turtle.AddTriple(result, true, false, prefix, RDF.type, SNVOC.Comment);
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.id,
-				Turtle.createDataTypeLiteral(Long.toString(comment.messageId()), XSD.Long));
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.creationDate,
-				Turtle.createDataTypeLiteral(dateTimeFormat.format(comment.creationDate()), XSD.DateTime));
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.ipaddress,
-				Turtle.createLiteral(comment.ipAddress().toString()));
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.browser,
-				Turtle.createLiteral(Dictionaries.browsers.getName(comment.browserId())));
+		RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+		long id = comment.messageId();
+		writer.subject(SN.COMMENT, id)
+				.predicate(RDF.type).iri(SNVOC.Comment)
+				.predicate(SNVOC.id).typed(id, XSD.Long)
+				.predicate(SNVOC.creationDate).dateTime(comment.creationDate())
+				.predicate(SNVOC.ipaddress).literal(comment.ipAddress().toString())
+				.predicate(SNVOC.browser).literal(Dictionaries.browsers.getName(comment.browserId()));
 		if (comment.richRdf() && comment.content().equals("")) {
-		    Turtle.AddTriple(result, false, true, prefix, SNVOC.hasGif,
-				     Turtle.createLiteral(comment.gif()));
+		    writer.predicate(SNVOC.hasGif).literal(comment.gif());
 		}
 		else {
-		    Turtle.AddTriple(result, false, false, prefix, SNVOC.content,
-				     Turtle.createLiteral(comment.content()));
-		    Turtle.AddTriple(result, false, true, prefix, SNVOC.length,
-				     Turtle.createDataTypeLiteral(Integer.toString(comment.content().length()), XSD.Int));
-		}
-
-		String replied = (comment.replyOf() == comment.postId()) ? SN.getPostURI(comment.postId()) :
-				SN.getCommentURI(comment.replyOf());
-		Turtle.createTripleSPO(result, prefix, SNVOC.replyOf, replied);
-		if (!comment.richRdf() || comment.countryKnown()) {
-		    Turtle.createTripleSPO(result, prefix, SNVOC.locatedIn,
-					   DBP.fullPrefixed(Dictionaries.places.getPlaceName(comment.countryId())));
+		    writer.predicate(SNVOC.content).literal(comment.content())
+					.predicate(SNVOC.length).typed(comment.content().length(), XSD.Int);
 		}
+		writer.end();
 
-		Turtle.createTripleSPO(result, prefix, SNVOC.hasCreator,
-				SN.getPersonURI(comment.author().accountId()));
-
-		if (comment.richRdf()) {
-		    if (comment.mentioned() != null)
-			for( Long x : comment.mentioned())
-			    Turtle.createTripleSPO(result, prefix, SNVOC.hasMentioned, SN.getPersonURI(x));
-		    if (comment.isPublic() != null)
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasVisibility, Turtle.createDataTypeLiteral(comment.isPublic().toString(), XSD.Boolean));
-		    if (comment.link() != null)
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasLink, Turtle.createLiteral(comment.link()));
-		}
-
-		for( Integer tag : comment.tags()) {
-			String topic = Dictionaries.tags.getName(tag);
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasTag, SNTAG.fullPrefixed(topic));
+		writer.statement(SN.COMMENT, id).predicate(SNVOC.replyOf);
+		if (comment.replyOf() == comment.postId()) {
+			writer.iri(SN.POST, comment.postId()).end();
+		} else {
+			writer.iri(SN.COMMENT, comment.replyOf()).end();
 		}
-		writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+		serializeLocation(writer, SN.COMMENT, comment);
+		writer.statement(SN.COMMENT, id).predicate(SNVOC.hasCreator).iri(SN.PERSON, comment.author().accountId()).end();
+		serializeMessageRelations(writer, SN.COMMENT, comment);
+		writer.endEntry();
 	}
 	
 	protected void serialize(final  Photo photo ) {
-		StringBuffer result = new StringBuffer(2500);
-
-		String prefix = SN.getPostURI(photo.messageId());
-		Turtle.AddTriple(result, true, false, prefix, RDF.type, SNVOC.Post);
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.id,
-				Turtle.createDataTypeLiteral(Long.toString(photo.messageId()), XSD.Long));
-
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.hasImage, Turtle.createLiteral(photo.content()));
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.ipaddress,
-				Turtle.createLiteral(photo.ipAddress().toString()));
-		Turtle.AddTriple(result, false, false, prefix, SNVOC.browser,
-				Turtle.createLiteral(Dictionaries.browsers.getName(photo.browserId())));
-		Turtle.AddTriple(result, false, true, prefix, SNVOC.creationDate,
-				Turtle.createDataTypeLiteral(dateTimeFormat.format(photo.creationDate()), XSD.DateTime));
-
-		Turtle.createTripleSPO(result, prefix, SNVOC.hasCreator, SN.getPersonURI(photo.author().accountId()));
-		Turtle.createTripleSPO(result, SN.getForumURI(photo.forumId()), SNVOC.containerOf, prefix);
-		if (!photo.richRdf() || photo.countryKnown()) {
-		    Turtle.createTripleSPO(result, prefix, SNVOC.locatedIn,
-					   DBP.fullPrefixed(Dictionaries.places.getPlaceName(photo.countryId())));
-		}
-
-		if (photo.richRdf()) {
-		    if (photo.mentioned() != null)
-			for( Long x : photo.mentioned())
-			    Turtle.createTripleSPO(result, prefix, SNVOC.hasMentioned, SN.getPersonURI(x));
-		    if (photo.isPublic() != null)
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasVisibility, Turtle.createDataTypeLiteral(photo.isPublic().toString(), XSD.Boolean));
-		}
-
-		for( Integer tag: photo.tags()) {
-			String topic = Dictionaries.tags.getName(tag);
-			Turtle.createTripleSPO(result, prefix, SNVOC.hasTag, SNTAG.fullPrefixed(topic));
-		}
-		writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+		RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+		long id = photo.messageId();
+		writer.subject(SN.POST, id)
+				.predicate(RDF.type).iri(SNVOC.Post)
+				.predicate(SNVOC.id).typed(id, XSD.Long)
+				.predicate(SNVOC.hasImage).literal(photo.content())
+				.predicate(SNVOC.ipaddress).literal(photo.ipAddress().toString())
+				.predicate(SNVOC.browser).literal(Dictionaries.browsers.getName(photo.browserId()))
+				.predicate(SNVOC.creationDate).dateTime(photo.creationDate())
+				.end();
+
+		writer.statement(SN.POST, id).predicate(SNVOC.hasCreator).iri(SN.PERSON, photo.author().accountId()).end();
+		writer.statement(SN.FORUM, photo.forumId()).predicate(SNVOC.containerOf).iri(SN.POST, id).end();
+		serializeLocation(writer, SN.POST, photo);
+		serializeMessageRelations(writer, SN.POST, photo);
+		writer.endEntry();
 	}
 	
 	protected void serialize( final ForumMembership membership ) {
-		String memberhipPrefix = SN.getMembershipURI(SN.formId(membershipId));
-		String forumPrefix = SN.getForumURI(membership.forumId());
-		StringBuffer result = new StringBuffer(19000);
-		Turtle.createTripleSPO(result, forumPrefix, SNVOC.hasMember, memberhipPrefix);
-
-		Turtle.AddTriple(result, true, false, memberhipPrefix, SNVOC.hasPerson, SN.getPersonURI(membership.person().accountId()));
-		Turtle.AddTriple(result, false, true, memberhipPrefix, SNVOC.joinDate,
-				Turtle.createDataTypeLiteral(dateTimeFormat.format(membership.creationDate()), XSD.DateTime));
+		RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+		long id = SN.formId(membershipId);
+		writer.statement(SN.FORUM, membership.forumId()).predicate(SNVOC.hasMember).iri(SN.MEMBERSHIP, id).end();
+		writer.subject(SN.MEMBERSHIP, id)
+				.predicate(SNVOC.hasPerson).iri(SN.PERSON, membership.person().accountId())
+				.predicate(SNVOC.joinDate).dateTime(membership.creationDate())
+				.end();
 		membershipId++;
-		writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+		writer.endEntry();
 	}
 	
 	protected void serialize( final Like like ) {
-		StringBuffer result = new StringBuffer(2500);
+		RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
 		long id = SN.formId(likeId);
-		String likePrefix = SN.getLikeURI(id);
-		Turtle.createTripleSPO(result, SN.getPersonURI(like.user),
-				SNVOC.like, likePrefix);
-
+		writer.statement(SN.PERSON, like.user).predicate(SNVOC.like).iri(SN.LIKE, id).end();
+		writer.subject(SN.LIKE, id);
 		if( like.type == Like.LikeType.POST || like.type == Like.LikeType.PHOTO ) {
-			String prefix = SN.getPostURI(like.messageId);
-			Turtle.AddTriple(result, true, false, likePrefix, SNVOC.hasPost, prefix);
+			writer.predicate(SNVOC.hasPost).iri(SN.POST, like.messageId);
 		} else {
-			String prefix = SN.getCommentURI(like.messageId);
-			Turtle.AddTriple(result, true, false, likePrefix, SNVOC.hasComment, prefix);
+			writer.predicate(SNVOC.hasComment).iri(SN.COMMENT, like.messageId);
 		}
-		Turtle.AddTriple(result, false, true, likePrefix, SNVOC.creationDate,
-				Turtle.createDataTypeLiteral(dateTimeFormat.format(like.date), XSD.DateTime));
+		writer.predicate(SNVOC.creationDate).dateTime(like.date).end();
 		likeId++;
-		writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+		writer.endEntry();
 	}
 
 	public void reset() {
@@ -43,23 +43,18 @@ import ldbc.snb.datagen.objects.Knows;
 import ldbc.snb.datagen.objects.Person;
 import ldbc.snb.datagen.objects.StudyAt;
 import ldbc.snb.datagen.objects.WorkAt;
-import ldbc.snb.datagen.serializer.HDFSWriter;
 import ldbc.snb.datagen.serializer.PersonSerializer;
-import ldbc.snb.datagen.serializer.Turtle;
+import ldbc.snb.datagen.serializer.RdfWriter;
 import ldbc.snb.datagen.vocabulary.*;
 import org.apache.hadoop.conf.Configuration;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 
 public class TurtlePersonSerializer extends PersonSerializer {
 
-    private HDFSWriter [] writers;
+    private RdfWriter [] writers;
 	private long workAtId     = 0;
 	private long studyAtId    = 0;
     private long knowsId      = 0;
-    private SimpleDateFormat dateTimeFormat = null;
 
 
     private enum FileNames {
@@ -79,13 +74,10 @@ public class TurtlePersonSerializer extends PersonSerializer {
     }
 
     public void initialize(Configuration conf, int reducerId) {
-        dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
         int numFiles = FileNames.values().length;
-        writers = new HDFSWriter[numFiles];
+        writers = new RdfWriter[numFiles];
         for( int i = 0; i < numFiles; ++i) {
-            writers[i] = new HDFSWriter(conf.get("ldbc.snb.datagen.serializer.socialNetworkDir"), FileNames.values()[i].toString()+"_"+reducerId,conf.getInt("ldbc.snb.datagen.numPartitions",1),conf.getBoolean("ldbc.snb.datagen.serializer.compressed",false),"ttl");
-            writers[i].writeAllPartitions(Turtle.getNamespaces());
-            writers[i].writeAllPartitions(Turtle.getStaticNamespaces());
+            writers[i] = RdfWriter.create(conf, FileNames.values()[i].toString()+"_"+reducerId);
         }
     }
 
@@ -99,106 +91,85 @@ public class TurtlePersonSerializer extends PersonSerializer {
 
     @Override
     protected void serialize(final Person p) {
-        StringBuffer result = new StringBuffer(19000);
-        String prefix = SN.getPersonURI(p.accountId());
-        Turtle.AddTriple(result, true, false, prefix, RDF.type, SNVOC.Person);
-        Turtle.AddTriple(result, false, false, prefix, SNVOC.id,
-                Turtle.createDataTypeLiteral(Long.toString(p.accountId()), XSD.Long));
-	if (!p.richRdf() || p.firstNameKnown())
-	    Turtle.AddTriple(result, false, false, prefix, SNVOC.firstName,
-			     Turtle.createLiteral(p.firstName()));
-	if (!p.richRdf() || p.lastNameKnown())
-	    Turtle.AddTriple(result, false, false, prefix, SNVOC.lastName,
-			     Turtle.createLiteral(p.lastName()));
-
-        if(p.gender() == 1) {
-            Turtle.AddTriple(result, false, false, prefix, SNVOC.gender,
-                    Turtle.createLiteral("male"));
-        } else {
-            Turtle.AddTriple(result, false, false, prefix, SNVOC.gender,
-                    Turtle.createLiteral("female"));
-        }
-	if (!p.richRdf() || p.birthDayKnown())
-	    Turtle.AddTriple(result, false, false, prefix, SNVOC.birthday,
-			     Turtle.createDataTypeLiteral(Dictionaries.dates.formatDate(p.birthDay()), XSD.Date));
-        Turtle.AddTriple(result, false, false, prefix, SNVOC.ipaddress,
-                    Turtle.createLiteral(p.ipAddress().toString()));
-        Turtle.AddTriple(result, false, false, prefix, SNVOC.browser,
-                        Turtle.createLiteral(Dictionaries.browsers.getName(p.browserId())));
-        Turtle.AddTriple(result, false, true, prefix, SNVOC.creationDate,
-                Turtle.createDataTypeLiteral(dateTimeFormat.format(p.creationDate()), XSD.DateTime));
-
-        Turtle.createTripleSPO(result, prefix, SNVOC.locatedIn, DBP.fullPrefixed(Dictionaries.places.getPlaceName(p.cityId())));
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+        writer.subject(SN.PERSON, p.accountId())
+                .predicate(RDF.type).iri(SNVOC.Person)
+                .predicate(SNVOC.id).typed(p.accountId(), XSD.Long);
+        if (!p.richRdf() || p.firstNameKnown())
+            writer.predicate(SNVOC.firstName).literal(p.firstName());
+        if (!p.richRdf() || p.lastNameKnown())
+            writer.predicate(SNVOC.lastName).literal(p.lastName());
+        writer.predicate(SNVOC.gender).literal(p.gender() == 1 ? "male" : "female");
+        if (!p.richRdf() || p.birthDayKnown())
+            writer.predicate(SNVOC.birthday).date(p.birthDay());
+        writer.predicate(SNVOC.ipaddress).literal(p.ipAddress().toString())
+                .predicate(SNVOC.browser).literal(Dictionaries.browsers.getName(p.browserId()))
+                .predicate(SNVOC.creationDate).dateTime(p.creationDate())
+                .end();
+
+        writer.statement(SN.PERSON, p.accountId()).predicate(SNVOC.locatedIn)
+                .iri(DBP.NAMESPACE, Dictionaries.places.getPlaceName(p.cityId())).end();
 
         for (Integer i : p.languages()) {
-            Turtle.createTripleSPO(result, prefix, SNVOC.speaks,
-                    Turtle.createLiteral(Dictionaries.languages.getLanguageName(i)));
+            writer.statement(SN.PERSON, p.accountId()).predicate(SNVOC.speaks)
+                    .literal(Dictionaries.languages.getLanguageName(i)).end();
         }
 
         for( String email : p.emails()) {
-            Turtle.createTripleSPO(result, prefix, SNVOC.email, Turtle.createLiteral(email));
+            writer.statement(SN.PERSON, p.accountId()).predicate(SNVOC.email).literal(email).end();
         }
 
         for(Integer tag : p.interests()) {
-            String interest = Dictionaries.tags.getName(tag);
-            Turtle.createTripleSPO(result, prefix, SNVOC.hasInterest, SNTAG.fullPrefixed(interest));
+            writer.statement(SN.PERSON, p.accountId()).predicate(SNVOC.hasInterest)
+                    .iri(SNTAG.NAMESPACE, Dictionaries.tags.getName(tag)).end();
         }
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        writer.endEntry();
     }
 
     @Override
     protected void serialize(final StudyAt studyAt) {
-        String prefix = SN.getPersonURI(studyAt.user);
-        StringBuffer result = new StringBuffer(19000);
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
         long id = SN.formId(studyAtId);
-        Turtle.createTripleSPO(result, prefix, SNVOC.studyAt, SN.getStudyAtURI(id));
-        Turtle.createTripleSPO(result, SN.getStudyAtURI(id), SNVOC.hasOrganisation,
-                SN.getUnivURI(studyAt.university));
-        String yearString = Dictionaries.dates.formatYear(studyAt.year);
-        Turtle.createTripleSPO(result, SN.getStudyAtURI(id), SNVOC.classYear,
-                Turtle.createDataTypeLiteral(yearString, XSD.Integer));
+        writer.statement(SN.PERSON, studyAt.user).predicate(SNVOC.studyAt).iri(SN.STUDY_AT, id).end();
+        writer.statement(SN.STUDY_AT, id).predicate(SNVOC.hasOrganisation).iri(SN.UNIVERSITY, studyAt.university).end();
+        writer.statement(SN.STUDY_AT, id).predicate(SNVOC.classYear)
+                .typed(Dictionaries.dates.getBirthYear(studyAt.year), XSD.Integer).end();
         studyAtId++;
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        writer.endEntry();
     }
 
     @Override
     protected void serialize(final WorkAt workAt) {
-        String prefix = SN.getPersonURI(workAt.user);
-        StringBuffer result = new StringBuffer(19000);
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
         long id = SN.formId(workAtId);
-        Turtle.createTripleSPO(result, prefix, SNVOC.workAt, SN.getWorkAtURI(id));
-        Turtle.createTripleSPO(result, SN.getWorkAtURI(id), SNVOC.hasOrganisation,
-                SN.getCompURI(workAt.company));
-        String yearString = Dictionaries.dates.formatYear(workAt.year);
-        Turtle.createTripleSPO(result, SN.getWorkAtURI(id), SNVOC.workFrom,
-                Turtle.createDataTypeLiteral(yearString, XSD.Integer));
+        writer.statement(SN.PERSON, workAt.user).predicate(SNVOC.workAt).iri(SN.WORK_AT, id).end();
+        writer.statement(SN.WORK_AT, id).predicate(SNVOC.hasOrganisation).iri(SN.COMPANY, workAt.company).end();
+        writer.statement(SN.WORK_AT, id).predicate(SNVOC.workFrom)
+                .typed(Dictionaries.dates.getBirthYear(workAt.year), XSD.Integer).end();
         workAtId++;
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        writer.endEntry();
     }
 
     @Override
     protected void serialize(final Person p, Knows knows) {
-        String prefix = SN.getPersonURI(p.accountId());
-        StringBuffer result = new StringBuffer(19000);
+        RdfWriter writer = writers[FileNames.SOCIAL_NETWORK.ordinal()];
+        long from = p.accountId();
+        long to = knows.to().accountId();
         long id = SN.formId(knowsId);
 
-        Turtle.createTripleSPO(result, prefix, SNVOC.knows, SN.getKnowsURI(id));
-        Turtle.createTripleSPO(result, SN.getKnowsURI(id), SNVOC.hasPerson,
-                SN.getPersonURI(knows.to().accountId()));
-        Turtle.createTripleSPO(result, SN.getKnowsURI(id), SNVOC.creationDate,
-                Turtle.createDataTypeLiteral(dateTimeFormat.format(knows.creationDate()), XSD.DateTime));
-	Turtle.createTripleSPO(result, prefix, SNVOC.knows, SN.getPersonURI(knows.to().accountId()));
-
-	knowsId++;
-	id = SN.formId(knowsId);
-	Turtle.createTripleSPO(result, SN.getPersonURI(knows.to().accountId()), SNVOC.knows, SN.getKnowsURI(id));
-        Turtle.createTripleSPO(result, SN.getKnowsURI(id), SNVOC.hasPerson,
-                prefix);
-        Turtle.createTripleSPO(result, SN.getKnowsURI(id), SNVOC.creationDate,
-                Turtle.createDataTypeLiteral(dateTimeFormat.format(knows.creationDate()), XSD.DateTime));
-	Turtle.createTripleSPO(result, SN.getPersonURI(knows.to().accountId()), SNVOC.knows, prefix);
-
-        writers[FileNames.SOCIAL_NETWORK.ordinal()].write(result.toString());
+        writer.statement(SN.PERSON, from).predicate(SNVOC.knows).iri(SN.KNOWS, id).end();
+        writer.statement(SN.KNOWS, id).predicate(SNVOC.hasPerson).iri(SN.PERSON, to).end();
+        writer.statement(SN.KNOWS, id).predicate(SNVOC.creationDate).dateTime(knows.creationDate()).end();
+        writer.statement(SN.PERSON, from).predicate(SNVOC.knows).iri(SN.PERSON, to).end();
+
+        knowsId++;
+        id = SN.formId(knowsId);
+        writer.statement(SN.PERSON, to).predicate(SNVOC.knows).iri(SN.KNOWS, id).end();
+        writer.statement(SN.KNOWS, id).predicate(SNVOC.hasPerson).iri(SN.PERSON, from).end();
+        writer.statement(SN.KNOWS, id).predicate(SNVOC.creationDate).dateTime(knows.creationDate()).end();
+        writer.statement(SN.PERSON, to).predicate(SNVOC.knows).iri(SN.PERSON, from).end();
+
+        writer.endEntry();
         knowsId++;
     }
 
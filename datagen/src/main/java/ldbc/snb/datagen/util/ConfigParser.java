@@ -40,21 +40,28 @@ public class ConfigParser {
         conf.set("ldbc.snb.datagen.generator.distribution.degreeDistribution", "ldbc.snb.datagen.generator.distribution.FacebookDegreeDistribution");
         conf.set("ldbc.snb.datagen.generator.knowsGenerator", "ldbc.snb.datagen.generator.DistanceKnowsGenerator");
         conf.set("ldbc.snb.datagen.serializer.compressed", Boolean.toString(false));
+        conf.set("ldbc.snb.datagen.serializer.rdf.binary", Boolean.toString(false));
         conf.set("ldbc.snb.datagen.serializer.updateStreams", Boolean.toString(true));
         conf.set("ldbc.snb.datagen.serializer.numPartitions", "1");
         conf.set("ldbc.snb.datagen.serializer.numUpdatePartitions", "1");
+        conf.set("ldbc.snb.datagen.serializer.updateStreams.sortJob", Boolean.toString(false));
+        conf.set("ldbc.snb.datagen.serializer.updateStreams.binary", Boolean.toString(false));
+        conf.set("ldbc.snb.datagen.serializer.updateStreams.sortBufferMB", "64");
         conf.set("ldbc.snb.datagen.serializer.outputDir", "./");
         conf.set("ldbc.snb.datagen.serializer.socialNetworkDir", "./social_network");
         conf.set("ldbc.snb.datagen.serializer.hadoopDir", "./hadoop");
         conf.set("ldbc.snb.datagen.serializer.endlineSeparator", Boolean.toString(false));
         conf.set("ldbc.snb.datagen.generator.deltaTime", "10000");
         conf.set("ldbc.snb.datagen.generator.activity", "true");
+        conf.set("ldbc.snb.datagen.generator.dictionarySnapshot", "true");
         conf.set("ldbc.snb.datagen.serializer.dateFormatter", "ldbc.snb.datagen.serializer.formatter.StringDateFormatter");
         conf.set("ldbc.snb.datagen.serializer.formatter.StringDateFormatter.dateTimeFormat", "yyyy-MM-dd'T'HH:mm:ss.SSSZ");
         conf.set("ldbc.snb.datagen.serializer.formatter.StringDateFormatter.dateFormat", "yyyy-MM-dd");
         conf.set("ldbc.snb.datagen.generator.person.similarity", "ldbc.snb.datagen.objects.similarity.GeoDistanceSimilarity");
         conf.set("ldbc.snb.datagen.parametergenerator.python", "python");
         conf.set("ldbc.snb.datagen.parametergenerator.parameters", "true");
+        conf.set("ldbc.snb.datagen.parametergenerator.native", "true");
+        conf.set("ldbc.snb.datagen.parametergenerator.seed", "1");
         conf.set("ldbc.snb.datagen.serializer.persons.sort", "true");
 
         /** Loading predefined Scale Factors **/
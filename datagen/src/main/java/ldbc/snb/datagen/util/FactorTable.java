@@ -4,353 +4,356 @@ import ldbc.snb.datagen.dictionary.Dictionaries;
 import ldbc.snb.datagen.generator.DatagenParams;
 import ldbc.snb.datagen.objects.*;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.*;
 
 /**
  * Created by aprat on 1/8/15.
+ *
+ * Counts of the activity of the persons of a block, used to choose the substitution parameters.
+ * Counts are stored column wise in primitive arrays indexed by the offset of the person in the block, assigned in the
+ * order persons are first seen. Per month counts are stored in flat arrays of NUM_MONTHS entries per person.
  */
 public class FactorTable {
 
-    static public class PersonCounts {
-        private long numFriends_ = 0;
-        private long numPosts_ = 0;
-        private long numLikes_ = 0;
-        private long numTagsOfMessages_ = 0;
-        private long numForums_ = 0;
-        private long numWorkPlaces_ = 0;
-        private long numComments_ = 0;
-        private int country_= 0;
-        private String name_ = null;
-        private ArrayList<Long> numMessagesPerMonth_ = null;
-        private ArrayList<Long> numForumsPerMonth_ = null;
-
-        public PersonCounts() {
-            numMessagesPerMonth_ = new ArrayList<Long>(36+1);
-            for( int i = 0; i < 36+1; ++i ) {
-               numMessagesPerMonth_.add(new Long(0));
-            }
-            numForumsPerMonth_ = new ArrayList<Long>(36+1);
-            for( int i = 0; i < 36+1; ++i ) {
-                numForumsPerMonth_.add(new Long(0));
-            }
-        }
-
-        public int country() {
-            return country_;
-        }
-
-        public String name() {
-            return name_;
-        }
-
-        public void country(int country) {
-            this.country_ = country;
-        }
-
-        public void name(String name) {
-            this.name_ = name;
-        }
-
-        public long numFriends() {
-            return numFriends_;
-        }
-
-        public void numFriends( long numFriends ) {
-            numFriends_ = numFriends;
-        }
-
-        public long numPosts() {
-            return numPosts_;
-        }
-
-        public void numPosts(long numPosts) {
-            numPosts_ = numPosts;
-        }
-
-        public void incrNumPosts() {
-            numPosts_++;
-        }
-
-        public long numLikes() {
-            return numLikes_;
-        }
-
-        public void numLikes( long numLikes ) {
-            numLikes_ = numLikes;
-        }
-
-        public void incrNumLikes() {
-            numLikes_++;
-        }
-
-        public long numTagsOfMessages () {
-            return numTagsOfMessages_;
-        }
-
-        public void numTagsOfMessages( long numTagsOfMessages ) {
-            numTagsOfMessages_ =  numTagsOfMessages;
-        }
-
-        public long numForums() {
-            return numForums_;
-        }
-
-        public void incrNumForums() {
-            numForums_++;
-        }
-
-        public void numForums( long numForums ) {
-           numForums_ = numForums;
-        }
-
-        public long numWorkPlaces () {
-            return numWorkPlaces_;
-        }
-
-        public void numWorkPlaces( long numWorkPlaces ) {
-            numWorkPlaces_ = numWorkPlaces;
-        }
-
-        public long numComments() {
-            return numComments_;
-        }
-
-        public void numComments( long numComments ) {
-            numComments_ = numComments;
-        }
+    public static final int NUM_MONTHS = 36 + 1;
+    private static final int INITIAL_CAPACITY = 1024;
 
-        public void incrNumComments() {
-            numComments_++;
-        }
-
-        public ArrayList<Long> numMessagesPerMonth( ) {
-           return numMessagesPerMonth_;
-        }
+    /**
+     * Open addressing map from person account ids to their offset in the block
+     */
+    private static class OffsetMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys_;
+        private int[] values_;
+        private int size_ = 0;
 
-        public void numMessagesPerMonth( ArrayList<Long> numMessagesPerMonth) {
-            numMessagesPerMonth_.clear();
-            numMessagesPerMonth_.addAll(numMessagesPerMonth);
+        OffsetMap(int capacity) {
+            keys_ = new long[Integer.highestOneBit(Math.max(capacity, 8) * 2)];
+            values_ = new int[keys_.length];
+            Arrays.fill(keys_, EMPTY);
         }
 
-        public void incrNumMessagesPerMonth( int month) {
-            numMessagesPerMonth_.set(month,numMessagesPerMonth_.get(month)+1);
-        }
-
-
-        public ArrayList<Long> numForumsPerMonth() {
-            return numForumsPerMonth_;
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (keys_.length - 1);
         }
 
-        public void numGroupsPerMonth( ArrayList<Long> numForumsPerMonth) {
-            numForumsPerMonth_.clear();
-            numForumsPerMonth_ = numForumsPerMonth;
+        int get(long key) {
+            int i = slot(key);
+            while (keys_[i] != EMPTY) {
+                if (keys_[i] == key) return values_[i];
+                i = (i + 1) & (keys_.length - 1);
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size_ + 1) * 2 > keys_.length) {
+                long[] oldKeys = keys_;
+                int[] oldValues = values_;
+                keys_ = new long[oldKeys.length * 2];
+                values_ = new int[keys_.length];
+                Arrays.fill(keys_, EMPTY);
+                size_ = 0;
+                for (int j = 0; j < oldKeys.length; ++j) {
+                    if (oldKeys[j] != EMPTY) put(oldKeys[j], oldValues[j]);
+                }
+            }
+            int i = slot(key);
+            while (keys_[i] != EMPTY && keys_[i] != key) {
+                i = (i + 1) & (keys_.length - 1);
+            }
+            if (keys_[i] == EMPTY) size_++;
+            keys_[i] = key;
+            values_[i] = value;
         }
 
-        public void incrNumForumsPerMonth( int month) {
-            numForumsPerMonth_.set(month,numForumsPerMonth_.get(month)+1);
+        void clear() {
+            Arrays.fill(keys_, EMPTY);
+            size_ = 0;
         }
     }
 
-
-    private HashMap<Long, PersonCounts > personCounts_;
-    private HashMap<Integer, Long> postsPerCountry_;
-    private HashMap<Integer, Long> tagClassCount_;
-    private HashMap<String,Long> firstNameCount_;
-    private HashMap<Integer,Long> tagCount_;
-    private HashMap<Long, String> medianFirstName_;
+    private final OffsetMap offsets_ = new OffsetMap(INITIAL_CAPACITY);
+    private int numPersons_ = 0;
+    private long[] accountId_;
+    private long[] numFriends_;
+    private long[] numPosts_;
+    private long[] numLikes_;
+    private long[] numTagsOfMessages_;
+    private long[] numForums_;
+    private long[] numWorkPlaces_;
+    private long[] numComments_;
+    private int[] country_;
+    private String[] name_;
+    private long[] numMessagesPerMonth_;
+    private long[] numForumsPerMonth_;
+
+    private long[] postsPerCountry_ = new long[0];
+    private long[] tagClassCount_ = new long[0];
+    private long[] tagCount_ = new long[0];
+    private HashMap<String, long[]> firstNameCount_ = new HashMap<String, long[]>();
     private long minWorkFrom_ = Long.MAX_VALUE;
     private long maxWorkFrom_ = Long.MIN_VALUE;
 
     public FactorTable() {
-        personCounts_ = new HashMap<Long, PersonCounts >();
-        postsPerCountry_ = new HashMap<Integer, Long>();
-        tagClassCount_ = new HashMap<Integer, Long> ();
-        firstNameCount_ = new HashMap<String, Long>();
-        tagCount_ = new HashMap<Integer, Long>();
-        medianFirstName_ = new HashMap<Long, String>();
+        allocate(INITIAL_CAPACITY);
     }
 
-    private PersonCounts personCounts(Long id) {
-        PersonCounts ret = personCounts_.get(id);
-        if(ret == null) {
-            ret = new FactorTable.PersonCounts();
-            personCounts_.put(id, ret);
-        }
-        return ret;
+    private void allocate(int capacity) {
+        accountId_ = new long[capacity];
+        numFriends_ = new long[capacity];
+        numPosts_ = new long[capacity];
+        numLikes_ = new long[capacity];
+        numTagsOfMessages_ = new long[capacity];
+        numForums_ = new long[capacity];
+        numWorkPlaces_ = new long[capacity];
+        numComments_ = new long[capacity];
+        country_ = new int[capacity];
+        name_ = new String[capacity];
+        numMessagesPerMonth_ = new long[capacity * NUM_MONTHS];
+        numForumsPerMonth_ = new long[capacity * NUM_MONTHS];
     }
 
-    private void incrPostPerCountry( int country ) {
-        Long num = postsPerCountry_.get(country);
-        if( num == null ) {
-            num = new Long(0);
-        }
-        postsPerCountry_.put(country, ++num);
+    private void grow() {
+        int capacity = accountId_.length * 2;
+        accountId_ = Arrays.copyOf(accountId_, capacity);
+        numFriends_ = Arrays.copyOf(numFriends_, capacity);
+        numPosts_ = Arrays.copyOf(numPosts_, capacity);
+        numLikes_ = Arrays.copyOf(numLikes_, capacity);
+        numTagsOfMessages_ = Arrays.copyOf(numTagsOfMessages_, capacity);
+        numForums_ = Arrays.copyOf(numForums_, capacity);
+        numWorkPlaces_ = Arrays.copyOf(numWorkPlaces_, capacity);
+        numComments_ = Arrays.copyOf(numComments_, capacity);
+        country_ = Arrays.copyOf(country_, capacity);
+        name_ = Arrays.copyOf(name_, capacity);
+        numMessagesPerMonth_ = Arrays.copyOf(numMessagesPerMonth_, capacity * NUM_MONTHS);
+        numForumsPerMonth_ = Arrays.copyOf(numForumsPerMonth_, capacity * NUM_MONTHS);
     }
 
-    private void incrTagClassCount( int tagClass ) {
-        Long num = tagClassCount_.get(tagClass);
-        if( num == null ) {
-            num = new Long(0);
+    /**
+     * @return offset of the counts of the person, allocating them on first use
+     */
+    private int offset(long accountId) {
+        int offset = offsets_.get(accountId);
+        if (offset < 0) {
+            if (numPersons_ == accountId_.length) {
+                grow();
+            }
+            offset = numPersons_++;
+            offsets_.put(accountId, offset);
+            accountId_[offset] = accountId;
         }
-        tagClassCount_.put(tagClass,++num);
+        return offset;
     }
 
-    private void incrTagCount( int tag ) {
-        Long num = tagCount_.get(tag);
-        if( num == null ) {
-            num = new Long(0);
+    private void clearPersons() {
+        Arrays.fill(numFriends_, 0, numPersons_, 0);
+        Arrays.fill(numPosts_, 0, numPersons_, 0);
+        Arrays.fill(numLikes_, 0, numPersons_, 0);
+        Arrays.fill(numTagsOfMessages_, 0, numPersons_, 0);
+        Arrays.fill(numForums_, 0, numPersons_, 0);
+        Arrays.fill(numWorkPlaces_, 0, numPersons_, 0);
+        Arrays.fill(numComments_, 0, numPersons_, 0);
+        Arrays.fill(country_, 0, numPersons_, 0);
+        Arrays.fill(name_, 0, numPersons_, null);
+        Arrays.fill(numMessagesPerMonth_, 0, numPersons_ * NUM_MONTHS, 0);
+        Arrays.fill(numForumsPerMonth_, 0, numPersons_ * NUM_MONTHS, 0);
+        offsets_.clear();
+        numPersons_ = 0;
+    }
+
+    private static long[] incr(long[] counts, int index) {
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
         }
-        tagCount_.put(tag, ++num);
+        counts[index]++;
+        return counts;
     }
 
     private void incrFirstNameCount( String name ) {
-        Long num = firstNameCount_.get(name);
+        long[] num = firstNameCount_.get(name);
         if( num == null ) {
-            num = new Long(0);
+            num = new long[1];
+            firstNameCount_.put(name, num);
         }
-        firstNameCount_.put(name, ++num);
+        num[0]++;
     }
 
     public void extractFactors( Person person ) {
         if( person.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            personCounts(person.accountId()).country(person.countryId());
-            personCounts(person.accountId()).name(person.firstName());
-            personCounts(person.accountId()).numFriends(person.knows().size());
-            personCounts(person.accountId()).numWorkPlaces(person.companies().size());
+            int offset = offset(person.accountId());
+            country_[offset] = person.countryId();
+            name_[offset] = person.firstName();
+            numFriends_[offset] = person.knows().size();
+            numWorkPlaces_[offset] = person.companies().size();
             for (Map.Entry<Long, Long> e : person.companies().entrySet()) {
                 if (minWorkFrom_ > e.getValue()) minWorkFrom_ = e.getValue();
                 if (maxWorkFrom_ < e.getValue()) maxWorkFrom_ = e.getValue();
             }
             incrFirstNameCount(person.firstName());
-            String medianName = Dictionaries.names.getMedianGivenName(person.countryId(), person.gender() == 1,
-                    Dictionaries.dates.getBirthYear(person.birthDay()));
-            medianFirstName_.put(person.accountId(), medianName);
         }
     }
 
     public void extractFactors( ForumMembership member ) {
         if( member.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            long memberId = member.person().accountId();
-            personCounts(memberId).incrNumForums();
+            int offset = offset(member.person().accountId());
+            numForums_[offset]++;
             int bucket = Dictionaries.dates.getNumberOfMonths(member.creationDate(), DatagenParams.startMonth, DatagenParams.startYear);
-            if (bucket < 36 + 1)
-                personCounts(memberId).incrNumForumsPerMonth(bucket);
+            if (bucket < NUM_MONTHS)
+                numForumsPerMonth_[offset * NUM_MONTHS + bucket]++;
         }
     }
 
     public void extractFactors( Comment comment ) {
         if( comment.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            assert personCounts_.get(comment.author().accountId()) != null : "Person counts does not exist when extracting factors from comment";
-            extractFactors((Message) comment);
-            personCounts(comment.author().accountId()).incrNumComments();
+            assert offsets_.get(comment.author().accountId()) >= 0 : "Person counts does not exist when extracting factors from comment";
+            numComments_[extractFactors((Message) comment)]++;
         }
     }
 
     public void extractFactors( Post post ) {
         if( post.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            assert(personCounts_.get(post.author().accountId()) != null): "Person counts does not exist when extracting factors from post";
-            extractFactors((Message) post);
-            personCounts(post.author().accountId()).incrNumPosts();
+            assert offsets_.get(post.author().accountId()) >= 0 : "Person counts does not exist when extracting factors from post";
+            numPosts_[extractFactors((Message) post)]++;
         }
     }
 
     public void extractFactors( Photo photo ) {
         if( photo.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            assert(personCounts_.get(photo.author().accountId()) != null): "Person counts does not exist when extracting factors from photo";
-            extractFactors((Message) photo);
-            personCounts(photo.author().accountId()).incrNumPosts();
+            assert offsets_.get(photo.author().accountId()) >= 0 : "Person counts does not exist when extracting factors from photo";
+            numPosts_[extractFactors((Message) photo)]++;
         }
     }
 
-    private void extractFactors( Message message ) {
-        if( message.creationDate() < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            assert(personCounts_.get(message.author().accountId()) != null): "Person counts does not exist when extracting factors from message";
-            long authorId = message.author().accountId();
-            long current = personCounts(authorId).numTagsOfMessages();
-            personCounts(authorId).numTagsOfMessages(current + message.tags().size());
-            int bucket = Dictionaries.dates.getNumberOfMonths(message.creationDate(), DatagenParams.startMonth, DatagenParams.startYear);
-            if (bucket < 36 + 1)
-                personCounts(authorId).incrNumMessagesPerMonth(bucket);
-            incrPostPerCountry(message.countryId());
-            for (Integer t : message.tags()) {
-                Integer tagClass = Dictionaries.tags.getTagClass(t);
-                incrTagClassCount(tagClass);
-                incrTagCount(t);
-            }
-        }
+    /**
+     * @return offset of the author of the message
+     */
+    private int extractFactors( Message message ) {
+        int offset = offset(message.author().accountId());
+        numTagsOfMessages_[offset] += message.tags().size();
+        int bucket = Dictionaries.dates.getNumberOfMonths(message.creationDate(), DatagenParams.startMonth, DatagenParams.startYear);
+        if (bucket < NUM_MONTHS)
+            numMessagesPerMonth_[offset * NUM_MONTHS + bucket]++;
+        postsPerCountry_ = incr(postsPerCountry_, message.countryId());
+        for (Integer t : message.tags()) {
+            tagClassCount_ = incr(tagClassCount_, Dictionaries.tags.getTagClass(t));
+            tagCount_ = incr(tagCount_, t);
+        }
+        return offset;
     }
 
     public void extractFactors( Like like ) {
         if( like.date < Dictionaries.dates.getUpdateThreshold() || !DatagenParams.updateStreams ) {
-            assert(personCounts_.get(like.user) != null): "Person counts does not exist when extracting factors from like";
-            personCounts(like.user).incrNumLikes();
+            assert offsets_.get(like.user) >= 0 : "Person counts does not exist when extracting factors from like";
+            numLikes_[offset(like.user)]++;
         }
     }
 
-    public void writePersonFactors(OutputStream writer ) {
-        try {
-            Map<Integer,List<String>> countryNames = new TreeMap<Integer,List<String>>();
-            for (Map.Entry<Long, PersonCounts> c: personCounts_.entrySet()) {
-                if(c.getValue().name() != null) {
-                    List<String> names = countryNames.get(c.getValue().country());
-                    if (names == null) {
-                        names = new ArrayList<String>();
-                        countryNames.put(c.getValue().country(), names);
-                    }
-                    names.add(c.getValue().name());
+    /**
+     * @return the median first name of the persons of each country
+     */
+    private Map<Integer,String> medianNames() {
+        Map<Integer,List<String>> countryNames = new TreeMap<Integer,List<String>>();
+        for (int i = 0; i < numPersons_; ++i) {
+            if(name_[i] != null) {
+                List<String> names = countryNames.get(country_[i]);
+                if (names == null) {
+                    names = new ArrayList<String>();
+                    countryNames.put(country_[i], names);
                 }
+                names.add(name_[i]);
             }
-            Map<Integer,String> medianNames = new TreeMap<Integer,String>();
-            for (Map.Entry<Integer,List<String>> entry : countryNames.entrySet()) {
-                entry.getValue().sort( (a ,b) -> a.compareTo(b));
-                medianNames.put(entry.getKey(),entry.getValue().get(entry.getValue().size()/2));
-            }
-            for (Map.Entry<Long, PersonCounts> c: personCounts_.entrySet()){
-                PersonCounts count = c.getValue();
-                // correct the group counts
-                //count.numberOfGroups += count.numberOfFriends;
-                //String name = medianFirstName_.get(c.getKey());
-                String name = medianNames.get(c.getValue().country());
+        }
+        Map<Integer,String> medianNames = new TreeMap<Integer,String>();
+        for (Map.Entry<Integer,List<String>> entry : countryNames.entrySet()) {
+            entry.getValue().sort( (a ,b) -> a.compareTo(b));
+            medianNames.put(entry.getKey(),entry.getValue().get(entry.getValue().size()/2));
+        }
+        return medianNames;
+    }
+
+    public void writePersonFactors(OutputStream writer ) {
+        try {
+            Map<Integer,String> medianNames = medianNames();
+            StringBuilder strbuf = new StringBuilder();
+            for (int i = 0; i < numPersons_; ++i) {
+                String name = medianNames.get(country_[i]);
                 if( name != null ) {
-                    StringBuffer strbuf = new StringBuffer();
-                    strbuf.append(c.getKey()); strbuf.append(",");
+                    strbuf.setLength(0);
+                    strbuf.append(accountId_[i]); strbuf.append(",");
                     strbuf.append(name);
                     strbuf.append(",");
-                    strbuf.append(count.numFriends());
+                    strbuf.append(numFriends_[i]);
                     strbuf.append(",");
-                    strbuf.append(count.numPosts());
+                    strbuf.append(numPosts_[i]);
                     strbuf.append(",");
-                    strbuf.append(count.numLikes());
+                    strbuf.append(numLikes_[i]);
                     strbuf.append(",");
-                    strbuf.append(count.numTagsOfMessages());
+                    strbuf.append(numTagsOfMessages_[i]);
                     strbuf.append(",");
-                    strbuf.append(count.numForums());
+                    strbuf.append(numForums_[i]);
                     strbuf.append(",");
-                    strbuf.append(count.numWorkPlaces());
+                    strbuf.append(numWorkPlaces_[i]);
                     strbuf.append(",");
-                    strbuf.append(count.numComments());
+                    strbuf.append(numComments_[i]);
                     strbuf.append(",");
-
-                    for (Long bucket : count.numMessagesPerMonth()) {
-                        strbuf.append(bucket);
+                    for (int m = 0; m < NUM_MONTHS; ++m) {
+                        strbuf.append(numMessagesPerMonth_[i * NUM_MONTHS + m]);
                         strbuf.append(",");
                     }
-                    for (Long bucket : count.numForumsPerMonth()) {
-                        strbuf.append(bucket);
+                    for (int m = 0; m < NUM_MONTHS; ++m) {
+                        strbuf.append(numForumsPerMonth_[i * NUM_MONTHS + m]);
                         strbuf.append(",");
                     }
                     strbuf.setCharAt(strbuf.length() - 1, '\n');
                     writer.write(strbuf.toString().getBytes("UTF8"));
                 }
             }
-            personCounts_.clear();
-            medianFirstName_.clear();
-        } catch (AssertionError e) {
+            clearPersons();
+        } catch (IOException e) {
             System.err.println("Unable to write parameter counts");
             System.err.println(e.getMessage());
             e.printStackTrace();
+        }
+    }
+
+    /**
+     * Binary counterpart of writePersonFactors. Each person is written as its account id, name, the number of
+     * counts followed by the counts in the order of the text file, and the number of months followed by the
+     * messages and the forums per month.
+     */
+    public void writeBinaryPersonFactors(OutputStream writer ) {
+        try {
+            Map<Integer,String> medianNames = medianNames();
+            DataOutputStream out = new DataOutputStream(writer);
+            for (int i = 0; i < numPersons_; ++i) {
+                String name = medianNames.get(country_[i]);
+                if( name != null ) {
+                    out.writeLong(accountId_[i]);
+                    out.writeUTF(name);
+                    out.writeInt(7);
+                    out.writeLong(numFriends_[i]);
+                    out.writeLong(numPosts_[i]);
+                    out.writeLong(numLikes_[i]);
+                    out.writeLong(numTagsOfMessages_[i]);
+                    out.writeLong(numForums_[i]);
+                    out.writeLong(numWorkPlaces_[i]);
+                    out.writeLong(numComments_[i]);
+                    out.writeInt(NUM_MONTHS);
+                    for (int m = 0; m < NUM_MONTHS; ++m) {
+                        out.writeLong(numMessagesPerMonth_[i * NUM_MONTHS + m]);
+                    }
+                    for (int m = 0; m < NUM_MONTHS; ++m) {
+                        out.writeLong(numForumsPerMonth_[i * NUM_MONTHS + m]);
+                    }
+                }
+            }
+            out.flush();
+            clearPersons();
         } catch (IOException e) {
             System.err.println("Unable to write parameter counts");
             System.err.println(e.getMessage());
@@ -358,51 +361,60 @@ public class FactorTable {
         }
     }
 
+    private static int numNonZero(long[] counts) {
+        int num = 0;
+        for (long c : counts) {
+            if (c != 0) num++;
+        }
+        return num;
+    }
+
     public void writeActivityFactors(OutputStream writer ) {
         try {
-            writer.write(Integer.toString(postsPerCountry_.size()).getBytes("UTF8"));
+            writer.write(Integer.toString(numNonZero(postsPerCountry_)).getBytes("UTF8"));
             writer.write("\n".getBytes("UTF8"));
-            for (Map.Entry<Integer, Long> c: postsPerCountry_.entrySet()){
+            for (int c = 0; c < postsPerCountry_.length; ++c) {
+                if (postsPerCountry_[c] == 0) continue;
             	StringBuffer strbuf = new StringBuffer();
-            	strbuf.append(Dictionaries.places.getPlaceName(c.getKey()));
+            	strbuf.append(Dictionaries.places.getPlaceName(c));
             	strbuf.append(",");
-            	strbuf.append(c.getValue());
+            	strbuf.append(postsPerCountry_[c]);
             	strbuf.append("\n");
             	writer.write(strbuf.toString().getBytes("UTF8"));
             }
 
-            writer.write(Integer.toString(tagClassCount_.size()).getBytes("UTF8"));
+            writer.write(Integer.toString(numNonZero(tagClassCount_)).getBytes("UTF8"));
             writer.write("\n".getBytes("UTF8"));
-            for (Map.Entry<Integer, Long> c: tagClassCount_.entrySet()){
+            for (int c = 0; c < tagClassCount_.length; ++c) {
+                if (tagClassCount_[c] == 0) continue;
             	StringBuffer strbuf = new StringBuffer();
-            	strbuf.append(Dictionaries.tags.getClassName(c.getKey()));
+            	strbuf.append(Dictionaries.tags.getClassName(c));
             	strbuf.append(",");
-            	strbuf.append(Dictionaries.tags.getClassName(c.getKey()));
+            	strbuf.append(Dictionaries.tags.getClassName(c));
             	strbuf.append(",");
-            	strbuf.append(c.getValue());
+            	strbuf.append(tagClassCount_[c]);
             	strbuf.append("\n");
             	writer.write(strbuf.toString().getBytes("UTF8"));
             }
-            writer.write(Integer.toString(tagCount_.size()).getBytes("UTF8"));
+            writer.write(Integer.toString(numNonZero(tagCount_)).getBytes("UTF8"));
             writer.write("\n".getBytes("UTF8"));
-            for (Map.Entry<Integer, Long> c: tagCount_.entrySet()){
+            for (int c = 0; c < tagCount_.length; ++c) {
+                if (tagCount_[c] == 0) continue;
                 StringBuffer strbuf = new StringBuffer();
-                strbuf.append(Dictionaries.tags.getName(c.getKey()));
+                strbuf.append(Dictionaries.tags.getName(c));
                 strbuf.append(",");
-                //strbuf.append(tagDictionary.getClassName(c.getKey()));
-                //strbuf.append(",");
-                strbuf.append(c.getValue());
+                strbuf.append(tagCount_[c]);
                 strbuf.append("\n");
                 writer.write(strbuf.toString().getBytes("UTF8"));
             }
 
             writer.write(Integer.toString(firstNameCount_.size()).getBytes("UTF8"));
             writer.write("\n".getBytes("UTF8"));
-            for (Map.Entry<String, Long> c: firstNameCount_.entrySet()){
+            for (Map.Entry<String, long[]> c: firstNameCount_.entrySet()){
             	StringBuffer strbuf = new StringBuffer();
             	strbuf.append(c.getKey());
             	strbuf.append(",");
-            	strbuf.append(c.getValue());
+            	strbuf.append(c.getValue()[0]);
             	strbuf.append("\n");
             	writer.write(strbuf.toString().getBytes("UTF8"));
             }
@@ -0,0 +1,39 @@
+package ldbc.snb.datagen.vocabulary;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prefix of the IRIs made of a prefixed name followed by a zero padded id, such as sn:pers00000000000000000042.
+ * The prefix is kept encoded, so RDF writers append such IRIs without formatting a String per id.
+ */
+public class IriPrefix {
+
+    private final String prefix;
+    private final byte[] bytes;
+    private final int digits;
+
+    public IriPrefix(String prefix, int digits) {
+        this.prefix = prefix;
+        this.bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        this.digits = digits;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Minimum number of digits of the id, shorter ids are padded with leading zeros
+     */
+    public int digits() {
+        return digits;
+    }
+
+    public String uri(long id) {
+        return prefix + String.format("%0" + digits + "d", id);
+    }
+}
@@ -44,18 +44,41 @@ import ldbc.snb.datagen.generator.DatagenParams;
  */
 public class SN {
 
-    public static long machineId;
+    /**
+     * Block being generated by the current thread, several blocks are generated concurrently when running locally.
+     */
+    private static final ThreadLocal<Long> machineId = ThreadLocal.withInitial(() -> 0L);
     private static long numBits;
     public static final String NAMESPACE = "http://www.ldbc.eu/ldbc_socialnet/1.0/data/";
     public static final String PREFIX = "sn:";
     public static final String BLANK_NODE = "_:";
+
+    public static final IriPrefix PERSON = new IriPrefix(PREFIX + "pers", 20);
+    public static final IriPrefix FORUM = new IriPrefix(PREFIX + "forum", 20);
+    public static final IriPrefix POST = new IriPrefix(PREFIX + "post", 20);
+    public static final IriPrefix COMMENT = new IriPrefix(PREFIX + "comm", 20);
+    public static final IriPrefix MEMBERSHIP = new IriPrefix(BLANK_NODE + "mbs", 20);
+    public static final IriPrefix LIKE = new IriPrefix(BLANK_NODE + "like", 20);
+    public static final IriPrefix STUDY_AT = new IriPrefix(BLANK_NODE + "study", 20);
+    public static final IriPrefix WORK_AT = new IriPrefix(BLANK_NODE + "work", 20);
+    public static final IriPrefix UNIVERSITY = new IriPrefix(PREFIX + "uni", 6);
+    public static final IriPrefix COMPANY = new IriPrefix(PREFIX + "com", 6);
+    public static final IriPrefix KNOWS = new IriPrefix(BLANK_NODE + "knows", 20);
+    public static final IriPrefix TAG_CLASS = new IriPrefix(BLANK_NODE + "tagclass", 6);
     private static long minDate;
     private static long maxDate;
 
     /**
-     * Sets the machine id.
+     * Sets the machine id of the current thread.
      * Used as a suffix in some SN entities' tp create unique IDs in parallel generation.
      */
+    public static void machineId(long id) {
+        machineId.set(id);
+    }
+
+    public static long machineId() {
+        return machineId.get();
+    }
 
     public static void initialize() {
         minDate = Dictionaries.dates.getStartDateTime();
@@ -89,78 +112,78 @@ public class SN {
      * Gets the person entity prefix.
      */
     public static String getPersonURI(long id) {
-        return PREFIX + "pers" + String.format("%020d", id);
+        return PERSON.uri(id);
     }
 
     /**
      * Gets the forum entity prefix.
      */
     public static String getForumURI(long id) {
-        return PREFIX + "forum" + String.format("%020d", id);
+        return FORUM.uri(id);
     }
 
     /**
      * Gets the post entity prefix.
      */
     public static String getPostURI(long id) {
-        return PREFIX + "post" + String.format("%020d", id);
+        return POST.uri(id);
     }
 
     /**
      * Gets the comment entity prefix.
      */
     public static String getCommentURI(long id) {
-        return PREFIX + "comm" + String.format("%020d", id);
+        return COMMENT.uri(id);
     }
 
     /**
      * Gets the membership relation prefix.
      */
     public static String getMembershipURI(long id) {
-        return BLANK_NODE + "mbs" + String.format("%020d", id);
+        return MEMBERSHIP.uri(id);
     }
 
     /**
      * Gets the like relation prefix.
      */
     public static String getLikeURI(long id) {
-        return BLANK_NODE + "like" + String.format("%020d", id);
+        return LIKE.uri(id);
     }
 
     /**
      * Gets the studyAt relation prefix.
      */
     public static String getStudyAtURI(long id) {
-        return BLANK_NODE + "study" + String.format("%020d", id);
+        return STUDY_AT.uri(id);
     }
 
     /**
      * Gets the workAt relation prefix.
      */
     public static String getWorkAtURI(long id) {
-        return BLANK_NODE + "work" + String.format("%020d", id );
+        return WORK_AT.uri(id);
     }
 
     public static String getUnivURI(long id) {
-	return PREFIX + "uni" + String.format("%06d", id);
+	return UNIVERSITY.uri(id);
     }
 
     public static String getCompURI(long id) {
-	return PREFIX + "com" + String.format("%06d", id);
+	return COMPANY.uri(id);
     }
 
     public static String getKnowsURI(long id) {
-        return BLANK_NODE + "knows" + String.format("%020d", id);
+        return KNOWS.uri(id);
     }
 
     public static String getTagClassURI(long id) {
-        return BLANK_NODE + "tagclass" + String.format("%06d", id);
+        return TAG_CLASS.uri(id);
     }
 
     public static Long formId(long id) {
         long lowMask = 0x0FFFFF;                                // This mask is used to get the lowest 20 bits.
         long lowerPart = (lowMask & id);
-        long machinePart = machineId << 20;
+        long machinePart = machineId.get() << 20;
         long upperPart = (id >> 20) << (20 + numBits);
         return upperPart | machinePart | lowerPart;
     }
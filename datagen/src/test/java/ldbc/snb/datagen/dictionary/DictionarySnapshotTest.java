@@ -0,0 +1,136 @@
+package ldbc.snb.datagen.dictionary;
+
+import ldbc.snb.datagen.generator.DatagenParams;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the rows served from a snapshot against the rows parsed from the text dictionaries
+ */
+public class DictionarySnapshotTest {
+
+    // resources and separators as the dictionaries read them; tagText.txt is not part of this tree
+    private static final Object[][] TABLES = {
+            {DatagenParams.countryDictionaryFile, " ", Integer.MAX_VALUE},
+            {DatagenParams.cityDictionaryFile, " ", Integer.MAX_VALUE},
+            {DatagenParams.companiesDictionaryFile, "  ", Integer.MAX_VALUE},
+            {DatagenParams.universityDictionaryFile, "  ", Integer.MAX_VALUE},
+            {DatagenParams.tagsFile, "\t", Integer.MAX_VALUE},
+            {DatagenParams.tagClassFile, "\t", Integer.MAX_VALUE},
+            {DatagenParams.popularTagByCountryFile, " ", Integer.MAX_VALUE},
+            {DatagenParams.nameDictionaryFile, "  ", Integer.MAX_VALUE},
+            {DatagenParams.browserDictonryFile, "  ", Integer.MAX_VALUE},
+            {DatagenParams.countryAbbrMappingFile, "   ", Integer.MAX_VALUE},
+            {DatagenParams.IPZONE_DIRECTORY + "/de.zone", "[.]", 100},
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void release() {
+        DictionarySnapshot.release();
+    }
+
+    private static List<String[][]> readTables() throws IOException {
+        List<String[][]> tables = new ArrayList<String[][]>();
+        for (Object[] table : TABLES) {
+            tables.add(DictionarySnapshot.rows((String) table[0], (String) table[1], (Integer) table[2]));
+        }
+        return tables;
+    }
+
+    private File writeSnapshot() throws IOException {
+        File file = new File(folder.getRoot(), "dictionaries.snapshot");
+        DictionarySnapshot.record();
+        readTables();
+        DictionarySnapshot.write(new Configuration(), file.getAbsolutePath());
+        DictionarySnapshot.release();
+        return file;
+    }
+
+    @Test
+    public void snapshotShouldServeTheRowsOfTheTextDictionaries() throws IOException {
+        List<String[][]> text = readTables();
+        DictionarySnapshot.release();
+        File file = writeSnapshot();
+        DictionarySnapshot.load(new Configuration(), file.getAbsolutePath());
+        List<String[][]> snapshot = readTables();
+        for (int t = 0; t < TABLES.length; ++t) {
+            assertEquals(TABLES[t][0].toString(), text.get(t).length, snapshot.get(t).length);
+            for (int r = 0; r < text.get(t).length; ++r) {
+                assertArrayEquals(TABLES[t][0].toString(), text.get(t)[r], snapshot.get(t)[r]);
+            }
+        }
+        assertEquals(100, snapshot.get(TABLES.length - 1).length);
+
+        // equal fields of different tables are one String, as when parsing
+        String germanyInCities = null;
+        for (String[] row : snapshot.get(1)) {
+            if (row[0].equals("Germany")) germanyInCities = row[0];
+        }
+        String germanyInCompanies = null;
+        for (String[] row : snapshot.get(2)) {
+            if (row[0].equals("Germany")) germanyInCompanies = row[0];
+        }
+        assertTrue(germanyInCities != null);
+        assertSame(germanyInCities, germanyInCompanies);
+    }
+
+    @Test
+    public void tablesMissingFromTheSnapshotShouldBeParsed() throws IOException {
+        File file = writeSnapshot();
+        DictionarySnapshot.load(new Configuration(), file.getAbsolutePath());
+        String[][] first = DictionarySnapshot.rows(DatagenParams.emailDictionaryFile, " ");
+        DictionarySnapshot.release();
+        String[][] text = DictionarySnapshot.rows(DatagenParams.emailDictionaryFile, " ");
+        assertEquals(Arrays.deepToString(text), Arrays.deepToString(first));
+        assertEquals(10, DictionarySnapshot.rows(DatagenParams.tagsFile, "\t", 10).length);
+    }
+
+    @Test
+    public void snapshotOfOtherDictionariesShouldBeRejected() throws IOException {
+        File file = writeSnapshot();
+        try (RandomAccessFile snapshot = new RandomAccessFile(file, "rw")) {
+            snapshot.seek(8);
+            int hashByte = snapshot.read();
+            snapshot.seek(8);
+            snapshot.write(hashByte ^ 1);
+        }
+        try {
+            DictionarySnapshot.load(new Configuration(), file.getAbsolutePath());
+            fail("a snapshot with another source hash should not load");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("other dictionaries"));
+        }
+        // the dictionaries are parsed instead
+        String[][] rows = DictionarySnapshot.rows(DatagenParams.tagsFile, "\t");
+        DictionarySnapshot.release();
+        assertEquals(Arrays.deepToString(DictionarySnapshot.rows(DatagenParams.tagsFile, "\t")), Arrays.deepToString(rows));
+    }
+
+    @Test(expected = IOException.class)
+    public void textFilesShouldNotLoadAsSnapshots() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), "LDBCDIC1 not a snapshot".getBytes(StandardCharsets.US_ASCII));
+        DictionarySnapshot.load(new Configuration(), file.getAbsolutePath());
+    }
+}
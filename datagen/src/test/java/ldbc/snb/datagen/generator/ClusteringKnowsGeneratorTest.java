@@ -0,0 +1,87 @@
+package ldbc.snb.datagen.generator;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.objects.Knows;
+import ldbc.snb.datagen.objects.Person;
+import ldbc.snb.datagen.objects.similarity.InterestsSimilarity;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that the communities processed in parallel give the same graph as processing them one after the other
+ */
+public class ClusteringKnowsGeneratorTest {
+
+    private static final int NUM_PERSONS = 600;
+    private static final ArrayList<Float> PERCENTAGES = new ArrayList<Float>(Arrays.asList(0.45f, 0.45f, 0.1f));
+
+    @BeforeClass
+    public static void initializeDictionaries() {
+        Dictionaries.dates = new DateGenerator(new Configuration(), new GregorianCalendar(2010, 0, 1),
+                new GregorianCalendar(2013, 0, 1), DatagenParams.alpha, DatagenParams.deltaTime);
+        Person.personSimilarity = new InterestsSimilarity();
+    }
+
+    private static ArrayList<Person> persons() {
+        Random random = new Random(42);
+        ArrayList<Person> persons = new ArrayList<Person>();
+        for (int i = 0; i < NUM_PERSONS; ++i) {
+            Person person = new Person();
+            person.accountId(i);
+            person.creationDate(Dictionaries.dates.randomPersonCreationDate(random));
+            person.maxNumKnows(1 + random.nextInt(60));
+            person.mainInterest(random.nextInt(20));
+            TreeSet<Integer> interests = new TreeSet<Integer>();
+            for (int j = random.nextInt(5); j > 0; --j) {
+                interests.add(random.nextInt(20));
+            }
+            person.interests(interests);
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    private static List<String> generate(int parallelism, int step) {
+        Configuration conf = new Configuration();
+        conf.set("ldbc.snb.datagen.generator.ClusteringKnowsGenerator.parallelism", Integer.toString(parallelism));
+        ClusteringKnowsGenerator generator = new ClusteringKnowsGenerator();
+        generator.initialize(conf);
+        ArrayList<Person> persons = persons();
+        generator.generateKnows(persons, 7, PERCENTAGES, step);
+        List<String> edges = new ArrayList<String>();
+        for (Person person : persons) {
+            for (Knows knows : person.knows()) {
+                edges.add(person.accountId() + "|" + knows.to().accountId() + "|" + knows.creationDate() + "|"
+                        + knows.weight());
+            }
+        }
+        return edges;
+    }
+
+    @Test
+    public void parallelGenerationShouldGiveTheSameEdges() {
+        // the last step has no edges left to generate, as the first two round the degrees up
+        for (int step = 0; step < PERCENTAGES.size() - 1; ++step) {
+            List<String> sequential = generate(1, step);
+            assertFalse(sequential.isEmpty());
+            assertEquals(sequential, generate(2, step));
+            assertEquals(sequential, generate(4, step));
+        }
+    }
+
+    @Test
+    public void generationShouldBeRepeatable() {
+        assertEquals(generate(4, 0), generate(4, 0));
+    }
+}
@@ -0,0 +1,127 @@
+package ldbc.snb.datagen.hadoop;
+
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the comparators on serialized keys, used by the shuffle, order and group keys as their object
+ * comparisons do
+ */
+public class RawComparatorTest {
+
+    private static final int PAIRS = 20000;
+    private static final long[] LONG_EDGES = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -256, -1, 0, 1, 255, 256, Long.MAX_VALUE};
+    private static final int[] INT_EDGES = {Integer.MIN_VALUE, -256, -1, 0, 1, 255, 256, Integer.MAX_VALUE};
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void blockKeyComparatorsShouldMatchObjectComparison() throws IOException {
+        WritableComparator sortComparator = new BlockKeyComparator();
+        WritableComparator groupComparator = new BlockKeyGroupComparator();
+        WritableComparator defaultComparator = WritableComparator.get(BlockKey.class);
+        for (int i = 0; i < PAIRS; ++i) {
+            BlockKey a = new BlockKey(nextLong(), new TupleKey(nextLong(), nextLong()));
+            BlockKey b = nextOther(a);
+            assertSameSign(sortComparator, a, b);
+            assertSameSign(groupComparator, a, b);
+            assertSameSign(defaultComparator, a, b);
+        }
+    }
+
+    @Test
+    public void tupleKeyComparatorShouldMatchObjectComparison() throws IOException {
+        WritableComparator defaultComparator = WritableComparator.get(TupleKey.class);
+        for (int i = 0; i < PAIRS; ++i) {
+            TupleKey a = new TupleKey(nextLong(), nextLong());
+            TupleKey b = random.nextInt(8) == 0 ? new TupleKey(a) : new TupleKey(
+                    random.nextBoolean() ? a.key : nextLong(),
+                    random.nextBoolean() ? a.id : nextLong());
+            assertSameSign(defaultComparator, a, b);
+        }
+    }
+
+    @Test
+    public void updateEventKeyComparatorsShouldMatchObjectComparison() throws IOException {
+        WritableComparator sortComparator = new UpdateEventKeySortComparator();
+        WritableComparator groupComparator = new UpdateEventKeyGroupComparator();
+        WritableComparator defaultComparator = WritableComparator.get(UpdateEventKey.class);
+        for (int i = 0; i < PAIRS; ++i) {
+            UpdateEventKey a = new UpdateEventKey(nextLong(), nextInt(), nextInt());
+            UpdateEventKey b = random.nextInt(8) == 0 ? new UpdateEventKey(a) : new UpdateEventKey(
+                    random.nextBoolean() ? a.date : nextLong(),
+                    random.nextBoolean() ? a.reducerId : nextInt(),
+                    random.nextBoolean() ? a.partition : nextInt());
+            assertSameSign(sortComparator, a, b);
+            assertSameSign(groupComparator, a, b);
+            assertSameSign(defaultComparator, a, b);
+        }
+    }
+
+    private BlockKey nextOther(BlockKey a) {
+        if (random.nextInt(8) == 0) return new BlockKey(a);
+        return new BlockKey(
+                random.nextBoolean() ? a.block : nextLong(),
+                new TupleKey(
+                        random.nextBoolean() ? a.tk.key : nextLong(),
+                        random.nextBoolean() ? a.tk.id : nextLong()));
+    }
+
+    /**
+     * Mostly small values, so that fields are often equal, and values that differ in sign or only in their high or
+     * low bytes
+     */
+    private long nextLong() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return LONG_EDGES[random.nextInt(LONG_EDGES.length)];
+            case 1:
+                return random.nextInt(7) - 3;
+            default:
+                return random.nextLong();
+        }
+    }
+
+    private int nextInt() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return INT_EDGES[random.nextInt(INT_EDGES.length)];
+            case 1:
+                return random.nextInt(7) - 3;
+            default:
+                return random.nextInt();
+        }
+    }
+
+    private void assertSameSign(WritableComparator comparator, WritableComparable a, WritableComparable b)
+            throws IOException {
+        // serialize at different offsets, as keys are compared in place within the shuffle buffers
+        int offsetA = random.nextInt(16);
+        int offsetB = random.nextInt(16);
+        byte[] bytesA = serialize(a, offsetA);
+        byte[] bytesB = serialize(b, offsetB);
+        int raw = comparator.compare(bytesA, offsetA, bytesA.length - offsetA, bytesB, offsetB, bytesB.length - offsetB);
+        int object = comparator.compare(a, b);
+        assertEquals(comparator.getClass().getSimpleName() + " " +
+                        Arrays.toString(Arrays.copyOfRange(bytesA, offsetA, bytesA.length)) + " " +
+                        Arrays.toString(Arrays.copyOfRange(bytesB, offsetB, bytesB.length)),
+                Integer.signum(object), Integer.signum(raw));
+    }
+
+    private byte[] serialize(WritableComparable key, int offset) throws IOException {
+        DataOutputBuffer out = new DataOutputBuffer();
+        for (int i = 0; i < offset; ++i) {
+            out.writeByte(random.nextInt(256));
+        }
+        key.write(out);
+        return Arrays.copyOf(out.getData(), out.getLength());
+    }
+}
@@ -0,0 +1,110 @@
+package ldbc.snb.datagen.local;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the MapReduce jobs and LocalDatagen on a tiny scale factor, each in its own JVM as LDBCDatagenTest does, and
+ * checks that they write the same files
+ */
+public class LocalDatagenTest {
+
+    private static final String[] FACTOR_FILES = {"m0personFactors.txt", "m0activityFactors.txt", "m0friendList0.csv"};
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static File hadoop;
+    private static File local;
+
+    /**
+     * Generates the data in a directory of its own, which is also the working directory the factor files are copied to
+     */
+    private static File generate(String name, boolean localDatagen) throws Exception {
+        File dir = folder.newFolder(name);
+        File params = new File(dir, "params.ini");
+        try (PrintWriter writer = new PrintWriter(params, "UTF-8")) {
+            writer.println("ldbc.snb.datagen.generator.numPersons:1000");
+            writer.println("ldbc.snb.datagen.generator.numThreads:1");
+            writer.println("ldbc.snb.datagen.serializer.personSerializer:ldbc.snb.datagen.serializer.snb.interactive.CSVPersonSerializer");
+            writer.println("ldbc.snb.datagen.serializer.invariantSerializer:ldbc.snb.datagen.serializer.snb.interactive.CSVInvariantSerializer");
+            writer.println("ldbc.snb.datagen.serializer.personActivitySerializer:ldbc.snb.datagen.serializer.snb.interactive.CSVPersonActivitySerializer");
+            writer.println("ldbc.snb.datagen.serializer.updateStreams:true");
+            writer.println("ldbc.snb.datagen.parametergenerator.parameters:false");
+            writer.println("ldbc.snb.datagen.generator.local:" + localDatagen);
+            writer.println("ldbc.snb.datagen.serializer.outputDir:" + dir.getAbsolutePath());
+        }
+        ProcessBuilder pb = new ProcessBuilder("java", "-ea", "-cp", System.getProperty("java.class.path"),
+                "ldbc.snb.datagen.generator.LDBCDatagen", params.getAbsolutePath());
+        pb.directory(dir);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(new File(dir, "log"));
+        assertEquals("generation failed, see " + new File(dir, "log"), 0, pb.start().waitFor());
+        return dir;
+    }
+
+    @BeforeClass
+    public static void generateData() throws Exception {
+        hadoop = generate("hadoop", false);
+        local = generate("local", true);
+    }
+
+    /**
+     * @return the names of the files in the directory, leaving out the checksums and markers of Hadoop
+     */
+    private static List<String> files(File dir) {
+        List<String> names = new ArrayList<String>();
+        for (String name : dir.list()) {
+            if (!name.startsWith(".") && !name.startsWith("_")) {
+                names.add(name);
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static void assertSameFile(File expected, File actual) throws IOException {
+        assertTrue(expected + " is missing", expected.isFile());
+        assertArrayEquals(actual.toString(), Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+
+    @Test
+    public void socialNetworkShouldBeTheOneOfTheHadoopJobs() throws IOException {
+        File expected = new File(hadoop, "social_network");
+        File actual = new File(local, "social_network");
+        List<String> names = files(expected);
+        assertTrue(names.contains("person_0_0.csv"));
+        assertTrue(names.contains("updateStream.properties"));
+        assertEquals(names, files(actual));
+        for (String name : names) {
+            assertSameFile(new File(expected, name), new File(actual, name));
+        }
+    }
+
+    @Test
+    public void factorsShouldBeTheOnesOfTheHadoopJobs() throws IOException {
+        for (String name : FACTOR_FILES) {
+            assertSameFile(new File(hadoop, name), new File(local, name));
+        }
+    }
+
+    @Test
+    public void spilledPersonsShouldBeDeleted() {
+        assertFalse(new File(local, "hadoop/local").exists());
+    }
+}
@@ -0,0 +1,165 @@
+package ldbc.snb.datagen.objects;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks KnowsList against the TreeSet<Knows> and the sort and dedup of ArrayList<Knows> it replaces
+ */
+public class KnowsListTest {
+
+    private final Random random = new Random(42);
+
+    private Knows randomKnows(int maxAccountId) {
+        long to = random.nextInt(maxAccountId);
+        Person.PersonSummary summary = new Person.PersonSummary();
+        summary.accountId(to);
+        summary.creationDate(1262304000000L + random.nextInt(1000000000));
+        summary.browserId(random.nextInt(5));
+        summary.ipAddress(new IP(random.nextInt(), random.nextInt(33)));
+        summary.isLargePoster(random.nextBoolean());
+        return new Knows(summary, 1262304000000L + random.nextInt(100) * 1000L, random.nextFloat());
+    }
+
+    private static String describe(Knows k) {
+        Person.PersonSummary to = k.to();
+        return to.accountId() + "|" + k.creationDate() + "|" + k.weight() + "|" + to.creationDate() + "|"
+                + to.browserId() + "|" + to.ipAddress().getIp() + "|" + to.ipAddress().getMask() + "|"
+                + to.isLargePoster();
+    }
+
+    private static List<String> describe(Iterable<Knows> knows) {
+        List<String> res = new ArrayList<String>();
+        for (Knows k : knows) {
+            res.add(describe(k));
+        }
+        return res;
+    }
+
+    private KnowsList randomList(int size, int maxAccountId) {
+        KnowsList list = new KnowsList();
+        for (int i = 0; i < size; ++i) {
+            list.add(randomKnows(maxAccountId));
+        }
+        return list;
+    }
+
+    @Test
+    public void addShouldKeepTheTreeSetSemantics() {
+        for (int run = 0; run < 50; ++run) {
+            TreeSet<Knows> expected = new TreeSet<Knows>();
+            KnowsList list = new KnowsList();
+            int size = random.nextInt(200);
+            for (int i = 0; i < size; ++i) {
+                Knows k = randomKnows(100);
+                assertEquals(expected.add(k), list.add(k));
+            }
+            assertEquals(expected.size(), list.size());
+            assertEquals(describe(expected), describe(list));
+            for (Knows k : expected) {
+                assertTrue(list.contains(k));
+            }
+        }
+    }
+
+    @Test
+    public void removeShouldKeepTheOrder() {
+        TreeSet<Knows> expected = new TreeSet<Knows>();
+        KnowsList list = new KnowsList();
+        for (int i = 0; i < 100; ++i) {
+            Knows k = randomKnows(1000);
+            expected.add(k);
+            list.add(k);
+        }
+        List<Knows> removed = new ArrayList<Knows>(expected).subList(10, 30);
+        for (Knows k : removed) {
+            assertTrue(list.remove(k));
+        }
+        expected.removeAll(removed);
+        assertFalse(list.remove(removed.get(0)));
+        assertEquals(describe(expected), describe(list));
+    }
+
+    @Test
+    public void serializedListShouldReadBackEqual() throws IOException {
+        for (int size : new int[]{0, 1, 7, 300}) {
+            KnowsList list = randomList(size, 1000000);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            list.write(new DataOutputStream(bytes));
+
+            KnowsList read = randomList(5, 1000);
+            read.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+            assertEquals(list.size(), read.size());
+            assertEquals(describe(list), describe(read));
+        }
+    }
+
+    /**
+     * What HadoopMergeFriendshipFiles did before KnowsList.merge: gather every relation, sort by target and date,
+     * and keep the first relation per target
+     */
+    private static List<String> sortAndDedup(List<KnowsList> lists) {
+        ArrayList<Knows> knows = new ArrayList<Knows>();
+        for (KnowsList list : lists) {
+            for (Knows k : list) {
+                knows.add(k);
+            }
+        }
+        Collections.sort(knows, new Knows.FullComparator());
+        List<Knows> res = new ArrayList<Knows>();
+        for (Knows k : knows) {
+            if (res.isEmpty() || res.get(res.size() - 1).to().accountId() != k.to().accountId()) {
+                res.add(k);
+            }
+        }
+        return describe(res);
+    }
+
+    @Test
+    public void mergeShouldKeepTheEarliestRelationPerTarget() {
+        for (int run = 0; run < 50; ++run) {
+            List<KnowsList> passes = new ArrayList<KnowsList>();
+            for (int pass = 0; pass < 3; ++pass) {
+                passes.add(randomList(random.nextInt(100), 150));
+            }
+            KnowsList merged = new KnowsList(passes.get(0));
+            int repeated = 0;
+            int total = merged.size();
+            for (int pass = 1; pass < passes.size(); ++pass) {
+                repeated += merged.merge(passes.get(pass));
+                total += passes.get(pass).size();
+            }
+            assertEquals(sortAndDedup(passes), describe(merged));
+            assertEquals(total - merged.size(), repeated);
+        }
+    }
+
+    @Test
+    public void mergeShouldKeepThisListsRelationOnEqualDates() {
+        Knows k = randomKnows(10);
+        Knows other = new Knows(k);
+        other.weight(k.weight() + 1);
+        KnowsList list = new KnowsList();
+        list.add(k);
+        KnowsList otherList = new KnowsList();
+        otherList.add(other);
+
+        assertEquals(1, list.merge(otherList));
+        assertEquals(k.weight(), list.weight(0), 0f);
+    }
+}
@@ -0,0 +1,190 @@
+package ldbc.snb.datagen.parametergenerator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the parameters generated from the factors in parametergenerator/factors against the ones of
+ * paramgenerator/generateparams.py in parametergenerator/expected. The expected files were written by the python
+ * scripts with the bugs listed in InteractiveParameterGenerator fixed, from factors of 400 persons with random
+ * counts, some friend lists missing and some friends without factors.
+ */
+public class InteractiveParameterGeneratorTest {
+
+    private static final int NUM_QUERIES = 14;
+    // number of leading columns of each query not drawn at random: Person, Date0, Duration and Name
+    private static final int[] SELECTED_COLUMNS = {2, 2, 3, 3, 2, 1, 1, 1, 2, 1, 1, 1, 2, 2};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static File resource(String name) throws URISyntaxException {
+        return new File(InteractiveParameterGeneratorTest.class.getResource("/parametergenerator/" + name).toURI());
+    }
+
+    private File generate(File factors, long seed) throws IOException {
+        File output = folder.newFolder();
+        new InteractiveParameterGenerator(seed).run(factors, output);
+        return output;
+    }
+
+    private static File params(File dir, int query) {
+        return new File(dir, "query_" + query + "_param.txt");
+    }
+
+    private static List<String[]> rows(File file) throws IOException {
+        List<String[]> rows = new ArrayList<String[]>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(line.split("\\|"));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> selectedColumns(File file, int query) throws IOException {
+        List<String> rows = new ArrayList<String>();
+        for (String[] row : rows(file)) {
+            rows.add(String.join("|", Arrays.copyOf(row, SELECTED_COLUMNS[query - 1])));
+        }
+        return rows;
+    }
+
+    private static Set<String> column(File file, int column) throws IOException {
+        Set<String> values = new HashSet<String>();
+        List<String[]> rows = rows(file);
+        for (String[] row : rows.subList(1, rows.size())) {
+            values.add(row[column]);
+        }
+        return values;
+    }
+
+    /**
+     * Factor values read from the text file of the fixture, in the order of the activity factors
+     */
+    private static Set<String> activityValues(int section) throws IOException, URISyntaxException {
+        Set<String> values = new HashSet<String>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(resource("factors/m0activityFactors.txt")))) {
+            for (int s = 0; s <= section; ++s) {
+                int count = Integer.parseInt(reader.readLine());
+                for (int i = 0; i < count; ++i) {
+                    String line = reader.readLine();
+                    if (s == section) {
+                        values.add(line.substring(0, line.indexOf(',')));
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void selectedColumnsShouldMatchThePythonGenerator() throws Exception {
+        File output = generate(resource("factors"), 1);
+        for (int query = 1; query <= NUM_QUERIES; ++query) {
+            File expected = params(resource("expected"), query);
+            assertEquals("query " + query, rows(expected).get(0).length, rows(params(output, query)).get(0).length);
+            assertEquals("query " + query, selectedColumns(expected, query), selectedColumns(params(output, query), query));
+        }
+    }
+
+    @Test
+    public void randomColumnsShouldOnlyDependOnTheSeed() throws Exception {
+        File factors = resource("factors");
+        File first = generate(factors, 7);
+        File again = generate(factors, 7);
+        boolean seedChangesOutput = false;
+        for (long seed = 1; seed <= 5; ++seed) {
+            File other = generate(factors, seed);
+            for (int query = 1; query <= NUM_QUERIES; ++query) {
+                assertArrayEquals(Files.readAllBytes(params(first, query).toPath()),
+                        Files.readAllBytes(params(again, query).toPath()));
+                assertEquals(selectedColumns(params(first, query), query), selectedColumns(params(other, query), query));
+                seedChangesOutput |= !Arrays.equals(Files.readAllBytes(params(first, query).toPath()),
+                        Files.readAllBytes(params(other, query).toPath()));
+            }
+
+            Set<String> countries = activityValues(0);
+            assertTrue(countries.containsAll(column(params(other, 3), 3)));
+            assertTrue(countries.containsAll(column(params(other, 3), 4)));
+            assertTrue(countries.containsAll(column(params(other, 11), 1)));
+            for (String[] row : rows(params(other, 3)).subList(1, rows(params(other, 3)).size())) {
+                assertNotEquals(row[3], row[4]);
+            }
+            assertTrue(activityValues(2).containsAll(column(params(other, 6), 1)));
+            assertTrue(activityValues(1).containsAll(column(params(other, 12), 1)));
+            for (String hs : column(params(other, 10), 1)) {
+                assertTrue(Integer.parseInt(hs) >= 1 && Integer.parseInt(hs) <= 12);
+            }
+            for (String year : column(params(other, 11), 2)) {
+                assertTrue(Integer.parseInt(year) >= 1998 && Integer.parseInt(year) <= 2012);
+            }
+        }
+        assertTrue(seedChangesOutput);
+    }
+
+    /**
+     * Writes the text person factors in the format of FactorTable.writeBinaryPersonFactors
+     */
+    private static void writeBinaryPersonFactors(File text, File binary) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(text));
+             DataOutputStream out = new DataOutputStream(new FileOutputStream(binary))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                out.writeLong(Long.parseLong(fields[0]));
+                out.writeUTF(fields[1]);
+                out.writeInt(7);
+                for (int i = 2; i < 9; ++i) {
+                    out.writeLong(Long.parseLong(fields[i]));
+                }
+                int numMonths = (fields.length - 9) / 2;
+                out.writeInt(numMonths);
+                for (int i = 9; i < fields.length; ++i) {
+                    out.writeLong(Long.parseLong(fields[i]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void binaryPersonFactorsShouldGiveTheSameParameters() throws Exception {
+        File factors = resource("factors");
+        File binaryFactors = folder.newFolder();
+        for (String name : new String[]{"m0activityFactors.txt", "m0friendList0.csv"}) {
+            Files.copy(new File(factors, name).toPath(), new File(binaryFactors, name).toPath());
+        }
+        writeBinaryPersonFactors(new File(factors, "m0personFactors.txt"), new File(binaryFactors, "m0personFactors.bin"));
+        assertFalse(new File(binaryFactors, "m0personFactors.txt").exists());
+
+        File text = generate(factors, 1);
+        File binary = generate(binaryFactors, 1);
+        for (int query = 1; query <= NUM_QUERIES; ++query) {
+            assertEquals(new String(Files.readAllBytes(params(text, query).toPath()), StandardCharsets.UTF_8),
+                    new String(Files.readAllBytes(params(binary, query).toPath()), StandardCharsets.UTF_8));
+        }
+    }
+}
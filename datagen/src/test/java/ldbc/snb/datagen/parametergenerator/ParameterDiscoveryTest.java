@@ -0,0 +1,68 @@
+package ldbc.snb.datagen.parametergenerator;
+
+import ldbc.snb.datagen.parametergenerator.ParameterDiscovery.Row;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the selected parameters against the ones of paramgenerator/discoverparams.py, with its window bugs fixed
+ */
+public class ParameterDiscoveryTest {
+
+    private static List<Row<String>> rows(Object... keysAndValues) {
+        List<Row<String>> rows = new ArrayList<Row<String>>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            rows.add(new Row<String>((String) keysAndValues[i], (long[]) keysAndValues[i + 1]));
+        }
+        return rows;
+    }
+
+    private static long[] v(long... values) {
+        return values;
+    }
+
+    private static List<String> keys(List<Row<String>> rows) {
+        List<String> keys = new ArrayList<String>();
+        for (Row<String> row : rows) {
+            keys.add(row.key);
+        }
+        return keys;
+    }
+
+    @Test
+    public void firstWindowOfARangeShouldStartAtTheRange() {
+        // e to h tie on the first factor, and discoverparams.py selected a and b from the top instead of e and f
+        List<Row<String>> rows = rows("a", v(90, 1), "b", v(80, 1), "c", v(70, 1), "d", v(60, 1), "e", v(50, 9),
+                "f", v(50, 9), "g", v(50, 3), "h", v(50, 1), "i", v(40, 1), "j", v(30, 1));
+        assertEquals(Arrays.asList("e", "f"), ParameterDiscovery.generate(rows, 0.2));
+    }
+
+    @Test
+    public void lastUnmergedWindowShouldBeKept() {
+        // a-b and e-f tie on the first factor, and discoverparams.py dropped e-f, the flat one on the second factor
+        List<Row<String>> rows = rows("a", v(90, 5), "b", v(90, 1), "c", v(70, 1), "d", v(60, 1), "e", v(50, 7),
+                "f", v(50, 7), "g", v(40, 1), "h", v(30, 1), "i", v(20, 1), "j", v(10, 1));
+        assertEquals(Arrays.asList("e", "f"), ParameterDiscovery.generate(rows, 0.2));
+    }
+
+    @Test
+    public void windowWithTheLowestDeviationShouldBeSelected() {
+        List<Row<String>> rows = rows("x", v(5), "y", v(3), "z", v(40), "w", v(12), "v", v(12), "u", v(11));
+        assertEquals(Arrays.asList("w", "v", "u"), ParameterDiscovery.generate(rows, 0.5));
+        assertEquals(Arrays.asList("z"), ParameterDiscovery.generate(rows, 0.01));
+        assertEquals(new ArrayList<String>(), ParameterDiscovery.generate(new ArrayList<Row<String>>(), 0.5));
+    }
+
+    @Test
+    public void factorsShouldBeDividedAtTheSplitPortion() {
+        List<List<Row<String>>> divided = ParameterDiscovery.divideFactors(
+                rows("t3", v(15), "t1", v(50), "t4", v(5), "t2", v(30)), 0.7);
+        assertEquals(Arrays.asList("t1"), keys(divided.get(0)));
+        assertEquals(Arrays.asList("t2", "t3", "t4"), keys(divided.get(1)));
+    }
+}
@@ -0,0 +1,62 @@
+package ldbc.snb.datagen.parametergenerator;
+
+import ldbc.snb.datagen.parametergenerator.TimeParameters.Strategy;
+import ldbc.snb.datagen.parametergenerator.TimeParameters.TimeParameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the date parameters against the ones of paramgenerator/timeparameters.py, run with the start year set
+ */
+public class TimeParametersTest {
+
+    private static final long[][] ODD = {{3, 0, 5, 7, 0, 2}, {5, 1, 1, 1, 1, 1}, {0, 4, 0, 9, 0, 0}};
+    private static final long[][] EVEN = {{3, 0, 5, 7, 0, 2}, {5, 1, 1, 1, 1, 1}, {0, 4, 0, 9, 0, 0}, {2, 2, 0, 0, 0, 8}};
+    private static final long[][] TWO_YEARS = {{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 4, 6, 0, 3},
+            {2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2}, {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 9}};
+
+    private static List<String> find(long[][] counts, Strategy strategy) {
+        List<String> result = new ArrayList<String>();
+        for (TimeParameter t : new TimeParameters(2011).findTimeParameters(Arrays.asList(counts), TimeParameters.LAST_MONTHS, strategy)) {
+            result.add(t.year + "-" + t.month + "-" + t.day + (strategy == Strategy.WITH_MEDIAN ? " " + t.duration : ""));
+        }
+        return result;
+    }
+
+    @Test
+    public void beforeMedianShouldMatchTimeParameters() {
+        // the median of an odd number of persons is an integer in python, which rounds the day up
+        assertEquals(Arrays.asList("2011-3-23", "2011-3-28", "2011-4-10"), find(ODD, Strategy.BEFORE_MEDIAN));
+        assertEquals(Arrays.asList("2011-3-11", "2011-1-28", "2011-4-3", "2011-6-3"), find(EVEN, Strategy.BEFORE_MEDIAN));
+        assertEquals(Arrays.asList("2012-1-24", "2011-5-14", "2012-3-28"), find(TWO_YEARS, Strategy.BEFORE_MEDIAN));
+    }
+
+    @Test
+    public void withMedianShouldMatchTimeParameters() {
+        assertEquals(Arrays.asList("2011-3-1 35", "2011-5-1 112", "2011-4-1 63"), find(ODD, Strategy.WITH_MEDIAN));
+        assertEquals(Arrays.asList("2011-3-1 46", "2011-5-1 84", "2011-4-1 84", "2011-2-1 42"), find(EVEN, Strategy.WITH_MEDIAN));
+        assertEquals(Arrays.asList("2011-12-1 28", "2011-8-1 56", "2012-3-1 63"), find(TWO_YEARS, Strategy.WITH_MEDIAN));
+    }
+
+    @Test
+    public void afterMedianShouldMatchTimeParameters() {
+        assertEquals(Arrays.asList("2011-3-5", "2011-1-1", "2011-2-1"), find(ODD, Strategy.AFTER_MEDIAN));
+        assertEquals(Arrays.asList("2011-3-8", "2011-1-1", "2011-2-3", "2011-1-1"), find(EVEN, Strategy.AFTER_MEDIAN));
+        assertEquals(Arrays.asList("2012-1-1", "2011-11-14", "2012-3-1"), find(TWO_YEARS, Strategy.AFTER_MEDIAN));
+    }
+
+    @Test
+    public void personsWithoutActivityShouldGetDatesAtTheStartYear() {
+        // timeparameters.py gave no date, year 0 or its default start year 2010 to these
+        long[][] counts = {{0, 0, 0, 0, 0, 0}, {1, 2, 3, 0, 0, 0}};
+        assertEquals(Arrays.asList("2011-1-28", "2011-1-1"), find(counts, Strategy.BEFORE_MEDIAN));
+        assertEquals(Arrays.asList("2011-1-1 0", "2011-2-1 56"), find(counts, Strategy.WITH_MEDIAN));
+        assertEquals(Arrays.asList("2011-1-1", "2011-3-1"), find(counts, Strategy.AFTER_MEDIAN));
+        assertEquals(Arrays.asList("2011-1-1 0"), find(new long[][]{{0, 0, 0}}, Strategy.WITH_MEDIAN));
+    }
+}
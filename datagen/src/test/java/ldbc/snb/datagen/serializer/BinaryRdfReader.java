@@ -0,0 +1,123 @@
+package ldbc.snb.datagen.serializer;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.serializer.formatter.IsoDateTimeEncoder;
+import ldbc.snb.datagen.vocabulary.XSD;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoder of the partitions written by BinaryRdfWriter, giving every term in the Turtle text TurtleWriter writes for it
+ */
+public class BinaryRdfReader {
+
+    private final DataInputStream in_;
+    private final List<String> dictionary_ = new ArrayList<String>();
+    private final Map<String, String> namespaces_ = new LinkedHashMap<String, String>();
+    private final List<String[]> triples_ = new ArrayList<String[]>();
+    private final IsoDateTimeEncoder dateTimeEncoder_ = IsoDateTimeEncoder.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+
+    public BinaryRdfReader(byte[] partition) throws IOException {
+        in_ = new DataInputStream(new ByteArrayInputStream(partition));
+        byte[] magic = new byte[8];
+        in_.readFully(magic);
+        if (!Arrays.equals("LDBCRDF1".getBytes(StandardCharsets.US_ASCII), magic)) {
+            throw new IOException("Not a binary RDF partition");
+        }
+        int record;
+        while ((record = in_.read()) != -1) {
+            if (record == 0) {
+                String prefix = readString();
+                namespaces_.put(prefix, readString());
+            } else if (record == 1) {
+                String subject = readTerm();
+                String predicate = readTerm();
+                triples_.add(new String[]{subject, predicate, readTerm()});
+            } else {
+                throw new IOException("Unknown record " + record);
+            }
+        }
+    }
+
+    /**
+     * @return namespaces by prefix, in the order they were declared
+     */
+    public Map<String, String> namespaces() {
+        return namespaces_;
+    }
+
+    /**
+     * @return subject, predicate and object of every triple, in the order they were written
+     */
+    public List<String[]> triples() {
+        return triples_;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in_.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private long readZigZag() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[(int) readVarLong()];
+        in_.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readTerm() throws IOException {
+        int term = in_.readUnsignedByte();
+        switch (term) {
+            case 0:
+                String entry = readString();
+                dictionary_.add(entry);
+                return entry;
+            case 1:
+                return dictionary_.get((int) readVarLong());
+            case 2:
+                String prefix = readTerm();
+                int digits = in_.readUnsignedByte();
+                return prefix + String.format("%0" + digits + "d", readVarLong());
+            case 3:
+                if (triples_.isEmpty()) {
+                    throw new IOException("No previous subject");
+                }
+                return triples_.get(triples_.size() - 1)[0];
+            case 4:
+                return "\"" + readString() + "\"";
+            case 5:
+                String datatype = readTerm();
+                return "\"" + readString() + "\"^^" + datatype;
+            case 6:
+                String longType = readTerm();
+                return "\"" + readZigZag() + "\"^^" + longType;
+            case 7:
+                ByteArrayBuilder dateTime = new ByteArrayBuilder(32);
+                dateTimeEncoder_.encode(readZigZag(), dateTime);
+                return "\"" + new String(dateTime.toByteArray(), StandardCharsets.US_ASCII) + "\"^^" + XSD.DateTime;
+            case 8:
+                return "\"" + Dictionaries.dates.formatDate(readZigZag()) + "\"^^" + XSD.Date;
+            default:
+                throw new IOException("Unknown term " + term);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package ldbc.snb.datagen.serializer;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.generator.DatagenParams;
+import ldbc.snb.datagen.generator.DateGenerator;
+import ldbc.snb.datagen.vocabulary.DBP;
+import ldbc.snb.datagen.vocabulary.RDF;
+import ldbc.snb.datagen.vocabulary.SN;
+import ldbc.snb.datagen.vocabulary.SNTAG;
+import ldbc.snb.datagen.vocabulary.SNVOC;
+import ldbc.snb.datagen.vocabulary.XSD;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the triples decoded from the binary RDF partitions are the ones of the Turtle partitions, written with
+ * the same calls
+ */
+public class BinaryRdfWriterTest {
+
+    private static final int NUM_PARTITIONS = 3;
+    private static final int NUM_ENTITIES = 2000;
+    private static final String[] NAMES = {"Rome", "São_Paulo", "Ōsaka", "Zürich"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initializeDates() {
+        Configuration conf = new Configuration();
+        conf.set("ldbc.snb.datagen.serializer.dateFormatter", "ldbc.snb.datagen.serializer.formatter.StringDateFormatter");
+        Dictionaries.dates = new DateGenerator(conf, new GregorianCalendar(2010, 0, 1),
+                new GregorianCalendar(2013, 0, 1), DatagenParams.alpha, DatagenParams.deltaTime);
+    }
+
+    /**
+     * Writes entities covering every kind of term, with ids and dates of all sizes and repeated dictionary entries
+     */
+    private static void writeEntities(RdfWriter writer, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < NUM_ENTITIES; ++i) {
+            long id = random.nextInt(4) == 0 ? random.nextLong() & Long.MAX_VALUE : random.nextInt(100000);
+            long date = 1262304000000L + (random.nextLong() % 200000000000L);
+            String name = NAMES[random.nextInt(NAMES.length)];
+            switch (random.nextInt(4)) {
+                case 0:
+                    writer.subject(SN.PERSON, id)
+                            .predicate(RDF.type).iri(SNVOC.Person)
+                            .predicate(SNVOC.id).typed(id, XSD.Long)
+                            .predicate(SNVOC.firstName).literal(name + " " + i)
+                            .predicate(SNVOC.birthday).date(date)
+                            .predicate(SNVOC.creationDate).dateTime(date)
+                            .predicate(SNVOC.locatedIn).iri(DBP.NAMESPACE, name)
+                            .predicate(SNVOC.hasInterest).iri(SNTAG.fullPrefixed(name))
+                            .predicate(SNVOC.knows).iri(SN.PERSON, random.nextInt(1000))
+                            .end();
+                    break;
+                case 1:
+                    writer.statement(SN.FORUM, id).predicate(SNVOC.hasMember).iri(SN.MEMBERSHIP, i).end();
+                    break;
+                case 2:
+                    writer.statement(SNTAG.fullPrefixed(name)).predicate(SNVOC.url).iri(DBP.NAMESPACE, name).end();
+                    break;
+                default:
+                    writer.subject(SN.COMPANY, random.nextInt(1000))
+                            .predicate(SNVOC.workFrom).typed(Integer.toString(random.nextInt(30) + 1990), XSD.Int)
+                            .predicate(SNVOC.creationDate).dateTime(-date)
+                            .end();
+            }
+            writer.endEntry();
+        }
+    }
+
+    private static class TurtleParser {
+        private final String text;
+        private int position = 0;
+
+        TurtleParser(String text) {
+            this.text = text;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                ++position;
+            }
+        }
+
+        private String term() {
+            int start = position;
+            if (text.charAt(position) == '"') {
+                position = text.indexOf('"', position + 1) + 1;
+            }
+            while (!Character.isWhitespace(text.charAt(position))) {
+                ++position;
+            }
+            return text.substring(start, position);
+        }
+
+        Map<String, String> namespaces() {
+            Map<String, String> namespaces = new HashMap<String, String>();
+            skipSpaces();
+            while (text.startsWith("@prefix ", position)) {
+                int end = text.indexOf(" .\n", position);
+                String[] fields = text.substring(position, end).split(" ");
+                namespaces.put(fields[1], fields[2].substring(1, fields[2].length() - 1));
+                position = end + 3;
+                skipSpaces();
+            }
+            return namespaces;
+        }
+
+        List<String[]> triples() {
+            List<String[]> triples = new ArrayList<String[]>();
+            skipSpaces();
+            while (position < text.length()) {
+                String subject = term();
+                char separator;
+                do {
+                    skipSpaces();
+                    String predicate = term();
+                    skipSpaces();
+                    triples.add(new String[]{subject, predicate, term()});
+                    skipSpaces();
+                    separator = text.charAt(position++);
+                } while (separator == ';');
+                assertEquals('.', separator);
+                skipSpaces();
+            }
+            return triples;
+        }
+    }
+
+    private static List<String> lines(List<String[]> triples) {
+        List<String> lines = new ArrayList<String>();
+        for (String[] triple : triples) {
+            lines.add(triple[0] + " " + triple[1] + " " + triple[2]);
+        }
+        return lines;
+    }
+
+    @Test
+    public void decodedTriplesShouldBeTheTurtleTriples() throws IOException {
+        File dir = folder.newFolder();
+        RdfWriter turtle = new TurtleWriter(dir.getAbsolutePath(), "entities", NUM_PARTITIONS, false);
+        turtle.writeNamespaces();
+        writeEntities(turtle, 42);
+        turtle.close();
+        RdfWriter binary = new BinaryRdfWriter(dir.getAbsolutePath(), "entities", NUM_PARTITIONS, false);
+        binary.writeNamespaces();
+        writeEntities(binary, 42);
+        binary.close();
+
+        int numTriples = 0;
+        for (int partition = 0; partition < NUM_PARTITIONS; ++partition) {
+            TurtleParser parser = new TurtleParser(new String(Files.readAllBytes(
+                    new File(dir, "entities_" + partition + ".ttl").toPath()), StandardCharsets.UTF_8));
+            File binaryFile = new File(dir, "entities_" + partition + ".rdfbin");
+            BinaryRdfReader reader = new BinaryRdfReader(Files.readAllBytes(binaryFile.toPath()));
+
+            assertEquals(parser.namespaces(), reader.namespaces());
+            List<String> expected = lines(parser.triples());
+            assertEquals(expected, lines(reader.triples()));
+            numTriples += expected.size();
+            assertTrue("dictionary encoding should be smaller than Turtle",
+                    binaryFile.length() < new File(dir, "entities_" + partition + ".ttl").length());
+        }
+        assertTrue(numTriples > NUM_ENTITIES);
+    }
+}
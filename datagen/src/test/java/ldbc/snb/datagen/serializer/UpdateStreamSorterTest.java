@@ -0,0 +1,270 @@
+package ldbc.snb.datagen.serializer;
+
+import ldbc.snb.datagen.hadoop.UpdateEventKey;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the streams of the in-reducer sort against the order and the rows of the sort job, with and without spilled
+ * runs
+ */
+public class UpdateStreamSorterTest {
+
+    private static final int REDUCER_ID = 3;
+    private static final int NUM_PARTITIONS = 2;
+    private static final int NUM_EVENTS = 600;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Random random = new Random(42);
+
+    private static class Event {
+        final int partition;
+        final long date;
+        final long dependantDate;
+        final int type;
+        final List<String> fields;
+
+        Event(int partition, long date, long dependantDate, int type, List<String> fields) {
+            this.partition = partition;
+            this.date = date;
+            this.dependantDate = dependantDate;
+            this.type = type;
+            this.fields = fields;
+        }
+
+        /**
+         * @return the row as UpdateEventSerializer writes it for the sort job
+         */
+        String row() {
+            StringBuilder row = new StringBuilder();
+            row.append(date).append('|').append(dependantDate).append('|').append(type);
+            for (String field : fields) {
+                row.append('|').append(field);
+            }
+            return row.append('\n').toString();
+        }
+    }
+
+    /**
+     * @param dates number of distinct dates, few dates give many events with equal keys
+     */
+    private List<Event> randomEvents(int dates) {
+        List<Event> events = new ArrayList<Event>();
+        for (int i = 0; i < NUM_EVENTS; ++i) {
+            long date = 1000000L + random.nextInt(dates);
+            List<String> fields = new ArrayList<String>();
+            fields.add(Integer.toString(i));
+            int numFields = random.nextInt(6);
+            for (int f = 0; f < numFields; ++f) {
+                fields.add(random.nextBoolean() ? "" : "f" + random.nextInt(1000) + ";é,x");
+            }
+            events.add(new Event(random.nextInt(NUM_PARTITIONS), date, date - random.nextInt(3), 1 + random.nextInt(8), fields));
+        }
+        return events;
+    }
+
+    private Configuration conf(File localDir) {
+        Configuration conf = new Configuration();
+        conf.set(UpdateStreamSorter.LOCAL_DIRS, localDir.getAbsolutePath());
+        return conf;
+    }
+
+    /**
+     * Sorts the events, leaving the runs spilled before close in runs
+     *
+     * @return directory of the streams
+     */
+    private File sort(List<Event> events, boolean binary, long bufferSize, List<String> runs) throws IOException {
+        File streams = folder.newFolder();
+        File localDir = folder.newFolder();
+        UpdateStreamSorter sorter = new UpdateStreamSorter(conf(localDir), streams.getAbsolutePath() + "/updateStream",
+                "forum", REDUCER_ID, NUM_PARTITIONS, binary, false, bufferSize);
+        for (Event event : events) {
+            sorter.add(event.partition, event.date, event.dependantDate, event.type, event.fields);
+        }
+        runs.addAll(filesIn(localDir));
+        sorter.close();
+        assertEquals("runs should be deleted on close", Collections.<String>emptyList(), filesIn(localDir));
+        return streams;
+    }
+
+    private File sort(List<Event> events, boolean binary, long bufferSize) throws IOException {
+        return sort(events, binary, bufferSize, new ArrayList<String>());
+    }
+
+    private static List<String> filesIn(File directory) {
+        List<String> files = new ArrayList<String>();
+        File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    files.addAll(filesIn(child));
+                } else {
+                    files.add(child.getAbsolutePath());
+                }
+            }
+        }
+        return files;
+    }
+
+    private static File stream(File streams, int partition, boolean binary) {
+        return new File(streams, "updateStream_" + REDUCER_ID + "_" + partition + "_forum" + (binary ? ".bin" : ".csv"));
+    }
+
+    /**
+     * @return the rows of the sort job, which orders the events of a partition by UpdateEventKey
+     */
+    private static String sortJobRows(List<Event> events, int partition) {
+        List<Event> partitionEvents = new ArrayList<Event>();
+        for (Event event : events) {
+            if (event.partition == partition) {
+                partitionEvents.add(event);
+            }
+        }
+        Collections.sort(partitionEvents, new Comparator<Event>() {
+            public int compare(Event a, Event b) {
+                return new UpdateEventKey(a.date, REDUCER_ID, a.partition).compareTo(
+                        new UpdateEventKey(b.date, REDUCER_ID, b.partition));
+            }
+        });
+        StringBuilder rows = new StringBuilder();
+        for (Event event : partitionEvents) {
+            rows.append(event.row());
+        }
+        return rows.toString();
+    }
+
+    /**
+     * @return the rows of a binary stream, as they are written in csv
+     */
+    private static String binaryRows(File stream) throws IOException {
+        StringBuilder rows = new StringBuilder();
+        DataInputStream in = new DataInputStream(new FileInputStream(stream));
+        try {
+            byte[] magic = new byte[UpdateStreamSorter.MAGIC.length];
+            in.readFully(magic);
+            assertArrayEquals(UpdateStreamSorter.MAGIC, magic);
+            while (true) {
+                long date;
+                try {
+                    date = in.readLong();
+                } catch (EOFException e) {
+                    return rows.toString();
+                }
+                rows.append(date).append('|').append(in.readLong()).append('|').append(in.readInt());
+                int numFields = in.readInt();
+                for (int f = 0; f < numFields; ++f) {
+                    byte[] field = new byte[in.readInt()];
+                    in.readFully(field);
+                    rows.append('|').append(new String(field, StandardCharsets.UTF_8));
+                }
+                rows.append('\n');
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void eventsShouldBeOrderedByDateAndDependantDateKeepingTheOrderOfEqualKeys() throws IOException {
+        List<Event> events = randomEvents(50);
+        File streams = sort(events, false, Long.MAX_VALUE);
+        for (int partition = 0; partition < NUM_PARTITIONS; ++partition) {
+            List<Event> expected = new ArrayList<Event>();
+            for (Event event : events) {
+                if (event.partition == partition) {
+                    expected.add(event);
+                }
+            }
+            // Collections.sort is stable
+            Collections.sort(expected, new Comparator<Event>() {
+                public int compare(Event a, Event b) {
+                    if (a.date != b.date) return a.date < b.date ? -1 : 1;
+                    if (a.dependantDate != b.dependantDate) return a.dependantDate < b.dependantDate ? -1 : 1;
+                    return 0;
+                }
+            });
+            StringBuilder rows = new StringBuilder();
+            for (Event event : expected) {
+                rows.append(event.row());
+            }
+            assertEquals(rows.toString(), read(stream(streams, partition, false)));
+        }
+    }
+
+    @Test
+    public void spilledRunsShouldMergeToTheSameStreams() throws IOException {
+        List<Event> events = randomEvents(50);
+        for (boolean binary : new boolean[]{false, true}) {
+            File inMemory = sort(events, binary, Long.MAX_VALUE);
+            List<String> someRuns = new ArrayList<String>();
+            File someSpills = sort(events, binary, 4096, someRuns);
+            List<String> manyRuns = new ArrayList<String>();
+            File spillPerEvent = sort(events, binary, 1, manyRuns);
+            assertTrue(someRuns.size() > NUM_PARTITIONS);
+            assertEquals(NUM_EVENTS, manyRuns.size());
+            for (int partition = 0; partition < NUM_PARTITIONS; ++partition) {
+                byte[] expected = Files.readAllBytes(stream(inMemory, partition, binary).toPath());
+                assertArrayEquals(expected, Files.readAllBytes(stream(someSpills, partition, binary).toPath()));
+                assertArrayEquals(expected, Files.readAllBytes(stream(spillPerEvent, partition, binary).toPath()));
+            }
+        }
+    }
+
+    @Test
+    public void streamsShouldBeByteIdenticalToTheSortJob() throws IOException {
+        // the sort job orders by date only, so its order of events with equal dates is not defined
+        List<Event> events = randomEvents(Integer.MAX_VALUE);
+        List<Long> dates = new ArrayList<Long>();
+        for (Event event : events) {
+            dates.add(event.date);
+        }
+        assertEquals(NUM_EVENTS, new HashSet<Long>(dates).size());
+        for (long bufferSize : new long[]{Long.MAX_VALUE, 4096}) {
+            File csvStreams = sort(events, false, bufferSize);
+            File binaryStreams = sort(events, true, bufferSize);
+            for (int partition = 0; partition < NUM_PARTITIONS; ++partition) {
+                String expected = sortJobRows(events, partition);
+                assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8),
+                        Files.readAllBytes(stream(csvStreams, partition, false).toPath()));
+                assertEquals(expected, binaryRows(stream(binaryStreams, partition, true)));
+            }
+        }
+    }
+
+    @Test
+    public void partitionsWithoutEventsShouldHaveNoStream() throws IOException {
+        List<Event> events = Arrays.asList(new Event(1, 5, 4, 2, Arrays.asList("1", "2", "3")));
+        File streams = sort(events, false, Long.MAX_VALUE);
+        assertFalse(stream(streams, 0, false).exists());
+        assertEquals("5|4|2|1|2|3\n", read(stream(streams, 1, false)));
+    }
+}
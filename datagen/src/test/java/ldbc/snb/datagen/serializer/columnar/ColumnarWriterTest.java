@@ -0,0 +1,86 @@
+package ldbc.snb.datagen.serializer.columnar;
+
+import com.ldbc.driver.columnar.ColumnarFileReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Round trip of ColumnarWriter through the reader of the driver
+ */
+public class ColumnarWriterTest {
+
+    private static final int NUM_ROWS = ColumnarWriter.ROW_GROUP_SIZE + 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String name(int row) {
+        return row % 7 == 0 ? "Jürgen " + (row % 5) : row % 11 == 0 ? "" : "Jan " + (row % 3);
+    }
+
+    private File write(boolean compressed) throws IOException {
+        File dir = folder.newFolder();
+        ColumnarWriter writer = new ColumnarWriter(dir.getAbsolutePath(), "person_0", compressed,
+                ColumnarWriter.columns("id:LONG", "firstName:STRING", "creationDate:LONG"));
+        for (int row = 0; row < NUM_ROWS; ++row) {
+            writer.add(row).add(row == 1 ? null : name(row)).add(-row * 1000L);
+            writer.endRow();
+        }
+        writer.close();
+        return new File(dir, compressed ? "person_0.col.gz" : "person_0.col");
+    }
+
+    private static void assertRows(File file) throws IOException {
+        try (ColumnarFileReader reader = new ColumnarFileReader(file)) {
+            assertEquals(3, reader.columnCount());
+            assertEquals("creationDate", reader.columnName(2));
+            assertEquals(ColumnarFileReader.ColumnType.STRING, reader.columnType(1));
+            int row = 0;
+            while (reader.nextRowGroup()) {
+                int rowCount = reader.rowCount();
+                assertEquals(16 + 8 * rowCount, reader.chunkLength(0));
+                assertEquals(row, reader.min(0));
+                assertEquals(row + rowCount - 1, reader.max(0));
+                assertEquals(-(row + rowCount - 1) * 1000L, reader.min(2));
+                for (int i = 0; i < rowCount; ++i, ++row) {
+                    assertEquals(row, reader.getLong(0, i));
+                    assertEquals(row == 1 ? "" : name(row), reader.getString(1, i));
+                    assertEquals(-row * 1000L, reader.getLong(2, i));
+                }
+            }
+            assertEquals(NUM_ROWS, row);
+        }
+    }
+
+    @Test
+    public void rowsShouldBeReadBackByTheDriver() throws IOException {
+        assertRows(write(false));
+    }
+
+    @Test
+    public void compressedRowsShouldBeReadBackByTheDriver() throws IOException {
+        assertRows(write(true));
+    }
+
+    @Test
+    public void chunkLengthsShouldLetTheDriverSkipColumns() throws IOException {
+        try (ColumnarFileReader reader = new ColumnarFileReader(write(false))) {
+            reader.selectColumns(2);
+            assertTrue(reader.nextRowGroup());
+            assertEquals(ColumnarWriter.ROW_GROUP_SIZE, reader.rowCount());
+            assertEquals(-5000L, reader.getLong(2, 5));
+            assertTrue(reader.nextRowGroup());
+            assertEquals(10, reader.rowCount());
+            assertEquals(-(ColumnarWriter.ROW_GROUP_SIZE + 9) * 1000L, reader.getLong(2, 9));
+            assertFalse(reader.nextRowGroup());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ldbc.snb.datagen.serializer.formatter;
+
+import ldbc.snb.datagen.serializer.ByteArrayBuilder;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the encoder against the SimpleDateFormat patterns it replaces
+ */
+public class IsoDateTimeEncoderTest {
+
+    private static final String[] PATTERNS = {
+            "yyyy-MM-dd'T'HH:mm:ss.SSSZ",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+            "yyyy-MM-dd'T'HH:mm:ss.SSS",
+            "yyyy-MM-dd HH:mm:ss.SSS"
+    };
+
+    private static final long ONE_DAY = 24L * 60L * 60L * 1000L;
+    // 1582-10-15, the first day SimpleDateFormat formats in the Gregorian calendar
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+    // 10000-01-01
+    private static final long END_OF_YEAR_9999 = 253402300800000L;
+
+    private static SimpleDateFormat gmt(String pattern) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format;
+    }
+
+    private static List<Long> dates() {
+        List<Long> dates = new ArrayList<Long>();
+        long[] days = {
+                0L,                                 // epoch
+                -1L,                                // the day before the epoch
+                -25567L,                            // 1900-01-01
+                -25508L,                            // 1900-03-01, 1900 is not a leap year
+                11016L,                             // 2000-02-29
+                11017L,                             // 2000-03-01
+                15399L,                             // 2012-02-29
+                GREGORIAN_CUTOVER / ONE_DAY,
+                END_OF_YEAR_9999 / ONE_DAY - 1
+        };
+        // every millisecond of the day padding differs on, around the start and the end of each day
+        long[] millis = {0, 1, 9, 10, 99, 100, 999, 1000, 59999, 60000, 3599999, 3600000, ONE_DAY - 1};
+        for (long day : days) {
+            for (long m : millis) {
+                dates.add(day * ONE_DAY + m);
+            }
+        }
+        dates.add(-1L);
+        dates.add(-999L);
+        dates.add(-1000L);
+        dates.add(-1001L);
+        dates.add(GREGORIAN_CUTOVER);
+        dates.add(END_OF_YEAR_9999 - 1);
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; ++i) {
+            dates.add(GREGORIAN_CUTOVER + (long) (random.nextDouble() * (END_OF_YEAR_9999 - GREGORIAN_CUTOVER)));
+        }
+        // the dates of the generator, in order, as serializers encode them
+        long date = 1262304000000L;
+        for (int i = 0; i < 20000; ++i) {
+            date += random.nextInt(20000000);
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    @Test
+    public void encodeShouldMatchSimpleDateFormat() {
+        for (String pattern : PATTERNS) {
+            SimpleDateFormat format = gmt(pattern);
+            IsoDateTimeEncoder encoder = IsoDateTimeEncoder.forPattern(pattern);
+            assertNotNull(pattern, encoder);
+            ByteArrayBuilder out = new ByteArrayBuilder(8);
+            for (long date : dates()) {
+                out.reset();
+                encoder.encode(date, out);
+                assertEquals(pattern + " " + date, format.format(new Date(date)), out.toString());
+            }
+        }
+    }
+
+    @Test
+    public void encodeDateShouldMatchSimpleDateFormat() {
+        SimpleDateFormat format = gmt("yyyy-MM-dd");
+        IsoDateTimeEncoder encoder = new IsoDateTimeEncoder('T', "");
+        ByteArrayBuilder out = new ByteArrayBuilder(8);
+        for (long date : dates()) {
+            out.reset();
+            encoder.encodeDate(date, out);
+            assertEquals(Long.toString(date), format.format(new Date(date)), out.toString());
+        }
+    }
+
+    @Test
+    public void encodeDateAndEncodeShouldShareTheCachedDay() {
+        IsoDateTimeEncoder encoder = IsoDateTimeEncoder.forPattern("yyyy-MM-dd HH:mm:ss.SSS");
+        ByteArrayBuilder out = new ByteArrayBuilder(8);
+        encoder.encodeDate(0, out);
+        out.append((byte) '|');
+        encoder.encode(1, out);
+        out.append((byte) '|');
+        encoder.encodeDate(-1, out);
+        assertEquals("1970-01-01|1970-01-01 00:00:00.001|1969-12-31", out.toString());
+    }
+
+    @Test
+    public void otherPatternsShouldNotBeSupported() {
+        assertNull(IsoDateTimeEncoder.forPattern("yyyy-MM-dd"));
+        assertNull(IsoDateTimeEncoder.forPattern("dd/MM/yyyy HH:mm"));
+        assertNull(IsoDateTimeEncoder.forPattern("yyyy-MM-dd'T'HH:mm:ss"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void yearsAfter9999ShouldBeRejected() {
+        new IsoDateTimeEncoder('T', "").encode(END_OF_YEAR_9999, new ByteArrayBuilder(8));
+    }
+}
@@ -0,0 +1,293 @@
+package ldbc.snb.datagen.util;
+
+import ldbc.snb.datagen.dictionary.Dictionaries;
+import ldbc.snb.datagen.generator.DatagenParams;
+import ldbc.snb.datagen.generator.DateGenerator;
+import ldbc.snb.datagen.objects.Comment;
+import ldbc.snb.datagen.objects.ForumMembership;
+import ldbc.snb.datagen.objects.Knows;
+import ldbc.snb.datagen.objects.Like;
+import ldbc.snb.datagen.objects.Message;
+import ldbc.snb.datagen.objects.Person;
+import ldbc.snb.datagen.objects.Photo;
+import ldbc.snb.datagen.objects.Post;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the person factors of FactorTable against per person counts kept in objects, as the former
+ * PersonCounts map did, and the binary person factors against the text ones
+ */
+public class FactorTableTest {
+
+    private static final String[] NAMES = {"Ana", "Bo", "Chen", "Dmitri", "Eva", "Farid", "Gu"};
+    private static final int NUM_COUNTRIES = 3;
+    // 2010-01-01 and 2013-07-01, the last months fall out of the NUM_MONTHS buckets
+    private static final long FROM = 1262304000000L;
+    private static final long TO = 1372636800000L;
+
+    @BeforeClass
+    public static void initializeDictionaries() {
+        DatagenParams.updateStreams = false;
+        Dictionaries.dates = new DateGenerator(new Configuration(), new GregorianCalendar(2010, 0, 1),
+                new GregorianCalendar(2013, 0, 1), DatagenParams.alpha, DatagenParams.deltaTime);
+    }
+
+    private static class Counts {
+        final long id;
+        String name;
+        int country;
+        long friends, posts, likes, tags, forums, workPlaces, comments;
+        final long[] messagesPerMonth = new long[FactorTable.NUM_MONTHS];
+        final long[] forumsPerMonth = new long[FactorTable.NUM_MONTHS];
+
+        Counts(long id) {
+            this.id = id;
+        }
+    }
+
+    private static int month(long date) {
+        ZonedDateTime time = Instant.ofEpochMilli(date).atZone(ZoneOffset.UTC);
+        return (time.getYear() - DatagenParams.startYear) * 12 + time.getMonthValue() - DatagenParams.startMonth;
+    }
+
+    private static long date(Random random) {
+        return FROM + (long) (random.nextDouble() * (TO - FROM));
+    }
+
+    private static Person.PersonSummary summary(long id) {
+        Person.PersonSummary summary = new Person.PersonSummary();
+        summary.accountId(id);
+        return summary;
+    }
+
+    /**
+     * Sets the date and the country of a message of the author, whose other fields FactorTable does not read
+     */
+    private static void message(Random random, Message message, Counts author) {
+        message.creationDate(date(random));
+        message.countryId(random.nextInt(NUM_COUNTRIES));
+        // messages are left without tags, counting them needs the tag dictionary
+        int month = month(message.creationDate());
+        if (month < FactorTable.NUM_MONTHS) author.messagesPerMonth[month]++;
+    }
+
+    /**
+     * Fills the table with the activity of a block of persons, which are first seen in random order
+     *
+     * @return the counts of the persons in the order they were first seen
+     */
+    private static List<Counts> block(Random random, FactorTable table, int numPersons) {
+        List<Counts> persons = new ArrayList<Counts>();
+        Set<Long> ids = new HashSet<Long>();
+        while (persons.size() < numPersons) {
+            long id = random.nextLong() >>> 20;
+            if (ids.add(id)) persons.add(new Counts(id));
+        }
+        Collections.shuffle(persons, random);
+        for (Counts c : persons) {
+            // memberships may come before the person
+            if (random.nextInt(4) == 0) {
+                membership(random, table, c);
+            }
+            Person person = new Person();
+            person.accountId(c.id);
+            c.name = NAMES[random.nextInt(NAMES.length)];
+            person.firstName(c.name);
+            c.country = random.nextInt(NUM_COUNTRIES);
+            person.countryId(c.country);
+            for (int k = random.nextInt(10); k > 0; --k) {
+                person.knows().add(new Knows(friend(random.nextLong() >>> 20), date(random), 0.5f));
+            }
+            c.friends = person.knows().size();
+            for (int w = random.nextInt(3); w > 0; --w) {
+                person.companies().put(random.nextLong(), 2000L + random.nextInt(10));
+            }
+            c.workPlaces = person.companies().size();
+            table.extractFactors(person);
+        }
+        for (int e = 0; e < numPersons * 20; ++e) {
+            Counts c = persons.get(random.nextInt(persons.size()));
+            // messages are built without the dictionaries, which set the author along with the country of the ip
+            final Person.PersonSummary author = summary(c.id);
+            switch (random.nextInt(5)) {
+                case 0:
+                    membership(random, table, c);
+                    break;
+                case 1: {
+                    Post post = new Post() {
+                        @Override
+                        public Person.PersonSummary author() {
+                            return author;
+                        }
+                    };
+                    message(random, post, c);
+                    table.extractFactors(post);
+                    c.posts++;
+                    break;
+                }
+                case 2: {
+                    Photo photo = new Photo() {
+                        @Override
+                        public Person.PersonSummary author() {
+                            return author;
+                        }
+                    };
+                    message(random, photo, c);
+                    table.extractFactors(photo);
+                    c.posts++;
+                    break;
+                }
+                case 3: {
+                    Comment comment = new Comment() {
+                        @Override
+                        public Person.PersonSummary author() {
+                            return author;
+                        }
+                    };
+                    message(random, comment, c);
+                    table.extractFactors(comment);
+                    c.comments++;
+                    break;
+                }
+                default: {
+                    Like like = new Like();
+                    like.user = c.id;
+                    like.date = date(random);
+                    table.extractFactors(like);
+                    c.likes++;
+                }
+            }
+        }
+        return persons;
+    }
+
+    private static Person friend(long id) {
+        Person person = new Person();
+        person.accountId(id);
+        return person;
+    }
+
+    private static void membership(Random random, FactorTable table, Counts c) {
+        long date = date(random);
+        table.extractFactors(new ForumMembership(random.nextLong(), date, summary(c.id)));
+        c.forums++;
+        int month = month(date);
+        if (month < FactorTable.NUM_MONTHS) c.forumsPerMonth[month]++;
+    }
+
+    /**
+     * @return the rows writePersonFactors should write, with the median first name of the country of each person
+     */
+    private static String expectedRows(List<Counts> persons) {
+        StringBuilder rows = new StringBuilder();
+        for (Counts c : persons) {
+            List<String> names = new ArrayList<String>();
+            for (Counts other : persons) {
+                if (other.country == c.country) names.add(other.name);
+            }
+            Collections.sort(names);
+            rows.append(c.id).append(',').append(names.get(names.size() / 2));
+            for (long count : new long[]{c.friends, c.posts, c.likes, c.tags, c.forums, c.workPlaces, c.comments}) {
+                rows.append(',').append(count);
+            }
+            for (long count : c.messagesPerMonth) {
+                rows.append(',').append(count);
+            }
+            for (long count : c.forumsPerMonth) {
+                rows.append(',').append(count);
+            }
+            rows.append('\n');
+        }
+        return rows.toString();
+    }
+
+    private static String text(FactorTable table) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writePersonFactors(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the binary person factors into the rows of the text file
+     */
+    private static String decode(byte[] bytes) throws IOException {
+        StringBuilder rows = new StringBuilder();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        while (true) {
+            long id;
+            try {
+                id = in.readLong();
+            } catch (EOFException e) {
+                return rows.toString();
+            }
+            rows.append(id).append(',').append(in.readUTF());
+            for (int i = in.readInt(); i > 0; --i) {
+                rows.append(',').append(in.readLong());
+            }
+            int numMonths = in.readInt();
+            for (int i = 0; i < 2 * numMonths; ++i) {
+                rows.append(',').append(in.readLong());
+            }
+            rows.append('\n');
+        }
+    }
+
+    @Test
+    public void personFactorsShouldMatchPerPersonCounts() {
+        Random random = new Random(42);
+        FactorTable table = new FactorTable();
+        // more persons than the initial capacity, so the columns grow
+        List<Counts> persons = block(random, table, 3000);
+        assertEquals(expectedRows(persons), text(table));
+    }
+
+    @Test
+    public void countsShouldNotLeakIntoTheNextBlock() {
+        Random random = new Random(7);
+        FactorTable table = new FactorTable();
+        for (int b = 0; b < 4; ++b) {
+            List<Counts> persons = block(random, table, 100 + random.nextInt(1500));
+            assertEquals("block " + b, expectedRows(persons), text(table));
+        }
+        assertEquals("", text(table));
+    }
+
+    @Test
+    public void binaryPersonFactorsShouldDecodeToTheTextOnes() throws IOException {
+        FactorTable textTable = new FactorTable();
+        FactorTable binaryTable = new FactorTable();
+        Random textRandom = new Random(3);
+        Random binaryRandom = new Random(3);
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        for (int b = 0; b < 3; ++b) {
+            int numPersons = 500 + 700 * b;
+            block(textRandom, textTable, numPersons);
+            expected.append(text(textTable));
+            block(binaryRandom, binaryTable, numPersons);
+            binaryTable.writeBinaryPersonFactors(binary);
+        }
+        assertEquals(expected.toString(), decode(binary.toByteArray()));
+    }
+}
@@ -5,6 +5,7 @@ import com.ldbc.driver.client.ClientMode;
 import com.ldbc.driver.client.CreateValidationParamsMode;
 import com.ldbc.driver.client.ExecuteWorkloadMode;
 import com.ldbc.driver.client.PrintHelpMode;
+import com.ldbc.driver.client.ThroughputSearchMode;
 import com.ldbc.driver.client.ValidateDatabaseMode;
 import com.ldbc.driver.control.ConsoleAndFileDriverConfiguration;
 import com.ldbc.driver.control.ControlService;
@@ -142,6 +143,34 @@ public class Client
             }
             return new CalculateWorkloadStatisticsMode( controlService, RANDOM_SEED );
         }
+        else if ( ThroughputSearchMode.isThroughputSearch( controlService.configuration() ) )
+        {
+            // Search Maximum Throughput
+            DriverConfiguration configuration = controlService.configuration();
+            List<String> missingParams = new ArrayList<>();
+            if ( null == configuration.dbClassName() )
+            {
+                missingParams.add( ConsoleAndFileDriverConfiguration.DB_ARG );
+            }
+            if ( null == configuration.workloadClassName() )
+            {
+                missingParams.add( ConsoleAndFileDriverConfiguration.WORKLOAD_ARG );
+            }
+            if ( 0 == configuration.operationCount() )
+            {
+                missingParams.add( ConsoleAndFileDriverConfiguration.OPERATION_COUNT_ARG );
+            }
+            if ( false == missingParams.isEmpty() )
+            {
+                throw new ClientException( format( "Missing required parameters: %s", missingParams.toString() ) );
+            }
+            if ( configuration.ignoreScheduledStartTimes() )
+            {
+                throw new ClientException( format( "Throughput search requires scheduled start times, remove: %s",
+                        ConsoleAndFileDriverConfiguration.IGNORE_SCHEDULED_START_TIMES_ARG ) );
+            }
+            return new ThroughputSearchMode( controlService, new SystemTimeSource(), RANDOM_SEED );
+        }
         else
         {
             // Execute Workload
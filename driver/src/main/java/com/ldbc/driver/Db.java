@@ -19,7 +19,7 @@ public abstract class Db implements Closeable
     private DbConnectionState dbConnectionState = null;
     private Map<Class<? extends Operation>,OperationHandler> operationHandlers = new HashMap<>();
     private OperationHandler[] operationHandlersArray = null;
-    private OperationHandlerRunnerFactory operationHandlerRunnableContextFactory = null;
+    private volatile FreeListOperationHandlerRunnerFactory operationHandlerRunnableContextFactory = null;
 
     synchronized public final void init(
             Map<String,String> params,
@@ -33,7 +33,7 @@ public abstract class Db implements Closeable
         }
         onInit( params, loggingService );
         dbConnectionState = getConnectionState();
-        operationHandlerRunnableContextFactory = new PoolingOperationHandlerRunnerFactory(
+        operationHandlerRunnableContextFactory = new FreeListOperationHandlerRunnerFactory(
                 new InstantiatingOperationHandlerRunnerFactory()
         );
         operationHandlersArray = toOperationHandlerArray( operationTypeToClassMapping, operationHandlers );
@@ -65,21 +65,32 @@ public abstract class Db implements Closeable
         }
     }
 
-    // TODO this is a temporary hack to support warmup more easily, because the runnable contexts need to be cleared
-    // TODO ultimately this would be done in another way
-    synchronized public final void reInit() throws DbException
+    /**
+     * Runnable contexts are reused through a free list per thread that retrieves them. Pre-sizes the free list of
+     * the calling thread to hold at least count contexts, e.g., the most operations the thread can have submitted
+     * to an executor but not yet completed, so that contexts are not allocated while operations are executed.
+     */
+    public final void reserveOperationHandlerRunnableContexts( int count ) throws DbException
     {
         try
         {
-            operationHandlerRunnableContextFactory.shutdown();
+            operationHandlerRunnableContextFactory.reserve( count );
         }
         catch ( OperationException e )
         {
-            throw new DbException( "Error shutting down operation handler runnable factory", e );
+            throw new DbException( format( "Unable to reserve %s operation handler runnable contexts", count ), e );
         }
-        operationHandlerRunnableContextFactory = new PoolingOperationHandlerRunnerFactory(
-                new InstantiatingOperationHandlerRunnerFactory()
-        );
+    }
+
+    /**
+     * Safe to call from any thread, e.g., for monitoring
+     *
+     * @return number of operation handler runnable contexts held for reuse, 0 before initialization
+     */
+    public final int operationHandlerRunnableContextPoolSize()
+    {
+        OperationHandlerRunnerFactory factory = operationHandlerRunnableContextFactory;
+        return (null == factory) ? 0 : factory.poolSize();
     }
 
     /**
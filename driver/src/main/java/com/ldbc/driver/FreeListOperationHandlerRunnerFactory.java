@@ -0,0 +1,195 @@
+package com.ldbc.driver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+
+/**
+ * Reuses runnable contexts through a free list per claiming thread, so that in steady state claiming and releasing
+ * a context neither allocates, blocks nor waits on a timeout.
+ * <p>
+ * A context is returned to the free list of the thread that claimed it. Releases from the owning thread push onto
+ * a stack only that thread accesses, releases from other threads, e.g., executor workers that run contexts claimed
+ * by the thread submitting operations, push lock-free onto a shared stack that the owning thread takes over as a
+ * whole once its own stack is empty. A free list that is still empty then grows by one context, it never waits for
+ * contexts to be released.
+ * <p>
+ * Free lists are dropped, with their contexts and any services those reference, once their owning thread has
+ * terminated.
+ */
+public class FreeListOperationHandlerRunnerFactory implements OperationHandlerRunnerFactory
+{
+    public static final int DEFAULT_FREE_LIST_SIZE = 16;
+
+    private final OperationHandlerRunnerFactory innerOperationHandlerRunnerFactory;
+    private final ThreadLocal<FreeList> freeListForThread = new ThreadLocal<>();
+    private final List<FreeList> freeLists = new CopyOnWriteArrayList<>();
+    private volatile boolean isShutdown = false;
+
+    public FreeListOperationHandlerRunnerFactory( OperationHandlerRunnerFactory operationHandlerRunnerFactory )
+    {
+        this.innerOperationHandlerRunnerFactory = operationHandlerRunnerFactory;
+    }
+
+    @Override
+    public OperationHandlerRunnableContext newOperationHandlerRunner() throws OperationException
+    {
+        FreeList freeList = freeListForThread.get();
+        if ( null == freeList )
+        {
+            freeList = newFreeListForThread( DEFAULT_FREE_LIST_SIZE );
+        }
+        return freeList.claim();
+    }
+
+    /**
+     * Grows the free list of the calling thread to hold at least count contexts, so that allocation happens before
+     * the thread starts claiming contexts rather than while it does, e.g., count should be the number of contexts
+     * the thread can have claimed but not yet released at any time.
+     */
+    public void reserve( int count ) throws OperationException
+    {
+        FreeList freeList = freeListForThread.get();
+        if ( null == freeList )
+        {
+            newFreeListForThread( count );
+        }
+        else
+        {
+            freeList.reserve( count );
+        }
+    }
+
+    /**
+     * @return number of contexts allocated by the free lists of threads that are still alive
+     */
+    @Override
+    public int poolSize()
+    {
+        dropFreeListsOfTerminatedThreads();
+        int poolSize = 0;
+        for ( FreeList freeList : freeLists )
+        {
+            poolSize += freeList.size();
+        }
+        return poolSize;
+    }
+
+    @Override
+    public void shutdown() throws OperationException
+    {
+        isShutdown = true;
+        innerOperationHandlerRunnerFactory.shutdown();
+        freeLists.clear();
+        freeListForThread.remove();
+    }
+
+    private FreeList newFreeListForThread( int size ) throws OperationException
+    {
+        if ( isShutdown )
+        {
+            throw new OperationException( format( "%s has been shutdown", getClass().getSimpleName() ) );
+        }
+        dropFreeListsOfTerminatedThreads();
+        FreeList freeList = new FreeList( Thread.currentThread(), innerOperationHandlerRunnerFactory );
+        freeList.reserve( size );
+        freeListForThread.set( freeList );
+        freeLists.add( freeList );
+        return freeList;
+    }
+
+    private void dropFreeListsOfTerminatedThreads()
+    {
+        for ( FreeList freeList : freeLists )
+        {
+            if ( false == freeList.owner.isAlive() )
+            {
+                freeLists.remove( freeList );
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return FreeListOperationHandlerRunnerFactory.class.getSimpleName() + "{" +
+               innerOperationHandlerRunnerFactory.toString() + "}";
+    }
+
+    static final class FreeList
+    {
+        private final Thread owner;
+        private final OperationHandlerRunnerFactory operationHandlerRunnerFactory;
+        // released by the owner, only accessed by the owner
+        private OperationHandlerRunnableContext ownerHead = null;
+        // released by other threads, taken over as a whole by the owner
+        private final AtomicReference<OperationHandlerRunnableContext> sharedHead = new AtomicReference<>();
+        // only written by the owner
+        private volatile int size = 0;
+
+        private FreeList( Thread owner, OperationHandlerRunnerFactory operationHandlerRunnerFactory )
+        {
+            this.owner = owner;
+            this.operationHandlerRunnerFactory = operationHandlerRunnerFactory;
+        }
+
+        private OperationHandlerRunnableContext claim() throws OperationException
+        {
+            OperationHandlerRunnableContext operationHandlerRunner = ownerHead;
+            if ( null == operationHandlerRunner )
+            {
+                operationHandlerRunner = sharedHead.getAndSet( null );
+                if ( null == operationHandlerRunner )
+                {
+                    return allocate();
+                }
+            }
+            ownerHead = operationHandlerRunner.nextFree;
+            operationHandlerRunner.nextFree = null;
+            return operationHandlerRunner;
+        }
+
+        void release( OperationHandlerRunnableContext operationHandlerRunner )
+        {
+            if ( Thread.currentThread() == owner )
+            {
+                operationHandlerRunner.nextFree = ownerHead;
+                ownerHead = operationHandlerRunner;
+            }
+            else
+            {
+                OperationHandlerRunnableContext head;
+                do
+                {
+                    head = sharedHead.get();
+                    operationHandlerRunner.nextFree = head;
+                }
+                while ( false == sharedHead.compareAndSet( head, operationHandlerRunner ) );
+            }
+        }
+
+        private void reserve( int count ) throws OperationException
+        {
+            while ( size < count )
+            {
+                release( allocate() );
+            }
+        }
+
+        private OperationHandlerRunnableContext allocate() throws OperationException
+        {
+            OperationHandlerRunnableContext operationHandlerRunner =
+                    operationHandlerRunnerFactory.newOperationHandlerRunner();
+            operationHandlerRunner.setFreeList( this );
+            size++;
+            return operationHandlerRunner;
+        }
+
+        private int size()
+        {
+            return size;
+        }
+    }
+}
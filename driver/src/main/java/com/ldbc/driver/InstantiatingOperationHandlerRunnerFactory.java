@@ -1,31 +1,17 @@
 package com.ldbc.driver;
 
-import stormpot.Poolable;
-import stormpot.Slot;
-
 public class InstantiatingOperationHandlerRunnerFactory implements OperationHandlerRunnerFactory
 {
-    private static final Slot DUMMY_SLOT = new Slot()
+    @Override
+    public OperationHandlerRunnableContext newOperationHandlerRunner() throws OperationException
     {
-        @Override
-        public void release( Poolable obj )
-        {
-            // do nothing
-        }
-
-        @Override
-        public void expire( Poolable poolable )
-        {
-            // do nothing
-        }
-    };
+        return new OperationHandlerRunnableContext();
+    }
 
     @Override
-    public OperationHandlerRunnableContext newOperationHandlerRunner() throws OperationException
+    public int poolSize()
     {
-        OperationHandlerRunnableContext operationHandlerRunnableContext = new OperationHandlerRunnableContext();
-        operationHandlerRunnableContext.setSlot( DUMMY_SLOT );
-        return operationHandlerRunnableContext;
+        return 0;
     }
 
     @Override
@@ -7,15 +7,15 @@ import com.ldbc.driver.runtime.metrics.MetricsService;
 import com.ldbc.driver.runtime.scheduling.Spinner;
 import com.ldbc.driver.runtime.scheduling.SpinnerCheck;
 import com.ldbc.driver.temporal.TimeSource;
-import stormpot.Poolable;
-import stormpot.Slot;
 
 import static java.lang.String.format;
 
-public class OperationHandlerRunnableContext implements Runnable, Poolable
+public class OperationHandlerRunnableContext implements Runnable
 {
-    // set by OperationHandlerRunnerFactory
-    private Slot slot = null;
+    // set by FreeListOperationHandlerRunnerFactory, free list the context is released to
+    private FreeListOperationHandlerRunnerFactory.FreeList freeList = null;
+    // next context while the context is in a free list
+    OperationHandlerRunnableContext nextFree = null;
 
     // set by Db
     private DbConnectionState dbConnectionState = null;
@@ -27,6 +27,7 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
     private Operation operation = null;
     private LocalCompletionTimeWriter localCompletionTimeWriter = null;
     private ConcurrentErrorReporter errorReporter = null;
+    private MetricsService metricsService = null;
     private MetricsService.MetricsServiceWriter metricsServiceWriter = null;
 
     // set by DependencyAndNonDependencyHandlersRetriever
@@ -36,9 +37,9 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
 
     private ResultReporter.SimpleResultReporter resultReporter = null;
 
-    public final void setSlot( Slot slot )
+    final void setFreeList( FreeListOperationHandlerRunnerFactory.FreeList freeList )
     {
-        this.slot = slot;
+        this.freeList = freeList;
     }
 
     public final void init( TimeSource timeSource,
@@ -52,15 +53,16 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
         {
             throw new OperationException( format( "%s can not be initialized twice", getClass().getSimpleName() ) );
         }
-        if ( null == this.timeSource )
+        // services are the same for every execution of a run, so reused contexts only rebind when they change,
+        // e.g., from warmup to measurement
+        if ( timeSource != this.timeSource || errorReporter != this.errorReporter )
         {
             this.timeSource = timeSource;
-            this.spinner = spinner;
             this.errorReporter = errorReporter;
-            if ( null == resultReporter )
-            {
-                this.resultReporter = new ResultReporter.SimpleResultReporter( errorReporter );
-            }
+            this.resultReporter = new ResultReporter.SimpleResultReporter( errorReporter, timeSource );
+        }
+        if ( metricsService != this.metricsService )
+        {
             try
             {
                 this.metricsServiceWriter = metricsService.getWriter();
@@ -69,7 +71,9 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
             {
                 throw new OperationException( "Error while retrieving metrics writer", e );
             }
+            this.metricsService = metricsService;
         }
+        this.spinner = spinner;
         this.operation = operation;
         this.localCompletionTimeWriter = localCompletionTimeWriter;
         this.beforeExecuteCheck = Spinner.TRUE_CHECK;
@@ -144,6 +148,7 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
             }
             resultReporter.setActualStartTimeAsMilli( timeSource.nowAsMilli() );
             long startOfLatencyMeasurementAsNano = timeSource.nanoSnapshot();
+            resultReporter.startPhases( startOfLatencyMeasurementAsNano );
             operationHandler.executeOperation( operation, dbConnectionState, resultReporter );
             long endOfLatencyMeasurementAsNano = timeSource.nanoSnapshot();
             resultReporter.setRunDurationAsNano( endOfLatencyMeasurementAsNano - startOfLatencyMeasurementAsNano );
@@ -162,6 +167,10 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
                         resultReporter.resultCode(),
                         operation.timeStamp()
                 );
+                if ( resultReporter.hasPhases() )
+                {
+                    submitPhases();
+                }
             }
         }
         catch ( Throwable e )
@@ -173,30 +182,49 @@ public class OperationHandlerRunnableContext implements Runnable, Poolable
         }
     }
 
+    private void submitPhases() throws MetricsCollectionException
+    {
+        for ( int phaseId = 0; phaseId < ResultReporter.MAX_PHASE_COUNT; phaseId++ )
+        {
+            long phaseDurationAsNano = resultReporter.phaseDurationAsNano( phaseId );
+            if ( -1 != phaseDurationAsNano )
+            {
+                metricsServiceWriter.submitOperationPhase( operation.type(), phaseId, phaseDurationAsNano );
+            }
+        }
+    }
 
     @Override
     public String toString()
     {
         return "OperationHandlerRunner\n" +
                "    -> resultReporter=" + resultReporter + "\n" +
-               "    -> slot=" + slot + "\n" +
+               "    -> freeList=" + freeList + "\n" +
                "    -> operation=" + operation + "\n" +
                "    -> beforeExecuteCheck=" + beforeExecuteCheck + "\n" +
                "    -> operationHandler=" + operationHandler + "\n" +
                "    -> initialized=" + initialized;
     }
 
+    /**
+     * Clears the state of the last execution and returns the context to the free list it was claimed from, if any.
+     * The context must not be used after this call.
+     */
     public final void cleanup()
-    {
-        release();
-    }
-
-    // Note, this should not really be public API, it is from the StormPot Poolable interface
-    @Override
-    public final void release()
     {
         initialized = false;
-        if ( null != slot )
-        { slot.release( this ); }
+        operation = null;
+        operationHandler = null;
+        dbConnectionState = null;
+        localCompletionTimeWriter = null;
+        beforeExecuteCheck = null;
+        if ( null != resultReporter )
+        {
+            resultReporter.reset();
+        }
+        if ( null != freeList )
+        {
+            freeList.release( this );
+        }
     }
 }
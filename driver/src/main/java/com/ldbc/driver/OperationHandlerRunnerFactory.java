@@ -4,5 +4,10 @@ public interface OperationHandlerRunnerFactory
 {
     OperationHandlerRunnableContext newOperationHandlerRunner() throws OperationException;
 
+    /**
+     * @return number of runnable contexts the factory holds for reuse, 0 if it does not pool them
+     */
+    int poolSize();
+
     void shutdown() throws OperationException;
 }
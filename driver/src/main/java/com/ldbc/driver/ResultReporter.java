@@ -1,11 +1,20 @@
 package com.ldbc.driver;
 
 import com.ldbc.driver.runtime.ConcurrentErrorReporter;
+import com.ldbc.driver.temporal.SystemTimeSource;
+import com.ldbc.driver.temporal.TimeSource;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static java.lang.String.format;
 
 public interface ResultReporter
 {
+    /**
+     * Number of phases a handler may mark, phase ids are in [0, MAX_PHASE_COUNT)
+     */
+    int MAX_PHASE_COUNT = 8;
+
     <OTHER_RESULT_TYPE> void report(
             int resultCode,
             OTHER_RESULT_TYPE result,
@@ -19,17 +28,81 @@ public interface ResultReporter
 
     long actualStartTimeAsMilli();
 
+    /**
+     * Ends a phase of operation execution, e.g. connection acquisition, query execution or result decoding.
+     * The phase lasts from the previous call to markPhase (or from the start of execution) until now.
+     * Marking the same phase more than once accumulates its duration. Phases are reported by id unless named via
+     * {@link PhaseNames#setPhaseName(int, String)}.
+     *
+     * @param phaseId phase id, in [0, MAX_PHASE_COUNT)
+     */
+    void markPhase( int phaseId );
+
+    /**
+     * @param phaseId phase id, in [0, MAX_PHASE_COUNT)
+     * @return duration of the phase in the last execution, -1 if it was not marked
+     */
+    long phaseDurationAsNano( int phaseId );
+
+    /**
+     * Names of phase ids, reported in results instead of "Phase-id". Names are shared by all operation types of the
+     * process, so a workload names its phase ids once, e.g. in Db.onInit, before marking them.
+     */
+    final class PhaseNames
+    {
+        private static final AtomicReferenceArray<String> PHASE_NAMES = new AtomicReferenceArray<>( MAX_PHASE_COUNT );
+
+        private PhaseNames()
+        {
+        }
+
+        /**
+         * @param phaseId phase id, in [0, MAX_PHASE_COUNT)
+         * @param phaseName phase name, e.g. "query_execution", null to report the phase by id again
+         */
+        public static void setPhaseName( int phaseId, String phaseName )
+        {
+            if ( phaseId < 0 || phaseId >= MAX_PHASE_COUNT )
+            {
+                throw new IllegalArgumentException(
+                        format( "Phase id must be in [0,%s), was %s", MAX_PHASE_COUNT, phaseId ) );
+            }
+            PHASE_NAMES.set( phaseId, phaseName );
+        }
+
+        /**
+         * @return name of the phase, null if it has none
+         */
+        public static String phaseName( int phaseId )
+        {
+            return (phaseId < 0 || phaseId >= MAX_PHASE_COUNT) ? null : PHASE_NAMES.get( phaseId );
+        }
+    }
+
     class SimpleResultReporter implements ResultReporter
     {
         private final ConcurrentErrorReporter errorReporter;
+        private final TimeSource timeSource;
+        private final long[] phaseDurationsAsNano = new long[MAX_PHASE_COUNT];
         private Object result = null;
         private int resultCode = -1;
         private long actualStartTimeAsMilli = -1;
         private long runDurationAsNano = -1;
+        private long lastPhaseMarkAsNano;
+        // bit i set when phase i was marked since the last call to startPhases
+        private int markedPhases = 0;
 
         public SimpleResultReporter( ConcurrentErrorReporter errorReporter )
+        {
+            this( errorReporter, new SystemTimeSource() );
+        }
+
+        public SimpleResultReporter( ConcurrentErrorReporter errorReporter, TimeSource timeSource )
         {
             this.errorReporter = errorReporter;
+            this.timeSource = timeSource;
+            // phases marked without a call to startPhases are measured from construction, or from reset
+            this.lastPhaseMarkAsNano = timeSource.nanoSnapshot();
         }
 
         public <OTHER_RESULT_TYPE> void report(
@@ -87,6 +160,70 @@ public interface ResultReporter
             return result;
         }
 
+        /**
+         * Clears the result, timings and phases of the previous execution, so the reporter can be reused
+         */
+        public void reset()
+        {
+            result = null;
+            resultCode = -1;
+            actualStartTimeAsMilli = -1;
+            runDurationAsNano = -1;
+            lastPhaseMarkAsNano = timeSource.nanoSnapshot();
+            markedPhases = 0;
+        }
+
+        /**
+         * Clears phases of the previous execution, the first phase marked afterwards starts at startAsNano
+         *
+         * @param startAsNano start of execution, as returned by TimeSource.nanoSnapshot()
+         */
+        public void startPhases( long startAsNano )
+        {
+            markedPhases = 0;
+            lastPhaseMarkAsNano = startAsNano;
+        }
+
+        @Override
+        public void markPhase( int phaseId )
+        {
+            if ( phaseId < 0 || phaseId >= MAX_PHASE_COUNT )
+            {
+                throw new IllegalArgumentException(
+                        format( "Phase id must be in [0,%s), was %s", MAX_PHASE_COUNT, phaseId ) );
+            }
+            long nowAsNano = timeSource.nanoSnapshot();
+            int phaseBit = 1 << phaseId;
+            if ( 0 == (markedPhases & phaseBit) )
+            {
+                phaseDurationsAsNano[phaseId] = nowAsNano - lastPhaseMarkAsNano;
+                markedPhases |= phaseBit;
+            }
+            else
+            {
+                phaseDurationsAsNano[phaseId] += nowAsNano - lastPhaseMarkAsNano;
+            }
+            lastPhaseMarkAsNano = nowAsNano;
+        }
+
+        /**
+         * @return true if any phase was marked since the last call to startPhases
+         */
+        public boolean hasPhases()
+        {
+            return 0 != markedPhases;
+        }
+
+        @Override
+        public long phaseDurationAsNano( int phaseId )
+        {
+            if ( phaseId < 0 || phaseId >= MAX_PHASE_COUNT || 0 == (markedPhases & (1 << phaseId)) )
+            {
+                return -1;
+            }
+            return phaseDurationsAsNano[phaseId];
+        }
+
         @Override
         public String toString()
         {
@@ -1,11 +1,10 @@
 package com.ldbc.driver;
 
-import com.google.common.collect.Iterators;
-import com.google.common.collect.PeekingIterator;
 import com.ldbc.driver.control.DriverConfiguration;
 import com.ldbc.driver.control.LoggingService;
 import com.ldbc.driver.control.LoggingServiceFactory;
 import com.ldbc.driver.generator.GeneratorFactory;
+import com.ldbc.driver.generator.OperationPipeline;
 import com.ldbc.driver.util.Tuple;
 import com.ldbc.driver.util.Tuple3;
 import com.ldbc.driver.workloads.ClassNameWorkloadFactory;
@@ -18,7 +17,6 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Set;
 
 import static java.lang.String.format;
@@ -34,82 +32,34 @@ public class WorkloadStreams
             double compressionRatio,
             GeneratorFactory gf ) throws WorkloadException
     {
-        long minScheduledStartTimeAsMilli = Long.MAX_VALUE;
-
         /*
-         * Find earliest scheduled start time from across all streams
+         * Streams peeked at, then time mapped, by the same pipeline stage (fused with limits of limited streams):
+         * async dependency, async non dependency, then dependency and non dependency of each blocking stream
          */
 
-        PeekingIterator<Operation> peekingAsyncDependencyOperationStream =
-                Iterators.peekingIterator( originalWorkloadStreams.asynchronousStream().dependencyOperations() );
-        try
-        {
-            long firstAsMilli = peekingAsyncDependencyOperationStream.peek().scheduledStartTimeAsMilli();
-            if ( firstAsMilli < minScheduledStartTimeAsMilli )
-            {
-                minScheduledStartTimeAsMilli = firstAsMilli;
-            }
-        }
-        catch ( NoSuchElementException e )
+        List<WorkloadStreamDefinition> blockingStreams = originalWorkloadStreams.blockingStreamDefinitions();
+        List<OperationPipeline> pipelines = new ArrayList<>();
+        pipelines.add( gf.operationPipeline( originalWorkloadStreams.asynchronousStream().dependencyOperations() ) );
+        pipelines.add( gf.operationPipeline( originalWorkloadStreams.asynchronousStream().nonDependencyOperations() ) );
+        for ( WorkloadStreamDefinition blockingStream : blockingStreams )
         {
-            // do nothing, just means stream was empty
+            pipelines.add( gf.operationPipeline( blockingStream.dependencyOperations() ) );
+            pipelines.add( gf.operationPipeline( blockingStream.nonDependencyOperations() ) );
         }
 
-        PeekingIterator<Operation> peekingAsyncNonDependencyOperationStream =
-                Iterators.peekingIterator( originalWorkloadStreams.asynchronousStream().nonDependencyOperations() );
-        try
-        {
-            long firstAsMilli = peekingAsyncNonDependencyOperationStream.peek().scheduledStartTimeAsMilli();
-            if ( firstAsMilli < minScheduledStartTimeAsMilli )
-            {
-                minScheduledStartTimeAsMilli = firstAsMilli;
-            }
-        }
-        catch ( NoSuchElementException e )
-        {
-            // do nothing, just means stream was empty
-        }
+        /*
+         * Find earliest scheduled start time from across all streams
+         */
 
-        List<Long> peekingBlockingDependencyOperationStreamsAheadOfMinByMillis = new ArrayList<>();
-        List<PeekingIterator<Operation>> peekingBlockingDependencyOperationStreams = new ArrayList<>();
-        List<Long> peekingBlockingNonDependencyOperationStreamsAheadOfMinByMillis = new ArrayList<>();
-        List<PeekingIterator<Operation>> peekingBlockingNonDependencyOperationStreams = new ArrayList<>();
-        List<WorkloadStreamDefinition> blockingStreams = originalWorkloadStreams.blockingStreamDefinitions();
-        for ( int i = 0; i < blockingStreams.size(); i++ )
+        long minScheduledStartTimeAsMilli = Long.MAX_VALUE;
+        for ( OperationPipeline pipeline : pipelines )
         {
-            PeekingIterator<Operation> peekingBlockingDependencyOperationStream =
-                    Iterators.peekingIterator( blockingStreams.get( i ).dependencyOperations() );
-            try
-            {
-                long firstAsMilli = peekingBlockingDependencyOperationStream.peek().scheduledStartTimeAsMilli();
-                if ( firstAsMilli < minScheduledStartTimeAsMilli )
-                {
-                    minScheduledStartTimeAsMilli = firstAsMilli;
-                }
-            }
-            catch ( NoSuchElementException e )
-            {
-                // do nothing, just means stream was empty
-            }
-            peekingBlockingDependencyOperationStreamsAheadOfMinByMillis.add( 0l );
-            peekingBlockingDependencyOperationStreams.add( peekingBlockingDependencyOperationStream );
-
-            PeekingIterator<Operation> peekingBlockingNonDependencyOperationStream =
-                    Iterators.peekingIterator( blockingStreams.get( i ).nonDependencyOperations() );
-            try
+            // null just means stream is empty
+            Operation first = pipeline.peek();
+            if ( null != first && first.scheduledStartTimeAsMilli() < minScheduledStartTimeAsMilli )
             {
-                long firstAsMilli = peekingBlockingNonDependencyOperationStream.peek().scheduledStartTimeAsMilli();
-                if ( firstAsMilli < minScheduledStartTimeAsMilli )
-                {
-                    minScheduledStartTimeAsMilli = firstAsMilli;
-                }
-            }
-            catch ( NoSuchElementException e )
-            {
-                // do nothing, just means stream was empty
+                minScheduledStartTimeAsMilli = first.scheduledStartTimeAsMilli();
             }
-            peekingBlockingNonDependencyOperationStreamsAheadOfMinByMillis.add( 0l );
-            peekingBlockingNonDependencyOperationStreams.add( peekingBlockingNonDependencyOperationStream );
         }
 
         if ( Long.MAX_VALUE == minScheduledStartTimeAsMilli )
@@ -118,69 +68,23 @@ public class WorkloadStreams
         }
 
         /*
-         * Find how far ahead of earliest scheduled start time each stream is when it starts
+         * Offset each stream by how far ahead of earliest scheduled start time it is when it starts,
+         * applying time compression
          */
 
-        long peekingAsyncDependencyOperationStreamAheadOfMinByAsMilli = 0;
-        try
-        {
-            long firstAsMilli = peekingAsyncDependencyOperationStream.peek().scheduledStartTimeAsMilli();
-            peekingAsyncDependencyOperationStreamAheadOfMinByAsMilli =
-                    Math.round( (firstAsMilli - minScheduledStartTimeAsMilli) * compressionRatio );
-        }
-        catch ( NoSuchElementException e )
-        {
-            // do nothing, just means stream was empty
-        }
-
-        long peekingAsyncNonDependencyOperationStreamAheadOfMinByAsMilli = 0l;
-        try
-        {
-            long firstAsMilli = peekingAsyncNonDependencyOperationStream.peek().scheduledStartTimeAsMilli();
-            peekingAsyncNonDependencyOperationStreamAheadOfMinByAsMilli =
-                    Math.round( (firstAsMilli - minScheduledStartTimeAsMilli) * compressionRatio );
-        }
-        catch ( NoSuchElementException e )
-        {
-            // do nothing, just means stream was empty
-        }
-
-        for ( int i = 0; i < peekingBlockingDependencyOperationStreams.size(); i++ )
+        for ( OperationPipeline pipeline : pipelines )
         {
-            try
-            {
-                long firstAsMilli =
-                        peekingBlockingDependencyOperationStreams.get( i ).peek().scheduledStartTimeAsMilli();
-                peekingBlockingDependencyOperationStreamsAheadOfMinByMillis.set(
-                        i,
-                        Math.round( (firstAsMilli - minScheduledStartTimeAsMilli) * compressionRatio )
-                );
-            }
-            catch ( NoSuchElementException e )
-            {
-                // do nothing, just means stream was empty
-            }
-        }
-
-        for ( int i = 0; i < peekingBlockingNonDependencyOperationStreams.size(); i++ )
-        {
-            try
-            {
-                long firstAsMilli =
-                        peekingBlockingNonDependencyOperationStreams.get( i ).peek().scheduledStartTimeAsMilli();
-                peekingBlockingNonDependencyOperationStreamsAheadOfMinByMillis.set(
-                        i,
-                        Math.round( (firstAsMilli - minScheduledStartTimeAsMilli) * compressionRatio )
-                );
-            }
-            catch ( NoSuchElementException e )
-            {
-                // do nothing, just means stream was empty
-            }
+            Operation first = pipeline.peek();
+            long aheadOfMinByAsMilli = (null == first)
+                                       ? 0
+                                       : Math.round(
+                                               (first.scheduledStartTimeAsMilli() - minScheduledStartTimeAsMilli) *
+                                               compressionRatio );
+            pipeline.timeOffsetAndCompress( newStartTimeAsMilli + aheadOfMinByAsMilli, compressionRatio );
         }
 
         /*
-         * copy unbounded streams to new workload streams instance, applying offset and time compression
+         * copy unbounded streams to new workload streams instance
          */
 
         WorkloadStreams timeOffsetAndCompressedWorkloadStreams = new WorkloadStreams();
@@ -188,16 +92,8 @@ public class WorkloadStreams
         timeOffsetAndCompressedWorkloadStreams.setAsynchronousStream(
                 originalWorkloadStreams.asynchronousStream().dependentOperationTypes(),
                 originalWorkloadStreams.asynchronousStream().dependencyOperationTypes(),
-                gf.timeOffsetAndCompress(
-                        peekingAsyncDependencyOperationStream,
-                        newStartTimeAsMilli + peekingAsyncDependencyOperationStreamAheadOfMinByAsMilli,
-                        compressionRatio
-                ),
-                gf.timeOffsetAndCompress(
-                        peekingAsyncNonDependencyOperationStream,
-                        newStartTimeAsMilli + peekingAsyncNonDependencyOperationStreamAheadOfMinByAsMilli,
-                        compressionRatio
-                ),
+                pipelines.get( 0 ),
+                pipelines.get( 1 ),
                 originalWorkloadStreams.asynchronousStream().childOperationGenerator()
         );
 
@@ -206,17 +102,8 @@ public class WorkloadStreams
             timeOffsetAndCompressedWorkloadStreams.addBlockingStream(
                     blockingStreams.get( i ).dependentOperationTypes(),
                     blockingStreams.get( i ).dependencyOperationTypes(),
-                    gf.timeOffsetAndCompress(
-                            peekingBlockingDependencyOperationStreams.get( i ),
-                            newStartTimeAsMilli + peekingBlockingDependencyOperationStreamsAheadOfMinByMillis.get( i ),
-                            compressionRatio
-                    ),
-                    gf.timeOffsetAndCompress(
-                            peekingBlockingNonDependencyOperationStreams.get( i ),
-                            newStartTimeAsMilli +
-                            peekingBlockingNonDependencyOperationStreamsAheadOfMinByMillis.get( i ),
-                            compressionRatio
-                    ),
+                    pipelines.get( i * 2 + 2 ),
+                    pipelines.get( i * 2 + 3 ),
                     blockingStreams.get( i ).childOperationGenerator()
             );
         }
@@ -326,8 +213,10 @@ public class WorkloadStreams
         workloadStreams.setAsynchronousStream(
                 unlimitedWorkloadStreams.asynchronousStream().dependentOperationTypes(),
                 unlimitedWorkloadStreams.asynchronousStream().dependencyOperationTypes(),
-                gf.limit( unlimitedWorkloadStreams.asynchronousStream().dependencyOperations(), limitForStream[0] ),
-                gf.limit( unlimitedWorkloadStreams.asynchronousStream().nonDependencyOperations(), limitForStream[1] ),
+                gf.operationPipeline( unlimitedWorkloadStreams.asynchronousStream().dependencyOperations() )
+                        .limit( limitForStream[0] ),
+                gf.operationPipeline( unlimitedWorkloadStreams.asynchronousStream().nonDependencyOperations() )
+                        .limit( limitForStream[1] ),
                 unlimitedWorkloadStreams.asynchronousStream().childOperationGenerator()
         );
         for ( int i = 0; i < unlimitedBlockingStreams.size(); i++ )
@@ -335,8 +224,10 @@ public class WorkloadStreams
             workloadStreams.addBlockingStream(
                     unlimitedBlockingStreams.get( i ).dependentOperationTypes(),
                     unlimitedBlockingStreams.get( i ).dependencyOperationTypes(),
-                    gf.limit( unlimitedBlockingStreams.get( i ).dependencyOperations(), limitForStream[i * 2 + 2] ),
-                    gf.limit( unlimitedBlockingStreams.get( i ).nonDependencyOperations(), limitForStream[i * 2 + 3] ),
+                    gf.operationPipeline( unlimitedBlockingStreams.get( i ).dependencyOperations() )
+                            .limit( limitForStream[i * 2 + 2] ),
+                    gf.operationPipeline( unlimitedBlockingStreams.get( i ).nonDependencyOperations() )
+                            .limit( limitForStream[i * 2 + 3] ),
                     unlimitedBlockingStreams.get( i ).childOperationGenerator()
             );
         }
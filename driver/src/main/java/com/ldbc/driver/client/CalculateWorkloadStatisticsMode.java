@@ -8,12 +8,15 @@ import com.ldbc.driver.control.ControlService;
 import com.ldbc.driver.control.LoggingService;
 import com.ldbc.driver.generator.GeneratorFactory;
 import com.ldbc.driver.generator.RandomDataGeneratorFactory;
+import com.ldbc.driver.runtime.metrics.ContinuousMetricSnapshot;
 import com.ldbc.driver.runtime.metrics.MetricsCollectionException;
 import com.ldbc.driver.statistics.WorkloadStatistics;
 import com.ldbc.driver.statistics.WorkloadStatisticsCalculator;
+import com.ldbc.driver.temporal.TemporalUtil;
 import com.ldbc.driver.util.Tuple3;
 
 import java.io.IOException;
+import java.text.DecimalFormat;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
@@ -23,6 +26,8 @@ public class CalculateWorkloadStatisticsMode implements ClientMode<WorkloadStati
     private final ControlService controlService;
     private final LoggingService loggingService;
     private final long randomSeed;
+    private final TemporalUtil temporalUtil = new TemporalUtil();
+    private final DecimalFormat numberFormat = new DecimalFormat( "###,###,###,###" );
 
     private Workload workload = null;
     private WorkloadStreams timeMappedWorkloadStreams = null;
@@ -92,9 +97,24 @@ public class CalculateWorkloadStatisticsMode implements ClientMode<WorkloadStati
             WorkloadStatisticsCalculator workloadStatisticsCalculator = new WorkloadStatisticsCalculator();
             workloadStatistics = workloadStatisticsCalculator.calculate(
                     timeMappedWorkloadStreams,
-                    TimeUnit.HOURS.toMillis( 5 )
+                    TimeUnit.HOURS.toMillis( 5 ),
                     // TODO uncomment, maybe
                     // workload.maxExpectedInterleave()
+                    new WorkloadStatisticsCalculator.ProgressListener()
+                    {
+                        @Override
+                        public void onProgress( long operationCount, long scheduledStartTimeAsMilli,
+                                ContinuousMetricSnapshot operationInterleaves )
+                        {
+                            loggingService.info( format(
+                                    "Operations [%s], Scheduled Start Time [%s], Interleave (ms) [mean %s, max %s]",
+                                    numberFormat.format( operationCount ),
+                                    temporalUtil.milliTimeToDateTimeString( scheduledStartTimeAsMilli ),
+                                    numberFormat.format( operationInterleaves.mean() ),
+                                    numberFormat.format( operationInterleaves.max() ) ) );
+                        }
+                    },
+                    WorkloadStatisticsCalculator.DEFAULT_PROGRESS_INTERVAL_AS_OPERATIONS
             );
             loggingService.info( "Calculation complete\n" + workloadStatistics );
         }
@@ -106,6 +126,6 @@ public class CalculateWorkloadStatisticsMode implements ClientMode<WorkloadStati
         {
             throw new ClientException( "Error while calculating workload statistics", e );
         }
-        return null;
+        return workloadStatistics;
     }
 }
@@ -21,11 +21,13 @@ import com.ldbc.driver.runtime.coordination.CompletionTimeServiceAssistant;
 import com.ldbc.driver.runtime.coordination.LocalCompletionTimeWriter;
 import com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsService;
 import com.ldbc.driver.runtime.metrics.JsonWorkloadMetricsFormatter;
+import com.ldbc.driver.runtime.metrics.LiveMetrics;
+import com.ldbc.driver.runtime.metrics.LiveMetricsHttpServer;
 import com.ldbc.driver.runtime.metrics.MetricsCollectionException;
 import com.ldbc.driver.runtime.metrics.MetricsManager;
 import com.ldbc.driver.runtime.metrics.MetricsService;
 import com.ldbc.driver.runtime.metrics.WorkloadResultsSnapshot;
-import com.ldbc.driver.runtime.metrics.WorkloadStatusSnapshot;
+import com.ldbc.driver.runtime.scheduling.Spinner;
 import com.ldbc.driver.temporal.TemporalUtil;
 import com.ldbc.driver.temporal.TimeSource;
 import com.ldbc.driver.util.ClassLoaderHelper;
@@ -41,12 +43,24 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 
 public class ExecuteWorkloadMode implements ClientMode<Object>
 {
+    /**
+     * Duration (ms) each client waits before issuing its next operation, when scheduled start times are ignored.
+     * Clients are the executor threads, so with think time the load is a closed loop of thread count clients.
+     */
+    public static final String THINK_TIME_ARG = "think_time";
+    /**
+     * Port of the embedded HTTP server that serves live metrics while the workload executes, see
+     * {@link LiveMetricsHttpServer}. Server is not started if not set.
+     */
+    public static final String LIVE_METRICS_PORT_ARG = "live_metrics_port";
     private static final DecimalFormat NUMBER_FORMAT = new DecimalFormat( "###,###,###,###,###" );
     private final ControlService controlService;
     private final TimeSource timeSource;
@@ -56,11 +70,15 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
     private final ResultsDirectory resultsDirectory;
 
     private Workload workload = null;
-    private Db database = null;
-    private MetricsService metricsService = null;
-    private CompletionTimeService completionTimeService = null;
-    private WorkloadRunner workloadRunner = null;
+    // services of the current phase are also read by the live metrics server
+    private volatile boolean warmup = false;
+    private volatile Db database = null;
+    private volatile MetricsService metricsService = null;
+    private volatile CompletionTimeService completionTimeService = null;
+    private volatile WorkloadRunner workloadRunner = null;
     private SimpleCsvFileWriter csvResultsLogFileWriter = null;
+    private WorkloadResultsSnapshot workloadResults = null;
+    private ResultsLogValidationResult validationResult = null;
 
     public ExecuteWorkloadMode(
             ControlService controlService,
@@ -75,14 +93,61 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
         this.resultsDirectory = new ResultsDirectory( controlService.configuration() );
     }
 
-    /*
-    TODO clientMode.init()
-    TODO clientMode
+    /**
+     * May be called from any thread while the workload executes, does not wait on it
      */
-    public WorkloadStatusSnapshot status() throws MetricsCollectionException
+    public LiveMetrics liveMetrics()
     {
-        // TODO
-        return null;
+        long nowAsMilli = timeSource.nowAsMilli();
+        long globalCompletionTimeAsMilli = -1;
+        CompletionTimeService currentCompletionTimeService = completionTimeService;
+        if ( null != currentCompletionTimeService )
+        {
+            try
+            {
+                globalCompletionTimeAsMilli = currentCompletionTimeService.globalCompletionTimeAsMilli();
+            }
+            catch ( CompletionTimeException e )
+            {
+                // reported as unknown
+            }
+        }
+        long globalCompletionTimeLagAsMilli = (globalCompletionTimeAsMilli < 0)
+                                              ? -1
+                                              : Math.max( 0, nowAsMilli - globalCompletionTimeAsMilli );
+        WorkloadRunner currentWorkloadRunner = workloadRunner;
+        Map<String,Long> uncompletedOperationHandlerCounts = new HashMap<>();
+        if ( null != currentWorkloadRunner )
+        {
+            uncompletedOperationHandlerCounts = currentWorkloadRunner.uncompletedOperationHandlerCounts();
+        }
+        Db currentDatabase = database;
+        MetricsService currentMetricsService = metricsService;
+        return new LiveMetrics(
+                nowAsMilli,
+                (warmup) ? "warmup" : "run",
+                globalCompletionTimeAsMilli,
+                globalCompletionTimeLagAsMilli,
+                uncompletedOperationHandlerCounts,
+                (null == currentDatabase) ? 0 : currentDatabase.operationHandlerRunnableContextPoolSize(),
+                (null == currentMetricsService) ? null : currentMetricsService.liveSnapshot()
+        );
+    }
+
+    /**
+     * @return metrics of the most recently completed phase, or null if no phase has completed
+     */
+    WorkloadResultsSnapshot results()
+    {
+        return workloadResults;
+    }
+
+    /**
+     * @return validation result of the most recently completed phase, or null if its results log was not validated
+     */
+    ResultsLogValidationResult validationResult()
+    {
+        return validationResult;
     }
 
     @Override
@@ -94,6 +159,59 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
 
     @Override
     public Object startExecutionAndAwaitCompletion() throws ClientException
+    {
+        LiveMetricsHttpServer liveMetricsHttpServer = startLiveMetricsHttpServer();
+        try
+        {
+            executeWarmupAndRun();
+        }
+        finally
+        {
+            if ( null != liveMetricsHttpServer )
+            {
+                liveMetricsHttpServer.stop();
+            }
+        }
+        return null;
+    }
+
+    private LiveMetricsHttpServer startLiveMetricsHttpServer() throws ClientException
+    {
+        String port = controlService.configuration().asMap().get( LIVE_METRICS_PORT_ARG );
+        if ( null == port )
+        {
+            return null;
+        }
+        try
+        {
+            LiveMetricsHttpServer liveMetricsHttpServer = new LiveMetricsHttpServer(
+                    Integer.parseInt( port ),
+                    new LiveMetricsHttpServer.LiveMetricsSource()
+                    {
+                        @Override
+                        public LiveMetrics liveMetrics()
+                        {
+                            return ExecuteWorkloadMode.this.liveMetrics();
+                        }
+                    } );
+            liveMetricsHttpServer.start();
+            loggingService.info( format( "Serving live metrics at http://localhost:%s%s and %s",
+                    liveMetricsHttpServer.port(),
+                    LiveMetricsHttpServer.PROMETHEUS_PATH,
+                    LiveMetricsHttpServer.JSON_PATH ) );
+            return liveMetricsHttpServer;
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new ClientException( format( "Error parsing %s: %s", LIVE_METRICS_PORT_ARG, port ), e );
+        }
+        catch ( IOException e )
+        {
+            throw new ClientException( format( "Error starting live metrics server on port: %s", port ), e );
+        }
+    }
+
+    private void executeWarmupAndRun() throws ClientException
     {
         if ( controlService.configuration().skipCount() > 0 )
         {
@@ -109,18 +227,6 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
                                  " --------------------" );
             doInit( true );
             doExecute( true );
-            try
-            {
-                // TODO remove in future
-                // This is necessary to clear the runnable context pool
-                // As objects in the pool would otherwise hold references to services used during warmup
-                database.reInit();
-            }
-            catch ( DbException e )
-            {
-                throw new ClientException(
-                        format( "Error reinitializing DB after warmup: %s", database.getClass().getName() ), e );
-            }
         }
         else
         {
@@ -148,11 +254,11 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
             throw new ClientException( "Error shutting down database", e );
         }
         loggingService.info( "Workload completed successfully" );
-        return null;
     }
 
     private void doInit( boolean warmup ) throws ClientException
     {
+        this.warmup = warmup;
         ConcurrentErrorReporter errorReporter = new ConcurrentErrorReporter();
         GeneratorFactory gf = new GeneratorFactory( new RandomDataGeneratorFactory( randomSeed ) );
 
@@ -265,6 +371,12 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
         //  ========================
         //  ===  Metrics Service  ==
         //  ========================
+        long thinkTimeAsMilli = thinkTimeAsMilli();
+        if ( controlService.configuration().ignoreScheduledStartTimes() )
+        {
+            loggingService.info( format( "Closed loop load: %s clients, think time %s ms",
+                    controlService.configuration().threadCount(), thinkTimeAsMilli ) );
+        }
         try
         {
             // TODO create metrics service factory so different ones can be easily created
@@ -275,6 +387,8 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
                     DisruptorSbeMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
                     csvResultsLogFileWriter,
                     workload.operationTypeToClassMapping(),
+                    controlService.configuration().ignoreScheduledStartTimes(),
+                    TimeUnit.MILLISECONDS.toNanos( thinkTimeAsMilli ),
                     controlService.loggingServiceFactory()
             );
         }
@@ -322,6 +436,7 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
                     controlService.configuration().statusDisplayIntervalAsSeconds(),
                     controlService.configuration().spinnerSleepDurationAsMilli(),
                     controlService.configuration().ignoreScheduledStartTimes(),
+                    thinkTimeAsMilli,
                     operationHandlerExecutorsBoundedQueueSize );
         }
         catch ( Exception e )
@@ -389,6 +504,28 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
         }
     }
 
+    private long thinkTimeAsMilli() throws ClientException
+    {
+        String thinkTime = controlService.configuration().asMap().get( THINK_TIME_ARG );
+        if ( null == thinkTime )
+        {
+            return Spinner.NO_THINK_TIME;
+        }
+        try
+        {
+            long thinkTimeAsMilli = Long.parseLong( thinkTime );
+            if ( thinkTimeAsMilli < 0 )
+            {
+                throw new ClientException( format( "%s must not be negative: %s", THINK_TIME_ARG, thinkTime ) );
+            }
+            return thinkTimeAsMilli;
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new ClientException( format( "Error parsing %s: %s", THINK_TIME_ARG, thinkTime ), e );
+        }
+    }
+
     private void doExecute( boolean warmup ) throws ClientException
     {
         try
@@ -417,7 +554,7 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
         }
 
         loggingService.info( "Shutting down metrics collection service..." );
-        WorkloadResultsSnapshot workloadResults;
+        validationResult = null;
         try
         {
             workloadResults = metricsService.getWriter().results();
@@ -479,7 +616,7 @@ public class ExecuteWorkloadMode implements ClientMode<Object>
                             resultsLogValidationSummary.toJson().getBytes( StandardCharsets.UTF_8 )
                     );
                     // TODO export result
-                    ResultsLogValidationResult validationResult = resultsLogValidator.validate(
+                    validationResult = resultsLogValidator.validate(
                             resultsLogValidationSummary,
                             resultsLogValidationTolerances
                     );
@@ -0,0 +1,116 @@
+package com.ldbc.driver.client;
+
+/**
+ * Search for the smallest sustainable time compression ratio, i.e., the highest sustainable throughput.
+ * <p>
+ * Starting from an initial ratio, the ratio is halved after every sustainable segment and doubled after every
+ * unsustainable segment, until there is one of each. From then on the interval between the smallest sustainable
+ * ratio and the largest unsustainable ratio is bisected, geometrically as compression is multiplicative, until the
+ * two are within the given relative tolerance of each other.
+ */
+class ThroughputSearch
+{
+    static final double STEP = 2.0;
+    static final double MIN_RATIO = 0.000001;
+    static final double MAX_RATIO = 1000000;
+
+    private final double initialRatio;
+    private final double tolerance;
+    private Double sustainableRatio = null;
+    private double sustainableThroughput = 0;
+    private Double unsustainableRatio = null;
+
+    ThroughputSearch( double initialRatio, double tolerance )
+    {
+        if ( initialRatio <= 0 )
+        {
+            throw new IllegalArgumentException( "Initial time compression ratio must be positive: " + initialRatio );
+        }
+        if ( tolerance <= 0 )
+        {
+            throw new IllegalArgumentException( "Tolerance must be positive: " + tolerance );
+        }
+        this.initialRatio = initialRatio;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return time compression ratio to try next
+     */
+    double nextRatio()
+    {
+        if ( null == sustainableRatio && null == unsustainableRatio )
+        {
+            return initialRatio;
+        }
+        else if ( null == unsustainableRatio )
+        {
+            return sustainableRatio / STEP;
+        }
+        else if ( null == sustainableRatio )
+        {
+            return unsustainableRatio * STEP;
+        }
+        else
+        {
+            return Math.sqrt( sustainableRatio * unsustainableRatio );
+        }
+    }
+
+    void report( double ratio, boolean sustainable, double throughput )
+    {
+        if ( sustainable )
+        {
+            if ( null == sustainableRatio || ratio < sustainableRatio )
+            {
+                sustainableRatio = ratio;
+                sustainableThroughput = throughput;
+            }
+        }
+        else
+        {
+            if ( null == unsustainableRatio || ratio > unsustainableRatio )
+            {
+                unsustainableRatio = ratio;
+            }
+        }
+    }
+
+    /**
+     * @return true if the search interval is within tolerance, or the ratio is beyond any useful value
+     */
+    boolean converged()
+    {
+        if ( null != sustainableRatio && sustainableRatio <= MIN_RATIO )
+        {
+            return true;
+        }
+        if ( null != unsustainableRatio && unsustainableRatio >= MAX_RATIO )
+        {
+            return true;
+        }
+        return null != sustainableRatio && null != unsustainableRatio &&
+               sustainableRatio / unsustainableRatio <= 1 + tolerance;
+    }
+
+    /**
+     * @return smallest time compression ratio found to be sustainable, or null if none was
+     */
+    Double sustainableRatio()
+    {
+        return sustainableRatio;
+    }
+
+    /**
+     * @return throughput (operations/second) measured at the smallest sustainable time compression ratio
+     */
+    double sustainableThroughput()
+    {
+        return sustainableThroughput;
+    }
+
+    Double unsustainableRatio()
+    {
+        return unsustainableRatio;
+    }
+}
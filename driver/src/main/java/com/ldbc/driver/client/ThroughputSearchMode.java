@@ -0,0 +1,219 @@
+package com.ldbc.driver.client;
+
+import com.ldbc.driver.ClientException;
+import com.ldbc.driver.control.ConsoleAndFileDriverConfiguration;
+import com.ldbc.driver.control.ControlService;
+import com.ldbc.driver.control.DriverConfiguration;
+import com.ldbc.driver.control.DriverConfigurationException;
+import com.ldbc.driver.control.LocalControlService;
+import com.ldbc.driver.control.LoggingService;
+import com.ldbc.driver.runtime.metrics.ContinuousMetricSnapshot;
+import com.ldbc.driver.runtime.metrics.OperationMetricsSnapshot;
+import com.ldbc.driver.runtime.metrics.WorkloadResultsSnapshot;
+import com.ldbc.driver.temporal.TimeSource;
+import com.ldbc.driver.util.Tuple;
+import com.ldbc.driver.util.Tuple2;
+import com.ldbc.driver.validation.ResultsLogValidationResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Searches for the maximum throughput the database sustains, i.e., the smallest time compression ratio at which
+ * operations still start on time.
+ * <p>
+ * The workload is executed in short consecutive segments, each at a different time compression ratio, picked by
+ * {@link ThroughputSearch}. A segment is sustainable if its results log passes validation against the workload's
+ * tolerances for late operations and, if a limit is configured, the 95th percentile response time of every operation
+ * type is within that limit. Response time, unlike run time, includes the time an operation spent waiting behind
+ * schedule, which is what grows first once the database falls behind. Operation count is the budget of operations for the whole search, after warmup.
+ * <p>
+ * Returns the smallest sustainable time compression ratio and the throughput measured at that ratio, or null for
+ * both if no sustainable ratio was found.
+ */
+public class ThroughputSearchMode implements ClientMode<Tuple2<Double,Double>>
+{
+    public static final String THROUGHPUT_SEARCH_ARG = "throughput_search";
+    public static final String SEGMENT_OPERATION_COUNT_ARG = "throughput_search_segment_operation_count";
+    public static final String TOLERANCE_ARG = "throughput_search_tolerance";
+    public static final double TOLERANCE_DEFAULT = 0.05;
+    public static final String MAX_P95_LATENCY_AS_MILLI_ARG = "throughput_search_max_p95_latency_as_milli";
+    static final long SEGMENT_COUNT_DEFAULT = 10;
+
+    private static final DecimalFormat NUMBER_FORMAT = new DecimalFormat( "###,###,###,###,###" );
+    private static final DecimalFormat RATIO_FORMAT = new DecimalFormat( "0.000000" );
+    private static final DecimalFormat THROUGHPUT_FORMAT = new DecimalFormat( "###,###,###,###,##0.00" );
+    private final ControlService controlService;
+    private final TimeSource timeSource;
+    private final LoggingService loggingService;
+    private final long randomSeed;
+    private final long segmentOperationCount;
+    private final double tolerance;
+    private final Long maxP95LatencyAsMilli;
+
+    public static boolean isThroughputSearch( DriverConfiguration configuration )
+    {
+        return Boolean.parseBoolean( configuration.asMap().get( THROUGHPUT_SEARCH_ARG ) );
+    }
+
+    public ThroughputSearchMode(
+            ControlService controlService,
+            TimeSource timeSource,
+            long randomSeed ) throws ClientException
+    {
+        this.controlService = controlService;
+        this.timeSource = timeSource;
+        this.loggingService = controlService.loggingServiceFactory().loggingServiceFor( getClass().getSimpleName() );
+        this.randomSeed = randomSeed;
+        Map<String,String> paramsMap = controlService.configuration().asMap();
+        try
+        {
+            this.segmentOperationCount = (paramsMap.containsKey( SEGMENT_OPERATION_COUNT_ARG ))
+                                         ? Long.parseLong( paramsMap.get( SEGMENT_OPERATION_COUNT_ARG ) )
+                                         : Math.max( 1, controlService.configuration().operationCount() /
+                                                        SEGMENT_COUNT_DEFAULT );
+            this.tolerance = (paramsMap.containsKey( TOLERANCE_ARG ))
+                             ? Double.parseDouble( paramsMap.get( TOLERANCE_ARG ) )
+                             : TOLERANCE_DEFAULT;
+            this.maxP95LatencyAsMilli = (paramsMap.containsKey( MAX_P95_LATENCY_AS_MILLI_ARG ))
+                                        ? Long.parseLong( paramsMap.get( MAX_P95_LATENCY_AS_MILLI_ARG ) )
+                                        : null;
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new ClientException( "Error parsing throughput search parameters", e );
+        }
+        if ( segmentOperationCount < 1 || segmentOperationCount > controlService.configuration().operationCount() )
+        {
+            throw new ClientException(
+                    format( "%s must be between 1 and operation count (%s), was %s",
+                            SEGMENT_OPERATION_COUNT_ARG,
+                            controlService.configuration().operationCount(),
+                            segmentOperationCount ) );
+        }
+    }
+
+    @Override
+    public void init() throws ClientException
+    {
+        loggingService.info( "Driver Configuration" );
+        loggingService.info( controlService.toString() );
+    }
+
+    @Override
+    public Tuple2<Double,Double> startExecutionAndAwaitCompletion() throws ClientException
+    {
+        DriverConfiguration configuration = controlService.configuration();
+        File resultsDir;
+        try
+        {
+            resultsDir = (null == configuration.resultDirPath())
+                         ? Files.createTempDirectory( "throughput_search" ).toFile()
+                         : new File( configuration.resultDirPath() );
+        }
+        catch ( IOException e )
+        {
+            throw new ClientException( "Error creating directory for results logs of throughput search", e );
+        }
+        loggingService.info( format( "Writing results of throughput search segments to: %s",
+                resultsDir.getAbsolutePath() ) );
+
+        ThroughputSearch search = new ThroughputSearch( configuration.timeCompressionRatio(), tolerance );
+        long segmentCount = configuration.operationCount() / segmentOperationCount;
+        long offset = configuration.skipCount();
+        long segment = 0;
+        while ( segment < segmentCount && false == search.converged() )
+        {
+            double ratio = search.nextRatio();
+            // only the first segment warms up, later segments continue from where the previous one stopped
+            long warmupCount = (0 == segment) ? configuration.warmupCount() : 0;
+            Map<String,String> segmentParams = new HashMap<>();
+            segmentParams.put( ConsoleAndFileDriverConfiguration.NAME_ARG,
+                    format( "%s-throughput_search-%s", configuration.name(), segment ) );
+            segmentParams.put( ConsoleAndFileDriverConfiguration.RESULT_DIR_PATH_ARG, resultsDir.getAbsolutePath() );
+            segmentParams.put( ConsoleAndFileDriverConfiguration.TIME_COMPRESSION_RATIO_ARG, Double.toString( ratio ) );
+            segmentParams.put( ConsoleAndFileDriverConfiguration.SKIP_COUNT_ARG, Long.toString( offset ) );
+            segmentParams.put( ConsoleAndFileDriverConfiguration.WARMUP_COUNT_ARG, Long.toString( warmupCount ) );
+            segmentParams.put( ConsoleAndFileDriverConfiguration.OPERATION_COUNT_ARG,
+                    Long.toString( segmentOperationCount ) );
+            ControlService segmentControlService;
+            try
+            {
+                segmentControlService = new LocalControlService(
+                        timeSource.nowAsMilli(),
+                        configuration.applyArgs( segmentParams ),
+                        controlService.loggingServiceFactory(),
+                        timeSource
+                );
+            }
+            catch ( DriverConfigurationException e )
+            {
+                throw new ClientException( format( "Error configuring throughput search segment %s", segment ), e );
+            }
+
+            loggingService.info( format( "\n" +
+                                         " --- Throughput Search Segment %s ---\n" +
+                                         " --- Time Compression Ratio: %s, Operations: %s",
+                    segment, RATIO_FORMAT.format( ratio ), NUMBER_FORMAT.format( segmentOperationCount ) ) );
+            ExecuteWorkloadMode segmentMode = new ExecuteWorkloadMode( segmentControlService, timeSource, randomSeed );
+            segmentMode.startExecutionAndAwaitCompletion();
+
+            WorkloadResultsSnapshot results = segmentMode.results();
+            ResultsLogValidationResult validationResult = segmentMode.validationResult();
+            long p95LatencyAsMilli = maxP95LatencyAsMilli( results );
+            boolean onTime = null != validationResult && validationResult.isSuccessful();
+            boolean fastEnough = null == maxP95LatencyAsMilli || p95LatencyAsMilli <= maxP95LatencyAsMilli;
+            search.report( ratio, onTime && fastEnough, results.throughput() );
+            loggingService.info( format( "Throughput search segment %s: ratio %s, throughput %s op/s, " +
+                                         "max p95 response time %s ms, on time %s, %s",
+                    segment,
+                    RATIO_FORMAT.format( ratio ),
+                    THROUGHPUT_FORMAT.format( results.throughput() ),
+                    p95LatencyAsMilli,
+                    onTime,
+                    (onTime && fastEnough) ? "sustainable" : "NOT sustainable" ) );
+
+            offset += warmupCount + segmentOperationCount;
+            segment++;
+        }
+
+        if ( null == search.sustainableRatio() )
+        {
+            loggingService.info( format( "Throughput search found no sustainable time compression ratio " +
+                                         "(largest tried: %s)", RATIO_FORMAT.format( search.unsustainableRatio() ) ) );
+            return Tuple.<Double,Double>tuple2( null, null );
+        }
+        loggingService.info( format( "\n" +
+                                     " --- Throughput Search %s after %s segments ---\n" +
+                                     " --- Maximum Sustainable Time Compression Ratio: %s\n" +
+                                     " --- Maximum Sustainable Throughput: %s op/s",
+                (search.converged()) ? "Converged" : "Ran out of operations",
+                segment,
+                RATIO_FORMAT.format( search.sustainableRatio() ),
+                THROUGHPUT_FORMAT.format( search.sustainableThroughput() ) ) );
+        return Tuple.tuple2( search.sustainableRatio(), search.sustainableThroughput() );
+    }
+
+    private static long maxP95LatencyAsMilli( WorkloadResultsSnapshot results )
+    {
+        long maxP95LatencyAsNano = 0;
+        for ( OperationMetricsSnapshot operationMetrics : results.allMetrics() )
+        {
+            ContinuousMetricSnapshot responseTimeMetric = operationMetrics.responseTimeMetric();
+            if ( responseTimeMetric.count() > 0 )
+            {
+                maxP95LatencyAsNano = Math.max(
+                        maxP95LatencyAsNano,
+                        responseTimeMetric.unit().toNanos( responseTimeMetric.percentile95() ) );
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis( maxP95LatencyAsNano );
+    }
+}
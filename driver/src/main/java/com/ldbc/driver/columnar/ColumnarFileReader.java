@@ -0,0 +1,326 @@
+package com.ldbc.driver.columnar;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static java.lang.String.format;
+
+/**
+ * Reader of the columnar binary files written by the datagen Columnar*Serializer classes.
+ * <p>
+ * file      := "LDBCCOL1" int:numColumns column* rowGroup* int:0
+ * column    := UTF:name byte:type                      (type 0 = LONG, 1 = STRING)
+ * rowGroup  := int:numRows int[numColumns]:chunkLength chunk*   (one chunk per column)
+ * LONG      := long:min long:max long[numRows]
+ * STRING    := int:dictionarySize (int:length byte[length])[dictionarySize] int[numRows]
+ * <p>
+ * Files are read one row group at a time: after nextRowGroup() returns true, the values of the row group are
+ * available column wise through longs() and codes()/dictionary(). Arrays are reused across row groups. Columns left
+ * out by selectColumns() are skipped by their chunk length without being decoded.
+ */
+public class ColumnarFileReader implements Closeable
+{
+    public enum ColumnType
+    {
+        LONG,
+        STRING
+    }
+
+    private static final byte[] MAGIC = "LDBCCOL1".getBytes( StandardCharsets.US_ASCII );
+
+    private final DataInputStream in;
+    private final String[] names;
+    private final ColumnType[] types;
+    private final long[] mins;
+    private final long[] maxs;
+    private final long[][] longs;
+    private final int[][] codes;
+    private final String[][] dictionaries;
+    private final int[] chunkLengths;
+    private final boolean[] selected;
+    private int rowCount = 0;
+    private boolean finished = false;
+
+    public ColumnarFileReader( File file ) throws IOException
+    {
+        this( file.getName().endsWith( ".gz" )
+              ? new GZIPInputStream( new FileInputStream( file ), 1 << 16 )
+              : new FileInputStream( file ) );
+    }
+
+    public ColumnarFileReader( InputStream inputStream ) throws IOException
+    {
+        this.in = new DataInputStream( new BufferedInputStream( inputStream, 1 << 20 ) );
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully( magic );
+        if ( !Arrays.equals( magic, MAGIC ) )
+        {
+            throw new IOException( "Not a columnar file" );
+        }
+        int columnCount = in.readInt();
+        names = new String[columnCount];
+        types = new ColumnType[columnCount];
+        mins = new long[columnCount];
+        maxs = new long[columnCount];
+        longs = new long[columnCount][];
+        codes = new int[columnCount][];
+        dictionaries = new String[columnCount][];
+        chunkLengths = new int[columnCount];
+        selected = new boolean[columnCount];
+        for ( int i = 0; i < columnCount; i++ )
+        {
+            names[i] = in.readUTF();
+            int type = in.readByte();
+            if ( type < 0 || type >= ColumnType.values().length )
+            {
+                throw new IOException( format( "Unknown type %s of column %s", type, names[i] ) );
+            }
+            types[i] = ColumnType.values()[type];
+            longs[i] = new long[0];
+            codes[i] = new int[0];
+            dictionaries[i] = new String[0];
+            selected[i] = true;
+        }
+    }
+
+    /**
+     * Restricts the following row groups to the given columns, the chunks of the other columns are skipped
+     */
+    public void selectColumns( int... columns )
+    {
+        Arrays.fill( selected, false );
+        for ( int column : columns )
+        {
+            selected[column] = true;
+        }
+    }
+
+    public int columnCount()
+    {
+        return names.length;
+    }
+
+    public String columnName( int column )
+    {
+        return names[column];
+    }
+
+    public ColumnType columnType( int column )
+    {
+        return types[column];
+    }
+
+    /**
+     * @return index of the first column with the given name, or -1 if there is none
+     */
+    public int columnIndex( String name )
+    {
+        for ( int i = 0; i < names.length; i++ )
+        {
+            if ( names[i].equals( name ) )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the next row group
+     *
+     * @return false if there are no more row groups
+     */
+    public boolean nextRowGroup() throws IOException
+    {
+        if ( finished )
+        {
+            return false;
+        }
+        rowCount = in.readInt();
+        if ( 0 == rowCount )
+        {
+            finished = true;
+            return false;
+        }
+        for ( int c = 0; c < names.length; c++ )
+        {
+            chunkLengths[c] = in.readInt();
+            if ( chunkLengths[c] < 0 )
+            {
+                throw new IOException( format( "Negative chunk length %s of column %s", chunkLengths[c], names[c] ) );
+            }
+        }
+        for ( int c = 0; c < names.length; c++ )
+        {
+            if ( false == selected[c] )
+            {
+                skipChunk( c );
+            }
+            else if ( ColumnType.LONG == types[c] )
+            {
+                checkChunkLength( c, 16 + 8L * rowCount );
+                mins[c] = in.readLong();
+                maxs[c] = in.readLong();
+                if ( longs[c].length < rowCount )
+                {
+                    longs[c] = new long[rowCount];
+                }
+                long[] values = longs[c];
+                for ( int i = 0; i < rowCount; i++ )
+                {
+                    values[i] = in.readLong();
+                }
+            }
+            else
+            {
+                int dictionarySize = in.readInt();
+                if ( dictionaries[c].length < dictionarySize )
+                {
+                    dictionaries[c] = new String[dictionarySize];
+                }
+                String[] dictionary = dictionaries[c];
+                long chunkLength = 4 + 4L * rowCount;
+                for ( int i = 0; i < dictionarySize; i++ )
+                {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully( bytes );
+                    dictionary[i] = new String( bytes, StandardCharsets.UTF_8 );
+                    chunkLength += 4 + bytes.length;
+                }
+                if ( codes[c].length < rowCount )
+                {
+                    codes[c] = new int[rowCount];
+                }
+                int[] rowCodes = codes[c];
+                for ( int i = 0; i < rowCount; i++ )
+                {
+                    rowCodes[i] = in.readInt();
+                }
+                checkChunkLength( c, chunkLength );
+            }
+        }
+        return true;
+    }
+
+    private void skipChunk( int column ) throws IOException
+    {
+        int remaining = chunkLengths[column];
+        while ( remaining > 0 )
+        {
+            int skipped = in.skipBytes( remaining );
+            if ( 0 == skipped )
+            {
+                throw new EOFException( format( "End of file in chunk of column %s", names[column] ) );
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private void checkChunkLength( int column, long chunkLength ) throws IOException
+    {
+        if ( chunkLengths[column] != chunkLength )
+        {
+            throw new IOException( format( "Chunk of column %s is %s bytes long, header says %s",
+                    names[column], chunkLength, chunkLengths[column] ) );
+        }
+    }
+
+    /**
+     * @return number of rows of the current row group
+     */
+    public int rowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * @return length in bytes of the chunk of a column in the current row group
+     */
+    public int chunkLength( int column )
+    {
+        return chunkLengths[column];
+    }
+
+    /**
+     * @return minimum value of a LONG column in the current row group
+     */
+    public long min( int column )
+    {
+        checkType( column, ColumnType.LONG );
+        return mins[column];
+    }
+
+    /**
+     * @return maximum value of a LONG column in the current row group
+     */
+    public long max( int column )
+    {
+        checkType( column, ColumnType.LONG );
+        return maxs[column];
+    }
+
+    /**
+     * @return values of a LONG column in the current row group, only the first rowCount() entries are valid
+     */
+    public long[] longs( int column )
+    {
+        checkType( column, ColumnType.LONG );
+        return longs[column];
+    }
+
+    /**
+     * @return dictionary positions of the values of a STRING column in the current row group, only the first
+     * rowCount() entries are valid
+     */
+    public int[] codes( int column )
+    {
+        checkType( column, ColumnType.STRING );
+        return codes[column];
+    }
+
+    /**
+     * @return dictionary of a STRING column in the current row group
+     */
+    public String[] dictionary( int column )
+    {
+        checkType( column, ColumnType.STRING );
+        return dictionaries[column];
+    }
+
+    public long getLong( int column, int row )
+    {
+        return longs( column )[row];
+    }
+
+    public String getString( int column, int row )
+    {
+        return dictionary( column )[codes( column )[row]];
+    }
+
+    private void checkType( int column, ColumnType type )
+    {
+        if ( types[column] != type )
+        {
+            throw new IllegalArgumentException( format( "Column %s is of type %s, not %s", names[column], types[column], type ) );
+        }
+        if ( false == selected[column] )
+        {
+            throw new IllegalStateException( format( "Column %s is not selected", names[column] ) );
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+}
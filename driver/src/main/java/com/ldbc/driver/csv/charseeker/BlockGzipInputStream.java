@@ -0,0 +1,227 @@
+package com.ldbc.driver.csv.charseeker;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads block compressed gzip files (BGZF, as written by {@link BlockGzipOutputStream} or bgzip), decompressing
+ * the blocks in parallel.
+ * <p/>
+ * Such a file is a sequence of gzip members of at most 64KB each, whose header carries the size of the member in
+ * an extra field, so blocks are split without decompressing them and the file is still a valid gzip file.
+ * Compressed blocks are read sequentially and handed to a pool of threads shared by all the streams, keeping a
+ * bounded number of blocks in flight, and are returned in file order.
+ */
+public class BlockGzipInputStream extends InputStream {
+    static final int HEADER_LENGTH = 18;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "block-gzip-inflater");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private static final ThreadLocal<Inflater> INFLATERS = new ThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater(true);
+        }
+    };
+
+    private final InputStream in;
+    private final int maxBlocksInFlight;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private byte[] current = EMPTY;
+    private int position = 0;
+    private boolean inputDone = false;
+
+    public BlockGzipInputStream(InputStream in) {
+        this(in, 2 * THREADS);
+    }
+
+    public BlockGzipInputStream(InputStream in, int maxBlocksInFlight) {
+        this.in = new BufferedInputStream(in, 1 << 20);
+        this.maxBlocksInFlight = maxBlocksInFlight;
+    }
+
+    /**
+     * @return true if the first bytes of a file are the header of a block compressed gzip member
+     */
+    public static boolean isBlockGzip(byte[] header, int length) {
+        return length >= HEADER_LENGTH &&
+                (header[0] & 0xFF) == 31 && (header[1] & 0xFF) == 139 && header[2] == 8 && (header[3] & 4) != 0 &&
+                unsignedShort(header, 10) >= 6 &&
+                header[12] == 'B' && header[13] == 'C' && unsignedShort(header, 14) == 2;
+    }
+
+    private static int unsignedShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int intLittleEndian(byte[] bytes, int offset) {
+        return unsignedShort(bytes, offset) | (unsignedShort(bytes, offset + 2) << 16);
+    }
+
+    /**
+     * @return the deflated data of the next block followed by its CRC32 and size, or null at the end of the file
+     */
+    private byte[] readBlock() throws IOException {
+        int read = 0;
+        while (read < HEADER_LENGTH) {
+            int n = in.read(header, read, HEADER_LENGTH - read);
+            if (n == -1) {
+                if (read == 0) {
+                    return null;
+                }
+                throw new EOFException("Truncated block gzip header");
+            }
+            read += n;
+        }
+        if (!isBlockGzip(header, HEADER_LENGTH)) {
+            throw new IOException("Not a block gzip member");
+        }
+        int extraLength = unsignedShort(header, 10);
+        int blockSize = unsignedShort(header, 16) + 1;
+        skipFully(extraLength - 6);
+        byte[] block = new byte[blockSize - 12 - extraLength];
+        readFully(block);
+        return block;
+    }
+
+    private void skipFully(int n) throws IOException {
+        while (n > 0) {
+            if (in.read() == -1) {
+                throw new EOFException("Truncated block gzip header");
+            }
+            n--;
+        }
+    }
+
+    private void readFully(byte[] bytes) throws IOException {
+        int read = 0;
+        while (read < bytes.length) {
+            int n = in.read(bytes, read, bytes.length - read);
+            if (n == -1) {
+                throw new EOFException("Truncated block gzip member");
+            }
+            read += n;
+        }
+    }
+
+    private static Callable<byte[]> inflate(final byte[] block) {
+        return new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IOException {
+                int dataLength = block.length - 8;
+                int crc = intLittleEndian(block, dataLength);
+                byte[] data = new byte[intLittleEndian(block, dataLength + 4)];
+                Inflater inflater = INFLATERS.get();
+                inflater.reset();
+                inflater.setInput(block, 0, dataLength);
+                try {
+                    int inflated = 0;
+                    while (inflated < data.length) {
+                        int n = inflater.inflate(data, inflated, data.length - inflated);
+                        if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                            throw new IOException("Corrupt block gzip member");
+                        }
+                        inflated += n;
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupt block gzip member", e);
+                }
+                CRC32 crc32 = new CRC32();
+                crc32.update(data, 0, data.length);
+                if ((int) crc32.getValue() != crc) {
+                    throw new IOException("Block gzip member failed CRC check");
+                }
+                return data;
+            }
+        };
+    }
+
+    /**
+     * Moves to the next non empty decompressed block
+     *
+     * @return false at the end of the file
+     */
+    private boolean nextBlock() throws IOException {
+        while (true) {
+            while (!inputDone && pending.size() < maxBlocksInFlight) {
+                byte[] block = readBlock();
+                if (block == null) {
+                    inputDone = true;
+                } else {
+                    pending.add(EXECUTOR.submit(inflate(block)));
+                }
+            }
+            if (pending.isEmpty()) {
+                return false;
+            }
+            try {
+                current = pending.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while decompressing", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+            position = 0;
+            if (current.length > 0) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == current.length && !nextBlock()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == current.length && !nextBlock()) {
+            return -1;
+        }
+        int n = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<byte[]> future : pending) {
+            future.cancel(false);
+        }
+        pending.clear();
+        in.close();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ldbc.driver.csv.charseeker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes block compressed gzip files (BGZF), read in parallel by {@link BlockGzipInputStream}. The output is a
+ * valid gzip file, which gunzip or zcat decompress as usual.
+ */
+public class BlockGzipOutputStream extends OutputStream {
+    private static final int MAX_INPUT_LENGTH = 0xff00;
+    private static final int MAX_BLOCK_LENGTH = 0x10000;
+    private static final byte[] EOF_BLOCK = {
+            31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255, 6, 0, 'B', 'C', 2, 0, 27, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private final OutputStream out;
+    private final Deflater deflater;
+    private final byte[] input = new byte[MAX_INPUT_LENGTH];
+    private final byte[] block = new byte[MAX_BLOCK_LENGTH];
+    private final CRC32 crc32 = new CRC32();
+    private int inputLength = 0;
+    private boolean closed = false;
+
+    public BlockGzipOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public BlockGzipOutputStream(OutputStream out, int level) {
+        this.out = out;
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (inputLength == input.length) {
+            writeBlock();
+        }
+        input[inputLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (inputLength == input.length) {
+                writeBlock();
+            }
+            int n = Math.min(length, input.length - inputLength);
+            System.arraycopy(bytes, offset, input, inputLength, n);
+            inputLength += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (inputLength == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(input, 0, inputLength);
+        deflater.finish();
+        int dataLength = 0;
+        while (!deflater.finished()) {
+            dataLength += deflater.deflate(block, BlockGzipInputStream.HEADER_LENGTH + dataLength,
+                    MAX_BLOCK_LENGTH - 8 - BlockGzipInputStream.HEADER_LENGTH - dataLength);
+            if (!deflater.finished() && BlockGzipInputStream.HEADER_LENGTH + dataLength >= MAX_BLOCK_LENGTH - 8) {
+                throw new IOException("Block does not fit in a block gzip member");
+            }
+        }
+        int blockLength = BlockGzipInputStream.HEADER_LENGTH + dataLength + 8;
+        System.arraycopy(EOF_BLOCK, 0, block, 0, 16);
+        putShort(blockLength - 1, 16);
+        crc32.reset();
+        crc32.update(input, 0, inputLength);
+        putInt((int) crc32.getValue(), blockLength - 8);
+        putInt(inputLength, blockLength - 4);
+        out.write(block, 0, blockLength);
+        inputLength = 0;
+    }
+
+    private void putShort(int value, int offset) {
+        block[offset] = (byte) value;
+        block[offset + 1] = (byte) (value >>> 8);
+    }
+
+    private void putInt(int value, int offset) {
+        putShort(value, offset);
+        putShort(value >>> 16, offset + 2);
+    }
+
+    /**
+     * Writes the pending data as a complete block
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeBlock();
+            out.write(EOF_BLOCK);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+}
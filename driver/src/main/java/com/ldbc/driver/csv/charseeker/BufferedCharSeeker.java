@@ -193,7 +193,7 @@ public class BufferedCharSeeker implements CharSeeker {
             charBuffer.position(seekStartPos);
             charBuffer.compact();
             int remaining = charBuffer.remaining();
-            int read = reader.read(buffer, charBuffer.position(), remaining);
+            int read = readFully(charBuffer.position(), remaining);
             if (read < remaining) {
                 buffer[charBuffer.position() + max(read, 0)] = EOF_CHAR;
             }
@@ -202,6 +202,22 @@ public class BufferedCharSeeker implements CharSeeker {
         }
     }
 
+    /**
+     * Reads until the buffer is filled or the end of the data, since readers, e.g. of decompressed data, may return
+     * less than asked for before the end
+     */
+    private int readFully(int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = reader.read(buffer, offset + read, length - read);
+            if (n == -1) {
+                break;
+            }
+            read += n;
+        }
+        return read;
+    }
+
     @Override
     public void close() throws IOException {
         reader.close();
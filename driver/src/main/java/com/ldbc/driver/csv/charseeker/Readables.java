@@ -28,6 +28,8 @@ import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Means of instantiating common {@link CharReadable} instances.
  * <p/>
@@ -37,8 +39,13 @@ import java.util.zip.ZipFile;
  * is important and for a ZIP archive with multiple files, the order of the files are whatever the order
  * set by the tool that created the ZIP archive. Therefore only single-file-zip files are supported.
  * The single file in the given ZIP archive will be decompressed on the fly, while reading.</li>
- * <li>GZIP: is only a compression format and so will be decompressed on the fly, while reading.</li>
+ * <li>GZIP: is only a compression format and so will be decompressed on the fly, while reading, in a
+ * {@link ThreadAheadReadable} so that decompressing and parsing happen on different threads.</li>
+ * <li>Block compressed GZIP (BGZF): is still a GZIP file, but made of independently compressed blocks of at most 64KB,
+ * which are decompressed in parallel by {@link BlockGzipInputStream}. Such files are written by
+ * {@link BlockGzipOutputStream} and by bgzip.</li>
  * </ol>
+ * Files are decoded as UTF-8.
  */
 public class Readables {
     /**
@@ -49,6 +56,11 @@ public class Readables {
      * First 2 bytes of a GZIP file have this signature.
      */
     private static final int GZIP_MAGIC = 0x1f8b;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    /**
+     * Characters decompressed ahead of the reader, for GZIP files.
+     */
+    private static final int DEFAULT_READ_AHEAD_SIZE = 1 << 20;
 
     private Readables() {
         throw new AssertionError("No instances allowed");
@@ -82,58 +94,95 @@ public class Readables {
     private static final RawFunction<File, CharReadable, IOException> FROM_FILE = new RawFunction<File, CharReadable, IOException>() {
         @Override
         public CharReadable apply(File file) throws IOException {
-            int magic = magic(file);
-            if (magic == ZIP_MAGIC) {   // ZIP file
-                ZipFile zipFile = new ZipFile(file);
-                ZipEntry entry = getSingleSuitableEntry(zipFile);
-                return wrap(new InputStreamReader(zipFile.getInputStream(entry)));
-            } else if ((magic >>> 16) == GZIP_MAGIC) {   // GZIP file. GZIP isn't an archive like ZIP, so this is purely data that is compressed.
-                // Although a very common way of compressing with GZIP is to use TAR which can combine many
-                // files into one blob, which is then compressed. If that's the case then
-                // the data will look like garbage and the reader will fail for whatever it will be used for.
-                // TODO add tar support
-                GZIPInputStream zipStream = new GZIPInputStream(new FileInputStream(file));
-                return wrap(new InputStreamReader(zipStream));
+            byte[] header = new byte[BlockGzipInputStream.HEADER_LENGTH];
+            int headerLength = header(file, header);
+            CharReadable readable = wrap(new InputStreamReader(open(file, header, headerLength), UTF_8));
+            if (headerLength >= 2 && magic(header) >>> 16 == GZIP_MAGIC &&
+                    !BlockGzipInputStream.isBlockGzip(header, headerLength)) {
+                // plain GZIP can only be decompressed sequentially, so do it on a thread of its own
+                return ThreadAheadReadable.threadAhead(readable, DEFAULT_READ_AHEAD_SIZE);
             }
-
-            return wrap(new FileReader(file));
+            return readable;
         }
+    };
 
-        private ZipEntry getSingleSuitableEntry(ZipFile zipFile) throws IOException {
-            List<String> unsuitableEntries = new ArrayList<>();
-            Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
-            ZipEntry found = null;
-            while (enumeration.hasMoreElements()) {
-                ZipEntry entry = enumeration.nextElement();
-                if (entry.isDirectory() || invalidZipEntry(entry.getName())) {
-                    unsuitableEntries.add(entry.getName());
-                    continue;
-                }
+    /**
+     * Opens a file, decompressing it on the fly when it's one of the compressed formats above, as detected from its
+     * first bytes. Unlike {@link #file(File)} plain GZIP is decompressed by the calling thread.
+     */
+    public static InputStream inputStream(File file) throws IOException {
+        byte[] header = new byte[BlockGzipInputStream.HEADER_LENGTH];
+        return open(file, header, header(file, header));
+    }
 
-                if (found != null) {
-                    throw new IOException("Multiple suitable files found in zip file " + zipFile.getName() +
-                            ", at least " + found.getName() + " and " + entry.getName() +
-                            ". Only a single file per zip file is supported");
-                }
-                found = entry;
+    private static InputStream open(File file, byte[] header, int headerLength) throws IOException {
+        int magic = magic(header);
+        if (headerLength >= 4 && magic == ZIP_MAGIC) {   // ZIP file
+            ZipFile zipFile = new ZipFile(file);
+            ZipEntry entry = getSingleSuitableEntry(zipFile);
+            return zipFile.getInputStream(entry);
+        } else if (BlockGzipInputStream.isBlockGzip(header, headerLength)) {
+            return new BlockGzipInputStream(new FileInputStream(file));
+        } else if (headerLength >= 2 && (magic >>> 16) == GZIP_MAGIC) {
+            // GZIP isn't an archive like ZIP, so this is purely data that is compressed.
+            // Although a very common way of compressing with GZIP is to use TAR which can combine many
+            // files into one blob, which is then compressed. If that's the case then
+            // the data will look like garbage and the reader will fail for whatever it will be used for.
+            // TODO add tar support
+            return new GZIPInputStream(new FileInputStream(file), GZIP_BUFFER_SIZE);
+        }
+        return new FileInputStream(file);
+    }
+
+    private static ZipEntry getSingleSuitableEntry(ZipFile zipFile) throws IOException {
+        List<String> unsuitableEntries = new ArrayList<>();
+        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+        ZipEntry found = null;
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            if (entry.isDirectory() || invalidZipEntry(entry.getName())) {
+                unsuitableEntries.add(entry.getName());
+                continue;
             }
 
-            if (found == null) {
-                throw new IOException("No suitable file found in zip file " + zipFile.getName() + "." +
-                        (!unsuitableEntries.isEmpty() ?
-                                " Although found these unsuitable entries " + unsuitableEntries : ""));
+            if (found != null) {
+                throw new IOException("Multiple suitable files found in zip file " + zipFile.getName() +
+                        ", at least " + found.getName() + " and " + entry.getName() +
+                        ". Only a single file per zip file is supported");
             }
-            return found;
+            found = entry;
+        }
+
+        if (found == null) {
+            throw new IOException("No suitable file found in zip file " + zipFile.getName() + "." +
+                    (!unsuitableEntries.isEmpty() ?
+                            " Although found these unsuitable entries " + unsuitableEntries : ""));
         }
+        return found;
+    }
 
-        private int magic(File file) throws IOException {
-            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
-                return in.readInt();
-            } catch (EOFException e) {
-                return -1;
+    /**
+     * Reads the first bytes of a file
+     *
+     * @return number of bytes read, less than the header length for short files
+     */
+    private static int header(File file, byte[] header) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n == -1) {
+                    break;
+                }
+                read += n;
             }
+            return read;
         }
-    };
+    }
+
+    private static int magic(byte[] header) {
+        return ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+    }
 
     private static boolean invalidZipEntry(String name) {
         return name.contains("__MACOSX") ||
@@ -60,28 +60,32 @@ public class ThreadAheadReadable extends Thread implements CharReadable, Closeab
      */
     @Override
     public int read(char[] buffer, int offset, int length) throws IOException {
-        // are we still healthy and all that?
-        assertHealthy();
-
-        // wait until thread has made data available
-        while (!hasReadAhead) {
-            parkAWhile();
+        while (true) {
+            // are we still healthy and all that?
             assertHealthy();
-        }
 
-        if (eof) {
-            return -1;
-        }
+            // wait until thread has made data available
+            while (!hasReadAhead) {
+                parkAWhile();
+                assertHealthy();
+            }
 
-        // copy data from the read ahead buffer into the target buffer
-        int bytesToCopy = min(readAheadBuffer.remaining(), length);
-        arraycopy(readAheadArray, readAheadBuffer.position(), buffer, offset, bytesToCopy);
-        readAheadBuffer.position(readAheadBuffer.position() + bytesToCopy);
+            // copy data from the read ahead buffer into the target buffer
+            int bytesToCopy = min(readAheadBuffer.remaining(), length);
+            arraycopy(readAheadArray, readAheadBuffer.position(), buffer, offset, bytesToCopy);
+            readAheadBuffer.position(readAheadBuffer.position() + bytesToCopy);
 
-        // wake up the reader... there's stuff to do, data to read
-        hasReadAhead = false;
-        LockSupport.unpark(this);
-        return bytesToCopy == 0 ? -1 : bytesToCopy;
+            if (eof) {   // nothing more to read ahead, but what was read before the end is still handed out
+                return bytesToCopy == 0 && length > 0 ? -1 : bytesToCopy;
+            }
+
+            // wake up the reader... there's stuff to do, data to read
+            hasReadAhead = false;
+            LockSupport.unpark(this);
+            if (bytesToCopy > 0 || length == 0) {
+                return bytesToCopy;
+            }
+        }
     }
 
     private void assertHealthy() throws IOException {
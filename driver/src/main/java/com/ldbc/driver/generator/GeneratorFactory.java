@@ -715,7 +715,24 @@ public class GeneratorFactory
     public Iterator<Operation> timeOffsetAndCompress( Iterator<Operation> generator, long newStartTimeAsMilli,
             Double compressionRatio )
     {
-        return new TimeMappingOperationGenerator( generator, newStartTimeAsMilli, compressionRatio );
+        return operationPipeline( generator ).timeOffsetAndCompress( newStartTimeAsMilli, compressionRatio );
+    }
+
+    /**
+     * Operation stream to add filter, limit and time mapping stages to, all applied by the one iterator.
+     * If generator already is a pipeline, which has not been retrieved from or time mapped yet, it is returned
+     * as is, and further stages are fused into it.
+     *
+     * @param generator
+     * @return
+     */
+    public OperationPipeline operationPipeline( Iterator<Operation> generator )
+    {
+        if ( generator instanceof OperationPipeline && ((OperationPipeline) generator).acceptsStages() )
+        {
+            return (OperationPipeline) generator;
+        }
+        return new OperationPipeline( generator );
     }
 
     /**
@@ -0,0 +1,198 @@
+package com.ldbc.driver.generator;
+
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.util.LongFunction1;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Operation stream applying, in a single iterator, the stages that would otherwise each wrap the stream in another
+ * iterator: filtering by operation type, limiting, peeking and time mapping.
+ * <p>
+ * Stages are applied in that order, whatever the order they are added in. Time mapping offsets (and optionally
+ * compresses) scheduled start times such that the first operation is scheduled at the new start time, computing
+ * on primitive longs and setting the new time in place on each operation.
+ * <p>
+ * Stages must be added before operations are retrieved, except that peek() may be called at any time.
+ */
+public class OperationPipeline implements Iterator<Operation>
+{
+    private final Iterator<Operation> operations;
+    private Set<? extends Class> enabledOperationTypes = null;
+    private long remaining = Long.MAX_VALUE;
+    private boolean timeMapped = false;
+    private long newStartTimeAsMilli;
+    private Double timeCompressionRatio;
+    private LongFunction1 startTimeAsMilliFun = null;
+    private Operation head = null;
+    private boolean started = false;
+
+    OperationPipeline( Iterator<Operation> operations )
+    {
+        this.operations = operations;
+    }
+
+    /**
+     * Only retain operations of the given types
+     */
+    public OperationPipeline filter( Set<? extends Class> enabledOperationTypes )
+    {
+        assertNotStarted( "filter" );
+        this.enabledOperationTypes = enabledOperationTypes;
+        return this;
+    }
+
+    /**
+     * Cap the amount of operations retrieved, after filtering
+     */
+    public OperationPipeline limit( long limit )
+    {
+        assertNotStarted( "limit" );
+        this.remaining = Math.min( remaining, limit );
+        return this;
+    }
+
+    /**
+     * Offset start times of operations such that first operation is scheduled at new start time.
+     * Compress/expand duration between start times by a fixed ratio, if one is given.
+     * E.g. 2.0 = 2x slower, 0.5 = 2x faster
+     */
+    public OperationPipeline timeOffsetAndCompress( long newStartTimeAsMilli, Double timeCompressionRatio )
+    {
+        assertNotStarted( "time mapping" );
+        if ( timeMapped )
+        {
+            throw new IllegalStateException( "Operation stream is already time mapped" );
+        }
+        this.timeMapped = true;
+        this.newStartTimeAsMilli = newStartTimeAsMilli;
+        this.timeCompressionRatio = timeCompressionRatio;
+        return this;
+    }
+
+    boolean acceptsStages()
+    {
+        return false == started && false == timeMapped;
+    }
+
+    private void assertNotStarted( String stage )
+    {
+        if ( started )
+        {
+            throw new IllegalStateException( format( "Can not add %s stage to operation stream already retrieved from",
+                    stage ) );
+        }
+    }
+
+    /**
+     * @return next operation, before it is time mapped, or null if there is none
+     */
+    public Operation peek()
+    {
+        return hasNext() ? head : null;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if ( 0 == remaining )
+        { return false; }
+        while ( true )
+        {
+            if ( null == head )
+            {
+                if ( false == operations.hasNext() )
+                { return false; }
+                head = operations.next();
+            }
+            if ( null == enabledOperationTypes || enabledOperationTypes.contains( head.getClass() ) )
+            { return true; }
+            head = null;
+        }
+    }
+
+    @Override
+    public Operation next()
+    {
+        if ( false == hasNext() )
+        { throw new NoSuchElementException( "Operation stream has nothing more to retrieve" ); }
+        started = true;
+        Operation operation = head;
+        head = null;
+        remaining--;
+        if ( timeMapped )
+        {
+            if ( null == startTimeAsMilliFun )
+            {
+                startTimeAsMilliFun = startTimeAsMilliFun( operation.scheduledStartTimeAsMilli() );
+            }
+            operation.setScheduledStartTimeAsMilli(
+                    startTimeAsMilliFun.apply( operation.scheduledStartTimeAsMilli() ) );
+        }
+        return operation;
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private LongFunction1 startTimeAsMilliFun( long firstStartTimeAsMilli )
+    {
+        if ( null == timeCompressionRatio )
+        {
+            return new TimeOffsetFun( newStartTimeAsMilli - firstStartTimeAsMilli );
+        }
+        else
+        {
+            return new TimeOffsetAndCompressionFun( firstStartTimeAsMilli, newStartTimeAsMilli,
+                    timeCompressionRatio );
+        }
+    }
+
+    private static class TimeOffsetFun implements LongFunction1
+    {
+        private final long offsetAsMilli;
+
+        private TimeOffsetFun( long offsetAsMilli )
+        {
+            this.offsetAsMilli = offsetAsMilli;
+        }
+
+        @Override
+        public long apply( long timeAsMilli )
+        {
+            return timeAsMilli + offsetAsMilli;
+        }
+    }
+
+    /**
+     * Offset, then compression of the duration from the (offset) first time, in one step
+     */
+    private static class TimeOffsetAndCompressionFun implements LongFunction1
+    {
+        private final long firstTimeAsMilli;
+        private final long newFirstTimeAsMilli;
+        private final double timeCompressionRatio;
+
+        private TimeOffsetAndCompressionFun( long firstTimeAsMilli, long newFirstTimeAsMilli,
+                double timeCompressionRatio )
+        {
+            this.firstTimeAsMilli = firstTimeAsMilli;
+            this.newFirstTimeAsMilli = newFirstTimeAsMilli;
+            this.timeCompressionRatio = timeCompressionRatio;
+        }
+
+        @Override
+        public long apply( long timeAsMilli )
+        {
+            long durationFromOriginalStartTimeAsMilli = timeAsMilli - firstTimeAsMilli;
+            return newFirstTimeAsMilli + Math.round( durationFromOriginalStartTimeAsMilli * timeCompressionRatio );
+        }
+    }
+}
@@ -19,7 +19,9 @@ import com.ldbc.driver.runtime.scheduling.Spinner;
 import com.ldbc.driver.temporal.TimeSource;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -50,6 +52,7 @@ public class WorkloadRunner
             long statusDisplayIntervalAsSeconds,
             long spinnerSleepDurationAsMilli,
             boolean ignoreScheduleStartTimes,
+            long thinkTimeAsMilli,
             int operationHandlerExecutorsBoundedQueueSize ) throws WorkloadException, MetricsCollectionException
     {
         this.workloadRunnerFuture = new WorkloadRunnerFuture(
@@ -64,6 +67,7 @@ public class WorkloadRunner
                 statusDisplayIntervalAsSeconds,
                 spinnerSleepDurationAsMilli,
                 ignoreScheduleStartTimes,
+                thinkTimeAsMilli,
                 operationHandlerExecutorsBoundedQueueSize
         );
     }
@@ -74,6 +78,16 @@ public class WorkloadRunner
         return workloadRunnerFuture;
     }
 
+    /**
+     * Safe to call from any thread, does not wait on the executors
+     *
+     * @return operation handlers submitted but not yet completed, per executor, asynchronous executor first
+     */
+    public Map<String,Long> uncompletedOperationHandlerCounts()
+    {
+        return workloadRunnerFuture.workloadRunnerThread.uncompletedOperationHandlerCounts();
+    }
+
     private static class WorkloadRunnerFuture implements Future<ConcurrentErrorReporter>
     {
         private final WorkloadRunnerThread workloadRunnerThread;
@@ -94,6 +108,7 @@ public class WorkloadRunner
                 long statusDisplayIntervalAsSeconds,
                 long spinnerSleepDurationAsMilli,
                 boolean ignoreScheduleStartTimes,
+                long thinkTimeAsMilli,
                 int operationHandlerExecutorsBoundedQueueSize ) throws MetricsCollectionException, WorkloadException
         {
             this.workloadRunnerThread = new WorkloadRunnerThread(
@@ -108,6 +123,7 @@ public class WorkloadRunner
                     statusDisplayIntervalAsSeconds,
                     spinnerSleepDurationAsMilli,
                     ignoreScheduleStartTimes,
+                    thinkTimeAsMilli,
                     operationHandlerExecutorsBoundedQueueSize
             );
             this.timeSource = timeSource;
@@ -280,6 +296,17 @@ public class WorkloadRunner
         private final long statusDisplayIntervalAsMilli;
         private final AtomicReference<WorkloadRunnerThreadState> stateRef;
 
+        private Map<String,Long> uncompletedOperationHandlerCounts()
+        {
+            Map<String,Long> counts = new LinkedHashMap<>();
+            counts.put( "asynchronous", executorForAsynchronous.uncompletedOperationHandlerCount() );
+            for ( int i = 0; i < executorsForBlocking.size(); i++ )
+            {
+                counts.put( "blocking_" + i, executorsForBlocking.get( i ).uncompletedOperationHandlerCount() );
+            }
+            return counts;
+        }
+
         private enum ShutdownType
         {
             NORMAL,
@@ -297,12 +324,17 @@ public class WorkloadRunner
                 long statusDisplayIntervalAsSeconds,
                 long spinnerSleepDurationAsMilli,
                 boolean ignoreScheduleStartTimes,
+                long thinkTimeAsMilli,
                 int operationHandlerExecutorsBoundedQueueSize ) throws WorkloadException, MetricsCollectionException
         {
             this.errorReporter = errorReporter;
             this.statusDisplayIntervalAsMilli = statusDisplayIntervalAsSeconds;
 
-            this.spinner = new Spinner( timeSource, spinnerSleepDurationAsMilli, ignoreScheduleStartTimes );
+            this.spinner = new Spinner(
+                    timeSource,
+                    spinnerSleepDurationAsMilli,
+                    ignoreScheduleStartTimes,
+                    thinkTimeAsMilli );
 
             if ( statusDisplayIntervalAsSeconds > 0 )
             {
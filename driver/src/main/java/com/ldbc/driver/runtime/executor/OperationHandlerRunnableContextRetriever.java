@@ -57,6 +57,14 @@ class OperationHandlerRunnableContextRetriever
         this.gctDependencyCheck = new GctDependencyCheck( globalCompletionTimeReader, errorReporter );
     }
 
+    /**
+     * @param count most handlers the calling thread can have retrieved but not yet cleaned up at any time
+     */
+    public void reserveHandlersForCallingThread( int count ) throws DbException
+    {
+        db.reserveOperationHandlerRunnableContexts( count );
+    }
+
     public OperationHandlerRunnableContext getInitializedHandlerFor( Operation operation )
             throws OperationExecutorException, CompletionTimeException, DbException
     {
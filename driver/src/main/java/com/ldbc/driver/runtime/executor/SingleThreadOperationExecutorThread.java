@@ -59,6 +59,8 @@ public class SingleThreadOperationExecutorThread extends Thread
                         operationHandlerRunnableContext.resultReporter().runDurationAsNano(),
                         operationHandlerRunnableContextRetriever
                 );
+                operationHandlerRunnableContext.cleanup();
+                operationHandlerRunnableContext = null;
                 operation = operationQueueEventFetcher.fetchNextEvent();
             }
         }
@@ -74,7 +76,10 @@ public class SingleThreadOperationExecutorThread extends Thread
         finally
         {
             uncompletedHandlers.decrementAndGet();
-            operationHandlerRunnableContext.cleanup();
+            if ( null != operationHandlerRunnableContext )
+            {
+                operationHandlerRunnableContext.cleanup();
+            }
         }
     }
 
@@ -30,6 +30,9 @@ public class ThreadPoolOperationExecutor implements OperationExecutor
     private final AtomicLong uncompletedHandlers = new AtomicLong( 0 );
     private final AtomicBoolean shutdown = new AtomicBoolean( false );
     private final OperationHandlerRunnableContextRetriever operationHandlerRunnableContextRetriever;
+    // handlers are retrieved by the one thread that submits operations, they are cleaned up by worker threads
+    private final int handlersToReserve;
+    private boolean handlersReserved = false;
 
     public ThreadPoolOperationExecutor( int threadCount,
             int boundedQueueSize,
@@ -69,6 +72,8 @@ public class ThreadPoolOperationExecutor implements OperationExecutor
                 return newThread;
             }
         };
+        // queued handlers, plus those mid-execution, plus the one being submitted
+        this.handlersToReserve = boundedQueueSize + threadCount + 1;
         this.threadPoolExecutorService = ThreadPoolExecutorWithAfterExecute.newFixedThreadPool(
                 threadCount,
                 threadFactory,
@@ -86,6 +91,11 @@ public class ThreadPoolOperationExecutor implements OperationExecutor
         uncompletedHandlers.incrementAndGet();
         try
         {
+            if ( false == handlersReserved )
+            {
+                operationHandlerRunnableContextRetriever.reserveHandlersForCallingThread( handlersToReserve );
+                handlersReserved = true;
+            }
             OperationHandlerRunnableContext operationHandlerRunnableContext =
                     operationHandlerRunnableContextRetriever.getInitializedHandlerFor( operation );
             threadPoolExecutorService.execute( operationHandlerRunnableContext );
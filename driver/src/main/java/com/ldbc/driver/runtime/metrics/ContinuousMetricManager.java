@@ -29,6 +29,23 @@ public class ContinuousMetricManager {
         histogram.recordValue(value);
     }
 
+    /**
+     * Records value and, if it exceeds the expected interval between measurements, also the values that would have
+     * been measured by the requests it held back, correcting for coordinated omission.
+     * An expected interval of 0 records value only.
+     */
+    public void addMeasurement(long value, long expectedInterval) {
+        if (expectedInterval > 0) {
+            histogram.recordValueWithExpectedInterval(value, expectedInterval);
+        } else {
+            histogram.recordValue(value);
+        }
+    }
+
+    public void reset() {
+        histogram.reset();
+    }
+
     public ContinuousMetricSnapshot snapshot() {
         return new ContinuousMetricSnapshot(name, unit, count(), mean(), min(), max(), percentile50(), percentile90(), percentile95(), percentile99());
     }
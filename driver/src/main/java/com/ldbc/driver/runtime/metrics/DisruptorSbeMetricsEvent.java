@@ -22,6 +22,9 @@ public class DisruptorSbeMetricsEvent {
     static final byte GET_WORKLOAD_STATUS = 2;
     //   * Request complete workload results
     static final byte GET_WORKLOAD_RESULTS = 3;
+    //   * Submit duration of one phase of an operation execution
+    //     reuses the result layout: resultCode carries the phase id, runDurationAsNano the phase duration
+    static final byte SUBMIT_OPERATION_PHASE = 4;
 
     static {
         MetricsEvent metricsEvent = new MetricsEvent();
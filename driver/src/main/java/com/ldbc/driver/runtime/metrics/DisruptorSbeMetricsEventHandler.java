@@ -36,6 +36,8 @@ class DisruptorSbeMetricsEventHandler implements EventHandler<DirectBuffer>
             TimeSource timeSource,
             long maxRuntimeDurationAsNano,
             Map<Integer,Class<? extends Operation>> operationTypeToClassMapping,
+            boolean ignoreScheduledStartTimes,
+            long expectedIntervalAsNano,
             LoggingServiceFactory loggingServiceFactory ) throws MetricsCollectionException
     {
         this.errorReporter = errorReporter;
@@ -46,6 +48,8 @@ class DisruptorSbeMetricsEventHandler implements EventHandler<DirectBuffer>
                 unit,
                 maxRuntimeDurationAsNano,
                 operationTypeToClassMapping,
+                ignoreScheduledStartTimes,
+                expectedIntervalAsNano,
                 loggingServiceFactory );
         operationNames = MetricsManager.toOperationNameArray( operationTypeToClassMapping );
         this.metricsEvent = new MetricsEvent();
@@ -61,13 +65,18 @@ class DisruptorSbeMetricsEventHandler implements EventHandler<DirectBuffer>
         return resultsSnapshotReference;
     }
 
+    LiveMetricsSnapshot liveSnapshot()
+    {
+        return metricsManager.liveSnapshot();
+    }
+
     long processedEventCount()
     {
         return processedEventCount;
     }
 
     @Override
-    public void onEvent( DirectBuffer event, long l, boolean b ) throws Exception
+    public void onEvent( DirectBuffer event, long l, boolean endOfBatch ) throws Exception
     {
         metricsEvent.wrapForDecode(
                 event,
@@ -98,7 +107,18 @@ class DisruptorSbeMetricsEventHandler implements EventHandler<DirectBuffer>
                         Long.toString( originalStartTime )
                 );
             }
-            metricsManager.measure( actualStartTimeAsMilli, runDurationAsNano, operationType );
+            metricsManager.measure( scheduledStartTimeAsMilli, actualStartTimeAsMilli, runDurationAsNano,
+                    operationType );
+            processedEventCount++;
+            break;
+        }
+        case DisruptorSbeMetricsEvent.SUBMIT_OPERATION_PHASE:
+        {
+            metricsManager.measurePhase(
+                    metricsEvent.operationType(),
+                    metricsEvent.resultCode(),
+                    metricsEvent.runDurationAsNano()
+            );
             processedEventCount++;
             break;
         }
@@ -134,5 +154,9 @@ class DisruptorSbeMetricsEventHandler implements EventHandler<DirectBuffer>
             break;
         }
         }
+        if ( endOfBatch )
+        {
+            metricsManager.publishLiveSnapshotIfDue();
+        }
     }
 }
\ No newline at end of file
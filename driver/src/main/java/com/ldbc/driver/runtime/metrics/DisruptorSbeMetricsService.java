@@ -8,6 +8,7 @@ import com.ldbc.driver.runtime.metrics.sbe.MetricsEvent;
 import com.ldbc.driver.temporal.TimeSource;
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.EventTranslator;
+import com.lmax.disruptor.EventTranslatorThreeArg;
 import com.lmax.disruptor.EventTranslatorVararg;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.TimeoutException;
@@ -30,6 +31,7 @@ import static com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsEvent.GET_WORKL
 import static com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsEvent.GET_WORKLOAD_STATUS;
 import static com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsEvent.MESSAGE_HEADER_SIZE;
 import static com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsEvent.MetricsCollectionEventFactory;
+import static com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsEvent.SUBMIT_OPERATION_PHASE;
 import static com.ldbc.driver.runtime.metrics.DisruptorSbeMetricsEvent.SUBMIT_OPERATION_RESULT;
 import static java.lang.String.format;
 
@@ -56,6 +58,8 @@ public class DisruptorSbeMetricsService implements MetricsService
             long maxRuntimeDurationAsNano,
             SimpleCsvFileWriter csvResultsLogWriter,
             Map<Integer,Class<? extends Operation>> operationTypeToClassMapping,
+            boolean ignoreScheduledStartTimes,
+            long expectedIntervalAsNano,
             LoggingServiceFactory loggingServiceFactory ) throws MetricsCollectionException
     {
         // Specify the size of the ring buffer, must be power of 2
@@ -86,6 +90,8 @@ public class DisruptorSbeMetricsService implements MetricsService
                 timeSource,
                 maxRuntimeDurationAsNano,
                 operationTypeToClassMapping,
+                ignoreScheduledStartTimes,
+                expectedIntervalAsNano,
                 loggingServiceFactory
         );
 
@@ -189,12 +195,19 @@ public class DisruptorSbeMetricsService implements MetricsService
         return metricsServiceWriter;
     }
 
+    @Override
+    public LiveMetricsSnapshot liveSnapshot()
+    {
+        return eventHandler.liveSnapshot();
+    }
+
     private static class DisruptorSbeMetricsServiceWriter implements MetricsServiceWriter
     {
         private final AtomicLong initiatedEvents;
         private final RingBuffer<DirectBuffer> ringBuffer;
         private final DisruptorSbeMetricsEventHandler eventHandler;
         private final SubmitOperationResultTranslator submitOperationResultTranslator;
+        private final SubmitOperationPhaseTranslator submitOperationPhaseTranslator;
         private final GetWorkloadStatusTranslator getWorkloadStatusTranslator;
         private final GetWorkloadResultsTranslator getWorkloadResultsTranslator;
 
@@ -209,6 +222,7 @@ public class DisruptorSbeMetricsService implements MetricsService
             this.eventHandler = eventHandler;
             MetricsEvent metricsEvent = new MetricsEvent();
             this.submitOperationResultTranslator = new SubmitOperationResultTranslator( metricsEvent );
+            this.submitOperationPhaseTranslator = new SubmitOperationPhaseTranslator( metricsEvent );
             this.getWorkloadStatusTranslator = new GetWorkloadStatusTranslator( metricsEvent );
             this.getWorkloadResultsTranslator = new GetWorkloadResultsTranslator( metricsEvent );
         }
@@ -235,6 +249,18 @@ public class DisruptorSbeMetricsService implements MetricsService
                     actualStartTimeAsMilli, runDurationAsNano, resultCode, originalStartTime );
         }
 
+        @Override
+        public void submitOperationPhase( int operationType, int phaseId, long phaseDurationAsNano )
+                throws MetricsCollectionException
+        {
+            if ( null != alreadyShutdownPolicy )
+            {
+                alreadyShutdownPolicy.apply();
+            }
+            initiatedEvents.incrementAndGet();
+            ringBuffer.publishEvent( submitOperationPhaseTranslator, operationType, phaseId, phaseDurationAsNano );
+        }
+
         @Override
         public WorkloadStatusSnapshot status() throws MetricsCollectionException
         {
@@ -292,6 +318,28 @@ public class DisruptorSbeMetricsService implements MetricsService
             }
         }
 
+        public static class SubmitOperationPhaseTranslator implements EventTranslatorThreeArg<DirectBuffer,Integer,
+                Integer,Long>
+        {
+            private final MetricsEvent metricsEvent;
+
+            public SubmitOperationPhaseTranslator( MetricsEvent metricsEvent )
+            {
+                this.metricsEvent = metricsEvent;
+            }
+
+            @Override
+            public void translateTo( DirectBuffer event, long l, Integer operationType, Integer phaseId,
+                    Long phaseDurationAsNano )
+            {
+                metricsEvent.wrapForEncode( event, MESSAGE_HEADER_SIZE )
+                        .eventType( SUBMIT_OPERATION_PHASE )
+                        .operationType( operationType )
+                        .runDurationAsNano( phaseDurationAsNano )
+                        .resultCode( phaseId );
+            }
+        }
+
         public static class GetWorkloadStatusTranslator implements EventTranslator<DirectBuffer>
         {
             private final MetricsEvent metricsEvent;
@@ -0,0 +1,85 @@
+package com.ldbc.driver.runtime.metrics;
+
+import org.codehaus.jackson.annotate.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * State of a running workload, as served by {@link LiveMetricsHttpServer}.
+ * Values that are not known (yet) are -1, metrics is null until the first live snapshot has been published.
+ */
+public class LiveMetrics
+{
+    @JsonProperty( "as_of_time" )
+    private final long asOfTimeAsMilli;
+    @JsonProperty( "phase" )
+    private final String phase;
+    @JsonProperty( "global_completion_time" )
+    private final long globalCompletionTimeAsMilli;
+    @JsonProperty( "global_completion_time_lag" )
+    private final long globalCompletionTimeLagAsMilli;
+    @JsonProperty( "uncompleted_operation_handlers" )
+    private final Map<String,Long> uncompletedOperationHandlerCounts;
+    @JsonProperty( "operation_handler_pool_size" )
+    private final int operationHandlerPoolSize;
+    @JsonProperty( "metrics" )
+    private final LiveMetricsSnapshot metrics;
+
+    public LiveMetrics( long asOfTimeAsMilli,
+            String phase,
+            long globalCompletionTimeAsMilli,
+            long globalCompletionTimeLagAsMilli,
+            Map<String,Long> uncompletedOperationHandlerCounts,
+            int operationHandlerPoolSize,
+            LiveMetricsSnapshot metrics )
+    {
+        this.asOfTimeAsMilli = asOfTimeAsMilli;
+        this.phase = phase;
+        this.globalCompletionTimeAsMilli = globalCompletionTimeAsMilli;
+        this.globalCompletionTimeLagAsMilli = globalCompletionTimeLagAsMilli;
+        this.uncompletedOperationHandlerCounts = uncompletedOperationHandlerCounts;
+        this.operationHandlerPoolSize = operationHandlerPoolSize;
+        this.metrics = metrics;
+    }
+
+    public long asOfTimeAsMilli()
+    {
+        return asOfTimeAsMilli;
+    }
+
+    public String phase()
+    {
+        return phase;
+    }
+
+    public long globalCompletionTimeAsMilli()
+    {
+        return globalCompletionTimeAsMilli;
+    }
+
+    /**
+     * @return how far global completion time is behind the current time
+     */
+    public long globalCompletionTimeLagAsMilli()
+    {
+        return globalCompletionTimeLagAsMilli;
+    }
+
+    /**
+     * @return operation handlers submitted but not yet completed, per executor
+     */
+    public Map<String,Long> uncompletedOperationHandlerCounts()
+    {
+        return uncompletedOperationHandlerCounts;
+    }
+
+    public int operationHandlerPoolSize()
+    {
+        return operationHandlerPoolSize;
+    }
+
+    public LiveMetricsSnapshot metrics()
+    {
+        return metrics;
+    }
+}
@@ -0,0 +1,249 @@
+package com.ldbc.driver.runtime.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.util.DefaultPrettyPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Embedded HTTP server exposing the state of a running workload, for monitoring long runs.
+ * <p>
+ * - /metrics: Prometheus text exposition format
+ * - /metrics.json: JSON
+ * <p>
+ * Requests are served from a single daemon thread, reading {@link LiveMetrics} from the source, which must not wait on
+ * the workload, e.g., via {@link MetricsService#liveSnapshot()}. Live snapshots are only published while measurements
+ * arrive, so interval metrics come with the time and age of the snapshot they were taken from, an old snapshot means
+ * no operation has completed since.
+ * <p>
+ * Interval percentiles are exposed as Prometheus summaries, the maximum as quantile 1.
+ */
+public class LiveMetricsHttpServer
+{
+    public static final String PROMETHEUS_PATH = "/metrics";
+    public static final String JSON_PATH = "/metrics.json";
+    private static final String PREFIX = "ldbc_driver_";
+    private static final int STOP_DELAY_AS_SECONDS = 1;
+
+    public interface LiveMetricsSource
+    {
+        LiveMetrics liveMetrics();
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param port port to listen on, 0 for any free port
+     */
+    public LiveMetricsHttpServer( int port, final LiveMetricsSource source ) throws IOException
+    {
+        this.server = HttpServer.create( new InetSocketAddress( port ), 0 );
+        this.executor = Executors.newSingleThreadExecutor( new ThreadFactory()
+        {
+            @Override
+            public Thread newThread( Runnable runnable )
+            {
+                Thread thread = new Thread( runnable, LiveMetricsHttpServer.class.getSimpleName() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+        server.setExecutor( executor );
+        server.createContext( PROMETHEUS_PATH, new HttpHandler()
+        {
+            @Override
+            public void handle( HttpExchange exchange ) throws IOException
+            {
+                respond( exchange, "text/plain; version=0.0.4; charset=utf-8",
+                        toPrometheusText( source.liveMetrics() ) );
+            }
+        } );
+        server.createContext( JSON_PATH, new HttpHandler()
+        {
+            @Override
+            public void handle( HttpExchange exchange ) throws IOException
+            {
+                respond( exchange, "application/json; charset=utf-8", toJson( source.liveMetrics() ) );
+            }
+        } );
+    }
+
+    public void start()
+    {
+        server.start();
+    }
+
+    public int port()
+    {
+        return server.getAddress().getPort();
+    }
+
+    public void stop()
+    {
+        server.stop( STOP_DELAY_AS_SECONDS );
+        executor.shutdownNow();
+    }
+
+    private static void respond( HttpExchange exchange, String contentType, String body ) throws IOException
+    {
+        byte[] bytes = body.getBytes( StandardCharsets.UTF_8 );
+        exchange.getResponseHeaders().set( "Content-Type", contentType );
+        exchange.sendResponseHeaders( 200, bytes.length );
+        try ( OutputStream responseBody = exchange.getResponseBody() )
+        {
+            responseBody.write( bytes );
+        }
+    }
+
+    static String toJson( LiveMetrics liveMetrics ) throws IOException
+    {
+        return new ObjectMapper().writer( new DefaultPrettyPrinter() ).writeValueAsString( liveMetrics );
+    }
+
+    static String toPrometheusText( LiveMetrics liveMetrics )
+    {
+        StringBuilder sb = new StringBuilder();
+        if ( -1 != liveMetrics.globalCompletionTimeLagAsMilli() )
+        {
+            gauge( sb, "global_completion_time_lag_seconds",
+                    "How far global completion time is behind the current time" );
+            sample( sb, "global_completion_time_lag_seconds", "",
+                    seconds( liveMetrics.globalCompletionTimeLagAsMilli(), TimeUnit.MILLISECONDS ) );
+        }
+        gauge( sb, "operation_handler_pool_size", "Operation handler runnable contexts held for reuse" );
+        sample( sb, "operation_handler_pool_size", "", liveMetrics.operationHandlerPoolSize() );
+        gauge( sb, "uncompleted_operation_handlers", "Operation handlers submitted but not yet completed" );
+        for ( Map.Entry<String,Long> entry : liveMetrics.uncompletedOperationHandlerCounts().entrySet() )
+        {
+            sample( sb, "uncompleted_operation_handlers", label( "executor", entry.getKey() ), entry.getValue() );
+        }
+
+        LiveMetricsSnapshot metrics = liveMetrics.metrics();
+        if ( null == metrics )
+        {
+            return sb.toString();
+        }
+        gauge( sb, "live_snapshot_timestamp_seconds", "Time the most recent live snapshot was published" );
+        sample( sb, "live_snapshot_timestamp_seconds", "",
+                seconds( metrics.asOfTimeAsMilli(), TimeUnit.MILLISECONDS ) );
+        gauge( sb, "live_snapshot_age_seconds", "Time since the most recent live snapshot was published" );
+        sample( sb, "live_snapshot_age_seconds", "",
+                seconds( Math.max( 0, liveMetrics.asOfTimeAsMilli() - metrics.asOfTimeAsMilli() ),
+                        TimeUnit.MILLISECONDS ) );
+        gauge( sb, "interval_duration_seconds", "Duration of the most recent interval" );
+        sample( sb, "interval_duration_seconds", "",
+                seconds( metrics.intervalDurationAsMilli(), TimeUnit.MILLISECONDS ) );
+        counter( sb, "operations_total", "Operations completed" );
+        for ( LiveMetricsSnapshot.OperationTypeSnapshot operationType : metrics.operationTypes() )
+        {
+            sample( sb, "operations_total", label( "operation", operationType.name() ), operationType.count() );
+        }
+        gauge( sb, "interval_throughput", "Operations per second completed in the most recent interval" );
+        for ( LiveMetricsSnapshot.OperationTypeSnapshot operationType : metrics.operationTypes() )
+        {
+            sample( sb, "interval_throughput", label( "operation", operationType.name() ),
+                    operationType.intervalThroughput() );
+        }
+        summary( sb, "interval_run_time_seconds", "Service time of the most recent interval" );
+        for ( LiveMetricsSnapshot.OperationTypeSnapshot operationType : metrics.operationTypes() )
+        {
+            summarySamples( sb, "interval_run_time_seconds", operationType.name(), operationType.intervalRunTime() );
+        }
+        summary( sb, "interval_response_time_seconds", "Response time of the most recent interval" );
+        for ( LiveMetricsSnapshot.OperationTypeSnapshot operationType : metrics.operationTypes() )
+        {
+            summarySamples( sb, "interval_response_time_seconds", operationType.name(),
+                    operationType.intervalResponseTime() );
+        }
+        return sb.toString();
+    }
+
+    private static void summarySamples( StringBuilder sb, String name, String operation,
+            ContinuousMetricSnapshot metric )
+    {
+        String operationLabel = label( "operation", operation );
+        if ( metric.count() > 0 )
+        {
+            sample( sb, name, operationLabel + "," + label( "quantile", "0.5" ),
+                    seconds( metric.percentile50(), metric.unit() ) );
+            sample( sb, name, operationLabel + "," + label( "quantile", "0.9" ),
+                    seconds( metric.percentile90(), metric.unit() ) );
+            sample( sb, name, operationLabel + "," + label( "quantile", "0.95" ),
+                    seconds( metric.percentile95(), metric.unit() ) );
+            sample( sb, name, operationLabel + "," + label( "quantile", "0.99" ),
+                    seconds( metric.percentile99(), metric.unit() ) );
+            sample( sb, name, operationLabel + "," + label( "quantile", "1" ),
+                    seconds( metric.max(), metric.unit() ) );
+            sample( sb, name + "_sum", operationLabel, seconds( metric.mean() * metric.count(), metric.unit() ) );
+        }
+        else
+        {
+            sample( sb, name + "_sum", operationLabel, 0.0 );
+        }
+        sample( sb, name + "_count", operationLabel, metric.count() );
+    }
+
+    private static void gauge( StringBuilder sb, String name, String help )
+    {
+        sb.append( format( "# HELP %s%s %s\n# TYPE %s%s gauge\n", PREFIX, name, help, PREFIX, name ) );
+    }
+
+    private static void counter( StringBuilder sb, String name, String help )
+    {
+        sb.append( format( "# HELP %s%s %s\n# TYPE %s%s counter\n", PREFIX, name, help, PREFIX, name ) );
+    }
+
+    private static void summary( StringBuilder sb, String name, String help )
+    {
+        sb.append( format( "# HELP %s%s %s\n# TYPE %s%s summary\n", PREFIX, name, help, PREFIX, name ) );
+    }
+
+    private static void sample( StringBuilder sb, String name, String labels, double value )
+    {
+        sb.append( PREFIX ).append( name );
+        if ( false == labels.isEmpty() )
+        {
+            sb.append( '{' ).append( labels ).append( '}' );
+        }
+        sb.append( ' ' ).append( value ).append( '\n' );
+    }
+
+    private static void sample( StringBuilder sb, String name, String labels, long value )
+    {
+        sb.append( PREFIX ).append( name );
+        if ( false == labels.isEmpty() )
+        {
+            sb.append( '{' ).append( labels ).append( '}' );
+        }
+        sb.append( ' ' ).append( value ).append( '\n' );
+    }
+
+    private static String label( String name, String value )
+    {
+        return name + "=\"" + value.replace( "\\", "\\\\" ).replace( "\"", "\\\"" ).replace( "\n", "\\n" ) + "\"";
+    }
+
+    private static double seconds( long duration, TimeUnit unit )
+    {
+        return unit.toNanos( duration ) / (double) TimeUnit.SECONDS.toNanos( 1 );
+    }
+
+    private static double seconds( double duration, TimeUnit unit )
+    {
+        return duration * unit.toNanos( 1 ) / TimeUnit.SECONDS.toNanos( 1 );
+    }
+}
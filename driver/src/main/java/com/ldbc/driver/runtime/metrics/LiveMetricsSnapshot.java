@@ -0,0 +1,121 @@
+package com.ldbc.driver.runtime.metrics;
+
+import org.codehaus.jackson.annotate.JsonProperty;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the interval since the previous live snapshot, published by the metrics collection thread for readers
+ * that must not wait on it, e.g., monitoring during long runs.
+ * Durations are in the unit of the snapshot, interval percentiles are -1 if there were no operations in the interval.
+ */
+public class LiveMetricsSnapshot
+{
+    @JsonProperty( "as_of_time" )
+    private final long asOfTimeAsMilli;
+    @JsonProperty( "interval_duration" )
+    private final long intervalDurationAsMilli;
+    @JsonProperty( "unit" )
+    private final TimeUnit unit;
+    @JsonProperty( "operation_types" )
+    private final List<OperationTypeSnapshot> operationTypes;
+
+    public LiveMetricsSnapshot( long asOfTimeAsMilli,
+            long intervalDurationAsMilli,
+            TimeUnit unit,
+            List<OperationTypeSnapshot> operationTypes )
+    {
+        this.asOfTimeAsMilli = asOfTimeAsMilli;
+        this.intervalDurationAsMilli = intervalDurationAsMilli;
+        this.unit = unit;
+        this.operationTypes = operationTypes;
+    }
+
+    public long asOfTimeAsMilli()
+    {
+        return asOfTimeAsMilli;
+    }
+
+    public long intervalDurationAsMilli()
+    {
+        return intervalDurationAsMilli;
+    }
+
+    public TimeUnit unit()
+    {
+        return unit;
+    }
+
+    public List<OperationTypeSnapshot> operationTypes()
+    {
+        return operationTypes;
+    }
+
+    public static class OperationTypeSnapshot
+    {
+        @JsonProperty( "name" )
+        private final String name;
+        @JsonProperty( "count" )
+        private final long count;
+        @JsonProperty( "interval_count" )
+        private final long intervalCount;
+        @JsonProperty( "interval_throughput" )
+        private final double intervalThroughput;
+        @JsonProperty( "interval_run_time" )
+        private final ContinuousMetricSnapshot intervalRunTime;
+        @JsonProperty( "interval_response_time" )
+        private final ContinuousMetricSnapshot intervalResponseTime;
+
+        public OperationTypeSnapshot( String name,
+                long count,
+                long intervalCount,
+                double intervalThroughput,
+                ContinuousMetricSnapshot intervalRunTime,
+                ContinuousMetricSnapshot intervalResponseTime )
+        {
+            this.name = name;
+            this.count = count;
+            this.intervalCount = intervalCount;
+            this.intervalThroughput = intervalThroughput;
+            this.intervalRunTime = intervalRunTime;
+            this.intervalResponseTime = intervalResponseTime;
+        }
+
+        public String name()
+        {
+            return name;
+        }
+
+        /**
+         * @return operations completed since start of run
+         */
+        public long count()
+        {
+            return count;
+        }
+
+        public long intervalCount()
+        {
+            return intervalCount;
+        }
+
+        /**
+         * @return operations/second completed in the interval
+         */
+        public double intervalThroughput()
+        {
+            return intervalThroughput;
+        }
+
+        public ContinuousMetricSnapshot intervalRunTime()
+        {
+            return intervalRunTime;
+        }
+
+        public ContinuousMetricSnapshot intervalResponseTime()
+        {
+            return intervalResponseTime;
+        }
+    }
+}
@@ -7,7 +7,9 @@ import com.ldbc.driver.temporal.TimeSource;
 
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -15,11 +17,18 @@ import static java.lang.String.format;
 
 public class MetricsManager
 {
+    static final long LIVE_SNAPSHOT_INTERVAL_AS_MILLI = TimeUnit.SECONDS.toMillis( 1 );
+
     private final TimeSource timeSource;
     private final TimeUnit unit;
+    private final boolean ignoreScheduledStartTimes;
     private long startTimeAsMilli;
     private long latestFinishTimeAsMilli;
     private final OperationTypeMetricsManager[] operationTypeMetricsManagers;
+    // live snapshots are published by the metrics collection thread and read without waiting on it
+    private volatile boolean liveSnapshotRequested = false;
+    private volatile LiveMetricsSnapshot liveSnapshot = null;
+    private long liveIntervalStartTimeAsMilli = -1;
 
     public static void export(
             WorkloadResultsSnapshot workloadResults,
@@ -43,6 +52,7 @@ public class MetricsManager
             Map<Integer,Class<? extends Operation>> operationTypeToClassMapping,
             TimeUnit unit,
             long highestExpectedRuntimeDurationAsNano,
+            long expectedIntervalAsNano,
             LoggingServiceFactory loggingServiceFactory ) throws MetricsCollectionException
     {
         if ( operationTypeToClassMapping.isEmpty() )
@@ -74,6 +84,7 @@ public class MetricsManager
                             operationClass.getSimpleName(),
                             unit,
                             highestExpectedRuntimeDurationAsNano,
+                            expectedIntervalAsNano,
                             loggingServiceFactory
                     );
                 }
@@ -115,18 +126,31 @@ public class MetricsManager
         }
     }
 
+    /**
+     * Service time of an operation is measured from its actual start time.
+     * Response time depends on the load model:
+     * - open loop (scheduled start times are honoured): measured from scheduled start time, so time spent behind
+     * schedule is not omitted
+     * - closed loop (scheduled start times are ignored, each executor thread is a client): measured from actual start
+     * time, recorded as if a measurement was expected every expected interval (e.g., think time of clients), to
+     * correct for coordinated omission. An expected interval of 0 disables the correction.
+     */
     MetricsManager( TimeSource timeSource,
             TimeUnit unit,
             long highestExpectedRuntimeDurationAsNano,
             Map<Integer,Class<? extends Operation>> operationTypeToClassMapping,
+            boolean ignoreScheduledStartTimes,
+            long expectedIntervalAsNano,
             LoggingServiceFactory loggingServiceFactory ) throws MetricsCollectionException
     {
         operationTypeMetricsManagers = toOperationTypeMetricsManagerArray(
                 operationTypeToClassMapping,
                 unit,
                 highestExpectedRuntimeDurationAsNano,
+                (ignoreScheduledStartTimes) ? expectedIntervalAsNano : 0,
                 loggingServiceFactory
         );
+        this.ignoreScheduledStartTimes = ignoreScheduledStartTimes;
 
         this.startTimeAsMilli = Long.MAX_VALUE;
         this.latestFinishTimeAsMilli = Long.MIN_VALUE;
@@ -136,8 +160,8 @@ public class MetricsManager
 
     final static long ONE_MS_AS_NS = TimeUnit.MILLISECONDS.toNanos( 1 );
 
-    void measure( long actualStartTimeAsMilli, long runDurationAsNano, int operationType )
-            throws MetricsCollectionException
+    void measure( long scheduledStartTimeAsMilli, long actualStartTimeAsMilli, long runDurationAsNano,
+            int operationType ) throws MetricsCollectionException
     {
         if ( actualStartTimeAsMilli < startTimeAsMilli )
         {
@@ -150,7 +174,16 @@ public class MetricsManager
             latestFinishTimeAsMilli = operationFinishTimeAsMilli;
         }
 
-        operationTypeMetricsManagers[operationType].measure( runDurationAsNano );
+        long responseTimeAsNano = (ignoreScheduledStartTimes)
+                                  ? runDurationAsNano
+                                  : runDurationAsNano +
+                                    Math.max( 0, actualStartTimeAsMilli - scheduledStartTimeAsMilli ) * ONE_MS_AS_NS;
+        operationTypeMetricsManagers[operationType].measure( runDurationAsNano, responseTimeAsNano );
+    }
+
+    void measurePhase( int operationType, int phaseId, long phaseDurationAsNano ) throws MetricsCollectionException
+    {
+        operationTypeMetricsManagers[operationType].measurePhase( phaseId, phaseDurationAsNano );
     }
 
     private long totalOperationCount()
@@ -185,6 +218,59 @@ public class MetricsManager
                 unit );
     }
 
+    /**
+     * May be called from any thread, never waits on the metrics collection thread.
+     * The first call starts publication of live snapshots, from then on one is published every
+     * LIVE_SNAPSHOT_INTERVAL_AS_MILLI, as long as measurements arrive.
+     *
+     * @return most recently published live snapshot, null if none has been published yet
+     */
+    LiveMetricsSnapshot liveSnapshot()
+    {
+        liveSnapshotRequested = true;
+        return liveSnapshot;
+    }
+
+    /**
+     * Called by the metrics collection thread, after measuring
+     */
+    void publishLiveSnapshotIfDue()
+    {
+        if ( false == liveSnapshotRequested )
+        {
+            return;
+        }
+        long nowAsMilli = timeSource.nowAsMilli();
+        if ( -1 == liveIntervalStartTimeAsMilli )
+        {
+            // first interval starts now, nothing measured before it is part of an interval
+            newLiveSnapshot( nowAsMilli );
+        }
+        else if ( nowAsMilli - liveIntervalStartTimeAsMilli >= LIVE_SNAPSHOT_INTERVAL_AS_MILLI )
+        {
+            liveSnapshot = newLiveSnapshot( nowAsMilli );
+        }
+    }
+
+    /**
+     * Snapshot of the interval since the previous call, starts the next interval
+     */
+    LiveMetricsSnapshot newLiveSnapshot( long nowAsMilli )
+    {
+        long intervalDurationAsMilli =
+                (-1 == liveIntervalStartTimeAsMilli) ? 0 : nowAsMilli - liveIntervalStartTimeAsMilli;
+        List<LiveMetricsSnapshot.OperationTypeSnapshot> operationTypes = new ArrayList<>();
+        for ( OperationTypeMetricsManager operationTypeMetricsManager : operationTypeMetricsManagers )
+        {
+            if ( null != operationTypeMetricsManager )
+            {
+                operationTypes.add( operationTypeMetricsManager.intervalSnapshot( intervalDurationAsMilli ) );
+            }
+        }
+        liveIntervalStartTimeAsMilli = nowAsMilli;
+        return new LiveMetricsSnapshot( nowAsMilli, intervalDurationAsMilli, unit, operationTypes );
+    }
+
     WorkloadStatusSnapshot status()
     {
         long nowAsMilli = timeSource.nowAsMilli();
@@ -6,6 +6,14 @@ public interface MetricsService
 
     MetricsServiceWriter getWriter() throws MetricsCollectionException;
 
+    /**
+     * Does not wait on metrics collection, the snapshot may be up to an interval old.
+     * The first call starts publication of live snapshots.
+     *
+     * @return metrics of the most recent interval, null if none is available yet
+     */
+    LiveMetricsSnapshot liveSnapshot();
+
     interface MetricsServiceWriter
     {
         void submitOperationResult(
@@ -16,6 +24,14 @@ public interface MetricsService
                 int resultCode,
                 long originalStartTime) throws MetricsCollectionException;
 
+        /**
+         * Submits the duration of one phase of an operation execution, as marked via ResultReporter.markPhase
+         */
+        void submitOperationPhase(
+                int operationType,
+                int phaseId,
+                long phaseDurationAsNano ) throws MetricsCollectionException;
+
         WorkloadStatusSnapshot status() throws MetricsCollectionException;
 
         WorkloadResultsSnapshot results() throws MetricsCollectionException;
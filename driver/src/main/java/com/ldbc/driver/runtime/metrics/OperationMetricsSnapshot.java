@@ -2,6 +2,8 @@ package com.ldbc.driver.runtime.metrics;
 
 import org.codehaus.jackson.annotate.JsonProperty;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class OperationMetricsSnapshot {
@@ -13,6 +15,10 @@ public class OperationMetricsSnapshot {
     private long count;
     @JsonProperty("run_time")
     private ContinuousMetricSnapshot rutTimeMetric;
+    @JsonProperty("response_time")
+    private ContinuousMetricSnapshot responseTimeMetric;
+    @JsonProperty("phases")
+    private List<ContinuousMetricSnapshot> phaseMetrics = new ArrayList<>();
 
     private OperationMetricsSnapshot() {
     }
@@ -21,10 +27,29 @@ public class OperationMetricsSnapshot {
                                     TimeUnit durationUnit,
                                     long count,
                                     ContinuousMetricSnapshot rutTimeMetric) {
+        this(name, durationUnit, count, rutTimeMetric, new ArrayList<ContinuousMetricSnapshot>());
+    }
+
+    public OperationMetricsSnapshot(String name,
+                                    TimeUnit durationUnit,
+                                    long count,
+                                    ContinuousMetricSnapshot rutTimeMetric,
+                                    List<ContinuousMetricSnapshot> phaseMetrics) {
+        this(name, durationUnit, count, rutTimeMetric, null, phaseMetrics);
+    }
+
+    public OperationMetricsSnapshot(String name,
+                                    TimeUnit durationUnit,
+                                    long count,
+                                    ContinuousMetricSnapshot rutTimeMetric,
+                                    ContinuousMetricSnapshot responseTimeMetric,
+                                    List<ContinuousMetricSnapshot> phaseMetrics) {
         this.name = name;
         this.durationUnit = durationUnit;
         this.count = count;
         this.rutTimeMetric = rutTimeMetric;
+        this.responseTimeMetric = responseTimeMetric;
+        this.phaseMetrics = phaseMetrics;
     }
 
     public String name() {
@@ -39,10 +64,28 @@ public class OperationMetricsSnapshot {
         return count;
     }
 
+    /**
+     * @return service times, measured from actual start of operations
+     */
     public ContinuousMetricSnapshot runTimeMetric() {
         return rutTimeMetric;
     }
 
+    /**
+     * @return response times, measured from scheduled start of operations (open loop), or service times corrected
+     * for coordinated omission (closed loop), null if not measured
+     */
+    public ContinuousMetricSnapshot responseTimeMetric() {
+        return responseTimeMetric;
+    }
+
+    /**
+     * @return durations of the phases marked by handlers of this operation type, ordered by phase id
+     */
+    public List<ContinuousMetricSnapshot> phaseMetrics() {
+        return phaseMetrics;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -55,6 +98,10 @@ public class OperationMetricsSnapshot {
         if (name != null ? !name.equals(that.name) : that.name != null) return false;
         if (rutTimeMetric != null ? !rutTimeMetric.equals(that.rutTimeMetric) : that.rutTimeMetric != null)
             return false;
+        if (responseTimeMetric != null ? !responseTimeMetric.equals(that.responseTimeMetric) : that.responseTimeMetric != null)
+            return false;
+        if (phaseMetrics != null ? !phaseMetrics.equals(that.phaseMetrics) : that.phaseMetrics != null)
+            return false;
 
         return true;
     }
@@ -65,6 +112,8 @@ public class OperationMetricsSnapshot {
         result = 31 * result + (durationUnit != null ? durationUnit.hashCode() : 0);
         result = 31 * result + (int) (count ^ (count >>> 32));
         result = 31 * result + (rutTimeMetric != null ? rutTimeMetric.hashCode() : 0);
+        result = 31 * result + (responseTimeMetric != null ? responseTimeMetric.hashCode() : 0);
+        result = 31 * result + (phaseMetrics != null ? phaseMetrics.hashCode() : 0);
         return result;
     }
 
@@ -75,6 +124,8 @@ public class OperationMetricsSnapshot {
                 ", durationUnit=" + durationUnit +
                 ", count=" + count +
                 ", rutTimeMetric=" + rutTimeMetric +
+                ", responseTimeMetric=" + responseTimeMetric +
+                ", phaseMetrics=" + phaseMetrics +
                 '}';
     }
 }
@@ -1,10 +1,13 @@
 package com.ldbc.driver.runtime.metrics;
 
+import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.control.LoggingService;
 import com.ldbc.driver.control.LoggingServiceFactory;
 import com.ldbc.driver.temporal.TemporalUtil;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
@@ -12,23 +15,36 @@ import static java.lang.String.format;
 public class OperationTypeMetricsManager
 {
     private static final String METRIC_RUNTIME = "Runtime";
+    private static final String METRIC_RESPONSE_TIME = "ResponseTime";
+    private static final String METRIC_PHASE_PREFIX = "Phase-";
 
     private final TemporalUtil temporalUtil = new TemporalUtil();
+    // service time, from actual start to completion
     private final ContinuousMetricManager runTimeMetric;
+    // from intended start to completion, including time spent waiting behind schedule
+    private final ContinuousMetricManager responseTimeMetric;
+    // measurements since the previous live snapshot, created when live snapshots are first requested
+    private ContinuousMetricManager intervalRunTimeMetric = null;
+    private ContinuousMetricManager intervalResponseTimeMetric = null;
+    // created on first measurement of each phase, most operation types never mark phases
+    private final ContinuousMetricManager[] phaseMetrics = new ContinuousMetricManager[ResultReporter.MAX_PHASE_COUNT];
     private final String name;
     private final TimeUnit unit;
     private final long highestExpectedRuntimeDurationAsNano;
+    private final long expectedIntervalInUnit;
     private final LoggingService loggingService;
 
     OperationTypeMetricsManager(
             String name,
             TimeUnit unit,
             long highestExpectedRuntimeDurationAsNano,
+            long expectedIntervalAsNano,
             LoggingServiceFactory loggingServiceFactory )
     {
         this.name = name;
         this.unit = unit;
         this.highestExpectedRuntimeDurationAsNano = highestExpectedRuntimeDurationAsNano;
+        this.expectedIntervalInUnit = unit.convert( expectedIntervalAsNano, TimeUnit.NANOSECONDS );
         loggingService = loggingServiceFactory.loggingServiceFor( getClass().getSimpleName() );
         this.runTimeMetric = new ContinuousMetricManager(
                 METRIC_RUNTIME,
@@ -36,9 +52,50 @@ public class OperationTypeMetricsManager
                 unit.convert( highestExpectedRuntimeDurationAsNano, TimeUnit.NANOSECONDS ),
                 4
         );
+        this.responseTimeMetric = new ContinuousMetricManager(
+                METRIC_RESPONSE_TIME,
+                unit,
+                unit.convert( highestExpectedRuntimeDurationAsNano, TimeUnit.NANOSECONDS ),
+                4
+        );
     }
 
-    void measure( long runDurationAsNano ) throws MetricsCollectionException
+    void measurePhase( int phaseId, long phaseDurationAsNano ) throws MetricsCollectionException
+    {
+        if ( phaseId < 0 || phaseId >= phaseMetrics.length )
+        {
+            throw new MetricsCollectionException(
+                    format( "Phase id must be in [0,%s), was %s, for: %s", phaseMetrics.length, phaseId, name ) );
+        }
+        if ( null == phaseMetrics[phaseId] )
+        {
+            String phaseName = ResultReporter.PhaseNames.phaseName( phaseId );
+            phaseMetrics[phaseId] = new ContinuousMetricManager(
+                    (null == phaseName) ? METRIC_PHASE_PREFIX + phaseId : phaseName,
+                    unit,
+                    unit.convert( highestExpectedRuntimeDurationAsNano, TimeUnit.NANOSECONDS ),
+                    4
+            );
+        }
+        // phases are parts of a run time, clamped the same way
+        long clampedDurationAsNano = Math.max( 0, Math.min( phaseDurationAsNano, highestExpectedRuntimeDurationAsNano ) );
+        try
+        {
+            phaseMetrics[phaseId].addMeasurement( unit.convert( clampedDurationAsNano, TimeUnit.NANOSECONDS ) );
+        }
+        catch ( Throwable e )
+        {
+            throw new MetricsCollectionException(
+                    format( "Error encountered adding duration of phase %s: %s %s\nTo: %s",
+                            phaseId, phaseDurationAsNano, TimeUnit.NANOSECONDS.name(), name ), e );
+        }
+    }
+
+    /**
+     * @param runDurationAsNano service time of operation
+     * @param responseTimeAsNano response time of operation, at least its service time
+     */
+    void measure( long runDurationAsNano, long responseTimeAsNano ) throws MetricsCollectionException
     {
         //
         // Measure operation runtime
@@ -68,6 +125,10 @@ public class OperationTypeMetricsManager
         try
         {
             runTimeMetric.addMeasurement( runtimeInAppropriateUnit );
+            if ( null != intervalRunTimeMetric )
+            {
+                intervalRunTimeMetric.addMeasurement( runtimeInAppropriateUnit );
+            }
         }
         catch ( Throwable e )
         {
@@ -85,11 +146,72 @@ public class OperationTypeMetricsManager
             );
             throw new MetricsCollectionException( errMsg, e );
         }
+
+        //
+        // Measure operation response time
+        //
+        // queueing delay is unbounded, response times beyond the maximum are clamped without reporting each one
+        long clampedResponseTimeAsNano = Math.min(
+                Math.max( responseTimeAsNano, runDurationAsNano ),
+                highestExpectedRuntimeDurationAsNano );
+        try
+        {
+            long responseTimeInAppropriateUnit = unit.convert( clampedResponseTimeAsNano, TimeUnit.NANOSECONDS );
+            responseTimeMetric.addMeasurement( responseTimeInAppropriateUnit, expectedIntervalInUnit );
+            if ( null != intervalResponseTimeMetric )
+            {
+                intervalResponseTimeMetric.addMeasurement( responseTimeInAppropriateUnit, expectedIntervalInUnit );
+            }
+        }
+        catch ( Throwable e )
+        {
+            throw new MetricsCollectionException(
+                    format( "Error encountered adding response time: %s %s\nTo: %s",
+                            responseTimeAsNano, TimeUnit.NANOSECONDS.name(), name ), e );
+        }
     }
 
     public OperationMetricsSnapshot snapshot()
     {
-        return new OperationMetricsSnapshot( name, unit, count(), runTimeMetric.snapshot() );
+        List<ContinuousMetricSnapshot> phaseSnapshots = new ArrayList<>();
+        for ( ContinuousMetricManager phaseMetric : phaseMetrics )
+        {
+            if ( null != phaseMetric )
+            {
+                phaseSnapshots.add( phaseMetric.snapshot() );
+            }
+        }
+        return new OperationMetricsSnapshot( name, unit, count(), runTimeMetric.snapshot(),
+                responseTimeMetric.snapshot(), phaseSnapshots );
+    }
+
+    /**
+     * Snapshot of measurements since the previous call, which starts the next interval.
+     * Measurements before the first call are not part of any interval.
+     */
+    LiveMetricsSnapshot.OperationTypeSnapshot intervalSnapshot( long intervalDurationAsMilli )
+    {
+        if ( null == intervalRunTimeMetric )
+        {
+            long highestExpectedValue = unit.convert( highestExpectedRuntimeDurationAsNano, TimeUnit.NANOSECONDS );
+            intervalRunTimeMetric = new ContinuousMetricManager( METRIC_RUNTIME, unit, highestExpectedValue, 4 );
+            intervalResponseTimeMetric =
+                    new ContinuousMetricManager( METRIC_RESPONSE_TIME, unit, highestExpectedValue, 4 );
+        }
+        ContinuousMetricSnapshot intervalRunTime = intervalRunTimeMetric.snapshot();
+        ContinuousMetricSnapshot intervalResponseTime = intervalResponseTimeMetric.snapshot();
+        intervalRunTimeMetric.reset();
+        intervalResponseTimeMetric.reset();
+        double intervalThroughput = (intervalDurationAsMilli <= 0)
+                                    ? 0
+                                    : intervalRunTime.count() / (intervalDurationAsMilli / 1000.0);
+        return new LiveMetricsSnapshot.OperationTypeSnapshot(
+                name,
+                count(),
+                intervalRunTime.count(),
+                intervalThroughput,
+                intervalRunTime,
+                intervalResponseTime );
     }
 
     public String name()
@@ -82,6 +82,30 @@ public class SimpleDetailedWorkloadMetricsFormatter implements WorkloadMetricsFo
         sb.append( offset ).append( offset )
                 .append( String.format( "%1$-" + padRightDistance + "s", "99th Percentile:" ) )
                 .append( INTEGER_FORMATTER.format( metric.runTimeMetric().percentile99() ) ).append( "\n" );
+        if ( null != metric.responseTimeMetric() )
+        {
+            ContinuousMetricSnapshot responseTime = metric.responseTimeMetric();
+            sb.append( offset ).append( offset )
+                    .append( String.format( "%1$-" + padRightDistance + "s", "Response Time:" ) )
+                    .append( "mean " ).append( FLOAT_FORMATTER.format( responseTime.mean() ) )
+                    .append( " / 50th " ).append( INTEGER_FORMATTER.format( responseTime.percentile50() ) )
+                    .append( " / 95th " ).append( INTEGER_FORMATTER.format( responseTime.percentile95() ) )
+                    .append( " / 99th " ).append( INTEGER_FORMATTER.format( responseTime.percentile99() ) )
+                    .append( " / max " ).append( INTEGER_FORMATTER.format( responseTime.max() ) )
+                    .append( "\n" );
+        }
+        if ( null != metric.phaseMetrics() )
+        {
+            for ( ContinuousMetricSnapshot phase : metric.phaseMetrics() )
+            {
+                sb.append( offset ).append( offset )
+                        .append( String.format( "%1$-" + padRightDistance + "s", phase.name() + ":" ) )
+                        .append( "mean " ).append( FLOAT_FORMATTER.format( phase.mean() ) )
+                        .append( " / 50th " ).append( INTEGER_FORMATTER.format( phase.percentile50() ) )
+                        .append( " / 99th " ).append( INTEGER_FORMATTER.format( phase.percentile99() ) )
+                        .append( "\n" );
+            }
+        }
         return sb.toString();
     }
 }
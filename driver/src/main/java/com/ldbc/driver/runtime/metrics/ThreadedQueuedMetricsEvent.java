@@ -5,6 +5,8 @@ abstract class ThreadedQueuedMetricsEvent {
     public static enum MetricsEventType {
         // Submit operation result for its metrics to be collected
         SUBMIT_RESULT,
+        // Submit duration of one phase of an operation execution
+        SUBMIT_PHASE,
         // Request metrics summary
         WORKLOAD_STATUS,
         // Request complete workload results
@@ -68,6 +70,35 @@ abstract class ThreadedQueuedMetricsEvent {
         }
     }
 
+    static public class SubmitOperationPhase extends ThreadedQueuedMetricsEvent {
+        private final int operationType;
+        private final int phaseId;
+        private final long phaseDurationAsNano;
+
+        public SubmitOperationPhase(int operationType, int phaseId, long phaseDurationAsNano) {
+            this.operationType = operationType;
+            this.phaseId = phaseId;
+            this.phaseDurationAsNano = phaseDurationAsNano;
+        }
+
+        public int operationType() {
+            return operationType;
+        }
+
+        public int phaseId() {
+            return phaseId;
+        }
+
+        public long phaseDurationAsNano() {
+            return phaseDurationAsNano;
+        }
+
+        @Override
+        public MetricsEventType type() {
+            return MetricsEventType.SUBMIT_PHASE;
+        }
+    }
+
     static public class Status extends ThreadedQueuedMetricsEvent {
         private final ThreadedQueuedMetricsService.MetricsStatusFuture statusFuture;
 
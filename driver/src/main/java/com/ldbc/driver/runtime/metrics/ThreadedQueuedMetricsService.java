@@ -147,6 +147,12 @@ public class ThreadedQueuedMetricsService implements MetricsService
         return metricsServiceWriter;
     }
 
+    @Override
+    public LiveMetricsSnapshot liveSnapshot()
+    {
+        return threadedQueuedMetricsServiceThread.liveSnapshot();
+    }
+
     private static class ThreadedQueuedMetricsServiceWriter implements MetricsServiceWriter
     {
         private final AtomicLong initiatedEvents;
@@ -213,6 +219,36 @@ public class ThreadedQueuedMetricsService implements MetricsService
             }
         }
 
+        @Override
+        public void submitOperationPhase( int operationType, int phaseId, long phaseDurationAsNano )
+                throws MetricsCollectionException
+        {
+            if ( null != alreadyShutdownPolicy )
+            {
+                alreadyShutdownPolicy.apply();
+            }
+            try
+            {
+                initiatedEvents.incrementAndGet();
+                queueEventSubmitter.submitEventToQueue(
+                        new ThreadedQueuedMetricsEvent.SubmitOperationPhase( operationType, phaseId,
+                                phaseDurationAsNano ) );
+            }
+            catch ( InterruptedException e )
+            {
+                String errMsg = format(
+                        "Error submitting phase\n"
+                        + "Operation Type: %s\n"
+                        + "Phase: %s\n"
+                        + "Duration Ns: %s\n",
+                        operationType,
+                        phaseId,
+                        phaseDurationAsNano
+                );
+                throw new MetricsCollectionException( errMsg, e );
+            }
+        }
+
         @Override
         public WorkloadStatusSnapshot status() throws MetricsCollectionException
         {
@@ -8,6 +8,7 @@ import com.ldbc.driver.runtime.QueueEventFetcher;
 import com.ldbc.driver.runtime.metrics.ThreadedQueuedMetricsEvent.GetWorkloadResults;
 import com.ldbc.driver.runtime.metrics.ThreadedQueuedMetricsEvent.Shutdown;
 import com.ldbc.driver.runtime.metrics.ThreadedQueuedMetricsEvent.Status;
+import com.ldbc.driver.runtime.metrics.ThreadedQueuedMetricsEvent.SubmitOperationPhase;
 import com.ldbc.driver.runtime.metrics.ThreadedQueuedMetricsEvent.SubmitOperationResult;
 import com.ldbc.driver.temporal.TimeSource;
 
@@ -69,11 +70,19 @@ public class ThreadedQueuedMetricsServiceThread extends Thread
                 unit,
                 maxRuntimeDurationAsNano,
                 operationTypeToClassMapping,
+                // open loop, response times are measured from scheduled start times
+                false,
+                0,
                 loggingServiceFactory
         );
         operationNames = MetricsManager.toOperationNameArray( operationTypeToClassMapping );
     }
 
+    LiveMetricsSnapshot liveSnapshot()
+    {
+        return metricsManager.liveSnapshot();
+    }
+
     @Override
     public void run()
     {
@@ -83,6 +92,7 @@ public class ThreadedQueuedMetricsServiceThread extends Thread
             {
                 ThreadedQueuedMetricsEvent event = queueEventFetcher.fetchNextEvent();
                 onEvent( event );
+                metricsManager.publishLiveSnapshotIfDue();
             }
             catch ( Throwable e )
             {
@@ -117,6 +127,7 @@ public class ThreadedQueuedMetricsServiceThread extends Thread
             try
             {
                 metricsManager.measure(
+                        submitOperationResultEvent.scheduledStartTimeAsMilli(),
                         submitOperationResultEvent.actualStartTimeAsMilli(),
                         submitOperationResultEvent.runDurationAsNano(),
                         submitOperationResultEvent.operationType()
@@ -146,6 +157,34 @@ public class ThreadedQueuedMetricsServiceThread extends Thread
                 );
             }
 
+            processedEventCount++;
+            break;
+        case SUBMIT_PHASE:
+            SubmitOperationPhase submitOperationPhaseEvent = (SubmitOperationPhase) event;
+            try
+            {
+                metricsManager.measurePhase(
+                        submitOperationPhaseEvent.operationType(),
+                        submitOperationPhaseEvent.phaseId(),
+                        submitOperationPhaseEvent.phaseDurationAsNano()
+                );
+            }
+            catch ( MetricsCollectionException e )
+            {
+                errorReporter.reportError(
+                        this,
+                        format(
+                                "Encountered error while collecting metrics for phase\n"
+                                + "Operation Type: %s\n"
+                                + "Phase: %s\n"
+                                + "Duration Ns: %s\n%s",
+                                submitOperationPhaseEvent.operationType(),
+                                submitOperationPhaseEvent.phaseId(),
+                                submitOperationPhaseEvent.phaseDurationAsNano(),
+                                ConcurrentErrorReporter.stackTraceToString( e )
+                        )
+                );
+            }
             processedEventCount++;
             break;
         case WORKLOAD_STATUS:
@@ -19,6 +19,7 @@ import com.ldbc.driver.util.Function2;
 public class Spinner
 {
     public static final long DEFAULT_SLEEP_DURATION_10_MILLI = 10;
+    public static final long NO_THINK_TIME = 0;
     public static final SpinnerCheck TRUE_CHECK = new TrueCheck();
 
     private final Function2<Operation,SpinnerCheck,Boolean,RuntimeException> spinFun;
@@ -27,9 +28,23 @@ public class Spinner
             TimeSource timeSource,
             long sleepDurationAsMilli,
             boolean ignoreScheduleStartTimes )
+    {
+        this( timeSource, sleepDurationAsMilli, ignoreScheduleStartTimes, NO_THINK_TIME );
+    }
+
+    /**
+     * When scheduled start times are ignored, every thread waiting on the spinner acts as a client in a closed loop:
+     * it first waits for the think time, then issues its next operation as soon as checks pass.
+     * Think time is not used when scheduled start times are honoured (open loop).
+     */
+    public Spinner(
+            TimeSource timeSource,
+            long sleepDurationAsMilli,
+            boolean ignoreScheduleStartTimes,
+            long thinkTimeAsMilli )
     {
         this.spinFun = (ignoreScheduleStartTimes)
-                       ? new WaitForChecksFun( sleepDurationAsMilli )
+                       ? new WaitForChecksFun( sleepDurationAsMilli, thinkTimeAsMilli )
                        : new WaitForChecksAndScheduledStartTimeFun( timeSource, sleepDurationAsMilli );
     }
 
@@ -114,15 +129,19 @@ public class Spinner
     private static class WaitForChecksFun implements Function2<Operation,SpinnerCheck,Boolean,RuntimeException>
     {
         private final long sleepDurationAsMilli;
+        private final long thinkTimeAsMilli;
 
-        private WaitForChecksFun( long sleepDurationAsMilli )
+        private WaitForChecksFun( long sleepDurationAsMilli, long thinkTimeAsMilli )
         {
             this.sleepDurationAsMilli = sleepDurationAsMilli;
+            this.thinkTimeAsMilli = thinkTimeAsMilli;
         }
 
         @Override
         public Boolean apply( Operation operation, SpinnerCheck check )
         {
+            powerNap( thinkTimeAsMilli );
+
             // wait for checks to have all passed before allowing operation to start
             while ( SpinnerCheck.SpinnerCheckResult.STILL_CHECKING == check.doCheck( operation ) )
             {
@@ -7,26 +7,69 @@ import com.ldbc.driver.WorkloadStreams;
 import com.ldbc.driver.generator.GeneratorFactory;
 import com.ldbc.driver.generator.RandomDataGeneratorFactory;
 import com.ldbc.driver.runtime.metrics.ContinuousMetricManager;
+import com.ldbc.driver.runtime.metrics.ContinuousMetricSnapshot;
 import com.ldbc.driver.runtime.metrics.MetricsCollectionException;
 import com.ldbc.driver.util.Bucket;
 import com.ldbc.driver.util.Histogram;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Calculates workload statistics with one scanner thread per stream.
+ * <p>
+ * Every scanner generates the operations of its stream, child operations included, and accumulates the statistics
+ * that do not depend on the order of operations across streams, i.e., operation mix, first and last start times and
+ * lowest dependency durations, which are merged once all streams are exhausted. Interleaves do depend on that order,
+ * so scanners also hand start times and operation types, in chunks of primitive arrays, to the calling thread, which
+ * merges them by start time and measures interleaves exactly as if all operations were scanned in one sequence.
+ * <p>
+ * While merging the calling thread reports progress, with the interleaves measured so far, to a listener.
+ */
 public class WorkloadStatisticsCalculator {
     /**
      * TODO report how frequently GCT is updated
      */
 
+    public static final long DEFAULT_PROGRESS_INTERVAL_AS_OPERATIONS = 1000000;
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int CHUNKS_IN_FLIGHT_PER_STREAM = 4;
+    private static final Chunk END_OF_STREAM = new Chunk(0);
+
+    public interface ProgressListener {
+        /**
+         * @param operationCount operations merged so far
+         * @param scheduledStartTimeAsMilli scheduled start time of the last operation merged
+         * @param operationInterleaves interleaves between the operations merged so far
+         */
+        void onProgress(long operationCount, long scheduledStartTimeAsMilli, ContinuousMetricSnapshot operationInterleaves);
+    }
+
+    private static final ProgressListener NO_PROGRESS = new ProgressListener() {
+        @Override
+        public void onProgress(long operationCount, long scheduledStartTimeAsMilli, ContinuousMetricSnapshot operationInterleaves) {
+        }
+    };
+
     public WorkloadStatistics calculate(WorkloadStreams workloadStreams,
                                         long maxExpectedInterleaveAsMilli) throws MetricsCollectionException {
+        return calculate(workloadStreams, maxExpectedInterleaveAsMilli, NO_PROGRESS, Long.MAX_VALUE);
+    }
+
+    public WorkloadStatistics calculate(WorkloadStreams workloadStreams,
+                                        long maxExpectedInterleaveAsMilli,
+                                        ProgressListener progressListener,
+                                        long progressIntervalAsOperations) throws MetricsCollectionException {
         Histogram<Class, Long> operationMixHistogram = new Histogram<>(0l);
         GeneratorFactory gf = new GeneratorFactory(new RandomDataGeneratorFactory(42l));
         ContinuousMetricManager operationInterleaves = new ContinuousMetricManager(null, null, maxExpectedInterleaveAsMilli, 5);
 
-        long previousOperationStartTimeAsMilli = -1;
-
-        final Map<Class, Long> previousOperationStartTimesAsMilliByOperationType = new HashMap<>();
         Map<Class, ContinuousMetricManager> operationInterleavesByOperationType = new HashMap<>();
 
         Map<Class, Long> firstStartTimesAsMilliByOperationType = new HashMap<>();
@@ -48,37 +91,105 @@ public class WorkloadStatisticsCalculator {
             }
         }
 
-        List<Iterator<Operation>> operationIterators = new ArrayList<>();
-        operationIterators.add(
-                new StreamWithChildOperationGenerator(workloadStreams.asynchronousStream().dependencyOperations(), workloadStreams.asynchronousStream().childOperationGenerator())
-        );
-        operationIterators.add(
+        List<StreamScanner> streamScanners = new ArrayList<>();
+        streamScanners.add(new StreamScanner(gf.mergeSortOperationsByScheduledStartTime(
+                new StreamWithChildOperationGenerator(workloadStreams.asynchronousStream().dependencyOperations(), workloadStreams.asynchronousStream().childOperationGenerator()),
                 new StreamWithChildOperationGenerator(workloadStreams.asynchronousStream().nonDependencyOperations(), workloadStreams.asynchronousStream().childOperationGenerator())
-        );
+        )));
         for (WorkloadStreams.WorkloadStreamDefinition blockingStreamDefinition : workloadStreams.blockingStreamDefinitions()) {
-            operationIterators.add(
-                    new StreamWithChildOperationGenerator(blockingStreamDefinition.dependencyOperations(), blockingStreamDefinition.childOperationGenerator())
-            );
-            operationIterators.add(
+            streamScanners.add(new StreamScanner(gf.mergeSortOperationsByScheduledStartTime(
+                    new StreamWithChildOperationGenerator(blockingStreamDefinition.dependencyOperations(), blockingStreamDefinition.childOperationGenerator()),
                     new StreamWithChildOperationGenerator(blockingStreamDefinition.nonDependencyOperations(), blockingStreamDefinition.childOperationGenerator())
-            );
+            )));
         }
 
-        Iterator<Operation> operations = gf.mergeSortOperationsByScheduledStartTime(
-                operationIterators.toArray(new Iterator[operationIterators.size()])
-        );
+        // one thread per stream, scanners block while their queue is full so fewer threads could deadlock the merge
+        ExecutorService executor = Executors.newFixedThreadPool(streamScanners.size(), new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, WorkloadStatisticsCalculator.class.getSimpleName() + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            for (StreamScanner streamScanner : streamScanners)
+                executor.execute(streamScanner);
+            mergeInterleaves(streamScanners, maxExpectedInterleaveAsMilli, operationInterleaves, operationInterleavesByOperationType, progressListener, progressIntervalAsOperations);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetricsCollectionException("Interrupted while calculating workload statistics", e);
+        } finally {
+            // stops scanners that are still running if merging failed
+            executor.shutdownNow();
+        }
 
         Map<Class, Long> lowestDependencyDurationAsMilliByOperationType = new HashMap<>();
 
-        while (operations.hasNext()) {
-            Operation operation = operations.next();
-            Class operationType = operation.getClass();
-            long operationStartTimeAsMilli = operation.scheduledStartTimeAsMilli();
-            long operationDependencyTimeAsMilli = operation.dependencyTimeStamp();
-            long operationDependencyDurationAsMilli = operationStartTimeAsMilli - operationDependencyTimeAsMilli;
+        for (StreamScanner streamScanner : streamScanners) {
+            for (Map.Entry<Class, OperationTypeStatistics> entry : streamScanner.statisticsByOperationType.entrySet()) {
+                Class operationType = entry.getKey();
+                OperationTypeStatistics statistics = entry.getValue();
+
+                // Operation Mix
+                operationMixHistogram.incOrCreateBucket(Bucket.DiscreteBucket.create(operationType), statistics.count);
+
+                // Dependency duration by operation type
+                long lowestDependencyDurationAsMilliForOperationType = (lowestDependencyDurationAsMilliByOperationType.containsKey(operationType))
+                        ? lowestDependencyDurationAsMilliByOperationType.get(operationType)
+                        : Long.MAX_VALUE;
+                if (statistics.lowestDependencyDurationAsMilli < lowestDependencyDurationAsMilliForOperationType)
+                    lowestDependencyDurationAsMilliByOperationType.put(operationType, statistics.lowestDependencyDurationAsMilli);
+
+                // First start times by operation type
+                if (false == firstStartTimesAsMilliByOperationType.containsKey(operationType) || statistics.firstStartTimeAsMilli < firstStartTimesAsMilliByOperationType.get(operationType))
+                    firstStartTimesAsMilliByOperationType.put(operationType, statistics.firstStartTimeAsMilli);
+
+                // Last start times by operation type
+                if (false == lastStartTimesAsMilliByOperationType.containsKey(operationType) || statistics.lastStartTimeAsMilli > lastStartTimesAsMilliByOperationType.get(operationType))
+                    lastStartTimesAsMilliByOperationType.put(operationType, statistics.lastStartTimeAsMilli);
+            }
+        }
+
+        return new WorkloadStatistics(
+                firstStartTimesAsMilliByOperationType,
+                lastStartTimesAsMilliByOperationType,
+                operationMixHistogram,
+                operationInterleaves,
+                operationInterleavesByOperationType,
+                dependencyOperationTypes,
+                dependentOperationTypes,
+                lowestDependencyDurationAsMilliByOperationType);
+    }
 
-            // Operation Mix
-            operationMixHistogram.incOrCreateBucket(Bucket.DiscreteBucket.create(operationType), 1l);
+    private void mergeInterleaves(List<StreamScanner> streamScanners,
+                                  long maxExpectedInterleaveAsMilli,
+                                  ContinuousMetricManager operationInterleaves,
+                                  Map<Class, ContinuousMetricManager> operationInterleavesByOperationType,
+                                  ProgressListener progressListener,
+                                  long progressIntervalAsOperations) throws InterruptedException, MetricsCollectionException {
+        PriorityQueue<StreamCursor> streamCursors = new PriorityQueue<>(streamScanners.size(), new Comparator<StreamCursor>() {
+            @Override
+            public int compare(StreamCursor c1, StreamCursor c2) {
+                return Long.compare(c1.scheduledStartTimeAsMilli(), c2.scheduledStartTimeAsMilli());
+            }
+        });
+        for (StreamScanner streamScanner : streamScanners) {
+            StreamCursor streamCursor = new StreamCursor(streamScanner);
+            if (streamCursor.advance())
+                streamCursors.add(streamCursor);
+        }
+
+        long operationCount = 0;
+        long previousOperationStartTimeAsMilli = -1;
+        final Map<Class, long[]> previousOperationStartTimesAsMilliByOperationType = new HashMap<>();
+
+        StreamCursor streamCursor = streamCursors.poll();
+        while (null != streamCursor) {
+            long operationStartTimeAsMilli = streamCursor.scheduledStartTimeAsMilli();
+            Class operationType = streamCursor.operationType();
 
             // Interleaves
             if (-1 != previousOperationStartTimeAsMilli) {
@@ -93,37 +204,153 @@ public class WorkloadStatisticsCalculator {
                 operationInterleaveForOperationType = new ContinuousMetricManager(null, null, maxExpectedInterleaveAsMilli, 5);
                 operationInterleavesByOperationType.put(operationType, operationInterleaveForOperationType);
             }
-            Long previousOperationStartTimeAsMilliForOperationType = previousOperationStartTimesAsMilliByOperationType.get(operationType);
+            long[] previousOperationStartTimeAsMilliForOperationType = previousOperationStartTimesAsMilliByOperationType.get(operationType);
             if (null != previousOperationStartTimeAsMilliForOperationType) {
-                long interleaveDurationAsMilli = operationStartTimeAsMilli - previousOperationStartTimeAsMilliForOperationType;
+                long interleaveDurationAsMilli = operationStartTimeAsMilli - previousOperationStartTimeAsMilliForOperationType[0];
                 operationInterleaveForOperationType.addMeasurement(interleaveDurationAsMilli);
+                previousOperationStartTimeAsMilliForOperationType[0] = operationStartTimeAsMilli;
+            } else {
+                previousOperationStartTimesAsMilliByOperationType.put(operationType, new long[]{operationStartTimeAsMilli});
             }
-            previousOperationStartTimesAsMilliByOperationType.put(operationType, operationStartTimeAsMilli);
 
-            // Dependency duration by operation type
-            long lowestDependencyDurationAsMilliForOperationType = (lowestDependencyDurationAsMilliByOperationType.containsKey(operationType))
-                    ? lowestDependencyDurationAsMilliByOperationType.get(operationType)
-                    : Long.MAX_VALUE;
-            if (operationDependencyDurationAsMilli < lowestDependencyDurationAsMilliForOperationType)
-                lowestDependencyDurationAsMilliByOperationType.put(operationType, operationDependencyDurationAsMilli);
+            operationCount++;
+            if (0 == operationCount % progressIntervalAsOperations)
+                progressListener.onProgress(operationCount, operationStartTimeAsMilli, operationInterleaves.snapshot());
 
-            // First start times by operation type
-            if (false == firstStartTimesAsMilliByOperationType.containsKey(operationType))
-                firstStartTimesAsMilliByOperationType.put(operationType, operationStartTimeAsMilli);
+            // keep taking from the same stream while it is still the earliest, most of the time it is
+            if (streamCursor.advance()) {
+                StreamCursor earliestStreamCursor = streamCursors.peek();
+                if (null != earliestStreamCursor && earliestStreamCursor.scheduledStartTimeAsMilli() < streamCursor.scheduledStartTimeAsMilli()) {
+                    streamCursors.add(streamCursor);
+                    streamCursor = streamCursors.poll();
+                }
+            } else {
+                streamCursor = streamCursors.poll();
+            }
+        }
+    }
 
-            // Last start times by operation type
-            lastStartTimesAsMilliByOperationType.put(operationType, operationStartTimeAsMilli);
+    private static class OperationTypeStatistics {
+        private long count = 0;
+        private long firstStartTimeAsMilli;
+        private long lastStartTimeAsMilli;
+        private long lowestDependencyDurationAsMilli = Long.MAX_VALUE;
+    }
+
+    private static class Chunk {
+        private final long[] scheduledStartTimesAsMilli;
+        private final Class[] operationTypes;
+        private int size = 0;
+
+        private Chunk(int capacity) {
+            this.scheduledStartTimesAsMilli = new long[capacity];
+            this.operationTypes = new Class[capacity];
         }
 
-        return new WorkloadStatistics(
-                firstStartTimesAsMilliByOperationType,
-                lastStartTimesAsMilliByOperationType,
-                operationMixHistogram,
-                operationInterleaves,
-                operationInterleavesByOperationType,
-                dependencyOperationTypes,
-                dependentOperationTypes,
-                lowestDependencyDurationAsMilliByOperationType);
+        private boolean isFull() {
+            return size == operationTypes.length;
+        }
+    }
+
+    /**
+     * Scans the operations of one stream, accumulating statistics per operation type and handing start times and
+     * operation types to the merge. Statistics may only be read once the end of stream chunk has been taken from the
+     * queue.
+     */
+    private static class StreamScanner implements Runnable {
+        private final Iterator<Operation> operations;
+        private final BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(CHUNKS_IN_FLIGHT_PER_STREAM);
+        private final Map<Class, OperationTypeStatistics> statisticsByOperationType = new HashMap<>();
+        private Throwable error = null;
+
+        private StreamScanner(Iterator<Operation> operations) {
+            this.operations = operations;
+        }
+
+        @Override
+        public void run() {
+            try {
+                scan();
+            } catch (InterruptedException e) {
+                // merge has given up, nobody is waiting for the end of stream
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                error = e;
+            }
+            try {
+                chunks.put(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void scan() throws InterruptedException {
+            Chunk chunk = new Chunk(CHUNK_SIZE);
+            while (operations.hasNext()) {
+                Operation operation = operations.next();
+                Class operationType = operation.getClass();
+                long operationStartTimeAsMilli = operation.scheduledStartTimeAsMilli();
+                long operationDependencyTimeAsMilli = operation.dependencyTimeStamp();
+                long operationDependencyDurationAsMilli = operationStartTimeAsMilli - operationDependencyTimeAsMilli;
+
+                OperationTypeStatistics statistics = statisticsByOperationType.get(operationType);
+                if (null == statistics) {
+                    statistics = new OperationTypeStatistics();
+                    statistics.firstStartTimeAsMilli = operationStartTimeAsMilli;
+                    statisticsByOperationType.put(operationType, statistics);
+                }
+                statistics.count++;
+                statistics.lastStartTimeAsMilli = operationStartTimeAsMilli;
+                if (operationDependencyDurationAsMilli < statistics.lowestDependencyDurationAsMilli)
+                    statistics.lowestDependencyDurationAsMilli = operationDependencyDurationAsMilli;
+
+                chunk.scheduledStartTimesAsMilli[chunk.size] = operationStartTimeAsMilli;
+                chunk.operationTypes[chunk.size] = operationType;
+                chunk.size++;
+                if (chunk.isFull()) {
+                    chunks.put(chunk);
+                    chunk = new Chunk(CHUNK_SIZE);
+                }
+            }
+            if (chunk.size > 0)
+                chunks.put(chunk);
+        }
+    }
+
+    private static class StreamCursor {
+        private final StreamScanner streamScanner;
+        private Chunk chunk = null;
+        private int index = 0;
+
+        private StreamCursor(StreamScanner streamScanner) {
+            this.streamScanner = streamScanner;
+        }
+
+        /**
+         * @return false if the stream is exhausted
+         */
+        private boolean advance() throws InterruptedException, MetricsCollectionException {
+            index++;
+            if (null != chunk && index < chunk.size)
+                return true;
+            chunk = streamScanner.chunks.take();
+            index = 0;
+            if (END_OF_STREAM == chunk) {
+                if (null != streamScanner.error)
+                    throw new MetricsCollectionException("Error encountered while scanning workload stream", streamScanner.error);
+                return false;
+            }
+            return true;
+        }
+
+        private long scheduledStartTimeAsMilli() {
+            return chunk.scheduledStartTimesAsMilli[index];
+        }
+
+        private Class operationType() {
+            return chunk.operationTypes[index];
+        }
     }
 
     private static class StreamWithChildOperationGenerator implements Iterator<Operation> {
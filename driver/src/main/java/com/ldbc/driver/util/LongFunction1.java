@@ -0,0 +1,9 @@
+package com.ldbc.driver.util;
+
+/**
+ * Function1 specialized for long input and return values, to map time stamps without boxing them
+ */
+public interface LongFunction1
+{
+    long apply( long input );
+}
@@ -0,0 +1,2568 @@
+package com.ldbc.driver.workloads.ldbc.snb.bi.db;
+
+import com.ldbc.driver.Db;
+import com.ldbc.driver.DbConnectionState;
+import com.ldbc.driver.DbException;
+import com.ldbc.driver.OperationHandler;
+import com.ldbc.driver.ResultReporter;
+import com.ldbc.driver.control.LoggingService;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery10TagPerson;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery10TagPersonResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery11UnrelatedReplies;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery11UnrelatedRepliesResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery12TrendingPosts;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery12TrendingPostsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery13PopularMonthlyTags;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery13PopularMonthlyTagsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery14TopThreadInitiators;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery14TopThreadInitiatorsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery15SocialNormals;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery15SocialNormalsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery16ExpertsInSocialCircle;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery16ExpertsInSocialCircleResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery17FriendshipTriangles;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery17FriendshipTrianglesResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery18PersonPostCounts;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery18PersonPostCountsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery19StrangerInteraction;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery19StrangerInteractionResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery1PostingSummary;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery1PostingSummaryResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery20HighLevelTopics;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery20HighLevelTopicsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery21Zombies;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery21ZombiesResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery22InternationalDialog;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery22InternationalDialogResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery23HolidayDestinations;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery23HolidayDestinationsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery24MessagesByTopic;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery24MessagesByTopicResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery2TopTags;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery2TopTagsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery3TagEvolution;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery3TagEvolutionResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery4PopularCountryTopics;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery4PopularCountryTopicsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery5TopCountryPosters;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery5TopCountryPostersResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery6ActivePosters;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery6ActivePostersResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery7AuthoritativeUsers;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery7AuthoritativeUsersResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery8RelatedTopics;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery8RelatedTopicsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery9RelatedForums;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery9RelatedForumsResult;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.LongIntHashMap;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.ParallelScan;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.SnbCsvLoader;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.SnbGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Reference implementation of the SNB BI workload that executes every query against an in-memory copy of a datagen
+ * data set, loaded from the basic CSV format by {@link SnbCsvLoader}.
+ * <p>
+ * Queries are evaluated by scans over the columnar arrays of {@link SnbGraph}, split into chunks that run in
+ * parallel on a fork-join pool shared by all queries (see {@link ParallelScan}). Each chunk aggregates into its own
+ * dense array indexed by row, or hash map for composite grouping keys, and partial aggregates are merged as the
+ * chunks are joined.
+ * <p>
+ * Since results do not depend on any other system, it can be used to create validation parameters.
+ */
+public class InMemoryLdbcSnbBiDb extends Db
+{
+    public static final String DATA_DIRECTORY_ARG = "ldbc.snb.bi.db.in_memory.data_dir";
+    public static final String PARALLELISM_ARG = "ldbc.snb.bi.db.in_memory.parallelism";
+
+    private static final long DAY_AS_MILLI = 24 * 60 * 60 * 1000L;
+
+    static class InMemoryBiDbConnectionState extends DbConnectionState
+    {
+        private final SnbGraph graph;
+        private final ForkJoinPool pool;
+
+        private InMemoryBiDbConnectionState( SnbGraph graph, ForkJoinPool pool )
+        {
+            this.graph = graph;
+            this.pool = pool;
+        }
+
+        SnbGraph graph()
+        {
+            return graph;
+        }
+
+        ForkJoinPool pool()
+        {
+            return pool;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            pool.shutdown();
+            try
+            {
+                pool.awaitTermination( 1, TimeUnit.MINUTES );
+            }
+            catch ( InterruptedException e )
+            {
+                throw new IOException( "Interrupted while waiting for query workers to terminate", e );
+            }
+        }
+    }
+
+    private InMemoryBiDbConnectionState connectionState = null;
+
+    @Override
+    protected void onInit( Map<String,String> params, LoggingService loggingService ) throws DbException
+    {
+        String dataDirectoryPath = params.get( DATA_DIRECTORY_ARG );
+        if ( null == dataDirectoryPath )
+        {
+            throw new DbException( format( "Missing parameter: %s", DATA_DIRECTORY_ARG ) );
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String parallelismString = params.get( PARALLELISM_ARG );
+        if ( null != parallelismString )
+        {
+            try
+            {
+                parallelism = Integer.parseInt( parallelismString );
+            }
+            catch ( NumberFormatException e )
+            {
+                throw new DbException( format( "Error encountered while trying to parse value [%s] for %s",
+                        parallelismString, PARALLELISM_ARG ), e );
+            }
+            if ( parallelism < 1 )
+            {
+                throw new DbException( format( "%s must be positive: %s", PARALLELISM_ARG, parallelism ) );
+            }
+        }
+        long startTimeAsMilli = System.currentTimeMillis();
+        SnbGraph graph;
+        try
+        {
+            graph = SnbCsvLoader.load( new File( dataDirectoryPath ) );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            throw new DbException( format( "Error loading data set from: %s", dataDirectoryPath ), e );
+        }
+        loggingService.info( format( "Loaded %s persons, %s messages, %s forums in %s ms, querying with %s workers",
+                graph.persons.count(), graph.messages.count(), graph.forums.count(),
+                System.currentTimeMillis() - startTimeAsMilli, parallelism ) );
+        connectionState = new InMemoryBiDbConnectionState( graph, new ForkJoinPool( parallelism ) );
+
+        registerOperationHandler( LdbcSnbBiQuery1PostingSummary.class, LdbcSnbBiQuery1Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery2TopTags.class, LdbcSnbBiQuery2Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery3TagEvolution.class, LdbcSnbBiQuery3Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery4PopularCountryTopics.class, LdbcSnbBiQuery4Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery5TopCountryPosters.class, LdbcSnbBiQuery5Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery6ActivePosters.class, LdbcSnbBiQuery6Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery7AuthoritativeUsers.class, LdbcSnbBiQuery7Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery8RelatedTopics.class, LdbcSnbBiQuery8Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery9RelatedForums.class, LdbcSnbBiQuery9Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery10TagPerson.class, LdbcSnbBiQuery10Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery11UnrelatedReplies.class, LdbcSnbBiQuery11Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery12TrendingPosts.class, LdbcSnbBiQuery12Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery13PopularMonthlyTags.class, LdbcSnbBiQuery13Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery14TopThreadInitiators.class, LdbcSnbBiQuery14Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery15SocialNormals.class, LdbcSnbBiQuery15Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery16ExpertsInSocialCircle.class, LdbcSnbBiQuery16Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery17FriendshipTriangles.class, LdbcSnbBiQuery17Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery18PersonPostCounts.class, LdbcSnbBiQuery18Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery19StrangerInteraction.class, LdbcSnbBiQuery19Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery20HighLevelTopics.class, LdbcSnbBiQuery20Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery21Zombies.class, LdbcSnbBiQuery21Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery22InternationalDialog.class, LdbcSnbBiQuery22Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery23HolidayDestinations.class, LdbcSnbBiQuery23Handler.class );
+        registerOperationHandler( LdbcSnbBiQuery24MessagesByTopic.class, LdbcSnbBiQuery24Handler.class );
+    }
+
+    @Override
+    protected void onClose() throws IOException
+    {
+        if ( null != connectionState )
+        {
+            connectionState.close();
+            connectionState = null;
+        }
+    }
+
+    @Override
+    protected DbConnectionState getConnectionState() throws DbException
+    {
+        return connectionState;
+    }
+
+    /*
+    OPERATORS
+     */
+
+    /**
+     * Counts per row of some table, e.g., per person, each chunk into its own dense array.
+     */
+    private abstract static class CountPerRow extends ParallelScan<int[]>
+    {
+        private final int rowCount;
+
+        private CountPerRow( int rowCount )
+        {
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        protected int[] newPartial()
+        {
+            return new int[rowCount];
+        }
+
+        @Override
+        protected int[] merge( int[] left, int[] right )
+        {
+            for ( int i = 0; i < left.length; i++ )
+            {
+                left[i] += right[i];
+            }
+            return left;
+        }
+    }
+
+    /**
+     * Hash aggregation into a fixed number of long aggregates per group, each chunk into its own hash map.
+     */
+    private abstract static class GroupBy<K> extends ParallelScan<Map<K,long[]>>
+    {
+        private final int aggregateCount;
+
+        private GroupBy( int aggregateCount )
+        {
+            this.aggregateCount = aggregateCount;
+        }
+
+        @Override
+        protected Map<K,long[]> newPartial()
+        {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected Map<K,long[]> merge( Map<K,long[]> left, Map<K,long[]> right )
+        {
+            Map<K,long[]> larger = (left.size() >= right.size()) ? left : right;
+            Map<K,long[]> smaller = (left.size() >= right.size()) ? right : left;
+            for ( Map.Entry<K,long[]> entry : smaller.entrySet() )
+            {
+                long[] aggregates = larger.get( entry.getKey() );
+                if ( null == aggregates )
+                {
+                    larger.put( entry.getKey(), entry.getValue() );
+                }
+                else
+                {
+                    for ( int i = 0; i < aggregates.length; i++ )
+                    {
+                        aggregates[i] += entry.getValue()[i];
+                    }
+                }
+            }
+            return larger;
+        }
+
+        final long[] aggregates( Map<K,long[]> partial, K key )
+        {
+            long[] aggregates = partial.get( key );
+            if ( null == aggregates )
+            {
+                aggregates = new long[aggregateCount];
+                partial.put( key, aggregates );
+            }
+            return aggregates;
+        }
+    }
+
+    /**
+     * Rows that satisfy a predicate, each chunk into its own list.
+     */
+    private abstract static class Filter extends ParallelScan<List<Integer>>
+    {
+        @Override
+        protected List<Integer> newPartial()
+        {
+            return new ArrayList<>();
+        }
+
+        @Override
+        protected List<Integer> merge( List<Integer> left, List<Integer> right )
+        {
+            left.addAll( right );
+            return left;
+        }
+    }
+
+    private static <T> List<T> sortAndLimit( List<T> results, Comparator<T> comparator, int limit )
+    {
+        Collections.sort( results, comparator );
+        return (results.size() > limit) ? new ArrayList<>( results.subList( 0, limit ) ) : results;
+    }
+
+    /**
+     * @return date in the GMT calendar as yyyyMMdd, e.g., 20100311
+     */
+    static int civilDate( long timeAsMilli )
+    {
+        long epochDay = timeAsMilli / DAY_AS_MILLI;
+        if ( timeAsMilli % DAY_AS_MILLI < 0 )
+        {
+            epochDay--;
+        }
+        long z = epochDay + 719468;
+        long era = ((z >= 0) ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+        return (int) (year * 10000 + month * 100 + day);
+    }
+
+    private static int year( int civilDate )
+    {
+        return civilDate / 10000;
+    }
+
+    private static int month( int civilDate )
+    {
+        return civilDate / 100 % 100;
+    }
+
+    private static boolean[] personsInCountry( SnbGraph graph, int country )
+    {
+        boolean[] inCountry = new boolean[graph.persons.count()];
+        for ( int person = 0; person < inCountry.length; person++ )
+        {
+            inCountry[person] = SnbGraph.NONE != country && graph.countryOf( graph.persons.city[person] ) == country;
+        }
+        return inCountry;
+    }
+
+    /**
+     * @return mask of the tags whose type is the tag class, all false if there is no such tag class
+     */
+    private static boolean[] tagsOfClass( SnbGraph graph, String tagClassName )
+    {
+        int tagClass = graph.tagClasses.row( tagClassName );
+        boolean[] ofClass = new boolean[graph.tags.count()];
+        for ( int tag = 0; tag < ofClass.length; tag++ )
+        {
+            ofClass[tag] = SnbGraph.NONE != tagClass && graph.tags.tagClass[tag] == tagClass;
+        }
+        return ofClass;
+    }
+
+    /**
+     * @return mask of the tags whose type is the tag class or any of its descendants
+     */
+    private static boolean[] tagsOfClassOrSubclasses( SnbGraph graph, String tagClassName )
+    {
+        int tagClass = graph.tagClasses.row( tagClassName );
+        boolean[] ofClass = new boolean[graph.tags.count()];
+        for ( int tag = 0; tag < ofClass.length; tag++ )
+        {
+            ofClass[tag] = SnbGraph.NONE != tagClass && graph.isSubclassOrSelf( graph.tags.tagClass[tag], tagClass );
+        }
+        return ofClass;
+    }
+
+    private static boolean hasTagIn( SnbGraph graph, int message, boolean[] tags )
+    {
+        int tagCount = graph.messageTags.degree( message );
+        for ( int i = 0; i < tagCount; i++ )
+        {
+            if ( tags[graph.messageTags.target( message, i )] )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int country( SnbGraph graph, String countryName )
+    {
+        return graph.places.row( SnbGraph.Places.COUNTRY, countryName );
+    }
+
+    /*
+    QUERIES
+     */
+
+    /**
+     * Messages created before the date, grouped by year, type and length category.
+     */
+    public static class LdbcSnbBiQuery1Handler
+            implements OperationHandler<LdbcSnbBiQuery1PostingSummary,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery1PostingSummary operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            final long date = operation.date();
+            List<LdbcSnbBiQuery1PostingSummaryResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                // group key: year * 8 + isComment * 4 + length category, aggregates: count, length sum
+                Map<Integer,long[]> groups = new GroupBy<Integer>( 2 )
+                {
+                    @Override
+                    protected void scan( Map<Integer,long[]> partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            if ( graph.messages.creationDate[message] >= date )
+                            {
+                                continue;
+                            }
+                            int length = graph.messages.length[message];
+                            int group = year( civilDate( graph.messages.creationDate[message] ) ) * 8
+                                        + (graph.messages.isComment[message] ? 4 : 0)
+                                        + lengthCategory( length );
+                            long[] aggregates = aggregates( partial, group );
+                            aggregates[0]++;
+                            aggregates[1] += length;
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                long totalCount = 0;
+                for ( long[] aggregates : groups.values() )
+                {
+                    totalCount += aggregates[0];
+                }
+                for ( Map.Entry<Integer,long[]> group : groups.entrySet() )
+                {
+                    long count = group.getValue()[0];
+                    long lengthSum = group.getValue()[1];
+                    results.add( new LdbcSnbBiQuery1PostingSummaryResult(
+                            group.getKey() / 8,
+                            4 == (group.getKey() & 4),
+                            group.getKey() & 3,
+                            count,
+                            lengthSum / count,
+                            lengthSum,
+                            count * 100f / totalCount
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcSnbBiQuery1PostingSummaryResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery1PostingSummaryResult result1,
+                        LdbcSnbBiQuery1PostingSummaryResult result2 )
+                {
+                    if ( result1.year() != result2.year() )
+                    {
+                        return Integer.compare( result2.year(), result1.year() );
+                    }
+                    if ( result1.isComment() != result2.isComment() )
+                    {
+                        return result1.isComment() ? 1 : -1;
+                    }
+                    return Integer.compare( result1.messageLengthCategory(), result2.messageLengthCategory() );
+                }
+            } );
+            resultReporter.report( 0, results, operation );
+        }
+
+        private static int lengthCategory( int length )
+        {
+            if ( length < 40 )
+            {
+                return 0;
+            }
+            else if ( length < 80 )
+            {
+                return 1;
+            }
+            else if ( length < 160 )
+            {
+                return 2;
+            }
+            return 3;
+        }
+    }
+
+    /**
+     * Tags of messages created in [dateA, dateB] by persons of the countries, per country, month, gender and age
+     * group of the creator, for groups of more than the threshold of messages.
+     */
+    public static class LdbcSnbBiQuery2Handler
+            implements OperationHandler<LdbcSnbBiQuery2TopTags,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery2TopTags operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery2TopTagsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int[] personCountries = new int[graph.persons.count()];
+                Set<Integer> countries = new HashSet<>();
+                for ( String countryName : operation.countries() )
+                {
+                    countries.add( country( graph, countryName ) );
+                }
+                countries.remove( SnbGraph.NONE );
+                for ( int person = 0; person < personCountries.length; person++ )
+                {
+                    int country = graph.countryOf( graph.persons.city[person] );
+                    personCountries[person] = countries.contains( country ) ? country : SnbGraph.NONE;
+                }
+                final int endOfSimulationDate = civilDate( operation.endOfSimulationTime() );
+                // group key: country, month, gender, age group, tag
+                Map<List<Object>,long[]> groups = new GroupBy<List<Object>>( 1 )
+                {
+                    @Override
+                    protected void scan( Map<List<Object>,long[]> partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            long creationDate = graph.messages.creationDate[message];
+                            int creator = graph.messages.creator[message];
+                            if ( creationDate < operation.dateA() || creationDate > operation.dateB() ||
+                                 SnbGraph.NONE == personCountries[creator] )
+                            {
+                                continue;
+                            }
+                            int birthday = civilDate( graph.persons.birthday[creator] );
+                            int age = year( endOfSimulationDate ) - year( birthday ) -
+                                      ((endOfSimulationDate % 10000 < birthday % 10000) ? 1 : 0);
+                            int tagCount = graph.messageTags.degree( message );
+                            for ( int i = 0; i < tagCount; i++ )
+                            {
+                                aggregates( partial, Arrays.<Object>asList(
+                                        personCountries[creator],
+                                        month( civilDate( creationDate ) ),
+                                        graph.persons.gender[creator],
+                                        age / 5,
+                                        graph.messageTags.target( message, i ) ) )[0]++;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( Map.Entry<List<Object>,long[]> group : groups.entrySet() )
+                {
+                    if ( group.getValue()[0] > operation.messageThreshold() )
+                    {
+                        List<Object> key = group.getKey();
+                        results.add( new LdbcSnbBiQuery2TopTagsResult(
+                                graph.places.name[(Integer) key.get( 0 )],
+                                (Integer) key.get( 1 ),
+                                (String) key.get( 2 ),
+                                (Integer) key.get( 3 ),
+                                graph.tags.name[(Integer) key.get( 4 )],
+                                (int) group.getValue()[0]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery2TopTagsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery2TopTagsResult result1, LdbcSnbBiQuery2TopTagsResult result2 )
+                {
+                    if ( result1.count() != result2.count() )
+                    {
+                        return Integer.compare( result2.count(), result1.count() );
+                    }
+                    if ( false == result1.tag().equals( result2.tag() ) )
+                    {
+                        return result1.tag().compareTo( result2.tag() );
+                    }
+                    if ( result1.ageGroup() != result2.ageGroup() )
+                    {
+                        return Integer.compare( result1.ageGroup(), result2.ageGroup() );
+                    }
+                    if ( false == result1.gender().equals( result2.gender() ) )
+                    {
+                        return result1.gender().compareTo( result2.gender() );
+                    }
+                    if ( result1.month() != result2.month() )
+                    {
+                        return Integer.compare( result1.month(), result2.month() );
+                    }
+                    return result1.country().compareTo( result2.country() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Tags by the change of the number of messages tagged with them between two time ranges.
+     */
+    public static class LdbcSnbBiQuery3Handler
+            implements OperationHandler<LdbcSnbBiQuery3TagEvolution,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery3TagEvolution operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery3TagEvolutionResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int tagCount = graph.tags.count();
+                // range 1 count of tag t at t, range 2 count at tagCount + t
+                int[] counts = new CountPerRow( 2 * tagCount )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            long creationDate = graph.messages.creationDate[message];
+                            int offset;
+                            if ( creationDate >= operation.range1Start() && creationDate < operation.range1End() )
+                            {
+                                offset = 0;
+                            }
+                            else if ( creationDate >= operation.range2Start() &&
+                                      creationDate < operation.range2End() )
+                            {
+                                offset = tagCount;
+                            }
+                            else
+                            {
+                                continue;
+                            }
+                            int messageTagCount = graph.messageTags.degree( message );
+                            for ( int i = 0; i < messageTagCount; i++ )
+                            {
+                                partial[offset + graph.messageTags.target( message, i )]++;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( int tag = 0; tag < tagCount; tag++ )
+                {
+                    int countA = counts[tag];
+                    int countB = counts[tagCount + tag];
+                    if ( countA > 0 || countB > 0 )
+                    {
+                        results.add( new LdbcSnbBiQuery3TagEvolutionResult( graph.tags.name[tag], countA, countB,
+                                Math.abs( countA - countB ) ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery3TagEvolutionResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery3TagEvolutionResult result1,
+                        LdbcSnbBiQuery3TagEvolutionResult result2 )
+                {
+                    return (result1.difference() != result2.difference())
+                           ? Integer.compare( result2.difference(), result1.difference() )
+                           : result1.tag().compareTo( result2.tag() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Forums moderated by persons of the country, by their number of posts with a tag of the tag class.
+     */
+    public static class LdbcSnbBiQuery4Handler
+            implements OperationHandler<LdbcSnbBiQuery4PopularCountryTopics,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery4PopularCountryTopics operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery4PopularCountryTopicsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                final boolean[] tags = tagsOfClass( graph, operation.tagClass() );
+                int[] postCounts = new CountPerRow( graph.forums.count() )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int forum = from; forum < to; forum++ )
+                        {
+                            int moderator = graph.forums.moderator[forum];
+                            if ( SnbGraph.NONE == moderator || false == inCountry[moderator] )
+                            {
+                                continue;
+                            }
+                            int postCount = graph.forumPosts.degree( forum );
+                            for ( int i = 0; i < postCount; i++ )
+                            {
+                                if ( hasTagIn( graph, graph.forumPosts.target( forum, i ), tags ) )
+                                {
+                                    partial[forum]++;
+                                }
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.forums.count() );
+                for ( int forum = 0; forum < postCounts.length; forum++ )
+                {
+                    if ( postCounts[forum] > 0 )
+                    {
+                        results.add( new LdbcSnbBiQuery4PopularCountryTopicsResult(
+                                graph.forums.id[forum],
+                                graph.forums.title[forum],
+                                graph.forums.creationDate[forum],
+                                graph.persons.id[graph.forums.moderator[forum]],
+                                postCounts[forum]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery4PopularCountryTopicsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery4PopularCountryTopicsResult result1,
+                        LdbcSnbBiQuery4PopularCountryTopicsResult result2 )
+                {
+                    return (result1.count() != result2.count())
+                           ? Integer.compare( result2.count(), result1.count() )
+                           : Long.compare( result1.forumId(), result2.forumId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Members of the forums with the most members from the country, by the number of posts they created in those
+     * forums.
+     */
+    public static class LdbcSnbBiQuery5Handler
+            implements OperationHandler<LdbcSnbBiQuery5TopCountryPosters,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery5TopCountryPosters operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery5TopCountryPostersResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                final int[] memberCounts = new CountPerRow( graph.forums.count() )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int forum = from; forum < to; forum++ )
+                        {
+                            int memberCount = graph.forumMembers.degree( forum );
+                            for ( int i = 0; i < memberCount; i++ )
+                            {
+                                if ( inCountry[graph.forumMembers.target( forum, i )] )
+                                {
+                                    partial[forum]++;
+                                }
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.forums.count() );
+                List<Integer> forums = new ArrayList<>();
+                for ( int forum = 0; forum < memberCounts.length; forum++ )
+                {
+                    if ( memberCounts[forum] > 0 )
+                    {
+                        forums.add( forum );
+                    }
+                }
+                List<Integer> popularForums = sortAndLimit( forums, new Comparator<Integer>()
+                {
+                    @Override
+                    public int compare( Integer forum1, Integer forum2 )
+                    {
+                        return (memberCounts[forum1] != memberCounts[forum2])
+                               ? Integer.compare( memberCounts[forum2], memberCounts[forum1] )
+                               : Long.compare( graph.forums.id[forum1], graph.forums.id[forum2] );
+                    }
+                }, operation.popularForumLimit() );
+                Map<Integer,int[]> postCounts = new HashMap<>();
+                for ( int forum : popularForums )
+                {
+                    int memberCount = graph.forumMembers.degree( forum );
+                    for ( int i = 0; i < memberCount; i++ )
+                    {
+                        int member = graph.forumMembers.target( forum, i );
+                        if ( false == postCounts.containsKey( member ) )
+                        {
+                            postCounts.put( member, new int[1] );
+                        }
+                    }
+                }
+                for ( int forum : popularForums )
+                {
+                    int postCount = graph.forumPosts.degree( forum );
+                    for ( int i = 0; i < postCount; i++ )
+                    {
+                        int[] count = postCounts.get( graph.messages.creator[graph.forumPosts.target( forum, i )] );
+                        if ( null != count )
+                        {
+                            count[0]++;
+                        }
+                    }
+                }
+                for ( Map.Entry<Integer,int[]> entry : postCounts.entrySet() )
+                {
+                    int person = entry.getKey();
+                    results.add( new LdbcSnbBiQuery5TopCountryPostersResult(
+                            graph.persons.id[person],
+                            graph.persons.firstName[person],
+                            graph.persons.lastName[person],
+                            graph.persons.creationDate[person],
+                            entry.getValue()[0]
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery5TopCountryPostersResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery5TopCountryPostersResult result1,
+                        LdbcSnbBiQuery5TopCountryPostersResult result2 )
+                {
+                    return (result1.count() != result2.count())
+                           ? Integer.compare( result2.count(), result1.count() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Creators of messages with the tag, scored by their messages, the replies to and the likes of those messages.
+     */
+    public static class LdbcSnbBiQuery6Handler
+            implements OperationHandler<LdbcSnbBiQuery6ActivePosters,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery6ActivePosters operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery6ActivePostersResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int tag = graph.tags.row( operation.tag() );
+                if ( SnbGraph.NONE != tag )
+                {
+                    // aggregates: message count, reply count, like count
+                    Map<Integer,long[]> creators = new GroupBy<Integer>( 3 )
+                    {
+                        @Override
+                        protected void scan( Map<Integer,long[]> partial, int from, int to )
+                        {
+                            for ( int i = from; i < to; i++ )
+                            {
+                                int message = graph.tagMessages.target( tag, i );
+                                long[] aggregates = aggregates( partial, graph.messages.creator[message] );
+                                aggregates[0]++;
+                                aggregates[1] += graph.replies.degree( message );
+                                aggregates[2] += graph.messageLikes.degree( message );
+                            }
+                        }
+                    }.run( dbConnectionState.pool(), graph.tagMessages.degree( tag ) );
+                    for ( Map.Entry<Integer,long[]> entry : creators.entrySet() )
+                    {
+                        long[] aggregates = entry.getValue();
+                        results.add( new LdbcSnbBiQuery6ActivePostersResult(
+                                graph.persons.id[entry.getKey()],
+                                (int) aggregates[0],
+                                (int) aggregates[1],
+                                (int) aggregates[2],
+                                (int) (aggregates[0] + 2 * aggregates[1] + 10 * aggregates[2])
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery6ActivePostersResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery6ActivePostersResult result1,
+                        LdbcSnbBiQuery6ActivePostersResult result2 )
+                {
+                    return (result1.score() != result2.score())
+                           ? Integer.compare( result2.score(), result1.score() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Creators of messages with the tag, scored by the popularity, i.e., the likes received, of the distinct persons
+     * that liked those messages.
+     */
+    public static class LdbcSnbBiQuery7Handler
+            implements OperationHandler<LdbcSnbBiQuery7AuthoritativeUsers,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery7AuthoritativeUsers operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery7AuthoritativeUsersResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int tag = graph.tags.row( operation.tag() );
+                if ( SnbGraph.NONE != tag )
+                {
+                    int[] popularity = new CountPerRow( graph.persons.count() )
+                    {
+                        @Override
+                        protected void scan( int[] partial, int from, int to )
+                        {
+                            for ( int message = from; message < to; message++ )
+                            {
+                                partial[graph.messages.creator[message]] += graph.messageLikes.degree( message );
+                            }
+                        }
+                    }.run( dbConnectionState.pool(), graph.messages.count() );
+                    Map<Integer,Set<Integer>> likers = new HashMap<>();
+                    int messageCount = graph.tagMessages.degree( tag );
+                    for ( int i = 0; i < messageCount; i++ )
+                    {
+                        int message = graph.tagMessages.target( tag, i );
+                        int creator = graph.messages.creator[message];
+                        Set<Integer> creatorLikers = likers.get( creator );
+                        if ( null == creatorLikers )
+                        {
+                            creatorLikers = new HashSet<>();
+                            likers.put( creator, creatorLikers );
+                        }
+                        int likeCount = graph.messageLikes.degree( message );
+                        for ( int j = 0; j < likeCount; j++ )
+                        {
+                            creatorLikers.add( graph.messageLikes.target( message, j ) );
+                        }
+                    }
+                    for ( Map.Entry<Integer,Set<Integer>> entry : likers.entrySet() )
+                    {
+                        int score = 0;
+                        for ( int liker : entry.getValue() )
+                        {
+                            score += popularity[liker];
+                        }
+                        results.add( new LdbcSnbBiQuery7AuthoritativeUsersResult( graph.persons.id[entry.getKey()],
+                                score ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery7AuthoritativeUsersResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery7AuthoritativeUsersResult result1,
+                        LdbcSnbBiQuery7AuthoritativeUsersResult result2 )
+                {
+                    return (result1.score() != result2.score())
+                           ? Integer.compare( result2.score(), result1.score() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Tags of the direct replies to messages with the tag, that do not have the tag themselves.
+     */
+    public static class LdbcSnbBiQuery8Handler
+            implements OperationHandler<LdbcSnbBiQuery8RelatedTopics,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery8RelatedTopics operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery8RelatedTopicsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int tag = graph.tags.row( operation.tag() );
+                if ( SnbGraph.NONE != tag )
+                {
+                    int[] counts = new CountPerRow( graph.tags.count() )
+                    {
+                        @Override
+                        protected void scan( int[] partial, int from, int to )
+                        {
+                            for ( int i = from; i < to; i++ )
+                            {
+                                int message = graph.tagMessages.target( tag, i );
+                                int replyCount = graph.replies.degree( message );
+                                for ( int j = 0; j < replyCount; j++ )
+                                {
+                                    int reply = graph.replies.target( message, j );
+                                    if ( graph.messageTags.contains( reply, tag ) )
+                                    {
+                                        continue;
+                                    }
+                                    int replyTagCount = graph.messageTags.degree( reply );
+                                    for ( int k = 0; k < replyTagCount; k++ )
+                                    {
+                                        partial[graph.messageTags.target( reply, k )]++;
+                                    }
+                                }
+                            }
+                        }
+                    }.run( dbConnectionState.pool(), graph.tagMessages.degree( tag ) );
+                    for ( int relatedTag = 0; relatedTag < counts.length; relatedTag++ )
+                    {
+                        if ( counts[relatedTag] > 0 )
+                        {
+                            results.add( new LdbcSnbBiQuery8RelatedTopicsResult( graph.tags.name[relatedTag],
+                                    counts[relatedTag] ) );
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery8RelatedTopicsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery8RelatedTopicsResult result1,
+                        LdbcSnbBiQuery8RelatedTopicsResult result2 )
+                {
+                    return (result1.count() != result2.count())
+                           ? Integer.compare( result2.count(), result1.count() )
+                           : result1.tag().compareTo( result2.tag() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Forums with more members than the threshold that have posts with tags of both tag classes, by the difference
+     * between the numbers of posts with tags of either.
+     */
+    public static class LdbcSnbBiQuery9Handler
+            implements OperationHandler<LdbcSnbBiQuery9RelatedForums,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery9RelatedForums operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery9RelatedForumsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] tagsA = tagsOfClass( graph, operation.tagClassA() );
+                final boolean[] tagsB = tagsOfClass( graph, operation.tagClassB() );
+                final int forumCount = graph.forums.count();
+                // count of class A posts of forum f at f, of class B posts at forumCount + f
+                int[] sums = new CountPerRow( 2 * forumCount )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int forum = from; forum < to; forum++ )
+                        {
+                            if ( graph.forumMembers.degree( forum ) <= operation.threshold() )
+                            {
+                                continue;
+                            }
+                            int postCount = graph.forumPosts.degree( forum );
+                            for ( int i = 0; i < postCount; i++ )
+                            {
+                                int post = graph.forumPosts.target( forum, i );
+                                partial[forum] += hasTagIn( graph, post, tagsA ) ? 1 : 0;
+                                partial[forumCount + forum] += hasTagIn( graph, post, tagsB ) ? 1 : 0;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), forumCount );
+                for ( int forum = 0; forum < forumCount; forum++ )
+                {
+                    if ( sums[forum] > 0 && sums[forumCount + forum] > 0 )
+                    {
+                        results.add( new LdbcSnbBiQuery9RelatedForumsResult( graph.forums.id[forum], sums[forum],
+                                sums[forumCount + forum] ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery9RelatedForumsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery9RelatedForumsResult result1,
+                        LdbcSnbBiQuery9RelatedForumsResult result2 )
+                {
+                    int difference1 = Math.abs( result1.sumA() - result1.sumB() );
+                    int difference2 = Math.abs( result2.sumA() - result2.sumB() );
+                    return (difference1 != difference2)
+                           ? Integer.compare( difference2, difference1 )
+                           : Long.compare( result1.forumId(), result2.forumId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Persons scored by their interest in, and messages with, the tag, together with the scores of their friends.
+     */
+    public static class LdbcSnbBiQuery10Handler
+            implements OperationHandler<LdbcSnbBiQuery10TagPerson,InMemoryBiDbConnectionState>
+    {
+        private static final int INTEREST_SCORE = 100;
+
+        @Override
+        public void executeOperation( LdbcSnbBiQuery10TagPerson operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery10TagPersonResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int tag = graph.tags.row( operation.tag() );
+                if ( SnbGraph.NONE != tag )
+                {
+                    final int[] scores = new int[graph.persons.count()];
+                    int messageCount = graph.tagMessages.degree( tag );
+                    for ( int i = 0; i < messageCount; i++ )
+                    {
+                        scores[graph.messages.creator[graph.tagMessages.target( tag, i )]]++;
+                    }
+                    for ( int person = 0; person < scores.length; person++ )
+                    {
+                        scores[person] += graph.personInterests.contains( person, tag ) ? INTEREST_SCORE : 0;
+                    }
+                    int[] friendsScores = new CountPerRow( scores.length )
+                    {
+                        @Override
+                        protected void scan( int[] partial, int from, int to )
+                        {
+                            for ( int person = from; person < to; person++ )
+                            {
+                                int friendCount = graph.knows.degree( person );
+                                for ( int i = 0; i < friendCount; i++ )
+                                {
+                                    partial[person] += scores[graph.knows.target( person, i )];
+                                }
+                            }
+                        }
+                    }.run( dbConnectionState.pool(), scores.length );
+                    for ( int person = 0; person < scores.length; person++ )
+                    {
+                        if ( scores[person] > 0 )
+                        {
+                            results.add( new LdbcSnbBiQuery10TagPersonResult( graph.persons.id[person], scores[person],
+                                    friendsScores[person] ) );
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery10TagPersonResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery10TagPersonResult result1, LdbcSnbBiQuery10TagPersonResult result2 )
+                {
+                    int totalScore1 = result1.score() + result1.friendsScore();
+                    int totalScore2 = result2.score() + result2.friendsScore();
+                    return (totalScore1 != totalScore2)
+                           ? Integer.compare( totalScore2, totalScore1 )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Comments by persons of the country that share no tag with the message they reply to and contain no word of
+     * the black list, per creator and tag of the comment.
+     */
+    public static class LdbcSnbBiQuery11Handler
+            implements OperationHandler<LdbcSnbBiQuery11UnrelatedReplies,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery11UnrelatedReplies operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery11UnrelatedRepliesResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                // group key: creator << 32 | tag, aggregates: like count, reply count
+                Map<Long,long[]> groups = new GroupBy<Long>( 2 )
+                {
+                    @Override
+                    protected void scan( Map<Long,long[]> partial, int from, int to )
+                    {
+                        for ( int comment = from; comment < to; comment++ )
+                        {
+                            int creator = graph.messages.creator[comment];
+                            if ( false == graph.messages.isComment[comment] || false == inCountry[creator] ||
+                                 sharesTag( graph, comment, graph.messages.replyOf[comment] ) ||
+                                 containsAny( graph.messages.content[comment], operation.blackList() ) )
+                            {
+                                continue;
+                            }
+                            int likeCount = graph.messageLikes.degree( comment );
+                            int tagCount = graph.messageTags.degree( comment );
+                            for ( int i = 0; i < tagCount; i++ )
+                            {
+                                long[] aggregates = aggregates( partial,
+                                        ((long) creator << 32) | graph.messageTags.target( comment, i ) );
+                                aggregates[0] += likeCount;
+                                aggregates[1]++;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( Map.Entry<Long,long[]> group : groups.entrySet() )
+                {
+                    results.add( new LdbcSnbBiQuery11UnrelatedRepliesResult(
+                            graph.persons.id[(int) (group.getKey() >>> 32)],
+                            graph.tags.name[(int) (long) group.getKey()],
+                            (int) group.getValue()[0],
+                            (int) group.getValue()[1]
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery11UnrelatedRepliesResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery11UnrelatedRepliesResult result1,
+                        LdbcSnbBiQuery11UnrelatedRepliesResult result2 )
+                {
+                    if ( result1.likeCount() != result2.likeCount() )
+                    {
+                        return Integer.compare( result2.likeCount(), result1.likeCount() );
+                    }
+                    return (result1.personId() != result2.personId())
+                           ? Long.compare( result1.personId(), result2.personId() )
+                           : result1.tag().compareTo( result2.tag() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+
+        private static boolean sharesTag( SnbGraph graph, int message1, int message2 )
+        {
+            int tagCount = graph.messageTags.degree( message1 );
+            for ( int i = 0; i < tagCount; i++ )
+            {
+                if ( graph.messageTags.contains( message2, graph.messageTags.target( message1, i ) ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean containsAny( String content, List<String> words )
+        {
+            if ( null == content )
+            {
+                return false;
+            }
+            for ( String word : words )
+            {
+                if ( content.contains( word ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Messages created after the date with more likes than the threshold.
+     */
+    public static class LdbcSnbBiQuery12Handler
+            implements OperationHandler<LdbcSnbBiQuery12TrendingPosts,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery12TrendingPosts operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery12TrendingPostsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                List<Integer> messages = new Filter()
+                {
+                    @Override
+                    protected void scan( List<Integer> partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            if ( graph.messages.creationDate[message] > operation.date() &&
+                                 graph.messageLikes.degree( message ) > operation.likeCount() )
+                            {
+                                partial.add( message );
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( int message : messages )
+                {
+                    int creator = graph.messages.creator[message];
+                    results.add( new LdbcSnbBiQuery12TrendingPostsResult(
+                            graph.messages.id[message],
+                            graph.persons.firstName[creator],
+                            graph.persons.lastName[creator],
+                            graph.messages.creationDate[message],
+                            graph.messageLikes.degree( message )
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery12TrendingPostsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery12TrendingPostsResult result1,
+                        LdbcSnbBiQuery12TrendingPostsResult result2 )
+                {
+                    return (result1.likeCount() != result2.likeCount())
+                           ? Integer.compare( result2.likeCount(), result1.likeCount() )
+                           : Long.compare( result1.messageId(), result2.messageId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Most popular tags of the messages located in the country, per month.
+     */
+    public static class LdbcSnbBiQuery13Handler
+            implements OperationHandler<LdbcSnbBiQuery13PopularMonthlyTags,InMemoryBiDbConnectionState>
+    {
+        private static final int TAGS_PER_MONTH = 5;
+
+        @Override
+        public void executeOperation( LdbcSnbBiQuery13PopularMonthlyTags operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery13PopularMonthlyTagsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int country = country( graph, operation.country() );
+                if ( SnbGraph.NONE != country )
+                {
+                    // group key: yyyyMM << 32 | tag + 1, messages without tags are counted for tag 0
+                    Map<Long,long[]> groups = new GroupBy<Long>( 1 )
+                    {
+                        @Override
+                        protected void scan( Map<Long,long[]> partial, int from, int to )
+                        {
+                            for ( int message = from; message < to; message++ )
+                            {
+                                if ( graph.messages.country[message] != country )
+                                {
+                                    continue;
+                                }
+                                long month = civilDate( graph.messages.creationDate[message] ) / 100;
+                                int tagCount = graph.messageTags.degree( message );
+                                if ( 0 == tagCount )
+                                {
+                                    aggregates( partial, month << 32 )[0]++;
+                                }
+                                for ( int i = 0; i < tagCount; i++ )
+                                {
+                                    long tag = graph.messageTags.target( message, i ) + 1;
+                                    aggregates( partial, (month << 32) | tag )[0]++;
+                                }
+                            }
+                        }
+                    }.run( dbConnectionState.pool(), graph.messages.count() );
+                    Map<Integer,List<LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity>> months =
+                            new HashMap<>();
+                    for ( Map.Entry<Long,long[]> group : groups.entrySet() )
+                    {
+                        int month = (int) (group.getKey() >>> 32);
+                        int tag = (int) (long) group.getKey() - 1;
+                        if ( false == months.containsKey( month ) )
+                        {
+                            months.put( month,
+                                    new ArrayList<LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity>() );
+                        }
+                        if ( SnbGraph.NONE != tag )
+                        {
+                            months.get( month ).add( new LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity(
+                                    graph.tags.name[tag], (int) group.getValue()[0] ) );
+                        }
+                    }
+                    for ( Map.Entry<Integer,List<LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity>> month :
+                            months.entrySet() )
+                    {
+                        results.add( new LdbcSnbBiQuery13PopularMonthlyTagsResult(
+                                month.getKey() / 100,
+                                month.getKey() % 100,
+                                sortAndLimit( month.getValue(),
+                                        new Comparator<LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity>()
+                                        {
+                                            @Override
+                                            public int compare(
+                                                    LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity tag1,
+                                                    LdbcSnbBiQuery13PopularMonthlyTagsResult.TagPopularity tag2 )
+                                            {
+                                                return (tag1.popularity() != tag2.popularity())
+                                                       ? Integer.compare( tag2.popularity(), tag1.popularity() )
+                                                       : tag1.tagName().compareTo( tag2.tagName() );
+                                            }
+                                        }, TAGS_PER_MONTH )
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery13PopularMonthlyTagsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery13PopularMonthlyTagsResult result1,
+                        LdbcSnbBiQuery13PopularMonthlyTagsResult result2 )
+                {
+                    return (result1.year() != result2.year())
+                           ? Integer.compare( result2.year(), result1.year() )
+                           : Integer.compare( result1.month(), result2.month() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Creators of posts in the time range, by the number of messages in the threads of those posts that were
+     * created in the time range.
+     */
+    public static class LdbcSnbBiQuery14Handler
+            implements OperationHandler<LdbcSnbBiQuery14TopThreadInitiators,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery14TopThreadInitiators operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery14TopThreadInitiatorsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int personCount = graph.persons.count();
+                // thread count of person p at p, message count at personCount + p
+                int[] counts = new CountPerRow( 2 * personCount )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        int[] stack = new int[16];
+                        for ( int post = from; post < to; post++ )
+                        {
+                            if ( graph.messages.isComment[post] || false == inRange( post ) )
+                            {
+                                continue;
+                            }
+                            int creator = graph.messages.creator[post];
+                            partial[creator]++;
+                            int stackSize = 0;
+                            stack[stackSize++] = post;
+                            while ( stackSize > 0 )
+                            {
+                                int message = stack[--stackSize];
+                                partial[personCount + creator] += inRange( message ) ? 1 : 0;
+                                int replyCount = graph.replies.degree( message );
+                                if ( stackSize + replyCount > stack.length )
+                                {
+                                    stack = Arrays.copyOf( stack, Math.max( stack.length << 1,
+                                            stackSize + replyCount ) );
+                                }
+                                for ( int i = 0; i < replyCount; i++ )
+                                {
+                                    stack[stackSize++] = graph.replies.target( message, i );
+                                }
+                            }
+                        }
+                    }
+
+                    private boolean inRange( int message )
+                    {
+                        long creationDate = graph.messages.creationDate[message];
+                        return creationDate >= operation.beginDate() && creationDate <= operation.endDate();
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( int person = 0; person < personCount; person++ )
+                {
+                    if ( counts[person] > 0 )
+                    {
+                        results.add( new LdbcSnbBiQuery14TopThreadInitiatorsResult(
+                                graph.persons.id[person],
+                                graph.persons.firstName[person],
+                                graph.persons.lastName[person],
+                                counts[personCount + person],
+                                counts[person]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery14TopThreadInitiatorsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery14TopThreadInitiatorsResult result1,
+                        LdbcSnbBiQuery14TopThreadInitiatorsResult result2 )
+                {
+                    return (result1.messageCount() != result2.messageCount())
+                           ? Integer.compare( result2.messageCount(), result1.messageCount() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Persons of the country whose number of friends in the country is the average, rounded down, of all persons
+     * of the country.
+     */
+    public static class LdbcSnbBiQuery15Handler
+            implements OperationHandler<LdbcSnbBiQuery15SocialNormals,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery15SocialNormals operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery15SocialNormalsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                int[] friendCounts = new CountPerRow( inCountry.length )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int person = from; person < to; person++ )
+                        {
+                            if ( inCountry[person] )
+                            {
+                                int friendCount = graph.knows.degree( person );
+                                for ( int i = 0; i < friendCount; i++ )
+                                {
+                                    partial[person] += inCountry[graph.knows.target( person, i )] ? 1 : 0;
+                                }
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), inCountry.length );
+                long personCount = 0;
+                long friendCountSum = 0;
+                for ( int person = 0; person < inCountry.length; person++ )
+                {
+                    if ( inCountry[person] )
+                    {
+                        personCount++;
+                        friendCountSum += friendCounts[person];
+                    }
+                }
+                if ( personCount > 0 )
+                {
+                    long averageFriendCount = friendCountSum / personCount;
+                    for ( int person = 0; person < inCountry.length; person++ )
+                    {
+                        if ( inCountry[person] && friendCounts[person] == averageFriendCount )
+                        {
+                            results.add( new LdbcSnbBiQuery15SocialNormalsResult( graph.persons.id[person],
+                                    friendCounts[person] ) );
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery15SocialNormalsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery15SocialNormalsResult result1,
+                        LdbcSnbBiQuery15SocialNormalsResult result2 )
+                {
+                    return Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Persons of the country at distance 3 to 5 from the person, with the tags of their messages that have a tag of
+     * the tag class.
+     */
+    public static class LdbcSnbBiQuery16Handler
+            implements OperationHandler<LdbcSnbBiQuery16ExpertsInSocialCircle,InMemoryBiDbConnectionState>
+    {
+        private static final int MIN_DISTANCE = 3;
+        private static final int MAX_DISTANCE = 5;
+
+        @Override
+        public void executeOperation( LdbcSnbBiQuery16ExpertsInSocialCircle operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery16ExpertsInSocialCircleResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int start = graph.persons.row( operation.person() );
+                if ( SnbGraph.NONE != start )
+                {
+                    final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                    final boolean[] tags = tagsOfClass( graph, operation.tagClass() );
+                    final int[] experts = expertCandidates( graph, start, inCountry );
+                    // group key: person << 32 | tag
+                    Map<Long,long[]> groups = new GroupBy<Long>( 1 )
+                    {
+                        @Override
+                        protected void scan( Map<Long,long[]> partial, int from, int to )
+                        {
+                            for ( int i = from; i < to; i++ )
+                            {
+                                int person = experts[i];
+                                int messageCount = graph.personMessages.degree( person );
+                                for ( int j = 0; j < messageCount; j++ )
+                                {
+                                    int message = graph.personMessages.target( person, j );
+                                    if ( false == hasTagIn( graph, message, tags ) )
+                                    {
+                                        continue;
+                                    }
+                                    int tagCount = graph.messageTags.degree( message );
+                                    for ( int k = 0; k < tagCount; k++ )
+                                    {
+                                        aggregates( partial,
+                                                ((long) person << 32) | graph.messageTags.target( message, k ) )[0]++;
+                                    }
+                                }
+                            }
+                        }
+                    }.run( dbConnectionState.pool(), experts.length );
+                    for ( Map.Entry<Long,long[]> group : groups.entrySet() )
+                    {
+                        results.add( new LdbcSnbBiQuery16ExpertsInSocialCircleResult(
+                                graph.persons.id[(int) (group.getKey() >>> 32)],
+                                graph.tags.name[(int) (long) group.getKey()],
+                                (int) group.getValue()[0]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery16ExpertsInSocialCircleResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery16ExpertsInSocialCircleResult result1,
+                        LdbcSnbBiQuery16ExpertsInSocialCircleResult result2 )
+                {
+                    if ( result1.count() != result2.count() )
+                    {
+                        return Integer.compare( result2.count(), result1.count() );
+                    }
+                    return (false == result1.tag().equals( result2.tag() ))
+                           ? result1.tag().compareTo( result2.tag() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+
+        /**
+         * @return persons of the country whose shortest distance from the start person is in [3, 5]
+         */
+        private static int[] expertCandidates( SnbGraph graph, int start, boolean[] inCountry )
+        {
+            LongIntHashMap distances = new LongIntHashMap( 1024 );
+            distances.put( start, 0 );
+            int[] candidates = new int[16];
+            int candidateCount = 0;
+            int[] frontier = new int[]{start};
+            for ( int distance = 1; distance <= MAX_DISTANCE && frontier.length > 0; distance++ )
+            {
+                int[] nextFrontier = new int[16];
+                int nextFrontierSize = 0;
+                for ( int person : frontier )
+                {
+                    int friendCount = graph.knows.degree( person );
+                    for ( int i = 0; i < friendCount; i++ )
+                    {
+                        int friend = graph.knows.target( person, i );
+                        if ( distances.containsKey( friend ) )
+                        {
+                            continue;
+                        }
+                        distances.put( friend, distance );
+                        if ( nextFrontierSize == nextFrontier.length )
+                        {
+                            nextFrontier = Arrays.copyOf( nextFrontier, nextFrontierSize << 1 );
+                        }
+                        nextFrontier[nextFrontierSize++] = friend;
+                        if ( distance >= MIN_DISTANCE && inCountry[friend] )
+                        {
+                            if ( candidateCount == candidates.length )
+                            {
+                                candidates = Arrays.copyOf( candidates, candidateCount << 1 );
+                            }
+                            candidates[candidateCount++] = friend;
+                        }
+                    }
+                }
+                frontier = Arrays.copyOf( nextFrontier, nextFrontierSize );
+            }
+            return Arrays.copyOf( candidates, candidateCount );
+        }
+    }
+
+    /**
+     * Triangles of persons of the country that all know each other.
+     */
+    public static class LdbcSnbBiQuery17Handler
+            implements OperationHandler<LdbcSnbBiQuery17FriendshipTriangles,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery17FriendshipTriangles operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            LdbcSnbBiQuery17FriendshipTrianglesResult result;
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                // every triangle is counted once, from its person with the lowest row
+                long[] triangleCount = new ParallelScan<long[]>()
+                {
+                    @Override
+                    protected long[] newPartial()
+                    {
+                        return new long[1];
+                    }
+
+                    @Override
+                    protected void scan( long[] partial, int from, int to )
+                    {
+                        for ( int person1 = from; person1 < to; person1++ )
+                        {
+                            if ( false == inCountry[person1] )
+                            {
+                                continue;
+                            }
+                            int friendCount1 = graph.knows.degree( person1 );
+                            for ( int i = 0; i < friendCount1; i++ )
+                            {
+                                int person2 = graph.knows.target( person1, i );
+                                if ( person2 <= person1 || false == inCountry[person2] )
+                                {
+                                    continue;
+                                }
+                                int friendCount2 = graph.knows.degree( person2 );
+                                for ( int j = 0; j < friendCount2; j++ )
+                                {
+                                    int person3 = graph.knows.target( person2, j );
+                                    if ( person3 > person2 && inCountry[person3] &&
+                                         graph.knows.contains( person1, person3 ) )
+                                    {
+                                        partial[0]++;
+                                    }
+                                }
+                            }
+                        }
+                    }
+
+                    @Override
+                    protected long[] merge( long[] left, long[] right )
+                    {
+                        left[0] += right[0];
+                        return left;
+                    }
+                }.run( dbConnectionState.pool(), inCountry.length );
+                result = new LdbcSnbBiQuery17FriendshipTrianglesResult( (int) triangleCount[0] );
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, result, operation );
+        }
+    }
+
+    /**
+     * Number of persons per number of messages with content that they created after the date.
+     */
+    public static class LdbcSnbBiQuery18Handler
+            implements OperationHandler<LdbcSnbBiQuery18PersonPostCounts,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery18PersonPostCounts operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery18PersonPostCountsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int[] messageCounts = new CountPerRow( graph.persons.count() )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            String content = graph.messages.content[message];
+                            if ( graph.messages.creationDate[message] > operation.date() &&
+                                 null != content && false == content.isEmpty() )
+                            {
+                                partial[graph.messages.creator[message]]++;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                Map<Integer,int[]> personCounts = new HashMap<>();
+                for ( int messageCount : messageCounts )
+                {
+                    int[] personCount = personCounts.get( messageCount );
+                    if ( null == personCount )
+                    {
+                        personCounts.put( messageCount, new int[]{1} );
+                    }
+                    else
+                    {
+                        personCount[0]++;
+                    }
+                }
+                for ( Map.Entry<Integer,int[]> entry : personCounts.entrySet() )
+                {
+                    results.add( new LdbcSnbBiQuery18PersonPostCountsResult( entry.getKey(), entry.getValue()[0] ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery18PersonPostCountsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery18PersonPostCountsResult result1,
+                        LdbcSnbBiQuery18PersonPostCountsResult result2 )
+                {
+                    return (result1.personCount() != result2.personCount())
+                           ? Integer.compare( result2.personCount(), result1.personCount() )
+                           : Integer.compare( result2.messageCount(), result1.messageCount() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Persons born after the date, by their replies to strangers, i.e., persons they do not know that are members of
+     * forums with tags of both tag classes.
+     */
+    public static class LdbcSnbBiQuery19Handler
+            implements OperationHandler<LdbcSnbBiQuery19StrangerInteraction,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery19StrangerInteraction operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery19StrangerInteractionResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] strangers = strangers( graph, tagsOfClass( graph, operation.tagClassA() ),
+                        tagsOfClass( graph, operation.tagClassB() ) );
+                // group key: person, aggregates: stranger count, interaction count
+                Map<Integer,long[]> groups = new GroupBy<Integer>( 2 )
+                {
+                    @Override
+                    protected void scan( Map<Integer,long[]> partial, int from, int to )
+                    {
+                        Set<Integer> interactedStrangers = new HashSet<>();
+                        for ( int person = from; person < to; person++ )
+                        {
+                            if ( graph.persons.birthday[person] <= operation.date() )
+                            {
+                                continue;
+                            }
+                            interactedStrangers.clear();
+                            int interactionCount = 0;
+                            int messageCount = graph.personMessages.degree( person );
+                            for ( int i = 0; i < messageCount; i++ )
+                            {
+                                int comment = graph.personMessages.target( person, i );
+                                if ( false == graph.messages.isComment[comment] )
+                                {
+                                    continue;
+                                }
+                                int stranger = graph.messages.creator[graph.messages.replyOf[comment]];
+                                if ( stranger != person && strangers[stranger] &&
+                                     false == graph.knows.contains( person, stranger ) )
+                                {
+                                    interactedStrangers.add( stranger );
+                                    interactionCount++;
+                                }
+                            }
+                            if ( interactionCount > 0 )
+                            {
+                                long[] aggregates = aggregates( partial, person );
+                                aggregates[0] = interactedStrangers.size();
+                                aggregates[1] = interactionCount;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.persons.count() );
+                for ( Map.Entry<Integer,long[]> group : groups.entrySet() )
+                {
+                    results.add( new LdbcSnbBiQuery19StrangerInteractionResult( graph.persons.id[group.getKey()],
+                            (int) group.getValue()[0], (int) group.getValue()[1] ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery19StrangerInteractionResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery19StrangerInteractionResult result1,
+                        LdbcSnbBiQuery19StrangerInteractionResult result2 )
+                {
+                    return (result1.count() != result2.count())
+                           ? Integer.compare( result2.count(), result1.count() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+
+        private static boolean[] strangers( SnbGraph graph, boolean[] tagsA, boolean[] tagsB )
+        {
+            boolean[] memberOfForumA = new boolean[graph.persons.count()];
+            boolean[] memberOfForumB = new boolean[graph.persons.count()];
+            for ( int forum = 0; forum < graph.forums.count(); forum++ )
+            {
+                boolean forumA = false;
+                boolean forumB = false;
+                int tagCount = graph.forumTags.degree( forum );
+                for ( int i = 0; i < tagCount; i++ )
+                {
+                    forumA |= tagsA[graph.forumTags.target( forum, i )];
+                    forumB |= tagsB[graph.forumTags.target( forum, i )];
+                }
+                if ( forumA || forumB )
+                {
+                    int memberCount = graph.forumMembers.degree( forum );
+                    for ( int i = 0; i < memberCount; i++ )
+                    {
+                        int member = graph.forumMembers.target( forum, i );
+                        memberOfForumA[member] |= forumA;
+                        memberOfForumB[member] |= forumB;
+                    }
+                }
+            }
+            for ( int person = 0; person < memberOfForumA.length; person++ )
+            {
+                memberOfForumA[person] &= memberOfForumB[person];
+            }
+            return memberOfForumA;
+        }
+    }
+
+    /**
+     * Messages with a tag of each of the tag classes, or of their descendants.
+     */
+    public static class LdbcSnbBiQuery20Handler
+            implements OperationHandler<LdbcSnbBiQuery20HighLevelTopics,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery20HighLevelTopics operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery20HighLevelTopicsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final List<String> tagClasses = operation.tagClasses();
+                final boolean[][] tags = new boolean[tagClasses.size()][];
+                for ( int i = 0; i < tags.length; i++ )
+                {
+                    tags[i] = tagsOfClassOrSubclasses( graph, tagClasses.get( i ) );
+                }
+                int[] messageCounts = new CountPerRow( tags.length )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            for ( int i = 0; i < tags.length; i++ )
+                            {
+                                partial[i] += hasTagIn( graph, message, tags[i] ) ? 1 : 0;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( int i = 0; i < tags.length; i++ )
+                {
+                    results.add( new LdbcSnbBiQuery20HighLevelTopicsResult( tagClasses.get( i ), messageCounts[i] ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery20HighLevelTopicsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery20HighLevelTopicsResult result1,
+                        LdbcSnbBiQuery20HighLevelTopicsResult result2 )
+                {
+                    return (result1.count() != result2.count())
+                           ? Integer.compare( result2.count(), result1.count() )
+                           : result1.tagClass().compareTo( result2.tagClass() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Zombies of the country, i.e., persons created before the end date that created less than one message per
+     * period of the given number of days until then, by the share of the likes they received from other zombies.
+     */
+    public static class LdbcSnbBiQuery21Handler
+            implements OperationHandler<LdbcSnbBiQuery21Zombies,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( final LdbcSnbBiQuery21Zombies operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            if ( operation.days() <= 0 )
+            {
+                throw new DbException( format( "Days must be positive, was %s: %s", operation.days(), operation ) );
+            }
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery21ZombiesResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final long periodAsMilli = operation.days() * DAY_AS_MILLI;
+                final int[] messageCounts = new CountPerRow( graph.persons.count() )
+                {
+                    @Override
+                    protected void scan( int[] partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            if ( graph.messages.creationDate[message] < operation.endDate() )
+                            {
+                                partial[graph.messages.creator[message]]++;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                final boolean[] zombies = new boolean[graph.persons.count()];
+                for ( int person = 0; person < zombies.length; person++ )
+                {
+                    if ( graph.persons.creationDate[person] < operation.endDate() )
+                    {
+                        // a partial period at the end counts as a period
+                        long periods = (operation.endDate() - graph.persons.creationDate[person]) / periodAsMilli + 1;
+                        zombies[person] = messageCounts[person] < periods;
+                    }
+                }
+                final boolean[] inCountry = personsInCountry( graph, country( graph, operation.country() ) );
+                // group key: zombie, aggregates: likes from zombies, likes from persons created before end date
+                Map<Integer,long[]> groups = new GroupBy<Integer>( 2 )
+                {
+                    @Override
+                    protected void scan( Map<Integer,long[]> partial, int from, int to )
+                    {
+                        for ( int person = from; person < to; person++ )
+                        {
+                            if ( false == zombies[person] || false == inCountry[person] )
+                            {
+                                continue;
+                            }
+                            long[] aggregates = aggregates( partial, person );
+                            int messageCount = graph.personMessages.degree( person );
+                            for ( int i = 0; i < messageCount; i++ )
+                            {
+                                int message = graph.personMessages.target( person, i );
+                                int likeCount = graph.messageLikes.degree( message );
+                                for ( int j = 0; j < likeCount; j++ )
+                                {
+                                    int liker = graph.messageLikes.target( message, j );
+                                    if ( graph.persons.creationDate[liker] < operation.endDate() )
+                                    {
+                                        aggregates[0] += zombies[liker] ? 1 : 0;
+                                        aggregates[1]++;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), zombies.length );
+                for ( Map.Entry<Integer,long[]> group : groups.entrySet() )
+                {
+                    long zombieLikeCount = group.getValue()[0];
+                    long likeCount = group.getValue()[1];
+                    results.add( new LdbcSnbBiQuery21ZombiesResult(
+                            graph.persons.id[group.getKey()],
+                            (int) zombieLikeCount,
+                            (int) likeCount,
+                            (0 == likeCount) ? 0.0 : (double) zombieLikeCount / likeCount
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery21ZombiesResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery21ZombiesResult result1, LdbcSnbBiQuery21ZombiesResult result2 )
+                {
+                    return (result1.score() != result2.score())
+                           ? Double.compare( result2.score(), result1.score() )
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Pair of persons of country X and country Y that interacted the most, per city of country X.
+     */
+    public static class LdbcSnbBiQuery22Handler
+            implements OperationHandler<LdbcSnbBiQuery22InternationalDialog,InMemoryBiDbConnectionState>
+    {
+        private static final int REPLY_TO = 1;
+        private static final int REPLY_FROM = 2;
+        private static final int KNOWS = 4;
+        private static final int LIKE_TO = 8;
+        private static final int LIKE_FROM = 16;
+
+        @Override
+        public void executeOperation( LdbcSnbBiQuery22InternationalDialog operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery22InternationalDialogResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] inCountryX = personsInCountry( graph, country( graph, operation.countryX() ) );
+                final boolean[] inCountryY = personsInCountry( graph, country( graph, operation.countryY() ) );
+                // group key: city of person 1, aggregates: score, person 1, person 2 of the best pair of the city
+                Map<Integer,long[]> bestPairs = new GroupBy<Integer>( 3 )
+                {
+                    @Override
+                    protected void scan( Map<Integer,long[]> partial, int from, int to )
+                    {
+                        Map<Integer,int[]> interactions = new HashMap<>();
+                        for ( int person1 = from; person1 < to; person1++ )
+                        {
+                            if ( false == inCountryX[person1] )
+                            {
+                                continue;
+                            }
+                            interactions.clear();
+                            int messageCount = graph.personMessages.degree( person1 );
+                            for ( int i = 0; i < messageCount; i++ )
+                            {
+                                int message = graph.personMessages.target( person1, i );
+                                if ( graph.messages.isComment[message] )
+                                {
+                                    interact( interactions, graph.messages.creator[graph.messages.replyOf[message]],
+                                            REPLY_TO );
+                                }
+                                int replyCount = graph.replies.degree( message );
+                                for ( int j = 0; j < replyCount; j++ )
+                                {
+                                    interact( interactions,
+                                            graph.messages.creator[graph.replies.target( message, j )], REPLY_FROM );
+                                }
+                                int likeCount = graph.messageLikes.degree( message );
+                                for ( int j = 0; j < likeCount; j++ )
+                                {
+                                    interact( interactions, graph.messageLikes.target( message, j ), LIKE_FROM );
+                                }
+                            }
+                            int friendCount = graph.knows.degree( person1 );
+                            for ( int i = 0; i < friendCount; i++ )
+                            {
+                                interact( interactions, graph.knows.target( person1, i ), KNOWS );
+                            }
+                            int likeCount = graph.personLikes.degree( person1 );
+                            for ( int i = 0; i < likeCount; i++ )
+                            {
+                                interact( interactions,
+                                        graph.messages.creator[graph.personLikes.target( person1, i )], LIKE_TO );
+                            }
+                            for ( Map.Entry<Integer,int[]> interaction : interactions.entrySet() )
+                            {
+                                int person2 = interaction.getKey();
+                                if ( inCountryY[person2] )
+                                {
+                                    offer( aggregates( partial, graph.persons.city[person1] ),
+                                            score( interaction.getValue()[0] ),
+                                            graph.persons.id[person1], graph.persons.id[person2] );
+                                }
+                            }
+                        }
+                    }
+
+                    @Override
+                    protected Map<Integer,long[]> merge( Map<Integer,long[]> left, Map<Integer,long[]> right )
+                    {
+                        for ( Map.Entry<Integer,long[]> entry : right.entrySet() )
+                        {
+                            long[] pair = entry.getValue();
+                            offer( aggregates( left, entry.getKey() ), pair[0], pair[1], pair[2] );
+                        }
+                        return left;
+                    }
+                }.run( dbConnectionState.pool(), inCountryX.length );
+                for ( long[] pair : bestPairs.values() )
+                {
+                    results.add( new LdbcSnbBiQuery22InternationalDialogResult( pair[1], pair[2], (int) pair[0] ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery22InternationalDialogResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery22InternationalDialogResult result1,
+                        LdbcSnbBiQuery22InternationalDialogResult result2 )
+                {
+                    if ( result1.score() != result2.score() )
+                    {
+                        return Integer.compare( result2.score(), result1.score() );
+                    }
+                    return (result1.personId1() != result2.personId1())
+                           ? Long.compare( result1.personId1(), result2.personId1() )
+                           : Long.compare( result1.personId2(), result2.personId2() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+
+        private static void interact( Map<Integer,int[]> interactions, int person, int interaction )
+        {
+            int[] flags = interactions.get( person );
+            if ( null == flags )
+            {
+                interactions.put( person, new int[]{interaction} );
+            }
+            else
+            {
+                flags[0] |= interaction;
+            }
+        }
+
+        private static int score( int flags )
+        {
+            return (0 == (flags & REPLY_TO) ? 0 : 4) +
+                   (0 == (flags & REPLY_FROM) ? 0 : 1) +
+                   (0 == (flags & KNOWS) ? 0 : 10) +
+                   (0 == (flags & LIKE_TO) ? 0 : 1) +
+                   (0 == (flags & LIKE_FROM) ? 0 : 1);
+        }
+
+        /**
+         * Replaces the best pair, [score, person 1 id, person 2 id], by the offered pair if it is better, i.e., has a
+         * higher score, then lower identifiers. An unset best pair has all zero values.
+         */
+        private static void offer( long[] bestPair, long score, long personId1, long personId2 )
+        {
+            boolean isBetter = (0 == bestPair[0] && 0 == bestPair[1] && 0 == bestPair[2]) ||
+                               score > bestPair[0] ||
+                               (score == bestPair[0] && (personId1 < bestPair[1] ||
+                                                         (personId1 == bestPair[1] && personId2 < bestPair[2])));
+            if ( isBetter )
+            {
+                bestPair[0] = score;
+                bestPair[1] = personId1;
+                bestPair[2] = personId2;
+            }
+        }
+    }
+
+    /**
+     * Messages created abroad by persons of the country, per destination country and month.
+     */
+    public static class LdbcSnbBiQuery23Handler
+            implements OperationHandler<LdbcSnbBiQuery23HolidayDestinations,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery23HolidayDestinations operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery23HolidayDestinationsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final int country = country( graph, operation.country() );
+                final boolean[] inCountry = personsInCountry( graph, country );
+                // group key: destination country * 100 + month
+                Map<Integer,long[]> groups = new GroupBy<Integer>( 1 )
+                {
+                    @Override
+                    protected void scan( Map<Integer,long[]> partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            int destination = graph.messages.country[message];
+                            if ( inCountry[graph.messages.creator[message]] && SnbGraph.NONE != destination &&
+                                 destination != country )
+                            {
+                                aggregates( partial, destination * 100 +
+                                                     month( civilDate( graph.messages.creationDate[message] ) ) )[0]++;
+                            }
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( Map.Entry<Integer,long[]> group : groups.entrySet() )
+                {
+                    results.add( new LdbcSnbBiQuery23HolidayDestinationsResult( graph.places.name[group.getKey() / 100],
+                            group.getKey() % 100, (int) group.getValue()[0] ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery23HolidayDestinationsResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery23HolidayDestinationsResult result1,
+                        LdbcSnbBiQuery23HolidayDestinationsResult result2 )
+                {
+                    if ( result1.messageCount() != result2.messageCount() )
+                    {
+                        return Integer.compare( result2.messageCount(), result1.messageCount() );
+                    }
+                    return (false == result1.countryName().equals( result2.countryName() ))
+                           ? result1.countryName().compareTo( result2.countryName() )
+                           : Integer.compare( result1.month(), result2.month() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Messages with a tag of the tag class and their likes, per year, month and continent of the message.
+     */
+    public static class LdbcSnbBiQuery24Handler
+            implements OperationHandler<LdbcSnbBiQuery24MessagesByTopic,InMemoryBiDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcSnbBiQuery24MessagesByTopic operation,
+                InMemoryBiDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcSnbBiQuery24MessagesByTopicResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                final boolean[] tags = tagsOfClass( graph, operation.tagClass() );
+                // group key: yyyyMM << 32 | continent, aggregates: message count, like count
+                Map<Long,long[]> groups = new GroupBy<Long>( 2 )
+                {
+                    @Override
+                    protected void scan( Map<Long,long[]> partial, int from, int to )
+                    {
+                        for ( int message = from; message < to; message++ )
+                        {
+                            int country = graph.messages.country[message];
+                            if ( SnbGraph.NONE == country || false == hasTagIn( graph, message, tags ) )
+                            {
+                                continue;
+                            }
+                            int continent = graph.places.partOf[country];
+                            if ( SnbGraph.NONE == continent )
+                            {
+                                continue;
+                            }
+                            long month = civilDate( graph.messages.creationDate[message] ) / 100;
+                            long[] aggregates = aggregates( partial, (month << 32) | continent );
+                            aggregates[0]++;
+                            aggregates[1] += graph.messageLikes.degree( message );
+                        }
+                    }
+                }.run( dbConnectionState.pool(), graph.messages.count() );
+                for ( Map.Entry<Long,long[]> group : groups.entrySet() )
+                {
+                    int month = (int) (group.getKey() >>> 32);
+                    results.add( new LdbcSnbBiQuery24MessagesByTopicResult(
+                            (int) group.getValue()[0],
+                            (int) group.getValue()[1],
+                            month / 100,
+                            month % 100,
+                            graph.places.name[(int) (long) group.getKey()]
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            results = sortAndLimit( results, new Comparator<LdbcSnbBiQuery24MessagesByTopicResult>()
+            {
+                @Override
+                public int compare( LdbcSnbBiQuery24MessagesByTopicResult result1,
+                        LdbcSnbBiQuery24MessagesByTopicResult result2 )
+                {
+                    if ( result1.year() != result2.year() )
+                    {
+                        return Integer.compare( result1.year(), result2.year() );
+                    }
+                    return (result1.month() != result2.month())
+                           ? Integer.compare( result1.month(), result2.month() )
+                           : result2.continent().compareTo( result1.continent() );
+                }
+            }, operation.limit() );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.ldbc.driver.workloads.ldbc.snb.inmemory;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency lists of one edge type, from source rows to target rows, with an optional long property per edge, e.g.,
+ * a creation date.
+ * <p>
+ * Edges known at load time are stored in compressed sparse row format: the targets of source v are
+ * targets[offsets[v]..offsets[v+1]), in ascending order. Edges added afterwards go to small per source delta arrays,
+ * so updates never rebuild the CSR arrays. Edge i of v is a base edge for i < baseDegree(v), a delta edge otherwise.
+ * <p>
+ * Not thread safe, writers must be excluded from readers externally.
+ */
+public class Adjacency
+{
+    public static final long NO_PROPERTY = Long.MIN_VALUE;
+    private static final int INITIAL_DELTA_CAPACITY = 4;
+
+    private final boolean withProperties;
+    private int[] offsets = new int[1];
+    private int[] targets = new int[0];
+    private long[] properties;
+    private int baseVertexCount = 0;
+    private int[][] deltaTargets = new int[0][];
+    private long[][] deltaProperties;
+    private int[] deltaCounts = new int[0];
+
+    public Adjacency( boolean withProperties )
+    {
+        this.withProperties = withProperties;
+        this.properties = withProperties ? new long[0] : null;
+        this.deltaProperties = withProperties ? new long[0][] : null;
+    }
+
+    /**
+     * Replaces all edges with those collected by the builder, keeping one of duplicate source-target pairs.
+     *
+     * @param vertexCount number of source rows
+     */
+    public void load( Builder builder, int vertexCount )
+    {
+        if ( builder.withProperties != withProperties )
+        {
+            throw new IllegalArgumentException( "Builder and adjacency do not agree on edge properties" );
+        }
+        builder.sort();
+        long[] keys = builder.keys;
+        int[] newOffsets = new int[vertexCount + 1];
+        int[] newTargets = new int[builder.size];
+        long[] newProperties = withProperties ? new long[builder.size] : null;
+        int edgeCount = 0;
+        for ( int i = 0; i < builder.size; i++ )
+        {
+            if ( i > 0 && keys[i] == keys[i - 1] )
+            {
+                continue;
+            }
+            newOffsets[(int) (keys[i] >>> 32) + 1]++;
+            newTargets[edgeCount] = (int) keys[i];
+            if ( withProperties )
+            {
+                newProperties[edgeCount] = builder.properties[i];
+            }
+            edgeCount++;
+        }
+        for ( int v = 0; v < vertexCount; v++ )
+        {
+            newOffsets[v + 1] += newOffsets[v];
+        }
+        this.offsets = newOffsets;
+        this.targets = Arrays.copyOf( newTargets, edgeCount );
+        this.properties = withProperties ? Arrays.copyOf( newProperties, edgeCount ) : null;
+        this.baseVertexCount = vertexCount;
+        this.deltaTargets = new int[vertexCount][];
+        this.deltaProperties = withProperties ? new long[vertexCount][] : null;
+        this.deltaCounts = new int[vertexCount];
+    }
+
+    public boolean hasProperties()
+    {
+        return null != properties;
+    }
+
+    public int degree( int source )
+    {
+        return baseDegree( source ) + deltaDegree( source );
+    }
+
+    public int target( int source, int i )
+    {
+        int baseDegree = baseDegree( source );
+        return (i < baseDegree) ? targets[offsets[source] + i] : deltaTargets[source][i - baseDegree];
+    }
+
+    /**
+     * @return property of edge i of source, NO_PROPERTY if edges of this type have no properties
+     */
+    public long property( int source, int i )
+    {
+        if ( null == properties )
+        {
+            return NO_PROPERTY;
+        }
+        int baseDegree = baseDegree( source );
+        return (i < baseDegree) ? properties[offsets[source] + i] : deltaProperties[source][i - baseDegree];
+    }
+
+    public boolean contains( int source, int target )
+    {
+        return -1 != indexOf( source, target );
+    }
+
+    /**
+     * @return i such that target(source, i) == target, or -1 if there is no such edge
+     */
+    public int indexOf( int source, int target )
+    {
+        int baseDegree = baseDegree( source );
+        if ( baseDegree > 0 )
+        {
+            int position = Arrays.binarySearch( targets, offsets[source], offsets[source] + baseDegree, target );
+            if ( position >= 0 )
+            {
+                return position - offsets[source];
+            }
+        }
+        int deltaDegree = deltaDegree( source );
+        for ( int i = 0; i < deltaDegree; i++ )
+        {
+            if ( deltaTargets[source][i] == target )
+            {
+                return baseDegree + i;
+            }
+        }
+        return -1;
+    }
+
+    public void add( int source, int target )
+    {
+        add( source, target, NO_PROPERTY );
+    }
+
+    public void add( int source, int target, long property )
+    {
+        if ( source >= deltaCounts.length )
+        {
+            int capacity = Math.max( source + 1, deltaCounts.length + (deltaCounts.length >> 1) + 1 );
+            deltaTargets = Arrays.copyOf( deltaTargets, capacity );
+            deltaCounts = Arrays.copyOf( deltaCounts, capacity );
+            if ( null != deltaProperties )
+            {
+                deltaProperties = Arrays.copyOf( deltaProperties, capacity );
+            }
+        }
+        int count = deltaCounts[source];
+        if ( null == deltaTargets[source] )
+        {
+            deltaTargets[source] = new int[INITIAL_DELTA_CAPACITY];
+            if ( null != deltaProperties )
+            {
+                deltaProperties[source] = new long[INITIAL_DELTA_CAPACITY];
+            }
+        }
+        else if ( count == deltaTargets[source].length )
+        {
+            deltaTargets[source] = Arrays.copyOf( deltaTargets[source], count << 1 );
+            if ( null != deltaProperties )
+            {
+                deltaProperties[source] = Arrays.copyOf( deltaProperties[source], count << 1 );
+            }
+        }
+        deltaTargets[source][count] = target;
+        if ( null != deltaProperties )
+        {
+            deltaProperties[source][count] = property;
+        }
+        deltaCounts[source] = count + 1;
+    }
+
+    private int baseDegree( int source )
+    {
+        return (source < baseVertexCount) ? offsets[source + 1] - offsets[source] : 0;
+    }
+
+    private int deltaDegree( int source )
+    {
+        return (source < deltaCounts.length) ? deltaCounts[source] : 0;
+    }
+
+    /**
+     * Collects edges in any order, for {@link Adjacency#load(Builder, int)} to sort into CSR format.
+     */
+    public static class Builder
+    {
+        private final boolean withProperties;
+        private long[] keys = new long[1024];
+        private long[] properties;
+        private int size = 0;
+
+        public Builder( boolean withProperties )
+        {
+            this.withProperties = withProperties;
+            this.properties = withProperties ? new long[keys.length] : null;
+        }
+
+        public void add( int source, int target )
+        {
+            add( source, target, NO_PROPERTY );
+        }
+
+        public void add( int source, int target, long property )
+        {
+            if ( size == keys.length )
+            {
+                keys = Arrays.copyOf( keys, size << 1 );
+                if ( withProperties )
+                {
+                    properties = Arrays.copyOf( properties, size << 1 );
+                }
+            }
+            keys[size] = ((long) source << 32) | (target & 0xFFFFFFFFL);
+            if ( withProperties )
+            {
+                properties[size] = property;
+            }
+            size++;
+        }
+
+        private void sort()
+        {
+            sort( keys, properties, 0, size - 1 );
+        }
+
+        private static void sort( long[] keys, long[] values, int lo, int hi )
+        {
+            while ( hi - lo > 16 )
+            {
+                long pivot = median( keys[lo], keys[lo + ((hi - lo) >>> 1)], keys[hi] );
+                int i = lo;
+                int j = hi;
+                while ( i <= j )
+                {
+                    while ( keys[i] < pivot )
+                    {
+                        i++;
+                    }
+                    while ( keys[j] > pivot )
+                    {
+                        j--;
+                    }
+                    if ( i <= j )
+                    {
+                        swap( keys, values, i++, j-- );
+                    }
+                }
+                // recurse into the smaller partition, loop on the larger one, to bound stack depth
+                if ( j - lo < hi - i )
+                {
+                    sort( keys, values, lo, j );
+                    lo = i;
+                }
+                else
+                {
+                    sort( keys, values, i, hi );
+                    hi = j;
+                }
+            }
+            for ( int i = lo + 1; i <= hi; i++ )
+            {
+                for ( int j = i; j > lo && keys[j - 1] > keys[j]; j-- )
+                {
+                    swap( keys, values, j, j - 1 );
+                }
+            }
+        }
+
+        private static long median( long a, long b, long c )
+        {
+            return Math.max( Math.min( a, b ), Math.min( Math.max( a, b ), c ) );
+        }
+
+        private static void swap( long[] keys, long[] values, int i, int j )
+        {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            if ( null != values )
+            {
+                long value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ldbc.driver.workloads.ldbc.snb.inmemory;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to non-negative int values, used to map entity identifiers to the row of
+ * the entity in the columnar arrays without boxing.
+ * <p>
+ * Not thread safe, writers must be excluded from readers externally.
+ */
+public class LongIntHashMap
+{
+    public static final int NO_VALUE = -1;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+    private int resizeThreshold;
+
+    public LongIntHashMap( int expectedSize )
+    {
+        int capacity = Integer.highestOneBit( Math.max( 16, (int) (expectedSize / LOAD_FACTOR) ) - 1 ) << 1;
+        allocate( capacity );
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return value mapped to key, or NO_VALUE if there is none
+     */
+    public int get( long key )
+    {
+        int mask = keys.length - 1;
+        int slot = hash( key ) & mask;
+        while ( NO_VALUE != values[slot] )
+        {
+            if ( keys[slot] == key )
+            {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    public boolean containsKey( long key )
+    {
+        return NO_VALUE != get( key );
+    }
+
+    /**
+     * @param value must be non-negative
+     * @return previous value mapped to key, or NO_VALUE if there was none
+     */
+    public int put( long key, int value )
+    {
+        if ( value < 0 )
+        {
+            throw new IllegalArgumentException( "Value must be non-negative: " + value );
+        }
+        int mask = keys.length - 1;
+        int slot = hash( key ) & mask;
+        while ( NO_VALUE != values[slot] )
+        {
+            if ( keys[slot] == key )
+            {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if ( size > resizeThreshold )
+        {
+            resize();
+        }
+        return NO_VALUE;
+    }
+
+    private void resize()
+    {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate( keys.length << 1 );
+        int mask = keys.length - 1;
+        for ( int i = 0; i < oldValues.length; i++ )
+        {
+            if ( NO_VALUE != oldValues[i] )
+            {
+                int slot = hash( oldKeys[i] ) & mask;
+                while ( NO_VALUE != values[slot] )
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate( int capacity )
+    {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill( values, NO_VALUE );
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash( long key )
+    {
+        // murmur3 finalizer, identifiers are dense and often share low bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
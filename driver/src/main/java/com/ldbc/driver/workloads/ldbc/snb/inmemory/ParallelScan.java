@@ -0,0 +1,72 @@
+package com.ldbc.driver.workloads.ldbc.snb.inmemory;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scan of the rows [0, rowCount) of a table, or of the entries of an adjacency list, split into chunks that are
+ * scanned in parallel on a fork-join pool. Every chunk is scanned into its own partial result, in a tight loop over
+ * the column arrays, and partial results are merged pairwise as the forked tasks are joined, so workers share no
+ * mutable state.
+ * <p>
+ * Chunks are sized so that there are a few per worker of the pool, which bounds the number of partial results that
+ * are alive at once, e.g., when partial results are dense arrays indexed by row.
+ *
+ * @param <P> partial result type
+ */
+public abstract class ParallelScan<P>
+{
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /**
+     * @return new, empty, partial result
+     */
+    protected abstract P newPartial();
+
+    /**
+     * Accumulates rows [from, to) into the partial result.
+     */
+    protected abstract void scan( P partial, int from, int to );
+
+    /**
+     * @return partial result of the rows of both, may reuse either
+     */
+    protected abstract P merge( P left, P right );
+
+    public final P run( ForkJoinPool pool, int rowCount )
+    {
+        int chunkSize = Math.max( MIN_CHUNK_SIZE, rowCount / (pool.getParallelism() * CHUNKS_PER_WORKER) + 1 );
+        return pool.invoke( new ScanTask( 0, rowCount, chunkSize ) );
+    }
+
+    private class ScanTask extends RecursiveTask<P>
+    {
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private ScanTask( int from, int to, int chunkSize )
+        {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected P compute()
+        {
+            if ( to - from <= chunkSize )
+            {
+                P partial = newPartial();
+                scan( partial, from, to );
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask( from, middle, chunkSize );
+            left.fork();
+            P right = new ScanTask( middle, to, chunkSize ).compute();
+            return merge( left.join(), right );
+        }
+    }
+}
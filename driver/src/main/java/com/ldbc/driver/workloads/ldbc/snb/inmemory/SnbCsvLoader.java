@@ -0,0 +1,659 @@
+package com.ldbc.driver.workloads.ldbc.snb.inmemory;
+
+import com.ldbc.driver.csv.charseeker.Readables;
+import com.ldbc.driver.csv.simple.SimpleCsvFileReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Loads the basic CSV format written by datagen into a {@link SnbGraph}.
+ * <p>
+ * Every entity and relationship type is read from the files named [type](_[reducer])*(_[partition])*.csv in the
+ * directory, each with a header row and '|' separated columns, compressed or not. Date times may be formatted as
+ * yyyy-MM-dd'T'HH:mm:ss.SSSZ or as milliseconds since the epoch, dates as yyyy-MM-dd or milliseconds since the epoch.
+ * The optional columns written for rich RDF, i.e., the visibility and link of messages and the gif of comments, are
+ * read when present.
+ */
+public class SnbCsvLoader
+{
+    private final File directory;
+    private final SnbGraph graph = new SnbGraph();
+
+    public static SnbGraph load( File directory ) throws IOException
+    {
+        if ( false == directory.isDirectory() )
+        {
+            throw new IOException( format( "Not a directory: %s", directory.getAbsolutePath() ) );
+        }
+        return new SnbCsvLoader( directory ).load();
+    }
+
+    private SnbCsvLoader( File directory )
+    {
+        this.directory = directory;
+    }
+
+    private SnbGraph load() throws IOException
+    {
+        loadPlaces();
+        loadTagClassesAndTags();
+        loadOrganisations();
+        loadPersons();
+        loadForums();
+        loadMessages();
+        return graph;
+    }
+
+    private void loadPlaces() throws IOException
+    {
+        SnbGraph.Places places = graph.places;
+        try ( CsvRows rows = rows( "place" ) )
+        {
+            while ( rows.next() )
+            {
+                int place = places.add( rows.id( 0 ) );
+                places.set( place, rows.get( 1 ), rows.get( 2 ), rows.get( 3 ) );
+            }
+        }
+        try ( CsvRows rows = rows( "place_isPartOf_place" ) )
+        {
+            while ( rows.next() )
+            {
+                places.partOf[rows.row( places, 0 )] = rows.row( places, 1 );
+            }
+        }
+    }
+
+    private void loadTagClassesAndTags() throws IOException
+    {
+        SnbGraph.TagClasses tagClasses = graph.tagClasses;
+        try ( CsvRows rows = rows( "tagclass" ) )
+        {
+            while ( rows.next() )
+            {
+                tagClasses.set( tagClasses.add( rows.id( 0 ) ), rows.get( 1 ), rows.get( 2 ) );
+            }
+        }
+        try ( CsvRows rows = rows( "tagclass_isSubclassOf_tagclass" ) )
+        {
+            while ( rows.next() )
+            {
+                tagClasses.parent[rows.row( tagClasses, 0 )] = rows.row( tagClasses, 1 );
+            }
+        }
+        SnbGraph.Tags tags = graph.tags;
+        try ( CsvRows rows = rows( "tag" ) )
+        {
+            while ( rows.next() )
+            {
+                tags.set( tags.add( rows.id( 0 ) ), rows.get( 1 ), rows.get( 2 ) );
+            }
+        }
+        try ( CsvRows rows = rows( "tag_hasType_tagclass" ) )
+        {
+            while ( rows.next() )
+            {
+                tags.tagClass[rows.row( tags, 0 )] = rows.row( tagClasses, 1 );
+            }
+        }
+    }
+
+    private void loadOrganisations() throws IOException
+    {
+        SnbGraph.Organisations organisations = graph.organisations;
+        try ( CsvRows rows = rows( "organisation" ) )
+        {
+            while ( rows.next() )
+            {
+                int organisation = organisations.add( rows.id( 0 ) );
+                organisations.type[organisation] = rows.get( 1 );
+                organisations.name[organisation] = rows.get( 2 );
+                organisations.url[organisation] = rows.get( 3 );
+            }
+        }
+        try ( CsvRows rows = rows( "organisation_isLocatedIn_place" ) )
+        {
+            while ( rows.next() )
+            {
+                organisations.place[rows.row( organisations, 0 )] = rows.row( graph.places, 1 );
+            }
+        }
+    }
+
+    private void loadPersons() throws IOException
+    {
+        SnbGraph.Persons persons = graph.persons;
+        try ( CsvRows rows = rows( "person" ) )
+        {
+            while ( rows.next() )
+            {
+                int person = persons.add( rows.id( 0 ) );
+                persons.firstName[person] = rows.get( 1 );
+                persons.lastName[person] = rows.get( 2 );
+                persons.gender[person] = rows.get( 3 );
+                persons.birthday[person] = parseDate( rows.get( 4 ) );
+                persons.creationDate[person] = parseDateTime( rows.get( 5 ) );
+                persons.locationIp[person] = rows.get( 6 );
+                persons.browserUsed[person] = rows.get( 7 );
+                persons.emails[person] = new String[0];
+                persons.languages[person] = new String[0];
+            }
+        }
+        try ( CsvRows rows = rows( "person_email_emailaddress" ) )
+        {
+            while ( rows.next() )
+            {
+                int person = rows.row( persons, 0 );
+                persons.emails[person] = append( persons.emails[person], rows.get( 1 ) );
+            }
+        }
+        try ( CsvRows rows = rows( "person_speaks_language" ) )
+        {
+            while ( rows.next() )
+            {
+                int person = rows.row( persons, 0 );
+                persons.languages[person] = append( persons.languages[person], rows.get( 1 ) );
+            }
+        }
+        try ( CsvRows rows = rows( "person_isLocatedIn_place" ) )
+        {
+            while ( rows.next() )
+            {
+                persons.city[rows.row( persons, 0 )] = rows.row( graph.places, 1 );
+            }
+        }
+
+        Adjacency.Builder interests = new Adjacency.Builder( false );
+        try ( CsvRows rows = rows( "person_hasInterest_tag" ) )
+        {
+            while ( rows.next() )
+            {
+                interests.add( rows.row( persons, 0 ), rows.row( graph.tags, 1 ) );
+            }
+        }
+        graph.personInterests.load( interests, persons.count() );
+
+        Adjacency.Builder studyAt = new Adjacency.Builder( true );
+        try ( CsvRows rows = rows( "person_studyAt_organisation" ) )
+        {
+            while ( rows.next() )
+            {
+                studyAt.add( rows.row( persons, 0 ), rows.row( graph.organisations, 1 ),
+                        Integer.parseInt( rows.get( 2 ) ) );
+            }
+        }
+        graph.studyAt.load( studyAt, persons.count() );
+
+        Adjacency.Builder workAt = new Adjacency.Builder( true );
+        try ( CsvRows rows = rows( "person_workAt_organisation" ) )
+        {
+            while ( rows.next() )
+            {
+                workAt.add( rows.row( persons, 0 ), rows.row( graph.organisations, 1 ),
+                        Integer.parseInt( rows.get( 2 ) ) );
+            }
+        }
+        graph.workAt.load( workAt, persons.count() );
+
+        Adjacency.Builder knows = new Adjacency.Builder( true );
+        try ( CsvRows rows = rows( "person_knows_person" ) )
+        {
+            while ( rows.next() )
+            {
+                int person1 = rows.row( persons, 0 );
+                int person2 = rows.row( persons, 1 );
+                long creationDate = parseDateTime( rows.get( 2 ) );
+                knows.add( person1, person2, creationDate );
+                knows.add( person2, person1, creationDate );
+            }
+        }
+        graph.knows.load( knows, persons.count() );
+    }
+
+    private void loadForums() throws IOException
+    {
+        SnbGraph.Forums forums = graph.forums;
+        try ( CsvRows rows = rows( "forum" ) )
+        {
+            while ( rows.next() )
+            {
+                int forum = forums.add( rows.id( 0 ) );
+                forums.title[forum] = rows.get( 1 );
+                forums.creationDate[forum] = parseDateTime( rows.get( 2 ) );
+            }
+        }
+        try ( CsvRows rows = rows( "forum_hasModerator_person" ) )
+        {
+            while ( rows.next() )
+            {
+                forums.moderator[rows.row( forums, 0 )] = rows.row( graph.persons, 1 );
+            }
+        }
+
+        Adjacency.Builder forumTags = new Adjacency.Builder( false );
+        try ( CsvRows rows = rows( "forum_hasTag_tag" ) )
+        {
+            while ( rows.next() )
+            {
+                forumTags.add( rows.row( forums, 0 ), rows.row( graph.tags, 1 ) );
+            }
+        }
+        graph.forumTags.load( forumTags, forums.count() );
+
+        Adjacency.Builder forumMembers = new Adjacency.Builder( true );
+        Adjacency.Builder memberForums = new Adjacency.Builder( true );
+        try ( CsvRows rows = rows( "forum_hasMember_person" ) )
+        {
+            while ( rows.next() )
+            {
+                int forum = rows.row( forums, 0 );
+                int person = rows.row( graph.persons, 1 );
+                long joinDate = parseDateTime( rows.get( 2 ) );
+                forumMembers.add( forum, person, joinDate );
+                memberForums.add( person, forum, joinDate );
+            }
+        }
+        graph.forumMembers.load( forumMembers, forums.count() );
+        graph.memberForums.load( memberForums, graph.persons.count() );
+    }
+
+    private void loadMessages() throws IOException
+    {
+        SnbGraph.Messages messages = graph.messages;
+        try ( CsvRows rows = rows( "post" ) )
+        {
+            while ( rows.next() )
+            {
+                int post = messages.add( rows.id( rows.column( "id" ) ) );
+                messages.isComment[post] = false;
+                messages.imageFile[post] = emptyToNull( rows.get( rows.column( "imageFile" ) ) );
+                messages.language[post] = emptyToNull( rows.get( rows.column( "language" ) ) );
+                loadMessageProperties( rows, post );
+            }
+        }
+        try ( CsvRows rows = rows( "comment" ) )
+        {
+            while ( rows.next() )
+            {
+                int comment = messages.add( rows.id( rows.column( "id" ) ) );
+                messages.isComment[comment] = true;
+                messages.gifFile[comment] = emptyToNull( rows.get( rows.column( "gifFile" ) ) );
+                loadMessageProperties( rows, comment );
+            }
+        }
+
+        Adjacency.Builder personMessages = new Adjacency.Builder( false );
+        for ( String file : new String[]{"post_hasCreator_person", "comment_hasCreator_person"} )
+        {
+            try ( CsvRows rows = rows( file ) )
+            {
+                while ( rows.next() )
+                {
+                    int message = rows.row( messages, 0 );
+                    int person = rows.row( graph.persons, 1 );
+                    messages.creator[message] = person;
+                    personMessages.add( person, message );
+                }
+            }
+        }
+        graph.personMessages.load( personMessages, graph.persons.count() );
+
+        for ( String file : new String[]{"post_isLocatedIn_place", "comment_isLocatedIn_place"} )
+        {
+            try ( CsvRows rows = rows( file ) )
+            {
+                while ( rows.next() )
+                {
+                    messages.country[rows.row( messages, 0 )] = rows.row( graph.places, 1 );
+                }
+            }
+        }
+
+        Adjacency.Builder forumPosts = new Adjacency.Builder( false );
+        try ( CsvRows rows = rows( "forum_containerOf_post" ) )
+        {
+            while ( rows.next() )
+            {
+                int forum = rows.row( graph.forums, 0 );
+                int post = rows.row( messages, 1 );
+                messages.forum[post] = forum;
+                forumPosts.add( forum, post );
+            }
+        }
+        graph.forumPosts.load( forumPosts, graph.forums.count() );
+
+        Adjacency.Builder replies = new Adjacency.Builder( false );
+        for ( String file : new String[]{"comment_replyOf_post", "comment_replyOf_comment"} )
+        {
+            try ( CsvRows rows = rows( file ) )
+            {
+                while ( rows.next() )
+                {
+                    int comment = rows.row( messages, 0 );
+                    int parent = rows.row( messages, 1 );
+                    messages.replyOf[comment] = parent;
+                    replies.add( parent, comment );
+                }
+            }
+        }
+        graph.replies.load( replies, messages.count() );
+        resolveRootPosts();
+
+        Adjacency.Builder messageTags = new Adjacency.Builder( false );
+        Adjacency.Builder tagMessages = new Adjacency.Builder( false );
+        for ( String file : new String[]{"post_hasTag_tag", "comment_hasTag_tag"} )
+        {
+            try ( CsvRows rows = rows( file ) )
+            {
+                while ( rows.next() )
+                {
+                    int message = rows.row( messages, 0 );
+                    int tag = rows.row( graph.tags, 1 );
+                    messageTags.add( message, tag );
+                    tagMessages.add( tag, message );
+                }
+            }
+        }
+        graph.messageTags.load( messageTags, messages.count() );
+        graph.tagMessages.load( tagMessages, graph.tags.count() );
+
+        Adjacency.Builder mentions = new Adjacency.Builder( false );
+        Adjacency.Builder mentionedIn = new Adjacency.Builder( false );
+        for ( String file : new String[]{"post_hasMentioned_person", "comment_hasMentioned_person"} )
+        {
+            try ( CsvRows rows = rows( file ) )
+            {
+                while ( rows.next() )
+                {
+                    int message = rows.row( messages, 0 );
+                    int person = rows.row( graph.persons, 1 );
+                    mentions.add( message, person );
+                    mentionedIn.add( person, message );
+                }
+            }
+        }
+        graph.messageMentions.load( mentions, messages.count() );
+        graph.mentionedIn.load( mentionedIn, graph.persons.count() );
+
+        Adjacency.Builder personLikes = new Adjacency.Builder( true );
+        Adjacency.Builder messageLikes = new Adjacency.Builder( true );
+        for ( String file : new String[]{"person_likes_post", "person_likes_comment"} )
+        {
+            try ( CsvRows rows = rows( file ) )
+            {
+                while ( rows.next() )
+                {
+                    int person = rows.row( graph.persons, 0 );
+                    int message = rows.row( messages, 1 );
+                    long creationDate = parseDateTime( rows.get( 2 ) );
+                    personLikes.add( person, message, creationDate );
+                    messageLikes.add( message, person, creationDate );
+                }
+            }
+        }
+        graph.personLikes.load( personLikes, graph.persons.count() );
+        graph.messageLikes.load( messageLikes, messages.count() );
+    }
+
+    private void loadMessageProperties( CsvRows rows, int message )
+    {
+        SnbGraph.Messages messages = graph.messages;
+        messages.creationDate[message] = parseDateTime( rows.get( rows.column( "creationDate" ) ) );
+        messages.locationIp[message] = rows.get( rows.column( "locationIP" ) );
+        messages.browserUsed[message] = rows.get( rows.column( "browserUsed" ) );
+        messages.content[message] = rows.get( rows.column( "content" ) );
+        messages.length[message] = Integer.parseInt( rows.get( rows.column( "length" ) ) );
+        String visibility = emptyToNull( rows.get( rows.column( "public" ) ) );
+        if ( null != visibility )
+        {
+            messages.visibility[message] = Boolean.parseBoolean( visibility )
+                                           ? SnbGraph.Messages.VISIBILITY_PUBLIC
+                                           : SnbGraph.Messages.VISIBILITY_PRIVATE;
+        }
+        messages.link[message] = emptyToNull( rows.get( rows.column( "link" ) ) );
+    }
+
+    private void resolveRootPosts() throws IOException
+    {
+        SnbGraph.Messages messages = graph.messages;
+        int[] path = new int[16];
+        for ( int message = 0; message < messages.count(); message++ )
+        {
+            // follow reply chains up to the first message with a known root, then assign the root along the chain
+            int depth = 0;
+            int current = message;
+            while ( SnbGraph.NONE == messages.rootPost[current] )
+            {
+                if ( false == messages.isComment[current] )
+                {
+                    messages.rootPost[current] = current;
+                    break;
+                }
+                if ( depth == path.length )
+                {
+                    path = Arrays.copyOf( path, depth << 1 );
+                }
+                path[depth++] = current;
+                current = messages.replyOf[current];
+                if ( SnbGraph.NONE == current )
+                {
+                    throw new IOException( format( "Comment %s does not reply to any message",
+                            messages.id[path[depth - 1]] ) );
+                }
+            }
+            int root = messages.rootPost[current];
+            for ( int i = 0; i < depth; i++ )
+            {
+                messages.rootPost[path[i]] = root;
+            }
+        }
+    }
+
+    private CsvRows rows( String type ) throws IOException
+    {
+        final Pattern fileNamePattern = Pattern.compile( Pattern.quote( type ) + "(_\\d+)*\\.csv(\\.gz)?" );
+        List<File> files = new ArrayList<>();
+        File[] directoryFiles = directory.listFiles();
+        if ( null != directoryFiles )
+        {
+            for ( File file : directoryFiles )
+            {
+                if ( fileNamePattern.matcher( file.getName() ).matches() )
+                {
+                    files.add( file );
+                }
+            }
+        }
+        if ( files.isEmpty() )
+        {
+            throw new IOException( format( "No %s files in %s", type, directory.getAbsolutePath() ) );
+        }
+        Collections.sort( files );
+        return new CsvRows( files );
+    }
+
+    private static String[] append( String[] array, String value )
+    {
+        String[] appended = Arrays.copyOf( array, array.length + 1 );
+        appended[array.length] = value;
+        return appended;
+    }
+
+    private static String emptyToNull( String value )
+    {
+        return (null == value || value.isEmpty()) ? null : value;
+    }
+
+    static long parseDate( String value )
+    {
+        // yyyy-MM-dd
+        if ( value.length() == 10 && value.charAt( 4 ) == '-' )
+        {
+            return epochDay( value ) * 86400000L;
+        }
+        return Long.parseLong( value );
+    }
+
+    static long parseDateTime( String value )
+    {
+        // yyyy-MM-dd'T'HH:mm:ss.SSSZ, e.g., 2010-03-11T10:27:42.123+0000
+        if ( value.length() == 28 && value.charAt( 10 ) == 'T' )
+        {
+            long timeAsMilli = epochDay( value ) * 86400000L
+                               + digits( value, 11, 13 ) * 3600000L
+                               + digits( value, 14, 16 ) * 60000L
+                               + digits( value, 17, 19 ) * 1000L
+                               + digits( value, 20, 23 );
+            long offsetAsMilli = digits( value, 24, 26 ) * 3600000L + digits( value, 26, 28 ) * 60000L;
+            return ('-' == value.charAt( 23 )) ? timeAsMilli + offsetAsMilli : timeAsMilli - offsetAsMilli;
+        }
+        return Long.parseLong( value );
+    }
+
+    private static long epochDay( String value )
+    {
+        // days since 1970-01-01 of a proleptic gregorian date, from the yyyy-MM-dd prefix of value
+        long year = digits( value, 0, 4 );
+        long month = digits( value, 5, 7 );
+        long day = digits( value, 8, 10 );
+        year -= (month <= 2) ? 1 : 0;
+        long era = year / 400;
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static long digits( String value, int from, int to )
+    {
+        long result = 0;
+        for ( int i = from; i < to; i++ )
+        {
+            char c = value.charAt( i );
+            if ( c < '0' || c > '9' )
+            {
+                throw new NumberFormatException( format( "Invalid date: %s", value ) );
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Rows of all files of one type, one at a time, with columns looked up by position or by header name.
+     */
+    private static class CsvRows implements Closeable
+    {
+        private final List<File> files;
+        private int nextFile = 0;
+        private SimpleCsvFileReader reader = null;
+        private File file = null;
+        private final Map<String,Integer> columns = new HashMap<>();
+        private String[] values = null;
+
+        private CsvRows( List<File> files )
+        {
+            this.files = files;
+        }
+
+        boolean next() throws IOException
+        {
+            while ( null == reader || false == reader.hasNext() )
+            {
+                if ( null != reader )
+                {
+                    reader.close();
+                    reader = null;
+                }
+                if ( nextFile == files.size() )
+                {
+                    values = null;
+                    return false;
+                }
+                file = files.get( nextFile++ );
+                reader = new SimpleCsvFileReader(
+                        new BufferedReader(
+                                new InputStreamReader( Readables.inputStream( file ), StandardCharsets.UTF_8 ) ),
+                        SimpleCsvFileReader.DEFAULT_COLUMN_SEPARATOR_REGEX_STRING
+                );
+                if ( reader.hasNext() )
+                {
+                    String[] header = reader.next();
+                    columns.clear();
+                    for ( int i = header.length - 1; i >= 0; i-- )
+                    {
+                        columns.put( header[i], i );
+                    }
+                }
+            }
+            values = reader.next();
+            return true;
+        }
+
+        /**
+         * @return position of the first column with the given name, -1 if there is none
+         */
+        int column( String name )
+        {
+            Integer column = columns.get( name );
+            return (null == column) ? -1 : column;
+        }
+
+        /**
+         * @return value of the column, null if the column is not in the row
+         */
+        String get( int column )
+        {
+            return (column < 0 || column >= values.length) ? null : values[column];
+        }
+
+        long id( int column ) throws IOException
+        {
+            try
+            {
+                return Long.parseLong( values[column] );
+            }
+            catch ( NumberFormatException | ArrayIndexOutOfBoundsException e )
+            {
+                throw new IOException( format( "Invalid identifier in %s row %s", file.getName(),
+                        Arrays.toString( values ) ), e );
+            }
+        }
+
+        int row( SnbGraph.Table table, int column ) throws IOException
+        {
+            long id = id( column );
+            int tableRow = table.row( id );
+            if ( SnbGraph.NONE == tableRow )
+            {
+                throw new IOException( format( "Unknown %s %s referenced in %s",
+                        table.getClass().getSimpleName(), id, file.getName() ) );
+            }
+            return tableRow;
+        }
+
+        @Override
+        public void close()
+        {
+            if ( null != reader )
+            {
+                reader.close();
+                reader = null;
+            }
+        }
+    }
+}
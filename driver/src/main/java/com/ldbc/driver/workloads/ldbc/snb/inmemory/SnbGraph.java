@@ -0,0 +1,390 @@
+package com.ldbc.driver.workloads.ldbc.snb.inmemory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory SNB social network: one table per entity type with one array per property, indexed by row, plus the
+ * {@link Adjacency} of every relationship type, from row to row.
+ * <p>
+ * Posts and comments share the messages table, as they share the identifier space. Relationships that are navigated
+ * in both directions are stored once per direction.
+ * <p>
+ * Readers must hold the read lock and writers the write lock. Rows are never removed, so rows read under the lock
+ * remain valid afterwards, but arrays may be reallocated by writers and must be read again once the lock is released.
+ */
+public class SnbGraph
+{
+    public static final int NONE = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public final Persons persons = new Persons();
+    public final Messages messages = new Messages();
+    public final Forums forums = new Forums();
+    public final Places places = new Places();
+    public final Organisations organisations = new Organisations();
+    public final Tags tags = new Tags();
+    public final TagClasses tagClasses = new TagClasses();
+
+    // person -> person, property: creation date, both directions
+    public final Adjacency knows = new Adjacency( true );
+    // person -> tag
+    public final Adjacency personInterests = new Adjacency( false );
+    // person -> organisation, property: class year
+    public final Adjacency studyAt = new Adjacency( true );
+    // person -> organisation, property: work from year
+    public final Adjacency workAt = new Adjacency( true );
+    // person -> message
+    public final Adjacency personMessages = new Adjacency( false );
+    // person -> message, property: creation date
+    public final Adjacency personLikes = new Adjacency( true );
+    // message -> person, property: creation date
+    public final Adjacency messageLikes = new Adjacency( true );
+    // message -> tag
+    public final Adjacency messageTags = new Adjacency( false );
+    // tag -> message
+    public final Adjacency tagMessages = new Adjacency( false );
+    // message -> person
+    public final Adjacency messageMentions = new Adjacency( false );
+    // person -> message
+    public final Adjacency mentionedIn = new Adjacency( false );
+    // message -> comment replying to it directly
+    public final Adjacency replies = new Adjacency( false );
+    // forum -> post
+    public final Adjacency forumPosts = new Adjacency( false );
+    // forum -> tag
+    public final Adjacency forumTags = new Adjacency( false );
+    // forum -> person, property: join date
+    public final Adjacency forumMembers = new Adjacency( true );
+    // person -> forum, property: join date
+    public final Adjacency memberForums = new Adjacency( true );
+
+    public ReadWriteLock lock()
+    {
+        return lock;
+    }
+
+    /**
+     * @return content of a message as it is returned by queries: the content if there is any, otherwise the image file
+     * of image posts or the gif file of gif comments
+     */
+    public String messageContent( int message )
+    {
+        String content = messages.content[message];
+        if ( null != content && false == content.isEmpty() )
+        {
+            return content;
+        }
+        else if ( null != messages.imageFile[message] )
+        {
+            return messages.imageFile[message];
+        }
+        else if ( null != messages.gifFile[message] )
+        {
+            return messages.gifFile[message];
+        }
+        return "";
+    }
+
+    /**
+     * @return the country a place is in, or the place itself if it is a country, NONE if it is neither
+     */
+    public int countryOf( int place )
+    {
+        while ( NONE != place && false == Places.COUNTRY.equals( places.type[place] ) )
+        {
+            place = places.partOf[place];
+        }
+        return place;
+    }
+
+    public boolean isSubclassOrSelf( int tagClass, int ancestor )
+    {
+        while ( NONE != tagClass )
+        {
+            if ( tagClass == ancestor )
+            {
+                return true;
+            }
+            tagClass = tagClasses.parent[tagClass];
+        }
+        return false;
+    }
+
+    public abstract static class Table
+    {
+        private final LongIntHashMap rows = new LongIntHashMap( 1024 );
+        public long[] id = new long[0];
+        int count = 0;
+
+        public int count()
+        {
+            return count;
+        }
+
+        /**
+         * @return row of the entity, NONE if there is none
+         */
+        public int row( long id )
+        {
+            return rows.get( id );
+        }
+
+        /**
+         * @return row of the new entity, with all properties other than the identifier unset
+         */
+        public int add( long entityId )
+        {
+            if ( rows.containsKey( entityId ) )
+            {
+                throw new IllegalStateException( String.format( "Duplicate %s: %s", getClass().getSimpleName(),
+                        entityId ) );
+            }
+            if ( count == id.length )
+            {
+                grow( Math.max( 16, count + (count >> 1) ) );
+            }
+            int row = count++;
+            id[row] = entityId;
+            rows.put( entityId, row );
+            return row;
+        }
+
+        void grow( int capacity )
+        {
+            id = Arrays.copyOf( id, capacity );
+        }
+
+        static int[] grow( int[] array, int capacity )
+        {
+            int length = array.length;
+            int[] grown = Arrays.copyOf( array, capacity );
+            Arrays.fill( grown, length, capacity, NONE );
+            return grown;
+        }
+    }
+
+    public static class Persons extends Table
+    {
+        public String[] firstName = new String[0];
+        public String[] lastName = new String[0];
+        public String[] gender = new String[0];
+        public long[] birthday = new long[0];
+        public long[] creationDate = new long[0];
+        public String[] locationIp = new String[0];
+        public String[] browserUsed = new String[0];
+        public int[] city = new int[0];
+        public String[][] emails = new String[0][];
+        public String[][] languages = new String[0][];
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            firstName = Arrays.copyOf( firstName, capacity );
+            lastName = Arrays.copyOf( lastName, capacity );
+            gender = Arrays.copyOf( gender, capacity );
+            birthday = Arrays.copyOf( birthday, capacity );
+            creationDate = Arrays.copyOf( creationDate, capacity );
+            locationIp = Arrays.copyOf( locationIp, capacity );
+            browserUsed = Arrays.copyOf( browserUsed, capacity );
+            city = grow( city, capacity );
+            emails = Arrays.copyOf( emails, capacity );
+            languages = Arrays.copyOf( languages, capacity );
+        }
+    }
+
+    public static class Messages extends Table
+    {
+        public static final byte VISIBILITY_UNKNOWN = -1;
+        public static final byte VISIBILITY_PRIVATE = 0;
+        public static final byte VISIBILITY_PUBLIC = 1;
+
+        public boolean[] isComment = new boolean[0];
+        public long[] creationDate = new long[0];
+        public String[] locationIp = new String[0];
+        public String[] browserUsed = new String[0];
+        public String[] content = new String[0];
+        public String[] imageFile = new String[0];
+        public String[] gifFile = new String[0];
+        public String[] language = new String[0];
+        public int[] length = new int[0];
+        public byte[] visibility = new byte[0];
+        public String[] link = new String[0];
+        public int[] creator = new int[0];
+        public int[] country = new int[0];
+        // posts only
+        public int[] forum = new int[0];
+        // comments only
+        public int[] replyOf = new int[0];
+        // post at the root of the thread, the message itself for posts
+        public int[] rootPost = new int[0];
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            isComment = Arrays.copyOf( isComment, capacity );
+            creationDate = Arrays.copyOf( creationDate, capacity );
+            locationIp = Arrays.copyOf( locationIp, capacity );
+            browserUsed = Arrays.copyOf( browserUsed, capacity );
+            content = Arrays.copyOf( content, capacity );
+            imageFile = Arrays.copyOf( imageFile, capacity );
+            gifFile = Arrays.copyOf( gifFile, capacity );
+            language = Arrays.copyOf( language, capacity );
+            length = Arrays.copyOf( length, capacity );
+            int previousCapacity = visibility.length;
+            visibility = Arrays.copyOf( visibility, capacity );
+            Arrays.fill( visibility, previousCapacity, capacity, VISIBILITY_UNKNOWN );
+            link = Arrays.copyOf( link, capacity );
+            creator = grow( creator, capacity );
+            country = grow( country, capacity );
+            forum = grow( forum, capacity );
+            replyOf = grow( replyOf, capacity );
+            rootPost = grow( rootPost, capacity );
+        }
+    }
+
+    public static class Forums extends Table
+    {
+        public String[] title = new String[0];
+        public long[] creationDate = new long[0];
+        public int[] moderator = new int[0];
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            title = Arrays.copyOf( title, capacity );
+            creationDate = Arrays.copyOf( creationDate, capacity );
+            moderator = grow( moderator, capacity );
+        }
+    }
+
+    public static class Places extends Table
+    {
+        public static final String CITY = "city";
+        public static final String COUNTRY = "country";
+        public static final String CONTINENT = "continent";
+
+        private final Map<String,Map<String,Integer>> rowsByTypeAndName = new HashMap<>();
+        public String[] name = new String[0];
+        public String[] url = new String[0];
+        public String[] type = new String[0];
+        public int[] partOf = new int[0];
+
+        /**
+         * @return row of the place of the given type, NONE if there is none
+         */
+        public int row( String type, String name )
+        {
+            Map<String,Integer> rowsByName = rowsByTypeAndName.get( type );
+            Integer row = (null == rowsByName) ? null : rowsByName.get( name );
+            return (null == row) ? NONE : row;
+        }
+
+        public void set( int row, String name, String url, String type )
+        {
+            this.name[row] = name;
+            this.url[row] = url;
+            this.type[row] = type;
+            if ( false == rowsByTypeAndName.containsKey( type ) )
+            {
+                rowsByTypeAndName.put( type, new HashMap<String,Integer>() );
+            }
+            rowsByTypeAndName.get( type ).put( name, row );
+        }
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            name = Arrays.copyOf( name, capacity );
+            url = Arrays.copyOf( url, capacity );
+            type = Arrays.copyOf( type, capacity );
+            partOf = grow( partOf, capacity );
+        }
+    }
+
+    public static class Organisations extends Table
+    {
+        public String[] type = new String[0];
+        public String[] name = new String[0];
+        public String[] url = new String[0];
+        public int[] place = new int[0];
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            type = Arrays.copyOf( type, capacity );
+            name = Arrays.copyOf( name, capacity );
+            url = Arrays.copyOf( url, capacity );
+            place = grow( place, capacity );
+        }
+    }
+
+    public static class Tags extends Table
+    {
+        private final Map<String,Integer> rowsByName = new HashMap<>();
+        public String[] name = new String[0];
+        public String[] url = new String[0];
+        public int[] tagClass = new int[0];
+
+        public int row( String name )
+        {
+            Integer row = rowsByName.get( name );
+            return (null == row) ? NONE : row;
+        }
+
+        public void set( int row, String name, String url )
+        {
+            this.name[row] = name;
+            this.url[row] = url;
+            rowsByName.put( name, row );
+        }
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            name = Arrays.copyOf( name, capacity );
+            url = Arrays.copyOf( url, capacity );
+            tagClass = grow( tagClass, capacity );
+        }
+    }
+
+    public static class TagClasses extends Table
+    {
+        private final Map<String,Integer> rowsByName = new HashMap<>();
+        public String[] name = new String[0];
+        public String[] url = new String[0];
+        public int[] parent = new int[0];
+
+        public int row( String name )
+        {
+            Integer row = rowsByName.get( name );
+            return (null == row) ? NONE : row;
+        }
+
+        public void set( int row, String name, String url )
+        {
+            this.name[row] = name;
+            this.url[row] = url;
+            rowsByName.put( name, row );
+        }
+
+        @Override
+        void grow( int capacity )
+        {
+            super.grow( capacity );
+            name = Arrays.copyOf( name, capacity );
+            url = Arrays.copyOf( url, capacity );
+            parent = grow( parent, capacity );
+        }
+    }
+}
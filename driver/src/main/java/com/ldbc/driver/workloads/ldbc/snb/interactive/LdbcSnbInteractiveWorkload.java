@@ -2,11 +2,8 @@ package com.ldbc.driver.workloads.ldbc.snb.interactive;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
-import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
-import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
 import com.ldbc.driver.ChildOperationGenerator;
 import com.ldbc.driver.Operation;
@@ -16,6 +13,7 @@ import com.ldbc.driver.WorkloadException;
 import com.ldbc.driver.WorkloadStreams;
 import com.ldbc.driver.control.ConsoleAndFileDriverConfiguration;
 import com.ldbc.driver.csv.charseeker.BufferedCharSeeker;
+import com.ldbc.driver.csv.charseeker.CharReadable;
 import com.ldbc.driver.csv.charseeker.CharSeeker;
 import com.ldbc.driver.csv.charseeker.Extractors;
 import com.ldbc.driver.csv.charseeker.Mark;
@@ -24,6 +22,7 @@ import com.ldbc.driver.csv.charseeker.ThreadAheadReadable;
 import com.ldbc.driver.csv.simple.SimpleCsvFileReader;
 import com.ldbc.driver.generator.CsvEventStreamReaderBasicCharSeeker;
 import com.ldbc.driver.generator.GeneratorFactory;
+import com.ldbc.driver.generator.OperationPipeline;
 import com.ldbc.driver.generator.RandomDataGeneratorFactory;
 import com.ldbc.driver.util.ClassLoaderHelper;
 import com.ldbc.driver.util.ClassLoadingException;
@@ -34,10 +33,9 @@ import org.apache.commons.collections4.Equator;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 
+import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
@@ -48,7 +46,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -429,11 +426,19 @@ public class LdbcSnbInteractiveWorkload extends Workload
     private Tuple2<Iterator<Operation>,Closeable> fileToWriteStreamParser( File updateOperationsFile,
             LdbcSnbInteractiveWorkloadConfiguration.UpdateStreamParser parser ) throws IOException, WorkloadException
     {
+        if ( updateOperationsFile.getName().endsWith( LdbcSnbInteractiveWorkloadConfiguration.BINARY_UPDATE_SUFFIX ) )
+        {
+            // binary streams have a single reader, whatever the parser
+            WriteEventStreamReaderBinary binaryReader = new WriteEventStreamReaderBinary( updateOperationsFile );
+            return Tuple.<Iterator<Operation>,Closeable>tuple2( binaryReader, binaryReader );
+        }
         switch ( parser )
         {
         case REGEX:
         {
-            SimpleCsvFileReader csvFileReader = new SimpleCsvFileReader( updateOperationsFile,
+            SimpleCsvFileReader csvFileReader = new SimpleCsvFileReader(
+                    new BufferedReader( new InputStreamReader( Readables.inputStream( updateOperationsFile ),
+                            Charsets.UTF_8 ) ),
                     SimpleCsvFileReader.DEFAULT_COLUMN_SEPARATOR_REGEX_STRING );
             return Tuple.<Iterator<Operation>,Closeable>tuple2( WriteEventStreamReaderRegex.create( csvFileReader ),
                     csvFileReader );
@@ -441,14 +446,7 @@ public class LdbcSnbInteractiveWorkload extends Workload
         case CHAR_SEEKER:
         {
             int bufferSize = 1 * 1024 * 1024;
-//                BufferedCharSeeker charSeeker = new BufferedCharSeeker(Readables.wrap(new FileReader
-// (updateOperationsFile)), bufferSize);
-            BufferedCharSeeker charSeeker = new BufferedCharSeeker(
-                    Readables.wrap(
-                            new InputStreamReader( new FileInputStream( updateOperationsFile ), Charsets.UTF_8 )
-                    ),
-                    bufferSize
-            );
+            BufferedCharSeeker charSeeker = new BufferedCharSeeker( Readables.file( updateOperationsFile ), bufferSize );
             Extractors extractors = new Extractors( ';', ',' );
             return Tuple.<Iterator<Operation>,Closeable>tuple2(
                     WriteEventStreamReaderCharSeeker.create( charSeeker, extractors, '|' ), charSeeker );
@@ -456,21 +454,21 @@ public class LdbcSnbInteractiveWorkload extends Workload
         case CHAR_SEEKER_THREAD:
         {
             int bufferSize = 1 * 1024 * 1024;
-            BufferedCharSeeker charSeeker = new BufferedCharSeeker(
-                    ThreadAheadReadable.threadAhead(
-                            Readables.wrap(
-                                    new InputStreamReader( new FileInputStream( updateOperationsFile ), Charsets.UTF_8 )
-                            ),
-                            bufferSize
-                    ),
-                    bufferSize
-            );
+            CharReadable readable = Readables.file( updateOperationsFile );
+            if ( false == readable instanceof ThreadAheadReadable )
+            {
+                // gzip streams are already decompressed ahead, on a thread of their own
+                readable = ThreadAheadReadable.threadAhead( readable, bufferSize );
+            }
+            BufferedCharSeeker charSeeker = new BufferedCharSeeker( readable, bufferSize );
             Extractors extractors = new Extractors( ';', ',' );
             return Tuple.<Iterator<Operation>,Closeable>tuple2(
                     WriteEventStreamReaderCharSeeker.create( charSeeker, extractors, '|' ), charSeeker );
         }
         }
-        SimpleCsvFileReader csvFileReader = new SimpleCsvFileReader( updateOperationsFile,
+        SimpleCsvFileReader csvFileReader = new SimpleCsvFileReader(
+                new BufferedReader( new InputStreamReader( Readables.inputStream( updateOperationsFile ),
+                        Charsets.UTF_8 ) ),
                 SimpleCsvFileReader.DEFAULT_COLUMN_SEPARATOR_REGEX_STRING );
         return Tuple.<Iterator<Operation>,Closeable>tuple2( WriteEventStreamReaderRegex.create( csvFileReader ),
                 csvFileReader );
@@ -530,33 +528,18 @@ public class LdbcSnbInteractiveWorkload extends Workload
                     );
                     continue;
                 }
-                PeekingIterator<Operation> unfilteredPersonUpdateOperations =
-                        Iterators.peekingIterator( personUpdateOperationsParser );
+                OperationPipeline personUpdateOperations = gf.operationPipeline( personUpdateOperationsParser );
 
-                try
+                Operation firstPersonUpdateOperation = personUpdateOperations.peek();
+                if ( null != firstPersonUpdateOperation &&
+                     firstPersonUpdateOperation.scheduledStartTimeAsMilli() < workloadStartTimeAsMilli )
                 {
-                    if ( unfilteredPersonUpdateOperations.peek().scheduledStartTimeAsMilli() <
-                         workloadStartTimeAsMilli )
-                    {
-                        workloadStartTimeAsMilli = unfilteredPersonUpdateOperations.peek().scheduledStartTimeAsMilli();
-                    }
-                }
-                catch ( NoSuchElementException e )
-                {
-                    // do nothing, exception just means that stream was empty
+                    workloadStartTimeAsMilli = firstPersonUpdateOperation.scheduledStartTimeAsMilli();
                 }
 
                 // Filter Write Operations
-                Predicate<Operation> enabledWriteOperationsFilter = new Predicate<Operation>()
-                {
-                    @Override
-                    public boolean apply( Operation operation )
-                    {
-                        return enabledWriteOperationTypes.contains( operation.getClass() );
-                    }
-                };
                 Iterator<Operation> filteredPersonUpdateOperations =
-                        Iterators.filter( unfilteredPersonUpdateOperations, enabledWriteOperationsFilter );
+                        personUpdateOperations.filter( enabledWriteOperationTypes );
 
                 Set<Class<? extends Operation>> dependentPersonUpdateOperationTypes = Sets.newHashSet();
                 Set<Class<? extends Operation>> dependencyPersonUpdateOperationTypes =
@@ -618,32 +601,18 @@ public class LdbcSnbInteractiveWorkload extends Workload
                     );
                     continue;
                 }
-                PeekingIterator<Operation> unfilteredForumUpdateOperations =
-                        Iterators.peekingIterator( forumUpdateOperationsParser );
+                OperationPipeline forumUpdateOperations = gf.operationPipeline( forumUpdateOperationsParser );
 
-                try
-                {
-                    if ( unfilteredForumUpdateOperations.peek().scheduledStartTimeAsMilli() < workloadStartTimeAsMilli )
-                    {
-                        workloadStartTimeAsMilli = unfilteredForumUpdateOperations.peek().scheduledStartTimeAsMilli();
-                    }
-                }
-                catch ( NoSuchElementException e )
+                Operation firstForumUpdateOperation = forumUpdateOperations.peek();
+                if ( null != firstForumUpdateOperation &&
+                     firstForumUpdateOperation.scheduledStartTimeAsMilli() < workloadStartTimeAsMilli )
                 {
-                    // do nothing, exception just means that stream was empty
+                    workloadStartTimeAsMilli = firstForumUpdateOperation.scheduledStartTimeAsMilli();
                 }
 
                 // Filter Write Operations
-                Predicate<Operation> enabledWriteOperationsFilter = new Predicate<Operation>()
-                {
-                    @Override
-                    public boolean apply( Operation operation )
-                    {
-                        return enabledWriteOperationTypes.contains( operation.getClass() );
-                    }
-                };
                 Iterator<Operation> filteredForumUpdateOperations =
-                        Iterators.filter( unfilteredForumUpdateOperations, enabledWriteOperationsFilter );
+                        forumUpdateOperations.filter( enabledWriteOperationTypes );
 
                 Set<Class<? extends Operation>> dependentForumUpdateOperationTypes =
                         Sets.<Class<? extends Operation>>newHashSet(
@@ -697,13 +666,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation1File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation1File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation1File.getAbsolutePath() ),
@@ -755,13 +722,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation2File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation2File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation2File.getAbsolutePath() ),
@@ -813,13 +778,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation3File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation3File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation3File.getAbsolutePath() ),
@@ -874,13 +837,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation4File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation4File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation4File.getAbsolutePath() ),
@@ -933,13 +894,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation5File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation5File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation5File.getAbsolutePath() ),
@@ -991,13 +950,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation6File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation6File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation6File.getAbsolutePath() ),
@@ -1049,13 +1006,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation7File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation7File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation7File.getAbsolutePath() ),
@@ -1106,13 +1061,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation8File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation8File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation8File.getAbsolutePath() ),
@@ -1163,13 +1116,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation9File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation9File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation9File.getAbsolutePath() ),
@@ -1221,13 +1172,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation10File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation10File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation10File.getAbsolutePath() ),
@@ -1279,13 +1228,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation11File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation11File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation11File.getAbsolutePath() ),
@@ -1338,13 +1285,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation12File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation12File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation12File.getAbsolutePath() ),
@@ -1396,13 +1341,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation13File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation13File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation13File.getAbsolutePath() ),
@@ -1454,13 +1397,11 @@ public class LdbcSnbInteractiveWorkload extends Workload
             try
             {
                 charSeeker = new BufferedCharSeeker(
-                        Readables.wrap(
-                                new InputStreamReader( new FileInputStream( readOperation14File ), Charsets.UTF_8 )
-                        ),
+                        Readables.file( readOperation14File ),
                         bufferSize
                 );
             }
-            catch ( FileNotFoundException e )
+            catch ( IOException e )
             {
                 throw new WorkloadException(
                         format( "Unable to open parameters file: %s", readOperation14File.getAbsolutePath() ),
@@ -45,6 +45,10 @@ public class LdbcSnbInteractiveWorkloadConfiguration
         CHAR_SEEKER_THREAD
     }
 
+    // Extension of the binary update streams, read by WriteEventStreamReaderBinary
+    public final static String BINARY_UPDATE_SUFFIX = ".bin";
+    public final static String COMPRESSED_UPDATE_SUFFIX = ".csv.gz";
+
     public final static String UPDATE_STREAM_PARSER = LDBC_SNB_INTERACTIVE_PARAM_NAME_PREFIX + "update_parser";
     public final static UpdateStreamParser DEFAULT_UPDATE_STREAM_PARSER = UpdateStreamParser.CHAR_SEEKER;
     public final static String LDBC_INTERACTIVE_PACKAGE_PREFIX =
@@ -519,11 +523,25 @@ public class LdbcSnbInteractiveWorkloadConfiguration
 
     public static List<File> forumUpdateFilesInDirectory( File directory )
     {
-        return FileUtils.filesWithSuffixInDirectory( directory, "_forum.csv" );
+        return updateFilesInDirectory( directory, "_forum" );
     }
 
     public static List<File> personUpdateFilesInDirectory( File directory )
     {
-        return FileUtils.filesWithSuffixInDirectory( directory, "_person.csv" );
+        return updateFilesInDirectory( directory, "_person" );
+    }
+
+    /**
+     * csv update streams, gzipped or not, or the binary ones when the directory holds no csv stream of that type
+     */
+    private static List<File> updateFilesInDirectory( File directory, String streamTypeSuffix )
+    {
+        List<File> files = FileUtils.filesWithSuffixInDirectory( directory, streamTypeSuffix + ".csv" );
+        files.addAll( FileUtils.filesWithSuffixInDirectory( directory, streamTypeSuffix + COMPRESSED_UPDATE_SUFFIX ) );
+        if ( files.isEmpty() )
+        {
+            files = FileUtils.filesWithSuffixInDirectory( directory, streamTypeSuffix + BINARY_UPDATE_SUFFIX );
+        }
+        return files;
     }
 }
@@ -0,0 +1,479 @@
+package com.ldbc.driver.workloads.ldbc.snb.interactive;
+
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.generator.GeneratorException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.lang.String.format;
+
+/**
+ * Reader of the binary update streams written by the datagen UpdateStreamSorter (updateStream_*_person.bin and
+ * updateStream_*_forum.bin), sorted by date like the csv streams.
+ * <p>
+ * file  := "LDBCUPD1" event*
+ * event := long:date long:dependantDate int:type int:numFields (int:length byte[length])[numFields]   (UTF-8 fields)
+ * <p>
+ * Fields have the format of the csv columns. The file is memory mapped, one window at a time, and every event is
+ * decoded straight from the window into its update operation: numbers, dates and lists of numbers are parsed from the
+ * bytes of their fields, only text fields become strings. Fields beyond those an operation needs are skipped.
+ */
+public class WriteEventStreamReaderBinary implements Iterator<Operation>, Closeable
+{
+    public static final byte[] MAGIC = "LDBCUPD1".getBytes( StandardCharsets.US_ASCII );
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int ADD_PERSON = 1;
+    private static final int ADD_LIKE_POST = 2;
+    private static final int ADD_LIKE_COMMENT = 3;
+    private static final int ADD_FORUM = 4;
+    private static final int ADD_FORUM_MEMBERSHIP = 5;
+    private static final int ADD_POST = 6;
+    private static final int ADD_COMMENT = 7;
+    private static final int ADD_FRIENDSHIP = 8;
+    // fields each event type needs, by type
+    private static final int[] FIELD_COUNTS = {-1, 14, 3, 3, 5, 3, 15, 15, 3};
+    private static final byte COLLECTION_SEPARATOR = ';';
+    private static final byte TUPLE_SEPARATOR = ',';
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private byte[] bytes = new byte[256];
+    // end of the field being decoded, as window position
+    private int fieldEnd;
+
+    public WriteEventStreamReaderBinary( File file ) throws IOException
+    {
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile( file, "r" );
+        this.channel = randomAccessFile.getChannel();
+        this.size = channel.size();
+        map( 0, MAGIC.length );
+        byte[] magic = new byte[MAGIC.length];
+        if ( size >= MAGIC.length )
+        {
+            window.get( magic );
+        }
+        if ( false == Arrays.equals( magic, MAGIC ) )
+        {
+            close();
+            throw new IOException( format( "Not a binary update stream: %s", file.getAbsolutePath() ) );
+        }
+    }
+
+    private void map( long start, int minimumLength ) throws IOException
+    {
+        long length = Math.min( size - start, Math.max( WINDOW_SIZE, minimumLength ) );
+        window = channel.map( FileChannel.MapMode.READ_ONLY, start, length );
+        windowStart = start;
+    }
+
+    /**
+     * Makes the next n bytes available in the window
+     */
+    private void ensure( int n ) throws IOException
+    {
+        if ( window.remaining() < n )
+        {
+            long position = windowStart + window.position();
+            if ( size - position < n )
+            {
+                throw new GeneratorException( format( "Truncated binary update stream: %s", file.getAbsolutePath() ) );
+            }
+            map( position, n );
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return windowStart + window.position() < size;
+    }
+
+    @Override
+    public Operation next()
+    {
+        if ( false == hasNext() )
+        {
+            throw new NoSuchElementException();
+        }
+        try
+        {
+            ensure( 24 );
+            long date = window.getLong();
+            long dependantDate = window.getLong();
+            int type = window.getInt();
+            int numFields = window.getInt();
+            if ( type < ADD_PERSON || type > ADD_FRIENDSHIP )
+            {
+                throw new GeneratorException(
+                        format( "Unknown event type %s in binary update stream: %s", type, file.getAbsolutePath() ) );
+            }
+            if ( numFields < FIELD_COUNTS[type] )
+            {
+                throw new GeneratorException( format( "Event of type %s has %s fields, expected %s: %s",
+                        type, numFields, FIELD_COUNTS[type], file.getAbsolutePath() ) );
+            }
+            Operation operation;
+            switch ( type )
+            {
+            case ADD_PERSON:
+                operation = decodeAddPerson();
+                break;
+            case ADD_LIKE_POST:
+                operation = decodeAddLikePost();
+                break;
+            case ADD_LIKE_COMMENT:
+                operation = decodeAddLikeComment();
+                break;
+            case ADD_FORUM:
+                operation = decodeAddForum();
+                break;
+            case ADD_FORUM_MEMBERSHIP:
+                operation = decodeAddForumMembership();
+                break;
+            case ADD_POST:
+                operation = decodeAddPost();
+                break;
+            case ADD_COMMENT:
+                operation = decodeAddComment();
+                break;
+            default:
+                operation = decodeAddFriendship();
+                break;
+            }
+            for ( int i = FIELD_COUNTS[type]; i < numFields; i++ )
+            {
+                beginField();
+                window.position( fieldEnd );
+            }
+            operation.setScheduledStartTimeAsMilli( date );
+            operation.setTimeStamp( date );
+            operation.setDependencyTimeStamp( dependantDate );
+            return operation;
+        }
+        catch ( IOException e )
+        {
+            throw new GeneratorException( format( "Error reading binary update stream: %s", file.getAbsolutePath() ),
+                    e );
+        }
+    }
+
+    private Operation decodeAddPerson() throws IOException
+    {
+        long personId = readLong();
+        String firstName = readString();
+        String lastName = readString();
+        String gender = readString();
+        Date birthday = readDate();
+        Date creationDate = readDate();
+        String locationIp = readString();
+        String browserUsed = readString();
+        long cityId = readLong();
+        List<String> languages = readStrings();
+        List<String> emails = readStrings();
+        List<Long> tagIds = readLongs();
+        List<LdbcUpdate1AddPerson.Organization> studyAts = readOrganizations();
+        List<LdbcUpdate1AddPerson.Organization> workAts = readOrganizations();
+        return new LdbcUpdate1AddPerson(
+                personId,
+                firstName,
+                lastName,
+                gender,
+                birthday,
+                creationDate,
+                locationIp,
+                browserUsed,
+                cityId,
+                languages,
+                emails,
+                tagIds,
+                studyAts,
+                workAts );
+    }
+
+    private Operation decodeAddLikePost() throws IOException
+    {
+        long personId = readLong();
+        long postId = readLong();
+        Date creationDate = readDate();
+        return new LdbcUpdate2AddPostLike( personId, postId, creationDate );
+    }
+
+    private Operation decodeAddLikeComment() throws IOException
+    {
+        long personId = readLong();
+        long commentId = readLong();
+        Date creationDate = readDate();
+        return new LdbcUpdate3AddCommentLike( personId, commentId, creationDate );
+    }
+
+    private Operation decodeAddForum() throws IOException
+    {
+        long forumId = readLong();
+        String forumTitle = readString();
+        Date creationDate = readDate();
+        long moderatorPersonId = readLong();
+        List<Long> tagIds = readLongs();
+        return new LdbcUpdate4AddForum( forumId, forumTitle, creationDate, moderatorPersonId, tagIds );
+    }
+
+    private Operation decodeAddForumMembership() throws IOException
+    {
+        long forumId = readLong();
+        long personId = readLong();
+        Date creationDate = readDate();
+        return new LdbcUpdate5AddForumMembership( forumId, personId, creationDate );
+    }
+
+    private Operation decodeAddPost() throws IOException
+    {
+        long postId = readLong();
+        String imageFile = readString();
+        Date creationDate = readDate();
+        String locationIp = readString();
+        String browserUsed = readString();
+        String language = readString();
+        String content = readString();
+        int length = (int) readLong();
+        long authorPersonId = readLong();
+        long forumId = readLong();
+        long countryId = readLong();
+        List<Long> tagIds = readLongs();
+        List<Long> mentionedIds = readLongs();
+        Boolean privacy = Boolean.parseBoolean( readString() );
+        String link = readString();
+        return new LdbcUpdate6AddPost(
+                postId,
+                imageFile,
+                creationDate,
+                locationIp,
+                browserUsed,
+                language,
+                content,
+                length,
+                authorPersonId,
+                forumId,
+                countryId,
+                tagIds,
+                mentionedIds,
+                privacy,
+                link );
+    }
+
+    private Operation decodeAddComment() throws IOException
+    {
+        long commentId = readLong();
+        Date creationDate = readDate();
+        String locationIp = readString();
+        String browserUsed = readString();
+        String content = readString();
+        int length = (int) readLong();
+        long authorPersonId = readLong();
+        long countryId = readLong();
+        long replyOfPostId = readLong();
+        long replyOfCommentId = readLong();
+        List<Long> tagIds = readLongs();
+        List<Long> mentionedIds = readLongs();
+        Boolean privacy = Boolean.parseBoolean( readString() );
+        String link = readString();
+        String gif = readString();
+        return new LdbcUpdate7AddComment(
+                commentId,
+                creationDate,
+                locationIp,
+                browserUsed,
+                content,
+                length,
+                authorPersonId,
+                countryId,
+                replyOfPostId,
+                replyOfCommentId,
+                tagIds,
+                mentionedIds,
+                privacy,
+                link,
+                gif );
+    }
+
+    private Operation decodeAddFriendship() throws IOException
+    {
+        long person1Id = readLong();
+        long person2Id = readLong();
+        Date creationDate = readDate();
+        return new LdbcUpdate8AddFriendship( person1Id, person2Id, creationDate );
+    }
+
+    /**
+     * Makes the next field available in the window, from its position to fieldEnd
+     */
+    private void beginField() throws IOException
+    {
+        ensure( 4 );
+        int length = window.getInt();
+        ensure( length );
+        fieldEnd = window.position() + length;
+    }
+
+    private String readString() throws IOException
+    {
+        beginField();
+        return decodeString( fieldEnd );
+    }
+
+    private long readLong() throws IOException
+    {
+        beginField();
+        return decodeLong( fieldEnd );
+    }
+
+    private Date readDate() throws IOException
+    {
+        return new Date( readLong() );
+    }
+
+    private List<String> readStrings() throws IOException
+    {
+        beginField();
+        List<String> values = new ArrayList<>();
+        while ( window.position() < fieldEnd )
+        {
+            values.add( decodeString( indexOf( COLLECTION_SEPARATOR ) ) );
+            skipSeparator();
+        }
+        return values;
+    }
+
+    private List<Long> readLongs() throws IOException
+    {
+        beginField();
+        List<Long> values = new ArrayList<>();
+        while ( window.position() < fieldEnd )
+        {
+            values.add( decodeLong( indexOf( COLLECTION_SEPARATOR ) ) );
+            skipSeparator();
+        }
+        return values;
+    }
+
+    private List<LdbcUpdate1AddPerson.Organization> readOrganizations() throws IOException
+    {
+        beginField();
+        List<LdbcUpdate1AddPerson.Organization> organizations = new ArrayList<>();
+        while ( window.position() < fieldEnd )
+        {
+            int organizationEnd = indexOf( COLLECTION_SEPARATOR );
+            long organizationId = decodeLong( indexOf( TUPLE_SEPARATOR ) );
+            if ( window.position() == organizationEnd )
+            {
+                throw malformedField();
+            }
+            window.position( window.position() + 1 );
+            int year = (int) decodeLong( organizationEnd );
+            organizations.add( new LdbcUpdate1AddPerson.Organization( organizationId, year ) );
+            skipSeparator();
+        }
+        return organizations;
+    }
+
+    /**
+     * @return window position of the first separator from the current position on, or fieldEnd if there is none
+     */
+    private int indexOf( byte separator )
+    {
+        for ( int i = window.position(); i < fieldEnd; i++ )
+        {
+            if ( separator == window.get( i ) )
+            {
+                return i;
+            }
+        }
+        return fieldEnd;
+    }
+
+    private void skipSeparator()
+    {
+        if ( window.position() < fieldEnd )
+        {
+            window.position( window.position() + 1 );
+        }
+    }
+
+    private String decodeString( int end )
+    {
+        int length = end - window.position();
+        if ( length > bytes.length )
+        {
+            bytes = new byte[Math.max( length, bytes.length * 2 )];
+        }
+        window.get( bytes, 0, length );
+        return new String( bytes, 0, length, StandardCharsets.UTF_8 );
+    }
+
+    private long decodeLong( int end )
+    {
+        int i = window.position();
+        boolean negative = i < end && '-' == window.get( i );
+        if ( negative )
+        {
+            i++;
+        }
+        if ( i == end )
+        {
+            throw malformedField();
+        }
+        long value = 0;
+        for ( ; i < end; i++ )
+        {
+            int digit = window.get( i ) - '0';
+            if ( digit < 0 || digit > 9 )
+            {
+                throw malformedField();
+            }
+            value = value * 10 + digit;
+        }
+        window.position( end );
+        return (negative) ? -value : value;
+    }
+
+    private GeneratorException malformedField()
+    {
+        int start = window.position();
+        byte[] field = new byte[fieldEnd - start];
+        for ( int i = 0; i < field.length; i++ )
+        {
+            field[i] = window.get( start + i );
+        }
+        return new GeneratorException( format( "Malformed field '%s' in binary update stream: %s",
+                new String( field, StandardCharsets.UTF_8 ), file.getAbsolutePath() ) );
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+        randomAccessFile.close();
+    }
+}
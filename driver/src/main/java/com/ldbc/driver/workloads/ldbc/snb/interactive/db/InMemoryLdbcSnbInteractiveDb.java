@@ -0,0 +1,1962 @@
+package com.ldbc.driver.workloads.ldbc.snb.interactive.db;
+
+import com.ldbc.driver.Db;
+import com.ldbc.driver.DbConnectionState;
+import com.ldbc.driver.DbException;
+import com.ldbc.driver.OperationHandler;
+import com.ldbc.driver.ResultReporter;
+import com.ldbc.driver.control.LoggingService;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.Adjacency;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.LongIntHashMap;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.SnbCsvLoader;
+import com.ldbc.driver.workloads.ldbc.snb.inmemory.SnbGraph;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery1;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery10;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery10Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery11;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery11Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery12;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery12Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery13;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery13Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery14;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery14Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery1Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery2;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery2Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery3;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery3Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery4;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery4Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery5;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery5Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery6;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery6Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery7;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery7Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery8;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery8Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery9;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery9Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery1PersonProfile;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery1PersonProfileResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery2PersonPosts;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery2PersonPostsResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery3PersonFriends;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery3PersonFriendsResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery4MessageContent;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery4MessageContentResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery5MessageCreator;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery5MessageCreatorResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery6MessageForum;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery6MessageForumResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery7MessageReplies;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery7MessageRepliesResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate1AddPerson;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate2AddPostLike;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate3AddCommentLike;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate4AddForum;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate5AddForumMembership;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate6AddPost;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate7AddComment;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate8AddFriendship;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
+/**
+ * Reference implementation of the SNB Interactive workload that executes every operation against an in-memory copy
+ * of a datagen data set, loaded from the basic CSV format by {@link SnbCsvLoader}.
+ * <p>
+ * It is fast enough to measure the overheads of the driver itself at high throughput, and can be used to create
+ * validation parameters independently of any other system.
+ * <p>
+ * Reads run concurrently, updates exclude all other operations.
+ */
+public class InMemoryLdbcSnbInteractiveDb extends Db
+{
+    public static final String DATA_DIRECTORY_ARG = "ldbc.snb.interactive.db.in_memory.data_dir";
+
+    private static final int QUERY_13_LIMIT = 20;
+    private static final int QUERY_14_LIMIT = 20;
+    private static final long DAY_AS_MILLI = 24 * 60 * 60 * 1000L;
+    private static final long MINUTE_AS_MILLI = 60 * 1000L;
+
+    static class InMemoryDbConnectionState extends DbConnectionState
+    {
+        private final SnbGraph graph;
+
+        private InMemoryDbConnectionState( SnbGraph graph )
+        {
+            this.graph = graph;
+        }
+
+        SnbGraph graph()
+        {
+            return graph;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+        }
+    }
+
+    private InMemoryDbConnectionState connectionState = null;
+
+    @Override
+    protected void onInit( Map<String,String> params, LoggingService loggingService ) throws DbException
+    {
+        String dataDirectoryPath = params.get( DATA_DIRECTORY_ARG );
+        if ( null == dataDirectoryPath )
+        {
+            throw new DbException( format( "Missing parameter: %s", DATA_DIRECTORY_ARG ) );
+        }
+        long startTimeAsMilli = System.currentTimeMillis();
+        SnbGraph graph;
+        try
+        {
+            graph = SnbCsvLoader.load( new File( dataDirectoryPath ) );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            throw new DbException( format( "Error loading data set from: %s", dataDirectoryPath ), e );
+        }
+        loggingService.info( format( "Loaded %s persons, %s messages, %s forums in %s ms",
+                graph.persons.count(), graph.messages.count(), graph.forums.count(),
+                System.currentTimeMillis() - startTimeAsMilli ) );
+        connectionState = new InMemoryDbConnectionState( graph );
+
+        registerOperationHandler( LdbcQuery1.class, LdbcQuery1Handler.class );
+        registerOperationHandler( LdbcQuery2.class, LdbcQuery2Handler.class );
+        registerOperationHandler( LdbcQuery3.class, LdbcQuery3Handler.class );
+        registerOperationHandler( LdbcQuery4.class, LdbcQuery4Handler.class );
+        registerOperationHandler( LdbcQuery5.class, LdbcQuery5Handler.class );
+        registerOperationHandler( LdbcQuery6.class, LdbcQuery6Handler.class );
+        registerOperationHandler( LdbcQuery7.class, LdbcQuery7Handler.class );
+        registerOperationHandler( LdbcQuery8.class, LdbcQuery8Handler.class );
+        registerOperationHandler( LdbcQuery9.class, LdbcQuery9Handler.class );
+        registerOperationHandler( LdbcQuery10.class, LdbcQuery10Handler.class );
+        registerOperationHandler( LdbcQuery11.class, LdbcQuery11Handler.class );
+        registerOperationHandler( LdbcQuery12.class, LdbcQuery12Handler.class );
+        registerOperationHandler( LdbcQuery13.class, LdbcQuery13Handler.class );
+        registerOperationHandler( LdbcQuery14.class, LdbcQuery14Handler.class );
+
+        registerOperationHandler( LdbcShortQuery1PersonProfile.class, LdbcShortQuery1PersonProfileHandler.class );
+        registerOperationHandler( LdbcShortQuery2PersonPosts.class, LdbcShortQuery2PersonPostsHandler.class );
+        registerOperationHandler( LdbcShortQuery3PersonFriends.class, LdbcShortQuery3PersonFriendsHandler.class );
+        registerOperationHandler( LdbcShortQuery4MessageContent.class, LdbcShortQuery4MessageContentHandler.class );
+        registerOperationHandler( LdbcShortQuery5MessageCreator.class, LdbcShortQuery5MessageCreatorHandler.class );
+        registerOperationHandler( LdbcShortQuery6MessageForum.class, LdbcShortQuery6MessageForumHandler.class );
+        registerOperationHandler( LdbcShortQuery7MessageReplies.class, LdbcShortQuery7MessageRepliesHandler.class );
+
+        registerOperationHandler( LdbcUpdate1AddPerson.class, LdbcUpdate1AddPersonHandler.class );
+        registerOperationHandler( LdbcUpdate2AddPostLike.class, LdbcUpdate2AddPostLikeHandler.class );
+        registerOperationHandler( LdbcUpdate3AddCommentLike.class, LdbcUpdate3AddCommentLikeHandler.class );
+        registerOperationHandler( LdbcUpdate4AddForum.class, LdbcUpdate4AddForumHandler.class );
+        registerOperationHandler( LdbcUpdate5AddForumMembership.class, LdbcUpdate5AddForumMembershipHandler.class );
+        registerOperationHandler( LdbcUpdate6AddPost.class, LdbcUpdate6AddPostHandler.class );
+        registerOperationHandler( LdbcUpdate7AddComment.class, LdbcUpdate7AddCommentHandler.class );
+        registerOperationHandler( LdbcUpdate8AddFriendship.class, LdbcUpdate8AddFriendshipHandler.class );
+    }
+
+    @Override
+    protected void onClose() throws IOException
+    {
+        connectionState = null;
+    }
+
+    @Override
+    protected DbConnectionState getConnectionState() throws DbException
+    {
+        return connectionState;
+    }
+
+    /*
+    HELPERS
+     */
+
+    /**
+     * Keeps the k smallest of the added elements, by the order of the comparator.
+     */
+    private static class TopK<T>
+    {
+        private final int k;
+        private final Comparator<T> comparator;
+        private final PriorityQueue<T> worstFirst;
+
+        private TopK( int k, Comparator<T> comparator )
+        {
+            this.k = k;
+            this.comparator = comparator;
+            this.worstFirst = new PriorityQueue<>( Math.max( 1, k ), Collections.reverseOrder( comparator ) );
+        }
+
+        private void add( T element )
+        {
+            if ( worstFirst.size() < k )
+            {
+                worstFirst.add( element );
+            }
+            else if ( k > 0 && comparator.compare( element, worstFirst.peek() ) < 0 )
+            {
+                worstFirst.poll();
+                worstFirst.add( element );
+            }
+        }
+
+        private List<T> sorted()
+        {
+            List<T> sorted = new ArrayList<>( worstFirst );
+            Collections.sort( sorted, comparator );
+            return sorted;
+        }
+    }
+
+    /**
+     * Orders messages by descending creation date, then by ascending identifier.
+     */
+    private static Comparator<Integer> newestMessagesFirst( final SnbGraph graph )
+    {
+        return new Comparator<Integer>()
+        {
+            @Override
+            public int compare( Integer message1, Integer message2 )
+            {
+                int byCreationDate = Long.compare( graph.messages.creationDate[message2],
+                        graph.messages.creationDate[message1] );
+                return (0 != byCreationDate)
+                       ? byCreationDate
+                       : Long.compare( graph.messages.id[message1], graph.messages.id[message2] );
+            }
+        };
+    }
+
+    private static <T> Comparator<Map.Entry<T,int[]>> byCountDescending( final Comparator<T> thenByKey )
+    {
+        return new Comparator<Map.Entry<T,int[]>>()
+        {
+            @Override
+            public int compare( Map.Entry<T,int[]> entry1, Map.Entry<T,int[]> entry2 )
+            {
+                int byCount = Integer.compare( entry2.getValue()[0], entry1.getValue()[0] );
+                return (0 != byCount) ? byCount : thenByKey.compare( entry1.getKey(), entry2.getKey() );
+            }
+        };
+    }
+
+    private static <T> void increment( Map<T,int[]> counts, T key )
+    {
+        int[] count = counts.get( key );
+        if ( null == count )
+        {
+            counts.put( key, new int[]{1} );
+        }
+        else
+        {
+            count[0]++;
+        }
+    }
+
+    private static int[] targets( Adjacency adjacency, int source )
+    {
+        int degree = adjacency.degree( source );
+        int[] targets = new int[degree];
+        for ( int i = 0; i < degree; i++ )
+        {
+            targets[i] = adjacency.target( source, i );
+        }
+        return targets;
+    }
+
+    /**
+     * @return distinct friends and friends of friends of the person, excluding the person, in ascending row order
+     */
+    private static int[] friendsAndFriendsOfFriends( SnbGraph graph, int person )
+    {
+        Adjacency knows = graph.knows;
+        int friendCount = knows.degree( person );
+        int size = friendCount;
+        for ( int i = 0; i < friendCount; i++ )
+        {
+            size += knows.degree( knows.target( person, i ) );
+        }
+        int[] persons = new int[size];
+        int position = 0;
+        for ( int i = 0; i < friendCount; i++ )
+        {
+            int friend = knows.target( person, i );
+            persons[position++] = friend;
+            int friendOfFriendCount = knows.degree( friend );
+            for ( int j = 0; j < friendOfFriendCount; j++ )
+            {
+                persons[position++] = knows.target( friend, j );
+            }
+        }
+        Arrays.sort( persons );
+        int distinctCount = 0;
+        for ( int i = 0; i < persons.length; i++ )
+        {
+            if ( persons[i] != person && (0 == distinctCount || persons[i] != persons[distinctCount - 1]) )
+            {
+                persons[distinctCount++] = persons[i];
+            }
+        }
+        return Arrays.copyOf( persons, distinctCount );
+    }
+
+    private static String placeName( SnbGraph graph, int place )
+    {
+        return (SnbGraph.NONE == place) ? null : graph.places.name[place];
+    }
+
+    private static long placeId( SnbGraph graph, int place )
+    {
+        return (SnbGraph.NONE == place) ? -1 : graph.places.id[place];
+    }
+
+    private static int personRow( SnbGraph graph, long personId ) throws DbException
+    {
+        int person = graph.persons.row( personId );
+        if ( SnbGraph.NONE == person )
+        {
+            throw new DbException( format( "Person not found: %s", personId ) );
+        }
+        return person;
+    }
+
+    private static int messageRow( SnbGraph graph, long messageId ) throws DbException
+    {
+        int message = graph.messages.row( messageId );
+        if ( SnbGraph.NONE == message )
+        {
+            throw new DbException( format( "Message not found: %s", messageId ) );
+        }
+        return message;
+    }
+
+    private static int forumRow( SnbGraph graph, long forumId ) throws DbException
+    {
+        int forum = graph.forums.row( forumId );
+        if ( SnbGraph.NONE == forum )
+        {
+            throw new DbException( format( "Forum not found: %s", forumId ) );
+        }
+        return forum;
+    }
+
+    private static int tagRow( SnbGraph graph, long tagId ) throws DbException
+    {
+        int tag = graph.tags.row( tagId );
+        if ( SnbGraph.NONE == tag )
+        {
+            throw new DbException( format( "Tag not found: %s", tagId ) );
+        }
+        return tag;
+    }
+
+    private static int placeRow( SnbGraph graph, long placeId ) throws DbException
+    {
+        int place = graph.places.row( placeId );
+        if ( SnbGraph.NONE == place )
+        {
+            throw new DbException( format( "Place not found: %s", placeId ) );
+        }
+        return place;
+    }
+
+    private static int organisationRow( SnbGraph graph, long organisationId ) throws DbException
+    {
+        int organisation = graph.organisations.row( organisationId );
+        if ( SnbGraph.NONE == organisation )
+        {
+            throw new DbException( format( "Organisation not found: %s", organisationId ) );
+        }
+        return organisation;
+    }
+
+    /*
+    LONG READS
+     */
+
+    public static class LdbcQuery1Handler implements OperationHandler<LdbcQuery1,InMemoryDbConnectionState>
+    {
+        private static final int MAX_DISTANCE = 3;
+
+        @Override
+        public void executeOperation( LdbcQuery1 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery1Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    final LongIntHashMap distances = new LongIntHashMap( 1024 );
+                    distances.put( person, 0 );
+                    TopK<Integer> friends = new TopK<>( operation.limit(), new Comparator<Integer>()
+                    {
+                        @Override
+                        public int compare( Integer friend1, Integer friend2 )
+                        {
+                            int byDistance = Integer.compare( distances.get( friend1 ), distances.get( friend2 ) );
+                            if ( 0 != byDistance )
+                            {
+                                return byDistance;
+                            }
+                            int byLastName =
+                                    graph.persons.lastName[friend1].compareTo( graph.persons.lastName[friend2] );
+                            return (0 != byLastName)
+                                   ? byLastName
+                                   : Long.compare( graph.persons.id[friend1], graph.persons.id[friend2] );
+                        }
+                    } );
+                    int[] frontier = new int[]{person};
+                    for ( int distance = 1; distance <= MAX_DISTANCE; distance++ )
+                    {
+                        int[] nextFrontier = new int[16];
+                        int nextFrontierSize = 0;
+                        for ( int source : frontier )
+                        {
+                            int degree = graph.knows.degree( source );
+                            for ( int i = 0; i < degree; i++ )
+                            {
+                                int friend = graph.knows.target( source, i );
+                                if ( distances.containsKey( friend ) )
+                                {
+                                    continue;
+                                }
+                                distances.put( friend, distance );
+                                if ( nextFrontierSize == nextFrontier.length )
+                                {
+                                    nextFrontier = Arrays.copyOf( nextFrontier, nextFrontierSize << 1 );
+                                }
+                                nextFrontier[nextFrontierSize++] = friend;
+                                if ( graph.persons.firstName[friend].equals( operation.firstName() ) )
+                                {
+                                    friends.add( friend );
+                                }
+                            }
+                        }
+                        frontier = Arrays.copyOf( nextFrontier, nextFrontierSize );
+                    }
+                    for ( int friend : friends.sorted() )
+                    {
+                        results.add( query1Result( graph, friend, distances.get( friend ) ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+
+        private static LdbcQuery1Result query1Result( SnbGraph graph, int friend, int distance )
+        {
+            List<List<Object>> universities = new ArrayList<>();
+            int studyAtCount = graph.studyAt.degree( friend );
+            for ( int i = 0; i < studyAtCount; i++ )
+            {
+                int university = graph.studyAt.target( friend, i );
+                universities.add( Arrays.<Object>asList(
+                        graph.organisations.name[university],
+                        (int) graph.studyAt.property( friend, i ),
+                        placeName( graph, graph.organisations.place[university] ) ) );
+            }
+            List<List<Object>> companies = new ArrayList<>();
+            int workAtCount = graph.workAt.degree( friend );
+            for ( int i = 0; i < workAtCount; i++ )
+            {
+                int company = graph.workAt.target( friend, i );
+                companies.add( Arrays.<Object>asList(
+                        graph.organisations.name[company],
+                        (int) graph.workAt.property( friend, i ),
+                        placeName( graph, graph.organisations.place[company] ) ) );
+            }
+            return new LdbcQuery1Result(
+                    graph.persons.id[friend],
+                    graph.persons.lastName[friend],
+                    distance,
+                    graph.persons.birthday[friend],
+                    graph.persons.creationDate[friend],
+                    graph.persons.gender[friend],
+                    graph.persons.browserUsed[friend],
+                    graph.persons.locationIp[friend],
+                    new ArrayList<>( Arrays.asList( graph.persons.emails[friend] ) ),
+                    new ArrayList<>( Arrays.asList( graph.persons.languages[friend] ) ),
+                    placeName( graph, graph.persons.city[friend] ),
+                    universities,
+                    companies
+            );
+        }
+    }
+
+    public static class LdbcQuery2Handler implements OperationHandler<LdbcQuery2,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery2 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery2Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    long maxDate = operation.maxDate().getTime();
+                    TopK<Integer> messages = new TopK<>( operation.limit(), newestMessagesFirst( graph ) );
+                    int friendCount = graph.knows.degree( person );
+                    for ( int i = 0; i < friendCount; i++ )
+                    {
+                        int friend = graph.knows.target( person, i );
+                        int messageCount = graph.personMessages.degree( friend );
+                        for ( int j = 0; j < messageCount; j++ )
+                        {
+                            int message = graph.personMessages.target( friend, j );
+                            if ( graph.messages.creationDate[message] <= maxDate )
+                            {
+                                messages.add( message );
+                            }
+                        }
+                    }
+                    for ( int message : messages.sorted() )
+                    {
+                        int creator = graph.messages.creator[message];
+                        results.add( new LdbcQuery2Result(
+                                graph.persons.id[creator],
+                                graph.persons.firstName[creator],
+                                graph.persons.lastName[creator],
+                                graph.messages.id[message],
+                                graph.messageContent( message ),
+                                graph.messages.creationDate[message]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery3Handler implements OperationHandler<LdbcQuery3,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery3 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery3Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                int countryX = graph.places.row( SnbGraph.Places.COUNTRY, operation.countryXName() );
+                int countryY = graph.places.row( SnbGraph.Places.COUNTRY, operation.countryYName() );
+                if ( SnbGraph.NONE != person && SnbGraph.NONE != countryX && SnbGraph.NONE != countryY )
+                {
+                    long startDate = operation.startDate().getTime();
+                    long endDate = startDate + operation.durationDays() * DAY_AS_MILLI;
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        int country = graph.countryOf( graph.persons.city[other] );
+                        if ( country == countryX || country == countryY )
+                        {
+                            continue;
+                        }
+                        int xCount = 0;
+                        int yCount = 0;
+                        int messageCount = graph.personMessages.degree( other );
+                        for ( int i = 0; i < messageCount; i++ )
+                        {
+                            int message = graph.personMessages.target( other, i );
+                            long creationDate = graph.messages.creationDate[message];
+                            if ( creationDate >= startDate && creationDate < endDate )
+                            {
+                                if ( graph.messages.country[message] == countryX )
+                                {
+                                    xCount++;
+                                }
+                                else if ( graph.messages.country[message] == countryY )
+                                {
+                                    yCount++;
+                                }
+                            }
+                        }
+                        if ( xCount > 0 && yCount > 0 )
+                        {
+                            results.add( new LdbcQuery3Result(
+                                    graph.persons.id[other],
+                                    graph.persons.firstName[other],
+                                    graph.persons.lastName[other],
+                                    xCount,
+                                    yCount,
+                                    xCount + yCount
+                            ) );
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcQuery3Result>()
+            {
+                @Override
+                public int compare( LdbcQuery3Result result1, LdbcQuery3Result result2 )
+                {
+                    int byCount = Long.compare( result2.count(), result1.count() );
+                    return (0 != byCount) ? byCount : Long.compare( result1.personId(), result2.personId() );
+                }
+            } );
+            results = results.subList( 0, Math.min( results.size(), operation.limit() ) );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery4Handler implements OperationHandler<LdbcQuery4,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery4 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery4Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    long startDate = operation.startDate().getTime();
+                    long endDate = startDate + operation.durationDays() * DAY_AS_MILLI;
+                    Map<String,int[]> postCounts = new HashMap<>();
+                    Set<String> olderTags = new HashSet<>();
+                    int friendCount = graph.knows.degree( person );
+                    for ( int i = 0; i < friendCount; i++ )
+                    {
+                        int friend = graph.knows.target( person, i );
+                        int messageCount = graph.personMessages.degree( friend );
+                        for ( int j = 0; j < messageCount; j++ )
+                        {
+                            int post = graph.personMessages.target( friend, j );
+                            long creationDate = graph.messages.creationDate[post];
+                            if ( graph.messages.isComment[post] || creationDate >= endDate )
+                            {
+                                continue;
+                            }
+                            int tagCount = graph.messageTags.degree( post );
+                            for ( int k = 0; k < tagCount; k++ )
+                            {
+                                String tagName = graph.tags.name[graph.messageTags.target( post, k )];
+                                if ( creationDate < startDate )
+                                {
+                                    olderTags.add( tagName );
+                                }
+                                else
+                                {
+                                    increment( postCounts, tagName );
+                                }
+                            }
+                        }
+                    }
+                    postCounts.keySet().removeAll( olderTags );
+                    TopK<Map.Entry<String,int[]>> tags = new TopK<>( operation.limit(),
+                            InMemoryLdbcSnbInteractiveDb.<String>byCountDescending( stringOrder() ) );
+                    for ( Map.Entry<String,int[]> entry : postCounts.entrySet() )
+                    {
+                        tags.add( entry );
+                    }
+                    for ( Map.Entry<String,int[]> entry : tags.sorted() )
+                    {
+                        results.add( new LdbcQuery4Result( entry.getKey(), entry.getValue()[0] ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery5Handler implements OperationHandler<LdbcQuery5,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery5 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery5Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    long minDate = operation.minDate().getTime();
+                    // forums joined after min date, with the posts in them of the members that joined after min date
+                    Map<Integer,int[]> postCounts = new HashMap<>();
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        int forumCount = graph.memberForums.degree( other );
+                        for ( int i = 0; i < forumCount; i++ )
+                        {
+                            if ( graph.memberForums.property( other, i ) <= minDate )
+                            {
+                                continue;
+                            }
+                            int forum = graph.memberForums.target( other, i );
+                            int[] postCount = postCounts.get( forum );
+                            if ( null == postCount )
+                            {
+                                postCount = new int[]{0};
+                                postCounts.put( forum, postCount );
+                            }
+                            int messageCount = graph.personMessages.degree( other );
+                            for ( int j = 0; j < messageCount; j++ )
+                            {
+                                int message = graph.personMessages.target( other, j );
+                                if ( graph.messages.forum[message] == forum )
+                                {
+                                    postCount[0]++;
+                                }
+                            }
+                        }
+                    }
+                    TopK<Map.Entry<Integer,int[]>> forums = new TopK<>( operation.limit(),
+                            InMemoryLdbcSnbInteractiveDb.byCountDescending( new Comparator<Integer>()
+                            {
+                                @Override
+                                public int compare( Integer forum1, Integer forum2 )
+                                {
+                                    return Long.compare( graph.forums.id[forum1], graph.forums.id[forum2] );
+                                }
+                            } ) );
+                    for ( Map.Entry<Integer,int[]> entry : postCounts.entrySet() )
+                    {
+                        forums.add( entry );
+                    }
+                    for ( Map.Entry<Integer,int[]> entry : forums.sorted() )
+                    {
+                        results.add( new LdbcQuery5Result( graph.forums.title[entry.getKey()],
+                                entry.getValue()[0] ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery6Handler implements OperationHandler<LdbcQuery6,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery6 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery6Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                int tag = graph.tags.row( operation.tagName() );
+                if ( SnbGraph.NONE != person && SnbGraph.NONE != tag )
+                {
+                    Map<String,int[]> postCounts = new HashMap<>();
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        int messageCount = graph.personMessages.degree( other );
+                        for ( int i = 0; i < messageCount; i++ )
+                        {
+                            int post = graph.personMessages.target( other, i );
+                            if ( graph.messages.isComment[post] || false == graph.messageTags.contains( post, tag ) )
+                            {
+                                continue;
+                            }
+                            int tagCount = graph.messageTags.degree( post );
+                            for ( int j = 0; j < tagCount; j++ )
+                            {
+                                int otherTag = graph.messageTags.target( post, j );
+                                if ( otherTag != tag )
+                                {
+                                    increment( postCounts, graph.tags.name[otherTag] );
+                                }
+                            }
+                        }
+                    }
+                    TopK<Map.Entry<String,int[]>> tags = new TopK<>( operation.limit(),
+                            InMemoryLdbcSnbInteractiveDb.<String>byCountDescending( stringOrder() ) );
+                    for ( Map.Entry<String,int[]> entry : postCounts.entrySet() )
+                    {
+                        tags.add( entry );
+                    }
+                    for ( Map.Entry<String,int[]> entry : tags.sorted() )
+                    {
+                        results.add( new LdbcQuery6Result( entry.getKey(), entry.getValue()[0] ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery7Handler implements OperationHandler<LdbcQuery7,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery7 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery7Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    // most recent like of every liker: [like creation date, message], the lowest message id on ties
+                    Map<Integer,long[]> latestLikes = new HashMap<>();
+                    int messageCount = graph.personMessages.degree( person );
+                    for ( int i = 0; i < messageCount; i++ )
+                    {
+                        int message = graph.personMessages.target( person, i );
+                        int likeCount = graph.messageLikes.degree( message );
+                        for ( int j = 0; j < likeCount; j++ )
+                        {
+                            int liker = graph.messageLikes.target( message, j );
+                            long likeDate = graph.messageLikes.property( message, j );
+                            long[] latestLike = latestLikes.get( liker );
+                            if ( null == latestLike ||
+                                 likeDate > latestLike[0] ||
+                                 (likeDate == latestLike[0] &&
+                                  graph.messages.id[message] < graph.messages.id[(int) latestLike[1]]) )
+                            {
+                                latestLikes.put( liker, new long[]{likeDate, message} );
+                            }
+                        }
+                    }
+                    for ( Map.Entry<Integer,long[]> entry : latestLikes.entrySet() )
+                    {
+                        int liker = entry.getKey();
+                        long likeDate = entry.getValue()[0];
+                        int message = (int) entry.getValue()[1];
+                        results.add( new LdbcQuery7Result(
+                                graph.persons.id[liker],
+                                graph.persons.firstName[liker],
+                                graph.persons.lastName[liker],
+                                likeDate,
+                                graph.messages.id[message],
+                                graph.messageContent( message ),
+                                (int) ((likeDate - graph.messages.creationDate[message]) / MINUTE_AS_MILLI),
+                                false == graph.knows.contains( person, liker )
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcQuery7Result>()
+            {
+                @Override
+                public int compare( LdbcQuery7Result result1, LdbcQuery7Result result2 )
+                {
+                    int byLikeDate = Long.compare( result2.likeCreationDate(), result1.likeCreationDate() );
+                    return (0 != byLikeDate) ? byLikeDate : Long.compare( result1.personId(), result2.personId() );
+                }
+            } );
+            results = results.subList( 0, Math.min( results.size(), operation.limit() ) );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery8Handler implements OperationHandler<LdbcQuery8,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery8 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery8Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    TopK<Integer> comments = new TopK<>( operation.limit(), newestMessagesFirst( graph ) );
+                    int messageCount = graph.personMessages.degree( person );
+                    for ( int i = 0; i < messageCount; i++ )
+                    {
+                        int message = graph.personMessages.target( person, i );
+                        int replyCount = graph.replies.degree( message );
+                        for ( int j = 0; j < replyCount; j++ )
+                        {
+                            comments.add( graph.replies.target( message, j ) );
+                        }
+                    }
+                    for ( int comment : comments.sorted() )
+                    {
+                        int creator = graph.messages.creator[comment];
+                        results.add( new LdbcQuery8Result(
+                                graph.persons.id[creator],
+                                graph.persons.firstName[creator],
+                                graph.persons.lastName[creator],
+                                graph.messages.creationDate[comment],
+                                graph.messages.id[comment],
+                                graph.messageContent( comment )
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery9Handler implements OperationHandler<LdbcQuery9,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery9 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery9Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    long maxDate = operation.maxDate().getTime();
+                    TopK<Integer> messages = new TopK<>( operation.limit(), newestMessagesFirst( graph ) );
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        int messageCount = graph.personMessages.degree( other );
+                        for ( int i = 0; i < messageCount; i++ )
+                        {
+                            int message = graph.personMessages.target( other, i );
+                            if ( graph.messages.creationDate[message] < maxDate )
+                            {
+                                messages.add( message );
+                            }
+                        }
+                    }
+                    for ( int message : messages.sorted() )
+                    {
+                        int creator = graph.messages.creator[message];
+                        results.add( new LdbcQuery9Result(
+                                graph.persons.id[creator],
+                                graph.persons.firstName[creator],
+                                graph.persons.lastName[creator],
+                                graph.messages.id[message],
+                                graph.messageContent( message ),
+                                graph.messages.creationDate[message]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery10Handler implements OperationHandler<LdbcQuery10,InMemoryDbConnectionState>
+    {
+        private static final int BIRTHDAY_FROM_DAY = 21;
+        private static final int BIRTHDAY_TO_DAY = 22;
+
+        @Override
+        public void executeOperation( LdbcQuery10 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery10Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    // birthday on or after the 21st of the month, and before the 22nd of the following month
+                    int month = operation.month();
+                    int nextMonth = month % 12 + 1;
+                    Calendar calendar = new GregorianCalendar( TimeZone.getTimeZone( "GMT" ) );
+                    int[] friends = targets( graph.knows, person );
+                    Arrays.sort( friends );
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        if ( Arrays.binarySearch( friends, other ) >= 0 )
+                        {
+                            continue;
+                        }
+                        calendar.setTimeInMillis( graph.persons.birthday[other] );
+                        int birthdayMonth = calendar.get( Calendar.MONTH ) + 1;
+                        int birthdayDay = calendar.get( Calendar.DAY_OF_MONTH );
+                        if ( false == ((birthdayMonth == month && birthdayDay >= BIRTHDAY_FROM_DAY) ||
+                                       (birthdayMonth == nextMonth && birthdayDay < BIRTHDAY_TO_DAY)) )
+                        {
+                            continue;
+                        }
+                        int commonInterestScore = 0;
+                        int messageCount = graph.personMessages.degree( other );
+                        for ( int i = 0; i < messageCount; i++ )
+                        {
+                            int post = graph.personMessages.target( other, i );
+                            if ( graph.messages.isComment[post] )
+                            {
+                                continue;
+                            }
+                            boolean common = false;
+                            int tagCount = graph.messageTags.degree( post );
+                            for ( int j = 0; j < tagCount && false == common; j++ )
+                            {
+                                common = graph.personInterests.contains( person, graph.messageTags.target( post, j ) );
+                            }
+                            commonInterestScore += common ? 1 : -1;
+                        }
+                        results.add( new LdbcQuery10Result(
+                                graph.persons.id[other],
+                                graph.persons.firstName[other],
+                                graph.persons.lastName[other],
+                                commonInterestScore,
+                                graph.persons.gender[other],
+                                placeName( graph, graph.persons.city[other] )
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcQuery10Result>()
+            {
+                @Override
+                public int compare( LdbcQuery10Result result1, LdbcQuery10Result result2 )
+                {
+                    int byScore = Integer.compare( result2.commonInterestScore(), result1.commonInterestScore() );
+                    return (0 != byScore) ? byScore : Long.compare( result1.personId(), result2.personId() );
+                }
+            } );
+            results = results.subList( 0, Math.min( results.size(), operation.limit() ) );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery11Handler implements OperationHandler<LdbcQuery11,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery11 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery11Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                int country = graph.places.row( SnbGraph.Places.COUNTRY, operation.countryName() );
+                if ( SnbGraph.NONE != person && SnbGraph.NONE != country )
+                {
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        int workAtCount = graph.workAt.degree( other );
+                        for ( int i = 0; i < workAtCount; i++ )
+                        {
+                            int company = graph.workAt.target( other, i );
+                            int workFrom = (int) graph.workAt.property( other, i );
+                            if ( workFrom < operation.workFromYear() &&
+                                 graph.countryOf( graph.organisations.place[company] ) == country )
+                            {
+                                results.add( new LdbcQuery11Result(
+                                        graph.persons.id[other],
+                                        graph.persons.firstName[other],
+                                        graph.persons.lastName[other],
+                                        graph.organisations.name[company],
+                                        workFrom
+                                ) );
+                            }
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcQuery11Result>()
+            {
+                @Override
+                public int compare( LdbcQuery11Result result1, LdbcQuery11Result result2 )
+                {
+                    int byWorkFrom =
+                            Integer.compare( result1.organizationWorkFromYear(), result2.organizationWorkFromYear() );
+                    if ( 0 != byWorkFrom )
+                    {
+                        return byWorkFrom;
+                    }
+                    int byPersonId = Long.compare( result1.personId(), result2.personId() );
+                    return (0 != byPersonId)
+                           ? byPersonId
+                           : result2.organizationName().compareTo( result1.organizationName() );
+                }
+            } );
+            results = results.subList( 0, Math.min( results.size(), operation.limit() ) );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcQuery12Handler implements OperationHandler<LdbcQuery12,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery12 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery12Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                int tagClass = graph.tagClasses.row( operation.tagClassName() );
+                if ( SnbGraph.NONE != person && SnbGraph.NONE != tagClass )
+                {
+                    int friendCount = graph.knows.degree( person );
+                    for ( int i = 0; i < friendCount; i++ )
+                    {
+                        int friend = graph.knows.target( person, i );
+                        int replyCount = 0;
+                        TreeSet<String> tagNames = new TreeSet<>();
+                        int messageCount = graph.personMessages.degree( friend );
+                        for ( int j = 0; j < messageCount; j++ )
+                        {
+                            int comment = graph.personMessages.target( friend, j );
+                            int post = graph.messages.replyOf[comment];
+                            if ( false == graph.messages.isComment[comment] || graph.messages.isComment[post] )
+                            {
+                                continue;
+                            }
+                            boolean matches = false;
+                            int tagCount = graph.messageTags.degree( post );
+                            for ( int k = 0; k < tagCount; k++ )
+                            {
+                                int tag = graph.messageTags.target( post, k );
+                                if ( graph.isSubclassOrSelf( graph.tags.tagClass[tag], tagClass ) )
+                                {
+                                    matches = true;
+                                    tagNames.add( graph.tags.name[tag] );
+                                }
+                            }
+                            replyCount += matches ? 1 : 0;
+                        }
+                        if ( replyCount > 0 )
+                        {
+                            results.add( new LdbcQuery12Result(
+                                    graph.persons.id[friend],
+                                    graph.persons.firstName[friend],
+                                    graph.persons.lastName[friend],
+                                    new ArrayList<>( tagNames ),
+                                    replyCount
+                            ) );
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcQuery12Result>()
+            {
+                @Override
+                public int compare( LdbcQuery12Result result1, LdbcQuery12Result result2 )
+                {
+                    int byReplyCount = Integer.compare( result2.replyCount(), result1.replyCount() );
+                    return (0 != byReplyCount) ? byReplyCount : Long.compare( result1.personId(), result2.personId() );
+                }
+            } );
+            results = results.subList( 0, Math.min( results.size(), operation.limit() ) );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Most recent messages created on or after the date that mention a friend of the person, with their creators.
+     */
+    public static class LdbcQuery13Handler implements OperationHandler<LdbcQuery13,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery13 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery13Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    long minDate = operation.maxDate().getTime();
+                    Set<Integer> candidates = new HashSet<>();
+                    TopK<Integer> messages = new TopK<>( QUERY_13_LIMIT, newestMessagesFirst( graph ) );
+                    int friendCount = graph.knows.degree( person );
+                    for ( int i = 0; i < friendCount; i++ )
+                    {
+                        int friend = graph.knows.target( person, i );
+                        int mentionCount = graph.mentionedIn.degree( friend );
+                        for ( int j = 0; j < mentionCount; j++ )
+                        {
+                            int message = graph.mentionedIn.target( friend, j );
+                            if ( graph.messages.creationDate[message] >= minDate &&
+                                 false == graph.messageContent( message ).isEmpty() &&
+                                 candidates.add( message ) )
+                            {
+                                messages.add( message );
+                            }
+                        }
+                    }
+                    for ( int message : messages.sorted() )
+                    {
+                        int creator = graph.messages.creator[message];
+                        results.add( new LdbcQuery13Result(
+                                graph.persons.id[creator],
+                                graph.persons.firstName[creator],
+                                graph.persons.lastName[creator],
+                                graph.messages.id[message],
+                                graph.messageContent( message ),
+                                graph.messages.creationDate[message]
+                        ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /**
+     * Links most shared since the date by friends and friends of friends of the person, in messages not marked private.
+     */
+    public static class LdbcQuery14Handler implements OperationHandler<LdbcQuery14,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcQuery14 operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcQuery14Result> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = graph.persons.row( operation.personId() );
+                if ( SnbGraph.NONE != person )
+                {
+                    long minDate = operation.maxDate().getTime();
+                    Map<String,int[]> linkCounts = new HashMap<>();
+                    for ( int other : friendsAndFriendsOfFriends( graph, person ) )
+                    {
+                        int messageCount = graph.personMessages.degree( other );
+                        for ( int i = 0; i < messageCount; i++ )
+                        {
+                            int message = graph.personMessages.target( other, i );
+                            if ( null != graph.messages.link[message] &&
+                                 graph.messages.creationDate[message] >= minDate &&
+                                 SnbGraph.Messages.VISIBILITY_PRIVATE != graph.messages.visibility[message] )
+                            {
+                                increment( linkCounts, graph.messages.link[message] );
+                            }
+                        }
+                    }
+                    TopK<Map.Entry<String,int[]>> links = new TopK<>( QUERY_14_LIMIT,
+                            InMemoryLdbcSnbInteractiveDb.<String>byCountDescending( stringOrder() ) );
+                    for ( Map.Entry<String,int[]> entry : linkCounts.entrySet() )
+                    {
+                        links.add( entry );
+                    }
+                    for ( Map.Entry<String,int[]> entry : links.sorted() )
+                    {
+                        results.add( new LdbcQuery14Result( entry.getKey(), entry.getValue()[0] ) );
+                    }
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    private static Comparator<String> stringOrder()
+    {
+        return new Comparator<String>()
+        {
+            @Override
+            public int compare( String string1, String string2 )
+            {
+                return string1.compareTo( string2 );
+            }
+        };
+    }
+
+    /*
+    SHORT READS
+     */
+
+    public static class LdbcShortQuery1PersonProfileHandler
+            implements OperationHandler<LdbcShortQuery1PersonProfile,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery1PersonProfile operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            LdbcShortQuery1PersonProfileResult result;
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = personRow( graph, operation.personId() );
+                result = new LdbcShortQuery1PersonProfileResult(
+                        graph.persons.firstName[person],
+                        graph.persons.lastName[person],
+                        graph.persons.birthday[person],
+                        graph.persons.locationIp[person],
+                        graph.persons.browserUsed[person],
+                        placeId( graph, graph.persons.city[person] ),
+                        graph.persons.gender[person],
+                        graph.persons.creationDate[person]
+                );
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, result, operation );
+        }
+    }
+
+    public static class LdbcShortQuery2PersonPostsHandler
+            implements OperationHandler<LdbcShortQuery2PersonPosts,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery2PersonPosts operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            final SnbGraph graph = dbConnectionState.graph();
+            List<LdbcShortQuery2PersonPostsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = personRow( graph, operation.personId() );
+                TopK<Integer> messages = new TopK<>( operation.limit(), new Comparator<Integer>()
+                {
+                    @Override
+                    public int compare( Integer message1, Integer message2 )
+                    {
+                        int byCreationDate = Long.compare( graph.messages.creationDate[message2],
+                                graph.messages.creationDate[message1] );
+                        return (0 != byCreationDate)
+                               ? byCreationDate
+                               : Long.compare( graph.messages.id[message2], graph.messages.id[message1] );
+                    }
+                } );
+                int messageCount = graph.personMessages.degree( person );
+                for ( int i = 0; i < messageCount; i++ )
+                {
+                    messages.add( graph.personMessages.target( person, i ) );
+                }
+                for ( int message : messages.sorted() )
+                {
+                    int post = graph.messages.rootPost[message];
+                    int postCreator = graph.messages.creator[post];
+                    results.add( new LdbcShortQuery2PersonPostsResult(
+                            graph.messages.id[message],
+                            graph.messageContent( message ),
+                            graph.messages.creationDate[message],
+                            graph.messages.id[post],
+                            graph.persons.id[postCreator],
+                            graph.persons.firstName[postCreator],
+                            graph.persons.lastName[postCreator]
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcShortQuery3PersonFriendsHandler
+            implements OperationHandler<LdbcShortQuery3PersonFriends,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery3PersonFriends operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcShortQuery3PersonFriendsResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int person = personRow( graph, operation.personId() );
+                int friendCount = graph.knows.degree( person );
+                for ( int i = 0; i < friendCount; i++ )
+                {
+                    int friend = graph.knows.target( person, i );
+                    results.add( new LdbcShortQuery3PersonFriendsResult(
+                            graph.persons.id[friend],
+                            graph.persons.firstName[friend],
+                            graph.persons.lastName[friend],
+                            graph.knows.property( person, i )
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcShortQuery3PersonFriendsResult>()
+            {
+                @Override
+                public int compare( LdbcShortQuery3PersonFriendsResult result1,
+                        LdbcShortQuery3PersonFriendsResult result2 )
+                {
+                    int byCreationDate =
+                            Long.compare( result2.friendshipCreationDate(), result1.friendshipCreationDate() );
+                    return (0 != byCreationDate)
+                           ? byCreationDate
+                           : Long.compare( result1.personId(), result2.personId() );
+                }
+            } );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    public static class LdbcShortQuery4MessageContentHandler
+            implements OperationHandler<LdbcShortQuery4MessageContent,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery4MessageContent operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            LdbcShortQuery4MessageContentResult result;
+            graph.lock().readLock().lock();
+            try
+            {
+                int message = messageRow( graph, operation.messageId() );
+                result = new LdbcShortQuery4MessageContentResult(
+                        graph.messageContent( message ),
+                        graph.messages.creationDate[message]
+                );
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, result, operation );
+        }
+    }
+
+    public static class LdbcShortQuery5MessageCreatorHandler
+            implements OperationHandler<LdbcShortQuery5MessageCreator,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery5MessageCreator operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            LdbcShortQuery5MessageCreatorResult result;
+            graph.lock().readLock().lock();
+            try
+            {
+                int creator = graph.messages.creator[messageRow( graph, operation.messageId() )];
+                result = new LdbcShortQuery5MessageCreatorResult(
+                        graph.persons.id[creator],
+                        graph.persons.firstName[creator],
+                        graph.persons.lastName[creator]
+                );
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, result, operation );
+        }
+    }
+
+    public static class LdbcShortQuery6MessageForumHandler
+            implements OperationHandler<LdbcShortQuery6MessageForum,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery6MessageForum operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            LdbcShortQuery6MessageForumResult result;
+            graph.lock().readLock().lock();
+            try
+            {
+                int message = messageRow( graph, operation.messageId() );
+                int forum = graph.messages.forum[graph.messages.rootPost[message]];
+                int moderator = graph.forums.moderator[forum];
+                result = new LdbcShortQuery6MessageForumResult(
+                        graph.forums.id[forum],
+                        graph.forums.title[forum],
+                        graph.persons.id[moderator],
+                        graph.persons.firstName[moderator],
+                        graph.persons.lastName[moderator]
+                );
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            resultReporter.report( 0, result, operation );
+        }
+    }
+
+    public static class LdbcShortQuery7MessageRepliesHandler
+            implements OperationHandler<LdbcShortQuery7MessageReplies,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcShortQuery7MessageReplies operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            List<LdbcShortQuery7MessageRepliesResult> results = new ArrayList<>();
+            graph.lock().readLock().lock();
+            try
+            {
+                int message = messageRow( graph, operation.messageId() );
+                int messageCreator = graph.messages.creator[message];
+                int replyCount = graph.replies.degree( message );
+                for ( int i = 0; i < replyCount; i++ )
+                {
+                    int comment = graph.replies.target( message, i );
+                    int replyCreator = graph.messages.creator[comment];
+                    results.add( new LdbcShortQuery7MessageRepliesResult(
+                            graph.messages.id[comment],
+                            graph.messageContent( comment ),
+                            graph.messages.creationDate[comment],
+                            graph.persons.id[replyCreator],
+                            graph.persons.firstName[replyCreator],
+                            graph.persons.lastName[replyCreator],
+                            graph.knows.contains( replyCreator, messageCreator )
+                    ) );
+                }
+            }
+            finally
+            {
+                graph.lock().readLock().unlock();
+            }
+            Collections.sort( results, new Comparator<LdbcShortQuery7MessageRepliesResult>()
+            {
+                @Override
+                public int compare( LdbcShortQuery7MessageRepliesResult result1,
+                        LdbcShortQuery7MessageRepliesResult result2 )
+                {
+                    int byCreationDate = Long.compare( result2.commentCreationDate(), result1.commentCreationDate() );
+                    return (0 != byCreationDate)
+                           ? byCreationDate
+                           : Long.compare( result1.replyAuthorId(), result2.replyAuthorId() );
+                }
+            } );
+            resultReporter.report( 0, results, operation );
+        }
+    }
+
+    /*
+    UPDATES
+     */
+
+    public static class LdbcUpdate1AddPersonHandler
+            implements OperationHandler<LdbcUpdate1AddPerson,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate1AddPerson operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            graph.lock().writeLock().lock();
+            try
+            {
+                int city = placeRow( graph, operation.cityId() );
+                int[] interests = new int[operation.tagIds().size()];
+                for ( int i = 0; i < interests.length; i++ )
+                {
+                    interests[i] = tagRow( graph, operation.tagIds().get( i ) );
+                }
+                int[] universities = new int[operation.studyAt().size()];
+                for ( int i = 0; i < universities.length; i++ )
+                {
+                    universities[i] = organisationRow( graph, operation.studyAt().get( i ).organizationId() );
+                }
+                int[] companies = new int[operation.workAt().size()];
+                for ( int i = 0; i < companies.length; i++ )
+                {
+                    companies[i] = organisationRow( graph, operation.workAt().get( i ).organizationId() );
+                }
+                int person = graph.persons.add( operation.personId() );
+                graph.persons.firstName[person] = operation.personFirstName();
+                graph.persons.lastName[person] = operation.personLastName();
+                graph.persons.gender[person] = operation.gender();
+                graph.persons.birthday[person] = operation.birthday().getTime();
+                graph.persons.creationDate[person] = operation.creationDate().getTime();
+                graph.persons.locationIp[person] = operation.locationIp();
+                graph.persons.browserUsed[person] = operation.browserUsed();
+                graph.persons.city[person] = city;
+                graph.persons.emails[person] = operation.emails().toArray( new String[0] );
+                graph.persons.languages[person] = operation.languages().toArray( new String[0] );
+                for ( int tag : interests )
+                {
+                    graph.personInterests.add( person, tag );
+                }
+                for ( int i = 0; i < universities.length; i++ )
+                {
+                    graph.studyAt.add( person, universities[i], operation.studyAt().get( i ).year() );
+                }
+                for ( int i = 0; i < companies.length; i++ )
+                {
+                    graph.workAt.add( person, companies[i], operation.workAt().get( i ).year() );
+                }
+            }
+            catch ( IllegalStateException e )
+            {
+                throw new DbException( e.getMessage(), e );
+            }
+            finally
+            {
+                graph.lock().writeLock().unlock();
+            }
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    public static class LdbcUpdate2AddPostLikeHandler
+            implements OperationHandler<LdbcUpdate2AddPostLike,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate2AddPostLike operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            addLike( dbConnectionState.graph(), operation.personId(), operation.postId(),
+                    operation.creationDate().getTime() );
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    public static class LdbcUpdate3AddCommentLikeHandler
+            implements OperationHandler<LdbcUpdate3AddCommentLike,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate3AddCommentLike operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            addLike( dbConnectionState.graph(), operation.personId(), operation.commentId(),
+                    operation.creationDate().getTime() );
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    private static void addLike( SnbGraph graph, long personId, long messageId, long creationDate )
+            throws DbException
+    {
+        graph.lock().writeLock().lock();
+        try
+        {
+            int person = personRow( graph, personId );
+            int message = messageRow( graph, messageId );
+            graph.personLikes.add( person, message, creationDate );
+            graph.messageLikes.add( message, person, creationDate );
+        }
+        finally
+        {
+            graph.lock().writeLock().unlock();
+        }
+    }
+
+    public static class LdbcUpdate4AddForumHandler
+            implements OperationHandler<LdbcUpdate4AddForum,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate4AddForum operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            graph.lock().writeLock().lock();
+            try
+            {
+                int moderator = personRow( graph, operation.moderatorPersonId() );
+                int[] tags = new int[operation.tagIds().size()];
+                for ( int i = 0; i < tags.length; i++ )
+                {
+                    tags[i] = tagRow( graph, operation.tagIds().get( i ) );
+                }
+                int forum = graph.forums.add( operation.forumId() );
+                graph.forums.title[forum] = operation.forumTitle();
+                graph.forums.creationDate[forum] = operation.creationDate().getTime();
+                graph.forums.moderator[forum] = moderator;
+                for ( int tag : tags )
+                {
+                    graph.forumTags.add( forum, tag );
+                }
+            }
+            catch ( IllegalStateException e )
+            {
+                throw new DbException( e.getMessage(), e );
+            }
+            finally
+            {
+                graph.lock().writeLock().unlock();
+            }
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    public static class LdbcUpdate5AddForumMembershipHandler
+            implements OperationHandler<LdbcUpdate5AddForumMembership,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate5AddForumMembership operation,
+                InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            graph.lock().writeLock().lock();
+            try
+            {
+                int forum = forumRow( graph, operation.forumId() );
+                int person = personRow( graph, operation.personId() );
+                long joinDate = operation.joinDate().getTime();
+                graph.forumMembers.add( forum, person, joinDate );
+                graph.memberForums.add( person, forum, joinDate );
+            }
+            finally
+            {
+                graph.lock().writeLock().unlock();
+            }
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    public static class LdbcUpdate6AddPostHandler
+            implements OperationHandler<LdbcUpdate6AddPost,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate6AddPost operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            graph.lock().writeLock().lock();
+            try
+            {
+                int creator = personRow( graph, operation.authorPersonId() );
+                int forum = forumRow( graph, operation.forumId() );
+                int country = placeRow( graph, operation.countryId() );
+                int[] tags = tagRows( graph, operation.tagIds() );
+                int[] mentioned = personRows( graph, operation.mentionedIds() );
+                int post = graph.messages.add( operation.postId() );
+                graph.messages.isComment[post] = false;
+                graph.messages.imageFile[post] = emptyToNull( operation.imageFile() );
+                graph.messages.language[post] = emptyToNull( operation.language() );
+                graph.messages.forum[post] = forum;
+                graph.messages.rootPost[post] = post;
+                graph.forumPosts.add( forum, post );
+                addMessage( graph, post, operation.creationDate().getTime(), operation.locationIp(),
+                        operation.browserUsed(), operation.content(), operation.length(), creator, country, tags,
+                        mentioned, operation.privacy(), operation.link() );
+            }
+            catch ( IllegalStateException e )
+            {
+                throw new DbException( e.getMessage(), e );
+            }
+            finally
+            {
+                graph.lock().writeLock().unlock();
+            }
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    public static class LdbcUpdate7AddCommentHandler
+            implements OperationHandler<LdbcUpdate7AddComment,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate7AddComment operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            graph.lock().writeLock().lock();
+            try
+            {
+                int creator = personRow( graph, operation.authorPersonId() );
+                int country = placeRow( graph, operation.countryId() );
+                int parent = (-1 == operation.replyToPostId())
+                             ? messageRow( graph, operation.replyToCommentId() )
+                             : messageRow( graph, operation.replyToPostId() );
+                int[] tags = tagRows( graph, operation.tagIds() );
+                int[] mentioned = personRows( graph, operation.mentionedIds() );
+                int comment = graph.messages.add( operation.commentId() );
+                graph.messages.isComment[comment] = true;
+                graph.messages.gifFile[comment] = emptyToNull( operation.gif() );
+                graph.messages.replyOf[comment] = parent;
+                graph.messages.rootPost[comment] = graph.messages.rootPost[parent];
+                graph.replies.add( parent, comment );
+                addMessage( graph, comment, operation.creationDate().getTime(), operation.locationIp(),
+                        operation.browserUsed(), operation.content(), operation.length(), creator, country, tags,
+                        mentioned, operation.privacy(), operation.link() );
+            }
+            catch ( IllegalStateException e )
+            {
+                throw new DbException( e.getMessage(), e );
+            }
+            finally
+            {
+                graph.lock().writeLock().unlock();
+            }
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+
+    private static void addMessage( SnbGraph graph, int message, long creationDate, String locationIp,
+            String browserUsed, String content, int length, int creator, int country, int[] tags, int[] mentioned,
+            Boolean isPublic, String link )
+    {
+        graph.messages.creationDate[message] = creationDate;
+        graph.messages.locationIp[message] = locationIp;
+        graph.messages.browserUsed[message] = browserUsed;
+        graph.messages.content[message] = content;
+        graph.messages.length[message] = length;
+        graph.messages.creator[message] = creator;
+        graph.messages.country[message] = country;
+        graph.messages.visibility[message] = (null == isPublic)
+                                             ? SnbGraph.Messages.VISIBILITY_UNKNOWN
+                                             : (isPublic)
+                                               ? SnbGraph.Messages.VISIBILITY_PUBLIC
+                                               : SnbGraph.Messages.VISIBILITY_PRIVATE;
+        graph.messages.link[message] = emptyToNull( link );
+        graph.personMessages.add( creator, message );
+        for ( int tag : tags )
+        {
+            graph.messageTags.add( message, tag );
+            graph.tagMessages.add( tag, message );
+        }
+        for ( int person : mentioned )
+        {
+            graph.messageMentions.add( message, person );
+            graph.mentionedIn.add( person, message );
+        }
+    }
+
+    private static int[] tagRows( SnbGraph graph, List<Long> tagIds ) throws DbException
+    {
+        int[] tags = new int[(null == tagIds) ? 0 : tagIds.size()];
+        for ( int i = 0; i < tags.length; i++ )
+        {
+            tags[i] = tagRow( graph, tagIds.get( i ) );
+        }
+        return tags;
+    }
+
+    private static int[] personRows( SnbGraph graph, List<Long> personIds ) throws DbException
+    {
+        int[] persons = new int[(null == personIds) ? 0 : personIds.size()];
+        for ( int i = 0; i < persons.length; i++ )
+        {
+            persons[i] = personRow( graph, personIds.get( i ) );
+        }
+        return persons;
+    }
+
+    private static String emptyToNull( String value )
+    {
+        return (null == value || value.isEmpty()) ? null : value;
+    }
+
+    public static class LdbcUpdate8AddFriendshipHandler
+            implements OperationHandler<LdbcUpdate8AddFriendship,InMemoryDbConnectionState>
+    {
+        @Override
+        public void executeOperation( LdbcUpdate8AddFriendship operation, InMemoryDbConnectionState dbConnectionState,
+                ResultReporter resultReporter ) throws DbException
+        {
+            SnbGraph graph = dbConnectionState.graph();
+            graph.lock().writeLock().lock();
+            try
+            {
+                int person1 = personRow( graph, operation.person1Id() );
+                int person2 = personRow( graph, operation.person2Id() );
+                if ( false == graph.knows.contains( person1, person2 ) )
+                {
+                    long creationDate = operation.creationDate().getTime();
+                    graph.knows.add( person1, person2, creationDate );
+                    graph.knows.add( person2, person1, creationDate );
+                }
+            }
+            finally
+            {
+                graph.lock().writeLock().unlock();
+            }
+            resultReporter.report( 0, LdbcNoResult.INSTANCE, operation );
+        }
+    }
+}
@@ -11,7 +11,12 @@ import com.ldbc.driver.temporal.TimeSource;
 import com.ldbc.driver.workloads.dummy.NothingOperation;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static java.lang.String.format;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
 
 public class OperationHandlerRunnableContextFactoryTest
 {
@@ -25,7 +30,7 @@ public class OperationHandlerRunnableContextFactoryTest
             OperationHandlerRunnerFactory instantiatingOperationHandlerRunnerFactory =
                     new InstantiatingOperationHandlerRunnerFactory();
             OperationHandlerRunnerFactory pooledInstantiatingOperationHandlerRunnerFactory =
-                    new PoolingOperationHandlerRunnerFactory( new InstantiatingOperationHandlerRunnerFactory() );
+                    new FreeListOperationHandlerRunnerFactory( new InstantiatingOperationHandlerRunnerFactory() );
             long instantiatingDuration =
                     doOperationHandlerTest( count, instantiatingOperationHandlerRunnerFactory, operation );
             long pooledInstantiatingDuration =
@@ -60,4 +65,103 @@ public class OperationHandlerRunnableContextFactoryTest
         }
         return timeSource.nowAsMilli() - startTime;
     }
+
+    @Test
+    public void shouldReuseContextsReleasedByClaimingThread() throws OperationException
+    {
+        // Given
+        FreeListOperationHandlerRunnerFactory factory =
+                new FreeListOperationHandlerRunnerFactory( new InstantiatingOperationHandlerRunnerFactory() );
+        factory.reserve( 2 );
+
+        // When
+        OperationHandlerRunnableContext first = factory.newOperationHandlerRunner();
+        first.cleanup();
+        OperationHandlerRunnableContext second = factory.newOperationHandlerRunner();
+
+        // Then
+        assertThat( second, sameInstance( first ) );
+        assertThat( factory.poolSize(), equalTo( 2 ) );
+        factory.shutdown();
+    }
+
+    @Test
+    public void shouldReturnContextsReleasedByOtherThreadsToClaimingThread()
+            throws OperationException, InterruptedException
+    {
+        // Given
+        FreeListOperationHandlerRunnerFactory factory =
+                new FreeListOperationHandlerRunnerFactory( new InstantiatingOperationHandlerRunnerFactory() );
+        factory.reserve( 1 );
+        final OperationHandlerRunnableContext first = factory.newOperationHandlerRunner();
+
+        // When
+        Thread releasingThread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                first.cleanup();
+            }
+        };
+        releasingThread.start();
+        releasingThread.join();
+        OperationHandlerRunnableContext second = factory.newOperationHandlerRunner();
+
+        // Then
+        assertThat( second, sameInstance( first ) );
+        assertThat( factory.poolSize(), equalTo( 1 ) );
+        factory.shutdown();
+    }
+
+    @Test
+    public void shouldGrowRatherThanWaitWhenNoContextIsFree() throws OperationException
+    {
+        // Given
+        FreeListOperationHandlerRunnerFactory factory =
+                new FreeListOperationHandlerRunnerFactory( new InstantiatingOperationHandlerRunnerFactory() );
+        factory.reserve( 1 );
+
+        // When
+        factory.newOperationHandlerRunner();
+        factory.newOperationHandlerRunner();
+
+        // Then
+        assertThat( factory.poolSize(), equalTo( 2 ) );
+        factory.shutdown();
+    }
+
+    @Test
+    public void shouldDropFreeListsOfTerminatedThreads() throws OperationException, InterruptedException
+    {
+        // Given
+        final FreeListOperationHandlerRunnerFactory factory =
+                new FreeListOperationHandlerRunnerFactory( new InstantiatingOperationHandlerRunnerFactory() );
+        final AtomicReference<Integer> poolSizeWhileAlive = new AtomicReference<>();
+
+        // When
+        Thread claimingThread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    factory.newOperationHandlerRunner().cleanup();
+                    poolSizeWhileAlive.set( factory.poolSize() );
+                }
+                catch ( OperationException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        };
+        claimingThread.start();
+        claimingThread.join();
+
+        // Then
+        assertThat( poolSizeWhileAlive.get(), equalTo( FreeListOperationHandlerRunnerFactory.DEFAULT_FREE_LIST_SIZE ) );
+        assertThat( factory.poolSize(), equalTo( 0 ) );
+        factory.shutdown();
+    }
 }
@@ -0,0 +1,80 @@
+package com.ldbc.driver;
+
+import com.ldbc.driver.runtime.ConcurrentErrorReporter;
+import com.ldbc.driver.temporal.ManualTimeSource;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ResultReporterTest
+{
+    @Test
+    public void shouldMeasurePhasesFromPreviousMark()
+    {
+        ManualTimeSource timeSource = new ManualTimeSource( 0 );
+        ResultReporter.SimpleResultReporter resultReporter =
+                new ResultReporter.SimpleResultReporter( new ConcurrentErrorReporter(), timeSource );
+
+        timeSource.setNowFromMilli( 10 );
+        resultReporter.startPhases( timeSource.nanoSnapshot() );
+        assertThat( resultReporter.hasPhases(), equalTo( false ) );
+
+        timeSource.setNowFromMilli( 12 );
+        resultReporter.markPhase( 0 );
+        timeSource.setNowFromMilli( 17 );
+        resultReporter.markPhase( 3 );
+        timeSource.setNowFromMilli( 18 );
+        resultReporter.markPhase( 0 );
+
+        assertThat( resultReporter.hasPhases(), equalTo( true ) );
+        assertThat( resultReporter.phaseDurationAsNano( 0 ), equalTo( TimeUnit.MILLISECONDS.toNanos( 3 ) ) );
+        assertThat( resultReporter.phaseDurationAsNano( 1 ), equalTo( -1l ) );
+        assertThat( resultReporter.phaseDurationAsNano( 3 ), equalTo( TimeUnit.MILLISECONDS.toNanos( 5 ) ) );
+    }
+
+    @Test
+    public void shouldForgetPhasesOfPreviousExecution()
+    {
+        ManualTimeSource timeSource = new ManualTimeSource( 0 );
+        ResultReporter.SimpleResultReporter resultReporter =
+                new ResultReporter.SimpleResultReporter( new ConcurrentErrorReporter(), timeSource );
+
+        resultReporter.startPhases( timeSource.nanoSnapshot() );
+        timeSource.setNowFromMilli( 2 );
+        resultReporter.markPhase( 1 );
+
+        resultReporter.startPhases( timeSource.nanoSnapshot() );
+        assertThat( resultReporter.hasPhases(), equalTo( false ) );
+        assertThat( resultReporter.phaseDurationAsNano( 1 ), equalTo( -1l ) );
+
+        timeSource.setNowFromMilli( 3 );
+        resultReporter.markPhase( 1 );
+        assertThat( resultReporter.phaseDurationAsNano( 1 ), equalTo( TimeUnit.MILLISECONDS.toNanos( 1 ) ) );
+    }
+
+    @Test
+    public void shouldMeasurePhasesFromConstructionWithoutStartPhases()
+    {
+        ManualTimeSource timeSource = new ManualTimeSource( 0 );
+        timeSource.setNowFromMilli( 10 );
+        ResultReporter.SimpleResultReporter resultReporter =
+                new ResultReporter.SimpleResultReporter( new ConcurrentErrorReporter(), timeSource );
+
+        timeSource.setNowFromMilli( 13 );
+        resultReporter.markPhase( 2 );
+
+        assertThat( resultReporter.phaseDurationAsNano( 2 ), equalTo( TimeUnit.MILLISECONDS.toNanos( 3 ) ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldRejectPhaseIdOutOfRange()
+    {
+        ResultReporter.SimpleResultReporter resultReporter =
+                new ResultReporter.SimpleResultReporter( new ConcurrentErrorReporter() );
+        resultReporter.startPhases( 0 );
+        resultReporter.markPhase( ResultReporter.MAX_PHASE_COUNT );
+    }
+}
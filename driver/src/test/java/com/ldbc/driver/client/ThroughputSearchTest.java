@@ -0,0 +1,85 @@
+package com.ldbc.driver.client;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ThroughputSearchTest
+{
+    // simulates a database that keeps up with any ratio at or above the given one
+    private static int runUntilConverged( ThroughputSearch search, double smallestSustainableRatio )
+    {
+        int segments = 0;
+        while ( false == search.converged() )
+        {
+            double ratio = search.nextRatio();
+            search.report( ratio, ratio >= smallestSustainableRatio, 1000 / ratio );
+            segments++;
+        }
+        return segments;
+    }
+
+    @Test
+    public void shouldStepDownWhileSustainableThenBisect()
+    {
+        // Given
+        ThroughputSearch search = new ThroughputSearch( 1.0, 0.01 );
+
+        // When
+        int segments = runUntilConverged( search, 0.3 );
+
+        // Then
+        assertThat( search.sustainableRatio() >= 0.3, is( true ) );
+        assertThat( search.sustainableRatio() <= 0.3 * 1.01, is( true ) );
+        assertThat( search.unsustainableRatio() < 0.3, is( true ) );
+        assertThat( search.sustainableThroughput(), equalTo( 1000 / search.sustainableRatio() ) );
+        assertThat( segments < 15, is( true ) );
+    }
+
+    @Test
+    public void shouldStepUpWhileUnsustainableThenBisect()
+    {
+        // Given
+        ThroughputSearch search = new ThroughputSearch( 1.0, 0.05 );
+
+        // When
+        runUntilConverged( search, 5.0 );
+
+        // Then
+        assertThat( search.sustainableRatio() >= 5.0, is( true ) );
+        assertThat( search.sustainableRatio() <= 5.0 * 1.05, is( true ) );
+    }
+
+    @Test
+    public void shouldNeverTryRatioOutsideOfSearchInterval()
+    {
+        // Given
+        ThroughputSearch search = new ThroughputSearch( 1.0, 0.05 );
+        search.report( 1.0, true, 1 );
+        search.report( 0.5, false, 2 );
+
+        // When
+        double ratio = search.nextRatio();
+
+        // Then
+        assertThat( ratio > 0.5 && ratio < 1.0, is( true ) );
+        assertThat( search.converged(), is( false ) );
+    }
+
+    @Test
+    public void shouldGiveUpWhenNothingIsSustainable()
+    {
+        // Given
+        ThroughputSearch search = new ThroughputSearch( 1.0, 0.05 );
+
+        // When
+        runUntilConverged( search, Double.MAX_VALUE );
+
+        // Then
+        assertThat( search.sustainableRatio(), nullValue() );
+        assertThat( search.unsustainableRatio() >= ThroughputSearch.MAX_RATIO, is( true ) );
+    }
+}
@@ -0,0 +1,215 @@
+package com.ldbc.driver.columnar;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ColumnarFileReaderTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static byte[] stringChunk( String[] dictionary, int[] codes ) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeInt( dictionary.length );
+        for ( String value : dictionary )
+        {
+            byte[] utf8 = value.getBytes( StandardCharsets.UTF_8 );
+            out.writeInt( utf8.length );
+            out.write( utf8 );
+        }
+        for ( int code : codes )
+        {
+            out.writeInt( code );
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] longChunk( long min, long max, long[] values ) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeLong( min );
+        out.writeLong( max );
+        for ( long value : values )
+        {
+            out.writeLong( value );
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeRowGroup( DataOutputStream out, int rowCount, byte[]... chunks ) throws IOException
+    {
+        out.writeInt( rowCount );
+        for ( byte[] chunk : chunks )
+        {
+            out.writeInt( chunk.length );
+        }
+        for ( byte[] chunk : chunks )
+        {
+            out.write( chunk );
+        }
+    }
+
+    /**
+     * person file with two row groups: (1, Jan), (2, a non ASCII name), (3, Jan) and (10, Ana)
+     */
+    private static void writePersonFile( OutputStream outputStream ) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream( outputStream );
+        out.write( "LDBCCOL1".getBytes( StandardCharsets.US_ASCII ) );
+        out.writeInt( 2 );
+        out.writeUTF( "id" );
+        out.writeByte( 0 );
+        out.writeUTF( "firstName" );
+        out.writeByte( 1 );
+
+        writeRowGroup( out, 3,
+                longChunk( 1, 3, new long[]{1, 2, 3} ),
+                stringChunk( new String[]{"Jan", "J\u00fcrgen"}, new int[]{0, 1, 0} ) );
+
+        writeRowGroup( out, 1,
+                longChunk( 10, 10, new long[]{10} ),
+                stringChunk( new String[]{"Ana"}, new int[]{0} ) );
+
+        out.writeInt( 0 );
+        out.flush();
+    }
+
+    private static void assertPersonFile( ColumnarFileReader reader ) throws IOException
+    {
+        assertThat( reader.columnCount(), is( 2 ) );
+        assertThat( reader.columnName( 1 ), equalTo( "firstName" ) );
+        assertThat( reader.columnType( 0 ), is( ColumnarFileReader.ColumnType.LONG ) );
+        assertThat( reader.columnType( 1 ), is( ColumnarFileReader.ColumnType.STRING ) );
+        assertThat( reader.columnIndex( "firstName" ), is( 1 ) );
+        assertThat( reader.columnIndex( "lastName" ), is( -1 ) );
+
+        assertThat( reader.nextRowGroup(), is( true ) );
+        assertThat( reader.rowCount(), is( 3 ) );
+        assertThat( reader.min( 0 ), is( 1L ) );
+        assertThat( reader.max( 0 ), is( 3L ) );
+        assertThat( reader.getLong( 0, 2 ), is( 3L ) );
+        assertThat( reader.getString( 1, 0 ), equalTo( "Jan" ) );
+        assertThat( reader.getString( 1, 1 ), equalTo( "J\u00fcrgen" ) );
+        assertThat( reader.getString( 1, 2 ), equalTo( "Jan" ) );
+
+        assertThat( reader.nextRowGroup(), is( true ) );
+        assertThat( reader.rowCount(), is( 1 ) );
+        assertThat( reader.min( 0 ), is( 10L ) );
+        assertThat( reader.getLong( 0, 0 ), is( 10L ) );
+        assertThat( reader.getString( 1, 0 ), equalTo( "Ana" ) );
+
+        assertThat( reader.nextRowGroup(), is( false ) );
+        assertThat( reader.nextRowGroup(), is( false ) );
+    }
+
+    @Test
+    public void shouldReadRowGroupsColumnWise() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writePersonFile( bytes );
+        try ( ColumnarFileReader reader = new ColumnarFileReader( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            assertPersonFile( reader );
+        }
+    }
+
+    @Test
+    public void shouldReadCompressedFile() throws IOException
+    {
+        File file = temporaryFolder.newFile( "person_0.col.gz" );
+        try ( GZIPOutputStream out = new GZIPOutputStream( new FileOutputStream( file ) ) )
+        {
+            writePersonFile( out );
+        }
+        try ( ColumnarFileReader reader = new ColumnarFileReader( file ) )
+        {
+            assertPersonFile( reader );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotReadStringColumnAsLong() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writePersonFile( bytes );
+        try ( ColumnarFileReader reader = new ColumnarFileReader( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            reader.nextRowGroup();
+            reader.longs( 1 );
+        }
+    }
+
+    @Test
+    public void shouldSkipColumnsThatAreNotSelected() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writePersonFile( bytes );
+        try ( ColumnarFileReader reader = new ColumnarFileReader( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            reader.selectColumns( 1 );
+
+            assertThat( reader.nextRowGroup(), is( true ) );
+            assertThat( reader.chunkLength( 0 ), is( 16 + 8 * 3 ) );
+            assertThat( reader.getString( 1, 1 ), equalTo( "J\u00fcrgen" ) );
+            assertThat( reader.nextRowGroup(), is( true ) );
+            assertThat( reader.getString( 1, 0 ), equalTo( "Ana" ) );
+            assertThat( reader.nextRowGroup(), is( false ) );
+        }
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotReadColumnsThatAreNotSelected() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writePersonFile( bytes );
+        try ( ColumnarFileReader reader = new ColumnarFileReader( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            reader.selectColumns( 1 );
+            reader.nextRowGroup();
+            reader.getLong( 0, 0 );
+        }
+    }
+
+    @Test( expected = IOException.class )
+    public void shouldRejectChunksOfAnotherLengthThanTheHeader() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.write( "LDBCCOL1".getBytes( StandardCharsets.US_ASCII ) );
+        out.writeInt( 1 );
+        out.writeUTF( "id" );
+        out.writeByte( 0 );
+        out.writeInt( 1 );
+        out.writeInt( 8 );
+        out.write( longChunk( 1, 1, new long[]{1} ) );
+        out.writeInt( 0 );
+        try ( ColumnarFileReader reader = new ColumnarFileReader( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            reader.nextRowGroup();
+        }
+    }
+
+    @Test( expected = IOException.class )
+    public void shouldRejectOtherFiles() throws IOException
+    {
+        new ColumnarFileReader( new ByteArrayInputStream( "id|firstName\n".getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+}
@@ -0,0 +1,184 @@
+package com.ldbc.driver.csv;
+
+import com.ldbc.driver.csv.charseeker.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReadablesTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static String rows(int count) {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            rows.append(i).append("|Łódź|").append(i * 31L).append("|tag;tag").append(i % 7).append('\n');
+        }
+        return rows.toString();
+    }
+
+    private File write(String name, String data) throws IOException {
+        File file = temporaryFolder.newFile(name);
+        Files.write(file.toPath(), data.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private File writeGzip(String name, String data) throws IOException {
+        File file = temporaryFolder.newFile(name);
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+            out.write(data.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private File writeBlockGzip(String name, String data) throws IOException {
+        File file = temporaryFolder.newFile(name);
+        try (OutputStream out = new BlockGzipOutputStream(new FileOutputStream(file))) {
+            out.write(data.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static String readAll(CharReadable readable) throws IOException {
+        StringBuilder data = new StringBuilder();
+        char[] buffer = new char[1000];
+        int read;
+        while ((read = readable.read(buffer, 0, buffer.length)) != -1) {
+            data.append(buffer, 0, read);
+        }
+        readable.close();
+        return data.toString();
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] buffer = new byte[777];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            data.write(buffer, 0, read);
+        }
+        in.close();
+        return new String(data.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void shouldReadPlainFilesAsUtf8() throws Exception {
+        String data = rows(1000);
+        File file = write("params.csv", data);
+
+        assertThat(readAll(Readables.file(file)), equalTo(data));
+        assertThat(readAll(Readables.inputStream(file)), equalTo(data));
+    }
+
+    @Test
+    public void shouldReadShortFiles() throws Exception {
+        File empty = write("empty.csv", "");
+        File shortFile = write("short.csv", "1\n");
+
+        assertThat(readAll(Readables.file(empty)), equalTo(""));
+        assertThat(readAll(Readables.file(shortFile)), equalTo("1\n"));
+    }
+
+    @Test
+    public void shouldDecompressGzipFilesAheadOfTheReader() throws Exception {
+        String data = rows(100000);
+        File file = writeGzip("updateStream_0_0_person.csv.gz", data);
+
+        CharReadable readable = Readables.file(file);
+
+        assertThat(readable, instanceOf(ThreadAheadReadable.class));
+        assertThat(readAll(readable), equalTo(data));
+        assertThat(readAll(Readables.inputStream(file)), equalTo(data));
+    }
+
+    @Test
+    public void shouldDecompressBlockGzipFilesOfManyBlocks() throws Exception {
+        String data = rows(100000);
+        File file = writeBlockGzip("updateStream_0_0_forum.csv.gz", data);
+
+        assertThat(file.length() > 65536 * 2, is(true));
+        assertThat(readAll(Readables.file(file)), equalTo(data));
+        assertThat(readAll(Readables.inputStream(file)), equalTo(data));
+    }
+
+    @Test
+    public void shouldWriteBlockGzipFilesReadableAsGzip() throws Exception {
+        String data = rows(100000);
+        File file = writeBlockGzip("params.csv.gz", data);
+
+        assertThat(readAll(new GZIPInputStream(new FileInputStream(file))), equalTo(data));
+    }
+
+    @Test
+    public void shouldReadBlockGzipWithFewBlocksInFlight() throws Exception {
+        String data = rows(50000);
+        File file = writeBlockGzip("params.csv.gz", data);
+
+        assertThat(readAll(new BlockGzipInputStream(new FileInputStream(file), 1)), equalTo(data));
+    }
+
+    @Test
+    public void shouldReadEmptyBlockGzipFiles() throws Exception {
+        File file = writeBlockGzip("empty.csv.gz", "");
+
+        assertThat(readAll(Readables.file(file)), equalTo(""));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailOnCorruptBlocks() throws Exception {
+        File file = writeBlockGzip("corrupt.csv.gz", rows(1000));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            // last byte of the CRC of the first block
+            randomAccessFile.seek(readBlockSize(file) - 5);
+            int crc = randomAccessFile.read();
+            randomAccessFile.seek(readBlockSize(file) - 5);
+            randomAccessFile.write(crc ^ 0xFF);
+        }
+
+        readAll(Readables.inputStream(file));
+    }
+
+    private static int readBlockSize(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = new byte[18];
+            assertThat(in.read(header), is(18));
+            return ((header[16] & 0xFF) | ((header[17] & 0xFF) << 8)) + 1;
+        }
+    }
+
+    @Test
+    public void shouldSeekThroughBlockGzipFiles() throws Exception {
+        File file = writeBlockGzip("params.csv.gz", rows(20000));
+        CharSeeker charSeeker = new BufferedCharSeeker(Readables.file(file));
+        Extractors extractors = new Extractors(';', ',');
+        Mark mark = new Mark();
+        int[] columnDelimiters = new int[]{'|'};
+
+        long sum = 0;
+        int count = 0;
+        while (charSeeker.seek(mark, columnDelimiters)) {
+            long id = charSeeker.extract(mark, extractors.long_()).longValue();
+            charSeeker.seek(mark, columnDelimiters);
+            assertThat(charSeeker.extract(mark, extractors.string()).value(), equalTo("Łódź"));
+            charSeeker.seek(mark, columnDelimiters);
+            charSeeker.seek(mark, columnDelimiters);
+            sum += id;
+            count++;
+        }
+        charSeeker.close();
+
+        assertThat(count, is(20000));
+        assertThat(sum, is(19999L * 20000 / 2));
+    }
+}
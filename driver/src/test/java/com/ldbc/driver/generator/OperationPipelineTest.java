@@ -0,0 +1,119 @@
+package com.ldbc.driver.generator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.workloads.dummy.TimedNamedOperation1;
+import com.ldbc.driver.workloads.dummy.TimedNamedOperation2;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class OperationPipelineTest
+{
+    private final GeneratorFactory gf = new GeneratorFactory( new RandomDataGeneratorFactory( 42l ) );
+
+    // alternating TimedNamedOperation1 and TimedNamedOperation2, scheduled every 100 ms from 1000
+    private Iterator<Operation> operations( int count )
+    {
+        List<Operation> operations = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            long startTime = 1000 + i * 100;
+            operations.add( (i % 2 == 0)
+                            ? new TimedNamedOperation1( startTime, startTime, startTime - 10, "op" + i )
+                            : new TimedNamedOperation2( startTime, startTime, startTime - 10, "op" + i ) );
+        }
+        return operations.iterator();
+    }
+
+    @Test
+    public void shouldFilterLimitAndTimeMapInOneStage()
+    {
+        // Given
+        OperationPipeline pipeline = gf.operationPipeline( operations( 10 ) )
+                .timeOffsetAndCompress( 0, 0.5 )
+                .limit( 3 )
+                .filter( Sets.<Class<? extends Operation>>newHashSet( TimedNamedOperation2.class ) );
+
+        // When
+        List<Operation> operations = ImmutableList.copyOf( pipeline );
+
+        // Then
+        assertThat( operations.size(), is( 3 ) );
+        assertThat( operations.get( 0 ).getClass().equals( TimedNamedOperation2.class ), is( true ) );
+        assertThat( operations.get( 0 ).scheduledStartTimeAsMilli(), equalTo( 0l ) );
+        assertThat( operations.get( 1 ).scheduledStartTimeAsMilli(), equalTo( 100l ) );
+        assertThat( operations.get( 2 ).scheduledStartTimeAsMilli(), equalTo( 200l ) );
+        // only scheduled start times are mapped
+        assertThat( operations.get( 2 ).timeStamp(), equalTo( 1500l ) );
+        assertThat( operations.get( 2 ).dependencyTimeStamp(), equalTo( 1490l ) );
+    }
+
+    @Test
+    public void shouldPeekBeforeTimeMapping()
+    {
+        // Given
+        OperationPipeline pipeline = gf.operationPipeline( operations( 2 ) );
+
+        // When
+        Operation first = pipeline.peek();
+        pipeline.timeOffsetAndCompress( 5000, null );
+
+        // Then
+        assertThat( first.scheduledStartTimeAsMilli(), equalTo( 1000l ) );
+        assertThat( pipeline.next(), sameInstance( first ) );
+        assertThat( first.scheduledStartTimeAsMilli(), equalTo( 5000l ) );
+        assertThat( pipeline.next().scheduledStartTimeAsMilli(), equalTo( 5100l ) );
+        assertThat( pipeline.hasNext(), is( false ) );
+        assertThat( pipeline.peek(), nullValue() );
+    }
+
+    @Test
+    public void shouldFilterOperationAlreadyPeekedAt()
+    {
+        // Given
+        OperationPipeline pipeline = gf.operationPipeline( operations( 4 ) );
+        assertThat( pipeline.peek().getClass().equals( TimedNamedOperation1.class ), is( true ) );
+
+        // When
+        pipeline.filter( Sets.<Class<? extends Operation>>newHashSet( TimedNamedOperation2.class ) );
+
+        // Then
+        assertThat( pipeline.next().scheduledStartTimeAsMilli(), equalTo( 1100l ) );
+        assertThat( pipeline.next().scheduledStartTimeAsMilli(), equalTo( 1300l ) );
+        assertThat( pipeline.hasNext(), is( false ) );
+    }
+
+    @Test
+    public void shouldFuseStagesIntoPipelineNotYetRetrievedFrom()
+    {
+        // Given
+        OperationPipeline pipeline = gf.operationPipeline( operations( 10 ) ).limit( 5 );
+
+        // When
+        Iterator<Operation> timeMapped = gf.timeOffsetAndCompress( pipeline, 0, null );
+
+        // Then
+        assertThat( timeMapped, sameInstance( (Iterator<Operation>) pipeline ) );
+        assertThat( ImmutableList.copyOf( timeMapped ).size(), is( 5 ) );
+        // a time mapped pipeline is wrapped, not time mapped again
+        assertThat( gf.operationPipeline( pipeline ) == pipeline, is( false ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotAddStagesOnceRetrievedFrom()
+    {
+        OperationPipeline pipeline = gf.operationPipeline( operations( 10 ) );
+        pipeline.next();
+        pipeline.limit( 1 );
+    }
+}
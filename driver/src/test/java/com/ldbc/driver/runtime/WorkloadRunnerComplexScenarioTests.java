@@ -1778,6 +1778,7 @@ public class WorkloadRunnerComplexScenarioTests
                 statusDisplayIntervalAsMilli,
                 spinnerSleepDurationAsMilli,
                 ignoreScheduledStartTime,
+                Spinner.NO_THINK_TIME,
                 operationHandlerExecutorsBoundedQueueSize
         );
         return new WorkloadRunnerThread( runner, errorReporter );
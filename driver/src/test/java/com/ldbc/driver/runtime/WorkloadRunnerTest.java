@@ -27,6 +27,7 @@ import com.ldbc.driver.runtime.metrics.MetricsService;
 import com.ldbc.driver.runtime.metrics.SimpleDetailedWorkloadMetricsFormatter;
 import com.ldbc.driver.runtime.metrics.ThreadedQueuedMetricsService;
 import com.ldbc.driver.runtime.metrics.WorkloadResultsSnapshot;
+import com.ldbc.driver.runtime.scheduling.Spinner;
 import com.ldbc.driver.temporal.SystemTimeSource;
 import com.ldbc.driver.temporal.TemporalUtil;
 import com.ldbc.driver.temporal.TimeSource;
@@ -211,6 +212,7 @@ public class WorkloadRunnerTest
                     controlService.configuration().statusDisplayIntervalAsSeconds(),
                     controlService.configuration().spinnerSleepDurationAsMilli(),
                     controlService.configuration().ignoreScheduledStartTimes(),
+                    Spinner.NO_THINK_TIME,
                     boundedQueueSize );
 
             runner.getFuture().get();
@@ -414,6 +416,7 @@ public class WorkloadRunnerTest
                     controlService.configuration().statusDisplayIntervalAsSeconds(),
                     controlService.configuration().spinnerSleepDurationAsMilli(),
                     controlService.configuration().ignoreScheduledStartTimes(),
+                    Spinner.NO_THINK_TIME,
                     boundedQueueSize );
 
             runner.getFuture().get();
@@ -637,6 +640,7 @@ public class WorkloadRunnerTest
                     controlService.configuration().statusDisplayIntervalAsSeconds(),
                     controlService.configuration().spinnerSleepDurationAsMilli(),
                     controlService.configuration().ignoreScheduledStartTimes(),
+                    Spinner.NO_THINK_TIME,
                     boundedQueueSize );
 
             runner.getFuture().get();
@@ -899,6 +903,7 @@ public class WorkloadRunnerTest
                     controlService.configuration().statusDisplayIntervalAsSeconds(),
                     controlService.configuration().spinnerSleepDurationAsMilli(),
                     controlService.configuration().ignoreScheduledStartTimes(),
+                    Spinner.NO_THINK_TIME,
                     boundedQueueSize );
 
             runner.getFuture().get();
@@ -31,6 +31,8 @@ public class DisruptorSbeMetricsServiceTest
     {
         ConcurrentErrorReporter errorReporter = new ConcurrentErrorReporter();
         SimpleCsvFileWriter csvResultsLogWriter = null;
+        boolean ignoreScheduledStartTimes = false;
+        long expectedIntervalAsNano = 0;
         Map<Integer,Class<? extends Operation>> operationTypeToClassMapping = new HashMap<>();
         operationTypeToClassMapping.put( LdbcQuery1.TYPE, LdbcQuery1.class );
         operationTypeToClassMapping.put( LdbcQuery2.TYPE, LdbcQuery2.class );
@@ -41,6 +43,8 @@ public class DisruptorSbeMetricsServiceTest
                 DisruptorSbeMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
                 csvResultsLogWriter,
                 operationTypeToClassMapping,
+                ignoreScheduledStartTimes,
+                expectedIntervalAsNano,
                 loggingServiceFactory
         );
         metricsService.shutdown();
@@ -61,6 +65,8 @@ public class DisruptorSbeMetricsServiceTest
     {
         ConcurrentErrorReporter errorReporter = new ConcurrentErrorReporter();
         SimpleCsvFileWriter csvResultsLogWriter = null;
+        boolean ignoreScheduledStartTimes = false;
+        long expectedIntervalAsNano = 0;
         Map<Integer,Class<? extends Operation>> operationTypeToClassMapping = new HashMap<>();
         operationTypeToClassMapping.put( LdbcQuery1.TYPE, LdbcQuery1.class );
         operationTypeToClassMapping.put( LdbcQuery2.TYPE, LdbcQuery2.class );
@@ -71,6 +77,8 @@ public class DisruptorSbeMetricsServiceTest
                 DisruptorSbeMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
                 csvResultsLogWriter,
                 operationTypeToClassMapping,
+                ignoreScheduledStartTimes,
+                expectedIntervalAsNano,
                 loggingServiceFactory
         );
         try
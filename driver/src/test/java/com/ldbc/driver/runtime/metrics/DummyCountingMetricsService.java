@@ -24,6 +24,11 @@ public class DummyCountingMetricsService implements MetricsService, MetricsServi
         count++;
     }
 
+    @Override
+    public void submitOperationPhase(int operationType, int phaseId, long phaseDurationAsNano)
+            throws MetricsCollectionException {
+    }
+
     public long count() {
         return count;
     }
@@ -47,4 +52,9 @@ public class DummyCountingMetricsService implements MetricsService, MetricsServi
     public MetricsServiceWriter getWriter() {
         return this;
     }
+
+    @Override
+    public LiveMetricsSnapshot liveSnapshot() {
+        return null;
+    }
 }
@@ -0,0 +1,137 @@
+package com.ldbc.driver.runtime.metrics;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class LiveMetricsHttpServerTest
+{
+    private static LiveMetrics liveMetrics()
+    {
+        Map<String,Long> uncompletedOperationHandlerCounts = new LinkedHashMap<>();
+        uncompletedOperationHandlerCounts.put( "asynchronous", 12l );
+        uncompletedOperationHandlerCounts.put( "blocking_0", 3l );
+        LiveMetricsSnapshot.OperationTypeSnapshot active = new LiveMetricsSnapshot.OperationTypeSnapshot(
+                "LdbcQuery1",
+                100,
+                10,
+                5.0,
+                new ContinuousMetricSnapshot( "Runtime", TimeUnit.MILLISECONDS, 10, 20, 1, 250, 20, 40, 50, 250 ),
+                new ContinuousMetricSnapshot( "ResponseTime", TimeUnit.MILLISECONDS, 10, 30, 1, 500, 30, 60, 70, 500 )
+        );
+        LiveMetricsSnapshot.OperationTypeSnapshot idle = new LiveMetricsSnapshot.OperationTypeSnapshot(
+                "LdbcQuery2",
+                0,
+                0,
+                0,
+                new ContinuousMetricSnapshot( "Runtime", TimeUnit.MILLISECONDS, 0, -1, -1, -1, -1, -1, -1, -1 ),
+                new ContinuousMetricSnapshot( "ResponseTime", TimeUnit.MILLISECONDS, 0, -1, -1, -1, -1, -1, -1, -1 )
+        );
+        LiveMetricsSnapshot snapshot =
+                new LiveMetricsSnapshot( 10000, 2000, TimeUnit.MILLISECONDS, Lists.newArrayList( active, idle ) );
+        return new LiveMetrics( 10500, "run", 9000, 1500, uncompletedOperationHandlerCounts, 512, snapshot );
+    }
+
+    private static String get( int port, String path ) throws IOException
+    {
+        HttpURLConnection connection =
+                (HttpURLConnection) new URL( "http://localhost:" + port + path ).openConnection();
+        assertThat( connection.getResponseCode(), equalTo( 200 ) );
+        try ( InputStream inputStream = connection.getInputStream();
+              Scanner scanner = new Scanner( inputStream, StandardCharsets.UTF_8.name() ) )
+        {
+            return scanner.useDelimiter( "\\A" ).next();
+        }
+    }
+
+    @Test
+    public void shouldServePrometheusTextAndJson() throws IOException
+    {
+        // Given
+        LiveMetricsHttpServer server = new LiveMetricsHttpServer( 0, new LiveMetricsHttpServer.LiveMetricsSource()
+        {
+            @Override
+            public LiveMetrics liveMetrics()
+            {
+                return LiveMetricsHttpServerTest.liveMetrics();
+            }
+        } );
+        server.start();
+
+        try
+        {
+            // When
+            String prometheusText = get( server.port(), LiveMetricsHttpServer.PROMETHEUS_PATH );
+            String json = get( server.port(), LiveMetricsHttpServer.JSON_PATH );
+
+            // Then
+            assertThat( prometheusText, containsString( "# TYPE ldbc_driver_operations_total counter\n" ) );
+            assertThat( prometheusText,
+                    containsString( "ldbc_driver_operations_total{operation=\"LdbcQuery1\"} 100\n" ) );
+            assertThat( prometheusText,
+                    containsString( "ldbc_driver_interval_throughput{operation=\"LdbcQuery1\"} 5.0\n" ) );
+            assertThat( prometheusText,
+                    containsString( "# TYPE ldbc_driver_interval_run_time_seconds summary\n" ) );
+            assertThat( prometheusText, containsString(
+                    "ldbc_driver_interval_run_time_seconds{operation=\"LdbcQuery1\",quantile=\"0.95\"} 0.05\n" ) );
+            assertThat( prometheusText,
+                    containsString( "ldbc_driver_interval_run_time_seconds_sum{operation=\"LdbcQuery1\"} 0.2\n" ) );
+            assertThat( prometheusText,
+                    containsString( "ldbc_driver_interval_run_time_seconds_count{operation=\"LdbcQuery1\"} 10\n" ) );
+            assertThat( prometheusText,
+                    containsString( "ldbc_driver_interval_run_time_seconds_count{operation=\"LdbcQuery2\"} 0\n" ) );
+            assertThat( prometheusText, containsString(
+                    "ldbc_driver_interval_response_time_seconds{operation=\"LdbcQuery1\",quantile=\"1\"} 0.5\n" ) );
+            assertThat( prometheusText,
+                    not( containsString( "ldbc_driver_interval_run_time_seconds{operation=\"LdbcQuery2\"" ) ) );
+            assertThat( prometheusText, containsString( "ldbc_driver_live_snapshot_timestamp_seconds 10.0\n" ) );
+            assertThat( prometheusText, containsString( "ldbc_driver_live_snapshot_age_seconds 0.5\n" ) );
+            assertThat( prometheusText, containsString( "ldbc_driver_global_completion_time_lag_seconds 1.5\n" ) );
+            assertThat( prometheusText,
+                    containsString( "ldbc_driver_uncompleted_operation_handlers{executor=\"blocking_0\"} 3\n" ) );
+            assertThat( prometheusText, containsString( "ldbc_driver_operation_handler_pool_size 512\n" ) );
+
+            assertThat( json, containsString( "\"global_completion_time_lag\" : 1500" ) );
+            assertThat( json, containsString( "\"asynchronous\" : 12" ) );
+            assertThat( json, containsString( "\"interval_throughput\" : 5.0" ) );
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldServeRuntimeStateBeforeFirstLiveSnapshot() throws IOException
+    {
+        // Given
+        LiveMetrics liveMetrics =
+                new LiveMetrics( 10500, "warmup", -1, -1, new LinkedHashMap<String,Long>(), 0, null );
+
+        // When
+        String prometheusText = LiveMetricsHttpServer.toPrometheusText( liveMetrics );
+        String json = LiveMetricsHttpServer.toJson( liveMetrics );
+
+        // Then
+        assertThat( prometheusText, containsString( "ldbc_driver_operation_handler_pool_size 0\n" ) );
+        assertThat( prometheusText, not( containsString( "global_completion_time_lag" ) ) );
+        assertThat( prometheusText, not( containsString( "operations_total" ) ) );
+        assertThat( prometheusText, not( containsString( "live_snapshot_age_seconds" ) ) );
+        assertThat( json, containsString( "\"phase\" : \"warmup\"" ) );
+        assertThat( json, containsString( "\"metrics\" : null" ) );
+    }
+}
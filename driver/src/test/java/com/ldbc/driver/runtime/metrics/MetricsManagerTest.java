@@ -1,18 +1,22 @@
 package com.ldbc.driver.runtime.metrics;
 
 import com.ldbc.driver.Operation;
+import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.WorkloadException;
 import com.ldbc.driver.control.Log4jLoggingServiceFactory;
 import com.ldbc.driver.control.LoggingServiceFactory;
+import com.ldbc.driver.temporal.ManualTimeSource;
 import com.ldbc.driver.temporal.SystemTimeSource;
 import com.ldbc.driver.temporal.TimeSource;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcSnbInteractiveWorkloadConfiguration;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.db.DummyLdbcSnbInteractiveOperationInstances;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 public class MetricsManagerTest
@@ -28,6 +32,8 @@ public class MetricsManagerTest
                 TimeUnit.MILLISECONDS,
                 ThreadedQueuedMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
                 LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping(),
+                false,
+                0,
                 loggingServiceFactory
         );
 
@@ -43,12 +49,212 @@ public class MetricsManagerTest
         long operation3ActualStartTimeAsMilli = 11;
         long operation3RunDurationAsNano = TimeUnit.MILLISECONDS.toNanos( 5 );
 
-        metricsManager.measure( operation1ActualStartTimeAsMilli, operation1RunDurationAsNano, operation1.type() );
-        metricsManager.measure( operation2ActualStartTimeAsMilli, operation2RunDurationAsNano, operation2.type() );
-        metricsManager.measure( operation3ActualStartTimeAsMilli, operation3RunDurationAsNano, operation3.type() );
+        metricsManager.measure( operation1ActualStartTimeAsMilli, operation1ActualStartTimeAsMilli,
+                operation1RunDurationAsNano, operation1.type() );
+        metricsManager.measure( operation2ActualStartTimeAsMilli, operation2ActualStartTimeAsMilli,
+                operation2RunDurationAsNano, operation2.type() );
+        metricsManager.measure( operation3ActualStartTimeAsMilli, operation3ActualStartTimeAsMilli,
+                operation3RunDurationAsNano, operation3.type() );
 
         WorkloadResultsSnapshot snapshot = metricsManager.snapshot();
         assertThat( snapshot.startTimeAsMilli(), equalTo( 2l ) );
         assertThat( snapshot.latestFinishTimeAsMilli(), equalTo( 16l ) );
     }
+
+    @Test
+    public void shouldReturnPhaseMeasurementsPerOperationType()
+            throws WorkloadException, MetricsCollectionException, IOException
+    {
+        MetricsManager metricsManager = new MetricsManager(
+                timeSource,
+                TimeUnit.MILLISECONDS,
+                ThreadedQueuedMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
+                LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping(),
+                false,
+                0,
+                loggingServiceFactory
+        );
+
+        Operation operation1 = DummyLdbcSnbInteractiveOperationInstances.read1();
+        Operation operation2 = DummyLdbcSnbInteractiveOperationInstances.read2();
+
+        metricsManager.measure( 2, 2, TimeUnit.MILLISECONDS.toNanos( 4 ), operation1.type() );
+        metricsManager.measurePhase( operation1.type(), 0, TimeUnit.MILLISECONDS.toNanos( 1 ) );
+        metricsManager.measurePhase( operation1.type(), 2, TimeUnit.MILLISECONDS.toNanos( 3 ) );
+        metricsManager.measure( 5, 5, TimeUnit.MILLISECONDS.toNanos( 6 ), operation1.type() );
+        metricsManager.measurePhase( operation1.type(), 0, TimeUnit.MILLISECONDS.toNanos( 5 ) );
+        metricsManager.measure( 7, 7, TimeUnit.MILLISECONDS.toNanos( 1 ), operation2.type() );
+
+        WorkloadResultsSnapshot snapshot = metricsManager.snapshot();
+        for ( OperationMetricsSnapshot operationMetrics : snapshot.allMetrics() )
+        {
+            if ( operationMetrics.name().equals( operation1.getClass().getSimpleName() ) )
+            {
+                assertThat( operationMetrics.phaseMetrics().size(), equalTo( 2 ) );
+                ContinuousMetricSnapshot phase0 = operationMetrics.phaseMetrics().get( 0 );
+                assertThat( phase0.name(), equalTo( "Phase-0" ) );
+                assertThat( phase0.count(), equalTo( 2l ) );
+                assertThat( phase0.min(), equalTo( 1l ) );
+                assertThat( phase0.max(), equalTo( 5l ) );
+                ContinuousMetricSnapshot phase2 = operationMetrics.phaseMetrics().get( 1 );
+                assertThat( phase2.name(), equalTo( "Phase-2" ) );
+                assertThat( phase2.count(), equalTo( 1l ) );
+                assertThat( phase2.max(), equalTo( 3l ) );
+            }
+            else
+            {
+                assertThat( operationMetrics.phaseMetrics().isEmpty(), equalTo( true ) );
+            }
+        }
+        assertThat( WorkloadResultsSnapshot.fromJson( snapshot.toJson() ), equalTo( snapshot ) );
+    }
+
+    @Test
+    public void shouldReportNamedPhasesByName() throws WorkloadException, MetricsCollectionException
+    {
+        MetricsManager metricsManager = new MetricsManager(
+                timeSource,
+                TimeUnit.MILLISECONDS,
+                ThreadedQueuedMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
+                LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping(),
+                false,
+                0,
+                loggingServiceFactory
+        );
+        int phaseId = ResultReporter.MAX_PHASE_COUNT - 1;
+        Operation operation1 = DummyLdbcSnbInteractiveOperationInstances.read1();
+
+        ResultReporter.PhaseNames.setPhaseName( phaseId, "result_decoding" );
+        try
+        {
+            metricsManager.measure( 2, 2, TimeUnit.MILLISECONDS.toNanos( 4 ), operation1.type() );
+            metricsManager.measurePhase( operation1.type(), phaseId, TimeUnit.MILLISECONDS.toNanos( 1 ) );
+        }
+        finally
+        {
+            ResultReporter.PhaseNames.setPhaseName( phaseId, null );
+        }
+
+        OperationMetricsSnapshot operationMetrics = metricsManager.snapshot().allMetrics().get( 0 );
+        assertThat( operationMetrics.phaseMetrics().size(), equalTo( 1 ) );
+        assertThat( operationMetrics.phaseMetrics().get( 0 ).name(), equalTo( "result_decoding" ) );
+    }
+
+    @Test
+    public void shouldMeasureResponseTimeFromScheduledStartTimeInOpenLoop() throws WorkloadException,
+            MetricsCollectionException
+    {
+        MetricsManager metricsManager = new MetricsManager(
+                timeSource,
+                TimeUnit.MILLISECONDS,
+                ThreadedQueuedMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
+                LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping(),
+                false,
+                0,
+                loggingServiceFactory
+        );
+        Operation operation = DummyLdbcSnbInteractiveOperationInstances.read1();
+
+        // on time
+        metricsManager.measure( 10, 10, TimeUnit.MILLISECONDS.toNanos( 2 ), operation.type() );
+        // started early, waiting is not counted
+        metricsManager.measure( 20, 18, TimeUnit.MILLISECONDS.toNanos( 2 ), operation.type() );
+        // started 100 ms behind schedule
+        metricsManager.measure( 30, 130, TimeUnit.MILLISECONDS.toNanos( 2 ), operation.type() );
+
+        OperationMetricsSnapshot operationMetrics = metricsManager.snapshot().allMetrics().get( 0 );
+        assertThat( operationMetrics.runTimeMetric().count(), equalTo( 3l ) );
+        assertThat( operationMetrics.runTimeMetric().max(), equalTo( 2l ) );
+        assertThat( operationMetrics.responseTimeMetric().count(), equalTo( 3l ) );
+        assertThat( operationMetrics.responseTimeMetric().min(), equalTo( 2l ) );
+        assertThat( operationMetrics.responseTimeMetric().max(), equalTo( 102l ) );
+    }
+
+    @Test
+    public void shouldCorrectResponseTimeForCoordinatedOmissionInClosedLoop() throws WorkloadException,
+            MetricsCollectionException, IOException
+    {
+        long thinkTimeAsNano = TimeUnit.MILLISECONDS.toNanos( 10 );
+        MetricsManager metricsManager = new MetricsManager(
+                timeSource,
+                TimeUnit.MILLISECONDS,
+                ThreadedQueuedMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
+                LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping(),
+                true,
+                thinkTimeAsNano,
+                loggingServiceFactory
+        );
+        Operation operation = DummyLdbcSnbInteractiveOperationInstances.read1();
+
+        // scheduled start times are ignored in closed loop
+        metricsManager.measure( 0, 1000, TimeUnit.MILLISECONDS.toNanos( 5 ), operation.type() );
+        // stall of 45 ms, back fills response times of operations held back, down to the expected interval: 35, 25, 15
+        metricsManager.measure( 0, 1010, TimeUnit.MILLISECONDS.toNanos( 45 ), operation.type() );
+
+        WorkloadResultsSnapshot snapshot = metricsManager.snapshot();
+        OperationMetricsSnapshot operationMetrics = snapshot.allMetrics().get( 0 );
+        assertThat( operationMetrics.runTimeMetric().count(), equalTo( 2l ) );
+        assertThat( operationMetrics.runTimeMetric().max(), equalTo( 45l ) );
+        assertThat( operationMetrics.responseTimeMetric().count(), equalTo( 5l ) );
+        assertThat( operationMetrics.responseTimeMetric().max(), equalTo( 45l ) );
+        assertThat( operationMetrics.responseTimeMetric().percentile50(), equalTo( 25l ) );
+        assertThat( WorkloadResultsSnapshot.fromJson( snapshot.toJson() ), equalTo( snapshot ) );
+    }
+
+    @Test
+    public void shouldPublishLiveSnapshotsOfIntervalsOnlyAfterRequested() throws WorkloadException,
+            MetricsCollectionException
+    {
+        ManualTimeSource manualTimeSource = new ManualTimeSource( 0 );
+        MetricsManager metricsManager = new MetricsManager(
+                manualTimeSource,
+                TimeUnit.MILLISECONDS,
+                ThreadedQueuedMetricsService.DEFAULT_HIGHEST_EXPECTED_RUNTIME_DURATION_AS_NANO,
+                LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping(),
+                false,
+                0,
+                loggingServiceFactory
+        );
+        Operation operation = DummyLdbcSnbInteractiveOperationInstances.read1();
+
+        // not requested, nothing is published
+        metricsManager.measure( 0, 0, TimeUnit.MILLISECONDS.toNanos( 7 ), operation.type() );
+        manualTimeSource.setNowFromMilli( 5000 );
+        metricsManager.publishLiveSnapshotIfDue();
+        assertThat( metricsManager.liveSnapshot(), nullValue() );
+
+        // requested, first interval starts
+        metricsManager.publishLiveSnapshotIfDue();
+        assertThat( metricsManager.liveSnapshot(), nullValue() );
+
+        metricsManager.measure( 5000, 5000, TimeUnit.MILLISECONDS.toNanos( 3 ), operation.type() );
+        metricsManager.measure( 5000, 5010, TimeUnit.MILLISECONDS.toNanos( 3 ), operation.type() );
+        manualTimeSource.setNowFromMilli( 5000 + MetricsManager.LIVE_SNAPSHOT_INTERVAL_AS_MILLI - 1 );
+        metricsManager.publishLiveSnapshotIfDue();
+        assertThat( metricsManager.liveSnapshot(), nullValue() );
+
+        manualTimeSource.setNowFromMilli( 7000 );
+        metricsManager.publishLiveSnapshotIfDue();
+        LiveMetricsSnapshot liveSnapshot = metricsManager.liveSnapshot();
+        assertThat( liveSnapshot.asOfTimeAsMilli(), equalTo( 7000l ) );
+        assertThat( liveSnapshot.intervalDurationAsMilli(), equalTo( 2000l ) );
+        LiveMetricsSnapshot.OperationTypeSnapshot operationTypeSnapshot = null;
+        for ( LiveMetricsSnapshot.OperationTypeSnapshot snapshot : liveSnapshot.operationTypes() )
+        {
+            if ( snapshot.name().equals( operation.getClass().getSimpleName() ) )
+            {
+                operationTypeSnapshot = snapshot;
+            }
+        }
+        assertThat( operationTypeSnapshot.count(), equalTo( 3l ) );
+        assertThat( operationTypeSnapshot.intervalCount(), equalTo( 2l ) );
+        assertThat( operationTypeSnapshot.intervalThroughput(), equalTo( 1.0 ) );
+        assertThat( operationTypeSnapshot.intervalRunTime().max(), equalTo( 3l ) );
+        assertThat( operationTypeSnapshot.intervalResponseTime().max(), equalTo( 13l ) );
+
+        // next interval starts empty
+        LiveMetricsSnapshot nextLiveSnapshot = metricsManager.newLiveSnapshot( 8000 );
+        assertThat( nextLiveSnapshot.operationTypes().get( 0 ).intervalCount(), equalTo( 0l ) );
+        assertThat( nextLiveSnapshot.operationTypes().get( 0 ).intervalRunTime().max(), equalTo( -1l ) );
+    }
 }
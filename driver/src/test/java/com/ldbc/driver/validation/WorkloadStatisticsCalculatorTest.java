@@ -20,9 +20,11 @@ import com.ldbc.driver.workloads.dummy.TimedNamedOperation3Factory;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -268,4 +270,129 @@ public class WorkloadStatisticsCalculatorTest
 
         System.out.println( stats.toString() );
     }
+
+    @Test
+    public void shouldMergeInterleavesAcrossStreamsAndReportProgress() throws MetricsCollectionException
+    {
+        // Given
+        long operation1CountPerStream = 5000;
+        long operation1Interleave = 100l;
+        long operation1InterleavePerStream = 2 * operation1Interleave;
+
+        long operation2Count = 100;
+        long operation2StartTime = 50l;
+        long operation2Interleave = 1000l;
+
+        // two blocking streams of the same operation type, each spanning multiple chunks, that interleave
+        Iterator<Operation> operation1StreamA = gf.limit(
+                new TimedNamedOperation1Factory(
+                        gf.incrementing( 0l, operation1InterleavePerStream ),
+                        gf.incrementing( 0l, 0l ),
+                        gf.constant( "name1" )
+                ),
+                operation1CountPerStream );
+        Iterator<Operation> operation1StreamB = gf.limit(
+                new TimedNamedOperation1Factory(
+                        gf.incrementing( operation1Interleave, operation1InterleavePerStream ),
+                        gf.incrementing( 0l, 0l ),
+                        gf.constant( "name1" )
+                ),
+                operation1CountPerStream );
+        Iterator<Operation> operation2Stream = gf.limit(
+                new TimedNamedOperation2Factory(
+                        gf.incrementing( operation2StartTime, operation2Interleave ),
+                        gf.incrementing( 0l, operation2Interleave ),
+                        gf.constant( "name2" )
+                ),
+                operation2Count );
+
+        WorkloadStreams workloadStreams = new WorkloadStreams();
+        workloadStreams.setAsynchronousStream(
+                Sets.<Class<? extends Operation>>newHashSet(),
+                Sets.<Class<? extends Operation>>newHashSet(),
+                Collections.<Operation>emptyIterator(),
+                operation2Stream,
+                null
+        );
+        workloadStreams.addBlockingStream(
+                Sets.<Class<? extends Operation>>newHashSet(),
+                Sets.<Class<? extends Operation>>newHashSet(),
+                Collections.<Operation>emptyIterator(),
+                operation1StreamA,
+                null
+        );
+        workloadStreams.addBlockingStream(
+                Sets.<Class<? extends Operation>>newHashSet(),
+                Sets.<Class<? extends Operation>>newHashSet(),
+                Collections.<Operation>emptyIterator(),
+                operation1StreamB,
+                null
+        );
+
+        final List<Long> progressOperationCounts = new ArrayList<>();
+        final List<Long> progressStartTimes = new ArrayList<>();
+        WorkloadStatisticsCalculator.ProgressListener progressListener =
+                new WorkloadStatisticsCalculator.ProgressListener()
+                {
+                    @Override
+                    public void onProgress( long operationCount, long scheduledStartTimeAsMilli,
+                            ContinuousMetricSnapshot operationInterleaves )
+                    {
+                        progressOperationCounts.add( operationCount );
+                        progressStartTimes.add( scheduledStartTimeAsMilli );
+                        assertThat( operationInterleaves.count(), is( operationCount - 1 ) );
+                    }
+                };
+
+        // When
+
+        WorkloadStatisticsCalculator calculator = new WorkloadStatisticsCalculator();
+        WorkloadStatistics stats =
+                calculator.calculate( workloadStreams, TimeUnit.MINUTES.toMillis( 60 ), progressListener, 1000 );
+
+        // Then
+
+        long expectedOperation1Count = 2 * operation1CountPerStream;
+        long expectedOperationCount = expectedOperation1Count + operation2Count;
+
+        assertThat( stats.totalCount(), is( expectedOperationCount ) );
+        assertThat( stats.operationTypeCount(), is( 2 ) );
+        assertThat( stats.firstStartTimeAsMilli(), equalTo( 0l ) );
+        assertThat( stats.lastStartTimeAsMilli(), equalTo( (expectedOperation1Count - 1) * operation1Interleave ) );
+        assertThat( stats.operationMix().getBucketValue(
+                Bucket.DiscreteBucket.create( (Class) TimedNamedOperation1.class ) ), is( expectedOperation1Count ) );
+        assertThat( stats.operationMix().getBucketValue(
+                Bucket.DiscreteBucket.create( (Class) TimedNamedOperation2.class ) ), is( operation2Count ) );
+
+        ContinuousMetricSnapshot operationInterleaves = stats.operationInterleaves().snapshot();
+        assertThat( operationInterleaves.count(), is( expectedOperationCount - 1 ) );
+        assertThat( operationInterleaves.max(), is( operation1Interleave ) );
+
+        ContinuousMetricSnapshot operation1Interleaves =
+                stats.operationInterleavesByOperationType().get( TimedNamedOperation1.class ).snapshot();
+        assertThat( operation1Interleaves.min(), is( operation1Interleave ) );
+        assertThat( operation1Interleaves.max(), is( operation1Interleave ) );
+        assertThat( operation1Interleaves.count(), is( expectedOperation1Count - 1 ) );
+
+        ContinuousMetricSnapshot operation2Interleaves =
+                stats.operationInterleavesByOperationType().get( TimedNamedOperation2.class ).snapshot();
+        assertThat( operation2Interleaves.min(), is( operation2Interleave ) );
+        assertThat( operation2Interleaves.max(), is( operation2Interleave ) );
+        assertThat( operation2Interleaves.count(), is( operation2Count - 1 ) );
+
+        assertThat( stats.lowestDependencyDurationAsMilliByOperationType().get( TimedNamedOperation1.class ),
+                is( 0l ) );
+        assertThat( stats.lowestDependencyDurationAsMilliByOperationType().get( TimedNamedOperation2.class ),
+                is( operation2StartTime ) );
+
+        assertThat( progressOperationCounts.size(), is( (int) (expectedOperationCount / 1000) ) );
+        for ( int i = 0; i < progressOperationCounts.size(); i++ )
+        {
+            assertThat( progressOperationCounts.get( i ), is( (i + 1) * 1000l ) );
+            if ( i > 0 )
+            {
+                assertThat( progressStartTimes.get( i ) >= progressStartTimes.get( i - 1 ), is( true ) );
+            }
+        }
+    }
 }
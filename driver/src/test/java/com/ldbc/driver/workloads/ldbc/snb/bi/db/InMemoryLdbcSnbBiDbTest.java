@@ -0,0 +1,304 @@
+package com.ldbc.driver.workloads.ldbc.snb.bi.db;
+
+import com.google.common.collect.Lists;
+import com.ldbc.driver.Db;
+import com.ldbc.driver.DbException;
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.OperationHandlerRunnableContext;
+import com.ldbc.driver.ResultReporter;
+import com.ldbc.driver.control.Log4jLoggingServiceFactory;
+import com.ldbc.driver.runtime.ConcurrentErrorReporter;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery17FriendshipTriangles;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery17FriendshipTrianglesResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery1PostingSummary;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery1PostingSummaryResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery21Zombies;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery21ZombiesResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery4PopularCountryTopics;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery4PopularCountryTopicsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery6ActivePosters;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery6ActivePostersResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery8RelatedTopics;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiQuery8RelatedTopicsResult;
+import com.ldbc.driver.workloads.ldbc.snb.bi.LdbcSnbBiWorkloadConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class InMemoryLdbcSnbBiDbTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Db db;
+
+    @Before
+    public void initDb() throws IOException, DbException
+    {
+        File dataDir = temporaryFolder.newFolder();
+        write( dataDir, "place_0_0.csv",
+                "id|name|url|type",
+                "1|Berlin|http://berlin|city",
+                "2|Germany|http://germany|country",
+                "3|Europe|http://europe|continent" );
+        write( dataDir, "place_isPartOf_place_0_0.csv",
+                "Place.id|Place.id",
+                "1|2",
+                "2|3" );
+        write( dataDir, "tagclass_0_0.csv",
+                "id|name|url",
+                "100|Thing|http://thing" );
+        write( dataDir, "tagclass_isSubclassOf_tagclass_0_0.csv", "TagClass.id|TagClass.id" );
+        write( dataDir, "tag_0_0.csv",
+                "id|name|url",
+                "10|Music|http://music" );
+        write( dataDir, "tag_hasType_tagclass_0_0.csv",
+                "Tag.id|TagClass.id",
+                "10|100" );
+        write( dataDir, "organisation_0_0.csv", "id|type|name|url" );
+        write( dataDir, "organisation_isLocatedIn_place_0_0.csv", "Organisation.id|Place.id" );
+        write( dataDir, "person_0_0.csv",
+                "id|firstName|lastName|gender|birthday|creationDate|locationIP|browserUsed",
+                "1|Alice|Adams|female|1980-02-01|2010-01-01T00:00:00.000+0000|1.1.1.1|Firefox",
+                "2|Bob|Brown|male|1981-03-02|2010-01-02T00:00:00.000+0000|2.2.2.2|Chrome",
+                "3|Carol|Clark|female|1982-04-03|2010-01-03T00:00:00.000+0000|3.3.3.3|Safari" );
+        write( dataDir, "person_email_emailaddress_0_0.csv", "Person.id|email" );
+        write( dataDir, "person_speaks_language_0_0.csv", "Person.id|language" );
+        write( dataDir, "person_isLocatedIn_place_0_0.csv",
+                "Person.id|Place.id",
+                "1|1",
+                "2|1",
+                "3|1" );
+        write( dataDir, "person_hasInterest_tag_0_0.csv", "Person.id|Tag.id" );
+        write( dataDir, "person_studyAt_organisation_0_0.csv", "Person.id|Organisation.id|classYear" );
+        write( dataDir, "person_workAt_organisation_0_0.csv", "Person.id|Organisation.id|workFrom" );
+        write( dataDir, "person_knows_person_0_0.csv",
+                "Person.id|Person.id|creationDate",
+                "1|2|1000",
+                "2|3|1000",
+                "1|3|1000" );
+        write( dataDir, "forum_0_0.csv",
+                "id|title|creationDate",
+                "50|Wall of Alice|1000" );
+        write( dataDir, "forum_hasModerator_person_0_0.csv",
+                "Forum.id|Person.id",
+                "50|1" );
+        write( dataDir, "forum_hasTag_tag_0_0.csv", "Forum.id|Tag.id" );
+        write( dataDir, "forum_hasMember_person_0_0.csv",
+                "Forum.id|Person.id|joinDate",
+                "50|2|1000",
+                "50|3|1000" );
+        write( dataDir, "post_0_0.csv",
+                "id|imageFile|creationDate|locationIP|browserUsed|language|content|length",
+                "200||2000|2.2.2.2|Chrome|en|hello|5" );
+        write( dataDir, "comment_0_0.csv",
+                "id|creationDate|locationIP|browserUsed|content|length",
+                "201|3000|3.3.3.3|Safari|hi|2" );
+        write( dataDir, "post_hasCreator_person_0_0.csv",
+                "Post.id|Person.id",
+                "200|2" );
+        write( dataDir, "comment_hasCreator_person_0_0.csv",
+                "Comment.id|Person.id",
+                "201|3" );
+        write( dataDir, "post_isLocatedIn_place_0_0.csv",
+                "Post.id|Place.id",
+                "200|2" );
+        write( dataDir, "comment_isLocatedIn_place_0_0.csv",
+                "Comment.id|Place.id",
+                "201|2" );
+        write( dataDir, "forum_containerOf_post_0_0.csv",
+                "Forum.id|Post.id",
+                "50|200" );
+        write( dataDir, "comment_replyOf_post_0_0.csv",
+                "Comment.id|Post.id",
+                "201|200" );
+        write( dataDir, "comment_replyOf_comment_0_0.csv", "Comment.id|Comment.id" );
+        write( dataDir, "post_hasTag_tag_0_0.csv",
+                "Post.id|Tag.id",
+                "200|10" );
+        write( dataDir, "comment_hasTag_tag_0_0.csv", "Comment.id|Tag.id" );
+        write( dataDir, "post_hasMentioned_person_0_0.csv", "Post.id|Person.id" );
+        write( dataDir, "comment_hasMentioned_person_0_0.csv", "Comment.id|Person.id" );
+        write( dataDir, "person_likes_post_0_0.csv",
+                "Person.id|Post.id|creationDate",
+                "1|200|2500",
+                "3|200|2600" );
+        write( dataDir, "person_likes_comment_0_0.csv", "Person.id|Comment.id|creationDate" );
+
+        Map<String,String> params = new HashMap<>();
+        params.put( InMemoryLdbcSnbBiDb.DATA_DIRECTORY_ARG, dataDir.getAbsolutePath() );
+        params.put( InMemoryLdbcSnbBiDb.PARALLELISM_ARG, "2" );
+        db = new InMemoryLdbcSnbBiDb();
+        db.init(
+                params,
+                new Log4jLoggingServiceFactory( false ).loggingServiceFor( getClass().getSimpleName() ),
+                LdbcSnbBiWorkloadConfiguration.operationTypeToClassMapping()
+        );
+    }
+
+    @After
+    public void closeDb() throws IOException
+    {
+        db.close();
+    }
+
+    @Test
+    public void shouldSummarizeMessagesPerYearTypeAndLength() throws DbException
+    {
+        // Given
+        LdbcSnbBiQuery1PostingSummary operation = new LdbcSnbBiQuery1PostingSummary( 5000 );
+
+        // When
+        List<LdbcSnbBiQuery1PostingSummaryResult> results = execute( operation );
+
+        // Then
+        assertThat( results, equalTo( (List) Lists.newArrayList(
+                new LdbcSnbBiQuery1PostingSummaryResult( 1970, false, 0, 1, 5, 5, 50f ),
+                new LdbcSnbBiQuery1PostingSummaryResult( 1970, true, 0, 1, 2, 2, 50f )
+        ) ) );
+    }
+
+    @Test
+    public void shouldCountTaggedPostsOfForumsModeratedInCountry() throws DbException
+    {
+        // Given
+        LdbcSnbBiQuery4PopularCountryTopics operation = new LdbcSnbBiQuery4PopularCountryTopics( "Thing", "Germany",
+                10 );
+
+        // When
+        List<LdbcSnbBiQuery4PopularCountryTopicsResult> results = execute( operation );
+
+        // Then
+        assertThat( results, equalTo( (List) Lists.newArrayList(
+                new LdbcSnbBiQuery4PopularCountryTopicsResult( 50, "Wall of Alice", 1000, 1, 1 )
+        ) ) );
+    }
+
+    @Test
+    public void shouldScoreCreatorsOfTaggedMessages() throws DbException
+    {
+        // Given
+        LdbcSnbBiQuery6ActivePosters operation = new LdbcSnbBiQuery6ActivePosters( "Music", 10 );
+
+        // When
+        List<LdbcSnbBiQuery6ActivePostersResult> results = execute( operation );
+
+        // Then
+        assertThat( results, equalTo( (List) Lists.newArrayList(
+                new LdbcSnbBiQuery6ActivePostersResult( 2, 1, 1, 2, 1 + 2 + 20 )
+        ) ) );
+    }
+
+    @Test
+    public void shouldCountFriendshipTrianglesInCountry() throws DbException
+    {
+        // Given
+        LdbcSnbBiQuery17FriendshipTriangles inGermany = new LdbcSnbBiQuery17FriendshipTriangles( "Germany" );
+        LdbcSnbBiQuery17FriendshipTriangles inUnknownCountry = new LdbcSnbBiQuery17FriendshipTriangles( "Atlantis" );
+
+        // When
+        LdbcSnbBiQuery17FriendshipTrianglesResult resultInGermany = execute( inGermany );
+        LdbcSnbBiQuery17FriendshipTrianglesResult resultInUnknownCountry = execute( inUnknownCountry );
+
+        // Then
+        assertThat( resultInGermany, equalTo( new LdbcSnbBiQuery17FriendshipTrianglesResult( 1 ) ) );
+        assertThat( resultInUnknownCountry, equalTo( new LdbcSnbBiQuery17FriendshipTrianglesResult( 0 ) ) );
+    }
+
+    @Test
+    public void shouldReturnNoResultsForUnknownTag() throws DbException
+    {
+        // Given
+        LdbcSnbBiQuery8RelatedTopics operation = new LdbcSnbBiQuery8RelatedTopics( "Unknown", 10 );
+
+        // When
+        List<LdbcSnbBiQuery8RelatedTopicsResult> results = execute( operation );
+
+        // Then
+        assertThat( results.size(), equalTo( 0 ) );
+    }
+
+    @Test
+    public void shouldFindZombiesByMessagesPerPeriodOfDays() throws DbException
+    {
+        // Given
+        // 2010-03-02, 60, 59 and 58 days after Alice, Bob and Carol were created
+        long endDate = 1267488000000l;
+        LdbcSnbBiQuery21Zombies monthlyPeriods = new LdbcSnbBiQuery21Zombies( "Germany", endDate, 30, 10 );
+        LdbcSnbBiQuery21Zombies longPeriods = new LdbcSnbBiQuery21Zombies( "Germany", endDate, 100, 10 );
+
+        // When
+        List<LdbcSnbBiQuery21ZombiesResult> monthlyResults = execute( monthlyPeriods );
+        List<LdbcSnbBiQuery21ZombiesResult> longResults = execute( longPeriods );
+
+        // Then
+        // Bob and Carol created one message in two periods, Alice none in three
+        assertThat( monthlyResults, equalTo( (List) Lists.newArrayList(
+                new LdbcSnbBiQuery21ZombiesResult( 2, 2, 2, 1.0 ),
+                new LdbcSnbBiQuery21ZombiesResult( 1, 0, 0, 0.0 ),
+                new LdbcSnbBiQuery21ZombiesResult( 3, 0, 0, 0.0 )
+        ) ) );
+        // all were created within one period, only Alice created no message in it
+        assertThat( longResults, equalTo( (List) Lists.newArrayList(
+                new LdbcSnbBiQuery21ZombiesResult( 1, 0, 0, 0.0 )
+        ) ) );
+    }
+
+    @Test( expected = DbException.class )
+    public void shouldRejectZombiePeriodsWithoutDays() throws DbException
+    {
+        execute( new LdbcSnbBiQuery21Zombies( "Germany", 1267488000000l, 0, 10 ) );
+    }
+
+    @Test
+    public void shouldConvertTimestampsToCivilDates()
+    {
+        assertThat( InMemoryLdbcSnbBiDb.civilDate( 0 ), equalTo( 19700101 ) );
+        assertThat( InMemoryLdbcSnbBiDb.civilDate( -1 ), equalTo( 19691231 ) );
+        // 2012-02-29T23:59:59.999
+        assertThat( InMemoryLdbcSnbBiDb.civilDate( 1330559999999l ), equalTo( 20120229 ) );
+        // 2000-03-01T00:00:00.000
+        assertThat( InMemoryLdbcSnbBiDb.civilDate( 951868800000l ), equalTo( 20000301 ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <RESULT_TYPE> RESULT_TYPE execute( Operation<RESULT_TYPE> operation ) throws DbException
+    {
+        OperationHandlerRunnableContext context = db.getOperationHandlerRunnableContext( operation );
+        try
+        {
+            ResultReporter.SimpleResultReporter resultReporter =
+                    new ResultReporter.SimpleResultReporter( new ConcurrentErrorReporter() );
+            context.operationHandler().executeOperation( operation, context.dbConnectionState(), resultReporter );
+            return (RESULT_TYPE) resultReporter.result();
+        }
+        finally
+        {
+            context.cleanup();
+        }
+    }
+
+    private static void write( File directory, String fileName, String... lines ) throws IOException
+    {
+        try ( FileWriter writer = new FileWriter( new File( directory, fileName ) ) )
+        {
+            for ( String line : lines )
+            {
+                writer.write( line );
+                writer.write( "\n" );
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ldbc.driver.workloads.ldbc.snb.interactive;
+
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.csv.simple.SimpleCsvFileReader;
+import com.ldbc.driver.generator.GeneratorException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WriteEventStreamReaderBinaryTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File writeBinaryStream( String csvRows ) throws IOException
+    {
+        File file = temporaryFolder.newFile( "updateStream_0_0_forum.bin" );
+        try ( DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) ) )
+        {
+            out.write( WriteEventStreamReaderBinary.MAGIC );
+            for ( String row : csvRows.split( "\n" ) )
+            {
+                String[] columns = row.split( "\\|", -1 );
+                out.writeLong( Long.parseLong( columns[0] ) );
+                out.writeLong( Long.parseLong( columns[1] ) );
+                out.writeInt( Integer.parseInt( columns[2] ) );
+                out.writeInt( columns.length - 3 );
+                for ( int i = 3; i < columns.length; i++ )
+                {
+                    byte[] field = columns[i].getBytes( StandardCharsets.UTF_8 );
+                    out.writeInt( field.length );
+                    out.write( field );
+                }
+            }
+        }
+        return file;
+    }
+
+    // rows as written by the datagen UpdateEventSerializer, the last one with a field no operation needs
+    private static final String ROWS_FOR_ALL_EVENT_TYPES = "" +
+            "42|666|1|409|Lei|Zhao|male|1234567890|1234567890|14.131.98.220|Chrome|392|english;swedish|" +
+            "user@email.com;lei@email.com|1612|97,1|911,1970;935,1970;913,1971\n" +
+            "43|666|1|410|Ana|Lima|female|-86400000|1234567890|1.2.3.4|Firefox|393||||||\n" +
+            "44|666|2|1582|120207|1234567890\n" +
+            "45|666|3|1095|120426|1234567890\n" +
+            "46|666|4|2118|Group for The_Beekeeper in Pakistan|1234567890|989|10716;10717\n" +
+            "47|666|5|2153|372|1234567890\n" +
+            "48|666|6|120343||1234567890|91.229.229.89|Internet Explorer|es|Hola, qué tal? 1920|19|1673|2152|9|" +
+            "1437;1438|409|true|http://link\n" +
+            "49|666|7|4034293|1234567890|200.11.32.131|Firefox|words|5|7460|91|-1|4034289|" +
+            "1403;1990;2009||false||a.gif\n" +
+            "50|667|8|1920|655|1234567890|unused\n";
+
+    @Test
+    public void shouldDecodeTheSameOperationsAsTheCsvReader() throws IOException
+    {
+        // Given
+        File file = writeBinaryStream( ROWS_FOR_ALL_EVENT_TYPES );
+
+        // When
+        WriteEventStreamReaderBinary binaryReader = new WriteEventStreamReaderBinary( file );
+        SimpleCsvFileReader csvReader = new SimpleCsvFileReader(
+                new BufferedReader( new StringReader( ROWS_FOR_ALL_EVENT_TYPES ) ),
+                SimpleCsvFileReader.DEFAULT_COLUMN_SEPARATOR_REGEX_STRING );
+        Iterator<Operation> csvOperations = WriteEventStreamReaderRegex.create( csvReader );
+
+        // Then
+        int operations = 0;
+        while ( csvOperations.hasNext() )
+        {
+            Operation expected = csvOperations.next();
+            assertThat( binaryReader.hasNext(), is( true ) );
+            Operation actual = binaryReader.next();
+            assertThat( actual, equalTo( expected ) );
+            assertThat( actual.scheduledStartTimeAsMilli(), equalTo( expected.scheduledStartTimeAsMilli() ) );
+            assertThat( actual.timeStamp(), equalTo( expected.timeStamp() ) );
+            assertThat( actual.dependencyTimeStamp(), equalTo( expected.dependencyTimeStamp() ) );
+            operations++;
+        }
+        assertThat( binaryReader.hasNext(), is( false ) );
+        assertThat( operations, is( 9 ) );
+        binaryReader.close();
+        csvReader.close();
+    }
+
+    @Test
+    public void shouldDecodeEvents() throws IOException
+    {
+        // Given
+        File file = writeBinaryStream( "" +
+                                       "42|666|2|1582|120207|1234567890\n" +
+                                       "43|667|8|1920|655|1234567891\n" );
+
+        // When
+        WriteEventStreamReaderBinary operations = new WriteEventStreamReaderBinary( file );
+
+        // Then
+        LdbcUpdate2AddPostLike addPostLike = (LdbcUpdate2AddPostLike) operations.next();
+        assertThat( addPostLike.scheduledStartTimeAsMilli(), is( 42L ) );
+        assertThat( addPostLike.dependencyTimeStamp(), is( 666L ) );
+        assertThat( addPostLike.personId(), is( 1582L ) );
+        assertThat( addPostLike.postId(), is( 120207L ) );
+        assertThat( addPostLike.creationDate().getTime(), is( 1234567890L ) );
+
+        LdbcUpdate8AddFriendship addFriendship = (LdbcUpdate8AddFriendship) operations.next();
+        assertThat( addFriendship.scheduledStartTimeAsMilli(), is( 43L ) );
+        assertThat( addFriendship.person1Id(), is( 1920L ) );
+        assertThat( addFriendship.person2Id(), is( 655L ) );
+        assertThat( operations.hasNext(), is( false ) );
+        operations.close();
+    }
+
+    @Test( expected = GeneratorException.class )
+    public void shouldRejectMalformedNumbers() throws IOException
+    {
+        File file = writeBinaryStream( "42|666|2|1582|12o207|1234567890\n" );
+        try ( WriteEventStreamReaderBinary operations = new WriteEventStreamReaderBinary( file ) )
+        {
+            operations.next();
+        }
+    }
+
+    @Test( expected = GeneratorException.class )
+    public void shouldRejectEventsWithMissingFields() throws IOException
+    {
+        File file = writeBinaryStream( "42|666|8|1920|655\n" );
+        try ( WriteEventStreamReaderBinary operations = new WriteEventStreamReaderBinary( file ) )
+        {
+            operations.next();
+        }
+    }
+
+    @Test( expected = IOException.class )
+    public void shouldRejectFilesWithoutHeader() throws IOException
+    {
+        File file = temporaryFolder.newFile( "updateStream_0_0_person.bin" );
+        try ( FileOutputStream out = new FileOutputStream( file ) )
+        {
+            out.write( "42|666|8|1920|655|1234567890\n".getBytes( StandardCharsets.UTF_8 ) );
+        }
+        new WriteEventStreamReaderBinary( file );
+    }
+}
@@ -0,0 +1,254 @@
+package com.ldbc.driver.workloads.ldbc.snb.interactive.db;
+
+import com.google.common.collect.Lists;
+import com.ldbc.driver.Db;
+import com.ldbc.driver.DbException;
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.OperationHandlerRunnableContext;
+import com.ldbc.driver.ResultReporter;
+import com.ldbc.driver.control.Log4jLoggingServiceFactory;
+import com.ldbc.driver.runtime.ConcurrentErrorReporter;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery1;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery1Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery2;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcQuery2Result;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery2PersonPosts;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery2PersonPostsResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery4MessageContent;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery4MessageContentResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery7MessageReplies;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcShortQuery7MessageRepliesResult;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcSnbInteractiveWorkloadConfiguration;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate6AddPost;
+import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate8AddFriendship;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class InMemoryLdbcSnbInteractiveDbTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Db db;
+
+    @Before
+    public void initDb() throws IOException, DbException
+    {
+        File dataDir = temporaryFolder.newFolder();
+        write( dataDir, "place_0_0.csv",
+                "id|name|url|type",
+                "1|Berlin|http://berlin|city",
+                "2|Germany|http://germany|country",
+                "3|Europe|http://europe|continent" );
+        write( dataDir, "place_isPartOf_place_0_0.csv",
+                "Place.id|Place.id",
+                "1|2",
+                "2|3" );
+        write( dataDir, "tagclass_0_0.csv",
+                "id|name|url",
+                "100|Thing|http://thing" );
+        write( dataDir, "tagclass_isSubclassOf_tagclass_0_0.csv", "TagClass.id|TagClass.id" );
+        write( dataDir, "tag_0_0.csv",
+                "id|name|url",
+                "10|Music|http://music" );
+        write( dataDir, "tag_hasType_tagclass_0_0.csv",
+                "Tag.id|TagClass.id",
+                "10|100" );
+        write( dataDir, "organisation_0_0.csv", "id|type|name|url" );
+        write( dataDir, "organisation_isLocatedIn_place_0_0.csv", "Organisation.id|Place.id" );
+        write( dataDir, "person_0_0.csv",
+                "id|firstName|lastName|gender|birthday|creationDate|locationIP|browserUsed",
+                "1|Alice|Adams|female|1980-02-01|2010-01-01T00:00:00.000+0000|1.1.1.1|Firefox",
+                "2|Bob|Brown|male|1981-03-02|2010-01-02T00:00:00.000+0000|2.2.2.2|Chrome",
+                "3|Carol|Clark|female|1982-04-03|2010-01-03T00:00:00.000+0000|3.3.3.3|Safari" );
+        write( dataDir, "person_email_emailaddress_0_0.csv",
+                "Person.id|email",
+                "3|carol@example.org" );
+        write( dataDir, "person_speaks_language_0_0.csv",
+                "Person.id|language",
+                "3|en" );
+        write( dataDir, "person_isLocatedIn_place_0_0.csv",
+                "Person.id|Place.id",
+                "1|1",
+                "2|1",
+                "3|1" );
+        write( dataDir, "person_hasInterest_tag_0_0.csv", "Person.id|Tag.id" );
+        write( dataDir, "person_studyAt_organisation_0_0.csv", "Person.id|Organisation.id|classYear" );
+        write( dataDir, "person_workAt_organisation_0_0.csv", "Person.id|Organisation.id|workFrom" );
+        write( dataDir, "person_knows_person_0_0.csv",
+                "Person.id|Person.id|creationDate",
+                "1|2|1000",
+                "2|3|1000" );
+        write( dataDir, "forum_0_0.csv",
+                "id|title|creationDate",
+                "50|Wall of Alice|1000" );
+        write( dataDir, "forum_hasModerator_person_0_0.csv",
+                "Forum.id|Person.id",
+                "50|1" );
+        write( dataDir, "forum_hasTag_tag_0_0.csv", "Forum.id|Tag.id" );
+        write( dataDir, "forum_hasMember_person_0_0.csv", "Forum.id|Person.id|joinDate" );
+        write( dataDir, "post_0_0.csv",
+                "id|imageFile|creationDate|locationIP|browserUsed|language|content|length",
+                "200||2000|2.2.2.2|Chrome|en|hello|5" );
+        write( dataDir, "comment_0_0.csv",
+                "id|creationDate|locationIP|browserUsed|content|length",
+                "201|3000|3.3.3.3|Safari|hi|2" );
+        write( dataDir, "post_hasCreator_person_0_0.csv",
+                "Post.id|Person.id",
+                "200|2" );
+        write( dataDir, "comment_hasCreator_person_0_0.csv",
+                "Comment.id|Person.id",
+                "201|3" );
+        write( dataDir, "post_isLocatedIn_place_0_0.csv",
+                "Post.id|Place.id",
+                "200|2" );
+        write( dataDir, "comment_isLocatedIn_place_0_0.csv",
+                "Comment.id|Place.id",
+                "201|2" );
+        write( dataDir, "forum_containerOf_post_0_0.csv",
+                "Forum.id|Post.id",
+                "50|200" );
+        write( dataDir, "comment_replyOf_post_0_0.csv",
+                "Comment.id|Post.id",
+                "201|200" );
+        write( dataDir, "comment_replyOf_comment_0_0.csv", "Comment.id|Comment.id" );
+        write( dataDir, "post_hasTag_tag_0_0.csv",
+                "Post.id|Tag.id",
+                "200|10" );
+        write( dataDir, "comment_hasTag_tag_0_0.csv", "Comment.id|Tag.id" );
+        write( dataDir, "post_hasMentioned_person_0_0.csv", "Post.id|Person.id" );
+        write( dataDir, "comment_hasMentioned_person_0_0.csv", "Comment.id|Person.id" );
+        write( dataDir, "person_likes_post_0_0.csv", "Person.id|Post.id|creationDate" );
+        write( dataDir, "person_likes_comment_0_0.csv", "Person.id|Comment.id|creationDate" );
+
+        Map<String,String> params = new HashMap<>();
+        params.put( InMemoryLdbcSnbInteractiveDb.DATA_DIRECTORY_ARG, dataDir.getAbsolutePath() );
+        db = new InMemoryLdbcSnbInteractiveDb();
+        db.init(
+                params,
+                new Log4jLoggingServiceFactory( false ).loggingServiceFor( getClass().getSimpleName() ),
+                LdbcSnbInteractiveWorkloadConfiguration.operationTypeToClassMapping()
+        );
+    }
+
+    @After
+    public void closeDb() throws IOException
+    {
+        db.close();
+    }
+
+    @Test
+    public void shouldFindFriendsByFirstNameWithTheirProfiles() throws DbException
+    {
+        // Given
+        LdbcQuery1 operation = new LdbcQuery1( 1, "Carol", 20 );
+
+        // When
+        List<LdbcQuery1Result> results = execute( operation );
+
+        // Then
+        assertThat( results.size(), equalTo( 1 ) );
+        LdbcQuery1Result result = results.get( 0 );
+        assertThat( result.friendId(), equalTo( 3l ) );
+        assertThat( result.distanceFromPerson(), equalTo( 2 ) );
+        assertThat( result.friendCityName(), equalTo( "Berlin" ) );
+        assertThat( Lists.newArrayList( result.friendEmails() ), equalTo( (List) Lists.newArrayList(
+                "carol@example.org" ) ) );
+        assertThat( result.friendBirthday(), equalTo( 386640000000l ) );
+    }
+
+    @Test
+    public void shouldNavigateMessagesAndReplies() throws DbException
+    {
+        // Given
+        LdbcShortQuery7MessageReplies repliesOperation = new LdbcShortQuery7MessageReplies( 200 );
+        LdbcShortQuery2PersonPosts messagesOperation = new LdbcShortQuery2PersonPosts( 3, 10 );
+
+        // When
+        List<LdbcShortQuery7MessageRepliesResult> replies = execute( repliesOperation );
+        List<LdbcShortQuery2PersonPostsResult> messages = execute( messagesOperation );
+
+        // Then
+        assertThat( replies, equalTo( (List) Lists.newArrayList(
+                new LdbcShortQuery7MessageRepliesResult( 201, "hi", 3000, 3, "Carol", "Clark", true )
+        ) ) );
+        assertThat( messages, equalTo( (List) Lists.newArrayList(
+                new LdbcShortQuery2PersonPostsResult( 201, "hi", 3000, 200, 2, "Bob", "Brown" )
+        ) ) );
+    }
+
+    @Test
+    public void shouldSeeUpdatesInSubsequentReads() throws DbException
+    {
+        // Given
+        LdbcQuery2 recentMessagesOfFriends = new LdbcQuery2( 1, new Date( 5000 ), 10 );
+        List<LdbcQuery2Result> resultsBeforeUpdates = execute( recentMessagesOfFriends );
+
+        // When
+        execute( new LdbcUpdate8AddFriendship( 1, 3, new Date( 4000 ) ) );
+        execute( new LdbcUpdate6AddPost( 202, "", new Date( 4500 ), "1.1.1.1", "Firefox", "en", "news", 4, 1, 50, 2,
+                new ArrayList<Long>(), new ArrayList<Long>(), true, null ) );
+        List<LdbcQuery2Result> resultsAfterUpdates = execute( recentMessagesOfFriends );
+        LdbcShortQuery4MessageContentResult newPost = execute( new LdbcShortQuery4MessageContent( 202 ) );
+
+        // Then
+        assertThat( resultsBeforeUpdates, equalTo( (List) Lists.newArrayList(
+                new LdbcQuery2Result( 2, "Bob", "Brown", 200, "hello", 2000 )
+        ) ) );
+        assertThat( resultsAfterUpdates, equalTo( (List) Lists.newArrayList(
+                new LdbcQuery2Result( 3, "Carol", "Clark", 201, "hi", 3000 ),
+                new LdbcQuery2Result( 2, "Bob", "Brown", 200, "hello", 2000 )
+        ) ) );
+        assertThat( newPost, equalTo( new LdbcShortQuery4MessageContentResult( "news", 4500 ) ) );
+    }
+
+    @Test( expected = DbException.class )
+    public void shouldFailShortReadOfUnknownMessage() throws DbException
+    {
+        execute( new LdbcShortQuery4MessageContent( 999 ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <RESULT_TYPE> RESULT_TYPE execute( Operation<RESULT_TYPE> operation ) throws DbException
+    {
+        OperationHandlerRunnableContext context = db.getOperationHandlerRunnableContext( operation );
+        try
+        {
+            ResultReporter.SimpleResultReporter resultReporter =
+                    new ResultReporter.SimpleResultReporter( new ConcurrentErrorReporter() );
+            context.operationHandler().executeOperation( operation, context.dbConnectionState(), resultReporter );
+            return (RESULT_TYPE) resultReporter.result();
+        }
+        finally
+        {
+            context.cleanup();
+        }
+    }
+
+    private static void write( File directory, String fileName, String... lines ) throws IOException
+    {
+        try ( FileWriter writer = new FileWriter( new File( directory, fileName ) ) )
+        {
+            for ( String line : lines )
+            {
+                writer.write( line );
+                writer.write( "\n" );
+            }
+        }
+    }
+}
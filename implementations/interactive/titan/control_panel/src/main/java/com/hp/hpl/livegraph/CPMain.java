@@ -2,6 +2,7 @@ package com.hp.hpl.livegraph;
 
 import com.ldbc.driver.Client;
 import com.ldbc.driver.ClientException;
+import hpl.alp2.titan.importers.ImporterOptions;
 import hpl.alp2.titan.importers.TitanImporter;
 import hpl.alp2.titan.importers.WorkloadEnum;
 import org.slf4j.Logger;
@@ -28,7 +29,8 @@ public class CPMain {
 
     /**
      * Command line application
-     * @param args 0: -L load data / -R run driver 1: db.conf path 2: data folder
+     * @param args 0: -L load data / -R run driver 1: db.conf path 2: data folder,
+     *             when loading followed by importer options, see {@link ImporterOptions#USAGE}
      */
     public void cliApp(List<String> args) {
         if (args.size()==0)
@@ -43,11 +45,16 @@ public class CPMain {
             if (!dbConf.exists())
                 die("Missing db.conf file at supplied path " + dbConf.getPath());
 
-            TitanImporter ti = new TitanImporter();
-            try {
-                if (args.size()<3)
-                    die("No data folder supplied");
+            if (args.size()<3)
+                die("No data folder supplied");
 
+            TitanImporter ti = null;
+            try {
+                ti = ImporterOptions.createImporter(args.subList(3, args.size()));
+            } catch (IllegalArgumentException e) {
+                die(e.getMessage());
+            }
+            try {
                 ti.init(dbConf.getPath(), WorkloadEnum.INTERACTIVE);
                 File dir = new File(args.get(2));
                 if (!dir.exists())
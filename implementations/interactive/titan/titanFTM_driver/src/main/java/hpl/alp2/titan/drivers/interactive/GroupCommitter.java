@@ -0,0 +1,172 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import com.thinkaurelius.titan.core.TitanException;
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.thinkaurelius.titan.core.TitanTransaction;
+import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces concurrently executing update operations into a single shared Titan transaction.
+ * An update joins the currently open batch, writes through the batch graph and then calls
+ * {@link #commit(Batch)}, which blocks until the whole batch has been committed. A batch is
+ * sealed once it holds maxBatchSize updates or maxDelayAsMilli has passed since it was opened,
+ * and is committed by the last of its updates to arrive at commit.
+ * Every joined update must either arrive at commit or {@link #leave(Batch)} its batch exactly once,
+ * otherwise the batch never commits.
+ */
+class GroupCommitter {
+    final static Logger logger = LoggerFactory.getLogger(GroupCommitter.class);
+
+    private final TitanGraph base;
+    private final int maxBatchSize;
+    private final long maxDelayAsMilli;
+    private Batch openBatch = null;
+
+    GroupCommitter(TitanGraph base, int maxBatchSize, long maxDelayAsMilli) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Group commit batch size must be at least 1: " + maxBatchSize);
+        if (maxDelayAsMilli < 0)
+            throw new IllegalArgumentException("Group commit delay must not be negative: " + maxDelayAsMilli);
+        this.base = base;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayAsMilli = maxDelayAsMilli;
+    }
+
+    /**
+     * Registers an update with the currently open batch, opening a new one if necessary
+     *
+     * @return batch whose graph the update must write through
+     */
+    synchronized Batch join() {
+        if (openBatch == null || !openBatch.tryJoin()) {
+            openBatch = new Batch(base.newTransaction(), System.currentTimeMillis() + maxDelayAsMilli);
+            openBatch.tryJoin();
+        }
+        return openBatch;
+    }
+
+    /**
+     * Marks the calling update as complete and blocks until the shared transaction of its batch
+     * has been committed
+     *
+     * @param batch batch returned by {@link #join()}
+     * @throws TitanException if the shared commit failed or the wait was interrupted
+     */
+    void commit(Batch batch) throws TitanException {
+        batch.arrive();
+    }
+
+    /**
+     * Withdraws an update that will not arrive at commit, e.g. because it failed, so that the other updates
+     * of its batch are not kept waiting for it. Writes the update already made through the batch graph
+     * cannot be undone on their own and are committed with the batch, unless no other update joined it,
+     * in which case the shared transaction is rolled back.
+     *
+     * @param batch batch returned by {@link #join()}
+     */
+    void leave(Batch batch) {
+        batch.leave();
+    }
+
+    final class Batch {
+        private final TitanTransaction tx;
+        private final IdGraph<TitanTransaction> graph;
+        private final long sealTimeAsMilli;
+        private int joined = 0;
+        private int arrived = 0;
+        private boolean sealed = false;
+        private boolean committing = false;
+        private boolean committed = false;
+        private TitanException failure = null;
+
+        private Batch(TitanTransaction tx, long sealTimeAsMilli) {
+            this.tx = tx;
+            this.graph = new IdGraph<>(tx, true, false);
+            this.sealTimeAsMilli = sealTimeAsMilli;
+        }
+
+        IdGraph<TitanTransaction> graph() {
+            return graph;
+        }
+
+        private synchronized boolean tryJoin() {
+            if (!sealed && System.currentTimeMillis() >= sealTimeAsMilli)
+                sealed = true;
+            if (sealed)
+                return false;
+            joined++;
+            if (joined >= maxBatchSize)
+                sealed = true;
+            return true;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                joined--;
+                if (joined > 0) {
+                    // the remaining updates may all have arrived already
+                    notifyAll();
+                    return;
+                }
+                sealed = true;
+            }
+            try {
+                tx.rollback();
+            } catch (RuntimeException e) {
+                logger.error("Rollback of abandoned group commit batch failed", e);
+            }
+        }
+
+        private void arrive() throws TitanException {
+            synchronized (this) {
+                arrived++;
+                while (true) {
+                    if (committed)
+                        return;
+                    if (failure != null)
+                        throw failure;
+                    try {
+                        if (!sealed) {
+                            long remaining = sealTimeAsMilli - System.currentTimeMillis();
+                            if (remaining > 0) {
+                                wait(remaining);
+                                continue;
+                            }
+                            sealed = true;
+                        }
+                        if (arrived == joined && !committing) {
+                            committing = true;
+                            break;
+                        }
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new TitanException("Interrupted while waiting for group commit", e);
+                    }
+                }
+            }
+            // last update of a sealed batch commits on behalf of all others, outside the lock so joiners are not blocked
+            TitanException error = null;
+            try {
+                tx.commit();
+                logger.debug("Group committed {} updates", joined);
+            } catch (RuntimeException e) {
+                error = new TitanException("Group commit of " + joined + " updates failed", e);
+                try {
+                    tx.rollback();
+                } catch (RuntimeException re) {
+                    logger.error("Rollback after failed group commit failed", re);
+                }
+            }
+            synchronized (this) {
+                committed = error == null;
+                failure = error;
+                notifyAll();
+            }
+            if (error != null)
+                throw error;
+        }
+    }
+}
@@ -103,21 +103,20 @@ public class LdbcQuery10Handler implements OperationHandler<LdbcQuery10,TitanFTM
         for (Vertex fofWOPosts : fofs)
             qRes.put(fofWOPosts, new Q10Res());
 
-        qRes = QueryUtils.sortByValueAndKey(qRes, false, true, TitanFTMDb.BasicClient.IDCOMP);
+        TopK<TopK.Candidate<Vertex>> top = new TopK<>(limit, TopK.KEY_DESC_ID_ASC);
+        for (Map.Entry<Vertex, Q10Res> qresE : qRes.entrySet())
+            top.offer(new TopK.Candidate<>(qresE.getValue().getSim(), client.getVLocalId((Long) qresE.getKey().getId()), qresE.getKey()));
+
         List<LdbcQuery10Result> result = new ArrayList<>();
-        int i = 0;
-        for (Map.Entry<Vertex,Q10Res> qresE : qRes.entrySet()) {
-            LdbcQuery10Result res = new LdbcQuery10Result(client.getVLocalId((Long) qresE.getKey().getId()),
-                    (String) qresE.getKey().getProperty("firstName"), (String) qresE.getKey().getProperty("lastName")
-                    , qresE.getValue().getSim(),
-                    (String) qresE.getKey().getProperty("gender"), (String) QueryUtils.getPersonCity(qresE.getKey()).getProperty("name"));
+        for (TopK.Candidate<Vertex> c : top.toSortedList()) {
+            Vertex person = c.payload;
+            LdbcQuery10Result res = new LdbcQuery10Result(c.id,
+                    (String) person.getProperty("firstName"), (String) person.getProperty("lastName")
+                    , (int) c.key,
+                    (String) person.getProperty("gender"), (String) QueryUtils.getPersonCity(person).getProperty("name"));
             result.add(res);
-            i++;
-            if (i == limit)
-                break;
         }
 
-
         resultReporter.report(result.size(), result, operation);
     }
 
@@ -47,33 +47,38 @@ public class LdbcQuery11Handler implements OperationHandler<LdbcQuery11,TitanFTM
                 .has("name", countryName)
                 .select();
 
-        List<LdbcQuery11Result> result = new ArrayList<>();
-
+        TopK<TopK.Candidate<Row>> top = new TopK<>(limit, Q11_ORDER);
         for (Row r : it) {
             Vertex person = (Vertex) r.getColumn(0);
             Edge workAt = (Edge) r.getColumn(1);
-            Vertex company = (Vertex) r.getColumn(2);
-            LdbcQuery11Result res = new LdbcQuery11Result(client.getVLocalId((Long) person.getId()),
+            top.offer(new TopK.Candidate<>((Integer) workAt.getProperty("workFrom"), client.getVLocalId((Long) person.getId()), r));
+        }
+
+        List<LdbcQuery11Result> result = new ArrayList<>();
+        for (TopK.Candidate<Row> c : top.toSortedList()) {
+            Vertex person = (Vertex) c.payload.getColumn(0);
+            Vertex company = (Vertex) c.payload.getColumn(2);
+            LdbcQuery11Result res = new LdbcQuery11Result(c.id,
                     (String) person.getProperty("firstName"), (String) person.getProperty("lastName")
-                    , (String) company.getProperty("name"), (Integer) workAt.getProperty("workFrom"));
+                    , (String) company.getProperty("name"), (int) c.key);
             result.add(res);
         }
 
-        Collections.sort(result, new Comparator<LdbcQuery11Result>() {
-            @Override
-            public int compare(LdbcQuery11Result o1, LdbcQuery11Result o2) {
-                if (o1.organizationWorkFromYear() == o2.organizationWorkFromYear()) {
-                    if (o1.personId() == o2.personId())
-                        return o2.organizationName().compareTo(o1.organizationName());
-                    else
-                        return Long.compare(o1.personId(), o2.personId());
-                } else
-                    return Integer.compare(o1.organizationWorkFromYear(), o2.organizationWorkFromYear());
-            }
-        });
-
-        if (result.size() > limit)
-            result = result.subList(0, limit);
         resultReporter.report(result.size(), result, operation);
     }
+
+    /**
+     * Ascending by work start year, then ascending by person id, organization name (read only on ties) descending
+     */
+    static final Comparator<TopK.Candidate<Row>> Q11_ORDER = new Comparator<TopK.Candidate<Row>>() {
+        @Override
+        public int compare(TopK.Candidate<Row> o1, TopK.Candidate<Row> o2) {
+            int c = TopK.KEY_ASC_ID_ASC.compare(o1, o2);
+            if (c != 0)
+                return c;
+            String n1 = ((Vertex) o1.payload.getColumn(2)).getProperty("name");
+            String n2 = ((Vertex) o2.payload.getColumn(2)).getProperty("name");
+            return n2.compareTo(n1);
+        }
+    };
 }
@@ -97,20 +97,25 @@ public class LdbcQuery2Handler implements OperationHandler<LdbcQuery2,TitanFTMDb
         GremlinPipeline<Vertex, Vertex> gp = new GremlinPipeline<>(root);
         Iterable<Row> qResult = gp.out("knows").as("friend").in("hasCreator")
                 .has("creationDate", Compare.LESS_THAN, maxDate)
-                .as("post").select()
-                .order(QueryUtils.COMP_CDate_Postid).range(0, limit - 1);
+                .as("post").select();
 
-        List<LdbcQuery2Result> result = new ArrayList<>();
+        TopK<TopK.Candidate<Row>> top = new TopK<>(limit, TopK.KEY_DESC_ID_ASC);
         for (Row r : qResult) {
             Vertex post = (Vertex) r.getColumn("post");
-            Long pid = client.getVLocalId((Long) post.getId());
-            Vertex friend = (Vertex) r.getColumn("friend");
+            long cDate = post.getProperty("creationDate");
+            top.offer(new TopK.Candidate<>(cDate, client.getVLocalId((Long) post.getId()), r));
+        }
+
+        List<LdbcQuery2Result> result = new ArrayList<>();
+        for (TopK.Candidate<Row> c : top.toSortedList()) {
+            Vertex post = (Vertex) c.payload.getColumn("post");
+            Vertex friend = (Vertex) c.payload.getColumn("friend");
             String content = post.getProperty("content");
             if (content.length() == 0)
                 content = post.getProperty("imageFile");
             LdbcQuery2Result res = new LdbcQuery2Result(client.getVLocalId((Long) friend.getId()),
                     (String) friend.getProperty("firstName"), (String) friend.getProperty("lastName"),
-                    pid, content, (Long) post.getProperty("creationDate"));
+                    c.id, content, c.key);
 
             result.add(res);
         }
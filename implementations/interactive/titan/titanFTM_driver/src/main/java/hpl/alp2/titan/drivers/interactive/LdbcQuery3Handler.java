@@ -86,7 +86,8 @@ public class LdbcQuery3Handler implements OperationHandler<LdbcQuery3,TitanFTMDb
                 .groupCount(qResY, Q3KEY_FUNC).iterate();
 
 
-        //Collect results and summarize
+        //Collect results and keep top friends by total count
+        TopK<TopK.Candidate<Vertex>> top = new TopK<>(limit, TopK.KEY_DESC_ID_ASC);
         Map<Vertex, Q3Res> counter = new HashMap<>();
         for (Object o : qResX.keySet()) {
             Vertex friendV = (Vertex) o;
@@ -96,24 +97,18 @@ public class LdbcQuery3Handler implements OperationHandler<LdbcQuery3,TitanFTMDb
             int xRes = ((Long) qResX.get(o)).intValue();
             int yRes = ((Long) qResY.get(o)).intValue();
             counter.put(friendV, new Q3Res(xRes, yRes));
+            top.offer(new TopK.Candidate<>(xRes + yRes, client.getVLocalId((Long) friendV.getId()), friendV));
         }
 
-        //sort
-        counter = QueryUtils.sortByValueAndKey(counter, false, true, TitanFTMDb.BasicClient.IDCOMP);
-
-        //parse map to result
+        //parse top friends to result
         List<LdbcQuery3Result> result = new ArrayList<>();
-        int i = 1;
-        for (Map.Entry<Vertex, Q3Res> entry : counter.entrySet()) {
-            Vertex friend = entry.getKey();
-            long id = client.getVLocalId((Long) friend.getId());
-            i++;
-            LdbcQuery3Result res = new LdbcQuery3Result(id, (String) friend.getProperty("firstName")
+        for (TopK.Candidate<Vertex> c : top.toSortedList()) {
+            Vertex friend = c.payload;
+            Q3Res counts = counter.get(friend);
+            LdbcQuery3Result res = new LdbcQuery3Result(c.id, (String) friend.getProperty("firstName")
                     , (String) friend.getProperty("lastName"),
-                    entry.getValue().x, entry.getValue().y, entry.getValue().x + entry.getValue().y);
+                    counts.x, counts.y, counts.x + counts.y);
             result.add(res);
-            if (i == limit)
-                break;
         }
 
         resultReporter.report(result.size(), result, operation);
@@ -13,8 +13,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.naming.directory.SchemaViolationException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -45,34 +43,25 @@ public class LdbcQuery8Handler implements OperationHandler<LdbcQuery8,TitanFTMDb
         Iterable<Row> it = gp.in("hasCreator").in("replyOf").as("comment").out("hasCreator")
                 .as("commenter").select();
 
-        List<LdbcQuery8Result> result = new ArrayList<>();
+        TopK<TopK.Candidate<Row>> top = new TopK<>(limit, TopK.KEY_DESC_ID_ASC);
         for (Row r : it) {
             Vertex comment = (Vertex) r.getColumn(0);
-            Vertex commenter = (Vertex) r.getColumn(1);
+            long cDate = comment.getProperty("creationDate");
+            top.offer(new TopK.Candidate<>(cDate, client.getVLocalId((Long) comment.getId()), r));
+        }
+
+        List<LdbcQuery8Result> result = new ArrayList<>();
+        for (TopK.Candidate<Row> c : top.toSortedList()) {
+            Vertex comment = (Vertex) c.payload.getColumn(0);
+            Vertex commenter = (Vertex) c.payload.getColumn(1);
             long id = client.getVLocalId((Long) commenter.getId());
             String fName = commenter.getProperty("firstName");
             String lName = commenter.getProperty("lastName");
-            long cDate = comment.getProperty("creationDate");
-            long commentID = client.getVLocalId((Long) comment.getId());
             String content = comment.getProperty("content");
 
-            LdbcQuery8Result res = new LdbcQuery8Result(id, fName, lName, cDate, commentID, content);
-            result.add(res);
-
+            result.add(new LdbcQuery8Result(id, fName, lName, c.key, c.id, content));
         }
 
-
-        Collections.sort(result, new Comparator<LdbcQuery8Result>() {
-            @Override
-            public int compare(LdbcQuery8Result o1, LdbcQuery8Result o2) {
-                if (o1.commentCreationDate() == o2.commentCreationDate())
-                    return Long.compare(o1.commentId(), o2.commentId());
-                return Long.compare(o2.commentCreationDate(), o1.commentCreationDate());
-            }
-        });
-        if (result.size() > limit)
-            result = result.subList(0, limit);
-
         resultReporter.report(result.size(), result, operation);
     }
 }
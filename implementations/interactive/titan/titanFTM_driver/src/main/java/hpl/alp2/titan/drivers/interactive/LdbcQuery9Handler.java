@@ -39,36 +39,27 @@ public class LdbcQuery9Handler implements OperationHandler<LdbcQuery9,TitanFTMDb
         GremlinPipeline<Collection<Vertex>, Vertex> gpf = new GremlinPipeline<>(friends);
 
         Iterable<Row> it = gpf.as("friend").in("hasCreator").has("creationDate", Compare.LESS_THAN, max_date).as("post").select();
-        List<LdbcQuery9Result> result = new ArrayList<>();
-
+        TopK<TopK.Candidate<Row>> top = new TopK<>(limit, TopK.KEY_DESC_ID_ASC);
         for (Row r : it) {
-            Vertex commenter = (Vertex) r.getColumn(0);
             Vertex comment = (Vertex) r.getColumn(1);
+            long cDate = comment.getProperty("creationDate");
+            top.offer(new TopK.Candidate<>(cDate, client.getVLocalId((Long) comment.getId()), r));
+        }
+
+        List<LdbcQuery9Result> result = new ArrayList<>();
+        for (TopK.Candidate<Row> c : top.toSortedList()) {
+            Vertex commenter = (Vertex) c.payload.getColumn(0);
+            Vertex comment = (Vertex) c.payload.getColumn(1);
             long id = client.getVLocalId((Long) commenter.getId());
             String fName = commenter.getProperty("firstName");
             String lName = commenter.getProperty("lastName");
-            long cDate = comment.getProperty("creationDate");
-            long commentID = client.getVLocalId((Long) comment.getId());
             String content = comment.getProperty("content");
             if (content.length() == 0)
                 content = comment.getProperty("imageFile");
 
-            LdbcQuery9Result res = new LdbcQuery9Result(id, fName, lName, commentID, content, cDate);
-            result.add(res);
+            result.add(new LdbcQuery9Result(id, fName, lName, c.id, content, c.key));
         }
 
-
-        Collections.sort(result, new Comparator<LdbcQuery9Result>() {
-            @Override
-            public int compare(LdbcQuery9Result o1, LdbcQuery9Result o2) {
-                if (o1.commentOrPostCreationDate() == o2.commentOrPostCreationDate())
-                    return Long.compare(o1.commentOrPostId(), o2.commentOrPostId());
-                return Long.compare(o2.commentOrPostCreationDate(), o1.commentOrPostCreationDate());
-            }
-        });
-        if (result.size() > limit)
-            result = result.subList(0, limit);
-
         resultReporter.report(result.size(), result, operation);
     }
 }
@@ -1,7 +1,6 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate1AddPerson;
@@ -19,11 +18,11 @@ import java.util.Map;
  * Created by Tomer Sagi on 14-Nov-14.
  * Add a person. Currently assuming all edge end point vertices exist
  */
-public class LdbcQueryU1Handler implements OperationHandler<LdbcUpdate1AddPerson,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU1Handler extends UpdateHandler<LdbcUpdate1AddPerson> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU1Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate1AddPerson operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate1AddPerson operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
         TitanFTMDb.BasicClient client = dbConnectionState.client();
         Map<String, Object> props = new HashMap<>(9);
         props.put("firstName", operation.personFirstName());
@@ -57,7 +56,7 @@ public class LdbcQueryU1Handler implements OperationHandler<LdbcUpdate1AddPerson
             e.printStackTrace();
         }
         try {
-        for (LdbcUpdate1AddPerson.Organization org : operation.workAt()) {
+            for (LdbcUpdate1AddPerson.Organization org : operation.workAt()) {
                 Vertex orgV = client.getVertex(org.organizationId(), "Organisation");
                 Map<String, Object> eProps = new HashMap<>();
                 eProps.put("workFrom", org.year());
@@ -84,6 +83,7 @@ public class LdbcQueryU1Handler implements OperationHandler<LdbcUpdate1AddPerson
         }
 
         logger.debug("U1 complete for person {}" ,operation.personId());
+        client.personAdded(operation.personId());
         reporter.report(0, LdbcNoResult.INSTANCE,operation);
     }
 }
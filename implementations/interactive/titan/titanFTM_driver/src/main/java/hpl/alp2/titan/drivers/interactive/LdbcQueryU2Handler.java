@@ -1,10 +1,10 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate2AddPostLike;
+import com.thinkaurelius.titan.core.TitanException;
 import com.tinkerpop.blueprints.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,11 +17,11 @@ import java.util.Map;
  * Adds like, assumes person and post exist.
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU2Handler implements OperationHandler<LdbcUpdate2AddPostLike,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU2Handler extends UpdateHandler<LdbcUpdate2AddPostLike> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU2Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate2AddPostLike operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate2AddPostLike operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
 
         TitanFTMDb.BasicClient client = dbConnectionState.client();
 
@@ -37,6 +37,12 @@ public class LdbcQueryU2Handler implements OperationHandler<LdbcUpdate2AddPostLi
             e.printStackTrace();
         }
 
+        try {
+            client.commit();
+        } catch (TitanException e) {
+            logger.error("Couldn't complete U2 handler, db didn't commit");
+            e.printStackTrace();
+        }
         reporter.report(0, LdbcNoResult.INSTANCE,operation);
     }
 }
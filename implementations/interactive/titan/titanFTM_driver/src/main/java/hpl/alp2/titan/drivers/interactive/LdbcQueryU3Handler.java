@@ -1,10 +1,10 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate3AddCommentLike;
+import com.thinkaurelius.titan.core.TitanException;
 import com.tinkerpop.blueprints.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,11 +17,11 @@ import java.util.Map;
  * Adds like from person to comment, assumes person and comment exist
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU3Handler implements OperationHandler<LdbcUpdate3AddCommentLike,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU3Handler extends UpdateHandler<LdbcUpdate3AddCommentLike> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU3Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate3AddCommentLike operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate3AddCommentLike operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
 
         TitanFTMDb.BasicClient client = dbConnectionState.client();
 
@@ -38,6 +38,12 @@ public class LdbcQueryU3Handler implements OperationHandler<LdbcUpdate3AddCommen
         }
 
 
+        try {
+            client.commit();
+        } catch (TitanException e) {
+            logger.error("Couldn't complete U3 handler, db didn't commit");
+            e.printStackTrace();
+        }
         reporter.report(0, LdbcNoResult.INSTANCE,operation);
     }
 }
@@ -1,7 +1,6 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate4AddForum;
@@ -18,11 +17,11 @@ import java.util.Map;
  * Adds forum and it's moderator and tags. Assume moderator person and tags exist
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU4Handler implements OperationHandler<LdbcUpdate4AddForum,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU4Handler extends UpdateHandler<LdbcUpdate4AddForum> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU4Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate4AddForum operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate4AddForum operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
 
         TitanFTMDb.BasicClient client = dbConnectionState.client();
 
@@ -1,10 +1,10 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate5AddForumMembership;
+import com.thinkaurelius.titan.core.TitanException;
 import com.tinkerpop.blueprints.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,11 +17,11 @@ import java.util.Map;
  * Adds membership edge between forum and person. Assumes both exist.
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU5Handler implements OperationHandler<LdbcUpdate5AddForumMembership,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU5Handler extends UpdateHandler<LdbcUpdate5AddForumMembership> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU5Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate5AddForumMembership operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate5AddForumMembership operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
 
         TitanFTMDb.BasicClient client = dbConnectionState.client();
 
@@ -42,6 +42,12 @@ public class LdbcQueryU5Handler implements OperationHandler<LdbcUpdate5AddForumM
             e.printStackTrace();
         }
 
+        try {
+            client.commit();
+        } catch (TitanException e) {
+            logger.error("Couldn't complete U5 handler, db didn't commit");
+            e.printStackTrace();
+        }
         reporter.report(0, LdbcNoResult.INSTANCE,operation);
     }
 }
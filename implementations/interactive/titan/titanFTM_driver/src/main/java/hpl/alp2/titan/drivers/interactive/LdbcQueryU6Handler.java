@@ -1,7 +1,6 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate6AddPost;
@@ -19,11 +18,11 @@ import java.util.Map;
  * All other vertices are assumed to exist
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU6Handler implements OperationHandler<LdbcUpdate6AddPost,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU6Handler extends UpdateHandler<LdbcUpdate6AddPost> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU6Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate6AddPost operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate6AddPost operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
         TitanFTMDb.BasicClient client = dbConnectionState.client();
 
         try {
@@ -1,7 +1,6 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate7AddComment;
@@ -18,11 +17,11 @@ import java.util.Map;
  * Update Query 7: add comment
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU7Handler implements OperationHandler<LdbcUpdate7AddComment,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU7Handler extends UpdateHandler<LdbcUpdate7AddComment> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU7Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate7AddComment operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate7AddComment operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
         TitanFTMDb.BasicClient client = dbConnectionState.client();
         try {
 
@@ -1,10 +1,10 @@
 package hpl.alp2.titan.drivers.interactive;
 
 import com.ldbc.driver.DbException;
-import com.ldbc.driver.OperationHandler;
 import com.ldbc.driver.ResultReporter;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcNoResult;
 import com.ldbc.driver.workloads.ldbc.snb.interactive.LdbcUpdate8AddFriendship;
+import com.thinkaurelius.titan.core.TitanException;
 import com.tinkerpop.blueprints.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,11 +17,11 @@ import java.util.Map;
  * Add knows edge between two given people assumed to exist
  * Created by Tomer Sagi on 14-Nov-14.
  */
-public class LdbcQueryU8Handler implements OperationHandler<LdbcUpdate8AddFriendship,TitanFTMDb.BasicDbConnectionState> {
+public class LdbcQueryU8Handler extends UpdateHandler<LdbcUpdate8AddFriendship> {
     final static Logger logger = LoggerFactory.getLogger(LdbcQueryU8Handler.class);
 
     @Override
-    public void executeOperation(LdbcUpdate8AddFriendship operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+    protected void executeUpdate(LdbcUpdate8AddFriendship operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
 
         TitanFTMDb.BasicClient client = dbConnectionState.client();
         try {
@@ -37,6 +37,13 @@ public class LdbcQueryU8Handler implements OperationHandler<LdbcUpdate8AddFriend
             e.printStackTrace();
         }
 
+        try {
+            client.commit();
+        } catch (TitanException e) {
+            logger.error("Couldn't complete U8 handler, db didn't commit");
+            e.printStackTrace();
+        }
+        client.knowsAdded(operation.person1Id(), operation.person2Id());
         reporter.report(0, LdbcNoResult.INSTANCE, operation);
     }
 }
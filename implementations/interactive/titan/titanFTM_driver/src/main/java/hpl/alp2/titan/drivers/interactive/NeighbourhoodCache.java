@@ -0,0 +1,119 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded, least recently used cache of person neighbourhoods along "knows" edges.
+ * Neighbourhoods are keyed by the person graph-global vertex id (GID). They keep the sorted GIDs of the friends,
+ * to find the neighbourhoods a new "knows" edge changes, and the Titan ids of friends and friends of friends, which
+ * are resolved without a lookup in the vertex id index.
+ * Updates that change "knows" adjacency must call {@link #invalidateKnows(long, long)} once committed,
+ * new persons {@link #invalidatePerson(long)}. Every invalidation advances an epoch, and neighbourhoods
+ * computed before an invalidation are not cached, so a reader racing an update can not reinstate a stale entry.
+ */
+class NeighbourhoodCache {
+    private final int maxEntries;
+    private final LinkedHashMap<Long, Neighbourhood> entries;
+    private long epoch = 0;
+
+    NeighbourhoodCache(final int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Neighbourhood cache size must be at least 1: " + maxEntries);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Long, Neighbourhood>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Neighbourhood> eldest) {
+                return size() > NeighbourhoodCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param personGid GID of the person
+     * @return cached neighbourhood or null if not cached
+     */
+    synchronized Neighbourhood get(long personGid) {
+        return entries.get(personGid);
+    }
+
+    /**
+     * @return epoch to pass to {@link #put(long, Neighbourhood, long)}, read before computing the neighbourhood
+     */
+    synchronized long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Caches a neighbourhood unless an invalidation happened since it started being computed
+     *
+     * @param personGid     GID of the person
+     * @param neighbourhood neighbourhood of the person
+     * @param computedEpoch value of {@link #epoch()} read before the neighbourhood was computed
+     */
+    synchronized void put(long personGid, Neighbourhood neighbourhood, long computedEpoch) {
+        if (computedEpoch == epoch)
+            entries.put(personGid, neighbourhood);
+    }
+
+    /**
+     * Drops the neighbourhood of a (new) person
+     *
+     * @param personGid GID of the person
+     */
+    synchronized void invalidatePerson(long personGid) {
+        epoch++;
+        entries.remove(personGid);
+    }
+
+    /**
+     * Drops every neighbourhood a new "knows" edge between the two persons can change: those of the two persons
+     * and of all persons having either of them as a friend
+     *
+     * @param person1Gid GID of the first person
+     * @param person2Gid GID of the second person
+     */
+    synchronized void invalidateKnows(long person1Gid, long person2Gid) {
+        epoch++;
+        entries.remove(person1Gid);
+        entries.remove(person2Gid);
+        Iterator<Neighbourhood> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Neighbourhood n = it.next();
+            if (n.isFriend(person1Gid) || n.isFriend(person2Gid))
+                it.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    static class Neighbourhood {
+        private final long[] friends;
+        private final long[] friendsAndFoFs;
+
+        /**
+         * @param friends        GIDs of direct friends, sorted ascending
+         * @param friendsAndFoFs Titan ids of friends and friends of friends excluding the person itself
+         */
+        Neighbourhood(long[] friends, long[] friendsAndFoFs) {
+            this.friends = friends;
+            this.friendsAndFoFs = friendsAndFoFs;
+        }
+
+        boolean isFriend(long gid) {
+            return Arrays.binarySearch(friends, gid) >= 0;
+        }
+
+        long[] friends() {
+            return friends;
+        }
+
+        long[] friendsAndFoFs() {
+            return friendsAndFoFs;
+        }
+    }
+}
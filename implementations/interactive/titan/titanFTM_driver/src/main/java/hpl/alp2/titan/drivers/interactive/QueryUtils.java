@@ -251,13 +251,47 @@ public class QueryUtils {
 
     /**
      * Given a person, returns the set of friends and friends of friends
-     * , excluding that person
+     * , excluding that person. Uses the client's neighbourhood cache when enabled.
      *
      * @param rootId personID to start from
      * @param client TitanFTMDb.BasicClient to use for root retrieval
      * @return Set<Vertex> of the persons friends and their friends
      */
     public Set<Vertex> getFoF(long rootId, TitanFTMDb.BasicClient client) {
+        NeighbourhoodCache cache = client.neighbourhoodCache();
+        if (cache == null)
+            return computeFoF(rootId, client, null);
+
+        long rootGid = client.getVId(rootId, "Person");
+        NeighbourhoodCache.Neighbourhood cached = cache.get(rootGid);
+        if (cached != null) {
+            long[] ids = cached.friendsAndFoFs();
+            Set<Vertex> res = new HashSet<>(ids.length * 4 / 3 + 1);
+            for (long titanId : ids) {
+                Vertex v = client.getVertexByTitanId(titanId);
+                if (v != null)
+                    res.add(v);
+            }
+            return res;
+        }
+
+        long epoch = cache.epoch();
+        Set<Vertex> friends = new HashSet<>();
+        Set<Vertex> res = computeFoF(rootId, client, friends);
+        long[] friendGids = new long[friends.size()];
+        int i = 0;
+        for (Vertex v : friends)
+            friendGids[i++] = (Long) v.getId();
+        Arrays.sort(friendGids);
+        long[] titanIds = new long[res.size()];
+        i = 0;
+        for (Vertex v : res)
+            titanIds[i++] = client.getTitanId(v);
+        cache.put(rootGid, new NeighbourhoodCache.Neighbourhood(friendGids, titanIds), epoch);
+        return res;
+    }
+
+    private Set<Vertex> computeFoF(long rootId, TitanFTMDb.BasicClient client, Set<Vertex> friends) {
         Set<Vertex> res = new HashSet<>();
         Vertex root = null;
         try {
@@ -267,8 +301,10 @@ public class QueryUtils {
         }
 
         GremlinPipeline<Vertex, Vertex> gp = (new GremlinPipeline<Vertex, Vertex>(root));
-        gp.out("knows").aggregate(res)
+        gp.out("knows").aggregate(friends == null ? res : friends)
                 .out("knows").aggregate(res).iterate();
+        if (friends != null)
+            res.addAll(friends);
         res.remove(root);
         return res;
     }
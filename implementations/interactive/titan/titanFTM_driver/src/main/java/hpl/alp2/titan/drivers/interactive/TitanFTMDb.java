@@ -16,6 +16,7 @@ import com.tinkerpop.blueprints.GraphQuery;
 import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import com.tinkerpop.blueprints.util.wrappers.id.IdVertex;
 import hpl.alp2.titan.importers.InteractiveWorkloadSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import javax.naming.directory.SchemaViolationException;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.net.URL;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -53,6 +55,17 @@ public class TitanFTMDb extends Db {
         if (confFilePath == null)
             throw new DbException("No db configuration file found for " + configFile);
         connectionState = new BasicDbConnectionState(confFilePath);
+        if (Boolean.parseBoolean(properties.get("groupCommit"))) {
+            int maxBatchSize = parseIntProperty(properties, "groupCommitMaxBatchSize", 64);
+            int maxDelay = parseIntProperty(properties, "groupCommitMaxDelay", 5);
+            logger.info("Group commit enabled, batch size {}, delay {} ms", maxBatchSize, maxDelay);
+            connectionState.client().enableGroupCommit(maxBatchSize, maxDelay);
+        }
+        int neighbourhoodCacheSize = parseIntProperty(properties, "neighbourhoodCacheSize", 0);
+        if (neighbourhoodCacheSize > 0) {
+            logger.info("Friend of friend cache enabled, size {}", neighbourhoodCacheSize);
+            connectionState.client().enableNeighbourhoodCache(neighbourhoodCacheSize);
+        }
         //connectionState = new BasicDbConnectionState(configFile);
         registerOperationHandler(LdbcQuery1.class, LdbcQuery1Handler.class);
         registerOperationHandler(LdbcQuery2.class, LdbcQuery2Handler.class);
@@ -85,6 +98,17 @@ public class TitanFTMDb extends Db {
         registerOperationHandler(LdbcUpdate8AddFriendship.class, LdbcQueryU8Handler.class);
     }
 
+    private static int parseIntProperty(Map<String, String> properties, String name, int defaultValue) throws DbException {
+        String value = properties.get(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new DbException("Titan LDBC implementation parameter " + name + " must be an integer, was: " + value, e);
+        }
+    }
+
     @Override
     protected void onClose() throws IOException {
         this.connectionState.close();
@@ -124,9 +148,28 @@ public class TitanFTMDb extends Db {
                 return ((String) o1.getProperty("title")).compareTo((String) o2.getProperty("title"));
             }
         };
+        /**
+         * IdGraph only wraps the vertices it looks up itself, and wrapped vertices are only equal to vertices of the
+         * same class, so vertices looked up by Titan id are wrapped through its protected constructor
+         */
+        private static final Constructor<IdVertex> ID_VERTEX;
+
+        static {
+            try {
+                ID_VERTEX = IdVertex.class.getDeclaredConstructor(Vertex.class, IdGraph.class);
+                ID_VERTEX.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
         private KeyIndexableGraph g;
         private InteractiveWorkloadSchema s = new InteractiveWorkloadSchema();
         private long mult;
+        private GroupCommitter groupCommitter = null;
+        private final ThreadLocal<GroupCommitter.Batch> currentBatch = new ThreadLocal<>();
+        private final ThreadLocal<Boolean> updateInProgress = new ThreadLocal<>();
+        private NeighbourhoodCache neighbourhoodCache = null;
 
         BasicClient(String pathToConfFile) {
             //Shifting all ids by mult to accomodate vertex type id suffixes
@@ -137,6 +180,88 @@ public class TitanFTMDb extends Db {
             g = new IdGraph<>(base, true, false);
         }
 
+        /**
+         * Switches updates to group commit mode: updates started with {@link #beginUpdate()} share one
+         * transaction per batch and {@link #commit()} returns only once that transaction has been committed
+         *
+         * @param maxBatchSize    maximal number of updates coalesced into one commit
+         * @param maxDelayAsMilli maximal time a batch stays open for further updates
+         */
+        void enableGroupCommit(int maxBatchSize, long maxDelayAsMilli) {
+            groupCommitter = new GroupCommitter((TitanGraph) ((IdGraph) g).getBaseGraph(), maxBatchSize, maxDelayAsMilli);
+        }
+
+        /**
+         * Marks the start of an update operation. In group commit mode the calling thread joins the open batch
+         * and all graph access up to the following {@link #commit()} goes through the batch transaction.
+         * Must be followed by a call to {@link #endUpdate()} in a finally block.
+         */
+        public void beginUpdate() {
+            if (groupCommitter != null)
+                currentBatch.set(groupCommitter.join());
+            updateInProgress.set(Boolean.TRUE);
+        }
+
+        /**
+         * Ends the update started by {@link #beginUpdate()}. An update that did not reach {@link #commit()},
+         * e.g. because it threw, is abandoned: in group commit mode it leaves its batch, so that the other
+         * updates of the batch still commit, otherwise its transaction is rolled back.
+         */
+        public void endUpdate() {
+            if (updateInProgress.get() == null)
+                return;
+            updateInProgress.remove();
+            GroupCommitter.Batch batch = currentBatch.get();
+            if (batch != null) {
+                currentBatch.remove();
+                groupCommitter.leave(batch);
+            } else {
+                ((TitanGraph)((IdGraph)this.g).getBaseGraph()).rollback();
+            }
+        }
+
+        /**
+         * Enables caching of friend and friend of friend neighbourhoods, see {@link QueryUtils#getFoF}
+         *
+         * @param maxEntries maximal number of cached persons
+         */
+        void enableNeighbourhoodCache(int maxEntries) {
+            neighbourhoodCache = new NeighbourhoodCache(maxEntries);
+        }
+
+        /**
+         * @return neighbourhood cache or null if caching is disabled
+         */
+        NeighbourhoodCache neighbourhoodCache() {
+            return neighbourhoodCache;
+        }
+
+        /**
+         * Notifies the neighbourhood cache of a committed person addition
+         *
+         * @param personId id of the added person
+         */
+        public void personAdded(long personId) {
+            if (neighbourhoodCache != null)
+                neighbourhoodCache.invalidatePerson(getVId(personId, "Person"));
+        }
+
+        /**
+         * Notifies the neighbourhood cache of a committed knows edge addition
+         *
+         * @param person1Id id of the first person
+         * @param person2Id id of the second person
+         */
+        public void knowsAdded(long person1Id, long person2Id) {
+            if (neighbourhoodCache != null)
+                neighbourhoodCache.invalidateKnows(getVId(person1Id, "Person"), getVId(person2Id, "Person"));
+        }
+
+        private KeyIndexableGraph graph() {
+            GroupCommitter.Batch batch = currentBatch.get();
+            return batch == null ? g : batch.graph();
+        }
+
         /**
          * Gets the specified vertex or null if no such vertex is found
          *
@@ -144,7 +269,34 @@ public class TitanFTMDb extends Db {
          * @return the specified vertex or null if no such vertex is found
          */
         public Vertex getVertex(long id, String label) throws SchemaViolationException {
-            return g.getVertex(getVId(id, label));
+            return graph().getVertex(getVId(id, label));
+        }
+
+        /**
+         * @param v vertex returned by this client
+         * @return id Titan assigned to the vertex, see {@link #getVertexByTitanId(long)}
+         */
+        public long getTitanId(Vertex v) {
+            return (Long) ((IdVertex) v).getBaseVertex().getId();
+        }
+
+        /**
+         * Gets a vertex by the id Titan assigned to it, without the vertex id index lookup of
+         * {@link #getVertex(long, String)}
+         *
+         * @param titanId id returned by {@link #getTitanId(Vertex)}
+         * @return the specified vertex or null if no such vertex is found
+         */
+        public Vertex getVertexByTitanId(long titanId) {
+            IdGraph<?> idGraph = (IdGraph<?>) graph();
+            Vertex base = idGraph.getBaseGraph().getVertex(titanId);
+            if (base == null)
+                return null;
+            try {
+                return ID_VERTEX.newInstance(base, idGraph);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot wrap vertex " + titanId, e);
+            }
         }
 
         /**
@@ -156,7 +308,7 @@ public class TitanFTMDb extends Db {
          * @return true if adding succeeded
          */
         public Vertex addVertex(long id, String label, Map<String, Object> props) {
-            Vertex v = g.addVertex(getVId(id, label));
+            Vertex v = graph().addVertex(getVId(id, label));
             if (v == null)
                 return null;
             for (Map.Entry<String, Object> p : props.entrySet())
@@ -204,7 +356,7 @@ public class TitanFTMDb extends Db {
             Set<Vertex> res = new HashSet<>();
             if (suffix == null)
                 throw new SchemaViolationException(label + " vertex type is not defined in the schema for " + s.getClass().getSimpleName());
-            GraphQuery gq = g.query();
+            GraphQuery gq = graph().query();
             for (String property : pValueMap.keySet())
                 gq = gq.has(property, pValueMap.get(property));
             if (limit != Integer.MAX_VALUE)
@@ -233,7 +385,7 @@ public class TitanFTMDb extends Db {
                 throw new SchemaViolationException(label + " vertex type is not defined in the schema for " + s.getClass().getSimpleName());
 
             Iterable<Vertex> qres;
-            GraphQuery q = g.query().has("label", label).has(property, Cmp.EQUAL, value);
+            GraphQuery q = graph().query().has("label", label).has(property, Cmp.EQUAL, value);
             if (limit == Integer.MAX_VALUE)
                 qres = q.vertices();
             else
@@ -256,14 +408,14 @@ public class TitanFTMDb extends Db {
         @SuppressWarnings("unchecked")
         public Iterable<Vertex> getVertices(String property, String value, int limit) {
             if (limit == Integer.MAX_VALUE)
-                return g.query().has(value, Cmp.EQUAL, value).vertices();
+                return graph().query().has(value, Cmp.EQUAL, value).vertices();
             else
-                return g.query().has(property, Cmp.EQUAL, value).limit(limit).vertices();
+                return graph().query().has(property, Cmp.EQUAL, value).limit(limit).vertices();
 
         }
 
         public GraphQuery getQuery() {
-            return g.query();
+            return graph().query();
         }
 
         /**
@@ -275,13 +427,29 @@ public class TitanFTMDb extends Db {
          * @param eProps Map of edge property name->value
          */
         public void addEdge(Vertex vOut, Vertex vIn, String label, Map<String, Object> eProps) {
-            Edge e = g.addEdge(null, vOut, vIn, label);
+            Edge e = graph().addEdge(null, vOut, vIn, label);
             for (Map.Entry<String, Object> entry : eProps.entrySet())
                 e.setProperty(entry.getKey(), entry.getValue());
         }
 
+        /**
+         * Commits the current update. In group commit mode blocks until the batch the update joined in
+         * {@link #beginUpdate()} has been committed, so the caller may acknowledge the operation right after.
+         */
         public void commit() {
-            ((TitanGraph)((IdGraph)this.g).getBaseGraph()).commit();
+            GroupCommitter.Batch batch = currentBatch.get();
+            if (batch == null) {
+                ((TitanGraph)((IdGraph)this.g).getBaseGraph()).commit();
+                updateInProgress.remove();
+                return;
+            }
+            updateInProgress.remove();
+            currentBatch.remove();
+            groupCommitter.commit(batch);
+        }
+
+        void shutdown() {
+            g.shutdown();
         }
     }
 
@@ -304,7 +472,7 @@ public class TitanFTMDb extends Db {
 
         @Override
         public void close() throws IOException {
-            this.basicClient.g.shutdown();
+            this.basicClient.shutdown();
         }
     }
 
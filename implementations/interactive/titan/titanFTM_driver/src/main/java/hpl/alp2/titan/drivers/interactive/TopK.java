@@ -0,0 +1,99 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded top-k collector. Keeps the k best elements offered so far in a heap whose head is the
+ * worst retained element, so each offer costs O(log k) and only k elements are ever retained.
+ * Handlers offer cheap {@link Candidate}s carrying just the sort keys and read the remaining
+ * properties of the winners once collection is done.
+ *
+ * @param <T> element type
+ */
+class TopK<T> {
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param k     maximal number of elements to retain
+     * @param order result order, best element first
+     */
+    TopK(int k, Comparator<? super T> order) {
+        this.k = k;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.max(1, k), Collections.reverseOrder(order));
+    }
+
+    /**
+     * @param e element to offer
+     * @return true if the element is currently among the k best
+     */
+    boolean offer(T e) {
+        if (k <= 0)
+            return false;
+        if (heap.size() < k) {
+            heap.add(e);
+            return true;
+        }
+        if (order.compare(e, heap.peek()) >= 0)
+            return false;
+        heap.poll();
+        heap.add(e);
+        return true;
+    }
+
+    /**
+     * @return retained elements, best first
+     */
+    List<T> toSortedList() {
+        List<T> res = new ArrayList<>(heap);
+        Collections.sort(res, order);
+        return res;
+    }
+
+    /**
+     * Sort key pair with the elements needed to build the result row once the candidate has qualified
+     *
+     * @param <P> payload type
+     */
+    static class Candidate<P> {
+        final long key;
+        final long id;
+        final P payload;
+
+        Candidate(long key, long id, P payload) {
+            this.key = key;
+            this.id = id;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Descending by key (e.g. creation date, count, similarity), then ascending by id
+     */
+    static final Comparator<Candidate<?>> KEY_DESC_ID_ASC = new Comparator<Candidate<?>>() {
+        @Override
+        public int compare(Candidate<?> o1, Candidate<?> o2) {
+            if (o1.key == o2.key)
+                return Long.compare(o1.id, o2.id);
+            return Long.compare(o2.key, o1.key);
+        }
+    };
+
+    /**
+     * Ascending by key (e.g. work start year), then ascending by id
+     */
+    static final Comparator<Candidate<?>> KEY_ASC_ID_ASC = new Comparator<Candidate<?>>() {
+        @Override
+        public int compare(Candidate<?> o1, Candidate<?> o2) {
+            if (o1.key == o2.key)
+                return Long.compare(o1.id, o2.id);
+            return Long.compare(o1.key, o2.key);
+        }
+    };
+}
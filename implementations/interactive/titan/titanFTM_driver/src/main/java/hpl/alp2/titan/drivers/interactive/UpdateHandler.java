@@ -0,0 +1,30 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import com.ldbc.driver.DbException;
+import com.ldbc.driver.Operation;
+import com.ldbc.driver.OperationHandler;
+import com.ldbc.driver.ResultReporter;
+
+/**
+ * Base of the update handlers. Brackets each update with {@link TitanFTMDb.BasicClient#beginUpdate()} and
+ * {@link TitanFTMDb.BasicClient#endUpdate()}, so an update that throws before it commits still leaves its
+ * group commit batch, or rolls back its transaction.
+ */
+public abstract class UpdateHandler<O extends Operation> implements OperationHandler<O, TitanFTMDb.BasicDbConnectionState> {
+
+    @Override
+    public final void executeOperation(O operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException {
+        TitanFTMDb.BasicClient client = dbConnectionState.client();
+        client.beginUpdate();
+        try {
+            executeUpdate(operation, dbConnectionState, reporter);
+        } finally {
+            client.endUpdate();
+        }
+    }
+
+    /**
+     * Executes the update, which has already been begun on the client of dbConnectionState
+     */
+    protected abstract void executeUpdate(O operation, TitanFTMDb.BasicDbConnectionState dbConnectionState, ResultReporter reporter) throws DbException;
+}
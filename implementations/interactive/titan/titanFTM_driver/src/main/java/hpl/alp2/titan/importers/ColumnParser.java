@@ -0,0 +1,159 @@
+package hpl.alp2.titan.importers;
+
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Typed csv column parsers working directly on the bytes of a line.
+ * Resolved once per file header from the schema property class, replacing the per value
+ * lookup by class simple name done by {@link TitanImporter#parseEntry(String, String)}.
+ */
+public enum ColumnParser {
+    STRING {
+        @Override
+        public Object parse(byte[] line, int start, int end) {
+            return new String(line, start, end - start, UTF8);
+        }
+    },
+    INTEGER {
+        @Override
+        public Object parse(byte[] line, int start, int end) {
+            return (int) parseLong(line, start, end);
+        }
+    },
+    LONG {
+        @Override
+        public Object parse(byte[] line, int start, int end) {
+            return parseLong(line, start, end);
+        }
+    },
+    /**
+     * Dates are stored as milliseconds since epoch, as in {@link TitanImporter}
+     */
+    DATE {
+        @Override
+        public Object parse(byte[] line, int start, int end) throws ParseException {
+            return parseDate(line, start, end);
+        }
+    };
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    /**
+     * yyyy-MM-dd dates are midnight in the default time zone,
+     * as parsed by {@link TitanImporter#parseEntry(String, String)}
+     */
+    private static final ThreadLocal<Calendar> LOCAL_CALENDAR = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            return Calendar.getInstance();
+        }
+    };
+
+    /**
+     * @param line  line bytes
+     * @param start index of the first byte of the column
+     * @param end   index after the last byte of the column
+     * @return typed value of the column
+     * @throws ParseException if a date column is malformed
+     */
+    public abstract Object parse(byte[] line, int start, int end) throws ParseException;
+
+    /**
+     * @param clazz schema class of the property, as given by {@link WorkLoadSchema}
+     * @return parser for values of the class
+     * @throws ClassCastException if the class is not supported
+     */
+    public static ColumnParser forClass(Class<?> clazz) {
+        if (clazz.equals(String.class) || clazz.equals(Arrays.class))
+            return STRING;
+        if (clazz.equals(Integer.class))
+            return INTEGER;
+        if (clazz.equals(Long.class))
+            return LONG;
+        if (clazz.equals(Date.class))
+            return DATE;
+        throw new ClassCastException("No parse strategy for " + clazz.getSimpleName());
+    }
+
+    public static long parseLong(byte[] line, int start, int end) {
+        if (start >= end)
+            throw new NumberFormatException("Empty number column");
+        boolean negative = line[start] == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end)
+            throw new NumberFormatException("Invalid number -");
+        long res = 0;
+        for (; i < end; i++) {
+            int d = line[i] - '0';
+            if (d < 0 || d > 9)
+                throw new NumberFormatException("Invalid number " + new String(line, start, end - start, UTF8));
+            res = res * 10 + d;
+        }
+        return negative ? -res : res;
+    }
+
+    /**
+     * Parses yyyy-MM-dd, as midnight in the default time zone, or yyyy-MM-dd'T'HH:mm:ss.SSSZ (numeric zone,
+     * e.g. +0000) into milliseconds since epoch
+     */
+    static long parseDate(byte[] line, int start, int end) throws ParseException {
+        int len = end - start;
+        if (len != 10 && len != 28)
+            return fallbackParseDate(line, start, end);
+        if (line[start + 4] != '-' || line[start + 7] != '-')
+            return fallbackParseDate(line, start, end);
+        int year = digits(line, start, 4);
+        int month = digits(line, start + 5, 2);
+        int day = digits(line, start + 8, 2);
+        if (len == 10) {
+            Calendar calendar = LOCAL_CALENDAR.get();
+            calendar.clear();
+            calendar.set(year, month - 1, day);
+            return calendar.getTimeInMillis();
+        }
+        long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+        if (line[start + 10] != 'T' || line[start + 19] != '.')
+            return fallbackParseDate(line, start, end);
+        millis += digits(line, start + 11, 2) * 3600000L
+                + digits(line, start + 14, 2) * 60000L
+                + digits(line, start + 17, 2) * 1000L
+                + digits(line, start + 20, 3);
+        byte sign = line[start + 23];
+        long offset = digits(line, start + 24, 2) * 3600000L + digits(line, start + 26, 2) * 60000L;
+        if (sign == '+')
+            return millis - offset;
+        if (sign == '-')
+            return millis + offset;
+        return fallbackParseDate(line, start, end);
+    }
+
+    private static int digits(byte[] line, int start, int count) {
+        int res = 0;
+        for (int i = start; i < start + count; i++)
+            res = res * 10 + (line[i] - '0');
+        return res;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian calendar date
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = (year >= 0 ? year : year - 399) / 400;
+        long yoe = year - era * 400;
+        long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static long fallbackParseDate(byte[] line, int start, int end) throws ParseException {
+        // TitanImporter's date formats are shared and not thread safe
+        synchronized (TitanImporter.class) {
+            return (Long) TitanImporter.parseEntry(new String(line, start, end - start, UTF8), "Date");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package hpl.alp2.titan.importers;
+
+import java.util.List;
+
+/**
+ * Selects and configures the importer from command line options:
+ * by default data is loaded with the single threaded {@link TitanImporter}. -parallel switches to
+ * {@link ParallelTitanImporter}, loading -threads files concurrently (default: number of available processors)
+ * and committing every -batchSize elements (default {@link ParallelTitanImporter#DEFAULT_BATCH_SIZE}).
+ */
+public class ImporterOptions {
+    public static final String USAGE = "[-parallel [-threads <count>] [-batchSize <count>]]";
+
+    private ImporterOptions() {
+    }
+
+    /**
+     * @param options importer options, see {@link #USAGE}
+     * @return importer, not yet initialized
+     * @throws IllegalArgumentException if an option is unknown, its value is missing or not a positive integer,
+     *                                  or a parallel importer option is given without -parallel
+     */
+    public static TitanImporter createImporter(List<String> options) {
+        boolean parallel = false;
+        String parallelOption = null;
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        int batchSize = ParallelTitanImporter.DEFAULT_BATCH_SIZE;
+        for (int i = 0; i < options.size(); i++) {
+            String option = options.get(i);
+            if (option.equalsIgnoreCase("-parallel"))
+                parallel = true;
+            else if (option.equalsIgnoreCase("-threads")) {
+                threadCount = positiveInt(options, ++i, option);
+                parallelOption = option;
+            } else if (option.equalsIgnoreCase("-batchSize")) {
+                batchSize = positiveInt(options, ++i, option);
+                parallelOption = option;
+            } else
+                throw new IllegalArgumentException("Unknown importer option " + option + ", use " + USAGE);
+        }
+        if (!parallel) {
+            if (parallelOption != null)
+                throw new IllegalArgumentException("Importer option " + parallelOption + " requires -parallel");
+            return new TitanImporter();
+        }
+        return new ParallelTitanImporter(threadCount, batchSize);
+    }
+
+    private static int positiveInt(List<String> options, int i, String option) {
+        if (i >= options.size())
+            throw new IllegalArgumentException("Missing value for importer option " + option);
+        int value;
+        try {
+            value = Integer.parseInt(options.get(i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Importer option " + option + " must be an integer, was: " + options.get(i), e);
+        }
+        if (value < 1)
+            throw new IllegalArgumentException("Importer option " + option + " must be positive, was: " + value);
+        return value;
+    }
+}
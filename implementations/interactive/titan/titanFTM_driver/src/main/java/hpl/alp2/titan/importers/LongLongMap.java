@@ -0,0 +1,103 @@
+package hpl.alp2.titan.importers;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long to long without boxing, used to translate
+ * external vertex ids to Titan vertex ids during import.
+ * Not thread safe for concurrent writes, concurrent reads after the last write are safe.
+ */
+public class LongLongMap {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size = 0;
+    private int threshold;
+
+    /**
+     * @param expectedSize number of entries the map should hold without resizing
+     */
+    public LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * @param key   key, must not be Long.MIN_VALUE
+     * @param value value
+     */
+    public void put(long key, long value) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        if (size >= threshold)
+            resize();
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * @param key          key to look up
+     * @param defaultValue value returned when the key is absent
+     * @return value mapped to key or defaultValue
+     */
+    public long get(long key, long defaultValue) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        long k;
+        while ((k = keys[i]) != EMPTY) {
+            if (k == key)
+                return values[i];
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Copies all entries of other into this map
+     *
+     * @param other map to copy from
+     */
+    public void putAll(LongLongMap other) {
+        for (int i = 0; i < other.keys.length; i++)
+            if (other.keys[i] != EMPTY)
+                put(other.keys[i], other.values[i]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldKeys[i] != EMPTY)
+                put(oldKeys[i], oldValues[i]);
+    }
+}
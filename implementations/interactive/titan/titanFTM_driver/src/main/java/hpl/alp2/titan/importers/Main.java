@@ -11,7 +11,12 @@ import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.naming.directory.SchemaViolationException;
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Created by Tomer Sagi on 06-Oct-14.
@@ -19,7 +24,15 @@ import java.net.URL;
  */
 public class Main {
 
+    /**
+     * @param args 0: db.conf path 1: data folder, followed by importer options, see {@link ImporterOptions#USAGE}.
+     *             Without arguments builds the vertex id index on bdbMWE.conf
+     */
     public static void main(String args[]) {
+        if (args.length > 0) {
+            importData(Arrays.asList(args));
+            return;
+        }
         //Load database
         //URL url = TitanImporter.class.getClassLoader().getResource("bdb.conf");
         URL url = TitanImporter.class.getClassLoader().getResource("bdbMWE.conf");
@@ -75,22 +88,38 @@ public class Main {
         Iterable<Vertex> vL = g.query().has(IdGraph.ID, 11).vertices();
         for (Vertex v : vL)
             logger.info("found: {}", v.toString());
-//        TitanImporter ti = new TitanImporter();
-//        try {
-//            ti.init(confPath, WorkloadEnum.INTERACTIVE);
-//        } catch (DBgenImporter.ConnectionException e) {
-//            e.printStackTrace();
-//        }
-//        File dir = new File(System.getProperty("validationFolderName"));
-//        if (!dir.exists())
-//            System.err.println("Validation data folder not found ");
-//        try {
-//            ti.importData(dir);
-//        } catch (IOException e) {
-//            e.printStackTrace();
-//        } catch (SchemaViolationException e) {
-//            e.printStackTrace();
-//        }
-//        ti.shutdown();
+    }
+
+    private static void importData(List<String> args) {
+        if (args.size() < 2) {
+            System.err.println("Usage: <db.conf path> <data folder> " + ImporterOptions.USAGE);
+            return;
+        }
+        File dir = new File(args.get(1));
+        if (!dir.exists()) {
+            System.err.println("Data folder not found " + dir.getPath());
+            return;
+        }
+        TitanImporter ti;
+        try {
+            ti = ImporterOptions.createImporter(args.subList(2, args.size()));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        try {
+            ti.init(args.get(0), WorkloadEnum.INTERACTIVE);
+        } catch (DBgenImporter.ConnectionException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            ti.importData(dir);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SchemaViolationException e) {
+            e.printStackTrace();
+        }
+        ti.shutdown();
     }
 }
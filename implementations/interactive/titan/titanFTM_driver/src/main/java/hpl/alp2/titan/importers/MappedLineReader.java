@@ -0,0 +1,99 @@
+package hpl.alp2.titan.importers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads '\n' terminated lines of a file through read only memory mapped windows.
+ * Each line is copied into a reusable byte array, so reading allocates nothing per line.
+ */
+public class MappedLineReader implements Closeable {
+    private static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    private MappedByteBuffer window = null;
+    private long windowStart = 0;
+    private byte[] line = new byte[1024];
+    private int lineLength = 0;
+
+    public MappedLineReader(File f) throws IOException {
+        this(f, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedLineReader(File f, long windowSize) throws IOException {
+        this.file = new RandomAccessFile(f, "r");
+        this.channel = file.getChannel();
+        this.fileSize = channel.size();
+        this.windowSize = Math.min(windowSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Advances to the next line, stripping a trailing '\r'
+     *
+     * @return false if the end of the file was reached
+     * @throws IOException if mapping the file fails
+     */
+    public boolean next() throws IOException {
+        lineLength = 0;
+        boolean read = false;
+        while (true) {
+            if (window == null || !window.hasRemaining()) {
+                long nextStart = window == null ? 0 : windowStart + window.limit();
+                if (nextStart >= fileSize)
+                    break;
+                windowStart = nextStart;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, fileSize - windowStart));
+            }
+            read = true;
+            while (window.hasRemaining()) {
+                byte b = window.get();
+                if (b == '\n') {
+                    if (lineLength > 0 && line[lineLength - 1] == '\r')
+                        lineLength--;
+                    return true;
+                }
+                if (lineLength == line.length) {
+                    byte[] grown = new byte[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, lineLength);
+                    line = grown;
+                }
+                line[lineLength++] = b;
+            }
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r')
+            lineLength--;
+        return read && lineLength > 0;
+    }
+
+    /**
+     * @return bytes of the current line, valid up to {@link #length()} and until the next call to {@link #next()}
+     */
+    public byte[] bytes() {
+        return line;
+    }
+
+    public int length() {
+        return lineLength;
+    }
+
+    /**
+     * @return current line decoded as UTF-8
+     */
+    public String asString() {
+        return new String(line, 0, lineLength, ColumnParser.UTF8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+        file.close();
+    }
+}
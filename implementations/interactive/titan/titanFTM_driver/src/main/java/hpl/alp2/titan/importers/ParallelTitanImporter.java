@@ -0,0 +1,336 @@
+package hpl.alp2.titan.importers;
+
+import com.thinkaurelius.titan.core.TitanEdge;
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.thinkaurelius.titan.core.TitanTransaction;
+import com.thinkaurelius.titan.core.TitanVertex;
+import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.naming.directory.SchemaViolationException;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded variant of {@link TitanImporter}.
+ * Vertices, then multi valued vertex properties, then edges are loaded with one task per csv file,
+ * each task reading its file through memory mapped windows, parsing columns with parsers resolved
+ * once from the header and writing through its own Titan transaction committed every batchSize elements.
+ * External ids are translated to Titan vertex ids with a primitive map built while loading vertices,
+ * instead of querying the id index, which relies on Titan assigning ids on vertex creation (ids.flush=true, the default).
+ */
+public class ParallelTitanImporter extends TitanImporter {
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+    private static final long MISSING = -1;
+
+    private final int threadCount;
+    private final int batchSize;
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private LongLongMap vertexIds = null;
+    private long idMultiplier;
+
+    /**
+     * @param threadCount number of files loaded concurrently
+     * @param batchSize   number of vertices, properties or edges per transaction
+     */
+    public ParallelTitanImporter(int threadCount, int batchSize) {
+        if (threadCount < 1)
+            throw new IllegalArgumentException("Thread count must be positive");
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive");
+        this.threadCount = threadCount;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads one file per available processor, committing every {@link #DEFAULT_BATCH_SIZE} elements
+     */
+    public ParallelTitanImporter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public boolean importData(File dir) throws IOException, SchemaViolationException {
+        logger.debug("entered parallel import data, dir is: {}, threads {}, batch size {}",
+                dir.getAbsolutePath(), threadCount, batchSize);
+        if (!dir.isDirectory())
+            return false;
+
+        WorkLoadSchema s = getSchema();
+        idMultiplier = (long) Math.pow(10, getMult());
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            //Vertices
+            List<VertexFileTask> vertexTasks = new ArrayList<>();
+            for (String vLabel : s.getVertexTypes().keySet())
+                for (File f : listFiles(dir, vLabel.toLowerCase()))
+                    vertexTasks.add(new VertexFileTask(f, vLabel));
+            runAll(executor, vertexTasks);
+            int vertexCount = 0;
+            for (VertexFileTask t : vertexTasks)
+                vertexCount += t.ids.size();
+            vertexIds = new LongLongMap(vertexCount);
+            for (VertexFileTask t : vertexTasks)
+                vertexIds.putAll(t.ids);
+            logger.debug("loaded {} vertices", vertexCount);
+
+            //Multi valued vertex properties
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Map.Entry<String, String> entry : s.getVPFileMap().entrySet())
+                for (File f : listFiles(dir, entry.getValue().replace("_0.csv", "")))
+                    tasks.add(new VertexPropertyFileTask(f, entry.getKey().split(TUPLESPLIT)[0]));
+            runAll(executor, tasks);
+            logger.debug("loaded vertex properties");
+
+            //Edges
+            tasks.clear();
+            for (Map.Entry<String, String> entry : s.getEFileMap().entrySet())
+                for (File f : listFiles(dir, entry.getValue().replace("_0.csv", "")))
+                    tasks.add(new EdgeFileTask(f, entry.getKey()));
+            runAll(executor, tasks);
+            logger.debug("completed parallel import data");
+        } finally {
+            executor.shutdownNow();
+            vertexIds = null;
+        }
+        return true;
+    }
+
+    private static List<File> listFiles(File dir, final String prefix) {
+        List<File> res = new ArrayList<>();
+        String[] names = dir.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.matches(prefix + "_\\d+_0\\.csv");
+            }
+        });
+        if (names != null)
+            for (String name : names)
+                res.add(new File(dir, name));
+        return res;
+    }
+
+    private static void runAll(ExecutorService executor, List<? extends Callable<Void>> tasks)
+            throws IOException, SchemaViolationException {
+        List<Future<Void>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Void> t : tasks)
+            futures.add(executor.submit(t));
+        for (Future<Void> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while importing", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SchemaViolationException)
+                    throw (SchemaViolationException) cause;
+                if (cause instanceof IOException)
+                    throw (IOException) cause;
+                throw new IOException("Import task failed", cause);
+            }
+        }
+    }
+
+    private long gid(byte[] line, int start, int end, short suffix) {
+        return idMultiplier * ColumnParser.parseLong(line, start, end) + suffix;
+    }
+
+    /**
+     * Finds the column boundaries of a '|' separated line
+     *
+     * @param line   line bytes
+     * @param length line length
+     * @param bounds filled with start (at 2 * i) and end (at 2 * i + 1) of column i
+     * @return number of columns found
+     */
+    private static int split(byte[] line, int length, int[] bounds) {
+        int col = 0;
+        int start = 0;
+        for (int i = 0; i <= length && col < bounds.length / 2; i++) {
+            if (i == length || line[i] == '|') {
+                bounds[2 * col] = start;
+                bounds[2 * col + 1] = i;
+                col++;
+                start = i + 1;
+            }
+        }
+        return col;
+    }
+
+    /**
+     * Common read / parse / commit loop of all file tasks
+     */
+    private abstract class FileTask implements Callable<Void> {
+        final File file;
+        String[] header;
+        TitanTransaction tx;
+        private int pending = 0;
+
+        FileTask(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            logger.debug("reading file {}", file.getName());
+            TitanGraph g = getGraph();
+            try (MappedLineReader reader = new MappedLineReader(file)) {
+                if (!reader.next())
+                    throw new IOException("Empty file" + file.getName());
+                header = reader.asString().split(CSVSPLIT);
+                readHeader();
+                int[] bounds = new int[header.length * 2];
+                tx = g.newTransaction();
+                try {
+                    while (reader.next()) {
+                        if (reader.length() == 0)
+                            continue;
+                        int columns = split(reader.bytes(), reader.length(), bounds);
+                        loadLine(reader.bytes(), bounds, columns);
+                        if (++pending >= batchSize) {
+                            tx.commit();
+                            tx = g.newTransaction();
+                            pending = 0;
+                        }
+                    }
+                    tx.commit();
+                } catch (Exception e) {
+                    logger.error("Failed to load {}", file.getName());
+                    tx.rollback();
+                    throw e;
+                }
+            }
+            return null;
+        }
+
+        TitanVertex vertex(long gid) {
+            long titanId = vertexIds.get(gid, MISSING);
+            return titanId == MISSING ? null : (TitanVertex) tx.getVertex(titanId);
+        }
+
+        abstract void readHeader() throws SchemaViolationException;
+
+        abstract void loadLine(byte[] line, int[] bounds, int columns) throws Exception;
+    }
+
+    private class VertexFileTask extends FileTask {
+        final String vLabel;
+        final LongLongMap ids = new LongLongMap(1024);
+        short suffix;
+        ColumnParser[] parsers;
+
+        VertexFileTask(File file, String vLabel) {
+            super(file);
+            this.vLabel = vLabel;
+        }
+
+        @Override
+        void readHeader() throws SchemaViolationException {
+            WorkLoadSchema s = getSchema();
+            suffix = validateVHeader(s, vLabel, header);
+            parsers = new ColumnParser[header.length];
+            for (int i = 1; i < header.length; i++) {
+                Class<?> clazz = s.getVPropertyClass(vLabel, header[i]);
+                //see TitanImporter.loadVertices, Person.language is multi valued while Post.language is not
+                if (clazz == null && header[i].equals("language"))
+                    clazz = s.getVPropertyClass(vLabel, "lang");
+                if (clazz == null)
+                    throw new SchemaViolationException("property " + header[i] + " not found in " + vLabel + " schema definition");
+                parsers[i] = ColumnParser.forClass(clazz);
+            }
+        }
+
+        @Override
+        void loadLine(byte[] line, int[] bounds, int columns) throws Exception {
+            long id = gid(line, bounds[0], bounds[1], suffix);
+            TitanVertex v = tx.addVertexWithLabel(vLabel);
+            v.setProperty(IdGraph.ID, id);
+            for (int i = 1; i < columns && i < header.length; i++)
+                v.setProperty(header[i], parsers[i].parse(line, bounds[2 * i], bounds[2 * i + 1]));
+            ids.put(id, v.getLongId());
+        }
+    }
+
+    private class VertexPropertyFileTask extends FileTask {
+        final String vLabel;
+        short suffix;
+        ColumnParser[] parsers;
+
+        VertexPropertyFileTask(File file, String vLabel) {
+            super(file);
+            this.vLabel = vLabel;
+        }
+
+        @Override
+        void readHeader() throws SchemaViolationException {
+            WorkLoadSchema s = getSchema();
+            suffix = validateVHeader(s, vLabel, header);
+            parsers = new ColumnParser[header.length];
+            for (int i = 1; i < header.length; i++)
+                parsers[i] = ColumnParser.forClass(s.getVPropertyClass(vLabel, header[i]));
+        }
+
+        @Override
+        void loadLine(byte[] line, int[] bounds, int columns) throws Exception {
+            long id = gid(line, bounds[0], bounds[1], suffix);
+            TitanVertex v = vertex(id);
+            if (v == null) {
+                logger.error("Vertex property update failed, since no vertex with id {} in {}", id, file.getName());
+                return;
+            }
+            for (int i = 1; i < columns && i < header.length; i++)
+                v.addProperty(header[i], parsers[i].parse(line, bounds[2 * i], bounds[2 * i + 1]));
+        }
+    }
+
+    private class EdgeFileTask extends FileTask {
+        final String eTriple;
+        String eLabel;
+        short[] idSuffixes;
+        ColumnParser[] parsers;
+
+        EdgeFileTask(File file, String eTriple) {
+            super(file);
+            this.eTriple = eTriple;
+        }
+
+        @Override
+        void readHeader() throws SchemaViolationException {
+            WorkLoadSchema s = getSchema();
+            idSuffixes = validateEHeader(s, eTriple, header);
+            eLabel = eTriple.split(TUPLESPLIT)[1];
+            parsers = new ColumnParser[header.length];
+            for (int i = 2; i < header.length; i++)
+                parsers[i] = ColumnParser.forClass(s.getEPropertyClass(eLabel, header[i]));
+        }
+
+        @Override
+        void loadLine(byte[] line, int[] bounds, int columns) throws Exception {
+            if (columns < 2 || bounds[0] == bounds[1] || bounds[2] == bounds[3])
+                throw new NumberFormatException("In " + file.getName() + " expected long id, got "
+                        + new String(line, 0, bounds[2 * columns - 1], ColumnParser.UTF8));
+            long id1 = gid(line, bounds[0], bounds[1], idSuffixes[0]);
+            long id2 = gid(line, bounds[2], bounds[3], idSuffixes[1]);
+            TitanVertex fV = vertex(id1);
+            TitanVertex tV = vertex(id2);
+            if (fV == null || tV == null) {
+                logger.error("Failed to add edge {}, vertex {} or {} not found", eTriple, id1, id2);
+                return;
+            }
+            TitanEdge edge = fV.addEdge(eLabel, tV);
+            for (int i = 2; i < columns && i < header.length; i++)
+                edge.setProperty(header[i], parsers[i].parse(line, bounds[2 * i], bounds[2 * i + 1]));
+        }
+    }
+}
@@ -467,7 +467,7 @@ public class TitanImporter implements DBgenImporter {
      * @param header header of csv file
      * @return suffix of this vertex
      */
-    private short validateVHeader(WorkLoadSchema s, String vLabel, String[] header) throws SchemaViolationException {
+    protected short validateVHeader(WorkLoadSchema s, String vLabel, String[] header) throws SchemaViolationException {
         Set<String> props = s.getVertexProperties().get(vLabel);
         if (props == null)
             throw new SchemaViolationException("No properties found for the vertex label " + vLabel);
@@ -512,7 +512,7 @@ public class TitanImporter implements DBgenImporter {
      * @return short array of size two with the suffixes of
      * the source ([0]) and target ([1]) vertices
      */
-    private short[] validateEHeader(WorkLoadSchema s, String eTriple, String[] header)
+    protected short[] validateEHeader(WorkLoadSchema s, String eTriple, String[] header)
             throws SchemaViolationException, IllegalArgumentException {
         String[] triple = eTriple.split(TUPLESPLIT);
         if (triple.length != 3)
@@ -581,6 +581,27 @@ public class TitanImporter implements DBgenImporter {
         }
     }
 
+    /**
+     * @return graph opened by {@link #init(String, WorkloadEnum)}
+     */
+    protected TitanGraph getGraph() {
+        return g;
+    }
+
+    /**
+     * @return schema of the workload given to {@link #init(String, WorkloadEnum)}
+     */
+    protected WorkLoadSchema getSchema() {
+        return workload.getSchema();
+    }
+
+    /**
+     * @return number of digits ids are shifted by to make room for the vertex type suffix
+     */
+    protected int getMult() {
+        return mult;
+    }
+
     /**
      * Use to shut-down the graph
      */
@@ -0,0 +1,121 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.naming.directory.SchemaViolationException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Friends of friends served by the neighbourhood cache match the traversal, before and after the updates that
+ * invalidate it, the way U1 and U8 notify the client.
+ */
+public class FoFCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TitanFTMDb.BasicClient client;
+
+    @Before
+    public void openClient() throws IOException {
+        File conf = folder.newFile("inmemory.conf");
+        try (FileOutputStream out = new FileOutputStream(conf)) {
+            out.write("storage.backend=inmemory\n".getBytes("UTF-8"));
+        }
+        client = new TitanFTMDb.BasicClient(conf.getPath());
+        for (long id = 1; id <= 5; id++)
+            client.addVertex(id, "Person", new HashMap<String, Object>());
+        //5 -> 1 -> 2 -> 3, 4 knows nobody
+        knows(5, 1);
+        knows(1, 2);
+        knows(2, 3);
+        client.commit();
+        client.enableNeighbourhoodCache(16);
+    }
+
+    @After
+    public void closeClient() {
+        client.shutdown();
+    }
+
+    private void knows(long person1Id, long person2Id) {
+        try {
+            client.addEdge(client.getVertex(person1Id, "Person"), client.getVertex(person2Id, "Person"), "knows",
+                    new HashMap<String, Object>());
+        } catch (SchemaViolationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private Set<Long> foF(long personId) {
+        Set<Long> res = new HashSet<>();
+        for (Vertex v : QueryUtils.getInstance().getFoF(personId, client))
+            res.add((Long) v.getId());
+        return res;
+    }
+
+    private Set<Long> persons(Long... ids) {
+        Set<Long> res = new HashSet<>();
+        for (long id : Arrays.asList(ids))
+            res.add(client.getVId(id, "Person"));
+        return res;
+    }
+
+    @Test
+    public void cachedFoFShouldMatchTheTraversal() {
+        assertEquals(persons(2L, 3L), foF(1));
+        assertEquals(1, client.neighbourhoodCache().size());
+
+        //Served from the cache, vertices resolved by Titan id are equal to the traversed ones
+        client.neighbourhoodCache().invalidatePerson(client.getVId(1, "Person"));
+        Set<Vertex> traversed = QueryUtils.getInstance().getFoF(1, client);
+        Set<Vertex> cached = QueryUtils.getInstance().getFoF(1, client);
+        assertEquals(traversed, cached);
+        for (Vertex v : cached)
+            assertEquals(v.getId(), v.getProperty(IdGraph.ID));
+        assertEquals(1, client.neighbourhoodCache().size());
+    }
+
+    @Test
+    public void newKnowsShouldBeSeenByThePersonsAndTheirFriends() {
+        assertEquals(persons(2L, 3L), foF(1));
+        assertEquals(persons(1L, 2L), foF(5));
+        assertEquals(persons(3L), foF(2));
+
+        knows(1, 4);
+        client.commit();
+        client.knowsAdded(1, 4);
+
+        assertEquals(persons(2L, 3L, 4L), foF(1));
+        assertEquals(persons(1L, 2L, 4L), foF(5));
+        assertEquals(persons(3L), foF(2));
+    }
+
+    @Test
+    public void newPersonShouldBeInvalidated() {
+        assertEquals(persons(2L, 3L), foF(1));
+
+        client.addVertex(6, "Person", new HashMap<String, Object>());
+        knows(6, 1);
+        client.commit();
+        client.personAdded(6);
+
+        assertNull(client.neighbourhoodCache().get(client.getVId(6, "Person")));
+        assertEquals(persons(1L, 2L), foF(6));
+        assertEquals(persons(2L, 3L), foF(1));
+    }
+}
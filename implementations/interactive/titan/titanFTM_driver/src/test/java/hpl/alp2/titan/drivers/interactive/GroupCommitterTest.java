@@ -0,0 +1,118 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Updates of a batch write through the batch graph and then either commit or, when they fail, leave the batch,
+ * the same way the update handlers use BasicClient.beginUpdate, commit and endUpdate.
+ */
+public class GroupCommitterTest {
+
+    private TitanGraph graph;
+
+    @Before
+    public void openGraph() {
+        graph = TitanFactory.build().set("storage.backend", "inmemory").open();
+        //Creates the vertex id index the batch graphs rely on, as BasicClient does
+        new IdGraph<>(graph, true, false);
+        graph.commit();
+    }
+
+    @After
+    public void closeGraph() {
+        graph.shutdown();
+    }
+
+    @Test
+    public void failedUpdateShouldNotBlockTheRestOfItsBatch() throws Exception {
+        final int batchSize = 4;
+        final long failingId = 0;
+        //Sealed by size only, so all updates share one batch
+        final GroupCommitter committer = new GroupCommitter(graph, batchSize, TimeUnit.MINUTES.toMillis(10));
+        final CountDownLatch allJoined = new CountDownLatch(batchSize);
+        ExecutorService executor = Executors.newFixedThreadPool(batchSize);
+        List<Future<Void>> updates = new ArrayList<>();
+        for (long i = 0; i < batchSize; i++) {
+            final long id = i;
+            updates.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    GroupCommitter.Batch batch = committer.join();
+                    boolean arrived = false;
+                    try {
+                        allJoined.countDown();
+                        allJoined.await();
+                        batch.graph().addVertex(id);
+                        if (id == failingId)
+                            throw new IllegalStateException("Update " + id + " failed");
+                        arrived = true;
+                        committer.commit(batch);
+                        return null;
+                    } finally {
+                        if (!arrived)
+                            committer.leave(batch);
+                    }
+                }
+            }));
+        }
+        try {
+            for (long id = 0; id < batchSize; id++) {
+                Future<Void> update = updates.get((int) id);
+                if (id == failingId) {
+                    try {
+                        update.get(10, TimeUnit.SECONDS);
+                        fail("Update " + id + " should have failed");
+                    } catch (ExecutionException e) {
+                        assertTrue(e.getCause() instanceof IllegalStateException);
+                    }
+                } else {
+                    //Times out if the batch waits for the failed update
+                    update.get(10, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        IdGraph<TitanGraph> idGraph = new IdGraph<>(graph, true, false);
+        for (long id = 0; id < batchSize; id++) {
+            if (id != failingId)
+                assertNotNull("Update " + id + " should have been committed", idGraph.getVertex(id));
+        }
+    }
+
+    @Test
+    public void batchShouldBeRolledBackWhenItsOnlyUpdateLeaves() throws Exception {
+        GroupCommitter committer = new GroupCommitter(graph, 4, 10);
+
+        GroupCommitter.Batch abandoned = committer.join();
+        abandoned.graph().addVertex(1L);
+        committer.leave(abandoned);
+
+        GroupCommitter.Batch batch = committer.join();
+        assertNotSame(abandoned, batch);
+        batch.graph().addVertex(2L);
+        committer.commit(batch);
+
+        IdGraph<TitanGraph> idGraph = new IdGraph<>(graph, true, false);
+        assertNull(idGraph.getVertex(1L));
+        assertNotNull(idGraph.getVertex(2L));
+    }
+}
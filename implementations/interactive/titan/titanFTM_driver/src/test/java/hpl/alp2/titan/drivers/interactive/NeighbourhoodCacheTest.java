@@ -0,0 +1,89 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NeighbourhoodCacheTest {
+
+    private static NeighbourhoodCache.Neighbourhood neighbourhood(long... friends) {
+        return new NeighbourhoodCache.Neighbourhood(friends, new long[]{100, 101});
+    }
+
+    @Test
+    public void cachedNeighbourhoodShouldBeHit() {
+        NeighbourhoodCache cache = new NeighbourhoodCache(4);
+        NeighbourhoodCache.Neighbourhood n = neighbourhood(2, 3);
+        assertNull(cache.get(1));
+
+        cache.put(1, n, cache.epoch());
+
+        assertSame(n, cache.get(1));
+        assertArrayEquals(new long[]{100, 101}, cache.get(1).friendsAndFoFs());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedNeighbourhoodShouldBeEvicted() {
+        NeighbourhoodCache cache = new NeighbourhoodCache(2);
+        cache.put(1, neighbourhood(), cache.epoch());
+        cache.put(2, neighbourhood(), cache.epoch());
+        //1 becomes the most recently used
+        assertNotNull(cache.get(1));
+
+        cache.put(3, neighbourhood(), cache.epoch());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void newPersonShouldBeInvalidated() {
+        NeighbourhoodCache cache = new NeighbourhoodCache(4);
+        cache.put(1, neighbourhood(), cache.epoch());
+        cache.put(2, neighbourhood(), cache.epoch());
+
+        cache.invalidatePerson(1);
+
+        assertNull(cache.get(1));
+        assertNotNull(cache.get(2));
+    }
+
+    @Test
+    public void newKnowsShouldInvalidateBothPersonsAndTheirFriends() {
+        NeighbourhoodCache cache = new NeighbourhoodCache(8);
+        cache.put(1, neighbourhood(5), cache.epoch());
+        cache.put(2, neighbourhood(6), cache.epoch());
+        cache.put(3, neighbourhood(1, 7), cache.epoch());
+        cache.put(4, neighbourhood(2), cache.epoch());
+        cache.put(5, neighbourhood(6, 7), cache.epoch());
+
+        cache.invalidateKnows(1, 2);
+
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNull(cache.get(3));
+        assertNull(cache.get(4));
+        assertNotNull(cache.get(5));
+    }
+
+    @Test
+    public void neighbourhoodComputedBeforeAnInvalidationShouldNotBeCached() {
+        NeighbourhoodCache cache = new NeighbourhoodCache(4);
+        long epoch = cache.epoch();
+
+        cache.invalidateKnows(1, 2);
+        cache.put(1, neighbourhood(3), epoch);
+
+        assertNull(cache.get(1));
+        cache.put(1, neighbourhood(2, 3), cache.epoch());
+        assertNotNull(cache.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cacheShouldHoldAtLeastOneEntry() {
+        new NeighbourhoodCache(0);
+    }
+}
@@ -0,0 +1,100 @@
+package hpl.alp2.titan.drivers.interactive;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TopKTest {
+
+    private static List<TopK.Candidate<String>> candidates(long... keysAndIds) {
+        List<TopK.Candidate<String>> res = new ArrayList<>();
+        for (int i = 0; i < keysAndIds.length; i += 2)
+            res.add(new TopK.Candidate<>(keysAndIds[i], keysAndIds[i + 1], "c" + i / 2));
+        return res;
+    }
+
+    private static <T> List<T> top(int k, Comparator<? super T> order, List<T> elements) {
+        TopK<T> top = new TopK<>(k, order);
+        for (T e : elements)
+            top.offer(e);
+        return top.toSortedList();
+    }
+
+    /**
+     * What the handlers did before: sort all elements, then keep the first k
+     */
+    private static <T> List<T> sortThenTruncate(int k, Comparator<? super T> order, List<T> elements) {
+        List<T> sorted = new ArrayList<>(elements);
+        Collections.sort(sorted, order);
+        return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+    }
+
+    @Test
+    public void shouldMatchSortThenTruncate() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<TopK.Candidate<String>> elements = new ArrayList<>();
+            int size = random.nextInt(50);
+            for (int i = 0; i < size; i++)
+                //Few keys, so many elements tie on the key and are ordered by id
+                elements.add(new TopK.Candidate<>(random.nextInt(5), i, "c" + i));
+            Collections.shuffle(elements, random);
+            int k = random.nextInt(20);
+
+            assertEquals(sortThenTruncate(k, TopK.KEY_DESC_ID_ASC, elements), top(k, TopK.KEY_DESC_ID_ASC, elements));
+            assertEquals(sortThenTruncate(k, TopK.KEY_ASC_ID_ASC, elements), top(k, TopK.KEY_ASC_ID_ASC, elements));
+        }
+    }
+
+    @Test
+    public void tiesOnKeyShouldBeOrderedById() {
+        List<TopK.Candidate<String>> elements = candidates(5, 30, 7, 20, 5, 10, 7, 40, 5, 20);
+
+        List<TopK.Candidate<String>> res = top(4, TopK.KEY_DESC_ID_ASC, elements);
+
+        assertEquals(Arrays.asList("c1", "c3", "c2", "c4"), payloads(res));
+        assertEquals(Arrays.asList("c2", "c4", "c0"), payloads(top(3, TopK.KEY_ASC_ID_ASC, elements)));
+    }
+
+    @Test
+    public void elementTiedWithTheWorstRetainedShouldNotReplaceIt() {
+        //Equal under the order: the first offered is kept, as by a stable sort
+        List<TopK.Candidate<String>> elements = candidates(2, 2, 1, 1, 1, 1);
+        TopK<TopK.Candidate<String>> top = new TopK<>(2, TopK.KEY_DESC_ID_ASC);
+        assertTrue(top.offer(elements.get(0)));
+        assertTrue(top.offer(elements.get(1)));
+        assertFalse(top.offer(elements.get(2)));
+
+        assertEquals(Arrays.asList("c0", "c1"), payloads(top.toSortedList()));
+    }
+
+    @Test
+    public void kLargerThanTheInputShouldKeepEverything() {
+        List<TopK.Candidate<String>> elements = candidates(1, 1, 3, 3, 2, 2);
+
+        assertEquals(Arrays.asList("c1", "c2", "c0"), payloads(top(10, TopK.KEY_DESC_ID_ASC, elements)));
+        assertEquals(Collections.emptyList(), top(10, TopK.KEY_DESC_ID_ASC, candidates()));
+    }
+
+    @Test
+    public void zeroKShouldKeepNothing() {
+        TopK<TopK.Candidate<String>> top = new TopK<>(0, TopK.KEY_DESC_ID_ASC);
+
+        assertFalse(top.offer(new TopK.Candidate<>(1, 1, "c0")));
+        assertEquals(Collections.emptyList(), top.toSortedList());
+    }
+
+    private static List<String> payloads(List<TopK.Candidate<String>> candidates) {
+        List<String> res = new ArrayList<>();
+        for (TopK.Candidate<String> c : candidates)
+            res.add(c.payload);
+        return res;
+    }
+}
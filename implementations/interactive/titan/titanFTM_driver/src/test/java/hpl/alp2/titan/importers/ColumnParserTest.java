@@ -0,0 +1,98 @@
+package hpl.alp2.titan.importers;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Values parsed from the bytes of a line must equal those of {@link TitanImporter#parseEntry(String, String)}
+ */
+public class ColumnParserTest {
+
+    @Test
+    public void idsAndNumbersShouldMatchParseEntry() throws Exception {
+        String[] longs = {"0", "1", "-1", "42", "-42", "933", "1099511627776", "32985348834375",
+                "9223372036854775807", "-9223372036854775807", "-9223372036854775808"};
+        for (String value : longs)
+            assertEquals(value, TitanImporter.parseEntry(value, "Long"), parseColumn(ColumnParser.LONG, value));
+
+        String[] ints = {"0", "1", "-1", "2010", "2147483647", "-2147483648"};
+        for (String value : ints)
+            assertEquals(value, TitanImporter.parseEntry(value, "Integer"), parseColumn(ColumnParser.INTEGER, value));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String value = Long.toString(random.nextLong());
+            assertEquals(value, TitanImporter.parseEntry(value, "Long"), parseColumn(ColumnParser.LONG, value));
+        }
+    }
+
+    @Test
+    public void malformedNumbersShouldBeRejected() throws Exception {
+        for (String value : new String[]{"", "-", "12a", "1.5", " 1"}) {
+            try {
+                parseColumn(ColumnParser.LONG, value);
+                fail("Parsed malformed number '" + value + "'");
+            } catch (NumberFormatException e) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void stringsShouldMatchParseEntry() throws Exception {
+        for (String value : new String[]{"", "Zürich", "Jun", "Internet_Explorer", "李", "a b c"}) {
+            assertEquals(TitanImporter.parseEntry(value, "String"), parseColumn(ColumnParser.STRING, value));
+        }
+    }
+
+    @Test
+    public void isoDatesShouldMatchParseEntry() throws Exception {
+        String[] dates = {"1970-01-01", "1980-02-29", "1989-12-31", "2000-02-29", "2010-01-01", "2012-12-31",
+                "2010-03-24T07:46:57.913+0000", "2012-09-13T23:59:59.999+0000", "2011-01-01T00:00:00.000+0000",
+                "1969-12-31T23:59:59.999+0000", "2010-06-15T12:30:00.001+0130", "2010-06-15T12:30:00.001-0500"};
+        for (String value : dates)
+            assertEquals(value, TitanImporter.parseEntry(value, "Date"), parseColumn(ColumnParser.DATE, value));
+    }
+
+    @Test
+    public void randomIsoDatesShouldMatchParseEntry() throws Exception {
+        Random random = new Random(42);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        SimpleDateFormat dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+        String[] zones = {"UTC", "Europe/Budapest", "America/Los_Angeles", "Asia/Kolkata"};
+        long from = dateFormat.parse("1900-01-01").getTime();
+        long to = dateFormat.parse("2100-01-01").getTime();
+        for (int i = 0; i < 10000; i++) {
+            Date date = new Date(from + (long) (random.nextDouble() * (to - from)));
+            //date times are written in any zone, dates in the default time zone, as TitanImporter reads them
+            dateTimeFormat.setTimeZone(TimeZone.getTimeZone(zones[random.nextInt(zones.length)]));
+            String value = random.nextBoolean() ? dateFormat.format(date) : dateTimeFormat.format(date);
+            assertEquals(value, TitanImporter.parseEntry(value, "Date"), parseColumn(ColumnParser.DATE, value));
+        }
+    }
+
+    @Test
+    public void parserShouldBeResolvedFromSchemaClass() {
+        assertSame(ColumnParser.STRING, ColumnParser.forClass(String.class));
+        assertSame(ColumnParser.STRING, ColumnParser.forClass(java.util.Arrays.class));
+        assertSame(ColumnParser.INTEGER, ColumnParser.forClass(Integer.class));
+        assertSame(ColumnParser.LONG, ColumnParser.forClass(Long.class));
+        assertSame(ColumnParser.DATE, ColumnParser.forClass(Date.class));
+    }
+
+    /**
+     * Parses value as the middle column of a line, as the importer does
+     */
+    private static Object parseColumn(ColumnParser parser, String value) throws Exception {
+        byte[] prefix = "1234|".getBytes(ColumnParser.UTF8);
+        byte[] column = value.getBytes(ColumnParser.UTF8);
+        byte[] line = (new String(prefix, ColumnParser.UTF8) + value + "|tail").getBytes(ColumnParser.UTF8);
+        return parser.parse(line, prefix.length, prefix.length + column.length);
+    }
+}
@@ -0,0 +1,104 @@
+package hpl.alp2.titan.importers;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.thinkaurelius.titan.core.TitanProperty;
+import com.thinkaurelius.titan.core.TitanVertex;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Loads the fixture in src/test/resources/importer with the single threaded and the parallel importer and
+ * compares the resulting graphs.
+ */
+public class ImporterEquivalenceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parallelImporterShouldLoadTheSameGraphAsTheSerialImporter() throws Exception {
+        File fixture = fixture();
+        List<String> serial = load(new TitanImporter(), fixture);
+        //More threads than files of a type and batches smaller than a file
+        List<String> parallel = load(new ParallelTitanImporter(4, 2), fixture);
+
+        assertEquals(serial, parallel);
+        //4 places, 4 persons, 2 isPartOf, 3 knows and 4 isLocatedIn edges
+        assertEquals(8 + 2 + 3 + 4, serial.size());
+    }
+
+    private File fixture() throws URISyntaxException {
+        return new File(getClass().getClassLoader().getResource("importer").toURI());
+    }
+
+    /**
+     * @return sorted descriptions of the vertices and edges loaded by the importer
+     */
+    private List<String> load(TitanImporter importer, File dir) throws Exception {
+        importer.init(conf().getPath(), WorkloadEnum.INTERACTIVE);
+        try {
+            assertTrue(importer.importData(dir));
+            return describe(importer.getGraph());
+        } finally {
+            importer.shutdown();
+        }
+    }
+
+    private File conf() throws IOException {
+        File storage = folder.newFolder();
+        File conf = new File(storage, "importer.conf");
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(conf), StandardCharsets.UTF_8)) {
+            w.write("storage.backend=berkeleyje\n");
+            w.write("storage.directory=" + new File(storage, "graph").getAbsolutePath() + "\n");
+            w.write("storage.batch-loading=true\n");
+            w.write("schema.default=none\n");
+            w.write("index.search.backend=lucene\n");
+            w.write("index.search.directory=" + new File(storage, "searchindex").getAbsolutePath() + "\n");
+        }
+        return conf;
+    }
+
+    private static List<String> describe(TitanGraph g) {
+        List<String> res = new ArrayList<>();
+        for (Vertex v : g.getVertices()) {
+            TreeMap<String, List<String>> props = new TreeMap<>();
+            for (TitanProperty p : ((TitanVertex) v).getProperties()) {
+                String key = p.getPropertyKey().getName();
+                if (!props.containsKey(key))
+                    props.put(key, new ArrayList<String>());
+                props.get(key).add(String.valueOf(p.getValue()));
+            }
+            for (List<String> values : props.values())
+                Collections.sort(values);
+            res.add(((TitanVertex) v).getLabel() + props);
+        }
+        for (Edge e : g.getEdges()) {
+            TreeMap<String, Object> props = new TreeMap<>();
+            for (String key : e.getPropertyKeys())
+                props.put(key, e.getProperty(key));
+            res.add(e.getVertex(Direction.OUT).getProperty(IdGraph.ID) + "-" + e.getLabel() + props + "->"
+                    + e.getVertex(Direction.IN).getProperty(IdGraph.ID));
+        }
+        Collections.sort(res);
+        return res;
+    }
+}
@@ -0,0 +1,40 @@
+package hpl.alp2.titan.importers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ImporterOptionsTest {
+
+    @Test
+    public void serialImporterShouldBeTheDefault() {
+        TitanImporter importer = ImporterOptions.createImporter(Collections.<String>emptyList());
+        assertEquals(TitanImporter.class, importer.getClass());
+    }
+
+    @Test
+    public void parallelImporterShouldBeOptIn() {
+        TitanImporter importer = ImporterOptions.createImporter(Arrays.asList("-parallel", "-threads", "2", "-batchSize", "500"));
+        assertEquals(ParallelTitanImporter.class, importer.getClass());
+        assertEquals(ParallelTitanImporter.class,
+                ImporterOptions.createImporter(Arrays.asList("-threads", "2", "-PARALLEL")).getClass());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelOptionsShouldRequireParallel() {
+        ImporterOptions.createImporter(Arrays.asList("-threads", "2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void countsShouldBePositive() {
+        ImporterOptions.createImporter(Arrays.asList("-parallel", "-batchSize", "0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownOptionsShouldBeRejected() {
+        ImporterOptions.createImporter(Arrays.asList("-serial"));
+    }
+}
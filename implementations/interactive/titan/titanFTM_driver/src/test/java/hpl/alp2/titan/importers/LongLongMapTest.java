@@ -0,0 +1,91 @@
+package hpl.alp2.titan.importers;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongLongMapTest {
+    private static final long MISSING = -1;
+
+    @Test
+    public void missingKeysShouldReturnDefault() {
+        LongLongMap map = new LongLongMap(16);
+        assertEquals(MISSING, map.get(1, MISSING));
+        map.put(1, 10);
+        assertEquals(10, map.get(1, MISSING));
+        assertEquals(MISSING, map.get(2, MISSING));
+        assertEquals(MISSING, map.get(0, MISSING));
+        assertEquals(MISSING, map.get(Long.MIN_VALUE, MISSING));
+    }
+
+    @Test
+    public void putShouldReplaceExistingValue() {
+        LongLongMap map = new LongLongMap(16);
+        map.put(7, 1);
+        map.put(7, 2);
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(7, MISSING));
+    }
+
+    @Test
+    public void extremeKeysShouldBeSupported() {
+        LongLongMap map = new LongLongMap(16);
+        long[] keys = {0, -1, 1, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        for (int i = 0; i < keys.length; i++)
+            map.put(keys[i], i);
+        for (int i = 0; i < keys.length; i++)
+            assertEquals(i, map.get(keys[i], MISSING));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedKeyShouldBeRejected() {
+        new LongLongMap(16).put(Long.MIN_VALUE, 1);
+    }
+
+    /**
+     * Starting from the smallest capacity the map resizes many times, and keys sharing their lowest bits,
+     * as ids shifted to make room for the vertex type suffix do, collide and form long probe sequences
+     */
+    @Test
+    public void collidingKeysShouldSurviveResizes() {
+        LongLongMap map = new LongLongMap(1);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            long key = (random.nextInt(1000000) * 100L + 3) * (random.nextBoolean() ? 1 : -1);
+            long value = random.nextLong();
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet())
+            assertEquals((long) entry.getValue(), map.get(entry.getKey(), MISSING));
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(1000000) * 100L + 4;
+            assertEquals(MISSING, map.get(key, MISSING));
+        }
+    }
+
+    @Test
+    public void putAllShouldCopyEntries() {
+        LongLongMap first = new LongLongMap(4);
+        LongLongMap second = new LongLongMap(4);
+        for (long i = 0; i < 100; i++) {
+            first.put(i, i * 2);
+            second.put(i + 50, i * 3);
+        }
+        LongLongMap merged = new LongLongMap(first.size() + second.size());
+        merged.putAll(first);
+        merged.putAll(second);
+        assertEquals(150, merged.size());
+        assertEquals(0, merged.get(0, MISSING));
+        assertEquals(49 * 2, merged.get(49, MISSING));
+        assertEquals(0, merged.get(50, MISSING));
+        assertEquals(99 * 3, merged.get(149, MISSING));
+        assertEquals(MISSING, merged.get(150, MISSING));
+    }
+}
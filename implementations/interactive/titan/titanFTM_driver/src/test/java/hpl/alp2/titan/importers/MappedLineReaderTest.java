@@ -0,0 +1,84 @@
+package hpl.alp2.titan.importers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappedLineReaderTest {
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("mappedLineReader", ".csv");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void emptyFileShouldHaveNoLines() throws IOException {
+        assertEquals(new ArrayList<String>(), readLines("", 4));
+    }
+
+    @Test
+    public void lastLineWithoutNewlineShouldBeRead() throws IOException {
+        assertEquals(Arrays.asList("id|name", "1|a", "2|b"), readLines("id|name\n1|a\n2|b", 1024));
+        assertEquals(Arrays.asList("id|name", "1|a", "2|b"), readLines("id|name\n1|a\n2|b\n", 1024));
+        assertEquals(Arrays.asList("x"), readLines("x", 1024));
+    }
+
+    @Test
+    public void carriageReturnsAndEmptyLinesShouldBeHandled() throws IOException {
+        assertEquals(Arrays.asList("a", "", "b", "c"), readLines("a\r\n\r\nb\r\nc\r", 1024));
+        assertEquals(Arrays.asList("", "a", ""), readLines("\na\n\n", 1024));
+    }
+
+    /**
+     * Every window size splits lines, carriage returns and multi byte characters at a different position
+     */
+    @Test
+    public void linesSpanningWindowBoundariesShouldBeRead() throws IOException {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 3000; i++)
+            longLine.append((char) ('a' + i % 26));
+        List<String> lines = Arrays.asList("id|firstName|lastName", "933|Mahinda|Perera", "", "1129|Zürich|李",
+                longLine.toString(), "4398046511139|Ivan|Ignatenko");
+        StringBuilder content = new StringBuilder();
+        for (String line : lines)
+            content.append(line).append("\r\n");
+        content.append("last|line");
+        List<String> expected = new ArrayList<>(lines);
+        expected.add("last|line");
+
+        for (int windowSize = 1; windowSize <= 40; windowSize++)
+            assertEquals("window size " + windowSize, expected, readLines(content.toString(), windowSize));
+        assertEquals(expected, readLines(content.toString(), 4096));
+    }
+
+    private List<String> readLines(String content, long windowSize) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(ColumnParser.UTF8));
+        }
+        List<String> lines = new ArrayList<>();
+        try (MappedLineReader reader = new MappedLineReader(file, windowSize)) {
+            while (reader.next()) {
+                assertEquals(reader.asString(),
+                        new String(reader.bytes(), 0, reader.length(), ColumnParser.UTF8));
+                lines.add(reader.asString());
+            }
+            assertFalse(reader.next());
+        }
+        return lines;
+    }
+}